@@ -2,6 +2,7 @@ plugins {
 	java
 	id("org.springframework.boot") version "3.2.5"
 	id("io.spring.dependency-management") version "1.1.4"
+	id("me.champeau.jmh") version "0.7.2"
 }
 // fast1dev
 group = "exotic-app"
@@ -85,6 +86,11 @@ tasks.withType<Test> {
 	useJUnitPlatform()
 }
 
+// microbenchmarks en src/jmh (./gradlew jmh)
+jmh {
+	jmhVersion.set("1.37")
+}
+
 tasks.register<Test>("transaccionesAlmacenLocalTest") {
 	group = "verification"
 	description = "Runs the local integration suite that protects the frontend TransaccionesAlmacen module."
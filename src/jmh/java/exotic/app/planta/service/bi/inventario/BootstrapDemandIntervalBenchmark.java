@@ -0,0 +1,101 @@
+package exotic.app.planta.service.bi.inventario;
+
+import exotic.app.planta.service.commons.CalculoParalelo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara el cálculo por lotes contra la implementación anterior (un material a la vez,
+ * un solo hilo y ordenamiento completo de las medias).
+ *
+ * <p>Ejecutar con {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BootstrapDemandIntervalBenchmark {
+
+    @Param({"50", "500"})
+    private int materials;
+
+    @Param({"30", "90"})
+    private int windowDays;
+
+    private List<BootstrapDemandIntervalCalculator.DemandSeries> series;
+    private CalculoParalelo calculoParalelo;
+    private BootstrapDemandIntervalCalculator calculator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(2026L);
+        series = new ArrayList<>(materials);
+        for (int index = 0; index < materials; index++) {
+            double[] dailyDemand = new double[windowDays];
+            for (int day = 0; day < windowDays; day++) {
+                dailyDemand[day] = random.nextInt(3) == 0 ? random.nextDouble(50) : 0;
+            }
+            series.add(new BootstrapDemandIntervalCalculator.DemandSeries(dailyDemand, index));
+        }
+        calculoParalelo = new CalculoParalelo();
+        calculator = new BootstrapDemandIntervalCalculator(calculoParalelo);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        calculoParalelo.shutdown();
+    }
+
+    @Benchmark
+    public List<BootstrapDemandIntervalCalculator.DemandMeanInterval> batchEngine() {
+        return calculator.calculateAll(series);
+    }
+
+    @Benchmark
+    public List<BootstrapDemandIntervalCalculator.DemandMeanInterval> previousSequentialSort() {
+        List<BootstrapDemandIntervalCalculator.DemandMeanInterval> results =
+                new ArrayList<>(series.size());
+        for (BootstrapDemandIntervalCalculator.DemandSeries current : series) {
+            results.add(previousCalculate(current.dailyDemand(), current.seed()));
+        }
+        return results;
+    }
+
+    private static BootstrapDemandIntervalCalculator.DemandMeanInterval previousCalculate(
+            double[] dailyDemand,
+            long seed
+    ) {
+        SplittableRandom random = new SplittableRandom(seed);
+        double[] sampledMeans = new double[2_000];
+        for (int sampleIndex = 0; sampleIndex < sampledMeans.length; sampleIndex++) {
+            double sampledSum = 0;
+            for (int dayIndex = 0; dayIndex < dailyDemand.length; dayIndex++) {
+                sampledSum += dailyDemand[random.nextInt(dailyDemand.length)];
+            }
+            sampledMeans[sampleIndex] = sampledSum / dailyDemand.length;
+        }
+        Arrays.sort(sampledMeans);
+        return new BootstrapDemandIntervalCalculator.DemandMeanInterval(
+                sampledMeans[49],
+                sampledMeans[1_949]);
+    }
+}
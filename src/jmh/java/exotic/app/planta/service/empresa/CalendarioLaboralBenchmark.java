@@ -0,0 +1,169 @@
+package exotic.app.planta.service.empresa;
+
+import exotic.app.planta.model.empresa.JornadaLaboralBloque;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara sumar minutos laborables con el calendario compilado contra la implementacion
+ * anterior de la estimacion de rutas, que recorria los bloques dia por dia. Jornada de lunes a
+ * viernes en dos bloques; las duraciones van de minutos a varias semanas.
+ *
+ * <p>Ejecutar con {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CalendarioLaboralBenchmark {
+
+    private static final int SUMAS = 1_000;
+
+    @Param({"240", "7200"})
+    private int minutosMaximos;
+
+    private CalendarioLaboral calendario;
+    private Map<Integer, List<JornadaLaboralBloque>> bloquesPorDia;
+    private LocalDateTime[] inicios;
+    private long[] minutos;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<JornadaLaboralBloque> bloques = new ArrayList<>();
+        for (int dia = 1; dia <= 5; dia++) {
+            bloques.add(bloque(dia, LocalTime.of(7, 0), LocalTime.of(12, 0)));
+            bloques.add(bloque(dia, LocalTime.of(13, 0), LocalTime.of(17, 0)));
+        }
+        calendario = CalendarioLaboral.compilar(1L, bloques, List.of());
+        bloquesPorDia = new HashMap<>();
+        for (JornadaLaboralBloque bloque : bloques) {
+            bloquesPorDia.computeIfAbsent(bloque.getDiaSemana(), ignored -> new ArrayList<>()).add(bloque);
+        }
+        bloquesPorDia.values().forEach(porDia -> porDia.sort(Comparator.comparing(JornadaLaboralBloque::getHoraInicio)));
+
+        SplittableRandom random = new SplittableRandom(2026L);
+        LocalDateTime base = LocalDate.of(2026, 6, 29).atStartOfDay();
+        inicios = new LocalDateTime[SUMAS];
+        minutos = new long[SUMAS];
+        for (int i = 0; i < SUMAS; i++) {
+            inicios[i] = base.plusMinutes(random.nextInt(28 * 24 * 60));
+            minutos[i] = 1 + random.nextInt(minutosMaximos);
+        }
+    }
+
+    @Benchmark
+    public LocalDateTime compilado() {
+        LocalDateTime ultimo = null;
+        for (int i = 0; i < SUMAS; i++) {
+            ultimo = calendario.sumarMinutos(inicios[i], minutos[i], true);
+        }
+        return ultimo;
+    }
+
+    @Benchmark
+    public LocalDateTime previousDiaPorDia() {
+        LocalDateTime ultimo = null;
+        for (int i = 0; i < SUMAS; i++) {
+            ultimo = previousAddWorkingMinutes(inicios[i], minutos[i], bloquesPorDia);
+        }
+        return ultimo;
+    }
+
+    private static LocalDateTime previousAddWorkingMinutes(
+            LocalDateTime start,
+            long minutes,
+            Map<Integer, List<JornadaLaboralBloque>> bloquesPorDia
+    ) {
+        LocalDateTime current = start;
+        long remaining = minutes;
+        while (remaining > 0) {
+            current = previousMoveToWorkingTime(current, bloquesPorDia);
+            LocalDateTime blockEnd = previousCurrentBlockEnd(current, bloquesPorDia);
+            if (blockEnd == null) {
+                return current.plusMinutes(remaining);
+            }
+            long available = Math.max(Duration.between(current, blockEnd).toMinutes(), 0);
+            if (available <= 0) {
+                current = current.plusMinutes(1);
+                continue;
+            }
+            long consumed = Math.min(remaining, available);
+            current = current.plusMinutes(consumed);
+            remaining -= consumed;
+        }
+        return current;
+    }
+
+    private static LocalDateTime previousMoveToWorkingTime(
+            LocalDateTime value,
+            Map<Integer, List<JornadaLaboralBloque>> bloquesPorDia
+    ) {
+        for (int offset = 0; offset <= 7; offset++) {
+            LocalDate date = value.toLocalDate().plusDays(offset);
+            List<JornadaLaboralBloque> blocks = bloquesPorDia.get(date.getDayOfWeek().getValue());
+            if (blocks == null || blocks.isEmpty()) {
+                continue;
+            }
+            for (JornadaLaboralBloque block : blocks) {
+                LocalDateTime blockStart = LocalDateTime.of(date, block.getHoraInicio());
+                LocalDateTime blockEnd = LocalDateTime.of(date, block.getHoraFin());
+                if (offset == 0 && !value.isBefore(blockStart) && value.isBefore(blockEnd)) {
+                    return value;
+                }
+                if (value.isBefore(blockStart)) {
+                    return blockStart;
+                }
+            }
+        }
+        return value;
+    }
+
+    private static LocalDateTime previousCurrentBlockEnd(
+            LocalDateTime value,
+            Map<Integer, List<JornadaLaboralBloque>> bloquesPorDia
+    ) {
+        List<JornadaLaboralBloque> blocks = bloquesPorDia.get(value.getDayOfWeek().getValue());
+        if (blocks == null) {
+            return null;
+        }
+        LocalTime time = value.toLocalTime();
+        for (JornadaLaboralBloque block : blocks) {
+            if (!time.isBefore(block.getHoraInicio()) && time.isBefore(block.getHoraFin())) {
+                return LocalDateTime.of(value.toLocalDate(), block.getHoraFin());
+            }
+        }
+        return null;
+    }
+
+    private static JornadaLaboralBloque bloque(int dia, LocalTime inicio, LocalTime fin) {
+        JornadaLaboralBloque bloque = new JornadaLaboralBloque();
+        bloque.setDiaSemana(dia);
+        bloque.setHoraInicio(inicio);
+        bloque.setHoraFin(fin);
+        return bloque;
+    }
+}
@@ -0,0 +1,145 @@
+package exotic.app.planta.service.produccion;
+
+import exotic.app.planta.model.empresa.JornadaLaboralBloque;
+import exotic.app.planta.model.empresa.JornadaLaboralVersion;
+import exotic.app.planta.model.produccion.SeguimientoOrdenArea;
+import exotic.app.planta.service.empresa.CalendarioLaboral;
+import exotic.app.planta.service.produccion.PlanCapacidadFinitaService.AreaPlan;
+import exotic.app.planta.service.produccion.PlanCapacidadFinitaService.Carga;
+import exotic.app.planta.service.produccion.PlanCapacidadFinitaService.OrdenPlan;
+import exotic.app.planta.service.produccion.PlanCapacidadFinitaService.PlanCapacidad;
+import exotic.app.planta.service.produccion.PlanCapacidadFinitaService.SeguimientoPlan;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide un plan completo con capacidad finita sobre ordenes abiertas sinteticas: rutas de cinco
+ * pasos (uno en paralelo) repartidas en ocho areas de capacidad 1 a 3, con una parte de los
+ * seguimientos ya completados o en proceso y jornada de lunes a viernes en dos bloques.
+ *
+ * <p>Ejecutar con {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlanCapacidadFinitaBenchmark {
+
+    private static final int AREAS = 8;
+    private static final int PASOS = 5;
+
+    @Param({"1000", "5000"})
+    private int ordenes;
+
+    @Param({"true", "false"})
+    private boolean conJornada;
+
+    private Carga carga;
+    private LocalDateTime ahora;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(2026L);
+        ahora = LocalDateTime.of(2026, 6, 29, 10, 0);
+
+        Map<Integer, AreaPlan> areas = new HashMap<>();
+        for (int areaId = 1; areaId <= AREAS; areaId++) {
+            areas.put(areaId, new AreaPlan(areaId, "Area " + areaId, 1 + random.nextInt(3)));
+        }
+
+        CalendarioLaboral calendario = conJornada
+                ? CalendarioLaboral.compilar(jornada())
+                : CalendarioLaboral.CONTINUO;
+
+        // Ruta: 0 -> 1 -> {2, 3} -> 4; los nodos se numeran por orden para no compartirlos.
+        Map<Long, List<Long>> predecesores = new HashMap<>();
+        Map<Long, SeguimientoPlan> seguimientos = new HashMap<>();
+        Map<Integer, OrdenPlan> ordenesPlan = new HashMap<>();
+        long seguimientoId = 0;
+        for (int ordenId = 1; ordenId <= ordenes; ordenId++) {
+            long base = (long) ordenId * PASOS;
+            predecesores.put(base + 1, List.of(base));
+            predecesores.put(base + 2, List.of(base + 1));
+            predecesores.put(base + 3, List.of(base + 1));
+            predecesores.put(base + 4, List.of(base + 2, base + 3));
+            ordenesPlan.put(ordenId, new OrdenPlan(
+                    ordenId,
+                    "L-" + ordenId,
+                    ahora.minusDays(random.nextInt(10)),
+                    random.nextInt(5) == 0 ? null : ahora.plusDays(random.nextInt(30)),
+                    calendario));
+
+            int avance = random.nextInt(PASOS);
+            for (int paso = 0; paso < PASOS; paso++) {
+                int estado = paso < avance
+                        ? SeguimientoOrdenArea.ESTADO_COMPLETADO
+                        : paso == avance && random.nextInt(4) == 0
+                                ? SeguimientoOrdenArea.ESTADO_EN_PROCESO
+                                : SeguimientoOrdenArea.ESTADO_COLA;
+                seguimientos.put(++seguimientoId, new SeguimientoPlan(
+                        seguimientoId,
+                        ordenId,
+                        base + paso,
+                        1L,
+                        1 + random.nextInt(AREAS),
+                        estado,
+                        paso,
+                        30 + random.nextInt(240),
+                        true,
+                        ahora.minusHours(random.nextInt(48)),
+                        estado == SeguimientoOrdenArea.ESTADO_COMPLETADO ? ahora.minusHours(1) : null));
+            }
+        }
+
+        carga = new Carga(seguimientos, ordenesPlan, areas, predecesores, Set.of(1L));
+    }
+
+    @Benchmark
+    public PlanCapacidad planCompleto() {
+        return PlanCapacidadFinitaService.planificar(carga, ahora);
+    }
+
+    private static JornadaLaboralVersion jornada() {
+        JornadaLaboralVersion version = new JornadaLaboralVersion();
+        List<JornadaLaboralBloque> bloques = new ArrayList<>();
+        for (int dia = 1; dia <= 5; dia++) {
+            bloques.add(bloque(version, dia, 0, LocalTime.of(7, 0), LocalTime.of(12, 0)));
+            bloques.add(bloque(version, dia, 1, LocalTime.of(13, 0), LocalTime.of(17, 0)));
+        }
+        version.setBloques(bloques);
+        return version;
+    }
+
+    private static JornadaLaboralBloque bloque(
+            JornadaLaboralVersion version, int dia, int orden, LocalTime inicio, LocalTime fin) {
+        JornadaLaboralBloque bloque = new JornadaLaboralBloque();
+        bloque.setJornadaLaboralVersion(version);
+        bloque.setDiaSemana(dia);
+        bloque.setOrden(orden);
+        bloque.setHoraInicio(inicio);
+        bloque.setHoraFin(fin);
+        return bloque;
+    }
+}
@@ -0,0 +1,92 @@
+package exotic.app.planta.service.productos;
+
+import exotic.app.planta.service.productos.RecetaCostosGrafoIndex.AristaReceta;
+import exotic.app.planta.service.productos.RecetaCostosGrafoIndex.GrafoIndexado;
+import exotic.app.planta.service.productos.RecetaCostosGrafoIndex.RevisionClave;
+import exotic.app.planta.service.productos.RecetaCostosGrafoIndex.SubgrafoRecetas;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide la resolucion del subgrafo de un plan de propagacion de costos sobre un catalogo
+ * sintetico (materiales, semiterminados de 8 materiales y terminados de 3 semiterminados y
+ * 5 materiales) y la reconstruccion completa del indice tras un cambio de receta.
+ *
+ * <p>Ejecutar con {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecetaCostosGrafoBenchmark {
+
+    @Param({"2000", "20000"})
+    private int materiales;
+
+    @Param({"300"})
+    private int raices;
+
+    private List<AristaReceta> aristas;
+    private GrafoIndexado indice;
+    private Set<String> raicesCambiadas;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(2026L);
+        int semiterminados = materiales / 2;
+        int terminados = materiales;
+        aristas = new ArrayList<>();
+        int insumoId = 0;
+        for (int semi = 0; semi < semiterminados; semi++) {
+            for (int linea = 0; linea < 8; linea++) {
+                aristas.add(new AristaReceta(++insumoId, "M" + random.nextInt(materiales), "S" + semi,
+                        1 + random.nextDouble(10)));
+            }
+        }
+        for (int terminado = 0; terminado < terminados; terminado++) {
+            for (int linea = 0; linea < 3; linea++) {
+                aristas.add(new AristaReceta(++insumoId, "S" + random.nextInt(semiterminados), "T" + terminado,
+                        1 + random.nextDouble(3)));
+            }
+            for (int linea = 0; linea < 5; linea++) {
+                aristas.add(new AristaReceta(++insumoId, "M" + random.nextInt(materiales), "T" + terminado,
+                        random.nextDouble(1)));
+            }
+        }
+        indice = RecetaCostosGrafoIndex.construir(new RevisionClave(1, null), aristas);
+
+        raicesCambiadas = new LinkedHashSet<>();
+        while (raicesCambiadas.size() < raices) {
+            raicesCambiadas.add("M" + random.nextInt(materiales));
+        }
+    }
+
+    @Benchmark
+    public SubgrafoRecetas resolverSubgrafo() {
+        return indice.alcanzados(raicesCambiadas);
+    }
+
+    @Benchmark
+    public GrafoIndexado reconstruirIndice() {
+        return RecetaCostosGrafoIndex.construir(new RevisionClave(2, null), aristas);
+    }
+}
@@ -0,0 +1,53 @@
+package exotic.app.planta.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Timeout asincrono propio para las exportaciones Excel en streaming. El resto de respuestas
+ * asincronas conserva {@code spring.mvc.async.request-timeout}; solo las peticiones marcadas con
+ * {@link #extenderTimeout()} reciben {@code app.exportaciones.timeout-ms}, porque un rango amplio
+ * puede tardar varios minutos en volcarse.
+ */
+@Configuration
+public class ExportacionAsyncConfig implements WebMvcConfigurer {
+
+    private static final String ATRIBUTO_EXPORTACION = ExportacionAsyncConfig.class.getName() + ".exportacion";
+
+    @Value("${app.exportaciones.timeout-ms:300000}")
+    private long timeoutMs;
+
+    /**
+     * Marca la peticion en curso como exportacion larga. Se llama desde el controlador antes de
+     * devolver el {@code StreamingResponseBody}.
+     */
+    public static void extenderTimeout() {
+        RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+        if (atributos != null) {
+            atributos.setAttribute(ATRIBUTO_EXPORTACION, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new CallableProcessingInterceptor() {
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                // Corre antes de startAsync, que es cuando el timeout se aplica al AsyncContext.
+                if (request instanceof AsyncWebRequest asyncRequest
+                        && request.getAttribute(ATRIBUTO_EXPORTACION, RequestAttributes.SCOPE_REQUEST) != null) {
+                    asyncRequest.setTimeout(timeoutMs);
+                }
+            }
+        });
+    }
+}
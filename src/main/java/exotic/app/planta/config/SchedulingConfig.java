@@ -1,5 +1,6 @@
 package exotic.app.planta.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.SchedulingConfigurer;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
@@ -7,14 +8,20 @@ import org.springframework.scheduling.config.ScheduledTaskRegistrar;
 
 /**
  * Pool dedicado y acotado para {@code @Scheduled}: no compite con el pool de hilos HTTP de Tomcat.
+ * Tiene varios hilos para que un trabajo largo (cierre nocturno, replaneacion) no retrase los
+ * ticks cortos de los tableros; los envios SSE no corren aqui sino en el
+ * {@link exotic.app.planta.service.commons.sse.SseDifusor}.
  */
 @Configuration
 public class SchedulingConfig implements SchedulingConfigurer {
 
+    @Value("${app.scheduling.pool-size:4}")
+    private int poolSize;
+
     @Override
     public void configureTasks(ScheduledTaskRegistrar registrar) {
         ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
-        scheduler.setPoolSize(1);
+        scheduler.setPoolSize(poolSize);
         scheduler.setThreadNamePrefix("scheduler-");
         scheduler.setWaitForTasksToCompleteOnShutdown(true);
         scheduler.initialize();
@@ -17,6 +17,7 @@ public class AreaOperativaResponseDTO {
     private Integer areaId;
     private String nombre;
     private String descripcion;
+    private Integer capacidadOrdenesSimultaneas;
     private ResponsableAreaDTO responsableArea;
 
     @Builder.Default
@@ -1,5 +1,6 @@
 package exotic.app.planta.dto;
 
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
@@ -24,6 +25,10 @@ public class AreaProduccionDTO {
 
     private String descripcion;
 
+    /** Si no se envia se conserva la capacidad actual (1 para areas nuevas). */
+    @Min(value = 1, message = "La capacidad del area debe ser al menos 1")
+    private Integer capacidadOrdenesSimultaneas;
+
     @NotNull(message = "El responsable del area no puede ser nulo")
     private Long responsableId;
 
@@ -0,0 +1,36 @@
+package exotic.app.planta.model.bi.dto;
+
+import exotic.app.planta.model.inventarios.CausaAjusteInventario;
+import exotic.app.planta.model.inventarios.Movimiento;
+import exotic.app.planta.model.inventarios.TransaccionAlmacen;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Fila plana de un movimiento de almacén para exportaciones. Se proyecta directamente
+ * en la consulta, sin cargar entidades, para poder recorrer rangos grandes con un cursor.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovimientoAlmacenRowDTO {
+
+    private LocalDateTime fechaMovimiento;
+    private String productoId;
+    private String productoNombre;
+    private Double cantidad;
+    private String unidad;
+    private Movimiento.TipoMovimiento tipoMovimiento;
+    private Movimiento.Almacen almacen;
+    private Integer transaccionId;
+    private TransaccionAlmacen.TipoEntidadCausante tipoEntidadCausante;
+    private Integer idEntidadCausante;
+    private CausaAjusteInventario causaAjuste;
+    private String observaciones;
+    private String batchNumber;
+}
@@ -0,0 +1,33 @@
+package exotic.app.planta.model.bi.dto;
+
+import exotic.app.planta.model.inventarios.CausaAjusteInventario;
+import exotic.app.planta.model.inventarios.Movimiento;
+import exotic.app.planta.model.inventarios.TransaccionAlmacen;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección mínima de un movimiento para los agregados BI de inventario. El producto
+ * viaja solo como identificador; quien recorre el cursor resuelve el catálogo aparte.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovimientoBiRowDTO {
+
+    private Integer movimientoId;
+    private LocalDateTime fechaMovimiento;
+    private Double cantidad;
+    private Movimiento.TipoMovimiento tipoMovimiento;
+    private Movimiento.Almacen almacen;
+    private Boolean afectaInventario;
+    private String productoId;
+    private Integer transaccionId;
+    private TransaccionAlmacen.TipoEntidadCausante tipoEntidadCausante;
+    private CausaAjusteInventario causaAjuste;
+}
@@ -30,5 +30,8 @@ public class PuntoReordenEstimadoDTO {
     private Integer observacionesLeadTime;
     private Integer proveedoresObservados;
     private Integer confianzaGlobal;
+    /** Intervalo bootstrap del 95% para la demanda diaria promedio. */
+    private Double demandaDiariaPromedioMin;
+    private Double demandaDiariaPromedioMax;
 
 }
@@ -0,0 +1,8 @@
+package exotic.app.planta.model.commons.notificaciones;
+
+/**
+ * Se publica cuando se escribe una entidad de la que dependen las notificaciones (movimientos,
+ * materiales, OCM, transacciones de almacen). Solo lleva el tipo de la entidad: cada consumidor
+ * decide que tipos le afectan, de modo que un consumidor nuevo no obliga a cambiar el evento.
+ */
+public record NotificacionCambioEvent(Class<?> origen) {}
@@ -0,0 +1,28 @@
+package exotic.app.planta.model.commons.notificaciones;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Listener JPA de {@code Movimiento}, {@code Material}, {@code OrdenCompraMateriales} y
+ * {@code TransaccionAlmacen}. Cubre cualquier ruta que escriba esas entidades por el
+ * EntityManager sin tener que instrumentar cada servicio; Hibernate lo obtiene del contexto
+ * de Spring.
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificacionCambioListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onCambio(Object entidad) {
+        eventPublisher.publishEvent(new NotificacionCambioEvent(entidad.getClass()));
+    }
+}
@@ -3,6 +3,7 @@ package exotic.app.planta.model.compras;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import exotic.app.planta.model.commons.notificaciones.NotificacionCambioListener;
 import exotic.app.planta.model.empresa.EmpresaIdentidadLegalVersion;
 import exotic.app.planta.model.empresa.EmpresaLogoDocumentalVersion;
 import exotic.app.planta.model.users.User;
@@ -26,6 +27,7 @@ import java.util.List;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
+@EntityListeners(NotificacionCambioListener.class)
 public class OrdenCompraMateriales {
 
     @Id
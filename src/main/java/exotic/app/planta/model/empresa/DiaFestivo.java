@@ -0,0 +1,46 @@
+package exotic.app.planta.model.empresa;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Dia festivo del catalogo. Si cae en un dia con bloques de jornada, el calendario laboral no
+ * cuenta ese dia como tiempo laborable.
+ */
+@Entity
+@Table(name = "dia_festivo")
+@EntityListeners(DiaFestivoCambioListener.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DiaFestivo {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true)
+    private LocalDate fecha;
+
+    @Column(length = 200)
+    private String descripcion;
+
+    @Column(name = "creado_en", nullable = false)
+    private LocalDateTime creadoEn;
+
+    @Column(name = "creado_por", length = 120)
+    private String creadoPor;
+}
@@ -0,0 +1,6 @@
+package exotic.app.planta.model.empresa;
+
+/**
+ * Se publica cuando se agrega o se elimina un {@link DiaFestivo} del catalogo.
+ */
+public record DiaFestivoCambioEvent(Long diaFestivoId) {}
@@ -0,0 +1,26 @@
+package exotic.app.planta.model.empresa;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Listener JPA de {@link DiaFestivo}: avisa a los calendarios compilados cuando cambia el catalogo
+ * de festivos.
+ */
+@Component
+@RequiredArgsConstructor
+public class DiaFestivoCambioListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onCambio(DiaFestivo festivo) {
+        eventPublisher.publishEvent(new DiaFestivoCambioEvent(festivo.getId()));
+    }
+}
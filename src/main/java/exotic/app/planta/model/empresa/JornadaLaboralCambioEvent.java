@@ -0,0 +1,7 @@
+package exotic.app.planta.model.empresa;
+
+/**
+ * Se publica cuando se guarda una {@link JornadaLaboralVersion}: una version nueva o el retiro
+ * de la vigente.
+ */
+public record JornadaLaboralCambioEvent(Long jornadaLaboralVersionId) {}
@@ -0,0 +1,24 @@
+package exotic.app.planta.model.empresa;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Listener JPA de {@link JornadaLaboralVersion}: avisa a los calendarios compilados cuando cambia
+ * la jornada vigente.
+ */
+@Component
+@RequiredArgsConstructor
+public class JornadaLaboralCambioListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    public void onCambio(JornadaLaboralVersion jornada) {
+        eventPublisher.publishEvent(new JornadaLaboralCambioEvent(jornada.getId()));
+    }
+}
@@ -3,6 +3,7 @@ package exotic.app.planta.model.empresa;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
@@ -22,6 +23,7 @@ import java.util.List;
 
 @Entity
 @Table(name = "jornada_laboral_version")
+@EntityListeners(JornadaLaboralCambioListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
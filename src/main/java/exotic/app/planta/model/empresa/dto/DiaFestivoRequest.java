@@ -0,0 +1,17 @@
+package exotic.app.planta.model.empresa.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+public class DiaFestivoRequest {
+
+    @NotNull
+    private LocalDate fecha;
+
+    @Size(max = 200)
+    private String descripcion;
+}
@@ -0,0 +1,29 @@
+package exotic.app.planta.model.empresa.dto;
+
+import exotic.app.planta.model.empresa.DiaFestivo;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class DiaFestivoResponse {
+
+    private Long id;
+    private LocalDate fecha;
+    private String descripcion;
+    private LocalDateTime creadoEn;
+    private String creadoPor;
+
+    public static DiaFestivoResponse fromEntity(DiaFestivo festivo) {
+        return DiaFestivoResponse.builder()
+                .id(festivo.getId())
+                .fecha(festivo.getFecha())
+                .descripcion(festivo.getDescripcion())
+                .creadoEn(festivo.getCreadoEn())
+                .creadoPor(festivo.getCreadoPor())
+                .build();
+    }
+}
@@ -2,6 +2,7 @@ package exotic.app.planta.model.inventarios;
 
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import exotic.app.planta.model.commons.notificaciones.NotificacionCambioListener;
 import exotic.app.planta.model.organizacion.AreaOperativa;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
@@ -26,6 +27,7 @@ import java.time.LocalDateTime;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
+@EntityListeners(NotificacionCambioListener.class)
 public class Movimiento {
 
     @Id
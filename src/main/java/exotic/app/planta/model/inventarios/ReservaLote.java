@@ -0,0 +1,61 @@
+package exotic.app.planta.model.inventarios;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Reserva temporal de saldo de un lote en un almacén, creada al asignar lotes en
+ * dispensación V2. Todas las reservas de una misma asignación comparten {@code token} y
+ * pertenecen al usuario que la hizo ({@code usuarioId}); la finalización las consume y, si
+ * no llega, dejan de contar en {@code expiraEn}.
+ *
+ * <p>Solo es una marca de intención: la protección contra doble asignación la da el
+ * bloqueo de fila sobre {@link SaldoInventario} al reservar y al finalizar.
+ */
+@Entity
+@Table(name = "reserva_lote")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservaLote {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "reserva_id")
+    private Long reservaId;
+
+    @Column(nullable = false, length = 36)
+    private String token;
+
+    @Column(name = "usuario_id", nullable = false)
+    private Long usuarioId;
+
+    @Column(name = "producto_id", nullable = false)
+    private String productoId;
+
+    @Column(nullable = false)
+    private Movimiento.Almacen almacen;
+
+    @Column(name = "lote_id", nullable = false)
+    private Long loteId;
+
+    @Column(nullable = false)
+    private double cantidad;
+
+    @Column(name = "creada_en", nullable = false)
+    private LocalDateTime creadaEn;
+
+    @Column(name = "expira_en", nullable = false)
+    private LocalDateTime expiraEn;
+}
@@ -0,0 +1,59 @@
+package exotic.app.planta.model.inventarios;
+
+import exotic.app.planta.model.producto.Producto;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.Synchronize;
+
+import java.time.LocalDateTime;
+
+/**
+ * Saldo materializado de inventario por producto, almacén y lote.
+ *
+ * <p>La tabla la mantiene el trigger {@code trg_movimientos_saldo_inventario}
+ * dentro de la misma transacción que inserta, modifica o elimina filas de
+ * {@link Movimiento} con {@code afectaInventario = true}. Desde JPA es de solo
+ * lectura; {@link Synchronize} garantiza que Hibernate haga flush de los
+ * movimientos pendientes antes de consultar saldos en la misma sesión.
+ *
+ * <p>Si el saldo se desviara del libro de movimientos, la conciliación nocturna
+ * lo reconstruye (ver {@code SaldoInventarioConciliacionService}).
+ */
+@Entity
+@Table(name = "saldo_inventario")
+@Immutable
+@Synchronize("movimientos")
+@Getter
+@NoArgsConstructor
+public class SaldoInventario {
+
+    @Id
+    @Column(name = "saldo_id")
+    private Long saldoId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "producto_id", nullable = false)
+    private Producto producto;
+
+    /** Almacén del saldo. Es nulo solo para movimientos históricos sin almacén. */
+    private Movimiento.Almacen almacen;
+
+    /** Lote del saldo. Es nulo para existencias sin trazabilidad por lote. */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "lote_id")
+    private Lote lote;
+
+    @Column(nullable = false)
+    private double cantidad;
+
+    @Column(name = "actualizado_en", nullable = false)
+    private LocalDateTime actualizadoEn;
+}
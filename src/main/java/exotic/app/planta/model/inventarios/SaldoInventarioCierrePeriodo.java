@@ -0,0 +1,35 @@
+package exotic.app.planta.model.inventarios;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Periodo cerrado del saldo de inventario. Su existencia indica que
+ * {@code saldo_inventario_cierre} tiene el saldo completo de todos los productos
+ * y almacenes para los movimientos anteriores a {@link #fechaCorte}.
+ *
+ * <p>Los cierres se invalidan desde base de datos cuando llega un movimiento
+ * fechado antes del último corte; el job de cierres los vuelve a generar.
+ */
+@Entity
+@Table(name = "saldo_inventario_cierre_periodo")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SaldoInventarioCierrePeriodo {
+
+    /** Límite exclusivo del cierre: incluye movimientos con fecha estrictamente anterior. */
+    @Id
+    @Column(name = "fecha_corte")
+    private LocalDateTime fechaCorte;
+
+    @Column(name = "generado_en", nullable = false)
+    private LocalDateTime generadoEn;
+}
@@ -3,6 +3,7 @@
     import com.fasterxml.jackson.annotation.JsonBackReference;
     import com.fasterxml.jackson.annotation.JsonManagedReference;
     import jakarta.persistence.*;
+    import exotic.app.planta.model.commons.notificaciones.NotificacionCambioListener;
     import exotic.app.planta.model.contabilidad.AsientoContable;
     import exotic.app.planta.model.inventarios.dto.IngresoOCM_DTA;
     import exotic.app.planta.model.users.User;
@@ -99,6 +100,7 @@
     @Setter
     @NoArgsConstructor
     @AllArgsConstructor
+    @EntityListeners(NotificacionCambioListener.class)
     public class TransaccionAlmacen {
         @Id
         @GeneratedValue(strategy = GenerationType.IDENTITY)
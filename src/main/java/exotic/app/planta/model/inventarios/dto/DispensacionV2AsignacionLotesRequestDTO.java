@@ -15,4 +15,6 @@ import java.util.List;
 public class DispensacionV2AsignacionLotesRequestDTO {
     private Integer areaId;
     private List<DispensacionV2AsignacionOrdenRequestDTO> ordenes = new ArrayList<>();
+    /** Token de una asignación anterior cuyas reservas se reemplazan. */
+    private String reservaToken;
 }
@@ -13,4 +13,6 @@ import java.util.List;
 public class DispensacionV2FinalizacionRequestDTO {
     private Integer areaId;
     private List<DispensacionV2FinalizacionOrdenRequestDTO> ordenes = new ArrayList<>();
+    /** Token devuelto por la asignación de lotes; sus reservas se consumen al finalizar. */
+    private String reservaToken;
 }
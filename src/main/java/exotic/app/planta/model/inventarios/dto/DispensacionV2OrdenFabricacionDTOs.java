@@ -40,6 +40,7 @@ public final class DispensacionV2OrdenFabricacionDTOs {
         private List<DispensacionV2MaterialDTO> materiales = new ArrayList<>();
         @Builder.Default
         private List<String> warnings = new ArrayList<>();
+        private String reservaToken;
     }
 
     @Data
@@ -48,6 +49,7 @@ public final class DispensacionV2OrdenFabricacionDTOs {
     public static class AssignmentRequest {
         private Integer areaId;
         private List<DispensacionV2MaterialEditableRequestDTO> materiales = new ArrayList<>();
+        private String reservaToken;
     }
 
     @Data
@@ -57,6 +59,7 @@ public final class DispensacionV2OrdenFabricacionDTOs {
         private Integer areaId;
         private String observaciones;
         private List<DispensacionV2FinalizacionMaterialRequestDTO> materiales = new ArrayList<>();
+        private String reservaToken;
     }
 
     @Data
@@ -17,4 +17,6 @@ public class DispensacionV2PreparacionResponseDTO {
     private List<DispensacionV2OrdenDTO> ordenes = new ArrayList<>();
     private List<DispensacionV2TotalMaterialDTO> totalesMateriales = new ArrayList<>();
     private List<String> warnings = new ArrayList<>();
+    /** Token de las reservas de lote creadas por la asignación; nulo en la preparación. */
+    private String reservaToken;
 }
@@ -0,0 +1,25 @@
+package exotic.app.planta.model.inventarios.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * Proyección de un lote con saldo positivo, tal como la devuelven las consultas FEFO
+ * sobre {@code SaldoInventario}. No carga la entidad {@code Lote}.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoteStockRowDTO {
+    private String productoId;
+    private Long loteId;
+    private String batchNumber;
+    private LocalDate productionDate;
+    private LocalDate expirationDate;
+    private Double cantidadDisponible;
+}
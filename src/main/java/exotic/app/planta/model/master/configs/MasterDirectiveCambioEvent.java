@@ -0,0 +1,6 @@
+package exotic.app.planta.model.master.configs;
+
+/**
+ * Se publica cuando se crea, actualiza o elimina una {@link MasterDirective}.
+ */
+public record MasterDirectiveCambioEvent(String nombre) {}
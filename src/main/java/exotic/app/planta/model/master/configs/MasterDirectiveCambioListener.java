@@ -0,0 +1,26 @@
+package exotic.app.planta.model.master.configs;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Listener JPA de {@link MasterDirective}: avisa de cambios hechos desde la pantalla de
+ * directivas, los initializers o cualquier otro guardado.
+ */
+@Component
+@RequiredArgsConstructor
+public class MasterDirectiveCambioListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onCambio(MasterDirective directive) {
+        eventPublisher.publishEvent(new MasterDirectiveCambioEvent(directive.getNombre()));
+    }
+}
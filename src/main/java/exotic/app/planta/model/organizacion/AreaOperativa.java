@@ -25,6 +25,10 @@ public class AreaOperativa {
 
     private String descripcion;
 
+    /** Ordenes que el area puede trabajar a la vez; limita la planificacion con capacidad finita. */
+    @Column(name = "capacidad_ordenes_simultaneas", nullable = false)
+    private int capacidadOrdenesSimultaneas = 1;
+
     @ManyToOne
     @JoinColumn(name = "responsable_id")
     private User responsableArea;
@@ -0,0 +1,64 @@
+package exotic.app.planta.model.produccion;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Agregado de las muestras de ruido de un area en un bucket de hora o de dia. Se acumula con
+ * cada muestra registrada y sobrevive a la retencion de {@link AreaOperativaRuidoMuestra}.
+ */
+@Entity
+@Table(name = "area_operativa_ruido_rollup")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AreaOperativaRuidoRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "area_operativa_id", nullable = false)
+    private Integer areaOperativaId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private ResolucionRuido resolucion;
+
+    @Column(name = "bucket_inicio", nullable = false)
+    private LocalDateTime bucketInicio;
+
+    @Column(nullable = false)
+    private int muestras;
+
+    @Column(name = "ruido_db_min", nullable = false)
+    private double ruidoDbMin;
+
+    @Column(name = "ruido_db_max", nullable = false)
+    private double ruidoDbMax;
+
+    @Column(name = "ruido_db_suma", nullable = false)
+    private double ruidoDbSuma;
+
+    @Column(name = "rms_min", nullable = false)
+    private double rmsMin;
+
+    @Column(name = "rms_max", nullable = false)
+    private double rmsMax;
+
+    @Column(name = "rms_suma", nullable = false)
+    private double rmsSuma;
+}
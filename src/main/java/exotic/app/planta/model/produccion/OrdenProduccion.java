@@ -14,6 +14,7 @@ import lombok.Setter;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
+import java.util.Set;
 
 
 @Entity
@@ -23,6 +24,17 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 public class OrdenProduccion {
 
+    public static final int ESTADO_CANCELADA = -1;
+    public static final int ESTADO_ABIERTA = 0;
+    public static final int ESTADO_TERMINADA = 2;
+    public static final int ESTADO_FABRICACION_COMPLETADA = 3;
+    /**
+     * Estados en los que la orden ya no requiere material ni capacidad de planta: cancelada,
+     * terminada o fabricada y pendiente solo del ingreso a almacén.
+     */
+    public static final Set<Integer> ESTADOS_SIN_REQUERIMIENTO =
+            Set.of(ESTADO_CANCELADA, ESTADO_TERMINADA, ESTADO_FABRICACION_COMPLETADA);
+
     /**
      * A partir de ahora sera un surrogate key
      */
@@ -0,0 +1,27 @@
+package exotic.app.planta.model.produccion;
+
+/**
+ * Resolucion de la serie de ruido de un area operativa. {@link #MUESTRA} lee las muestras
+ * crudas (solo dentro de la retencion); {@link #HORA} y {@link #DIA} leen
+ * {@link AreaOperativaRuidoRollup}.
+ */
+public enum ResolucionRuido {
+    MUESTRA(null),
+    HORA("hour"),
+    DIA("day");
+
+    private final String unidadTruncado;
+
+    ResolucionRuido(String unidadTruncado) {
+        this.unidadTruncado = unidadTruncado;
+    }
+
+    /** Unidad de {@code date_trunc} del bucket; {@code null} para las muestras crudas. */
+    public String getUnidadTruncado() {
+        return unidadTruncado;
+    }
+
+    public boolean esAgregada() {
+        return unidadTruncado != null;
+    }
+}
@@ -17,6 +17,7 @@ import java.util.List;
 
 @Entity
 @Table(name = "seguimiento_orden_area")
+@EntityListeners(TableroAreaCambioListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -0,0 +1,48 @@
+package exotic.app.planta.model.produccion;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Permanencia cerrada de un {@link SeguimientoOrdenArea} en un estado: desde el evento que
+ * entra al estado hasta el primer evento posterior que sale de el, ignorando eventos
+ * revertidos. Se deriva de {@link SeguimientoOrdenAreaEvento} y se reemplaza completa por
+ * seguimiento cada vez que este registra un evento.
+ */
+@Entity
+@Table(name = "seguimiento_orden_area_intervalo")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeguimientoOrdenAreaIntervalo {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "seguimiento_orden_area_id", nullable = false)
+    private Long seguimientoOrdenAreaId;
+
+    @Column(name = "area_operativa_id", nullable = false)
+    private int areaOperativaId;
+
+    @Column(nullable = false)
+    private int estado;
+
+    @Column(nullable = false)
+    private long minutos;
+
+    @Column(name = "cerrado_en", nullable = false)
+    private LocalDateTime cerradoEn;
+}
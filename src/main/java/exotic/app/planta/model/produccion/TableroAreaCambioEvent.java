@@ -0,0 +1,7 @@
+package exotic.app.planta.model.produccion;
+
+/**
+ * Se publica cuando cambia un seguimiento de OP o una operacion de OF asignada a un area
+ * operativa, es decir, cuando cambia lo que muestran los tableros de esa area.
+ */
+public record TableroAreaCambioEvent(int areaId) {}
@@ -0,0 +1,37 @@
+package exotic.app.planta.model.produccion;
+
+import exotic.app.planta.model.organizacion.AreaOperativa;
+import exotic.app.planta.model.produccion.fabricacion.OrdenFabricacionOperacion;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Listener JPA de {@link SeguimientoOrdenArea} y {@link OrdenFabricacionOperacion}: cubre
+ * reportes de operario, correcciones administrativas, dispensacion y transiciones de OF sin
+ * instrumentar cada servicio.
+ */
+@Component
+@RequiredArgsConstructor
+public class TableroAreaCambioListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onCambio(Object entidad) {
+        AreaOperativa area = null;
+        if (entidad instanceof SeguimientoOrdenArea seguimiento) {
+            area = seguimiento.getAreaOperativa();
+        } else if (entidad instanceof OrdenFabricacionOperacion operacion) {
+            area = operacion.getAreaOperativa();
+        }
+        if (area != null) {
+            eventPublisher.publishEvent(new TableroAreaCambioEvent(area.getAreaId()));
+        }
+    }
+}
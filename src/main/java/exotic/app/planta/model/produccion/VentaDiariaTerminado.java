@@ -0,0 +1,54 @@
+package exotic.app.planta.model.produccion;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Venta agregada de un terminado en un dia segun el informe de ventas. Sumada por semana
+ * (lunes a domingo) es la serie de demanda que alimenta el pronostico de la programacion
+ * semanal.
+ */
+@Entity
+@Table(name = "venta_diaria_terminado")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class VentaDiariaTerminado {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "producto_id", nullable = false)
+    private String productoId;
+
+    @Column(nullable = false)
+    private LocalDate fecha;
+
+    @Column(name = "cantidad_vendida", nullable = false)
+    private double cantidadVendida;
+
+    @Column(name = "valor_total", nullable = false)
+    private double valorTotal;
+
+    @Column(nullable = false)
+    private int lineas;
+
+    @Column(name = "cargado_en", nullable = false)
+    private LocalDateTime cargadoEn;
+
+    @Column(name = "cargado_por", length = 100)
+    private String cargadoPor;
+}
@@ -0,0 +1,28 @@
+package exotic.app.planta.model.produccion.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resumen de la carga del informe de ventas procesado en servidor. {@code terminados} trae los
+ * totales del archivo por terminado, igual que {@code /planeacion_produccion/asociar_terminados}.
+ */
+@Data
+@NoArgsConstructor
+public class CargaVentasResultadoDTO {
+    private String hoja;
+    private int filasLeidas;
+    private int filasSinCodigo;
+    private int filasSinFecha;
+    private int celdasNumericasInvalidas;
+    private LocalDate fechaDesde;
+    private LocalDate fechaHasta;
+    private int diasReemplazados;
+    private int registrosGuardados;
+    private List<String> codigosSinTerminado = new ArrayList<>();
+    private List<TerminadoConVentasDTO> terminados = new ArrayList<>();
+}
@@ -0,0 +1,17 @@
+package exotic.app.planta.model.produccion.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class SugerenciaProgramacionSemanalDTO {
+    private LocalDate weekStartDate;
+    private LocalDate ultimaSemanaVentas;
+    private List<SugerenciaProgramacionSemanalItemDTO> items = new ArrayList<>();
+    private long totalLotesSugeridos;
+}
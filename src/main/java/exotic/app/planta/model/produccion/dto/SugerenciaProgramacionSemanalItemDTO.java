@@ -0,0 +1,20 @@
+package exotic.app.planta.model.produccion.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class SugerenciaProgramacionSemanalItemDTO {
+    private String terminadoId;
+    private String terminadoNombre;
+    private String categoriaNombre;
+    private double demandaPronosticada;
+    private double errorAbsolutoMedio;
+    private Double alpha;
+    private int semanasHistoria;
+    private double stockActualConsolidado;
+    private int loteSize;
+    private int numeroLotesSugeridos;
+    private String warning;
+}
@@ -3,6 +3,7 @@ package exotic.app.planta.model.produccion.fabricacion;
 import exotic.app.planta.model.organizacion.AreaOperativa;
 import exotic.app.planta.model.producto.manufacturing.procesos.ProcesoProduccionDocumentoVersion;
 import exotic.app.planta.model.produccion.EstadoSeguimientoOrdenArea;
+import exotic.app.planta.model.produccion.TableroAreaCambioListener;
 import exotic.app.planta.model.produccion.batchrecord.BatchRecordEtapa;
 import exotic.app.planta.model.users.User;
 import jakarta.persistence.*;
@@ -17,6 +18,7 @@ import java.util.List;
 /** Proyeccion operativa propia de una OF; no reutiliza el seguimiento exclusivo de OP. */
 @Entity
 @Table(name = "orden_fabricacion_operacion")
+@EntityListeners(TableroAreaCambioListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -1,6 +1,7 @@
 package exotic.app.planta.model.producto;
 
 
+import exotic.app.planta.model.commons.notificaciones.NotificacionCambioListener;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
@@ -9,6 +10,7 @@ import lombok.Setter;
 @DiscriminatorValue("M")
 @Setter
 @Getter
+@EntityListeners(NotificacionCambioListener.class)
 public class Material extends Producto { // (ROH)
 
     /**
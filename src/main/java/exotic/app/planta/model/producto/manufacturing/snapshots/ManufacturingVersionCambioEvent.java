@@ -0,0 +1,12 @@
+package exotic.app.planta.model.producto.manufacturing.snapshots;
+
+/**
+ * Se publica cuando se crea o elimina una {@link ManufacturingVersions}; las versiones no se
+ * modifican despues de creadas.
+ */
+public record ManufacturingVersionCambioEvent(
+        String productoId,
+        Long versionId,
+        int versionNumber,
+        boolean eliminada
+) {}
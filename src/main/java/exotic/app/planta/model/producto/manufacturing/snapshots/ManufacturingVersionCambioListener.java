@@ -0,0 +1,34 @@
+package exotic.app.planta.model.producto.manufacturing.snapshots;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Listener JPA de {@link ManufacturingVersions}: avisa de cada version nueva o eliminada para
+ * mantener el indice de ultimas versiones.
+ */
+@Component
+@RequiredArgsConstructor
+public class ManufacturingVersionCambioListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    public void onCreada(ManufacturingVersions version) {
+        publicar(version, false);
+    }
+
+    @PostRemove
+    public void onEliminada(ManufacturingVersions version) {
+        publicar(version, true);
+    }
+
+    private void publicar(ManufacturingVersions version, boolean eliminada) {
+        String productoId = version.getProducto() == null ? null : version.getProducto().getProductoId();
+        eventPublisher.publishEvent(new ManufacturingVersionCambioEvent(
+                productoId, version.getId(), version.getVersionNumber(), eliminada));
+    }
+}
@@ -106,6 +106,7 @@ import lombok.Setter;
 @AllArgsConstructor
 @Entity
 @Table(name = "manufacturing_versions")
+@EntityListeners(ManufacturingVersionCambioListener.class)
 public class ManufacturingVersions {
 
     @Id
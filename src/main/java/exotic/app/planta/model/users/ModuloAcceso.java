@@ -15,6 +15,7 @@ import java.util.Set;
 @AllArgsConstructor
 @Builder
 @Table(name = "modulo_accesos")
+@EntityListeners(UsuarioCambioListener.class)
 public class ModuloAcceso {
 
     @Id
@@ -11,6 +11,7 @@ import lombok.*;
 @AllArgsConstructor
 @Builder
 @Table(name = "tab_accesos")
+@EntityListeners(UsuarioCambioListener.class)
 public class TabAcceso {
 
     @Id
@@ -15,6 +15,7 @@ import java.util.Set;
 @AllArgsConstructor
 @Builder
 @Table(name = "users") // 'user' can be a reserved keyword in some DBs
+@EntityListeners(UsuarioCambioListener.class)
 public class User {
 
     @Id
@@ -0,0 +1,6 @@
+package exotic.app.planta.model.users;
+
+/**
+ * Se publica cuando cambia un usuario o sus accesos ({@link ModuloAcceso}, {@link TabAcceso}).
+ */
+public record UsuarioCambioEvent(Class<?> origen) {}
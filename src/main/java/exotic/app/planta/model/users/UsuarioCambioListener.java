@@ -0,0 +1,26 @@
+package exotic.app.planta.model.users;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Listener JPA de {@link User}, {@link ModuloAcceso} y {@link TabAcceso}: avisa de cualquier
+ * cambio de usuario o accesos, venga de la gestion de usuarios, del login o de una importacion.
+ */
+@Component
+@RequiredArgsConstructor
+public class UsuarioCambioListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onCambio(Object entidad) {
+        eventPublisher.publishEvent(new UsuarioCambioEvent(entidad.getClass()));
+    }
+}
@@ -3,6 +3,7 @@ package exotic.app.planta.repo.compras.metricas;
 import exotic.app.planta.model.compras.metricas.ProveedorMaterialLeadTimeMetric;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,4 +14,6 @@ public interface ProveedorMaterialLeadTimeMetricRepo extends JpaRepository<Prove
     List<ProveedorMaterialLeadTimeMetric> findByProveedor_Pk(Long proveedorPk);
 
     List<ProveedorMaterialLeadTimeMetric> findByMaterial_ProductoId(String productoId);
+
+    List<ProveedorMaterialLeadTimeMetric> findByMaterial_ProductoIdIn(Collection<String> productoIds);
 }
@@ -2,13 +2,127 @@ package exotic.app.planta.repo.contabilidad;
 
 import exotic.app.planta.model.contabilidad.LineaAsientoContable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
 /**
  * Repositorio para la entidad LineaAsientoContable.
- * Proporciona operaciones CRUD básicas para líneas de asientos contables.
+ * Proporciona operaciones CRUD básicas para líneas de asientos contables y las
+ * agregaciones de los reportes contables (libro mayor y balance de comprobación),
+ * que se resuelven en SQL sobre los asientos publicados.
  */
 @Repository
 public interface LineaAsientoContableRepo extends JpaRepository<LineaAsientoContable, Long> {
-    // Aquí se pueden agregar consultas personalizadas según sea necesario
-}
\ No newline at end of file
+
+    interface LineaLibroMayorRow {
+        Long getLineaId();
+        Long getAsientoId();
+        LocalDateTime getFecha();
+        String getDescripcion();
+        BigDecimal getDebito();
+        BigDecimal getCredito();
+        /** Débitos menos créditos acumulados dentro de la página, en orden del libro. */
+        BigDecimal getNetoDebitoAcumulado();
+    }
+
+    interface SaldoCuentaRow {
+        String getCuentaCodigo();
+        BigDecimal getDebito();
+        BigDecimal getCredito();
+    }
+
+    /**
+     * Página del libro mayor de una cuenta en un período, posterior al cursor
+     * (fecha, asiento, línea). El filtro y el límite se aplican antes de la ventana, así que
+     * el acumulado solo recorre las filas de la página; el saldo previo lo aporta
+     * {@link #sumNetoDebitoPeriodoHastaCursor}.
+     */
+    @Query(value = """
+            SELECT p.linea_id AS "lineaId",
+                   p.asiento_id AS "asientoId",
+                   p.fecha AS "fecha",
+                   p.descripcion AS "descripcion",
+                   p.debito AS "debito",
+                   p.credito AS "credito",
+                   SUM(p.debito - p.credito) OVER (
+                       ORDER BY p.fecha, p.asiento_id, p.linea_id
+                       ROWS BETWEEN UNBOUNDED PRECEDING AND CURRENT ROW
+                   ) AS "netoDebitoAcumulado"
+            FROM (
+                SELECT l.id AS linea_id,
+                       a.id AS asiento_id,
+                       a.fecha,
+                       l.descripcion,
+                       COALESCE(l.debito, 0) AS debito,
+                       COALESCE(l.credito, 0) AS credito
+                FROM linea_asiento_contable l
+                JOIN asiento_contable a ON a.id = l.asiento_id
+                WHERE l.cuenta_codigo = :cuentaCodigo
+                  AND a.periodo_contable_id = :periodoId
+                  AND a.estado = 'PUBLICADO'
+                  AND (a.fecha, a.id, l.id) > (:cursorFecha, :cursorAsientoId, :cursorLineaId)
+                ORDER BY a.fecha, a.id, l.id
+                LIMIT :limite
+            ) p
+            ORDER BY p.fecha, p.asiento_id, p.linea_id
+            """, nativeQuery = true)
+    List<LineaLibroMayorRow> findLibroMayorPagina(
+            @Param("cuentaCodigo") String cuentaCodigo,
+            @Param("periodoId") Long periodoId,
+            @Param("cursorFecha") LocalDateTime cursorFecha,
+            @Param("cursorAsientoId") long cursorAsientoId,
+            @Param("cursorLineaId") long cursorLineaId,
+            @Param("limite") int limite
+    );
+
+    /** Débitos menos créditos de la cuenta en el período hasta el cursor, inclusive. */
+    @Query(value = """
+            SELECT COALESCE(SUM(COALESCE(l.debito, 0) - COALESCE(l.credito, 0)), 0)
+            FROM linea_asiento_contable l
+            JOIN asiento_contable a ON a.id = l.asiento_id
+            WHERE l.cuenta_codigo = :cuentaCodigo
+              AND a.periodo_contable_id = :periodoId
+              AND a.estado = 'PUBLICADO'
+              AND (a.fecha, a.id, l.id) <= (:cursorFecha, :cursorAsientoId, :cursorLineaId)
+            """, nativeQuery = true)
+    BigDecimal sumNetoDebitoPeriodoHastaCursor(
+            @Param("cuentaCodigo") String cuentaCodigo,
+            @Param("periodoId") Long periodoId,
+            @Param("cursorFecha") LocalDateTime cursorFecha,
+            @Param("cursorAsientoId") long cursorAsientoId,
+            @Param("cursorLineaId") long cursorLineaId
+    );
+
+    /** Débitos menos créditos publicados de la cuenta con fecha anterior a {@code fecha}. */
+    @Query(value = """
+            SELECT COALESCE(SUM(COALESCE(l.debito, 0) - COALESCE(l.credito, 0)), 0)
+            FROM linea_asiento_contable l
+            JOIN asiento_contable a ON a.id = l.asiento_id
+            WHERE l.cuenta_codigo = :cuentaCodigo
+              AND a.estado = 'PUBLICADO'
+              AND a.fecha < :fecha
+            """, nativeQuery = true)
+    BigDecimal sumNetoDebitoAntesDe(
+            @Param("cuentaCodigo") String cuentaCodigo,
+            @Param("fecha") LocalDateTime fecha
+    );
+
+    /** Totales de débito y crédito por cuenta de los asientos publicados de un período. */
+    @Query(value = """
+            SELECT l.cuenta_codigo AS "cuentaCodigo",
+                   COALESCE(SUM(l.debito), 0) AS "debito",
+                   COALESCE(SUM(l.credito), 0) AS "credito"
+            FROM linea_asiento_contable l
+            JOIN asiento_contable a ON a.id = l.asiento_id
+            WHERE a.periodo_contable_id = :periodoId
+              AND a.estado = 'PUBLICADO'
+            GROUP BY l.cuenta_codigo
+            ORDER BY l.cuenta_codigo
+            """, nativeQuery = true)
+    List<SaldoCuentaRow> sumSaldosPorCuentaEnPeriodo(@Param("periodoId") Long periodoId);
+}
@@ -0,0 +1,18 @@
+package exotic.app.planta.repo.empresa;
+
+import exotic.app.planta.model.empresa.DiaFestivo;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface DiaFestivoRepo extends JpaRepository<DiaFestivo, Long> {
+
+    List<DiaFestivo> findAllByOrderByFechaAsc();
+
+    boolean existsByFecha(LocalDate fecha);
+
+    @Query("SELECT festivo.fecha FROM DiaFestivo festivo ORDER BY festivo.fecha ASC")
+    List<LocalDate> findAllFechas();
+}
@@ -32,6 +32,9 @@ public interface JornadaLaboralVersionRepo extends JpaRepository<JornadaLaboralV
             """)
     List<JornadaLaboralVersion> findAllByOrderByVersionDesc();
 
+    @EntityGraph(attributePaths = "bloques")
+    Optional<JornadaLaboralVersion> findWithBloquesById(Long id);
+
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("""
             SELECT jornada
@@ -0,0 +1,61 @@
+package exotic.app.planta.repo.inventarios;
+
+import exotic.app.planta.model.inventarios.Movimiento;
+import exotic.app.planta.model.inventarios.ReservaLote;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ReservaLoteRepo extends JpaRepository<ReservaLote, Long> {
+
+    /** Cantidad reservada vigente por lote de un producto en un almacén: filas [loteId, cantidad]. */
+    @Query("""
+            SELECT r.loteId, SUM(r.cantidad)
+            FROM ReservaLote r
+            WHERE r.productoId = :productoId
+              AND r.almacen = :almacen
+              AND r.expiraEn > :ahora
+            GROUP BY r.loteId
+            """)
+    List<Object[]> sumVigentesPorLote(
+            @Param("productoId") String productoId,
+            @Param("almacen") Movimiento.Almacen almacen,
+            @Param("ahora") LocalDateTime ahora
+    );
+
+    /**
+     * Cantidad reservada vigente de un lote por asignaciones distintas de {@code token}; sin
+     * token cuenta todas las reservas vigentes.
+     */
+    @Query("""
+            SELECT COALESCE(SUM(r.cantidad), 0)
+            FROM ReservaLote r
+            WHERE r.productoId = :productoId
+              AND r.almacen = :almacen
+              AND r.loteId = :loteId
+              AND r.expiraEn > :ahora
+              AND (:token IS NULL OR r.token <> :token)
+            """)
+    double sumVigentesDeOtros(
+            @Param("productoId") String productoId,
+            @Param("almacen") Movimiento.Almacen almacen,
+            @Param("loteId") Long loteId,
+            @Param("token") String token,
+            @Param("ahora") LocalDateTime ahora
+    );
+
+    @Query("SELECT COUNT(r) > 0 FROM ReservaLote r WHERE r.token = :token AND r.usuarioId <> :usuarioId")
+    boolean existsByTokenDeOtroUsuario(@Param("token") String token, @Param("usuarioId") Long usuarioId);
+
+    @Modifying
+    @Query("DELETE FROM ReservaLote r WHERE r.token = :token")
+    int deleteByToken(@Param("token") String token);
+
+    @Modifying
+    @Query("DELETE FROM ReservaLote r WHERE r.expiraEn <= :ahora")
+    int deleteExpiradas(@Param("ahora") LocalDateTime ahora);
+}
@@ -0,0 +1,55 @@
+package exotic.app.planta.repo.inventarios;
+
+import exotic.app.planta.model.inventarios.SaldoInventarioCierrePeriodo;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface SaldoInventarioCierrePeriodoRepo extends JpaRepository<SaldoInventarioCierrePeriodo, LocalDateTime> {
+
+    Optional<SaldoInventarioCierrePeriodo> findTopByOrderByFechaCorteDesc();
+
+    /**
+     * Bloquea la escritura de movimientos hasta el fin de la transacción. Espera a que terminen
+     * las transacciones que ya escribieron movimientos, de modo que el cierre los vea, y hace que
+     * un movimiento retroactivo posterior vea el cierre ya confirmado y lo invalide.
+     */
+    @Modifying
+    @Query(value = "LOCK TABLE movimientos IN SHARE MODE", nativeQuery = true)
+    void bloquearMovimientos();
+
+    @Query(value = "SELECT MIN(m.fecha_movimiento) FROM movimientos m WHERE m.afecta_inventario = TRUE",
+            nativeQuery = true)
+    LocalDateTime findPrimeraFechaMovimiento();
+
+    /**
+     * Genera las filas del cierre {@code fechaCorte} a partir del cierre anterior más los
+     * movimientos del intervalo {@code [fechaCorteAnterior, fechaCorte)}. Omite saldos nulos.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO saldo_inventario_cierre (fecha_corte, producto_id, almacen, cantidad)
+            SELECT :fechaCorte, x.producto_id, x.almacen, SUM(x.cantidad)
+            FROM (
+                SELECT c.producto_id, c.almacen, c.cantidad
+                FROM saldo_inventario_cierre c
+                WHERE c.fecha_corte = :fechaCorteAnterior
+                UNION ALL
+                SELECT m.producto_id, m.almacen::SMALLINT, m.cantidad
+                FROM movimientos m
+                WHERE m.afecta_inventario = TRUE
+                  AND m.producto_id IS NOT NULL
+                  AND m.fecha_movimiento >= :fechaCorteAnterior
+                  AND m.fecha_movimiento < :fechaCorte
+            ) x
+            GROUP BY x.producto_id, x.almacen
+            HAVING ABS(SUM(x.cantidad)) > 1e-9
+            """, nativeQuery = true)
+    int insertarSaldosCierre(
+            @Param("fechaCorteAnterior") LocalDateTime fechaCorteAnterior,
+            @Param("fechaCorte") LocalDateTime fechaCorte);
+}
@@ -0,0 +1,97 @@
+package exotic.app.planta.repo.inventarios;
+
+import exotic.app.planta.model.inventarios.SaldoInventario;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+/**
+ * Acceso al saldo materializado de inventario. Las lecturas de stock de uso diario
+ * se exponen en {@link TransaccionAlmacenRepo}; aquí viven la conciliación contra el
+ * libro de movimientos y el bloqueo de saldos para dispensación.
+ */
+public interface SaldoInventarioRepo extends JpaRepository<SaldoInventario, Long> {
+
+    interface DesviacionSaldoProjection {
+        String getProductoId();
+        Integer getAlmacen();
+        Long getLoteId();
+        double getCantidadLedger();
+        double getCantidadSaldo();
+    }
+
+    /**
+     * Compara el saldo materializado con la suma de movimientos por (producto, almacén, lote)
+     * y devuelve solo las claves cuya diferencia supera la tolerancia.
+     */
+    @Query(value = """
+            WITH ledger AS (
+                SELECT m.producto_id,
+                       m.almacen::SMALLINT AS almacen,
+                       m.lote_id,
+                       SUM(m.cantidad) AS cantidad
+                FROM movimientos m
+                WHERE m.afecta_inventario = TRUE
+                  AND m.producto_id IS NOT NULL
+                GROUP BY m.producto_id, m.almacen, m.lote_id
+            )
+            SELECT COALESCE(l.producto_id, s.producto_id) AS "productoId",
+                   COALESCE(l.almacen, s.almacen) AS "almacen",
+                   COALESCE(l.lote_id, s.lote_id) AS "loteId",
+                   COALESCE(l.cantidad, 0) AS "cantidadLedger",
+                   COALESCE(s.cantidad, 0) AS "cantidadSaldo"
+            FROM ledger l
+            FULL OUTER JOIN saldo_inventario s
+              ON s.producto_id = l.producto_id
+             AND COALESCE(s.almacen, -1) = COALESCE(l.almacen, -1)
+             AND COALESCE(s.lote_id, 0) = COALESCE(l.lote_id, 0)
+            WHERE ABS(COALESCE(l.cantidad, 0) - COALESCE(s.cantidad, 0)) > :tolerance
+            ORDER BY 1, 2, 3
+            """, nativeQuery = true)
+    List<DesviacionSaldoProjection> findDesviacionesContraMovimientos(@Param("tolerance") double tolerance);
+
+    /**
+     * Bloquea escrituras concurrentes de movimientos (el trigger necesita ROW EXCLUSIVE sobre
+     * el saldo) mientras se reconstruye. Solo tiene efecto dentro de una transacción.
+     */
+    @Modifying
+    @Query(value = "LOCK TABLE saldo_inventario IN SHARE ROW EXCLUSIVE MODE", nativeQuery = true)
+    void bloquearParaReconstruccion();
+
+    /**
+     * Bloquea la fila de saldo de (producto, almacén, lote) hasta el fin de la transacción
+     * y devuelve su cantidad; vacío si el lote nunca tuvo movimientos en ese almacén.
+     * Solo bloquea esa clave: dispensaciones de otros materiales o lotes no esperan.
+     */
+    @Query(value = """
+            SELECT s.cantidad
+            FROM saldo_inventario s
+            WHERE s.producto_id = :productoId
+              AND s.almacen = :almacen
+              AND s.lote_id = :loteId
+            FOR UPDATE
+            """, nativeQuery = true)
+    List<Double> bloquearSaldoLote(
+            @Param("productoId") String productoId,
+            @Param("almacen") int almacen,
+            @Param("loteId") Long loteId
+    );
+
+    @Modifying
+    @Query(value = "DELETE FROM saldo_inventario", nativeQuery = true)
+    int eliminarTodos();
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO saldo_inventario (producto_id, almacen, lote_id, cantidad, actualizado_en)
+            SELECT m.producto_id, m.almacen::SMALLINT, m.lote_id, SUM(m.cantidad), CURRENT_TIMESTAMP
+            FROM movimientos m
+            WHERE m.afecta_inventario = TRUE
+              AND m.producto_id IS NOT NULL
+            GROUP BY m.producto_id, m.almacen, m.lote_id
+            """, nativeQuery = true)
+    int reconstruirDesdeMovimientos();
+}
@@ -1,16 +1,22 @@
 package exotic.app.planta.repo.inventarios;
 
 import exotic.app.planta.model.bi.dto.InformeDiarioComprasRowDTO;
+import exotic.app.planta.model.bi.dto.MovimientoAlmacenRowDTO;
+import exotic.app.planta.model.bi.dto.MovimientoBiRowDTO;
 import exotic.app.planta.model.bi.dto.ProveedorMaterialRecepcionRowDTO;
 import exotic.app.planta.model.inventarios.Lote;
 import exotic.app.planta.model.inventarios.Movimiento;
 import exotic.app.planta.model.inventarios.TransaccionAlmacen;
+import exotic.app.planta.model.inventarios.dto.LoteStockRowDTO;
 import exotic.app.planta.model.producto.Material;
 import exotic.app.planta.model.producto.Terminado;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
@@ -18,8 +24,20 @@ import java.time.LocalDate;
 import java.math.BigDecimal;
 import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
+/**
+ * Repositorio de {@link Movimiento}. Las consultas de stock vigente (sin corte de fecha)
+ * leen el saldo materializado {@link exotic.app.planta.model.inventarios.SaldoInventario}
+ * en lugar de sumar el histórico completo de movimientos.
+ */
 public interface TransaccionAlmacenRepo extends JpaRepository<Movimiento, Integer> {
+    /**
+     * Filas que el driver trae por viaje en las consultas {@code stream*}. Los métodos que
+     * devuelven {@link Stream} deben consumirse dentro de una transacción y cerrarse.
+     */
+    String STREAM_FETCH_SIZE = "1000";
+
     interface EntityProductQuantityProjection {
         int getEntityId();
         String getProductId();
@@ -54,23 +72,21 @@ public interface TransaccionAlmacenRepo extends JpaRepository<Movimiento, Intege
 
 
     @Query("""
-            SELECT p, COALESCE(SUM(m.cantidad), 0)
+            SELECT p, COALESCE(SUM(s.cantidad), 0)
             FROM Producto p
-            LEFT JOIN Movimiento m ON m.producto = p
-                AND m.almacen = :almacen
-                AND m.afectaInventario = true
+            LEFT JOIN SaldoInventario s ON s.producto = p
+                AND s.almacen = :almacen
             WHERE p.inventareable = true
             GROUP BY p
             """)
     List<Object[]> findInventariablesWithStockByAlmacen(@Param("almacen") Movimiento.Almacen almacen);
 
     @Query("""
-            SELECT m.producto.productoId, COALESCE(SUM(m.cantidad), 0)
-            FROM Movimiento m
-            WHERE m.almacen = :almacen
-              AND m.afectaInventario = true
-              AND m.producto.productoId IN :productoIds
-            GROUP BY m.producto.productoId
+            SELECT s.producto.productoId, COALESCE(SUM(s.cantidad), 0)
+            FROM SaldoInventario s
+            WHERE s.almacen = :almacen
+              AND s.producto.productoId IN :productoIds
+            GROUP BY s.producto.productoId
             """)
     List<Object[]> findStockByAlmacenAndProductoIds(
             @Param("almacen") Movimiento.Almacen almacen,
@@ -90,6 +106,62 @@ public interface TransaccionAlmacenRepo extends JpaRepository<Movimiento, Intege
             @Param("start") LocalDateTime start,
             @Param("end") LocalDateTime end);
 
+    /**
+     * Variante de {@link #findMovimientosBiByAlmacenAndRango} para rangos largos: proyecta
+     * solo los campos que usan los agregados BI y se recorre con cursor, sin hidratar
+     * movimientos, transacciones ni lotes en el contexto de persistencia.
+     */
+    @Query("""
+            SELECT new exotic.app.planta.model.bi.dto.MovimientoBiRowDTO(
+                m.movimientoId,
+                m.fechaMovimiento,
+                m.cantidad,
+                m.tipoMovimiento,
+                m.almacen,
+                m.afectaInventario,
+                m.producto.productoId,
+                t.transaccionId,
+                t.tipoEntidadCausante,
+                t.causaAjuste
+            )
+            FROM Movimiento m
+            LEFT JOIN m.transaccionAlmacen t
+            WHERE m.almacen = :almacen
+              AND m.afectaInventario = true
+              AND m.fechaMovimiento >= :start AND m.fechaMovimiento <= :end
+            ORDER BY m.fechaMovimiento, m.movimientoId
+            """)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    Stream<MovimientoBiRowDTO> streamMovimientosBiByAlmacenAndRango(
+            @Param("almacen") Movimiento.Almacen almacen,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end);
+
+    /**
+     * Igual que {@link #findMovimientosBiByAlmacenAndRango} pero solo con los movimientos
+     * registrados después de {@code afterId}. Permite a los análisis en caché incorporar
+     * únicamente lo nuevo desde su última lectura.
+     */
+    @Query("""
+            SELECT DISTINCT m FROM Movimiento m
+            LEFT JOIN FETCH m.transaccionAlmacen t
+            JOIN FETCH m.producto p
+            WHERE m.almacen = :almacen
+              AND m.afectaInventario = true
+              AND m.movimientoId > :afterId
+              AND m.fechaMovimiento >= :start AND m.fechaMovimiento <= :end
+            ORDER BY m.fechaMovimiento, m.movimientoId
+            """)
+    List<Movimiento> findMovimientosBiByAlmacenAndRangoAfterId(
+            @Param("almacen") Movimiento.Almacen almacen,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end,
+            @Param("afterId") int afterId);
+
+    /** Último movimiento registrado; sirve como marca de agua de los análisis en caché. */
+    @Query("SELECT MAX(m.movimientoId) FROM Movimiento m")
+    Integer findMaxMovimientoId();
+
     @Query("""
             SELECT DISTINCT m FROM Movimiento m
             LEFT JOIN FETCH m.transaccionAlmacen t
@@ -414,46 +486,77 @@ public interface TransaccionAlmacenRepo extends JpaRepository<Movimiento, Intege
             @Param("opIds") Collection<Integer> opIds);
 
     @Query("""
-            SELECT COALESCE(SUM(m.cantidad), 0)
-            FROM Movimiento m
-            WHERE m.producto.productoId = :productoId
-              AND m.afectaInventario = true
+            SELECT COALESCE(SUM(s.cantidad), 0)
+            FROM SaldoInventario s
+            WHERE s.producto.productoId = :productoId
             """)
     Double findTotalCantidadByProductoId(@Param("productoId") String productoId);
 
     @Query("""
-            SELECT m.almacen, lote.id, COALESCE(SUM(m.cantidad), 0)
-            FROM Movimiento m
-            LEFT JOIN m.lote lote
-            WHERE m.producto.productoId = :productoId
-              AND m.afectaInventario = true
-            GROUP BY m.almacen, lote.id
-            HAVING ABS(COALESCE(SUM(m.cantidad), 0)) > :tolerance
+            SELECT s.almacen, lote.id, COALESCE(SUM(s.cantidad), 0)
+            FROM SaldoInventario s
+            LEFT JOIN s.lote lote
+            WHERE s.producto.productoId = :productoId
+            GROUP BY s.almacen, lote.id
+            HAVING ABS(COALESCE(SUM(s.cantidad), 0)) > :tolerance
             """)
     List<Object[]> findNonZeroStockGroupsByProductoId(
             @Param("productoId") String productoId,
             @Param("tolerance") double tolerance);
 
     @Query("""
-            SELECT m.producto.productoId, COALESCE(SUM(m.cantidad), 0)
-            FROM Movimiento m
-            WHERE m.producto.productoId IN :productoIds
-              AND m.afectaInventario = true
-            GROUP BY m.producto.productoId
+            SELECT s.producto.productoId, COALESCE(SUM(s.cantidad), 0)
+            FROM SaldoInventario s
+            WHERE s.producto.productoId IN :productoIds
+            GROUP BY s.producto.productoId
             """)
     List<Object[]> findTotalCantidadByProductoIds(@Param("productoIds") Collection<String> productoIds);
 
-    @Query("""
-            SELECT m.producto.productoId, COALESCE(SUM(m.cantidad), 0)
-            FROM Movimiento m
-            WHERE m.producto.productoId IN :productoIds
-              AND m.afectaInventario = true
-              AND m.almacen IN :almacenes
-              AND m.fechaMovimiento <= :fechaHoraCorte
-            GROUP BY m.producto.productoId
-            """)
-    List<Object[]> findStockByAlmacenesAndProductoIdsAtCutoff(
-            @Param("almacenes") Collection<Movimiento.Almacen> almacenes,
+    /**
+     * Stock por producto a una fecha de corte (inclusive). Parte del último cierre mensual
+     * anterior o igual al corte y suma solo los movimientos posteriores a ese cierre.
+     */
+    default List<Object[]> findStockByAlmacenesAndProductoIdsAtCutoff(
+            Collection<Movimiento.Almacen> almacenes,
+            Collection<String> productoIds,
+            LocalDateTime fechaHoraCorte) {
+        // Un IN () vacío no es SQL válido en la consulta nativa.
+        if (almacenes.isEmpty() || productoIds.isEmpty()) {
+            return List.of();
+        }
+        return findStockByAlmacenOrdinalsAndProductoIdsAtCutoff(
+                almacenes.stream().map(Enum::ordinal).toList(),
+                productoIds,
+                fechaHoraCorte);
+    }
+
+    @Query(value = """
+            WITH corte AS (
+                SELECT MAX(p.fecha_corte) AS fecha_corte
+                FROM saldo_inventario_cierre_periodo p
+                WHERE p.fecha_corte <= :fechaHoraCorte
+            )
+            SELECT x.producto_id, COALESCE(SUM(x.cantidad), 0)
+            FROM (
+                SELECT c.producto_id, c.cantidad
+                FROM saldo_inventario_cierre c
+                JOIN corte ON c.fecha_corte = corte.fecha_corte
+                WHERE c.almacen IN (:almacenes)
+                  AND c.producto_id IN (:productoIds)
+                UNION ALL
+                SELECT m.producto_id, m.cantidad
+                FROM movimientos m
+                CROSS JOIN corte
+                WHERE m.afecta_inventario = TRUE
+                  AND m.almacen IN (:almacenes)
+                  AND m.producto_id IN (:productoIds)
+                  AND (corte.fecha_corte IS NULL OR m.fecha_movimiento >= corte.fecha_corte)
+                  AND m.fecha_movimiento <= :fechaHoraCorte
+            ) x
+            GROUP BY x.producto_id
+            """, nativeQuery = true)
+    List<Object[]> findStockByAlmacenOrdinalsAndProductoIdsAtCutoff(
+            @Param("almacenes") Collection<Integer> almacenes,
             @Param("productoIds") Collection<String> productoIds,
             @Param("fechaHoraCorte") LocalDateTime fechaHoraCorte);
 
@@ -461,33 +564,98 @@ public interface TransaccionAlmacenRepo extends JpaRepository<Movimiento, Intege
      * Materiales inventariables con stock físico agregado. Una fila por material.
      */
     @Query("""
-            SELECT m, COALESCE(SUM(mov.cantidad), 0.0)
+            SELECT m, COALESCE(SUM(s.cantidad), 0.0)
             FROM Material m
-            LEFT JOIN Movimiento mov ON mov.producto = m AND mov.afectaInventario = true
+            LEFT JOIN SaldoInventario s ON s.producto = m
             WHERE m.inventareable = true
             GROUP BY m
             """)
     List<Object[]> findAllMaterialsWithStock();
 
-    @Query("""
-            SELECT COALESCE(SUM(m.cantidad), 0)
-            FROM Movimiento m
-            WHERE m.producto.productoId = :productoId
-              AND m.afectaInventario = true
-              AND m.fechaMovimiento < :fecha
-            """)
+    /**
+     * Saldo de un producto antes de {@code fecha} (exclusivo), a partir del último cierre
+     * mensual anterior o igual a esa fecha más los movimientos posteriores al cierre.
+     */
+    @Query(value = """
+            WITH corte AS (
+                SELECT MAX(p.fecha_corte) AS fecha_corte
+                FROM saldo_inventario_cierre_periodo p
+                WHERE p.fecha_corte <= :fecha
+            )
+            SELECT COALESCE(SUM(x.cantidad), 0)
+            FROM (
+                SELECT c.cantidad
+                FROM saldo_inventario_cierre c
+                JOIN corte ON c.fecha_corte = corte.fecha_corte
+                WHERE c.producto_id = :productoId
+                UNION ALL
+                SELECT m.cantidad
+                FROM movimientos m
+                CROSS JOIN corte
+                WHERE m.producto_id = :productoId
+                  AND m.afecta_inventario = TRUE
+                  AND (corte.fecha_corte IS NULL OR m.fecha_movimiento >= corte.fecha_corte)
+                  AND m.fecha_movimiento < :fecha
+            ) x
+            """, nativeQuery = true)
     Double findTotalCantidadByProductoIdAndFechaMovimientoBefore(@Param("productoId") String productoId, @Param("fecha") LocalDateTime fecha);
 
+    default Double findTotalCantidadByProductoIdAndAlmacenAndFechaMovimientoBefore(
+            String productoId,
+            Movimiento.Almacen almacen,
+            LocalDateTime fecha) {
+        return findTotalCantidadByProductoIdAndAlmacenOrdinalAndFechaMovimientoBefore(
+                productoId,
+                almacen.ordinal(),
+                fecha);
+    }
+
+    @Query(value = """
+            WITH corte AS (
+                SELECT MAX(p.fecha_corte) AS fecha_corte
+                FROM saldo_inventario_cierre_periodo p
+                WHERE p.fecha_corte <= :fecha
+            )
+            SELECT COALESCE(SUM(x.cantidad), 0)
+            FROM (
+                SELECT c.cantidad
+                FROM saldo_inventario_cierre c
+                JOIN corte ON c.fecha_corte = corte.fecha_corte
+                WHERE c.producto_id = :productoId
+                  AND c.almacen = :almacen
+                UNION ALL
+                SELECT m.cantidad
+                FROM movimientos m
+                CROSS JOIN corte
+                WHERE m.producto_id = :productoId
+                  AND m.afecta_inventario = TRUE
+                  AND m.almacen = :almacen
+                  AND (corte.fecha_corte IS NULL OR m.fecha_movimiento >= corte.fecha_corte)
+                  AND m.fecha_movimiento < :fecha
+            ) x
+            """, nativeQuery = true)
+    Double findTotalCantidadByProductoIdAndAlmacenOrdinalAndFechaMovimientoBefore(
+            @Param("productoId") String productoId,
+            @Param("almacen") int almacen,
+            @Param("fecha") LocalDateTime fecha);
+
     @Query("""
-            SELECT COALESCE(SUM(m.cantidad), 0)
-            FROM Movimiento m
-            WHERE m.producto.productoId = :productoId
-              AND m.afectaInventario = true
-              AND m.almacen = :almacen
-              AND m.fechaMovimiento < :fecha
+            SELECT COALESCE(SUM(s.cantidad), 0)
+            FROM SaldoInventario s
+            WHERE s.producto.productoId = :productoId
+              AND s.lote.id = :loteId
+              AND s.almacen = :almacen
             """)
-    Double findTotalCantidadByProductoIdAndAlmacenAndFechaMovimientoBefore(@Param("productoId") String productoId, @Param("almacen") Movimiento.Almacen almacen, @Param("fecha") LocalDateTime fecha);
+    Double findTotalCantidadByProductoIdAndLoteIdAndAlmacen(
+            @Param("productoId") String productoId,
+            @Param("loteId") Long loteId,
+            @Param("almacen") Movimiento.Almacen almacen
+    );
 
+    /**
+     * Saldo de un lote antes de {@code fecha} (exclusivo). Los cierres mensuales no guardan el
+     * detalle por lote, así que suma los movimientos del lote directamente.
+     */
     @Query("""
             SELECT COALESCE(SUM(m.cantidad), 0)
             FROM Movimiento m
@@ -495,11 +663,13 @@ public interface TransaccionAlmacenRepo extends JpaRepository<Movimiento, Intege
               AND m.afectaInventario = true
               AND m.lote.id = :loteId
               AND m.almacen = :almacen
+              AND m.fechaMovimiento < :fecha
             """)
-    Double findTotalCantidadByProductoIdAndLoteIdAndAlmacen(
+    Double findTotalCantidadByProductoIdAndLoteIdAndAlmacenAndFechaMovimientoBefore(
             @Param("productoId") String productoId,
             @Param("loteId") Long loteId,
-            @Param("almacen") Movimiento.Almacen almacen
+            @Param("almacen") Movimiento.Almacen almacen,
+            @Param("fecha") LocalDateTime fecha
     );
 
     List<Movimiento> findMovimientosByCantidad(Double cantidad);
@@ -512,7 +682,39 @@ public interface TransaccionAlmacenRepo extends JpaRepository<Movimiento, Intege
     // New method
     Page<Movimiento> findByProducto_ProductoIdOrderByFechaMovimientoDesc(String productoId, Pageable pageable);
 
-    List<Movimiento> findByProducto_ProductoIdAndFechaMovimientoBetweenOrderByFechaMovimientoAsc(String productoId, LocalDateTime start, LocalDateTime end);
+    /**
+     * Movimientos de un producto en un rango, proyectados como filas para exportación.
+     */
+    @Query("""
+            SELECT new exotic.app.planta.model.bi.dto.MovimientoAlmacenRowDTO(
+                m.fechaMovimiento,
+                p.productoId,
+                p.nombre,
+                m.cantidad,
+                p.tipoUnidades,
+                m.tipoMovimiento,
+                m.almacen,
+                t.transaccionId,
+                t.tipoEntidadCausante,
+                t.idEntidadCausante,
+                t.causaAjuste,
+                t.observaciones,
+                l.batchNumber
+            )
+            FROM Movimiento m
+            LEFT JOIN m.transaccionAlmacen t
+            JOIN m.producto p
+            LEFT JOIN m.lote l
+            WHERE p.productoId = :productoId
+              AND m.fechaMovimiento >= :start
+              AND m.fechaMovimiento <= :end
+            ORDER BY m.fechaMovimiento ASC, m.movimientoId ASC
+            """)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    Stream<MovimientoAlmacenRowDTO> streamMovimientosProductoPorRango(
+            @Param("productoId") String productoId,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end);
 
     Page<Movimiento> findByProducto_ProductoIdAndFechaMovimientoBetweenOrderByFechaMovimientoAscMovimientoIdAsc(
             String productoId,
@@ -609,52 +811,96 @@ public interface TransaccionAlmacenRepo extends JpaRepository<Movimiento, Intege
     );
 
     /**
-     * Encuentra lotes con stock disponible para un producto específico,
-     * ordenados únicamente por fecha de vencimiento (primero los más próximos a vencer).
-     *
-     * @param productoId ID del producto
-     * @return Lista de objetos con [Lote, cantidadDisponible]
+     * Lotes de un producto con saldo total (todos los almacenes) mayor a {@code minimo},
+     * en orden FEFO: primero los más próximos a vencer, los lotes sin vencimiento al final
+     * y el id como desempate estable. La paginación se resuelve en la base de datos.
      */
-    @Query(value = "SELECT l, SUM(m.cantidad) as stock_disponible " +
-                   "FROM Movimiento m " +
-                   "JOIN m.lote l " +
-                   "WHERE m.producto.productoId = :productoId " +
-                   "AND m.afectaInventario = true " +
-                   "AND m.lote IS NOT NULL " +
-                   "GROUP BY l " +
-                   "HAVING SUM(m.cantidad) > 0 " +
-                   "ORDER BY l.expirationDate ASC NULLS LAST")
-    List<Object[]> findLotesWithStockByProductoIdOrderByExpirationDate(@Param("productoId") String productoId);
+    @Query(value = """
+            SELECT new exotic.app.planta.model.inventarios.dto.LoteStockRowDTO(
+                p.productoId, l.id, l.batchNumber, l.productionDate, l.expirationDate, SUM(s.cantidad))
+            FROM SaldoInventario s
+            JOIN s.producto p
+            JOIN s.lote l
+            WHERE p.productoId = :productoId
+            GROUP BY p.productoId, l.id, l.batchNumber, l.productionDate, l.expirationDate
+            HAVING SUM(s.cantidad) > :minimo
+            ORDER BY l.expirationDate ASC NULLS LAST, l.id ASC
+            """,
+            countQuery = """
+            SELECT COUNT(l)
+            FROM Lote l
+            WHERE l.id IN (
+                SELECT s.lote.id
+                FROM SaldoInventario s
+                WHERE s.producto.productoId = :productoId
+                GROUP BY s.lote.id
+                HAVING SUM(s.cantidad) > :minimo
+            )
+            """)
+    Page<LoteStockRowDTO> findLotesFefoByProductoId(
+            @Param("productoId") String productoId,
+            @Param("minimo") double minimo,
+            Pageable pageable
+    );
 
     /**
-     * Versión alternativa usando SQL nativo en caso de que la consulta JPQL presente problemas.
-     * Encuentra lotes con stock disponible para un producto específico,
-     * ordenados únicamente por fecha de vencimiento (primero los más próximos a vencer).
-     *
-     * @param productoId ID del producto
-     * @return Lista de objetos con [Lote, cantidadDisponible]
+     * Igual que {@link #findLotesFefoByProductoId} restringido a un almacén. El saldo es
+     * único por (producto, almacén, lote), así que no hace falta agrupar.
      */
-    @Query(value = "SELECT l.*, SUM(m.cantidad) as stock_disponible " +
-                   "FROM lote l " +
-                   "JOIN movimientos m ON m.lote_id = l.id " +
-                   "WHERE m.producto_id = :productoId " +
-                   "AND m.afecta_inventario = TRUE " +
-                   "GROUP BY l.id, l.expiration_date, l.production_date " +
-                   "HAVING SUM(m.cantidad) > 0 " +
-                   "ORDER BY l.expiration_date ASC NULLS LAST", 
-           nativeQuery = true)
-    List<Object[]> findLotesWithStockByProductoIdNative(@Param("productoId") String productoId);
-
-    @Query("""
-            SELECT l, SUM(m.cantidad) as stockDisponible
-            FROM Movimiento m
-            JOIN m.lote l
-            WHERE m.producto.productoId = :productoId
-              AND m.afectaInventario = true
-              AND m.lote IS NOT NULL
-              AND m.almacen = :almacen
+    @Query(value = """
+            SELECT new exotic.app.planta.model.inventarios.dto.LoteStockRowDTO(
+                p.productoId, l.id, l.batchNumber, l.productionDate, l.expirationDate, s.cantidad)
+            FROM SaldoInventario s
+            JOIN s.producto p
+            JOIN s.lote l
+            WHERE p.productoId = :productoId
+              AND s.almacen = :almacen
+              AND s.cantidad > :minimo
+            ORDER BY l.expirationDate ASC NULLS LAST, l.id ASC
+            """,
+            countQuery = """
+            SELECT COUNT(s)
+            FROM SaldoInventario s
+            WHERE s.producto.productoId = :productoId
+              AND s.almacen = :almacen
+              AND s.lote IS NOT NULL
+              AND s.cantidad > :minimo
+            """)
+    Page<LoteStockRowDTO> findLotesFefoByProductoIdAndAlmacen(
+            @Param("productoId") String productoId,
+            @Param("almacen") Movimiento.Almacen almacen,
+            @Param("minimo") double minimo,
+            Pageable pageable
+    );
+
+    /**
+     * Lotes con saldo total mayor a {@code minimo} de varios productos en una sola consulta,
+     * agrupados por producto y en orden FEFO dentro de cada uno.
+     */
+    @Query("""
+            SELECT new exotic.app.planta.model.inventarios.dto.LoteStockRowDTO(
+                p.productoId, l.id, l.batchNumber, l.productionDate, l.expirationDate, SUM(s.cantidad))
+            FROM SaldoInventario s
+            JOIN s.producto p
+            JOIN s.lote l
+            WHERE p.productoId IN :productoIds
+            GROUP BY p.productoId, l.id, l.batchNumber, l.productionDate, l.expirationDate
+            HAVING SUM(s.cantidad) > :minimo
+            ORDER BY p.productoId ASC, l.expirationDate ASC NULLS LAST, l.id ASC
+            """)
+    List<LoteStockRowDTO> findLotesFefoByProductoIds(
+            @Param("productoIds") Collection<String> productoIds,
+            @Param("minimo") double minimo
+    );
+
+    @Query("""
+            SELECT l, SUM(s.cantidad) as stockDisponible
+            FROM SaldoInventario s
+            JOIN s.lote l
+            WHERE s.producto.productoId = :productoId
+              AND s.almacen = :almacen
             GROUP BY l
-            HAVING SUM(m.cantidad) > 0
+            HAVING SUM(s.cantidad) > 0
             ORDER BY l.expirationDate ASC NULLS LAST, l.id ASC
             """)
     List<Object[]> findLotesWithStockByProductoIdAndAlmacenOrderByExpirationDate(
@@ -677,18 +923,17 @@ public interface TransaccionAlmacenRepo extends JpaRepository<Movimiento, Intege
 
     long countByLote_Id(Long loteId);
 
-    @Query("SELECT m.producto.productoId, m.producto.nombre, m.producto.tipoUnidades, " +
-           "m.lote.id, m.lote.batchNumber, SUM(m.cantidad) " +
-           "FROM Movimiento m " +
-           "WHERE TYPE(m.producto) = Material " +
-           "AND m.afectaInventario = true " +
-           "AND m.lote IS NOT NULL " +
-           "AND m.almacen = :almacen " +
-           "AND LOWER(m.lote.batchNumber) LIKE LOWER(CONCAT('%', :batchNumber, '%')) " +
-           "GROUP BY m.producto.productoId, m.producto.nombre, m.producto.tipoUnidades, " +
-           "m.lote.id, m.lote.batchNumber " +
-           "HAVING SUM(m.cantidad) > 0 " +
-           "ORDER BY m.lote.batchNumber ASC")
+    @Query("SELECT s.producto.productoId, s.producto.nombre, s.producto.tipoUnidades, " +
+           "s.lote.id, s.lote.batchNumber, SUM(s.cantidad) " +
+           "FROM SaldoInventario s " +
+           "WHERE TYPE(s.producto) = Material " +
+           "AND s.lote IS NOT NULL " +
+           "AND s.almacen = :almacen " +
+           "AND LOWER(s.lote.batchNumber) LIKE LOWER(CONCAT('%', :batchNumber, '%')) " +
+           "GROUP BY s.producto.productoId, s.producto.nombre, s.producto.tipoUnidades, " +
+           "s.lote.id, s.lote.batchNumber " +
+           "HAVING SUM(s.cantidad) > 0 " +
+           "ORDER BY s.lote.batchNumber ASC")
     List<Object[]> findMaterialesWithStockByBatchNumberAndAlmacen(
             @Param("batchNumber") String batchNumber,
             @Param("almacen") Movimiento.Almacen almacen);
@@ -698,10 +943,25 @@ public interface TransaccionAlmacenRepo extends JpaRepository<Movimiento, Intege
      * Incluye COMPRA, AJUSTE_POSITIVO y la pierna positiva de TRANSFERENCIA ({@code cantidad > 0}).
      */
     @Query("""
-            SELECT DISTINCT m FROM Movimiento m
-            LEFT JOIN FETCH m.transaccionAlmacen t
-            JOIN FETCH m.producto p
-            LEFT JOIN FETCH m.lote l
+            SELECT new exotic.app.planta.model.bi.dto.MovimientoAlmacenRowDTO(
+                m.fechaMovimiento,
+                p.productoId,
+                p.nombre,
+                m.cantidad,
+                p.tipoUnidades,
+                m.tipoMovimiento,
+                m.almacen,
+                t.transaccionId,
+                t.tipoEntidadCausante,
+                t.idEntidadCausante,
+                t.causaAjuste,
+                t.observaciones,
+                l.batchNumber
+            )
+            FROM Movimiento m
+            LEFT JOIN m.transaccionAlmacen t
+            JOIN m.producto p
+            LEFT JOIN m.lote l
             WHERE TYPE(m.producto) = Material
               AND m.afectaInventario = true
               AND m.fechaMovimiento >= :start
@@ -710,7 +970,8 @@ public interface TransaccionAlmacenRepo extends JpaRepository<Movimiento, Intege
               AND m.tipoMovimiento IN :tiposEntrada
             ORDER BY m.fechaMovimiento ASC, m.movimientoId ASC
             """)
-    List<Movimiento> findIngresosMaterialPorDia(
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    Stream<MovimientoAlmacenRowDTO> streamIngresosMaterialPorRango(
             @Param("start") LocalDateTime start,
             @Param("end") LocalDateTime end,
             @Param("tiposEntrada") Collection<Movimiento.TipoMovimiento> tiposEntrada);
@@ -719,10 +980,25 @@ public interface TransaccionAlmacenRepo extends JpaRepository<Movimiento, Intege
      * Dispensaciones de {@link Material} en un rango (típicamente un día): salidas con cantidad negativa.
      */
     @Query("""
-            SELECT DISTINCT m FROM Movimiento m
-            JOIN FETCH m.transaccionAlmacen t
-            JOIN FETCH m.producto p
-            LEFT JOIN FETCH m.lote l
+            SELECT new exotic.app.planta.model.bi.dto.MovimientoAlmacenRowDTO(
+                m.fechaMovimiento,
+                p.productoId,
+                p.nombre,
+                m.cantidad,
+                p.tipoUnidades,
+                m.tipoMovimiento,
+                m.almacen,
+                t.transaccionId,
+                t.tipoEntidadCausante,
+                t.idEntidadCausante,
+                t.causaAjuste,
+                t.observaciones,
+                l.batchNumber
+            )
+            FROM Movimiento m
+            JOIN m.transaccionAlmacen t
+            JOIN m.producto p
+            LEFT JOIN m.lote l
             WHERE TYPE(m.producto) = Material
               AND m.afectaInventario = true
               AND m.fechaMovimiento >= :start
@@ -731,7 +1007,8 @@ public interface TransaccionAlmacenRepo extends JpaRepository<Movimiento, Intege
               AND m.tipoMovimiento = :tipoDispensacion
             ORDER BY m.fechaMovimiento ASC, m.movimientoId ASC
             """)
-    List<Movimiento> findDispensacionesMaterialPorDia(
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    Stream<MovimientoAlmacenRowDTO> streamDispensacionesMaterialPorRango(
             @Param("start") LocalDateTime start,
             @Param("end") LocalDateTime end,
             @Param("tipoDispensacion") Movimiento.TipoMovimiento tipoDispensacion);
@@ -815,10 +1092,25 @@ public interface TransaccionAlmacenRepo extends JpaRepository<Movimiento, Intege
      * Sin filtrar por tipo de producto (materiales y terminados).
      */
     @Query("""
-            SELECT DISTINCT m FROM Movimiento m
-            JOIN FETCH m.transaccionAlmacen t
-            JOIN FETCH m.producto p
-            LEFT JOIN FETCH m.lote l
+            SELECT new exotic.app.planta.model.bi.dto.MovimientoAlmacenRowDTO(
+                m.fechaMovimiento,
+                p.productoId,
+                p.nombre,
+                m.cantidad,
+                p.tipoUnidades,
+                m.tipoMovimiento,
+                m.almacen,
+                t.transaccionId,
+                t.tipoEntidadCausante,
+                t.idEntidadCausante,
+                t.causaAjuste,
+                t.observaciones,
+                l.batchNumber
+            )
+            FROM Movimiento m
+            JOIN m.transaccionAlmacen t
+            JOIN m.producto p
+            LEFT JOIN m.lote l
             WHERE m.fechaMovimiento >= :start
               AND m.afectaInventario = true
               AND m.fechaMovimiento <= :end
@@ -826,7 +1118,8 @@ public interface TransaccionAlmacenRepo extends JpaRepository<Movimiento, Intege
               AND m.tipoMovimiento = :tipoAjustePositivo
             ORDER BY m.fechaMovimiento ASC, m.movimientoId ASC
             """)
-    List<Movimiento> findAjustesAlmacenEntradasPorRango(
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    Stream<MovimientoAlmacenRowDTO> streamAjustesAlmacenEntradasPorRango(
             @Param("start") LocalDateTime start,
             @Param("end") LocalDateTime end,
             @Param("tipoAjustePositivo") Movimiento.TipoMovimiento tipoAjustePositivo);
@@ -835,10 +1128,25 @@ public interface TransaccionAlmacenRepo extends JpaRepository<Movimiento, Intege
      * Ajustes de almacén (salidas): {@link Movimiento.TipoMovimiento#AJUSTE_NEGATIVO} con cantidad &lt; 0.
      */
     @Query("""
-            SELECT DISTINCT m FROM Movimiento m
-            JOIN FETCH m.transaccionAlmacen t
-            JOIN FETCH m.producto p
-            LEFT JOIN FETCH m.lote l
+            SELECT new exotic.app.planta.model.bi.dto.MovimientoAlmacenRowDTO(
+                m.fechaMovimiento,
+                p.productoId,
+                p.nombre,
+                m.cantidad,
+                p.tipoUnidades,
+                m.tipoMovimiento,
+                m.almacen,
+                t.transaccionId,
+                t.tipoEntidadCausante,
+                t.idEntidadCausante,
+                t.causaAjuste,
+                t.observaciones,
+                l.batchNumber
+            )
+            FROM Movimiento m
+            JOIN m.transaccionAlmacen t
+            JOIN m.producto p
+            LEFT JOIN m.lote l
             WHERE m.fechaMovimiento >= :start
               AND m.afectaInventario = true
               AND m.fechaMovimiento <= :end
@@ -846,7 +1154,8 @@ public interface TransaccionAlmacenRepo extends JpaRepository<Movimiento, Intege
               AND m.tipoMovimiento = :tipoAjusteNegativo
             ORDER BY m.fechaMovimiento ASC, m.movimientoId ASC
             """)
-    List<Movimiento> findAjustesAlmacenSalidasPorRango(
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    Stream<MovimientoAlmacenRowDTO> streamAjustesAlmacenSalidasPorRango(
             @Param("start") LocalDateTime start,
             @Param("end") LocalDateTime end,
             @Param("tipoAjusteNegativo") Movimiento.TipoMovimiento tipoAjusteNegativo);
@@ -855,10 +1164,25 @@ public interface TransaccionAlmacenRepo extends JpaRepository<Movimiento, Intege
      * Ajustes de almacén (mixto): entradas y salidas según tipo y signo de cantidad.
      */
     @Query("""
-            SELECT DISTINCT m FROM Movimiento m
-            JOIN FETCH m.transaccionAlmacen t
-            JOIN FETCH m.producto p
-            LEFT JOIN FETCH m.lote l
+            SELECT new exotic.app.planta.model.bi.dto.MovimientoAlmacenRowDTO(
+                m.fechaMovimiento,
+                p.productoId,
+                p.nombre,
+                m.cantidad,
+                p.tipoUnidades,
+                m.tipoMovimiento,
+                m.almacen,
+                t.transaccionId,
+                t.tipoEntidadCausante,
+                t.idEntidadCausante,
+                t.causaAjuste,
+                t.observaciones,
+                l.batchNumber
+            )
+            FROM Movimiento m
+            JOIN m.transaccionAlmacen t
+            JOIN m.producto p
+            LEFT JOIN m.lote l
             WHERE m.fechaMovimiento >= :start
               AND m.afectaInventario = true
               AND m.fechaMovimiento <= :end
@@ -868,7 +1192,8 @@ public interface TransaccionAlmacenRepo extends JpaRepository<Movimiento, Intege
               )
             ORDER BY m.fechaMovimiento ASC, m.movimientoId ASC
             """)
-    List<Movimiento> findAjustesAlmacenMixtaPorRango(
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    Stream<MovimientoAlmacenRowDTO> streamAjustesAlmacenMixtaPorRango(
             @Param("start") LocalDateTime start,
             @Param("end") LocalDateTime end,
             @Param("tipoAjustePositivo") Movimiento.TipoMovimiento tipoAjustePositivo,
@@ -2,9 +2,13 @@ package exotic.app.planta.repo.produccion;
 
 import exotic.app.planta.model.produccion.AreaOperativaRuidoMuestra;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Repository
 public interface AreaOperativaRuidoMuestraRepo extends JpaRepository<AreaOperativaRuidoMuestra, Long> {
@@ -14,4 +18,23 @@ public interface AreaOperativaRuidoMuestraRepo extends JpaRepository<AreaOperati
             Long usuarioId,
             LocalDateTime createdAt
     );
+
+    @Query("""
+            SELECT m
+            FROM AreaOperativaRuidoMuestra m
+            WHERE m.areaOperativa.areaId = :areaId
+              AND m.fechaMuestra >= :desde
+              AND m.fechaMuestra < :hasta
+            ORDER BY m.fechaMuestra ASC, m.id ASC
+            """)
+    List<AreaOperativaRuidoMuestra> findSerie(
+            @Param("areaId") Integer areaId,
+            @Param("desde") LocalDateTime desde,
+            @Param("hasta") LocalDateTime hasta
+    );
+
+    /** Retencion de muestras crudas; los agregados por hora y dia se conservan. */
+    @Modifying
+    @Query("DELETE FROM AreaOperativaRuidoMuestra m WHERE m.fechaMuestra < :limite")
+    int deleteByFechaMuestraBefore(@Param("limite") LocalDateTime limite);
 }
@@ -0,0 +1,67 @@
+package exotic.app.planta.repo.produccion;
+
+import exotic.app.planta.model.produccion.AreaOperativaRuidoRollup;
+import exotic.app.planta.model.produccion.ResolucionRuido;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AreaOperativaRuidoRollupRepo extends JpaRepository<AreaOperativaRuidoRollup, Long> {
+
+    /**
+     * Suma las muestras indicadas a los buckets de la resolucion, creandolos si no existen.
+     * Las muestras deben estar ya insertadas en la transaccion.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO area_operativa_ruido_rollup (
+                area_operativa_id, resolucion, bucket_inicio, muestras,
+                ruido_db_min, ruido_db_max, ruido_db_suma, rms_min, rms_max, rms_suma
+            )
+            SELECT m.area_operativa_id,
+                   CAST(:resolucion AS VARCHAR),
+                   date_trunc(CAST(:unidad AS TEXT), m.fecha_muestra) AS bucket,
+                   COUNT(*),
+                   MIN(m.ruido_db), MAX(m.ruido_db), SUM(m.ruido_db),
+                   MIN(m.rms), MAX(m.rms), SUM(m.rms)
+            FROM area_operativa_ruido_muestra m
+            WHERE m.id IN (:muestraIds)
+            GROUP BY m.area_operativa_id, bucket
+            ON CONFLICT (area_operativa_id, resolucion, bucket_inicio) DO UPDATE SET
+                muestras = area_operativa_ruido_rollup.muestras + EXCLUDED.muestras,
+                ruido_db_min = LEAST(area_operativa_ruido_rollup.ruido_db_min, EXCLUDED.ruido_db_min),
+                ruido_db_max = GREATEST(area_operativa_ruido_rollup.ruido_db_max, EXCLUDED.ruido_db_max),
+                ruido_db_suma = area_operativa_ruido_rollup.ruido_db_suma + EXCLUDED.ruido_db_suma,
+                rms_min = LEAST(area_operativa_ruido_rollup.rms_min, EXCLUDED.rms_min),
+                rms_max = GREATEST(area_operativa_ruido_rollup.rms_max, EXCLUDED.rms_max),
+                rms_suma = area_operativa_ruido_rollup.rms_suma + EXCLUDED.rms_suma
+            """, nativeQuery = true)
+    int acumular(
+            @Param("muestraIds") Collection<Long> muestraIds,
+            @Param("resolucion") String resolucion,
+            @Param("unidad") String unidad
+    );
+
+    @Query("""
+            SELECT r
+            FROM AreaOperativaRuidoRollup r
+            WHERE r.areaOperativaId = :areaId
+              AND r.resolucion = :resolucion
+              AND r.bucketInicio >= :desde
+              AND r.bucketInicio < :hasta
+            ORDER BY r.bucketInicio ASC
+            """)
+    List<AreaOperativaRuidoRollup> findSerie(
+            @Param("areaId") Integer areaId,
+            @Param("resolucion") ResolucionRuido resolucion,
+            @Param("desde") LocalDateTime desde,
+            @Param("hasta") LocalDateTime hasta
+    );
+}
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface MpsSemanalLotePlanificadoRepo extends JpaRepository<MpsSemanalLotePlanificado, Long> {
@@ -29,4 +30,17 @@ public interface MpsSemanalLotePlanificadoRepo extends JpaRepository<MpsSemanalL
             @Param("mpsId") Integer mpsId,
             @Param("estado") EstadoMpsSemanalLotePlanificado estado
     );
+
+    @EntityGraph(attributePaths = {"mpsItem", "mpsItem.mpsDia", "mpsItem.terminado", "ordenProduccion"})
+    @Query("""
+            SELECT lote
+            FROM MpsSemanalLotePlanificado lote
+            WHERE lote.mpsItem.mpsSemanal.mpsId = :mpsId
+              AND lote.estado IN :estados
+            ORDER BY lote.mpsItem.mpsDia.dayIndex ASC, lote.mpsItem.displayOrder ASC, lote.loteOrdinal ASC
+            """)
+    List<MpsSemanalLotePlanificado> findByMpsIdAndEstadosOrdered(
+            @Param("mpsId") Integer mpsId,
+            @Param("estados") Collection<EstadoMpsSemanalLotePlanificado> estados
+    );
 }
@@ -0,0 +1,59 @@
+package exotic.app.planta.repo.produccion;
+
+import exotic.app.planta.model.produccion.SeguimientoOrdenAreaIntervalo;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SeguimientoOrdenAreaIntervaloRepo extends JpaRepository<SeguimientoOrdenAreaIntervalo, Long> {
+
+    @Modifying
+    @Query("DELETE FROM SeguimientoOrdenAreaIntervalo i WHERE i.seguimientoOrdenAreaId = :seguimientoId")
+    int deleteBySeguimientoOrdenAreaId(@Param("seguimientoId") Long seguimientoId);
+
+    @Query("""
+            SELECT i.estado AS estado,
+                   COUNT(i) AS muestras,
+                   SUM(i.minutos) AS minutosTotal
+            FROM SeguimientoOrdenAreaIntervalo i
+            WHERE i.areaOperativaId = :areaId
+              AND i.estado IN :estados
+            GROUP BY i.estado
+            """)
+    List<ResumenEstadoProjection> resumirPorEstado(
+            @Param("areaId") int areaId,
+            @Param("estados") Collection<Integer> estados
+    );
+
+    /** Igual que {@link #resumirPorEstado} para intervalos cerrados en [desde, hasta). */
+    @Query("""
+            SELECT i.estado AS estado,
+                   COUNT(i) AS muestras,
+                   SUM(i.minutos) AS minutosTotal
+            FROM SeguimientoOrdenAreaIntervalo i
+            WHERE i.areaOperativaId = :areaId
+              AND i.estado IN :estados
+              AND i.cerradoEn >= :desde
+              AND i.cerradoEn < :hasta
+            GROUP BY i.estado
+            """)
+    List<ResumenEstadoProjection> resumirPorEstadoCerradosEntre(
+            @Param("areaId") int areaId,
+            @Param("estados") Collection<Integer> estados,
+            @Param("desde") LocalDateTime desde,
+            @Param("hasta") LocalDateTime hasta
+    );
+
+    interface ResumenEstadoProjection {
+        Integer getEstado();
+        Long getMuestras();
+        Long getMinutosTotal();
+    }
+}
@@ -301,6 +301,57 @@ public interface SeguimientoOrdenAreaRepo extends JpaRepository<SeguimientoOrden
             @Param("estadoCola") int estadoCola
     );
 
+    /**
+     * Seguimientos de las ordenes abiertas (estado fuera de {@code estadosOrdenExcluidos},
+     * normalmente {@code OrdenProduccion.ESTADOS_SIN_REQUERIMIENTO}) con los datos que necesita
+     * la planificacion con capacidad finita. Con {@code areaIds} nulo trae todas las areas.
+     */
+    default List<PlanificacionSeguimientoProjection> findPlanificacionOrdenesAbiertas(
+            Collection<Integer> estadosOrdenExcluidos,
+            Collection<Integer> areaIds
+    ) {
+        if (areaIds != null && areaIds.isEmpty()) {
+            return List.of();
+        }
+        // El IN necesita al menos un valor aunque todasLasAreas lo deje sin efecto.
+        return findPlanificacionOrdenesAbiertas(
+                estadosOrdenExcluidos, areaIds == null, areaIds == null ? List.of(0) : areaIds);
+    }
+
+    @Query("""
+        SELECT s.id AS seguimientoId,
+               op.ordenId AS ordenId,
+               op.loteAsignado AS loteAsignado,
+               op.fechaCreacion AS fechaCreacion,
+               op.fechaLanzamiento AS fechaLanzamiento,
+               op.fechaFinalPlanificada AS fechaFinalPlanificada,
+               jornada.id AS jornadaLaboralVersionId,
+               n.id AS nodeId,
+               ruta.id AS rutaVersionId,
+               a.areaId AS areaId,
+               a.nombre AS areaNombre,
+               a.capacidadOrdenesSimultaneas AS areaCapacidad,
+               s.estado AS estado,
+               s.posicionSecuencia AS posicionSecuencia,
+               s.duracionEstimadaMinutos AS duracionEstimadaMinutos,
+               s.requiereJornadaLaboral AS requiereJornadaLaboral,
+               s.fechaEstadoActual AS fechaEstadoActual,
+               s.fechaCompletado AS fechaCompletado
+        FROM SeguimientoOrdenArea s
+        JOIN s.ordenProduccion op
+        JOIN s.areaOperativa a
+        LEFT JOIN s.rutaProcesoNode n
+        LEFT JOIN n.rutaProcesoCatVersion ruta
+        LEFT JOIN op.jornadaLaboralVersion jornada
+        WHERE op.estadoOrden NOT IN :estadosOrdenExcluidos
+        AND (:todasLasAreas = true OR a.areaId IN :areaIds)
+        """)
+    List<PlanificacionSeguimientoProjection> findPlanificacionOrdenesAbiertas(
+            @Param("estadosOrdenExcluidos") Collection<Integer> estadosOrdenExcluidos,
+            @Param("todasLasAreas") boolean todasLasAreas,
+            @Param("areaIds") Collection<Integer> areaIds
+    );
+
     @Query("""
         SELECT s.areaOperativa.areaId AS areaId,
                COUNT(s.id) AS total
@@ -320,6 +371,27 @@ public interface SeguimientoOrdenAreaRepo extends JpaRepository<SeguimientoOrden
         Long getTotal();
     }
 
+    interface PlanificacionSeguimientoProjection {
+        Long getSeguimientoId();
+        Integer getOrdenId();
+        String getLoteAsignado();
+        LocalDateTime getFechaCreacion();
+        LocalDateTime getFechaLanzamiento();
+        LocalDateTime getFechaFinalPlanificada();
+        Long getJornadaLaboralVersionId();
+        Long getNodeId();
+        Long getRutaVersionId();
+        Integer getAreaId();
+        String getAreaNombre();
+        Integer getAreaCapacidad();
+        Integer getEstado();
+        Integer getPosicionSecuencia();
+        Integer getDuracionEstimadaMinutos();
+        Boolean getRequiereJornadaLaboral();
+        LocalDateTime getFechaEstadoActual();
+        LocalDateTime getFechaCompletado();
+    }
+
     interface MpsIntervencionAreaProjection {
         Long getMpsItemId();
         Long getMpsLotePlanificadoId();
@@ -0,0 +1,47 @@
+package exotic.app.planta.repo.produccion;
+
+import exotic.app.planta.model.produccion.VentaDiariaTerminado;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface VentaDiariaTerminadoRepo extends JpaRepository<VentaDiariaTerminado, Long> {
+
+    /**
+     * Elimina la historia de las fechas cubiertas por una nueva carga del informe de ventas,
+     * ambas inclusive.
+     */
+    @Modifying
+    @Query("""
+            DELETE FROM VentaDiariaTerminado v
+            WHERE v.fecha >= :desde
+              AND v.fecha <= :hasta
+            """)
+    int deleteByFechas(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+
+    @Query("""
+            SELECT v
+            FROM VentaDiariaTerminado v
+            WHERE v.fecha >= :desde
+              AND v.fecha < :hasta
+            ORDER BY v.productoId ASC, v.fecha ASC
+            """)
+    List<VentaDiariaTerminado> findHistoria(
+            @Param("desde") LocalDate desde,
+            @Param("hasta") LocalDate hasta
+    );
+
+    @Query("""
+            SELECT MAX(v.fecha)
+            FROM VentaDiariaTerminado v
+            WHERE v.fecha < :hasta
+            """)
+    Optional<LocalDate> findUltimaFechaAntesDe(@Param("hasta") LocalDate hasta);
+}
@@ -2,8 +2,30 @@ package exotic.app.planta.repo.produccion.ruprocatdesigner;
 
 import exotic.app.planta.model.produccion.ruprocatdesigner.RutaProcesoEdge;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface RutaProcesoEdgeRepo extends JpaRepository<RutaProcesoEdge, Long> {
+
+    @Query("""
+        SELECT e.rutaProcesoCatVersion.id AS rutaVersionId,
+               e.sourceNode.id AS sourceNodeId,
+               e.targetNode.id AS targetNodeId
+        FROM RutaProcesoEdge e
+        WHERE e.rutaProcesoCatVersion.id IN :rutaVersionIds
+        AND e.sourceNode IS NOT NULL
+        AND e.targetNode IS NOT NULL
+        """)
+    List<AristaNodoProjection> findAristasByRutaVersionIds(@Param("rutaVersionIds") Collection<Long> rutaVersionIds);
+
+    interface AristaNodoProjection {
+        Long getRutaVersionId();
+        Long getSourceNodeId();
+        Long getTargetNodeId();
+    }
 }
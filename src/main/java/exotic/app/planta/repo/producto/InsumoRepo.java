@@ -3,9 +3,7 @@ package exotic.app.planta.repo.producto;
 import exotic.app.planta.model.producto.manufacturing.receta.Insumo;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
 
-import java.util.Collection;
 import java.util.List;
 
 public interface InsumoRepo extends JpaRepository<Insumo, Integer> {
@@ -25,28 +23,18 @@ public interface InsumoRepo extends JpaRepository<Insumo, Integer> {
      */
     java.util.List<Insumo> findByProducto_ProductoId(String productoId);
 
+    /**
+     * Todas las lineas de receta con producto de salida, para el indice en memoria de la
+     * propagacion de costos.
+     */
     @Query(value = """
             SELECT i.insumo_id AS "insumoId",
                    i.input_producto_id AS "inputProductoId",
                    i.output_producto_id AS "outputProductoId",
                    i.cantidad_requerida AS "cantidadRequerida"
               FROM insumos i
-             WHERE i.input_producto_id IN (:productoIds)
-               AND i.output_producto_id IS NOT NULL
-             ORDER BY i.output_producto_id, i.input_producto_id, i.insumo_id
-            """, nativeQuery = true)
-    List<CostoRecetaEdgeProjection> findCostoEdgesByInputProductoIds(
-            @Param("productoIds") Collection<String> productoIds);
-
-    @Query(value = """
-            SELECT i.insumo_id AS "insumoId",
-                   i.input_producto_id AS "inputProductoId",
-                   i.output_producto_id AS "outputProductoId",
-                   i.cantidad_requerida AS "cantidadRequerida"
-              FROM insumos i
-             WHERE i.output_producto_id IN (:productoIds)
+             WHERE i.output_producto_id IS NOT NULL
              ORDER BY i.output_producto_id, i.input_producto_id NULLS FIRST, i.insumo_id
             """, nativeQuery = true)
-    List<CostoRecetaEdgeProjection> findCostoEdgesByOutputProductoIds(
-            @Param("productoIds") Collection<String> productoIds);
+    List<CostoRecetaEdgeProjection> findAllCostoEdges();
 }
@@ -3,12 +3,48 @@ package exotic.app.planta.repo.producto.manufacturing.snapshots;
 import exotic.app.planta.model.producto.Producto;
 import exotic.app.planta.model.producto.manufacturing.snapshots.ManufacturingVersions;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface ManufacturingVersionRepo extends JpaRepository<ManufacturingVersions, Long> {
+    interface UltimaVersionProjection {
+        String getProductoId();
+        Long getVersionId();
+        int getVersionNumber();
+    }
+
     Optional<ManufacturingVersions> findTopByProductoOrderByVersionNumberDesc(Producto producto);
 
     List<ManufacturingVersions> findByProducto_ProductoId(String productoId);
+
+    /** Ultima version de cada producto indicado; los productos sin version no aparecen. */
+    @Query("""
+            SELECT v
+            FROM ManufacturingVersions v
+            JOIN FETCH v.producto p
+            WHERE p.productoId IN :productoIds
+              AND v.versionNumber = (
+                  SELECT MAX(v2.versionNumber)
+                  FROM ManufacturingVersions v2
+                  WHERE v2.producto = v.producto
+              )
+            """)
+    List<ManufacturingVersions> findLatestByProductoIds(@Param("productoIds") Collection<String> productoIds);
+
+    /** Ultima version de cada producto sin leer los JSON congelados. */
+    @Query("""
+            SELECT p.productoId AS productoId, v.id AS versionId, v.versionNumber AS versionNumber
+            FROM ManufacturingVersions v
+            JOIN v.producto p
+            WHERE v.versionNumber = (
+                SELECT MAX(v2.versionNumber)
+                FROM ManufacturingVersions v2
+                WHERE v2.producto = v.producto
+            )
+            """)
+    List<UltimaVersionProjection> findUltimasVersiones();
 }
@@ -1,7 +1,9 @@
 package exotic.app.planta.resource.bi;
 
+import exotic.app.planta.config.ExportacionAsyncConfig;
 import exotic.app.planta.model.bi.dto.FuenteDemandaCobertura;
 import exotic.app.planta.service.bi.InformeGlobalFechaResolver;
+import exotic.app.planta.service.bi.StreamingExcelWorkbook;
 import exotic.app.planta.service.bi.inventario.AjustesInventarioDetalleService;
 import exotic.app.planta.service.bi.inventario.AlertasInventarioDetalleService;
 import exotic.app.planta.service.bi.inventario.BusquedaStockMaterialService;
@@ -19,6 +21,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
@@ -77,18 +80,13 @@ public class InformeInventarioResource {
     }
 
     @GetMapping("/ocm-pendientes/excel")
-    public ResponseEntity<byte[]> ocmPendientesExcel() {
+    public ResponseEntity<StreamingResponseBody> ocmPendientesExcel() {
         var export = pendingPurchaseOrderExcelService.exportExcel();
-        String filename = "ocm_pendientes_"
-                + EXCEL_FILENAME_TIMESTAMP.format(export.cutoff())
-                + ".xlsx";
-        return ResponseEntity.ok()
-                .header(
-                        HttpHeaders.CONTENT_DISPOSITION,
-                        "attachment; filename=\"" + filename + "\"")
-                .contentType(MediaType.parseMediaType(
-                        "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-                .body(export.content());
+        return excelResponse(
+                export.content(),
+                "ocm_pendientes_"
+                        + EXCEL_FILENAME_TIMESTAMP.format(export.cutoff())
+                        + ".xlsx");
     }
 
     @GetMapping("/op-material-directo")
@@ -104,7 +102,7 @@ public class InformeInventarioResource {
     }
 
     @GetMapping("/op-material-directo/excel")
-    public ResponseEntity<byte[]> materialDirectoOpExcel() {
+    public ResponseEntity<StreamingResponseBody> materialDirectoOpExcel() {
         var export = materialOpExcelService.exportDispensedMaterial();
         return excelResponse(
                 export.content(),
@@ -127,7 +125,7 @@ public class InformeInventarioResource {
     }
 
     @GetMapping("/wip-material-estimado/excel")
-    public ResponseEntity<byte[]> wipMaterialEstimadoExcel() {
+    public ResponseEntity<StreamingResponseBody> wipMaterialEstimadoExcel() {
         var export = materialOpExcelService.exportWipMaterial();
         return excelResponse(
                 export.content(),
@@ -185,16 +183,11 @@ public class InformeInventarioResource {
                     unidad,
                     orden,
                     buscar);
-            String filename = "cobertura_materiales_"
-                    + EXCEL_FILENAME_TIMESTAMP.format(export.cutoff())
-                    + ".xlsx";
-            return ResponseEntity.ok()
-                    .header(
-                            HttpHeaders.CONTENT_DISPOSITION,
-                            "attachment; filename=\"" + filename + "\"")
-                    .contentType(MediaType.parseMediaType(
-                            "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-                    .body(export.content());
+            return excelResponse(
+                    export.content(),
+                    "cobertura_materiales_"
+                            + EXCEL_FILENAME_TIMESTAMP.format(export.cutoff())
+                            + ".xlsx");
         } catch (IllegalArgumentException ex) {
             return badRequest(ex);
         }
@@ -259,16 +252,20 @@ public class InformeInventarioResource {
         return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
     }
 
-    private static ResponseEntity<byte[]> excelResponse(
-            byte[] content,
+    /**
+     * Los datos del informe ya se cargaron (y validaron) en el servicio; solo el volcado del
+     * libro ocurre sobre la respuesta.
+     */
+    private static ResponseEntity<StreamingResponseBody> excelResponse(
+            StreamingExcelWorkbook.Output content,
             String filename
     ) {
+        ExportacionAsyncConfig.extenderTimeout();
         return ResponseEntity.ok()
                 .header(
                         HttpHeaders.CONTENT_DISPOSITION,
                         "attachment; filename=\"" + filename + "\"")
-                .contentType(MediaType.parseMediaType(
-                        "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-                .body(content);
+                .contentType(MediaType.parseMediaType(StreamingExcelWorkbook.CONTENT_TYPE))
+                .body(content::writeTo);
     }
 }
@@ -1,11 +1,13 @@
 package exotic.app.planta.resource.bi;
 
+import exotic.app.planta.config.ExportacionAsyncConfig;
 import exotic.app.planta.model.bi.dto.InformeDiarioIngresoTerminadosReporteDTO;
 import exotic.app.planta.service.bi.BiExcelExportMode;
 import exotic.app.planta.service.bi.BiExcelExportOptions;
 import exotic.app.planta.service.bi.ExcelDecimalSeparator;
 import exotic.app.planta.service.bi.InformesDiariosService;
 import exotic.app.planta.service.bi.SentidoAjusteInforme;
+import exotic.app.planta.service.bi.StreamingExcelWorkbook;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
@@ -15,6 +17,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.Map;
@@ -40,11 +43,11 @@ public class InformesDiariosResource {
             @RequestParam(required = false) ExcelDecimalSeparator decimalSeparator) {
         try {
             InformeFechaRange range = resolveInformeRange(fecha, fechaDesde, fechaHasta);
-            byte[] excel = informesDiariosService.exportarIngresoMaterialesExcel(
-                    range.fechaDesde(),
-                    range.fechaHasta(),
-                    BiExcelExportOptions.of(exportMode, decimalSeparator));
-            return excelResponse(excel, "informe_ingreso_materiales_" + range.filenameSuffix() + ".xlsx");
+            BiExcelExportOptions options = BiExcelExportOptions.of(exportMode, decimalSeparator);
+            return excelResponse(
+                    (out) -> informesDiariosService.exportarIngresoMaterialesExcel(
+                            range.fechaDesde(), range.fechaHasta(), options, out),
+                    "informe_ingreso_materiales_" + range.filenameSuffix() + ".xlsx");
         } catch (IllegalArgumentException ex) {
             return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
         }
@@ -59,11 +62,11 @@ public class InformesDiariosResource {
             @RequestParam(required = false) ExcelDecimalSeparator decimalSeparator) {
         try {
             InformeFechaRange range = resolveInformeRange(fecha, fechaDesde, fechaHasta);
-            byte[] excel = informesDiariosService.exportarDispensacionMaterialesExcel(
-                    range.fechaDesde(),
-                    range.fechaHasta(),
-                    BiExcelExportOptions.of(exportMode, decimalSeparator));
-            return excelResponse(excel, "informe_dispensacion_materiales_" + range.filenameSuffix() + ".xlsx");
+            BiExcelExportOptions options = BiExcelExportOptions.of(exportMode, decimalSeparator);
+            return excelResponse(
+                    (out) -> informesDiariosService.exportarDispensacionMaterialesExcel(
+                            range.fechaDesde(), range.fechaHasta(), options, out),
+                    "informe_dispensacion_materiales_" + range.filenameSuffix() + ".xlsx");
         } catch (IllegalArgumentException ex) {
             return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
         }
@@ -78,11 +81,11 @@ public class InformesDiariosResource {
             @RequestParam(required = false) ExcelDecimalSeparator decimalSeparator) {
         try {
             InformeFechaRange range = resolveInformeRange(fecha, fechaDesde, fechaHasta);
-            byte[] excel = informesDiariosService.exportarIngresoTerminadosExcel(
-                    range.fechaDesde(),
-                    range.fechaHasta(),
-                    BiExcelExportOptions.of(exportMode, decimalSeparator));
-            return excelResponse(excel, "informe_ingreso_terminados_" + range.filenameSuffix() + ".xlsx");
+            BiExcelExportOptions options = BiExcelExportOptions.of(exportMode, decimalSeparator);
+            return excelResponse(
+                    (out) -> informesDiariosService.exportarIngresoTerminadosExcel(
+                            range.fechaDesde(), range.fechaHasta(), options, out),
+                    "informe_ingreso_terminados_" + range.filenameSuffix() + ".xlsx");
         } catch (IllegalArgumentException ex) {
             return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
         }
@@ -95,19 +98,14 @@ public class InformesDiariosResource {
     }
 
     @GetMapping("/almacen/ingreso-terminados/reporte-excel")
-    public ResponseEntity<byte[]> exportarReporteIngresoTerminadosExcel(
+    public ResponseEntity<StreamingResponseBody> exportarReporteIngresoTerminadosExcel(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha,
             @RequestParam(required = false) BiExcelExportMode exportMode,
             @RequestParam(required = false) ExcelDecimalSeparator decimalSeparator) {
-        byte[] excel = informesDiariosService.exportarReporteIngresoTerminadosExcel(
-                fecha,
-                BiExcelExportOptions.of(exportMode, decimalSeparator));
-        String filename = "reporte_produccion_terminados_" + fecha + ".xlsx";
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-                .contentType(MediaType.parseMediaType(
-                        "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-                .body(excel);
+        BiExcelExportOptions options = BiExcelExportOptions.of(exportMode, decimalSeparator);
+        return excelResponse(
+                (out) -> informesDiariosService.exportarReporteIngresoTerminadosExcel(fecha, options, out),
+                "reporte_produccion_terminados_" + fecha + ".xlsx");
     }
 
     @GetMapping("/compras/excel")
@@ -119,47 +117,45 @@ public class InformesDiariosResource {
             @RequestParam(required = false) ExcelDecimalSeparator decimalSeparator) {
         try {
             InformeFechaRange range = resolveInformeRange(fecha, fechaDesde, fechaHasta);
-            byte[] excel = informesDiariosService.exportarComprasExcel(
-                    range.fechaDesde(),
-                    range.fechaHasta(),
-                    BiExcelExportOptions.of(exportMode, decimalSeparator));
-            return excelResponse(excel, "informe_compras_ocm_" + range.filenameSuffix() + ".xlsx");
+            BiExcelExportOptions options = BiExcelExportOptions.of(exportMode, decimalSeparator);
+            return excelResponse(
+                    (out) -> informesDiariosService.exportarComprasExcel(
+                            range.fechaDesde(), range.fechaHasta(), options, out),
+                    "informe_compras_ocm_" + range.filenameSuffix() + ".xlsx");
         } catch (IllegalArgumentException ex) {
             return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
         }
     }
 
     @GetMapping("/almacen/ajustes/excel")
-    public ResponseEntity<byte[]> exportarAjustesAlmacenExcel(
+    public ResponseEntity<StreamingResponseBody> exportarAjustesAlmacenExcel(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaDesde,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaHasta,
             @RequestParam SentidoAjusteInforme sentido,
             @RequestParam(required = false) BiExcelExportMode exportMode,
             @RequestParam(required = false) ExcelDecimalSeparator decimalSeparator) {
-        try {
-            byte[] excel = informesDiariosService.exportarAjustesAlmacenExcel(
-                    fechaDesde,
-                    fechaHasta,
-                    sentido,
-                    BiExcelExportOptions.of(exportMode, decimalSeparator));
-            String filename = String.format(
-                    "informe_ajustes_almacen_%s_%s_%s.xlsx", sentido.name(), fechaDesde, fechaHasta);
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-                    .contentType(MediaType.parseMediaType(
-                            "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-                    .body(excel);
-        } catch (IllegalArgumentException ex) {
+        if (fechaDesde.isAfter(fechaHasta)) {
             return ResponseEntity.badRequest().build();
         }
+        BiExcelExportOptions options = BiExcelExportOptions.of(exportMode, decimalSeparator);
+        String filename = String.format(
+                "informe_ajustes_almacen_%s_%s_%s.xlsx", sentido.name(), fechaDesde, fechaHasta);
+        return excelResponse(
+                (out) -> informesDiariosService.exportarAjustesAlmacenExcel(
+                        fechaDesde, fechaHasta, sentido, options, out),
+                filename);
     }
 
-    private ResponseEntity<byte[]> excelResponse(byte[] excel, String filename) {
+    /**
+     * El libro se escribe directamente sobre la respuesta mientras se recorre la consulta,
+     * por lo que el rango validado aquí es el único punto donde aún se puede responder 400.
+     */
+    private ResponseEntity<StreamingResponseBody> excelResponse(StreamingResponseBody body, String filename) {
+        ExportacionAsyncConfig.extenderTimeout();
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-                .contentType(MediaType.parseMediaType(
-                        "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-                .body(excel);
+                .contentType(MediaType.parseMediaType(StreamingExcelWorkbook.CONTENT_TYPE))
+                .body(body);
     }
 
     private InformeFechaRange resolveInformeRange(LocalDate fecha, LocalDate fechaDesde, LocalDate fechaHasta) {
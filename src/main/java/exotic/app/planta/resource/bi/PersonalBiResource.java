@@ -1,10 +1,12 @@
 package exotic.app.planta.resource.bi;
 
+import exotic.app.planta.config.ExportacionAsyncConfig;
 import exotic.app.planta.model.bi.dto.HorasExtraBiResumenDTO;
 import exotic.app.planta.model.bi.dto.HorasExtraBiSerieDTO;
 import exotic.app.planta.model.organizacion.personal.IntegrantePersonal;
 import exotic.app.planta.service.bi.HorasExtraBiGranularidad;
 import exotic.app.planta.service.bi.PersonalBiService;
+import exotic.app.planta.service.bi.StreamingExcelWorkbook;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -15,6 +17,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.Map;
@@ -91,7 +94,7 @@ public class PersonalBiResource {
             @RequestParam(required = false) String cargo
     ) {
         try {
-            byte[] excel = personalBiService.exportarHorasExtraExcel(
+            StreamingExcelWorkbook.Output excel = personalBiService.exportarHorasExtraExcel(
                     fechaDesde,
                     fechaHasta,
                     granularidad,
@@ -100,11 +103,11 @@ public class PersonalBiResource {
                     cargo
             );
             String filename = String.format("bi_personal_horas_extra_%s_%s.xlsx", fechaDesde, fechaHasta);
+            ExportacionAsyncConfig.extenderTimeout();
             return ResponseEntity.ok()
                     .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-                    .contentType(MediaType.parseMediaType(
-                            "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-                    .body(excel);
+                    .contentType(MediaType.parseMediaType(StreamingExcelWorkbook.CONTENT_TYPE))
+                    .body((StreamingResponseBody) excel::writeTo);
         } catch (IllegalArgumentException e) {
             log.warn("Solicitud invalida para Excel BI personal horas extra: {}", e.getMessage());
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
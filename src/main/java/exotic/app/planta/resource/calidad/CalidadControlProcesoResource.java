@@ -14,7 +14,7 @@ import exotic.app.planta.model.produccion.batchrecord.DecisionCalidadBatchRecord
 import exotic.app.planta.model.users.ModuloSistema;
 import exotic.app.planta.model.users.User;
 import exotic.app.planta.model.users.UserAccessEvaluator;
-import exotic.app.planta.repo.usuarios.UserRepository;
+import exotic.app.planta.security.AuthenticatedUserResolver;
 import exotic.app.planta.service.calidad.CalidadControlProcesoService;
 import exotic.app.planta.service.calidad.BatchRecordQualityService;
 import jakarta.servlet.http.HttpServletRequest;
@@ -52,7 +52,7 @@ public class CalidadControlProcesoResource {
 
     private final CalidadControlProcesoService service;
     private final BatchRecordQualityService batchRecordQualityService;
-    private final UserRepository userRepository;
+    private final AuthenticatedUserResolver authenticatedUserResolver;
 
     @GetMapping("/plantillas")
     public List<PlantillaResponse> listarPlantillas(
@@ -229,7 +229,7 @@ public class CalidadControlProcesoResource {
                 || authentication.getName().isBlank()) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "No autenticado");
         }
-        User user = userRepository.findByUsername(authentication.getName())
+        User user = authenticatedUserResolver.resolve(authentication)
                 .orElseThrow(() -> new ResponseStatusException(
                         HttpStatus.UNAUTHORIZED, "Usuario no encontrado"));
         int nivel = UserAccessEvaluator.tabNivel(
@@ -250,7 +250,7 @@ public class CalidadControlProcesoResource {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "No autenticado");
         }
 
-        User user = userRepository.findByUsername(authentication.getName())
+        User user = authenticatedUserResolver.resolve(authentication)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Usuario no encontrado"));
 
         if (isMasterLike(user.getUsername())) {
@@ -4,8 +4,9 @@ import exotic.app.planta.model.commons.dto.CargaCostosDTOs;
 import exotic.app.planta.model.users.ModuloSistema;
 import exotic.app.planta.model.users.User;
 import exotic.app.planta.model.users.UserAccessEvaluator;
-import exotic.app.planta.repo.usuarios.UserRepository;
+import exotic.app.planta.security.AuthenticatedUserResolver;
 import exotic.app.planta.service.commons.CargaMasivaCostosService;
+import exotic.app.planta.service.productos.ProductoCostoSimulacionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -16,6 +17,7 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -25,7 +27,7 @@ public class CargaMasivaCostosResource {
     private static final String TAB_ID = "CARGAS_MASIVAS";
 
     private final CargaMasivaCostosService service;
-    private final UserRepository userRepository;
+    private final AuthenticatedUserResolver authenticatedUserResolver;
 
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<CargaCostosDTOs.PreparacionResponse> preparar(
@@ -38,6 +40,26 @@ public class CargaMasivaCostosResource {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping("/simulacion")
+    public ResponseEntity<ProductoCostoSimulacionService.SimulacionCostos> simular(
+            @RequestBody List<ProductoCostoSimulacionService.EscenarioCosto> escenarios,
+            Authentication authentication
+    ) {
+        requireAccess(authentication);
+        return ResponseEntity.ok(service.simular(escenarios));
+    }
+
+    @PostMapping("/escenario")
+    public ResponseEntity<CargaCostosDTOs.PreparacionResponse> prepararEscenario(
+            @RequestBody ProductoCostoSimulacionService.EscenarioCosto escenario,
+            @RequestParam("motivo") String motivo,
+            Authentication authentication
+    ) {
+        CargaCostosDTOs.PreparacionResponse response = service.prepararEscenario(
+                escenario, motivo, requireAccess(authentication));
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
     @GetMapping("/{loteId}/items")
     public ResponseEntity<CargaCostosDTOs.ItemsPageResponse> listarItems(
             @PathVariable UUID loteId,
@@ -92,7 +114,7 @@ public class CargaMasivaCostosResource {
                 || authentication.getName() == null || authentication.getName().isBlank()) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "No autenticado");
         }
-        User user = userRepository.findByUsername(authentication.getName())
+        User user = authenticatedUserResolver.resolve(authentication)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Usuario no encontrado"));
         boolean allowed = UserAccessEvaluator.tabNivel(user, ModuloSistema.OPERACIONES_CRITICAS_BD, TAB_ID)
                 .orElse(0) >= 1;
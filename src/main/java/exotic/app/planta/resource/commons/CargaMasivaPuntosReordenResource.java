@@ -4,7 +4,7 @@ import exotic.app.planta.model.commons.dto.CargaPuntosReordenDTOs;
 import exotic.app.planta.model.users.ModuloSistema;
 import exotic.app.planta.model.users.User;
 import exotic.app.planta.model.users.UserAccessEvaluator;
-import exotic.app.planta.repo.usuarios.UserRepository;
+import exotic.app.planta.security.AuthenticatedUserResolver;
 import exotic.app.planta.service.commons.CargaMasivaPuntosReordenService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
@@ -28,7 +28,7 @@ public class CargaMasivaPuntosReordenResource {
     private static final String TAB_ID = "CARGAS_MASIVAS";
 
     private final CargaMasivaPuntosReordenService service;
-    private final UserRepository userRepository;
+    private final AuthenticatedUserResolver authenticatedUserResolver;
 
     @GetMapping("/template")
     public ResponseEntity<byte[]> template(Authentication authentication) {
@@ -67,7 +67,7 @@ public class CargaMasivaPuntosReordenResource {
                 || authentication.getName().isBlank()) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "No autenticado");
         }
-        User user = userRepository.findByUsername(authentication.getName())
+        User user = authenticatedUserResolver.resolve(authentication)
                 .orElseThrow(() -> new ResponseStatusException(
                         HttpStatus.UNAUTHORIZED,
                         "Usuario no encontrado"));
@@ -3,7 +3,7 @@ package exotic.app.planta.resource.commons;
 import exotic.app.planta.config.runtime.ApplicationRuntimeEnvironmentResolver;
 import exotic.app.planta.model.commons.dto.eliminaciones.PurgaBaseDatosResultDTO;
 import exotic.app.planta.model.users.User;
-import exotic.app.planta.repo.usuarios.UserRepository;
+import exotic.app.planta.security.AuthenticatedUserResolver;
 import exotic.app.planta.service.commons.DangerousOperationGuard;
 import exotic.app.planta.service.commons.DatabasePurgeService;
 import lombok.RequiredArgsConstructor;
@@ -26,7 +26,7 @@ public class DatabasePurgeResource {
     private final DatabasePurgeService databasePurgeService;
     private final DangerousOperationGuard dangerousOperationGuard;
     private final ApplicationRuntimeEnvironmentResolver applicationRuntimeEnvironmentResolver;
-    private final UserRepository userRepository;
+    private final AuthenticatedUserResolver authenticatedUserResolver;
 
     @DeleteMapping("/base-datos")
     public ResponseEntity<PurgaBaseDatosResultDTO> purgeDatabase(Authentication authentication) {
@@ -55,7 +55,7 @@ public class DatabasePurgeResource {
             throw new IllegalStateException("No autenticado");
         }
 
-        return userRepository.findByUsername(authentication.getName())
+        return authenticatedUserResolver.resolve(authentication)
                 .orElseThrow(() -> new IllegalStateException("Usuario autenticado no encontrado"));
     }
 
@@ -4,7 +4,7 @@ import exotic.app.planta.model.commons.dto.exportacion.BackupTotalJobResponseDTO
 import exotic.app.planta.model.users.ModuloSistema;
 import exotic.app.planta.model.users.User;
 import exotic.app.planta.model.users.UserAccessEvaluator;
-import exotic.app.planta.repo.usuarios.UserRepository;
+import exotic.app.planta.security.AuthenticatedUserResolver;
 import exotic.app.planta.service.commons.BackupTotalExportService;
 import exotic.app.planta.service.commons.ExportacionMaterialService;
 import exotic.app.planta.service.commons.ExportacionProveedorService;
@@ -37,7 +37,7 @@ public class ExportacionDatosResource {
     private final ExportacionTerminadoService exportacionTerminadoService;
     private final ExportacionProveedorService exportacionProveedorService;
     private final BackupTotalExportService backupTotalExportService;
-    private final UserRepository userRepository;
+    private final AuthenticatedUserResolver authenticatedUserResolver;
 
     @GetMapping("/materiales/excel")
     public ResponseEntity<byte[]> exportarMaterialesExcel() {
@@ -120,7 +120,7 @@ public class ExportacionDatosResource {
             throw new ResponseStatusException(UNAUTHORIZED, "No autenticado");
         }
 
-        User user = userRepository.findByUsername(authentication.getName())
+        User user = authenticatedUserResolver.resolve(authentication)
                 .orElseThrow(() -> new ResponseStatusException(UNAUTHORIZED, "Usuario no encontrado"));
 
         boolean isMasterLike = isMasterLike(user.getUsername());
@@ -2,14 +2,17 @@ package exotic.app.planta.resource.commons.notificaciones;
 
 import exotic.app.planta.model.commons.notificaciones.ModuleNotificationDTA;
 import exotic.app.planta.model.commons.notificaciones.PuntoReordenEvaluacionResult;
-import exotic.app.planta.service.commons.notificaciones.NotificacionesModulosService;
-import exotic.app.planta.service.commons.notificaciones.PuntoReordenEvaluacionService;
+import exotic.app.planta.service.commons.notificaciones.NotificacionesHub;
+import exotic.app.planta.service.commons.notificaciones.PuntoReordenEvaluacionCache;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -18,24 +21,34 @@ import java.util.List;
 @RequiredArgsConstructor
 public class NotificacionesCardsCampanaResource {
 
-    private final NotificacionesModulosService notificacionesModulosService;
-    private final PuntoReordenEvaluacionService puntoReordenEvaluacionService;
+    private final NotificacionesHub notificacionesHub;
+    private final PuntoReordenEvaluacionCache puntoReordenEvaluacionCache;
 
     /**
      * Endpoint para verificar notificaciones para todos los modulos a los que tiene acceso un usuario.
+     * Sirve como snapshot al reconectar el stream; no consulta la base de datos por cada modulo.
      */
     @GetMapping("/notifications4user")
     public ResponseEntity<List<ModuleNotificationDTA>> checkNotifications4User(@RequestParam String username) {
-        List<ModuleNotificationDTA> notifications = notificacionesModulosService.checkAllNotifications4User(username);
+        List<ModuleNotificationDTA> notifications = notificacionesHub.snapshot(username);
         return ResponseEntity.ok(notifications);
     }
 
+    /**
+     * Stream de notificaciones del usuario autenticado: evento {@code snapshot} al conectar y
+     * evento {@code modulo} con cada notificacion que cambie.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(Authentication authentication) {
+        return notificacionesHub.suscribir(authentication.getName());
+    }
+
     /**
      * Materiales con stock en o bajo punto de reorden, separados por estado de OCM.
      */
     @GetMapping("/stock/materiales-en-punto-reorden")
     public ResponseEntity<PuntoReordenEvaluacionResult> materialesEnPuntoReorden() {
-        PuntoReordenEvaluacionResult result = puntoReordenEvaluacionService.evaluar();
+        PuntoReordenEvaluacionResult result = puntoReordenEvaluacionCache.obtener();
         return ResponseEntity.ok(result);
     }
 }
@@ -8,7 +8,7 @@ import exotic.app.planta.model.compras.dto.search.SearchOrdenCompraRequest;
 import exotic.app.planta.model.users.ModuloSistema;
 import exotic.app.planta.model.users.User;
 import exotic.app.planta.model.users.UserAccessEvaluator;
-import exotic.app.planta.repo.usuarios.UserRepository;
+import exotic.app.planta.security.AuthenticatedUserResolver;
 import exotic.app.planta.service.compras.ComprasService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -40,7 +40,7 @@ public class ComprasResource {
      * Compras
      */
     private final ComprasService compraService;
-    private final UserRepository userRepository;
+    private final AuthenticatedUserResolver authenticatedUserResolver;
 
 
     @GetMapping("/byProveedorAndDate")
@@ -139,7 +139,7 @@ public class ComprasResource {
             throw new ResponseStatusException(UNAUTHORIZED, "No autenticado");
         }
 
-        return userRepository.findByUsername(authentication.getName())
+        return authenticatedUserResolver.resolve(authentication)
                 .orElseThrow(() -> new ResponseStatusException(UNAUTHORIZED, "Usuario no encontrado"));
     }
 
@@ -8,10 +8,12 @@ import exotic.app.planta.service.contabilidad.PeriodoContableService;
 import exotic.app.planta.service.contabilidad.ReporteContableService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -475,13 +477,48 @@ public class ContabilidadController {
         }
     }
 
+    /**
+     * Genera una página del libro mayor con saldo inicial del período y saldo acumulado.
+     * La primera página se pide sin cursor; las siguientes con el cursor {@code siguiente}
+     * de la respuesta anterior.
+     *
+     * @param cuentaCodigo Código de la cuenta contable
+     * @param periodoId ID del período contable
+     * @return Página de movimientos del libro mayor
+     */
+    @GetMapping("/libro-mayor/pagina")
+    public ResponseEntity<?> generarLibroMayorPaginado(
+            @RequestParam String cuentaCodigo,
+            @RequestParam Long periodoId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime cursorFecha,
+            @RequestParam(required = false) Long cursorAsientoId,
+            @RequestParam(required = false) Long cursorLineaId,
+            @RequestParam(defaultValue = "200") int size) {
+        log.info("REST request para generar página del libro mayor. Cuenta: {}, Período: {}", cuentaCodigo, periodoId);
+
+        try {
+            ReporteContableService.CursorLibroMayor cursor =
+                    cursorFecha == null && cursorAsientoId == null && cursorLineaId == null
+                            ? null
+                            : new ReporteContableService.CursorLibroMayor(cursorFecha, cursorAsientoId, cursorLineaId);
+            return ResponseEntity.ok(
+                    reporteContableService.generarLibroMayor(cuentaCodigo, periodoId, cursor, size));
+        } catch (RuntimeException e) {
+            log.error("Error al generar página del libro mayor", e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of(
+                            "error", "Parámetros inválidos",
+                            "mensaje", e.getMessage()
+                    ));
+        }
+    }
+
     /**
      * Genera el balance de comprobación para un período específico.
      * 
      * @param periodoId ID del período contable
      * @return Lista de saldos de cuentas para el balance de comprobación
      */
-    /*
     @GetMapping("/balance-comprobacion")
     public ResponseEntity<?> generarBalanceComprobacion(@RequestParam Long periodoId) {
         log.info("REST request para generar balance de comprobación. Período: {}", periodoId);
@@ -499,7 +536,6 @@ public class ContabilidadController {
                     ));
         }
     }
-    */
 
     /**
      * Genera el balance general para un período específico.
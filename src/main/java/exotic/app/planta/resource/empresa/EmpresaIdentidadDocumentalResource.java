@@ -1,7 +1,7 @@
 package exotic.app.planta.resource.empresa;
 
 import exotic.app.planta.model.empresa.dto.EmpresaIdentidadDocumentalVigenteResponse;
-import exotic.app.planta.repo.usuarios.UserRepository;
+import exotic.app.planta.security.AuthenticatedUserResolver;
 import exotic.app.planta.service.empresa.EmpresaIdentidadDocumentalService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.CacheControl;
@@ -25,7 +25,7 @@ public class EmpresaIdentidadDocumentalResource {
     private static final CacheControl CURRENT_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
 
     private final EmpresaIdentidadDocumentalService service;
-    private final UserRepository userRepository;
+    private final AuthenticatedUserResolver authenticatedUserResolver;
 
     @GetMapping("/vigente")
     public ResponseEntity<EmpresaIdentidadDocumentalVigenteResponse> getVigente(
@@ -54,7 +54,7 @@ public class EmpresaIdentidadDocumentalResource {
             throw new ResponseStatusException(UNAUTHORIZED, "No autenticado");
         }
 
-        userRepository.findByUsername(authentication.getName())
+        authenticatedUserResolver.resolve(authentication)
                 .orElseThrow(() -> new ResponseStatusException(UNAUTHORIZED, "Usuario no encontrado"));
     }
 
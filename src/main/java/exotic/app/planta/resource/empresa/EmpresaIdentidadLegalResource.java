@@ -5,7 +5,7 @@ import exotic.app.planta.model.empresa.dto.EmpresaIdentidadLegalVersionRequest;
 import exotic.app.planta.model.users.ModuloSistema;
 import exotic.app.planta.model.users.User;
 import exotic.app.planta.model.users.UserAccessEvaluator;
-import exotic.app.planta.repo.usuarios.UserRepository;
+import exotic.app.planta.security.AuthenticatedUserResolver;
 import exotic.app.planta.service.empresa.EmpresaIdentidadLegalService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -34,7 +34,7 @@ public class EmpresaIdentidadLegalResource {
     private static final CacheControl METADATA_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
 
     private final EmpresaIdentidadLegalService service;
-    private final UserRepository userRepository;
+    private final AuthenticatedUserResolver authenticatedUserResolver;
 
     @GetMapping("/vigente")
     public ResponseEntity<EmpresaIdentidadLegalVersion> getVigente(Authentication authentication) {
@@ -69,7 +69,7 @@ public class EmpresaIdentidadLegalResource {
             throw new ResponseStatusException(UNAUTHORIZED, "No autenticado");
         }
 
-        return userRepository.findByUsername(authentication.getName())
+        return authenticatedUserResolver.resolve(authentication)
                 .orElseThrow(() -> new ResponseStatusException(UNAUTHORIZED, "Usuario no encontrado"));
     }
 
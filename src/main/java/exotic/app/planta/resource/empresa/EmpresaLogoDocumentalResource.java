@@ -5,7 +5,7 @@ import exotic.app.planta.model.empresa.dto.EmpresaLogoDocumentalVersionResponse;
 import exotic.app.planta.model.users.ModuloSistema;
 import exotic.app.planta.model.users.User;
 import exotic.app.planta.model.users.UserAccessEvaluator;
-import exotic.app.planta.repo.usuarios.UserRepository;
+import exotic.app.planta.security.AuthenticatedUserResolver;
 import exotic.app.planta.service.empresa.EmpresaLogoDocumentalService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.CacheControl;
@@ -40,7 +40,7 @@ public class EmpresaLogoDocumentalResource {
     private static final CacheControl METADATA_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
 
     private final EmpresaLogoDocumentalService service;
-    private final UserRepository userRepository;
+    private final AuthenticatedUserResolver authenticatedUserResolver;
 
     @GetMapping("/vigente")
     public ResponseEntity<EmpresaLogoDocumentalVersionResponse> getVigente(Authentication authentication) {
@@ -121,7 +121,7 @@ public class EmpresaLogoDocumentalResource {
             throw new ResponseStatusException(UNAUTHORIZED, "No autenticado");
         }
 
-        return userRepository.findByUsername(authentication.getName())
+        return authenticatedUserResolver.resolve(authentication)
                 .orElseThrow(() -> new ResponseStatusException(UNAUTHORIZED, "Usuario no encontrado"));
     }
 
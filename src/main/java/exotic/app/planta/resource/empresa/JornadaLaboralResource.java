@@ -1,20 +1,25 @@
 package exotic.app.planta.resource.empresa;
 
 import exotic.app.planta.dto.ErrorResponse;
+import exotic.app.planta.model.empresa.dto.DiaFestivoRequest;
+import exotic.app.planta.model.empresa.dto.DiaFestivoResponse;
 import exotic.app.planta.model.empresa.dto.JornadaLaboralVersionRequest;
 import exotic.app.planta.model.empresa.dto.JornadaLaboralVersionResponse;
 import exotic.app.planta.model.users.ModuloSistema;
 import exotic.app.planta.model.users.User;
 import exotic.app.planta.model.users.UserAccessEvaluator;
-import exotic.app.planta.repo.usuarios.UserRepository;
+import exotic.app.planta.security.AuthenticatedUserResolver;
+import exotic.app.planta.service.empresa.DiaFestivoService;
 import exotic.app.planta.service.empresa.JornadaLaboralService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -35,7 +40,8 @@ public class JornadaLaboralResource {
     private static final String TAB_JORNADA_LABORAL = "JORNADA_LABORAL";
 
     private final JornadaLaboralService service;
-    private final UserRepository userRepository;
+    private final DiaFestivoService diaFestivoService;
+    private final AuthenticatedUserResolver authenticatedUserResolver;
 
     @GetMapping("/vigente")
     public ResponseEntity<JornadaLaboralVersionResponse> getVigente(Authentication authentication) {
@@ -61,12 +67,37 @@ public class JornadaLaboralResource {
                 .body(created);
     }
 
+    @GetMapping("/festivos")
+    public ResponseEntity<List<DiaFestivoResponse>> getFestivos(Authentication authentication) {
+        requireTabAccess(authentication, 1);
+        return ResponseEntity.ok(diaFestivoService.getFestivos());
+    }
+
+    @PostMapping("/festivos")
+    public ResponseEntity<DiaFestivoResponse> crearFestivo(
+            Authentication authentication,
+            @Valid @RequestBody DiaFestivoRequest request
+    ) {
+        User user = requireTabAccess(authentication, 2);
+        DiaFestivoResponse created = diaFestivoService.crear(request, user.getUsername());
+        return ResponseEntity
+                .created(URI.create("/api/jornada-laboral/festivos/" + created.getId()))
+                .body(created);
+    }
+
+    @DeleteMapping("/festivos/{id}")
+    public ResponseEntity<Void> eliminarFestivo(Authentication authentication, @PathVariable Long id) {
+        requireTabAccess(authentication, 2);
+        diaFestivoService.eliminar(id);
+        return ResponseEntity.noContent().build();
+    }
+
     private User requireAuthenticatedUser(Authentication authentication) {
         if (authentication == null || !authentication.isAuthenticated()) {
             throw new ResponseStatusException(UNAUTHORIZED, "No autenticado");
         }
 
-        return userRepository.findByUsername(authentication.getName())
+        return authenticatedUserResolver.resolve(authentication)
                 .orElseThrow(() -> new ResponseStatusException(UNAUTHORIZED, "Usuario no encontrado"));
     }
 
@@ -10,7 +10,7 @@ import exotic.app.planta.model.produccion.dto.ReporteProduccionPendientesResumen
 import exotic.app.planta.model.users.ModuloSistema;
 import exotic.app.planta.model.users.User;
 import exotic.app.planta.model.users.UserAccessEvaluator;
-import exotic.app.planta.repo.usuarios.UserRepository;
+import exotic.app.planta.security.AuthenticatedUserResolver;
 import exotic.app.planta.service.inventarios.ReporteHyLService;
 import exotic.app.planta.service.produccion.CierreProduccionConflictException;
 import exotic.app.planta.service.produccion.CierreProduccionService;
@@ -45,7 +45,7 @@ public class IngresoTerminadosAlmacenResource {
     private final ReporteHyLService reporteHyLService;
     private final ReporteProduccionLoteService reporteProduccionLoteService;
     private final CierreProduccionService cierreProduccionService;
-    private final UserRepository userRepository;
+    private final AuthenticatedUserResolver authenticatedUserResolver;
 
     @GetMapping("/pendientes/resumen")
     public ResponseEntity<ReporteProduccionPendientesResumenDTO> resumirPendientes(
@@ -93,7 +93,7 @@ public class IngresoTerminadosAlmacenResource {
         if (authentication == null || !authentication.isAuthenticated()) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "No autenticado");
         }
-        User user = userRepository.findByUsername(authentication.getName())
+        User user = authenticatedUserResolver.resolve(authentication)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Usuario no encontrado"));
         if (isMasterLike(user.getUsername())) {
             return user;
@@ -1,11 +1,13 @@
 package exotic.app.planta.resource.inventarios;
 
+import exotic.app.planta.config.ExportacionAsyncConfig;
 import exotic.app.planta.model.inventarios.Movimiento;
 import exotic.app.planta.model.inventarios.dto.AlcanceInventario;
 import exotic.app.planta.model.inventarios.dto.InventarioExcelRequestDTO;
 import exotic.app.planta.model.inventarios.dto.InventarioConsolidadoPageDTO;
 import exotic.app.planta.model.inventarios.dto.KardexMovimientosPageDTO;
 import exotic.app.planta.model.inventarios.dto.KardexMovimientosRequestDTO;
+import exotic.app.planta.service.bi.StreamingExcelWorkbook;
 import exotic.app.planta.service.inventarios.InventarioService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
@@ -18,6 +20,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -55,11 +58,7 @@ public class InventarioResource {
     @PostMapping("/exportar-excel")
     public ResponseEntity<?> exportarExcel(@RequestBody InventarioExcelRequestDTO dto) {
         try {
-            byte[] excel = inventarioService.generateInventoryExcel(dto);
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"inventario.xlsx\"")
-                    .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-                    .body(excel);
+            return excelResponse(inventarioService.generateInventoryExcel(dto), "inventario.xlsx");
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
         }
@@ -78,13 +77,21 @@ public class InventarioResource {
     @PostMapping("/kardex/exportar-excel")
     public ResponseEntity<?> exportarKardexExcel(@RequestBody KardexMovimientosRequestDTO dto) {
         try {
-            byte[] excel = inventarioService.exportKardexExcel(dto);
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"kardex.xlsx\"")
-                    .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-                    .body(excel);
+            return excelResponse(inventarioService.exportKardexExcel(dto), "kardex.xlsx");
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
         }
     }
+
+    /**
+     * Las validaciones y consultas ya corrieron en el servicio (un error aún puede responder 400);
+     * solo el volcado del libro se hace sobre la respuesta.
+     */
+    private ResponseEntity<StreamingResponseBody> excelResponse(StreamingExcelWorkbook.Output excel, String filename) {
+        ExportacionAsyncConfig.extenderTimeout();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .contentType(MediaType.parseMediaType(StreamingExcelWorkbook.CONTENT_TYPE))
+                .body(excel::writeTo);
+    }
 }
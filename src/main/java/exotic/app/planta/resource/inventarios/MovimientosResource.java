@@ -1,6 +1,7 @@
 package exotic.app.planta.resource.inventarios;
 
 
+import exotic.app.planta.config.ExportacionAsyncConfig;
 import exotic.app.planta.model.inventarios.dto.AjusteInventarioDTO;
 import exotic.app.planta.model.inventarios.dto.FiltroHistorialTransaccionesDTO;
 import exotic.app.planta.model.inventarios.dto.IngresoOCM_DTA;
@@ -10,6 +11,7 @@ import exotic.app.planta.model.inventarios.dto.TransaccionAlmacenResponseDTO;
 import exotic.app.planta.model.inventarios.Movimiento;
 import exotic.app.planta.model.inventarios.TransaccionAlmacen;
 import exotic.app.planta.model.producto.dto.ProductoStockDTO;
+import exotic.app.planta.service.bi.StreamingExcelWorkbook;
 import exotic.app.planta.service.inventarios.MovimientosService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -19,6 +21,7 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.Map;
 
@@ -59,12 +62,12 @@ public class MovimientosResource {
      * @return Archivo Excel con los movimientos filtrados
      */
     @PostMapping("/exportar-movimientos-excel")
-    public ResponseEntity<byte[]> exportMovimientosExcel(@RequestBody MovimientoExcelRequestDTO dto) {
-        byte[] excel = movimientoService.generateMovimientosExcel(dto);
+    public ResponseEntity<StreamingResponseBody> exportMovimientosExcel(@RequestBody MovimientoExcelRequestDTO dto) {
+        ExportacionAsyncConfig.extenderTimeout();
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"movimientos.xlsx\"")
-                .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-                .body(excel);
+                .contentType(MediaType.parseMediaType(StreamingExcelWorkbook.CONTENT_TYPE))
+                .body((out) -> movimientoService.generateMovimientosExcel(dto, out));
     }
 
     /**
@@ -9,7 +9,7 @@ import exotic.app.planta.model.produccion.dto.MpsSemanalDraftDTO;
 import exotic.app.planta.model.users.ModuloSistema;
 import exotic.app.planta.model.users.User;
 import exotic.app.planta.model.users.UserAccessEvaluator;
-import exotic.app.planta.repo.usuarios.UserRepository;
+import exotic.app.planta.security.AuthenticatedUserResolver;
 import exotic.app.planta.service.inventarios.DispensacionV2MpsService;
 import exotic.app.planta.service.inventarios.DispensacionV2WorkflowService;
 import exotic.app.planta.service.inventarios.SalidaAlmacenService;
@@ -39,7 +39,7 @@ public class SalidaAlmacenResource {
     private final SalidaAlmacenService salidaAlmacenService;
     private final DispensacionV2MpsService dispensacionV2MpsService;
     private final DispensacionV2WorkflowService dispensacionV2WorkflowService;
-    private final UserRepository userRepository;
+    private final AuthenticatedUserResolver authenticatedUserResolver;
     private final ObjectMapper objectMapper;
 
     @GetMapping("/dispensacion-v2/ordenes-fabricacion")
@@ -78,7 +78,7 @@ public class SalidaAlmacenResource {
         User currentUser = getCurrentUser(authentication);
         requireDispensacionV2Access(currentUser);
         return ResponseEntity.ok(dispensacionV2WorkflowService
-                .asignarLotesOrdenFabricacion(ordenFabricacionId, request));
+                .asignarLotesOrdenFabricacion(ordenFabricacionId, request, currentUser));
     }
 
     @PostMapping("/dispensacion-v2/ordenes-fabricacion/{ordenFabricacionId}/finalizar")
@@ -160,7 +160,7 @@ public class SalidaAlmacenResource {
                 () -> {
                     User currentUser = getCurrentUser(authentication);
                     requireDispensacionV2Access(currentUser);
-                    return ResponseEntity.ok(dispensacionV2WorkflowService.asignarLotes(request));
+                    return ResponseEntity.ok(dispensacionV2WorkflowService.asignarLotes(request, currentUser));
                 }
         );
     }
@@ -350,7 +350,7 @@ public class SalidaAlmacenResource {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "No autenticado");
         }
 
-        return userRepository.findByUsername(authentication.getName())
+        return authenticatedUserResolver.resolve(authentication)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Usuario no encontrado"));
     }
 
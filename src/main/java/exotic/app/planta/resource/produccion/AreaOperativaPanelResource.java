@@ -6,7 +6,7 @@ import exotic.app.planta.model.produccion.EstadoMpsSemanal;
 import exotic.app.planta.model.produccion.dto.MpsSemanalDraftDTO;
 import exotic.app.planta.model.produccion.dto.MpsSemanalOrdenProduccionListItemDTO;
 import exotic.app.planta.model.users.User;
-import exotic.app.planta.repo.usuarios.UserRepository;
+import exotic.app.planta.security.AuthenticatedUserResolver;
 import exotic.app.planta.service.produccion.AreaOperativaPanelDetalleService;
 import exotic.app.planta.service.produccion.AreaOperativaPanelDetalleService.AreaOperativaOrdenDetalleDTO;
 import exotic.app.planta.service.produccion.AreaOperativaPoeService;
@@ -60,7 +60,7 @@ public class AreaOperativaPanelResource {
     private final MasterProductionScheduleDraftService masterProductionScheduleDraftService;
     private final MasterProductionScheduleOrderGenerationService masterProductionScheduleOrderGenerationService;
     private final UserOperationalCompatibilityService userOperationalCompatibilityService;
-    private final UserRepository userRepository;
+    private final AuthenticatedUserResolver authenticatedUserResolver;
     private final OrdenFabricacionOperacionService ordenFabricacionOperacionService;
     private final OrdenFabricacionService ordenFabricacionService;
 
@@ -241,6 +241,34 @@ public class AreaOperativaPanelResource {
         }
     }
 
+    @PostMapping("/ruido-muestras/lote")
+    public ResponseEntity<?> registrarRuidoMuestrasLote(
+            Authentication authentication,
+            @RequestBody List<AreaOperativaRuidoMuestraService.AreaOperativaRuidoMuestraRequest> requests
+    ) {
+        User user = getCurrentUser(authentication);
+
+        try {
+            return ResponseEntity.ok(areaOperativaRuidoMuestraService.registrarMuestras(user, requests));
+        } catch (AccessDeniedException e) {
+            log.warn("Acceso denegado al registro de ruido para user {}: {}", user.getId(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(new ErrorResponse("Acceso denegado", e.getMessage()));
+        } catch (AreaOperativaRuidoMuestraService.AreaOperativaRuidoDeshabilitadaException e) {
+            log.warn("Lote de ruido rechazado por directiva para user {}: {}", user.getId(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new ErrorResponse("Medicion de ruido deshabilitada", e.getMessage()));
+        } catch (IllegalStateException e) {
+            log.warn("Lote de ruido omitido por frecuencia para user {}: {}", user.getId(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .body(new ErrorResponse("Muestra demasiado frecuente", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            log.warn("Solicitud invalida de lote de ruido para user {}: {}", user.getId(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ErrorResponse("Solicitud invalida", e.getMessage()));
+        }
+    }
+
     @GetMapping("/mps-semanal/actual")
     public ResponseEntity<?> getMpsSemanalActual(Authentication authentication) {
         User user = getCurrentUser(authentication);
@@ -376,8 +404,7 @@ public class AreaOperativaPanelResource {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "No autenticado");
         }
 
-        String username = authentication.getName();
-        return userRepository.findByUsername(username)
+        return authenticatedUserResolver.resolve(authentication)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Usuario no encontrado"));
     }
 }
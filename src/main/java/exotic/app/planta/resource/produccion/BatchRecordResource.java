@@ -5,7 +5,7 @@ import exotic.app.planta.model.produccion.dto.BatchRecordDTOs;
 import exotic.app.planta.model.users.ModuloSistema;
 import exotic.app.planta.model.users.User;
 import exotic.app.planta.model.users.UserAccessEvaluator;
-import exotic.app.planta.repo.usuarios.UserRepository;
+import exotic.app.planta.security.AuthenticatedUserResolver;
 import exotic.app.planta.service.produccion.BatchRecordPdfService;
 import exotic.app.planta.service.produccion.BatchRecordService;
 import lombok.RequiredArgsConstructor;
@@ -37,7 +37,7 @@ public class BatchRecordResource {
 
     private final BatchRecordService batchRecordService;
     private final BatchRecordPdfService pdfService;
-    private final UserRepository userRepository;
+    private final AuthenticatedUserResolver authenticatedUserResolver;
 
     @GetMapping
     public Page<BatchRecordDTOs.ListItem> buscar(
@@ -93,7 +93,7 @@ public class BatchRecordResource {
                 || authentication.getName() == null || authentication.getName().isBlank()) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "No autenticado");
         }
-        User user = userRepository.findByUsername(authentication.getName())
+        User user = authenticatedUserResolver.resolve(authentication)
                 .orElseThrow(() -> new ResponseStatusException(
                         HttpStatus.UNAUTHORIZED, "Usuario no encontrado"));
         if (isMasterLike(user.getUsername())) return user;
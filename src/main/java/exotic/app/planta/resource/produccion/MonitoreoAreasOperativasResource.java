@@ -1,24 +1,32 @@
 package exotic.app.planta.resource.produccion;
 
 import exotic.app.planta.dto.ErrorResponse;
+import exotic.app.planta.model.produccion.ResolucionRuido;
 import exotic.app.planta.model.produccion.dto.AreaOperativaInactivityAlertDTO;
 import exotic.app.planta.model.produccion.dto.AreaOperativaMonitoreoDTO;
 import exotic.app.planta.model.users.ModuloSistema;
 import exotic.app.planta.model.users.User;
 import exotic.app.planta.model.users.UserAccessEvaluator;
-import exotic.app.planta.repo.usuarios.UserRepository;
+import exotic.app.planta.security.AuthenticatedUserResolver;
 import exotic.app.planta.service.master.configs.MasterDirectiveService;
 import exotic.app.planta.service.produccion.AreaOperativaInactivityAlertService;
+import exotic.app.planta.service.produccion.AreaOperativaRuidoSerieService;
 import exotic.app.planta.service.produccion.MonitoreoAreasOperativasMetricasService;
 import exotic.app.planta.service.produccion.MonitoreoAreasOperativasService;
 import exotic.app.planta.service.produccion.MonitoreoAreasOperativasMetricasService.AreaOperativaMetricasDTO;
+import exotic.app.planta.service.produccion.PlanCapacidadFinitaService;
+import exotic.app.planta.service.produccion.PlanCapacidadFinitaService.AreaProyectada;
+import exotic.app.planta.service.produccion.PlanCapacidadFinitaService.OrdenProyectada;
+import exotic.app.planta.service.produccion.PlanCapacidadFinitaService.PlanCapacidad;
 import exotic.app.planta.service.produccion.SeguimientoOrdenAreaService;
 import exotic.app.planta.service.produccion.SeguimientoOrdenAreaService.AreaOperativaTableroDTO;
 import exotic.app.planta.service.produccion.SeguimientoOrdenAreaService.SeguimientoOrdenAreaDTO;
+import exotic.app.planta.service.produccion.TableroOperativoFeed;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.core.Authentication;
@@ -30,8 +38,10 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Locale;
 
@@ -44,9 +54,12 @@ public class MonitoreoAreasOperativasResource {
     private final MonitoreoAreasOperativasService monitoreoAreasOperativasService;
     private final MonitoreoAreasOperativasMetricasService monitoreoAreasOperativasMetricasService;
     private final AreaOperativaInactivityAlertService areaOperativaInactivityAlertService;
+    private final AreaOperativaRuidoSerieService areaOperativaRuidoSerieService;
+    private final PlanCapacidadFinitaService planCapacidadFinitaService;
     private final SeguimientoOrdenAreaService seguimientoOrdenAreaService;
     private final MasterDirectiveService masterDirectiveService;
-    private final UserRepository userRepository;
+    private final AuthenticatedUserResolver authenticatedUserResolver;
+    private final TableroOperativoFeed tableroOperativoFeed;
 
     @GetMapping("/areas")
     public ResponseEntity<List<AreaOperativaMonitoreoDTO>> listarAreasMonitoreables() {
@@ -58,6 +71,39 @@ public class MonitoreoAreasOperativasResource {
         return ResponseEntity.ok(areaOperativaInactivityAlertService.getAlertasInactividad());
     }
 
+    @GetMapping(value = "/alertas-inactividad/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAlertasInactividad() {
+        return areaOperativaInactivityAlertService.suscribir();
+    }
+
+    /**
+     * Plan con capacidad finita de las ordenes abiertas: inicio y fin proyectados por orden y
+     * la cola proyectada de cada area.
+     */
+    @GetMapping("/plan-capacidad")
+    public ResponseEntity<PlanCapacidad> getPlanCapacidad() {
+        exigirPlanDisponible();
+        return ResponseEntity.ok(planCapacidadFinitaService.getPlan());
+    }
+
+    @GetMapping("/plan-capacidad/areas/{areaId}")
+    public ResponseEntity<AreaProyectada> getPlanCapacidadArea(@PathVariable int areaId) {
+        exigirPlanDisponible();
+        return planCapacidadFinitaService.getArea(areaId)
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.NOT_FOUND, "El area " + areaId + " no tiene seguimientos de ordenes abiertas."));
+    }
+
+    @GetMapping("/plan-capacidad/ordenes/{ordenId}")
+    public ResponseEntity<OrdenProyectada> getPlanCapacidadOrden(@PathVariable int ordenId) {
+        exigirPlanDisponible();
+        return planCapacidadFinitaService.getOrden(ordenId)
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.NOT_FOUND, "La orden " + ordenId + " no esta abierta o no tiene seguimientos."));
+    }
+
     @GetMapping("/areas/{areaId}/tablero")
     public ResponseEntity<AreaOperativaTableroDTO> getTableroAreaPorFecha(
             @PathVariable int areaId,
@@ -65,6 +111,19 @@ public class MonitoreoAreasOperativasResource {
         return ResponseEntity.ok(monitoreoAreasOperativasService.getTableroAreaPorFecha(areaId, fecha));
     }
 
+    /**
+     * Stream del tablero de hoy del area: evento {@code tablero-area} al conectar y con cada
+     * lote de cambios confirmados en el area.
+     */
+    @GetMapping(value = "/areas/{areaId}/tablero/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTableroArea(@PathVariable int areaId) {
+        try {
+            return tableroOperativoFeed.suscribirArea(areaId);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+    }
+
     @GetMapping("/areas/{areaId}/metricas")
     public ResponseEntity<?> getMetricasArea(
             @PathVariable int areaId,
@@ -89,6 +148,22 @@ public class MonitoreoAreasOperativasResource {
         }
     }
 
+    @GetMapping("/areas/{areaId}/ruido")
+    public ResponseEntity<?> getSerieRuido(
+            @PathVariable int areaId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta,
+            @RequestParam(required = false) ResolucionRuido resolucion
+    ) {
+        try {
+            return ResponseEntity.ok(areaOperativaRuidoSerieService.getSerie(areaId, desde, hasta, resolucion));
+        } catch (IllegalArgumentException e) {
+            log.warn("Serie de ruido invalida para area {}: {}", areaId, e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(new ErrorResponse("Serie de ruido invalida", e.getMessage()));
+        }
+    }
+
     @PatchMapping("/areas/{areaId}/seguimientos/{seguimientoId}/correccion-estado")
     public ResponseEntity<?> corregirEstadoSeguimiento(
             @PathVariable int areaId,
@@ -126,7 +201,7 @@ public class MonitoreoAreasOperativasResource {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "No autenticado");
         }
 
-        User user = userRepository.findByUsername(authentication.getName())
+        User user = authenticatedUserResolver.resolve(authentication)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Usuario no encontrado"));
 
         if (isMasterLike(user.getUsername())) {
@@ -151,6 +226,14 @@ public class MonitoreoAreasOperativasResource {
         return "master".equals(normalized) || "super_master".equals(normalized);
     }
 
+    /** El plan se calcula en segundo plano; hasta la primera carga no hay nada que servir. */
+    private void exigirPlanDisponible() {
+        if (!planCapacidadFinitaService.disponible()) {
+            throw new ResponseStatusException(
+                    HttpStatus.SERVICE_UNAVAILABLE, "El plan de capacidad se esta calculando; intente de nuevo en unos segundos.");
+        }
+    }
+
     @Data
     public static class CorregirEstadoSeguimientoRequest {
         private Integer expectedEstado;
@@ -5,7 +5,7 @@ import exotic.app.planta.model.produccion.dto.OrdenFabricacionDTOs;
 import exotic.app.planta.model.users.ModuloSistema;
 import exotic.app.planta.model.users.User;
 import exotic.app.planta.model.users.UserAccessEvaluator;
-import exotic.app.planta.repo.usuarios.UserRepository;
+import exotic.app.planta.security.AuthenticatedUserResolver;
 import exotic.app.planta.service.produccion.OrdenFabricacionService;
 import exotic.app.planta.service.produccion.OrdenFabricacionOperacionService;
 import exotic.app.planta.service.master.configs.MasterDirectiveService;
@@ -30,7 +30,7 @@ public class OrdenFabricacionResource {
     private static final String TAB = "CREAR_ORDEN_FABRICACION";
 
     private final OrdenFabricacionService service;
-    private final UserRepository userRepository;
+    private final AuthenticatedUserResolver authenticatedUserResolver;
     private final OrdenFabricacionOperacionService operacionService;
     private final MasterDirectiveService masterDirectiveService;
 
@@ -122,7 +122,7 @@ public class OrdenFabricacionResource {
                 || authentication.getName() == null || authentication.getName().isBlank()) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "No autenticado");
         }
-        User user = userRepository.findByUsername(authentication.getName())
+        User user = authenticatedUserResolver.resolve(authentication)
                 .orElseThrow(() -> new ResponseStatusException(
                         HttpStatus.UNAUTHORIZED, "Usuario no encontrado"));
         if (isMasterLike(user.getUsername())) return user;
@@ -145,7 +145,7 @@ public class OrdenFabricacionResource {
                 || authentication.getName() == null || authentication.getName().isBlank()) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "No autenticado");
         }
-        User user = userRepository.findByUsername(authentication.getName())
+        User user = authenticatedUserResolver.resolve(authentication)
                 .orElseThrow(() -> new ResponseStatusException(
                         HttpStatus.UNAUTHORIZED, "Usuario no encontrado"));
         if (isMasterLike(user.getUsername())) return user;
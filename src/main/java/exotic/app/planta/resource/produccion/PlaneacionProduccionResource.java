@@ -1,23 +1,22 @@
 package exotic.app.planta.resource.produccion;
 
+import exotic.app.planta.model.produccion.dto.CargaVentasResultadoDTO;
 import exotic.app.planta.model.produccion.dto.FilaInfVentasDTO;
 import exotic.app.planta.model.produccion.dto.TerminadoConVentasDTO;
-import exotic.app.planta.model.producto.Terminado;
-import exotic.app.planta.repo.inventarios.TransaccionAlmacenRepo;
-import exotic.app.planta.repo.producto.TerminadoRepo;
+import exotic.app.planta.service.produccion.PlaneacionVentasService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/planeacion_produccion")
@@ -25,48 +24,34 @@ import java.util.stream.Collectors;
 @Slf4j
 public class PlaneacionProduccionResource {
 
-    private final TerminadoRepo terminadoRepo;
-    private final TransaccionAlmacenRepo transaccionAlmacenRepo;
+    private final PlaneacionVentasService planeacionVentasService;
 
     @PostMapping("/asociar_terminados")
     public ResponseEntity<List<TerminadoConVentasDTO>> asociarTerminados(
             @RequestBody List<FilaInfVentasDTO> filasUnificadas
     ) {
         log.info("[asociarTerminados] Recibidas {} filas unificadas", filasUnificadas.size());
-
-        List<String> codigos = filasUnificadas.stream()
-                .map(FilaInfVentasDTO::getCodigo)
-                .collect(Collectors.toList());
-
-        Map<String, Terminado> terminadosMap = terminadoRepo.findAllById(codigos).stream()
-                .collect(Collectors.toMap(Terminado::getProductoId, Function.identity()));
-
-        Map<String, Double> stockMap = codigos.isEmpty()
-                ? Map.of()
-                : transaccionAlmacenRepo.findTotalCantidadByProductoIds(codigos).stream()
-                .collect(Collectors.toMap(
-                        row -> (String) row[0],
-                        row -> row[1] instanceof Number number ? number.doubleValue() : 0.0
-                ));
-
-        List<TerminadoConVentasDTO> resultado = new ArrayList<>();
-
-        for (FilaInfVentasDTO fila : filasUnificadas) {
-            Terminado terminado = terminadosMap.get(fila.getCodigo());
-            if (terminado != null) {
-                double stockActualConsolidado = stockMap.getOrDefault(terminado.getProductoId(), 0.0);
-                resultado.add(new TerminadoConVentasDTO(
-                        terminado,
-                        fila.getCantidadVendida(),
-                        fila.getValorTotal(),
-                        stockActualConsolidado
-                ));
-            } else {
-                log.warn("[asociarTerminados] No se encontro Terminado con codigo: {}", fila.getCodigo());
-            }
-        }
-
+        List<TerminadoConVentasDTO> resultado = planeacionVentasService.asociarTerminados(filasUnificadas);
         log.info("[asociarTerminados] Asociados {} de {} codigos", resultado.size(), filasUnificadas.size());
         return ResponseEntity.ok(resultado);
     }
+
+    /**
+     * Procesa el informe de ventas en servidor: guarda la historia diaria por terminado y
+     * responde los totales del archivo asociados a cada terminado con su stock.
+     */
+    @PostMapping("/ventas/carga")
+    public ResponseEntity<?> cargarInformeVentas(
+            Authentication authentication,
+            @RequestParam("file") MultipartFile file
+    ) {
+        String username = authentication != null ? authentication.getName() : null;
+        try {
+            CargaVentasResultadoDTO resultado = planeacionVentasService.cargarInformeVentas(file, username);
+            return ResponseEntity.ok(resultado);
+        } catch (IllegalArgumentException e) {
+            log.warn("[cargarInformeVentas] user={} error={}", username, e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
 }
@@ -6,10 +6,10 @@ import exotic.app.planta.model.produccion.dto.ODP_Data4PDF;
 import exotic.app.planta.model.produccion.dto.OrdenProduccionBatchDTO;
 import exotic.app.planta.model.produccion.dto.OrdenProduccionDTO;
 import exotic.app.planta.model.produccion.dto.OrdenProduccionDTO_save;
+import exotic.app.planta.security.AuthenticatedUserResolver;
 import exotic.app.planta.service.produccion.ProduccionService;
 import exotic.app.planta.repo.inventarios.LoteRepo;
 import exotic.app.planta.model.users.User;
-import exotic.app.planta.repo.usuarios.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -35,7 +35,7 @@ public class ProduccionResource {
 
     private final ProduccionService produccionService;
     private final LoteRepo loteRepo;
-    private final UserRepository userRepository;
+    private final AuthenticatedUserResolver authenticatedUserResolver;
 
     @PostMapping("/save")
     public ResponseEntity<OrdenProduccion> saveOrdenProduccion(
@@ -161,7 +161,7 @@ public class ProduccionResource {
             throw new org.springframework.web.server.ResponseStatusException(
                     HttpStatus.UNAUTHORIZED, "No autenticado");
         }
-        return userRepository.findByUsername(authentication.getName())
+        return authenticatedUserResolver.resolve(authentication)
                 .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
                         HttpStatus.UNAUTHORIZED, "Usuario no encontrado"));
     }
@@ -14,16 +14,18 @@ import exotic.app.planta.model.produccion.dto.MpsSemanalListItemDTO;
 import exotic.app.planta.model.produccion.dto.MpsSemanalObservacionDTO;
 import exotic.app.planta.model.produccion.dto.MpsSemanalOrdenProduccionListItemDTO;
 import exotic.app.planta.model.produccion.dto.SemanaMPSDTO;
+import exotic.app.planta.model.produccion.dto.SugerenciaProgramacionSemanalDTO;
 import exotic.app.planta.model.users.ModuloSistema;
 import exotic.app.planta.model.users.User;
 import exotic.app.planta.model.users.UserAccessEvaluator;
-import exotic.app.planta.repo.usuarios.UserRepository;
 import exotic.app.planta.resource.produccion.exceptions.MpsSemanalDraftNotFoundException;
 import exotic.app.planta.resource.produccion.exceptions.MpsSemanalNotFoundException;
+import exotic.app.planta.security.AuthenticatedUserResolver;
 import exotic.app.planta.service.produccion.MasterProductionScheduleDraftService;
 import exotic.app.planta.service.produccion.MasterProductionScheduleOrderGenerationService;
 import exotic.app.planta.service.produccion.MpsSemanalAprobadoEditService;
 import exotic.app.planta.service.produccion.MpsSemanalObservacionService;
+import exotic.app.planta.service.produccion.MrpSemanalService;
 import exotic.app.planta.service.produccion.ProgramacionProduccionSemanalService;
 import exotic.app.planta.service.produccion.SemanaMPSService;
 import lombok.RequiredArgsConstructor;
@@ -57,8 +59,9 @@ public class ProgramacionProduccionResource {
     private final MasterProductionScheduleOrderGenerationService masterProductionScheduleOrderGenerationService;
     private final MpsSemanalAprobadoEditService mpsSemanalAprobadoEditService;
     private final MpsSemanalObservacionService mpsSemanalObservacionService;
+    private final MrpSemanalService mrpSemanalService;
     private final SemanaMPSService semanaMPSService;
-    private final UserRepository userRepository;
+    private final AuthenticatedUserResolver authenticatedUserResolver;
 
     @GetMapping("/mps-semanal/semanas")
     public ResponseEntity<?> listarSemanasMps(
@@ -189,6 +192,66 @@ public class ProgramacionProduccionResource {
         }
     }
 
+    @GetMapping("/mps-semanal/sugerencia")
+    public ResponseEntity<?> sugerirProgramacionSemanal(
+            @RequestParam LocalDate weekStartDate,
+            Authentication authentication
+    ) {
+        String action = "sugerirProgramacionSemanal";
+        String user = authenticationName(authentication);
+        String context = "weekStartDate=" + weekStartDate;
+        try {
+            log.info("[MPS_SEMANAL] {} start user={} {}", action, user, context);
+            requireTabAccess(authentication, "PROGRAMACION_PRODUCCION");
+            SugerenciaProgramacionSemanalDTO response = programacionProduccionSemanalService.sugerirProgramacion(weekStartDate);
+            log.info("[MPS_SEMANAL] {} success user={} {} terminados={} totalLotes={}",
+                    action, user, context, response.getItems().size(), response.getTotalLotesSugeridos());
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return controlledFailure(action, user, context, HttpStatus.BAD_REQUEST, e);
+        } catch (ResponseStatusException e) {
+            accessFailure(action, user, context, e);
+            throw e;
+        } catch (RuntimeException e) {
+            unexpectedFailure(action, user, context, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Corrida MRP de la semana aprobada: requerimientos netos por producto y ordenes de compra y
+     * de fabricacion planificadas con su fecha de liberacion.
+     */
+    @GetMapping("/mps-semanal/mrp")
+    public ResponseEntity<?> ejecutarMrpSemanal(
+            @RequestParam LocalDate weekStartDate,
+            Authentication authentication
+    ) {
+        String action = "ejecutarMrpSemanal";
+        String user = authenticationName(authentication);
+        String context = "weekStartDate=" + weekStartDate;
+        try {
+            log.info("[MPS_SEMANAL] {} start user={} {}", action, user, context);
+            requireTabAccess(authentication, "PROGRAMACION_PRODUCCION");
+            MrpSemanalService.ResultadoMrp response = mrpSemanalService.ejecutar(weekStartDate);
+            log.info("[MPS_SEMANAL] {} success user={} {} ordenesCompra={} ordenesFabricacion={}",
+                    action, user, context, response.ordenesCompra().size(), response.ordenesFabricacion().size());
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return controlledFailure(action, user, context, HttpStatus.BAD_REQUEST, e);
+        } catch (MpsSemanalNotFoundException e) {
+            return controlledFailure(action, user, context, HttpStatus.NOT_FOUND, e);
+        } catch (IllegalStateException e) {
+            return controlledFailure(action, user, context, HttpStatus.CONFLICT, e);
+        } catch (ResponseStatusException e) {
+            accessFailure(action, user, context, e);
+            throw e;
+        } catch (RuntimeException e) {
+            unexpectedFailure(action, user, context, e);
+            throw e;
+        }
+    }
+
     @GetMapping("/mps-semanal")
     public ResponseEntity<?> obtenerMpsSemanal(
             @RequestParam LocalDate weekStartDate,
@@ -593,7 +656,7 @@ public class ProgramacionProduccionResource {
         if (authentication == null || !authentication.isAuthenticated() || authentication.getName() == null || authentication.getName().isBlank()) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "No autenticado");
         }
-        User user = userRepository.findByUsername(authentication.getName())
+        User user = authenticatedUserResolver.resolve(authentication)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Usuario no encontrado"));
 
         if (isMasterLike(user.getUsername())) {
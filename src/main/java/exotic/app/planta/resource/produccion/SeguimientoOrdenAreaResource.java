@@ -2,7 +2,7 @@ package exotic.app.planta.resource.produccion;
 
 import exotic.app.planta.dto.ErrorResponse;
 import exotic.app.planta.model.users.User;
-import exotic.app.planta.repo.usuarios.UserRepository;
+import exotic.app.planta.security.AuthenticatedUserResolver;
 import exotic.app.planta.service.produccion.CierreProduccionConflictException;
 import exotic.app.planta.service.produccion.SeguimientoOrdenAreaService;
 import exotic.app.planta.service.produccion.SeguimientoOrdenAreaService.OrdenSeguimientoDetalleDTO;
@@ -10,11 +10,13 @@ import exotic.app.planta.service.produccion.SeguimientoOrdenAreaService.Reportar
 import exotic.app.planta.service.produccion.SeguimientoOrdenAreaService.SeguimientoOrdenAreaDTO;
 import exotic.app.planta.service.produccion.SeguimientoOrdenAreaService.TableroOperativoDTO;
 import exotic.app.planta.service.produccion.SeguimientoOrdenAreaService.TableroVista;
+import exotic.app.planta.service.produccion.TableroOperativoFeed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
@@ -27,6 +29,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -36,7 +39,8 @@ import java.util.List;
 public class SeguimientoOrdenAreaResource {
 
     private final SeguimientoOrdenAreaService seguimientoService;
-    private final UserRepository userRepository;
+    private final AuthenticatedUserResolver authenticatedUserResolver;
+    private final TableroOperativoFeed tableroOperativoFeed;
 
     @GetMapping("/mis-ordenes-pendientes")
     public ResponseEntity<Page<SeguimientoOrdenAreaDTO>> getMisOrdenesPendientes(
@@ -71,6 +75,18 @@ public class SeguimientoOrdenAreaResource {
         ));
     }
 
+    /**
+     * Stream del tablero del usuario autenticado: evento {@code tablero-operativo} al conectar y
+     * cada vez que cambian las ordenes de sus areas.
+     */
+    @GetMapping(value = "/mis-ordenes-tablero/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamMisOrdenesTablero(
+            Authentication authentication,
+            @RequestParam(defaultValue = "HISTORICO") TableroVista vista) {
+        User user = getCurrentUser(authentication);
+        return tableroOperativoFeed.suscribirOperador(user.getId(), vista);
+    }
+
     @GetMapping("/area/{areaId}/pendientes")
     public ResponseEntity<Page<SeguimientoOrdenAreaDTO>> getOrdenesPendientesPorArea(
             @PathVariable int areaId,
@@ -144,8 +160,7 @@ public class SeguimientoOrdenAreaResource {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "No autenticado");
         }
 
-        String username = authentication.getName();
-        return userRepository.findByUsername(username)
+        return authenticatedUserResolver.resolve(authentication)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Usuario no encontrado"));
     }
 
@@ -8,7 +8,7 @@ import exotic.app.planta.model.producto.manufacturing.procesos.ProcesoProduccion
 import exotic.app.planta.model.users.ModuloSistema;
 import exotic.app.planta.model.users.User;
 import exotic.app.planta.model.users.UserAccessEvaluator;
-import exotic.app.planta.repo.usuarios.UserRepository;
+import exotic.app.planta.security.AuthenticatedUserResolver;
 import exotic.app.planta.service.productos.procesos.ProcesoProduccionDocumentoService;
 import exotic.app.planta.service.productos.procesos.ProcesoProduccionService;
 import lombok.RequiredArgsConstructor;
@@ -44,7 +44,7 @@ public class ProcesoProduccionResource {
 
     private final ProcesoProduccionService procesoProduccionService;
     private final ProcesoProduccionDocumentoService procesoProduccionDocumentoService;
-    private final UserRepository userRepository;
+    private final AuthenticatedUserResolver authenticatedUserResolver;
 
     @PostMapping
     public ResponseEntity<?> createProcesoProduccion(@Valid @RequestBody ProcesoProduccionDTO procesoProduccionDTO) {
@@ -226,7 +226,7 @@ public class ProcesoProduccionResource {
             throw new ResponseStatusException(UNAUTHORIZED, "No autenticado");
         }
 
-        User user = userRepository.findByUsername(authentication.getName())
+        User user = authenticatedUserResolver.resolve(authentication)
                 .orElseThrow(() -> new ResponseStatusException(UNAUTHORIZED, "Usuario no encontrado"));
         if (isMasterLike(user.getUsername())) {
             return user;
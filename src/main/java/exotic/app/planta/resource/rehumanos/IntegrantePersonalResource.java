@@ -9,7 +9,7 @@ import exotic.app.planta.model.organizacion.personal.dto.RegistroHoraExtraDecisi
 import exotic.app.planta.model.organizacion.personal.dto.RegistroHoraExtraRequestDTO;
 import exotic.app.planta.model.organizacion.personal.dto.RegistroHoraExtraResponseDTO;
 import exotic.app.planta.model.users.User;
-import exotic.app.planta.repo.usuarios.UserRepository;
+import exotic.app.planta.security.AuthenticatedUserResolver;
 import exotic.app.planta.service.rehumanos.IntegrantePersonalService;
 import exotic.app.planta.service.rehumanos.RegistroHoraExtraService;
 import jakarta.persistence.EntityNotFoundException;
@@ -42,7 +42,7 @@ public class IntegrantePersonalResource {
 
     private final IntegrantePersonalService integrantePersonalService;
     private final RegistroHoraExtraService registroHoraExtraService;
-    private final UserRepository userRepository;
+    private final AuthenticatedUserResolver authenticatedUserResolver;
 
     /**
      * POST endpoint to save a new IntegrantePersonal entity
@@ -231,7 +231,7 @@ public class IntegrantePersonalResource {
             throw new ResponseStatusException(UNAUTHORIZED, "No autenticado");
         }
 
-        return userRepository.findByUsername(authentication.getName())
+        return authenticatedUserResolver.resolve(authentication)
                 .orElseThrow(() -> new ResponseStatusException(UNAUTHORIZED, "Usuario no encontrado"));
     }
 
@@ -0,0 +1,120 @@
+package exotic.app.planta.security;
+
+import exotic.app.planta.model.users.User;
+import exotic.app.planta.model.users.UsuarioCambioEvent;
+import exotic.app.planta.repo.usuarios.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resuelve el {@link User} (con sus modulos y tabs) del usuario autenticado sin volver a
+ * consultarlo en cada llamada.
+ *
+ * <p>Dentro de una peticion el usuario se memoiza como atributo del request, asi que guards y
+ * resources que lo piden varias veces comparten la misma instancia. Entre peticiones se guarda
+ * en un cache LRU acotado por (usuario, token): un login nuevo siempre recarga. Cualquier cambio
+ * confirmado de usuarios o accesos ({@link UsuarioCambioEvent}) vacia el cache.
+ *
+ * <p>La instancia devuelta esta desacoplada del EntityManager y la comparten varias peticiones:
+ * sirve para leer accesos y como referencia en relaciones, no para modificar el usuario.
+ */
+@Component
+@RequiredArgsConstructor
+public class AuthenticatedUserResolver {
+
+    static final int MAX_ENTRADAS = 512;
+    static final Duration TTL = Duration.ofMinutes(5);
+    private static final String ATRIBUTO_REQUEST = AuthenticatedUserResolver.class.getName() + ".";
+
+    private final UserRepository userRepository;
+    private final Clock applicationClock;
+
+    private final AtomicLong generacion = new AtomicLong();
+    private final Map<Clave, Entrada> cache = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Clave, Entrada> eldest) {
+            return size() > MAX_ENTRADAS;
+        }
+    };
+
+    public Optional<User> resolve(Authentication authentication) {
+        if (authentication == null || authentication.getName() == null) {
+            return Optional.empty();
+        }
+        Object credentials = authentication.getCredentials();
+        int tokenVersion = credentials instanceof String token ? token.hashCode() : 0;
+        return resolve(new Clave(authentication.getName(), tokenVersion));
+    }
+
+    public Optional<User> resolve(String username) {
+        if (username == null) {
+            return Optional.empty();
+        }
+        return resolve(new Clave(username, 0));
+    }
+
+    public void invalidateAll() {
+        synchronized (cache) {
+            generacion.incrementAndGet();
+            cache.clear();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUsuarioCambio(UsuarioCambioEvent event) {
+        invalidateAll();
+    }
+
+    private Optional<User> resolve(Clave clave) {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        String atributo = ATRIBUTO_REQUEST + clave.username();
+        if (request != null && request.getAttribute(atributo, RequestAttributes.SCOPE_REQUEST) instanceof User user) {
+            return Optional.of(user);
+        }
+
+        Optional<User> user = desdeCache(clave);
+        if (user.isPresent() && request != null) {
+            request.setAttribute(atributo, user.get(), RequestAttributes.SCOPE_REQUEST);
+        }
+        return user;
+    }
+
+    private Optional<User> desdeCache(Clave clave) {
+        Instant ahora = applicationClock.instant();
+        long generacionLeida = generacion.get();
+        synchronized (cache) {
+            Entrada entrada = cache.get(clave);
+            if (entrada != null && ahora.isBefore(entrada.cargadaEn().plus(TTL))) {
+                return Optional.of(entrada.user());
+            }
+        }
+
+        Optional<User> user = userRepository.findByUsername(clave.username());
+        // Si los accesos cambiaron mientras se leia, no se guarda lo leido.
+        if (user.isPresent()) {
+            synchronized (cache) {
+                if (generacion.get() == generacionLeida) {
+                    cache.put(clave, new Entrada(user.get(), ahora));
+                }
+            }
+        }
+        return user;
+    }
+
+    private record Clave(String username, int tokenVersion) {}
+
+    private record Entrada(User user, Instant cargadaEn) {}
+}
@@ -2,6 +2,7 @@ package exotic.app.planta.service.bi;
 
 import exotic.app.planta.model.bi.dto.InformeDiarioComprasRowDTO;
 import exotic.app.planta.model.bi.dto.InformeDiarioIngresoTerminadosReporteDTO;
+import exotic.app.planta.model.bi.dto.MovimientoAlmacenRowDTO;
 import exotic.app.planta.model.inventarios.Movimiento;
 import exotic.app.planta.model.inventarios.TransaccionAlmacen;
 import exotic.app.planta.model.producto.Categoria;
@@ -22,12 +23,13 @@ import org.apache.poi.ss.usermodel.CellStyle;
 import org.apache.poi.ss.usermodel.DataFormat;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.ss.usermodel.Workbook;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.text.DecimalFormat;
 import java.time.LocalDate;
@@ -43,6 +45,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -175,10 +178,32 @@ public class InformesDiariosService {
             LocalDate fechaDesde,
             LocalDate fechaHasta,
             BiExcelExportOptions options) {
+        return generarExcel(contenidoIngresoMateriales(fechaDesde, fechaHasta, options), "ingreso materiales");
+    }
+
+    /**
+     * Variante en streaming: escribe el Excel directamente en {@code out} sin materializarlo en memoria.
+     */
+    public void exportarIngresoMaterialesExcel(
+            LocalDate fechaDesde,
+            LocalDate fechaHasta,
+            BiExcelExportOptions options,
+            OutputStream out) throws IOException {
+        StreamingExcelWorkbook.export(out, contenidoIngresoMateriales(fechaDesde, fechaHasta, options));
+    }
+
+    private StreamingExcelWorkbook.Content contenidoIngresoMateriales(
+            LocalDate fechaDesde,
+            LocalDate fechaHasta,
+            BiExcelExportOptions options) {
         DateTimeRange range = resolveDateTimeRange(fechaDesde, fechaHasta);
-        List<Movimiento> movimientos = transaccionAlmacenRepo.findIngresosMaterialPorDia(
-                range.start(), range.end(), TIPOS_INGRESO_MATERIAL);
-        return generarExcelMovimientosAlmacen(movimientos, "Ingreso materiales", "ingreso materiales", options);
+        return (workbook) -> escribirMovimientosAlmacen(
+                workbook,
+                transaccionAlmacenRepo.streamIngresosMaterialPorRango(
+                        range.start(), range.end(), TIPOS_INGRESO_MATERIAL),
+                "Ingreso materiales",
+                options,
+                false);
     }
 
     /**
@@ -196,10 +221,31 @@ public class InformesDiariosService {
             LocalDate fechaDesde,
             LocalDate fechaHasta,
             BiExcelExportOptions options) {
+        return generarExcel(
+                contenidoDispensacionMateriales(fechaDesde, fechaHasta, options),
+                "dispensación materiales");
+    }
+
+    public void exportarDispensacionMaterialesExcel(
+            LocalDate fechaDesde,
+            LocalDate fechaHasta,
+            BiExcelExportOptions options,
+            OutputStream out) throws IOException {
+        StreamingExcelWorkbook.export(out, contenidoDispensacionMateriales(fechaDesde, fechaHasta, options));
+    }
+
+    private StreamingExcelWorkbook.Content contenidoDispensacionMateriales(
+            LocalDate fechaDesde,
+            LocalDate fechaHasta,
+            BiExcelExportOptions options) {
         DateTimeRange range = resolveDateTimeRange(fechaDesde, fechaHasta);
-        List<Movimiento> movimientos = transaccionAlmacenRepo.findDispensacionesMaterialPorDia(
-                range.start(), range.end(), Movimiento.TipoMovimiento.DISPENSACION);
-        return generarExcelMovimientosAlmacen(movimientos, "Dispensación materiales", "dispensación materiales", options);
+        return (workbook) -> escribirMovimientosAlmacen(
+                workbook,
+                transaccionAlmacenRepo.streamDispensacionesMaterialPorRango(
+                        range.start(), range.end(), Movimiento.TipoMovimiento.DISPENSACION),
+                "Dispensación materiales",
+                options,
+                false);
     }
 
     /**
@@ -217,8 +263,31 @@ public class InformesDiariosService {
             LocalDate fechaDesde,
             LocalDate fechaHasta,
             BiExcelExportOptions options) {
-        List<Movimiento> movimientos = findIngresosTerminados(fechaDesde, fechaHasta);
-        return generarExcelMovimientosAlmacen(movimientos, "Ingreso producto terminado", "ingreso producto terminado", options);
+        return generarExcel(
+                contenidoIngresoTerminados(fechaDesde, fechaHasta, options),
+                "ingreso producto terminado");
+    }
+
+    public void exportarIngresoTerminadosExcel(
+            LocalDate fechaDesde,
+            LocalDate fechaHasta,
+            BiExcelExportOptions options,
+            OutputStream out) throws IOException {
+        StreamingExcelWorkbook.export(out, contenidoIngresoTerminados(fechaDesde, fechaHasta, options));
+    }
+
+    private StreamingExcelWorkbook.Content contenidoIngresoTerminados(
+            LocalDate fechaDesde,
+            LocalDate fechaHasta,
+            BiExcelExportOptions options) {
+        resolveDateTimeRange(fechaDesde, fechaHasta);
+        return (workbook) -> escribirMovimientosAlmacen(
+                workbook,
+                findIngresosTerminados(fechaDesde, fechaHasta).stream()
+                        .map(InformesDiariosService::toFilaMovimiento),
+                "Ingreso producto terminado",
+                options,
+                false);
     }
 
     public InformeDiarioIngresoTerminadosReporteDTO obtenerReporteIngresoTerminados(LocalDate fecha) {
@@ -348,7 +417,15 @@ public class InformesDiariosService {
 
     public byte[] exportarReporteIngresoTerminadosExcel(LocalDate fecha, BiExcelExportOptions options) {
         InformeDiarioIngresoTerminadosReporteDTO reporte = obtenerReporteIngresoTerminados(fecha);
-        return generarExcelReporteIngresoTerminados(reporte, options);
+        return generarExcel(contenidoReporteIngresoTerminados(reporte, options), "reporte ingreso producto terminado");
+    }
+
+    public void exportarReporteIngresoTerminadosExcel(
+            LocalDate fecha,
+            BiExcelExportOptions options,
+            OutputStream out) throws IOException {
+        InformeDiarioIngresoTerminadosReporteDTO reporte = obtenerReporteIngresoTerminados(fecha);
+        StreamingExcelWorkbook.export(out, contenidoReporteIngresoTerminados(reporte, options));
     }
 
     /**
@@ -366,13 +443,31 @@ public class InformesDiariosService {
             LocalDate fechaDesde,
             LocalDate fechaHasta,
             BiExcelExportOptions options) {
+        return generarExcel(contenidoCompras(fechaDesde, fechaHasta, options), "compras OCM");
+    }
+
+    public void exportarComprasExcel(
+            LocalDate fechaDesde,
+            LocalDate fechaHasta,
+            BiExcelExportOptions options,
+            OutputStream out) throws IOException {
+        StreamingExcelWorkbook.export(out, contenidoCompras(fechaDesde, fechaHasta, options));
+    }
+
+    private StreamingExcelWorkbook.Content contenidoCompras(
+            LocalDate fechaDesde,
+            LocalDate fechaHasta,
+            BiExcelExportOptions options) {
         DateTimeRange range = resolveDateTimeRange(fechaDesde, fechaHasta);
-        List<InformeDiarioComprasRowDTO> rows = transaccionAlmacenRepo.findInformeDiarioComprasPorDia(
-                range.start(),
-                range.end(),
-                TransaccionAlmacen.TipoEntidadCausante.OCM,
-                Movimiento.TipoMovimiento.COMPRA);
-        return generarExcelCompras(rows, "Compras", "compras OCM", options);
+        return (workbook) -> escribirCompras(
+                workbook,
+                transaccionAlmacenRepo.findInformeDiarioComprasPorDia(
+                        range.start(),
+                        range.end(),
+                        TransaccionAlmacen.TipoEntidadCausante.OCM,
+                        Movimiento.TipoMovimiento.COMPRA),
+                "Compras",
+                options);
     }
 
     /**
@@ -389,6 +484,25 @@ public class InformesDiariosService {
             LocalDate fechaHasta,
             SentidoAjusteInforme sentido,
             BiExcelExportOptions options) {
+        return generarExcel(
+                contenidoAjustesAlmacen(fechaDesde, fechaHasta, sentido, options),
+                "ajustes almacén");
+    }
+
+    public void exportarAjustesAlmacenExcel(
+            LocalDate fechaDesde,
+            LocalDate fechaHasta,
+            SentidoAjusteInforme sentido,
+            BiExcelExportOptions options,
+            OutputStream out) throws IOException {
+        StreamingExcelWorkbook.export(out, contenidoAjustesAlmacen(fechaDesde, fechaHasta, sentido, options));
+    }
+
+    private StreamingExcelWorkbook.Content contenidoAjustesAlmacen(
+            LocalDate fechaDesde,
+            LocalDate fechaHasta,
+            SentidoAjusteInforme sentido,
+            BiExcelExportOptions options) {
         if (fechaDesde == null || fechaHasta == null) {
             throw new IllegalArgumentException("fechaDesde y fechaHasta son obligatorias");
         }
@@ -403,28 +517,28 @@ public class InformesDiariosService {
         LocalDateTime end = fechaHasta.atTime(LocalTime.MAX);
 
         return switch (sentido) {
-            case ENTRADAS -> generarExcelMovimientosAlmacen(
-                    transaccionAlmacenRepo.findAjustesAlmacenEntradasPorRango(
+            case ENTRADAS -> (workbook) -> escribirMovimientosAlmacen(
+                    workbook,
+                    transaccionAlmacenRepo.streamAjustesAlmacenEntradasPorRango(
                             start, end, Movimiento.TipoMovimiento.AJUSTE_POSITIVO),
                     "Ajustes almacén entradas",
-                    "ajustes almacén entradas",
                     options,
                     true);
-            case SALIDAS -> generarExcelMovimientosAlmacen(
-                    transaccionAlmacenRepo.findAjustesAlmacenSalidasPorRango(
+            case SALIDAS -> (workbook) -> escribirMovimientosAlmacen(
+                    workbook,
+                    transaccionAlmacenRepo.streamAjustesAlmacenSalidasPorRango(
                             start, end, Movimiento.TipoMovimiento.AJUSTE_NEGATIVO),
                     "Ajustes almacén salidas",
-                    "ajustes almacén salidas",
                     options,
                     true);
-            case MIXTA -> generarExcelMovimientosAlmacen(
-                    transaccionAlmacenRepo.findAjustesAlmacenMixtaPorRango(
+            case MIXTA -> (workbook) -> escribirMovimientosAlmacen(
+                    workbook,
+                    transaccionAlmacenRepo.streamAjustesAlmacenMixtaPorRango(
                             start,
                             end,
                             Movimiento.TipoMovimiento.AJUSTE_POSITIVO,
                             Movimiento.TipoMovimiento.AJUSTE_NEGATIVO),
                     "Ajustes almacén mixto",
-                    "ajustes almacén mixto",
                     options,
                     true);
         };
@@ -552,48 +666,30 @@ public class InformesDiariosService {
         return categorias.get(categoriaId).getCapacidadProductivaDiaria();
     }
 
-    private byte[] generarExcelReporteIngresoTerminados(
+    private StreamingExcelWorkbook.Content contenidoReporteIngresoTerminados(
             InformeDiarioIngresoTerminadosReporteDTO reporte,
             BiExcelExportOptions options) {
-        try (XSSFWorkbook workbook = new XSSFWorkbook();
-             ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-            ExcelStyles styles = createExcelStyles(workbook, options);
+        return (workbook) -> {
+            ExcelStyles styles = createExcelStyles(workbook.workbook(), options);
 
             Sheet resumenSheet = workbook.createSheet("Resumen");
             escribirResumenReporteTerminados(reporte, resumenSheet, styles);
 
-            Sheet consolidadoSheet = workbook.createSheet("Consolidado Categoria");
-            escribirHeader(consolidadoSheet, HEADERS_REPORTE_TERMINADOS_CONSOLIDADO);
-            int rowIdx = 1;
-            for (InformeDiarioIngresoTerminadosReporteDTO.ConsolidadoCategoriaDTO row
-                    : reporte.getConsolidadoCategorias()) {
-                escribirFilaConsolidadoTerminados(row, consolidadoSheet.createRow(rowIdx++), styles);
-            }
-            autosize(consolidadoSheet, HEADERS_REPORTE_TERMINADOS_CONSOLIDADO.length);
-
-            Sheet detalleSheet = workbook.createSheet("Detalle Referencia");
-            escribirHeader(detalleSheet, HEADERS_REPORTE_TERMINADOS_DETALLE);
-            rowIdx = 1;
-            for (InformeDiarioIngresoTerminadosReporteDTO.DetalleReferenciaDTO row
-                    : reporte.getDetalleReferencias()) {
-                escribirFilaDetalleTerminados(row, detalleSheet.createRow(rowIdx++), styles);
-            }
-            autosize(detalleSheet, HEADERS_REPORTE_TERMINADOS_DETALLE.length);
+            Sheet consolidadoSheet = workbook.createSheet("Consolidado Categoria", HEADERS_REPORTE_TERMINADOS_CONSOLIDADO);
+            workbook.appendRows(consolidadoSheet, 1, reporte.getConsolidadoCategorias(),
+                    (row, excelRow) -> escribirFilaConsolidadoTerminados(row, excelRow, styles));
+            workbook.autoSizeColumns(consolidadoSheet, HEADERS_REPORTE_TERMINADOS_CONSOLIDADO.length);
 
-            Sheet movimientosSheet = workbook.createSheet("Movimientos");
-            escribirHeader(movimientosSheet, HEADERS_REPORTE_TERMINADOS_MOVIMIENTOS);
-            rowIdx = 1;
-            for (InformeDiarioIngresoTerminadosReporteDTO.MovimientoDTO row : reporte.getMovimientos()) {
-                escribirFilaMovimientoTerminados(row, movimientosSheet.createRow(rowIdx++), styles);
-            }
-            autosize(movimientosSheet, HEADERS_REPORTE_TERMINADOS_MOVIMIENTOS.length);
+            Sheet detalleSheet = workbook.createSheet("Detalle Referencia", HEADERS_REPORTE_TERMINADOS_DETALLE);
+            workbook.appendRows(detalleSheet, 1, reporte.getDetalleReferencias(),
+                    (row, excelRow) -> escribirFilaDetalleTerminados(row, excelRow, styles));
+            workbook.autoSizeColumns(detalleSheet, HEADERS_REPORTE_TERMINADOS_DETALLE.length);
 
-            workbook.write(out);
-            return out.toByteArray();
-        } catch (IOException e) {
-            log.error("Error generando Excel reporte ingreso producto terminado", e);
-            throw new RuntimeException("Error generando Excel reporte ingreso producto terminado", e);
-        }
+            Sheet movimientosSheet = workbook.createSheet("Movimientos", HEADERS_REPORTE_TERMINADOS_MOVIMIENTOS);
+            workbook.appendRows(movimientosSheet, 1, reporte.getMovimientos(),
+                    (row, excelRow) -> escribirFilaMovimientoTerminados(row, excelRow, styles));
+            workbook.autoSizeColumns(movimientosSheet, HEADERS_REPORTE_TERMINADOS_MOVIMIENTOS.length);
+        };
     }
 
     private static void escribirResumenReporteTerminados(
@@ -683,13 +779,6 @@ public class InformesDiariosService {
         writeCell(row, c, dto.getObservaciones(), styles);
     }
 
-    private static void escribirHeader(Sheet sheet, String[] headers) {
-        Row headerRow = sheet.createRow(0);
-        for (int i = 0; i < headers.length; i++) {
-            headerRow.createCell(i).setCellValue(headers[i]);
-        }
-    }
-
     private static void escribirResumenRow(Sheet sheet, int rowIdx, String label, Object value, ExcelStyles styles) {
         Row row = sheet.createRow(rowIdx);
         writeCell(row, 0, label, styles);
@@ -723,7 +812,7 @@ public class InformesDiariosService {
                 || number instanceof java.math.BigDecimal;
     }
 
-    private static ExcelStyles createExcelStyles(XSSFWorkbook workbook, BiExcelExportOptions options) {
+    private static ExcelStyles createExcelStyles(Workbook workbook, BiExcelExportOptions options) {
         if (options == null || !options.isTextDeterministic()) {
             return ExcelStyles.none();
         }
@@ -899,91 +988,53 @@ public class InformesDiariosService {
         }
     }
 
-    private byte[] generarExcelMovimientosAlmacen(
-            List<Movimiento> movimientos,
-            String nombreHoja,
-            String contextoLog,
-            BiExcelExportOptions options) {
-        return generarExcelMovimientosAlmacen(
-                movimientos,
-                nombreHoja,
-                contextoLog,
-                options,
-                false);
+    /**
+     * Genera el Excel completo en memoria. Lo usan los llamadores que necesitan el archivo como
+     * {@code byte[]}; los endpoints de rango escriben en streaming con las variantes {@code OutputStream}.
+     */
+    private static byte[] generarExcel(StreamingExcelWorkbook.Content content, String contextoLog) {
+        try {
+            return StreamingExcelWorkbook.export(content);
+        } catch (UncheckedIOException e) {
+            log.error("Error generando Excel {}", contextoLog, e);
+            throw new RuntimeException("Error generando Excel " + contextoLog, e);
+        }
     }
 
-    private byte[] generarExcelMovimientosAlmacen(
-            List<Movimiento> movimientos,
+    /**
+     * Escribe las filas a medida que llegan del cursor y cierra el stream al terminar.
+     */
+    private static void escribirMovimientosAlmacen(
+            StreamingExcelWorkbook workbook,
+            Stream<MovimientoAlmacenRowDTO> movimientos,
             String nombreHoja,
-            String contextoLog,
             BiExcelExportOptions options,
             boolean incluirCausaAjuste) {
         String[] headers = incluirCausaAjuste
                 ? HEADERS_AJUSTE_ALMACEN
                 : HEADERS_MOVIMIENTO_ALMACEN;
-        try (XSSFWorkbook workbook = new XSSFWorkbook();
-             ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-            ExcelStyles styles = createExcelStyles(workbook, options);
-            Sheet sheet = workbook.createSheet(nombreHoja);
-            Row headerRow = sheet.createRow(0);
-            for (int i = 0; i < headers.length; i++) {
-                headerRow.createCell(i).setCellValue(headers[i]);
-            }
-
-            int rowIdx = 1;
-            for (Movimiento mov : movimientos) {
-                escribirFilaMovimiento(
-                        mov,
-                        sheet.createRow(rowIdx++),
-                        styles,
-                        incluirCausaAjuste);
-            }
-
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
-
-            workbook.write(out);
-            return out.toByteArray();
-        } catch (IOException e) {
-            log.error("Error generando Excel {}", contextoLog, e);
-            throw new RuntimeException("Error generando Excel " + contextoLog, e);
+        ExcelStyles styles = createExcelStyles(workbook.workbook(), options);
+        Sheet sheet = workbook.createSheet(nombreHoja, headers);
+        try (movimientos) {
+            workbook.appendRows(sheet, 1, movimientos,
+                    (mov, row) -> escribirFilaMovimiento(mov, row, styles, incluirCausaAjuste));
         }
+        workbook.autoSizeColumns(sheet, headers.length);
     }
 
-    private byte[] generarExcelCompras(
-            List<InformeDiarioComprasRowDTO> rows,
+    private static void escribirCompras(
+            StreamingExcelWorkbook workbook,
+            Iterable<InformeDiarioComprasRowDTO> rows,
             String nombreHoja,
-            String contextoLog,
             BiExcelExportOptions options) {
-        try (XSSFWorkbook workbook = new XSSFWorkbook();
-             ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-            ExcelStyles styles = createExcelStyles(workbook, options);
-            Sheet sheet = workbook.createSheet(nombreHoja);
-            Row headerRow = sheet.createRow(0);
-            for (int i = 0; i < HEADERS_INFORME_COMPRAS.length; i++) {
-                headerRow.createCell(i).setCellValue(HEADERS_INFORME_COMPRAS[i]);
-            }
-
-            int rowIdx = 1;
-            for (InformeDiarioComprasRowDTO dto : rows) {
-                escribirFilaInformeCompras(dto, sheet.createRow(rowIdx++), styles);
-            }
-
-            for (int i = 0; i < HEADERS_INFORME_COMPRAS.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
-
-            workbook.write(out);
-            return out.toByteArray();
-        } catch (IOException e) {
-            log.error("Error generando Excel {}", contextoLog, e);
-            throw new RuntimeException("Error generando Excel " + contextoLog, e);
-        }
+        ExcelStyles styles = createExcelStyles(workbook.workbook(), options);
+        Sheet sheet = workbook.createSheet(nombreHoja, HEADERS_INFORME_COMPRAS);
+        workbook.appendRows(sheet, 1, rows, (dto, row) -> escribirFilaInformeCompras(dto, row, styles));
+        workbook.autoSizeColumns(sheet, HEADERS_INFORME_COMPRAS.length);
     }
 
     private static void escribirFilaMovimiento(
-            Movimiento mov,
+            MovimientoAlmacenRowDTO mov,
             Row row,
             ExcelStyles styles,
             boolean incluirCausaAjuste
@@ -991,35 +1042,29 @@ public class InformesDiariosService {
         int c = 0;
         row.createCell(c++).setCellValue(
                 mov.getFechaMovimiento() != null ? mov.getFechaMovimiento().toString() : "");
-        row.createCell(c++).setCellValue(
-                mov.getProducto() != null && mov.getProducto().getProductoId() != null
-                        ? mov.getProducto().getProductoId() : "");
-        row.createCell(c++).setCellValue(
-                mov.getProducto() != null && mov.getProducto().getNombre() != null
-                        ? mov.getProducto().getNombre() : "");
-        writeCell(row, c++, mov.getCantidad(), styles);
-        row.createCell(c++).setCellValue(
-                mov.getProducto() != null && mov.getProducto().getTipoUnidades() != null
-                        ? mov.getProducto().getTipoUnidades() : "");
+        row.createCell(c++).setCellValue(mov.getProductoId() != null ? mov.getProductoId() : "");
+        row.createCell(c++).setCellValue(mov.getProductoNombre() != null ? mov.getProductoNombre() : "");
+        writeCell(row, c++, mov.getCantidad() != null ? mov.getCantidad() : 0d, styles);
+        row.createCell(c++).setCellValue(mov.getUnidad() != null ? mov.getUnidad() : "");
         row.createCell(c++).setCellValue(
                 mov.getTipoMovimiento() != null ? mov.getTipoMovimiento().name() : "");
         row.createCell(c++).setCellValue(
                 mov.getAlmacen() != null ? mov.getAlmacen().name() : "");
 
-        TransaccionAlmacen tx = mov.getTransaccionAlmacen();
-        if (tx != null) {
-            row.createCell(c++).setCellValue(tx.getTransaccionId());
+        if (mov.getTransaccionId() != null) {
+            row.createCell(c++).setCellValue(mov.getTransaccionId());
+            row.createCell(c++).setCellValue(
+                    mov.getTipoEntidadCausante() != null ? mov.getTipoEntidadCausante().name() : "");
             row.createCell(c++).setCellValue(
-                    tx.getTipoEntidadCausante() != null ? tx.getTipoEntidadCausante().name() : "");
-            row.createCell(c++).setCellValue(tx.getIdEntidadCausante());
+                    mov.getIdEntidadCausante() != null ? mov.getIdEntidadCausante() : 0);
             if (incluirCausaAjuste) {
                 row.createCell(c++).setCellValue(
-                        tx.getCausaAjuste() != null
-                                ? tx.getCausaAjuste().getEtiqueta()
+                        mov.getCausaAjuste() != null
+                                ? mov.getCausaAjuste().getEtiqueta()
                                 : "Sin clasificar");
             }
             row.createCell(c++).setCellValue(
-                    tx.getObservaciones() != null ? tx.getObservaciones() : "");
+                    mov.getObservaciones() != null ? mov.getObservaciones() : "");
         } else {
             row.createCell(c++).setCellValue("");
             row.createCell(c++).setCellValue("");
@@ -1030,11 +1075,27 @@ public class InformesDiariosService {
             row.createCell(c++).setCellValue("");
         }
 
-        if (mov.getLote() != null && mov.getLote().getBatchNumber() != null) {
-            row.createCell(c).setCellValue(mov.getLote().getBatchNumber());
-        } else {
-            row.createCell(c).setCellValue("");
-        }
+        row.createCell(c).setCellValue(mov.getBatchNumber() != null ? mov.getBatchNumber() : "");
+    }
+
+    /** Misma fila que devuelven las consultas en streaming, para exportar entidades ya cargadas. */
+    private static MovimientoAlmacenRowDTO toFilaMovimiento(Movimiento mov) {
+        Producto producto = mov.getProducto();
+        TransaccionAlmacen tx = mov.getTransaccionAlmacen();
+        return new MovimientoAlmacenRowDTO(
+                mov.getFechaMovimiento(),
+                producto != null ? producto.getProductoId() : null,
+                producto != null ? producto.getNombre() : null,
+                mov.getCantidad(),
+                producto != null ? producto.getTipoUnidades() : null,
+                mov.getTipoMovimiento(),
+                mov.getAlmacen(),
+                tx != null ? tx.getTransaccionId() : null,
+                tx != null ? tx.getTipoEntidadCausante() : null,
+                tx != null ? tx.getIdEntidadCausante() : null,
+                tx != null ? tx.getCausaAjuste() : null,
+                tx != null ? tx.getObservaciones() : null,
+                mov.getLote() != null ? mov.getLote().getBatchNumber() : null);
     }
 
     private static void escribirFilaInformeCompras(
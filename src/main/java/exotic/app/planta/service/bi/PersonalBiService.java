@@ -8,15 +8,11 @@ import exotic.app.planta.model.organizacion.personal.IntegrantePersonal;
 import exotic.app.planta.model.organizacion.personal.RegistroHoraExtra;
 import exotic.app.planta.repo.personal.RegistroHoraExtraRepo;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.temporal.TemporalAdjusters;
@@ -28,7 +24,6 @@ import java.util.Map;
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
-@Slf4j
 public class PersonalBiService {
 
     private static final String[] HEADERS_SERIE = {
@@ -128,7 +123,11 @@ public class PersonalBiService {
                 .build();
     }
 
-    public byte[] exportarHorasExtraExcel(
+    /**
+     * Consulta y agrega los registros dentro de la transaccion; el libro se escribe despues,
+     * sobre la respuesta.
+     */
+    public StreamingExcelWorkbook.Output exportarHorasExtraExcel(
             LocalDate fechaDesde,
             LocalDate fechaHasta,
             HorasExtraBiGranularidad granularidad,
@@ -141,17 +140,11 @@ public class PersonalBiService {
         HorasExtraBiResumenDTO resumen = buildResumen(fechaDesde, fechaHasta, integranteId, departamento, cargo, registros);
         HorasExtraBiSerieDTO serie = buildSerie(fechaDesde, fechaHasta, granularidadFinal, integranteId, departamento, cargo, registros);
 
-        try (XSSFWorkbook workbook = new XSSFWorkbook();
-             ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+        return StreamingExcelWorkbook.deferred(workbook -> {
             escribirHojaResumen(workbook, resumen, granularidadFinal);
             escribirHojaSerie(workbook, serie);
             escribirHojaDetalle(workbook, registros);
-            workbook.write(out);
-            return out.toByteArray();
-        } catch (IOException e) {
-            log.error("Error generando Excel BI personal horas extra", e);
-            throw new RuntimeException("Error generando Excel BI personal horas extra", e);
-        }
+        });
     }
 
     private List<RegistroHoraExtra> registrosFiltrados(
@@ -289,7 +282,7 @@ public class PersonalBiService {
                 : user.getUsername();
     }
 
-    private void escribirHojaResumen(XSSFWorkbook workbook, HorasExtraBiResumenDTO resumen, HorasExtraBiGranularidad granularidad) {
+    private void escribirHojaResumen(StreamingExcelWorkbook workbook, HorasExtraBiResumenDTO resumen, HorasExtraBiGranularidad granularidad) {
         Sheet sheet = workbook.createSheet("Resumen");
         int rowIdx = 0;
         rowIdx = writeKeyValue(sheet, rowIdx, "Fecha desde", resumen.getFechaDesde().toString());
@@ -328,7 +321,7 @@ public class PersonalBiService {
         return rowIdx + 1;
     }
 
-    private void escribirHojaSerie(XSSFWorkbook workbook, HorasExtraBiSerieDTO serie) {
+    private void escribirHojaSerie(StreamingExcelWorkbook workbook, HorasExtraBiSerieDTO serie) {
         Sheet sheet = workbook.createSheet("Serie temporal");
         Row header = sheet.createRow(0);
         for (int i = 0; i < HEADERS_SERIE.length; i++) {
@@ -357,7 +350,7 @@ public class PersonalBiService {
         }
     }
 
-    private void escribirHojaDetalle(XSSFWorkbook workbook, List<RegistroHoraExtra> registros) {
+    private void escribirHojaDetalle(StreamingExcelWorkbook workbook, List<RegistroHoraExtra> registros) {
         Sheet sheet = workbook.createSheet("Detalle");
         Row header = sheet.createRow(0);
         for (int i = 0; i < HEADERS_DETALLE.length; i++) {
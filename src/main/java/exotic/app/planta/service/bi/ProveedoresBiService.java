@@ -15,6 +15,7 @@ import exotic.app.planta.repo.compras.ItemOrdenCompraRepo;
 import exotic.app.planta.repo.compras.ProveedorRepo;
 import exotic.app.planta.repo.inventarios.TransaccionAlmacenRepo;
 import exotic.app.planta.repo.producto.MaterialRepo;
+import exotic.app.planta.service.bi.inventario.BootstrapDemandIntervalCalculator;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -57,6 +58,7 @@ public class ProveedoresBiService {
     private final MaterialRepo materialRepo;
     private final ItemOrdenCompraRepo itemOrdenCompraRepo;
     private final TransaccionAlmacenRepo transaccionAlmacenRepo;
+    private final BootstrapDemandIntervalCalculator demandIntervalCalculator;
 
     public ProveedorMaterialLeadTimeMetricDTO calcularLeadTimeProveedorMaterial(
             String proveedorId,
@@ -249,6 +251,11 @@ public class ProveedoresBiService {
             puntoReorden = avgDemand * representativeLeadTime;
         }
 
+        BootstrapDemandIntervalCalculator.DemandMeanInterval demandInterval = demandIntervalCalculator.calculate(
+                demandaDiaria.stream().mapToDouble(Double::doubleValue).toArray(),
+                demandSeed(materialId, window)
+        );
+
         int nonZeroDemandDays = (int) demandaDiaria.stream().filter(v -> v > EPSILON).count();
         int proveedoresObservados = (int) leadTimeContext.orders().stream()
                 .map(OrderAggregate::proveedorId)
@@ -273,7 +280,9 @@ public class ProveedoresBiService {
                 window.ventanaDias(),
                 leadTimeObs,
                 proveedoresObservados,
-                computeRopConfidence(firstReceiptStats.getConfidenceScore(), window.ventanaDias(), nonZeroDemandDays)
+                computeRopConfidence(firstReceiptStats.getConfidenceScore(), window.ventanaDias(), nonZeroDemandDays),
+                round4(demandInterval.lowerMean()),
+                round4(demandInterval.upperMean())
         );
     }
 
@@ -295,7 +304,9 @@ public class ProveedoresBiService {
                 window.ventanaDias(),
                 0,
                 0,
-                0
+                0,
+                null,
+                null
         );
     }
 
@@ -613,6 +624,10 @@ public class ProveedoresBiService {
         return dailyDemand;
     }
 
+    private long demandSeed(String materialId, EffectiveWindow window) {
+        return 31L * (31L * materialId.hashCode() + window.fechaCorte().toEpochDay()) + window.ventanaDias();
+    }
+
     private EffectiveWindow resolveWindow(LocalDate fechaCorte, int ventanaDias) {
         LocalDate effectiveFechaCorte = fechaCorte != null ? fechaCorte : AppTime.today();
         int effectiveWindowDays = ventanaDias > 0 ? ventanaDias : DEFAULT_WINDOW_DAYS;
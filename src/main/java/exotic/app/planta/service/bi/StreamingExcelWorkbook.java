@@ -0,0 +1,171 @@
+package exotic.app.planta.service.bi;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Libro Excel de escritura en streaming para exportaciones BI e inventario.
+ *
+ * <p>Usa {@link SXSSFWorkbook}: solo las últimas {@value #ROW_ACCESS_WINDOW} filas
+ * de cada hoja viven en memoria; el resto se vuelca a archivos temporales
+ * comprimidos y se copia al {@link OutputStream} destino al escribir. Las filas
+ * ya volcadas no se pueden volver a leer, por lo que el contenido se escribe
+ * estrictamente en orden. Los archivos temporales se eliminan en {@link #close()}.
+ *
+ * <p>El ancho de columnas se calcula mientras se vuelcan las filas, de modo que
+ * {@link #autoSizeColumns} sigue disponible sin retener la hoja completa.
+ */
+public final class StreamingExcelWorkbook implements AutoCloseable {
+    public static final String CONTENT_TYPE =
+            "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+    static final int ROW_ACCESS_WINDOW = 200;
+
+    private final SXSSFWorkbook workbook;
+
+    public StreamingExcelWorkbook() {
+        this.workbook = new SXSSFWorkbook(ROW_ACCESS_WINDOW);
+        this.workbook.setCompressTempFiles(true);
+    }
+
+    /** Libro subyacente, para crear estilos, formatos y fuentes. */
+    public Workbook workbook() {
+        return workbook;
+    }
+
+    /**
+     * Crea una hoja con seguimiento de anchos de columna y, si se indican,
+     * escribe los encabezados en la fila 0.
+     */
+    public Sheet createSheet(String name, String... headers) {
+        SXSSFSheet sheet = workbook.createSheet(name);
+        sheet.trackAllColumnsForAutoSizing();
+        if (headers.length > 0) {
+            Row headerRow = sheet.createRow(0);
+            for (int i = 0; i < headers.length; i++) {
+                headerRow.createCell(i).setCellValue(headers[i]);
+            }
+        }
+        return sheet;
+    }
+
+    /**
+     * Escribe una fila por elemento a partir de {@code firstRow}, consumiendo el
+     * iterador a medida que avanza.
+     *
+     * @return índice de la siguiente fila libre
+     */
+    public <T> int appendRows(Sheet sheet, int firstRow, Iterator<? extends T> items, RowWriter<T> writer) {
+        int rowIdx = firstRow;
+        while (items.hasNext()) {
+            writer.write(items.next(), sheet.createRow(rowIdx++));
+        }
+        return rowIdx;
+    }
+
+    public <T> int appendRows(Sheet sheet, int firstRow, Iterable<? extends T> items, RowWriter<T> writer) {
+        return appendRows(sheet, firstRow, items.iterator(), writer);
+    }
+
+    /**
+     * Igual que {@link #appendRows(Sheet, int, Iterator, RowWriter)} para un stream
+     * (por ejemplo, un cursor de base de datos). El stream no se cierra aquí.
+     */
+    public <T> int appendRows(Sheet sheet, int firstRow, Stream<? extends T> items, RowWriter<T> writer) {
+        return appendRows(sheet, firstRow, items.iterator(), writer);
+    }
+
+    public void autoSizeColumns(Sheet sheet, int columns) {
+        for (int i = 0; i < columns; i++) {
+            sheet.autoSizeColumn(i);
+        }
+    }
+
+    public void write(OutputStream out) throws IOException {
+        workbook.write(out);
+    }
+
+    /** Para exportaciones pequeñas o pruebas que necesitan el archivo completo en memoria. */
+    public byte[] toByteArray() {
+        try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            write(out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            workbook.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            workbook.dispose();
+        }
+    }
+
+    @FunctionalInterface
+    public interface RowWriter<T> {
+        void write(T item, Row row);
+    }
+
+    /** Contenido de un libro que se escribe directamente sobre un stream de salida. */
+    @FunctionalInterface
+    public interface Content {
+        void writeTo(StreamingExcelWorkbook workbook) throws IOException;
+    }
+
+    /**
+     * Libro pendiente de escribir. Los datos ya están cargados; el libro se arma y se vuelca
+     * cuando se llama a {@link #writeTo}, normalmente desde un {@code StreamingResponseBody}.
+     */
+    @FunctionalInterface
+    public interface Output {
+        void writeTo(OutputStream out) throws IOException;
+
+        default byte[] toByteArray() {
+            try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+                writeTo(out);
+                return out.toByteArray();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /** Difiere {@link #export(OutputStream, Content)} hasta que se escriba la salida. */
+    public static Output deferred(Content content) {
+        return out -> export(out, content);
+    }
+
+    /**
+     * Construye el libro con {@code content} y lo escribe en {@code out}, liberando
+     * los archivos temporales al terminar.
+     */
+    public static void export(OutputStream out, Content content) throws IOException {
+        try (StreamingExcelWorkbook workbook = new StreamingExcelWorkbook()) {
+            content.writeTo(workbook);
+            workbook.write(out);
+        }
+    }
+
+    public static byte[] export(Content content) {
+        try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            export(out, content);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
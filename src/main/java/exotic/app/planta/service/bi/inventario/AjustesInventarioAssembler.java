@@ -2,7 +2,6 @@ package exotic.app.planta.service.bi.inventario;
 
 import exotic.app.planta.model.bi.dto.InformeInventarioDTO;
 import exotic.app.planta.model.inventarios.Movimiento;
-import exotic.app.planta.model.inventarios.TransaccionAlmacen;
 import exotic.app.planta.model.producto.Material;
 import exotic.app.planta.model.producto.Producto;
 import org.springframework.stereotype.Component;
@@ -37,40 +36,14 @@ class AjustesInventarioAssembler {
             LocalDate trendStartDate,
             LocalDate trendEndDate
     ) {
-        SummaryAccumulator global = new SummaryAccumulator();
-        Map<String, SummaryAccumulator> byGroup = emptyGroupSummaries();
+        Accumulator accumulator = accumulator(trendStartDate, trendEndDate);
+        periodMovements.forEach(accumulator::addPeriodMovement);
+        trendMovements.forEach(accumulator::addTrendMovement);
+        return accumulator.build();
+    }
 
-        periodMovements.stream()
-                .filter(this::isAdjustment)
-                .forEach(movement -> {
-                    double estimatedValue = estimatedValue(movement);
-                    global.add(movement, estimatedValue);
-                    byGroup.get(groupOf(movement.getProducto()))
-                            .add(movement, estimatedValue);
-                });
-
-        double materialImpact = byGroup.get(RAW_MATERIAL).totalImpact()
-                + byGroup.get(PACKAGING).totalImpact();
-
-        return InformeInventarioDTO.AjustesInventarioDTO.builder()
-                .resumen(global.toSummary())
-                .comparativo(InformeInventarioDTO.ComparativoAjustesDTO.builder()
-                        .materiaPrima(byGroup.get(RAW_MATERIAL)
-                                .toGroup(RAW_MATERIAL, materialImpact))
-                        .empaque(byGroup.get(PACKAGING)
-                                .toGroup(PACKAGING, materialImpact))
-                        .otros(byGroup.get(OTHER).toGroup(OTHER, 0))
-                        .build())
-                .serieDiaria(buildDailySeries(
-                        trendMovements,
-                        trendStartDate,
-                        trendEndDate))
-                .mayorImpacto(InformeInventarioDTO.MayorImpactoAjustesDTO.builder()
-                        .limite(TOP_IMPACT_LIMIT)
-                        .materiaPrima(topImpact(periodMovements, RAW_MATERIAL))
-                        .empaque(topImpact(periodMovements, PACKAGING))
-                        .build())
-                .build();
+    Accumulator accumulator(LocalDate trendStartDate, LocalDate trendEndDate) {
+        return new Accumulator(trendStartDate, trendEndDate);
     }
 
     List<InformeInventarioDTO.MaterialImpactoAjusteDTO> aggregateMaterials(
@@ -122,66 +95,6 @@ class AjustesInventarioAssembler {
                 && movement.getProducto() != null;
     }
 
-    private List<InformeInventarioDTO.MaterialImpactoAjusteDTO> topImpact(
-            List<Movimiento> movements,
-            String group
-    ) {
-        return aggregateMaterials(movements, group, ADJUSTMENT_TYPES).stream()
-                .sorted(impactComparator())
-                .limit(TOP_IMPACT_LIMIT)
-                .toList();
-    }
-
-    private List<InformeInventarioDTO.SerieAjusteDTO> buildDailySeries(
-            List<Movimiento> movements,
-            LocalDate startDate,
-            LocalDate endDate
-    ) {
-        List<Movimiento> adjustments = movements.stream()
-                .filter(this::isAdjustment)
-                .toList();
-        if (adjustments.isEmpty()) return List.of();
-
-        Map<String, Set<String>> unitsByGroup = new LinkedHashMap<>();
-        for (String group : GROUP_ORDER) {
-            unitsByGroup.put(group, new TreeSet<>());
-        }
-        adjustments.forEach(movement -> unitsByGroup
-                .get(groupOf(movement.getProducto()))
-                .add(InventarioBiUtils.unitOf(movement.getProducto())));
-
-        Map<SeriesKey, DailyAccumulator> series = new LinkedHashMap<>();
-        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
-            for (String group : GROUP_ORDER) {
-                for (String unit : unitsByGroup.get(group)) {
-                    SeriesKey key = new SeriesKey(date, group, unit);
-                    series.put(key, new DailyAccumulator(date, group, unit));
-                }
-            }
-        }
-
-        adjustments.forEach(movement -> {
-            if (movement.getFechaMovimiento() == null) return;
-
-            String group = groupOf(movement.getProducto());
-            String unit = InventarioBiUtils.unitOf(movement.getProducto());
-            LocalDate date = movement.getFechaMovimiento().toLocalDate();
-            SeriesKey key = new SeriesKey(date, group, unit);
-            series.computeIfAbsent(
-                            key,
-                            ignored -> new DailyAccumulator(date, group, unit))
-                    .add(movement, estimatedValue(movement));
-        });
-
-        return series.values().stream()
-                .sorted(Comparator
-                        .comparing(DailyAccumulator::date)
-                        .thenComparingInt(value -> groupIndex(value.group()))
-                        .thenComparing(DailyAccumulator::unit))
-                .map(DailyAccumulator::toDto)
-                .toList();
-    }
-
     private Map<String, SummaryAccumulator> emptyGroupSummaries() {
         Map<String, SummaryAccumulator> summaries = new LinkedHashMap<>();
         GROUP_ORDER.forEach(group -> summaries.put(group, new SummaryAccumulator()));
@@ -208,6 +121,118 @@ class AjustesInventarioAssembler {
         return index < 0 ? GROUP_ORDER.size() : index;
     }
 
+    /**
+     * Acumula ajustes uno a uno. La memoria depende de los materiales y días con
+     * ajustes, no del número de movimientos recorridos.
+     */
+    class Accumulator {
+        private final LocalDate trendStartDate;
+        private final LocalDate trendEndDate;
+        private final SummaryAccumulator global = new SummaryAccumulator();
+        private final Map<String, SummaryAccumulator> byGroup = emptyGroupSummaries();
+        private final Map<String, Map<String, MaterialAccumulator>> materialsByGroup = Map.of(
+                RAW_MATERIAL, new HashMap<>(),
+                PACKAGING, new HashMap<>());
+        private final Map<String, Set<String>> trendUnitsByGroup = new LinkedHashMap<>();
+        private final Map<SeriesKey, DailyAccumulator> trendSeries = new HashMap<>();
+        private boolean trendHasAdjustments;
+
+        private Accumulator(LocalDate trendStartDate, LocalDate trendEndDate) {
+            this.trendStartDate = trendStartDate;
+            this.trendEndDate = trendEndDate;
+            GROUP_ORDER.forEach(group -> trendUnitsByGroup.put(group, new TreeSet<>()));
+        }
+
+        void addPeriodMovement(Movimiento movement) {
+            if (!isAdjustment(movement)) return;
+
+            double estimatedValue = estimatedValue(movement);
+            String group = groupOf(movement.getProducto());
+            global.add(movement, estimatedValue);
+            byGroup.get(group).add(movement, estimatedValue);
+
+            Map<String, MaterialAccumulator> materials = materialsByGroup.get(group);
+            if (materials != null && movement.getProducto() instanceof Material material) {
+                materials.computeIfAbsent(
+                                material.getProductoId(),
+                                ignored -> new MaterialAccumulator(material))
+                        .add(movement, estimatedValue);
+            }
+        }
+
+        void addTrendMovement(Movimiento movement) {
+            if (!isAdjustment(movement)) return;
+
+            trendHasAdjustments = true;
+            String group = groupOf(movement.getProducto());
+            String unit = InventarioBiUtils.unitOf(movement.getProducto());
+            trendUnitsByGroup.get(group).add(unit);
+            if (movement.getFechaMovimiento() == null) return;
+
+            LocalDate date = movement.getFechaMovimiento().toLocalDate();
+            trendSeries.computeIfAbsent(
+                            new SeriesKey(date, group, unit),
+                            ignored -> new DailyAccumulator(date, group, unit))
+                    .add(movement, estimatedValue(movement));
+        }
+
+        InformeInventarioDTO.AjustesInventarioDTO build() {
+            double materialImpact = byGroup.get(RAW_MATERIAL).totalImpact()
+                    + byGroup.get(PACKAGING).totalImpact();
+
+            return InformeInventarioDTO.AjustesInventarioDTO.builder()
+                    .resumen(global.toSummary())
+                    .comparativo(InformeInventarioDTO.ComparativoAjustesDTO.builder()
+                            .materiaPrima(byGroup.get(RAW_MATERIAL)
+                                    .toGroup(RAW_MATERIAL, materialImpact))
+                            .empaque(byGroup.get(PACKAGING)
+                                    .toGroup(PACKAGING, materialImpact))
+                            .otros(byGroup.get(OTHER).toGroup(OTHER, 0))
+                            .build())
+                    .serieDiaria(buildDailySeries())
+                    .mayorImpacto(InformeInventarioDTO.MayorImpactoAjustesDTO.builder()
+                            .limite(TOP_IMPACT_LIMIT)
+                            .materiaPrima(topImpact(RAW_MATERIAL))
+                            .empaque(topImpact(PACKAGING))
+                            .build())
+                    .build();
+        }
+
+        private List<InformeInventarioDTO.MaterialImpactoAjusteDTO> topImpact(String group) {
+            return materialsByGroup.get(group).values().stream()
+                    .map(MaterialAccumulator::toDto)
+                    .sorted(impactComparator())
+                    .limit(TOP_IMPACT_LIMIT)
+                    .toList();
+        }
+
+        private List<InformeInventarioDTO.SerieAjusteDTO> buildDailySeries() {
+            if (!trendHasAdjustments) return List.of();
+
+            Map<SeriesKey, DailyAccumulator> series = new HashMap<>(trendSeries);
+            for (LocalDate date = trendStartDate;
+                 !date.isAfter(trendEndDate);
+                 date = date.plusDays(1)) {
+                for (String group : GROUP_ORDER) {
+                    for (String unit : trendUnitsByGroup.get(group)) {
+                        LocalDate day = date;
+                        series.computeIfAbsent(
+                                new SeriesKey(day, group, unit),
+                                ignored -> new DailyAccumulator(day, group, unit));
+                    }
+                }
+            }
+
+            return series.values().stream()
+                    .sorted(Comparator
+                            .comparing(DailyAccumulator::date)
+                            .thenComparingInt(value -> groupIndex(value.group()))
+                            .thenComparing(DailyAccumulator::unit))
+                    .map(DailyAccumulator::toDto)
+                    .toList();
+        }
+    }
+
     private static final class SummaryAccumulator {
         private int positiveMovements;
         private int negativeMovements;
@@ -216,13 +241,13 @@ class AjustesInventarioAssembler {
         private final Set<String> positiveProducts = new HashSet<>();
         private final Set<String> negativeProducts = new HashSet<>();
         private final Set<String> products = new HashSet<>();
-        private final Set<TransaccionAlmacen> transactions = new HashSet<>();
+        private final Set<Integer> transactions = new HashSet<>();
 
         void add(Movimiento movement, double estimatedValue) {
             String productId = movement.getProducto().getProductoId();
             products.add(productId);
             if (movement.getTransaccionAlmacen() != null) {
-                transactions.add(movement.getTransaccionAlmacen());
+                transactions.add(movement.getTransaccionAlmacen().getTransaccionId());
             }
 
             if (movement.getTipoMovimiento()
@@ -301,7 +326,7 @@ class AjustesInventarioAssembler {
         private double positiveValue;
         private double negativeValue;
         private int movements;
-        private final Set<TransaccionAlmacen> transactions = new HashSet<>();
+        private final Set<Integer> transactions = new HashSet<>();
         private LocalDateTime lastAdjustment;
 
         private MaterialAccumulator(Material material) {
@@ -321,7 +346,7 @@ class AjustesInventarioAssembler {
 
             movements++;
             if (movement.getTransaccionAlmacen() != null) {
-                transactions.add(movement.getTransaccionAlmacen());
+                transactions.add(movement.getTransaccionAlmacen().getTransaccionId());
             }
             if (movement.getFechaMovimiento() != null
                     && (lastAdjustment == null
@@ -1,40 +1,118 @@
 package exotic.app.planta.service.bi.inventario;
 
+import exotic.app.planta.service.commons.CalculoParalelo;
 import org.springframework.stereotype.Component;
 
-import java.util.Arrays;
+import java.util.List;
 import java.util.SplittableRandom;
 
+/**
+ * Intervalo bootstrap del 95% para la demanda media diaria.
+ *
+ * <p>Cada serie se remuestrea con su propio {@link SplittableRandom} sembrado
+ * por el llamador, de modo que el resultado de un material no depende del
+ * orden ni del tamaño del lote en que se calcula. Los lotes se reparten en el
+ * pool de {@link CalculoParalelo}; cada hoja reutiliza un único buffer de medias y los
+ * percentiles se obtienen por selección, sin ordenar las 2.000 medias.
+ */
 @Component
-class BootstrapDemandIntervalCalculator {
+public class BootstrapDemandIntervalCalculator {
     private static final int SAMPLE_COUNT = 2_000;
     private static final double LOWER_PERCENTILE = 0.025;
     private static final double UPPER_PERCENTILE = 0.975;
+    private static final int LOWER_RANK = nearestRankIndex(LOWER_PERCENTILE);
+    private static final int UPPER_RANK = nearestRankIndex(UPPER_PERCENTILE);
+    private static final int SERIES_PER_TASK = 8;
 
-    DemandMeanInterval calculate(double[] dailyDemand, long seed) {
+    private final CalculoParalelo calculoParalelo;
+
+    public BootstrapDemandIntervalCalculator(CalculoParalelo calculoParalelo) {
+        this.calculoParalelo = calculoParalelo;
+    }
+
+    public DemandMeanInterval calculate(double[] dailyDemand, long seed) {
+        return calculate(dailyDemand, seed, new double[SAMPLE_COUNT]);
+    }
+
+    /**
+     * Calcula los intervalos de todas las series. El resultado conserva el orden
+     * de {@code series} y coincide con llamar {@link #calculate} una por una.
+     */
+    public List<DemandMeanInterval> calculateAll(List<DemandSeries> series) {
+        return calculoParalelo.mapear(series, SERIES_PER_TASK, () -> {
+            double[] sampledMeans = new double[SAMPLE_COUNT];
+            return current -> calculate(current.dailyDemand(), current.seed(), sampledMeans);
+        });
+    }
+
+    private static DemandMeanInterval calculate(
+            double[] dailyDemand,
+            long seed,
+            double[] sampledMeans
+    ) {
         SplittableRandom random = new SplittableRandom(seed);
-        double[] sampledMeans = new double[SAMPLE_COUNT];
+        int days = dailyDemand.length;
 
         for (int sampleIndex = 0; sampleIndex < SAMPLE_COUNT; sampleIndex++) {
             double sampledSum = 0;
-            for (int dayIndex = 0; dayIndex < dailyDemand.length; dayIndex++) {
-                sampledSum += dailyDemand[random.nextInt(dailyDemand.length)];
+            for (int dayIndex = 0; dayIndex < days; dayIndex++) {
+                sampledSum += dailyDemand[random.nextInt(days)];
+            }
+            sampledMeans[sampleIndex] = sampledSum / days;
+        }
+
+        double lowerMean = select(sampledMeans, 0, SAMPLE_COUNT - 1, LOWER_RANK);
+        // Tras la selección, todo lo que está a la derecha de LOWER_RANK es >= a él.
+        double upperMean = select(sampledMeans, LOWER_RANK, SAMPLE_COUNT - 1, UPPER_RANK);
+        return new DemandMeanInterval(lowerMean, upperMean);
+    }
+
+    /**
+     * Quickselect con pivote mediana de tres: deja en {@code k} el valor que
+     * ocuparía esa posición si {@code values[from..to]} estuviera ordenado.
+     */
+    private static double select(double[] values, int from, int to, int k) {
+        int left = from;
+        int right = to;
+        while (left < right) {
+            int middle = (left + right) >>> 1;
+            double pivot = medianOfThree(values[left], values[middle], values[right]);
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (values[i] < pivot) i++;
+                while (values[j] > pivot) j--;
+                if (i <= j) {
+                    double swap = values[i];
+                    values[i] = values[j];
+                    values[j] = swap;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return values[k];
             }
-            sampledMeans[sampleIndex] = sampledSum / dailyDemand.length;
         }
+        return values[k];
+    }
+
+    private static double medianOfThree(double a, double b, double c) {
+        return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+    }
 
-        Arrays.sort(sampledMeans);
-        return new DemandMeanInterval(
-                nearestRank(sampledMeans, LOWER_PERCENTILE),
-                nearestRank(sampledMeans, UPPER_PERCENTILE));
+    private static int nearestRankIndex(double percentile) {
+        int index = (int) Math.ceil(percentile * SAMPLE_COUNT) - 1;
+        return Math.max(0, Math.min(index, SAMPLE_COUNT - 1));
     }
 
-    private double nearestRank(double[] sortedValues, double percentile) {
-        int index = (int) Math.ceil(percentile * sortedValues.length) - 1;
-        int boundedIndex = Math.max(0, Math.min(index, sortedValues.length - 1));
-        return sortedValues[boundedIndex];
+    public record DemandSeries(double[] dailyDemand, long seed) {
     }
 
-    record DemandMeanInterval(double lowerMean, double upperMean) {
+    public record DemandMeanInterval(double lowerMean, double upperMean) {
     }
 }
@@ -3,13 +3,11 @@ package exotic.app.planta.service.bi.inventario;
 import exotic.app.planta.model.bi.dto.CoberturaMaterialesDTO;
 import exotic.app.planta.model.bi.dto.FuenteDemandaCobertura;
 import exotic.app.planta.model.bi.dto.PaginaInformeInventarioDTO;
-import exotic.app.planta.model.inventarios.CausaAjusteInventario;
 import exotic.app.planta.model.inventarios.Movimiento;
-import exotic.app.planta.model.inventarios.TransaccionAlmacen;
 import exotic.app.planta.model.producto.Material;
 import exotic.app.planta.repo.inventarios.TransaccionAlmacenRepo;
+import exotic.app.planta.service.bi.StreamingExcelWorkbook;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.apache.poi.ss.usermodel.BorderStyle;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellStyle;
@@ -19,14 +17,14 @@ import org.apache.poi.ss.usermodel.HorizontalAlignment;
 import org.apache.poi.ss.usermodel.IndexedColors;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.util.CellRangeAddress;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
@@ -34,18 +32,19 @@ import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
-@Slf4j
 public class CoberturaMaterialesService {
     private static final Set<Integer> VALID_WINDOWS = Set.of(7, 30, 90);
     private static final int MIN_OBSERVED_DAYS = 30;
@@ -69,11 +68,17 @@ public class CoberturaMaterialesService {
             "CONFIANZA BAJA"
     };
     private static final int EXCEL_HEADER_ROW_INDEX = 3;
+    /**
+     * Antigüedad máxima de la demanda en caché. Cubre lo que la marca de agua no ve:
+     * movimientos modificados o eliminados y transacciones que confirman fuera de orden.
+     */
+    private static final Duration MAX_CACHE_AGE = Duration.ofMinutes(15);
 
     private final TransaccionAlmacenRepo movementRepo;
     private final InventarioStockReader stockReader;
     private final BootstrapDemandIntervalCalculator intervalCalculator;
     private final Clock applicationClock;
+    private final Map<CoverageKey, CachedCoverage> coverageCache = new ConcurrentHashMap<>();
 
     public CoberturaMaterialesDTO calculate(int windowDays) {
         return calculate(windowDays, FuenteDemandaCobertura.SOLO_DISPENSACIONES);
@@ -139,7 +144,7 @@ public class CoberturaMaterialesService {
                 rawOrder,
                 rawSearch);
         return new ExcelExport(
-                generateExcel(analysis),
+                StreamingExcelWorkbook.deferred(excel -> writeExcel(excel, analysis)),
                 analysis.report().fechaHoraCorteStock());
     }
 
@@ -166,60 +171,13 @@ public class CoberturaMaterialesService {
         LocalDateTime cutoffDateTime = LocalDateTime.now(applicationClock);
         LocalDate cutoffDate = cutoffDateTime.toLocalDate();
         LocalDate startDate = cutoffDate.minusDays(windowDays - 1L);
-
-        List<ProductoStockSnapshot> materialStock = stockReader.readGeneralStock().stream()
-                .filter(snapshot -> snapshot.producto() instanceof Material)
-                .toList();
-        List<Movimiento> movements = loadMovements(startDate, cutoffDate);
-        List<Movimiento> dispensations = movements.stream()
-                .filter(this::isMaterialDispensation)
-                .toList();
-        List<Movimiento> contingencyAdjustments = movements.stream()
-                .filter(this::isMaterialNegativeAdjustment)
-                .filter(this::isContingencyAdjustment)
-                .toList();
-        long unclassifiedNegativeAdjustments = movements.stream()
-                .filter(this::isMaterialNegativeAdjustment)
-                .filter(this::isUnclassifiedAdjustment)
-                .count();
-
-        Map<String, double[]> operativeDemandByMaterial = groupDailyDemand(
-                dispensations,
-                startDate,
-                windowDays);
-        Map<String, double[]> contingencyDemandByMaterial = groupDailyDemand(
-                contingencyAdjustments,
-                startDate,
-                windowDays);
-        Map<String, Integer> contingencyMovementsByMaterial = groupMovementCount(
-                contingencyAdjustments);
         boolean includeContingencies = demandSource.incluyeContingencias();
-        List<Movimiento> includedDemandMovements = new ArrayList<>(dispensations);
-        if (includeContingencies) {
-            includedDemandMovements.addAll(contingencyAdjustments);
-        }
-
-        List<CoberturaMaterialesDTO.EstimacionMaterialDTO> estimates = materialStock.stream()
-                .map(snapshot -> estimateMaterial(
-                        snapshot,
-                        operativeDemandByMaterial.getOrDefault(
-                                snapshot.producto().getProductoId(),
-                                new double[windowDays]),
-                        includeContingencies
-                                ? contingencyDemandByMaterial.getOrDefault(
-                                        snapshot.producto().getProductoId(),
-                                        new double[windowDays])
-                                : new double[windowDays],
-                        includeContingencies
-                                ? contingencyMovementsByMaterial.getOrDefault(
-                                        snapshot.producto().getProductoId(),
-                                        0)
-                                : 0,
-                        cutoffDate,
-                        windowDays))
-                .filter(Objects::nonNull)
-                .sorted(coverageComparator())
-                .toList();
+        CoverageSnapshot snapshot = coverageSnapshot(
+                windowDays,
+                demandSource,
+                cutoffDate);
+        List<CoberturaMaterialesDTO.EstimacionMaterialDTO> estimates =
+                snapshot.estimates();
 
         CoberturaMaterialesDTO.EstimacionMaterialDTO criticalEstimate =
                 estimates.isEmpty() ? null : estimates.get(0);
@@ -266,21 +224,22 @@ public class CoberturaMaterialesService {
                 .confianzaBaja(criticalEstimate != null && !lowConfidenceReasons.isEmpty())
                 .motivosConfianzaBaja(lowConfidenceReasons)
                 .diasObservados(windowDays)
-                .diasConDispensacion(distinctDispensationDays(dispensations))
-                .diasConDemanda(distinctMovementDays(includedDemandMovements))
-                .materialesAnalizados(materialStock.size())
+                .diasConDispensacion(snapshot.dispensationDays())
+                .diasConDemanda(snapshot.demandDays())
+                .materialesAnalizados(snapshot.analyzedMaterials())
                 .materialesConDemanda(estimates.size())
                 .resumenFuentesDemanda(
                         CoberturaMaterialesDTO.ResumenFuentesDemandaDTO.builder()
-                                .movimientosDispensacionIncluidos(dispensations.size())
+                                .movimientosDispensacionIncluidos(
+                                        snapshot.dispensationMovements())
                                 .ajustesContingenciaDisponibles(
-                                        contingencyAdjustments.size())
+                                        snapshot.contingencyAdjustments())
                                 .ajustesContingenciaIncluidos(
                                         includeContingencies
-                                                ? contingencyAdjustments.size()
+                                                ? snapshot.contingencyAdjustments()
                                                 : 0)
                                 .ajustesNegativosSinClasificarExcluidos(
-                                        Math.toIntExact(unclassifiedNegativeAdjustments))
+                                        snapshot.unclassifiedNegativeAdjustments())
                                 .build())
                 .estimaciones(estimates.stream().limit(MAX_ESTIMATES).toList())
                 .facetas(CoberturaMaterialesDTO.FacetasCoberturaDTO.builder()
@@ -299,69 +258,62 @@ public class CoberturaMaterialesService {
         return new CoverageAnalysis(report, filtered);
     }
 
-    private byte[] generateExcel(CoverageAnalysis analysis) {
-        try (XSSFWorkbook workbook = new XSSFWorkbook();
-             ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-            Sheet sheet = workbook.createSheet("Cobertura");
-            ExcelStyles styles = createExcelStyles(workbook);
-
-            Row titleRow = sheet.createRow(0);
-            Cell titleCell = titleRow.createCell(0);
-            titleCell.setCellValue("Cobertura de materiales");
-            titleCell.setCellStyle(styles.title());
-            sheet.addMergedRegion(new CellRangeAddress(
-                    0, 0, 0, EXCEL_HEADERS.length - 1));
-
-            Row noticeRow = sheet.createRow(1);
-            Cell noticeCell = noticeRow.createCell(0);
-            noticeCell.setCellValue(
-                    "Informe actualizado al momento de la descarga.");
-            noticeCell.setCellStyle(styles.notice());
-            sheet.addMergedRegion(new CellRangeAddress(
-                    1, 1, 0, EXCEL_HEADERS.length - 1));
-
-            Row cutoffRow = sheet.createRow(2);
-            Cell cutoffLabelCell = cutoffRow.createCell(0);
-            cutoffLabelCell.setCellValue(
-                    "Fecha y hora de corte (hora Colombia)");
-            cutoffLabelCell.setCellStyle(styles.metadataLabel());
-            sheet.addMergedRegion(new CellRangeAddress(2, 2, 0, 2));
-            Cell cutoffValueCell = cutoffRow.createCell(3);
-            cutoffValueCell.setCellValue(
-                    analysis.report().fechaHoraCorteStock());
-            cutoffValueCell.setCellStyle(styles.dateTime());
-
-            Row headerRow = sheet.createRow(EXCEL_HEADER_ROW_INDEX);
-            headerRow.setHeightInPoints(32);
-            for (int index = 0; index < EXCEL_HEADERS.length; index++) {
-                Cell cell = headerRow.createCell(index);
-                cell.setCellValue(EXCEL_HEADERS[index]);
-                cell.setCellStyle(styles.header());
-            }
+    private void writeExcel(
+            StreamingExcelWorkbook excel,
+            CoverageAnalysis analysis
+    ) {
+        // Anchos fijos: no hace falta seguir columnas para autoajuste.
+        Sheet sheet = excel.workbook().createSheet("Cobertura");
+        ExcelStyles styles = createExcelStyles(excel.workbook());
+
+        Row titleRow = sheet.createRow(0);
+        Cell titleCell = titleRow.createCell(0);
+        titleCell.setCellValue("Cobertura de materiales");
+        titleCell.setCellStyle(styles.title());
+        sheet.addMergedRegion(new CellRangeAddress(
+                0, 0, 0, EXCEL_HEADERS.length - 1));
+
+        Row noticeRow = sheet.createRow(1);
+        Cell noticeCell = noticeRow.createCell(0);
+        noticeCell.setCellValue(
+                "Informe actualizado al momento de la descarga.");
+        noticeCell.setCellStyle(styles.notice());
+        sheet.addMergedRegion(new CellRangeAddress(
+                1, 1, 0, EXCEL_HEADERS.length - 1));
+
+        Row cutoffRow = sheet.createRow(2);
+        Cell cutoffLabelCell = cutoffRow.createCell(0);
+        cutoffLabelCell.setCellValue(
+                "Fecha y hora de corte (hora Colombia)");
+        cutoffLabelCell.setCellStyle(styles.metadataLabel());
+        sheet.addMergedRegion(new CellRangeAddress(2, 2, 0, 2));
+        Cell cutoffValueCell = cutoffRow.createCell(3);
+        cutoffValueCell.setCellValue(
+                analysis.report().fechaHoraCorteStock());
+        cutoffValueCell.setCellStyle(styles.dateTime());
+
+        Row headerRow = sheet.createRow(EXCEL_HEADER_ROW_INDEX);
+        headerRow.setHeightInPoints(32);
+        for (int index = 0; index < EXCEL_HEADERS.length; index++) {
+            Cell cell = headerRow.createCell(index);
+            cell.setCellValue(EXCEL_HEADERS[index]);
+            cell.setCellStyle(styles.header());
+        }
 
-            int rowIndex = EXCEL_HEADER_ROW_INDEX + 1;
-            for (CoberturaMaterialesDTO.EstimacionMaterialDTO estimate
-                    : analysis.filteredEstimates()) {
-                Row row = sheet.createRow(rowIndex++);
-                writeEstimateRow(row, estimate, styles);
-            }
+        int rowIndex = excel.appendRows(
+                sheet,
+                EXCEL_HEADER_ROW_INDEX + 1,
+                analysis.filteredEstimates(),
+                (estimate, row) -> writeEstimateRow(row, estimate, styles));
 
-            int lastRow = Math.max(EXCEL_HEADER_ROW_INDEX, rowIndex - 1);
-            sheet.setAutoFilter(new CellRangeAddress(
-                    EXCEL_HEADER_ROW_INDEX,
-                    lastRow,
-                    0,
-                    EXCEL_HEADERS.length - 1));
-            sheet.createFreezePane(0, EXCEL_HEADER_ROW_INDEX + 1);
-            setExcelColumnWidths(sheet);
-
-            workbook.write(out);
-            return out.toByteArray();
-        } catch (IOException ex) {
-            log.error("Error generando Excel de cobertura de materiales", ex);
-            throw new RuntimeException(
-                    "Error generando Excel de cobertura de materiales", ex);
-        }
+        int lastRow = Math.max(EXCEL_HEADER_ROW_INDEX, rowIndex - 1);
+        sheet.setAutoFilter(new CellRangeAddress(
+                EXCEL_HEADER_ROW_INDEX,
+                lastRow,
+                0,
+                EXCEL_HEADERS.length - 1));
+        sheet.createFreezePane(0, EXCEL_HEADER_ROW_INDEX + 1);
+        setExcelColumnWidths(sheet);
     }
 
     private void writeEstimateRow(
@@ -414,7 +366,7 @@ public class CoberturaMaterialesService {
         cell.setCellStyle(styles.number());
     }
 
-    private ExcelStyles createExcelStyles(XSSFWorkbook workbook) {
+    private ExcelStyles createExcelStyles(Workbook workbook) {
         Font titleFont = workbook.createFont();
         titleFont.setBold(true);
         titleFont.setFontHeightInPoints((short) 14);
@@ -490,73 +442,182 @@ public class CoberturaMaterialesService {
         };
     }
 
-    private List<Movimiento> loadMovements(LocalDate startDate, LocalDate cutoffDate) {
-        return movementRepo.findMovimientosBiByAlmacenAndRango(
-                        Movimiento.Almacen.GENERAL,
-                        startDate.atStartOfDay(),
-                        cutoffDate.atTime(LocalTime.MAX));
-    }
+    /**
+     * Devuelve las estimaciones de la ventana, reutilizando el análisis en caché
+     * mientras no haya movimientos nuevos. Si los hay, solo se aplican a la demanda
+     * los movimientos posteriores a la marca de agua y se recalcula el bootstrap
+     * únicamente de los materiales afectados; el stock se vuelve a leer porque
+     * cualquier movimiento puede cambiarlo.
+     */
+    private CoverageSnapshot coverageSnapshot(
+            int windowDays,
+            FuenteDemandaCobertura demandSource,
+            LocalDate cutoffDate
+    ) {
+        coverageCache.keySet().removeIf(key -> !key.cutoffDate().equals(cutoffDate));
+        CachedCoverage cached = coverageCache.computeIfAbsent(
+                new CoverageKey(windowDays, cutoffDate),
+                ignored -> new CachedCoverage());
+        synchronized (cached) {
+            int latestMovementId = latestMovementId();
+            Instant now = applicationClock.instant();
+            if (cached.demand == null
+                    || !now.isBefore(cached.builtAt.plus(MAX_CACHE_AGE))) {
+                rebuildDemand(cached, cutoffDate, windowDays, latestMovementId, now);
+            } else if (latestMovementId > cached.demand.watermark()) {
+                refreshDemand(cached, cutoffDate, windowDays, latestMovementId);
+            }
 
-    private boolean isMaterialDispensation(Movimiento movement) {
-        return movement.getProducto() instanceof Material
-                && movement.getCantidad() < 0
-                && movement.getTipoMovimiento() == Movimiento.TipoMovimiento.DISPENSACION;
+            CoverageSnapshot snapshot = cached.snapshots.get(demandSource);
+            if (snapshot == null || snapshot.stockWatermark() != latestMovementId) {
+                snapshot = buildSnapshot(
+                        cached,
+                        demandSource,
+                        cutoffDate,
+                        windowDays,
+                        latestMovementId);
+                cached.snapshots.put(demandSource, snapshot);
+            }
+            return snapshot;
+        }
     }
 
-    private boolean isMaterialNegativeAdjustment(Movimiento movement) {
-        return movement.getProducto() instanceof Material
-                && movement.getCantidad() < 0
-                && movement.getTipoMovimiento() == Movimiento.TipoMovimiento.AJUSTE_NEGATIVO;
+    private void rebuildDemand(
+            CachedCoverage cached,
+            LocalDate cutoffDate,
+            int windowDays,
+            int latestMovementId,
+            Instant now
+    ) {
+        LocalDate startDate = cutoffDate.minusDays(windowDays - 1L);
+        CoverageDemandWindow demand = new CoverageDemandWindow(startDate, windowDays);
+        demand.apply(movementRepo.findMovimientosBiByAlmacenAndRango(
+                Movimiento.Almacen.GENERAL,
+                startDate.atStartOfDay(),
+                cutoffDate.atTime(LocalTime.MAX)));
+        demand.advanceWatermark(latestMovementId);
+        cached.demand = demand;
+        cached.builtAt = now;
+        cached.intervals.clear();
+        cached.snapshots.clear();
+    }
+
+    private void refreshDemand(
+            CachedCoverage cached,
+            LocalDate cutoffDate,
+            int windowDays,
+            int latestMovementId
+    ) {
+        LocalDate startDate = cutoffDate.minusDays(windowDays - 1L);
+        Set<String> changedMaterials = cached.demand.apply(
+                movementRepo.findMovimientosBiByAlmacenAndRangoAfterId(
+                        Movimiento.Almacen.GENERAL,
+                        startDate.atStartOfDay(),
+                        cutoffDate.atTime(LocalTime.MAX),
+                        cached.demand.watermark()));
+        cached.demand.advanceWatermark(latestMovementId);
+        cached.intervals.values()
+                .forEach(intervals -> intervals.keySet().removeAll(changedMaterials));
+        cached.snapshots.clear();
     }
 
-    private boolean isContingencyAdjustment(Movimiento movement) {
-        if (movement.getTransaccionAlmacen() == null) return false;
-        if (movement.getTransaccionAlmacen().getTipoEntidadCausante()
-                != TransaccionAlmacen.TipoEntidadCausante.OAA) {
-            return false;
-        }
-        CausaAjusteInventario cause = movement.getTransaccionAlmacen().getCausaAjuste();
-        return cause != null && cause.isElegibleComoDemanda();
-    }
+    private CoverageSnapshot buildSnapshot(
+            CachedCoverage cached,
+            FuenteDemandaCobertura demandSource,
+            LocalDate cutoffDate,
+            int windowDays,
+            int latestMovementId
+    ) {
+        CoverageDemandWindow demand = cached.demand;
+        boolean includeContingencies = demandSource.incluyeContingencias();
+        Map<String, BootstrapDemandIntervalCalculator.DemandMeanInterval> intervals =
+                cached.intervals.computeIfAbsent(
+                        demandSource,
+                        ignored -> new HashMap<>());
+        List<ProductoStockSnapshot> materialStock = stockReader.readGeneralStock().stream()
+                .filter(snapshot -> snapshot.producto() instanceof Material)
+                .toList();
+        precalculateIntervals(
+                materialStock,
+                demand,
+                includeContingencies,
+                cutoffDate,
+                windowDays,
+                intervals);
 
-    private boolean isUnclassifiedAdjustment(Movimiento movement) {
-        if (movement.getTransaccionAlmacen() == null) return true;
-        return movement.getTransaccionAlmacen().getTipoEntidadCausante()
-                == TransaccionAlmacen.TipoEntidadCausante.OAA
-                && movement.getTransaccionAlmacen().getCausaAjuste() == null;
-    }
+        List<CoberturaMaterialesDTO.EstimacionMaterialDTO> estimates = materialStock.stream()
+                .map(snapshot -> {
+                    String productId = snapshot.producto().getProductoId();
+                    return estimateMaterial(
+                            snapshot,
+                            demand.operativeDemand(productId),
+                            includeContingencies
+                                    ? demand.contingencyDemand(productId)
+                                    : new double[windowDays],
+                            includeContingencies
+                                    ? demand.contingencyMovements(productId)
+                                    : 0,
+                            cutoffDate,
+                            windowDays,
+                            intervals);
+                })
+                .filter(Objects::nonNull)
+                .sorted(coverageComparator())
+                .toList();
 
-    private Map<String, double[]> groupDailyDemand(
-            List<Movimiento> dispensations,
-            LocalDate startDate,
-            int windowDays
+        return new CoverageSnapshot(
+                estimates,
+                materialStock.size(),
+                demand.dispensationCount(),
+                demand.contingencyCount(),
+                demand.unclassifiedNegativeAdjustments(),
+                demand.dispensationDays(),
+                demand.demandDays(includeContingencies),
+                latestMovementId);
+    }
+
+    /**
+     * Calcula en un solo lote paralelo los intervalos bootstrap que faltan en caché:
+     * materiales con stock positivo y demanda en la ventana.
+     */
+    private void precalculateIntervals(
+            List<ProductoStockSnapshot> materialStock,
+            CoverageDemandWindow demand,
+            boolean includeContingencies,
+            LocalDate cutoffDate,
+            int windowDays,
+            Map<String, BootstrapDemandIntervalCalculator.DemandMeanInterval> intervals
     ) {
-        Map<String, double[]> demandByMaterial = new HashMap<>();
-        for (Movimiento dispensation : dispensations) {
-            if (dispensation.getFechaMovimiento() == null) continue;
-
-            int dayIndex = Math.toIntExact(ChronoUnit.DAYS.between(
-                    startDate,
-                    dispensation.getFechaMovimiento().toLocalDate()));
-            if (dayIndex < 0 || dayIndex >= windowDays) continue;
-
-            demandByMaterial.computeIfAbsent(
-                            dispensation.getProducto().getProductoId(),
-                            ignored -> new double[windowDays])[dayIndex]
-                    += Math.abs(dispensation.getCantidad());
+        List<String> pendingIds = new ArrayList<>();
+        List<BootstrapDemandIntervalCalculator.DemandSeries> pendingSeries = new ArrayList<>();
+        for (ProductoStockSnapshot snapshot : materialStock) {
+            String productId = snapshot.producto().getProductoId();
+            if (snapshot.stockGeneral() <= 0 || intervals.containsKey(productId)) continue;
+
+            double[] dailyDemand = combineDailyDemand(
+                    demand.operativeDemand(productId),
+                    includeContingencies
+                            ? demand.contingencyDemand(productId)
+                            : new double[windowDays]);
+            if (Arrays.stream(dailyDemand).sum() <= 0) continue;
+
+            pendingIds.add(productId);
+            pendingSeries.add(new BootstrapDemandIntervalCalculator.DemandSeries(
+                    dailyDemand,
+                    deterministicSeed(productId, cutoffDate, windowDays)));
         }
-        return demandByMaterial;
-    }
+        if (pendingSeries.isEmpty()) return;
 
-    private Map<String, Integer> groupMovementCount(List<Movimiento> movements) {
-        Map<String, Integer> countByMaterial = new HashMap<>();
-        for (Movimiento movement : movements) {
-            countByMaterial.merge(
-                    movement.getProducto().getProductoId(),
-                    1,
-                    Integer::sum);
+        List<BootstrapDemandIntervalCalculator.DemandMeanInterval> calculated =
+                intervalCalculator.calculateAll(pendingSeries);
+        for (int index = 0; index < pendingIds.size(); index++) {
+            intervals.put(pendingIds.get(index), calculated.get(index));
         }
-        return countByMaterial;
+    }
+
+    private int latestMovementId() {
+        Integer latestMovementId = movementRepo.findMaxMovimientoId();
+        return latestMovementId == null ? 0 : latestMovementId;
     }
 
     private CoberturaMaterialesDTO.EstimacionMaterialDTO estimateMaterial(
@@ -565,7 +626,8 @@ public class CoberturaMaterialesService {
             double[] contingencyDailyDemand,
             int includedContingencyMovements,
             LocalDate cutoffDate,
-            int windowDays
+            int windowDays,
+            Map<String, BootstrapDemandIntervalCalculator.DemandMeanInterval> intervals
     ) {
         double[] dailyDemand = combineDailyDemand(
                 operativeDailyDemand,
@@ -592,7 +654,8 @@ public class CoberturaMaterialesService {
                         dailyDemand,
                         meanDemand,
                         cutoffDate,
-                        windowDays);
+                        windowDays,
+                        intervals);
         List<String> confidenceReasons = lowConfidenceReasons(
                 windowDays,
                 activeDays,
@@ -634,7 +697,8 @@ public class CoberturaMaterialesService {
             double[] dailyDemand,
             double meanDemand,
             LocalDate cutoffDate,
-            int windowDays
+            int windowDays,
+            Map<String, BootstrapDemandIntervalCalculator.DemandMeanInterval> intervals
     ) {
         double daysUntilExhaustion = snapshot.stockGeneral() / meanDemand;
         LocalDate estimatedDate = addRoundedUpDays(cutoffDate, daysUntilExhaustion);
@@ -642,7 +706,9 @@ public class CoberturaMaterialesService {
                 snapshot.producto().getProductoId(),
                 cutoffDate,
                 windowDays);
-        var demandInterval = intervalCalculator.calculate(dailyDemand, seed);
+        var demandInterval = intervals.computeIfAbsent(
+                snapshot.producto().getProductoId(),
+                ignored -> intervalCalculator.calculate(dailyDemand, seed));
 
         LocalDate earliestDate = demandInterval.upperMean() > 0
                 ? addRoundedUpDays(
@@ -783,19 +849,6 @@ public class CoberturaMaterialesService {
                 totalPages == 0 || page >= totalPages - 1);
     }
 
-    private int distinctDispensationDays(List<Movimiento> dispensations) {
-        return distinctMovementDays(dispensations);
-    }
-
-    private int distinctMovementDays(List<Movimiento> movements) {
-        return Math.toIntExact(movements.stream()
-                .map(Movimiento::getFechaMovimiento)
-                .filter(Objects::nonNull)
-                .map(LocalDateTime::toLocalDate)
-                .distinct()
-                .count());
-    }
-
     private LocalDate addRoundedUpDays(LocalDate date, double days) {
         return date.plusDays((long) Math.ceil(days));
     }
@@ -896,11 +949,41 @@ public class CoberturaMaterialesService {
     }
 
     public record ExcelExport(
-            byte[] content,
+            StreamingExcelWorkbook.Output content,
             LocalDateTime cutoff
     ) {
     }
 
+    private record CoverageKey(int windowDays, LocalDate cutoffDate) {
+    }
+
+    /**
+     * Análisis en caché de una ventana: la demanda acumulada, los intervalos de
+     * bootstrap ya calculados por material y las estimaciones por fuente de demanda
+     * asociadas al último movimiento visto.
+     */
+    private static final class CachedCoverage {
+        private CoverageDemandWindow demand;
+        private Instant builtAt;
+        private final Map<FuenteDemandaCobertura,
+                Map<String, BootstrapDemandIntervalCalculator.DemandMeanInterval>>
+                intervals = new EnumMap<>(FuenteDemandaCobertura.class);
+        private final Map<FuenteDemandaCobertura, CoverageSnapshot> snapshots =
+                new EnumMap<>(FuenteDemandaCobertura.class);
+    }
+
+    private record CoverageSnapshot(
+            List<CoberturaMaterialesDTO.EstimacionMaterialDTO> estimates,
+            int analyzedMaterials,
+            int dispensationMovements,
+            int contingencyAdjustments,
+            int unclassifiedNegativeAdjustments,
+            int dispensationDays,
+            int demandDays,
+            int stockWatermark
+    ) {
+    }
+
     private record CoverageAnalysis(
             CoberturaMaterialesDTO report,
             List<CoberturaMaterialesDTO.EstimacionMaterialDTO> filteredEstimates
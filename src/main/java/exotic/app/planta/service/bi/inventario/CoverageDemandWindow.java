@@ -0,0 +1,165 @@
+package exotic.app.planta.service.bi.inventario;
+
+import exotic.app.planta.model.inventarios.CausaAjusteInventario;
+import exotic.app.planta.model.inventarios.Movimiento;
+import exotic.app.planta.model.inventarios.TransaccionAlmacen;
+import exotic.app.planta.model.producto.Material;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Demanda diaria acumulada de materiales para una ventana fija de cobertura.
+ * Se alimenta con los movimientos del almacén general en orden de llegada, de
+ * modo que una ventana en caché solo necesita aplicar los movimientos nuevos.
+ * No es thread-safe; el servicio la protege con el lock de su entrada de caché.
+ */
+final class CoverageDemandWindow {
+    private final LocalDate startDate;
+    private final int windowDays;
+    private final Map<String, double[]> operativeDemand = new HashMap<>();
+    private final Map<String, double[]> contingencyDemand = new HashMap<>();
+    private final Map<String, Integer> contingencyMovements = new HashMap<>();
+    private final Set<LocalDate> dispensationDays = new HashSet<>();
+    private final Set<LocalDate> contingencyDays = new HashSet<>();
+    private int dispensationCount;
+    private int contingencyCount;
+    private int unclassifiedNegativeAdjustments;
+    private int watermark;
+
+    CoverageDemandWindow(LocalDate startDate, int windowDays) {
+        this.startDate = startDate;
+        this.windowDays = windowDays;
+    }
+
+    /**
+     * Incorpora los movimientos y devuelve los materiales cuya demanda cambió.
+     */
+    Set<String> apply(Iterable<Movimiento> movements) {
+        Set<String> changedMaterials = new HashSet<>();
+        for (Movimiento movement : movements) {
+            watermark = Math.max(watermark, movement.getMovimientoId());
+            if (isMaterialDispensation(movement)) {
+                dispensationCount++;
+                addDay(dispensationDays, movement.getFechaMovimiento());
+                addDemand(operativeDemand, movement, changedMaterials);
+            } else if (isMaterialNegativeAdjustment(movement)) {
+                if (isContingencyAdjustment(movement)) {
+                    contingencyCount++;
+                    addDay(contingencyDays, movement.getFechaMovimiento());
+                    contingencyMovements.merge(
+                            movement.getProducto().getProductoId(),
+                            1,
+                            Integer::sum);
+                    addDemand(contingencyDemand, movement, changedMaterials);
+                } else if (isUnclassifiedAdjustment(movement)) {
+                    unclassifiedNegativeAdjustments++;
+                }
+            }
+        }
+        return changedMaterials;
+    }
+
+    void advanceWatermark(int movementId) {
+        watermark = Math.max(watermark, movementId);
+    }
+
+    int watermark() {
+        return watermark;
+    }
+
+    double[] operativeDemand(String productId) {
+        return operativeDemand.getOrDefault(productId, new double[windowDays]);
+    }
+
+    double[] contingencyDemand(String productId) {
+        return contingencyDemand.getOrDefault(productId, new double[windowDays]);
+    }
+
+    int contingencyMovements(String productId) {
+        return contingencyMovements.getOrDefault(productId, 0);
+    }
+
+    int dispensationCount() {
+        return dispensationCount;
+    }
+
+    int contingencyCount() {
+        return contingencyCount;
+    }
+
+    int unclassifiedNegativeAdjustments() {
+        return unclassifiedNegativeAdjustments;
+    }
+
+    int dispensationDays() {
+        return dispensationDays.size();
+    }
+
+    int demandDays(boolean includeContingencies) {
+        if (!includeContingencies) return dispensationDays.size();
+        Set<LocalDate> days = new HashSet<>(dispensationDays);
+        days.addAll(contingencyDays);
+        return days.size();
+    }
+
+    private void addDemand(
+            Map<String, double[]> demandByMaterial,
+            Movimiento movement,
+            Set<String> changedMaterials
+    ) {
+        if (movement.getFechaMovimiento() == null) return;
+
+        int dayIndex = Math.toIntExact(ChronoUnit.DAYS.between(
+                startDate,
+                movement.getFechaMovimiento().toLocalDate()));
+        if (dayIndex < 0 || dayIndex >= windowDays) return;
+
+        String productId = movement.getProducto().getProductoId();
+        demandByMaterial.computeIfAbsent(
+                        productId,
+                        ignored -> new double[windowDays])[dayIndex]
+                += Math.abs(movement.getCantidad());
+        changedMaterials.add(productId);
+    }
+
+    private void addDay(Set<LocalDate> days, LocalDateTime date) {
+        if (date != null) {
+            days.add(date.toLocalDate());
+        }
+    }
+
+    private boolean isMaterialDispensation(Movimiento movement) {
+        return movement.getProducto() instanceof Material
+                && movement.getCantidad() < 0
+                && movement.getTipoMovimiento() == Movimiento.TipoMovimiento.DISPENSACION;
+    }
+
+    private boolean isMaterialNegativeAdjustment(Movimiento movement) {
+        return movement.getProducto() instanceof Material
+                && movement.getCantidad() < 0
+                && movement.getTipoMovimiento() == Movimiento.TipoMovimiento.AJUSTE_NEGATIVO;
+    }
+
+    private boolean isContingencyAdjustment(Movimiento movement) {
+        if (movement.getTransaccionAlmacen() == null) return false;
+        if (movement.getTransaccionAlmacen().getTipoEntidadCausante()
+                != TransaccionAlmacen.TipoEntidadCausante.OAA) {
+            return false;
+        }
+        CausaAjusteInventario cause = movement.getTransaccionAlmacen().getCausaAjuste();
+        return cause != null && cause.isElegibleComoDemanda();
+    }
+
+    private boolean isUnclassifiedAdjustment(Movimiento movement) {
+        if (movement.getTransaccionAlmacen() == null) return true;
+        return movement.getTransaccionAlmacen().getTipoEntidadCausante()
+                == TransaccionAlmacen.TipoEntidadCausante.OAA
+                && movement.getTransaccionAlmacen().getCausaAjuste() == null;
+    }
+}
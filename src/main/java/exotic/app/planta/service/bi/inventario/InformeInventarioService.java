@@ -2,7 +2,6 @@ package exotic.app.planta.service.bi.inventario;
 
 import exotic.app.planta.model.bi.dto.InformeInventarioDTO;
 import exotic.app.planta.model.inventarios.Movimiento;
-import exotic.app.planta.repo.inventarios.TransaccionAlmacenRepo;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -20,7 +19,7 @@ import java.util.List;
 public class InformeInventarioService {
     private static final int CONTRACT_VERSION = 5;
 
-    private final TransaccionAlmacenRepo movementRepo;
+    private final MovimientosBiCursor movementCursor;
     private final InventarioStockReader stockReader;
     private final StockInventarioAssembler stockAssembler;
     private final MovimientosInventarioAssembler movementAssembler;
@@ -36,8 +35,24 @@ public class InformeInventarioService {
 
         boolean singleDate = startDate.equals(endDate);
         List<ProductoStockSnapshot> stock = stockReader.readGeneralStock();
-        List<Movimiento> periodMovements = loadMovements(startDate, endDate);
-        List<Movimiento> seriesMovements = singleDate ? List.of() : periodMovements;
+        MovimientosInventarioAssembler.Accumulator movements =
+                movementAssembler.accumulator(startDate, endDate);
+        AjustesInventarioAssembler.Accumulator adjustments =
+                adjustmentAssembler.accumulator(startDate, endDate);
+
+        // Una sola pasada por el cursor alimenta resúmenes y series; con fecha única no hay serie.
+        movementCursor.forEach(
+                Movimiento.Almacen.GENERAL,
+                startDate.atStartOfDay(),
+                endDate.atTime(LocalTime.MAX),
+                movement -> {
+                    movements.addPeriodMovement(movement);
+                    adjustments.addPeriodMovement(movement);
+                    if (!singleDate) {
+                        movements.addTrendMovement(movement);
+                        adjustments.addTrendMovement(movement);
+                    }
+                });
 
         return InformeInventarioDTO.builder()
                 .versionContrato(CONTRACT_VERSION)
@@ -45,16 +60,8 @@ public class InformeInventarioService {
                 .periodoTendencia(toPeriod(startDate, endDate))
                 .fechaHoraCorteStock(LocalDateTime.now(applicationClock))
                 .stock(stockAssembler.assemble(stock))
-                .movimientos(movementAssembler.assemble(
-                        periodMovements,
-                        seriesMovements,
-                        startDate,
-                        endDate))
-                .ajustesInventario(adjustmentAssembler.assemble(
-                        periodMovements,
-                        seriesMovements,
-                        startDate,
-                        endDate))
+                .movimientos(movements.build())
+                .ajustesInventario(adjustments.build())
                 .ocmPendientes(pendingAssembler.buildPendingPurchaseOrders())
                 .materialDirectoOp(pendingAssembler.buildOpenProductionOrderMaterial())
                 .wipMaterialEstimado(pendingAssembler.buildWipMaterialEstimate())
@@ -62,13 +69,6 @@ public class InformeInventarioService {
                 .build();
     }
 
-    private List<Movimiento> loadMovements(LocalDate startDate, LocalDate endDate) {
-        return movementRepo.findMovimientosBiByAlmacenAndRango(
-                Movimiento.Almacen.GENERAL,
-                startDate.atStartOfDay(),
-                endDate.atTime(LocalTime.MAX));
-    }
-
     private InformeInventarioDTO.PeriodoDTO toPeriod(
             LocalDate startDate,
             LocalDate endDate
@@ -1,7 +1,7 @@
 package exotic.app.planta.service.bi.inventario;
 
+import exotic.app.planta.service.bi.StreamingExcelWorkbook;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.apache.poi.ss.usermodel.BorderStyle;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellStyle;
@@ -11,13 +11,11 @@ import org.apache.poi.ss.usermodel.HorizontalAlignment;
 import org.apache.poi.ss.usermodel.IndexedColors;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.util.CellRangeAddress;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.math.BigDecimal;
 import java.time.Clock;
 import java.time.LocalDateTime;
@@ -26,7 +24,6 @@ import java.util.List;
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
-@Slf4j
 public class MaterialOpExcelService {
     private static final int HEADER_ROW_INDEX = 3;
     private static final String[] DETAIL_HEADERS = {
@@ -64,36 +61,30 @@ public class MaterialOpExcelService {
             ExportKind kind
     ) {
         LocalDateTime cutoff = LocalDateTime.now(applicationClock);
-        return new ExcelExport(generateWorkbook(snapshot, kind, cutoff), cutoff);
+        return new ExcelExport(
+                StreamingExcelWorkbook.deferred(workbook -> writeWorkbook(workbook, snapshot, kind, cutoff)),
+                cutoff);
     }
 
-    private byte[] generateWorkbook(
+    private void writeWorkbook(
+            StreamingExcelWorkbook workbook,
             PendientesInventarioAssembler.MaterialOpSnapshot snapshot,
             ExportKind kind,
             LocalDateTime cutoff
     ) {
-        try (XSSFWorkbook workbook = new XSSFWorkbook();
-             ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-            ExcelStyles styles = createStyles(workbook);
-            writeSummarySheet(
-                    workbook.createSheet("Resumen por OP"),
-                    snapshot.orders(),
-                    kind,
-                    cutoff,
-                    styles);
-            writeDetailSheet(
-                    workbook.createSheet("Detalle materiales"),
-                    snapshot.lines(),
-                    kind,
-                    cutoff,
-                    styles);
-            workbook.write(out);
-            return out.toByteArray();
-        } catch (IOException ex) {
-            log.error("Error generando Excel de materiales asociados a OP", ex);
-            throw new RuntimeException(
-                    "Error generando Excel de materiales asociados a OP", ex);
-        }
+        ExcelStyles styles = createStyles(workbook.workbook());
+        writeSummarySheet(
+                workbook.createSheet("Resumen por OP"),
+                snapshot.orders(),
+                kind,
+                cutoff,
+                styles);
+        writeDetailSheet(
+                workbook.createSheet("Detalle materiales"),
+                snapshot.lines(),
+                kind,
+                cutoff,
+                styles);
     }
 
     private void writeSummarySheet(
@@ -329,7 +320,7 @@ public class MaterialOpExcelService {
         return value == null || value.isBlank() ? "—" : value;
     }
 
-    private ExcelStyles createStyles(XSSFWorkbook workbook) {
+    private ExcelStyles createStyles(Workbook workbook) {
         Font titleFont = workbook.createFont();
         titleFont.setBold(true);
         titleFont.setFontHeightInPoints((short) 14);
@@ -382,7 +373,7 @@ public class MaterialOpExcelService {
     }
 
     public record ExcelExport(
-            byte[] content,
+            StreamingExcelWorkbook.Output content,
             LocalDateTime cutoff
     ) {
     }
@@ -0,0 +1,109 @@
+package exotic.app.planta.service.bi.inventario;
+
+import exotic.app.planta.model.bi.dto.MovimientoBiRowDTO;
+import exotic.app.planta.model.inventarios.Movimiento;
+import exotic.app.planta.model.inventarios.TransaccionAlmacen;
+import exotic.app.planta.model.producto.Producto;
+import exotic.app.planta.repo.inventarios.TransaccionAlmacenRepo;
+import exotic.app.planta.repo.producto.ProductoRepo;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Recorre los movimientos BI de un almacén con un cursor de base de datos.
+ *
+ * <p>Las filas llegan como proyección ({@link MovimientoBiRowDTO}), así que el contexto de
+ * persistencia no acumula movimientos, transacciones ni lotes. Los productos se resuelven
+ * por bloques de {@value #CHUNK_SIZE} filas y se reutilizan durante todo el recorrido: su
+ * número está acotado por el catálogo, no por el rango consultado. Cada fila se entrega
+ * como un {@link Movimiento} transitorio, no gestionado, para que los ensambladores
+ * conserven su lógica de clasificación; no debe persistirse ni retenerse.
+ *
+ * <p>Debe invocarse dentro de una transacción.
+ */
+@Component
+@RequiredArgsConstructor
+class MovimientosBiCursor {
+    static final int CHUNK_SIZE = 1_000;
+
+    private final TransaccionAlmacenRepo movementRepo;
+    private final ProductoRepo productRepo;
+
+    void forEach(
+            Movimiento.Almacen almacen,
+            LocalDateTime start,
+            LocalDateTime end,
+            Consumer<Movimiento> consumer
+    ) {
+        Map<String, Producto> products = new HashMap<>();
+        List<MovimientoBiRowDTO> chunk = new ArrayList<>(CHUNK_SIZE);
+        try (Stream<MovimientoBiRowDTO> rows =
+                     movementRepo.streamMovimientosBiByAlmacenAndRango(almacen, start, end)) {
+            Iterator<MovimientoBiRowDTO> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == CHUNK_SIZE) {
+                    flush(chunk, products, consumer);
+                }
+            }
+        }
+        flush(chunk, products, consumer);
+    }
+
+    private void flush(
+            List<MovimientoBiRowDTO> chunk,
+            Map<String, Producto> products,
+            Consumer<Movimiento> consumer
+    ) {
+        if (chunk.isEmpty()) return;
+
+        Set<String> missing = new HashSet<>();
+        for (MovimientoBiRowDTO row : chunk) {
+            if (!products.containsKey(row.getProductoId())) {
+                missing.add(row.getProductoId());
+            }
+        }
+        if (!missing.isEmpty()) {
+            productRepo.findAllById(missing)
+                    .forEach(product -> products.put(product.getProductoId(), product));
+        }
+
+        for (MovimientoBiRowDTO row : chunk) {
+            Producto product = products.get(row.getProductoId());
+            if (product != null) {
+                consumer.accept(toMovement(row, product));
+            }
+        }
+        chunk.clear();
+    }
+
+    private static Movimiento toMovement(MovimientoBiRowDTO row, Producto product) {
+        Movimiento movement = new Movimiento();
+        movement.setMovimientoId(row.getMovimientoId());
+        movement.setFechaMovimiento(row.getFechaMovimiento());
+        movement.setCantidad(row.getCantidad());
+        movement.setTipoMovimiento(row.getTipoMovimiento());
+        movement.setAlmacen(row.getAlmacen());
+        movement.setAfectaInventario(Boolean.TRUE.equals(row.getAfectaInventario()));
+        movement.setProducto(product);
+        if (row.getTransaccionId() != null) {
+            TransaccionAlmacen transaction = new TransaccionAlmacen();
+            transaction.setTransaccionId(row.getTransaccionId());
+            transaction.setTipoEntidadCausante(row.getTipoEntidadCausante());
+            transaction.setCausaAjuste(row.getCausaAjuste());
+            movement.setTransaccionAlmacen(transaction);
+        }
+        return movement;
+    }
+}
@@ -11,14 +11,19 @@ import org.springframework.stereotype.Component;
 import java.time.LocalDate;
 import java.util.Comparator;
 import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
-import java.util.stream.Collectors;
 
+/**
+ * Resume los flujos de inventario del periodo y su serie diaria. Los movimientos se
+ * incorporan uno a uno mediante {@link Accumulator}, de modo que el informe puede
+ * construirse recorriendo un cursor sin retener la lista completa.
+ */
 @Component
 class MovimientosInventarioAssembler {
 
@@ -28,12 +33,32 @@ class MovimientosInventarioAssembler {
             LocalDate trendStartDate,
             LocalDate trendEndDate
     ) {
-        Map<FlowType, FlowSummaryAccumulator> summaryByFlow = emptyFlowSummary();
-        Map<String, UnitFlowAccumulator> flowsByUnit = new LinkedHashMap<>();
+        Accumulator accumulator = accumulator(trendStartDate, trendEndDate);
+        periodMovements.forEach(accumulator::addPeriodMovement);
+        trendMovements.forEach(accumulator::addTrendMovement);
+        return accumulator.build();
+    }
+
+    Accumulator accumulator(LocalDate trendStartDate, LocalDate trendEndDate) {
+        return new Accumulator(trendStartDate, trendEndDate);
+    }
 
-        for (Movimiento movement : periodMovements) {
+    class Accumulator {
+        private final LocalDate trendStartDate;
+        private final LocalDate trendEndDate;
+        private final Map<FlowType, FlowSummaryAccumulator> summaryByFlow = emptyFlowSummary();
+        private final Map<String, UnitFlowAccumulator> flowsByUnit = new LinkedHashMap<>();
+        private final Set<String> trendUnits = new TreeSet<>();
+        private final Map<SeriesKey, DailySeriesAccumulator> trendSeries = new HashMap<>();
+
+        private Accumulator(LocalDate trendStartDate, LocalDate trendEndDate) {
+            this.trendStartDate = trendStartDate;
+            this.trendEndDate = trendEndDate;
+        }
+
+        void addPeriodMovement(Movimiento movement) {
             FlowType flowType = classify(movement);
-            if (flowType == null) continue;
+            if (flowType == null) return;
 
             double quantity = Math.abs(movement.getCantidad());
             double estimatedValue = estimatedValue(movement.getProducto(), quantity);
@@ -45,57 +70,54 @@ class MovimientosInventarioAssembler {
                     .add(flowType, quantity);
         }
 
-        return InformeInventarioDTO.MovimientosDTO.builder()
-                .resumen(toSummary(summaryByFlow))
-                .porUnidad(flowsByUnit.values().stream()
-                        .sorted(Comparator.comparing(UnitFlowAccumulator::unit))
-                        .map(UnitFlowAccumulator::toDto)
-                        .toList())
-                .serieDiaria(buildDailySeries(
-                        trendMovements,
-                        trendStartDate,
-                        trendEndDate))
-                .build();
-    }
-
-    private List<InformeInventarioDTO.SerieMovimientoDTO> buildDailySeries(
-            List<Movimiento> movements,
-            LocalDate startDate,
-            LocalDate endDate
-    ) {
-        Map<SeriesKey, DailySeriesAccumulator> series = new LinkedHashMap<>();
-        Set<String> units = movements.stream()
-                .filter(movement -> classify(movement) != null)
-                .map(Movimiento::getProducto)
-                .map(InventarioBiUtils::unitOf)
-                .collect(Collectors.toCollection(TreeSet::new));
-
-        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
-            for (String unit : units) {
-                SeriesKey key = new SeriesKey(date, unit);
-                series.put(key, new DailySeriesAccumulator(date, unit));
-            }
-        }
-
-        for (Movimiento movement : movements) {
+        void addTrendMovement(Movimiento movement) {
             FlowType flowType = classify(movement);
-            if (flowType == null || movement.getFechaMovimiento() == null) continue;
+            if (flowType == null) return;
 
-            LocalDate date = movement.getFechaMovimiento().toLocalDate();
             String unit = InventarioBiUtils.unitOf(movement.getProducto());
+            trendUnits.add(unit);
+            if (movement.getFechaMovimiento() == null) return;
+
+            LocalDate date = movement.getFechaMovimiento().toLocalDate();
             double quantity = Math.abs(movement.getCantidad());
             double estimatedValue = estimatedValue(movement.getProducto(), quantity);
-            SeriesKey key = new SeriesKey(date, unit);
-            series.computeIfAbsent(key, ignored -> new DailySeriesAccumulator(date, unit))
+            trendSeries.computeIfAbsent(
+                            new SeriesKey(date, unit),
+                            ignored -> new DailySeriesAccumulator(date, unit))
                     .add(flowType, quantity, estimatedValue);
         }
 
-        return series.values().stream()
-                .sorted(Comparator
-                        .comparing(DailySeriesAccumulator::date)
-                        .thenComparing(DailySeriesAccumulator::unit))
-                .map(DailySeriesAccumulator::toDto)
-                .toList();
+        InformeInventarioDTO.MovimientosDTO build() {
+            return InformeInventarioDTO.MovimientosDTO.builder()
+                    .resumen(toSummary(summaryByFlow))
+                    .porUnidad(flowsByUnit.values().stream()
+                            .sorted(Comparator.comparing(UnitFlowAccumulator::unit))
+                            .map(UnitFlowAccumulator::toDto)
+                            .toList())
+                    .serieDiaria(buildDailySeries())
+                    .build();
+        }
+
+        private List<InformeInventarioDTO.SerieMovimientoDTO> buildDailySeries() {
+            Map<SeriesKey, DailySeriesAccumulator> series = new HashMap<>(trendSeries);
+            for (LocalDate date = trendStartDate;
+                 !date.isAfter(trendEndDate);
+                 date = date.plusDays(1)) {
+                for (String unit : trendUnits) {
+                    LocalDate day = date;
+                    series.computeIfAbsent(
+                            new SeriesKey(day, unit),
+                            ignored -> new DailySeriesAccumulator(day, unit));
+                }
+            }
+
+            return series.values().stream()
+                    .sorted(Comparator
+                            .comparing(DailySeriesAccumulator::date)
+                            .thenComparing(DailySeriesAccumulator::unit))
+                    .map(DailySeriesAccumulator::toDto)
+                    .toList();
+        }
     }
 
     private FlowType classify(Movimiento movement) {
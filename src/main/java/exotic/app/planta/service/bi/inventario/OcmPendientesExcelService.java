@@ -1,8 +1,8 @@
 package exotic.app.planta.service.bi.inventario;
 
 import exotic.app.planta.model.bi.dto.InformeInventarioDTO;
+import exotic.app.planta.service.bi.StreamingExcelWorkbook;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.apache.poi.ss.usermodel.BorderStyle;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellStyle;
@@ -12,13 +12,11 @@ import org.apache.poi.ss.usermodel.HorizontalAlignment;
 import org.apache.poi.ss.usermodel.IndexedColors;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.util.CellRangeAddress;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.time.Clock;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -26,7 +24,6 @@ import java.util.List;
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
-@Slf4j
 public class OcmPendientesExcelService {
     private static final String[] EXCEL_HEADERS = {
             "OCM",
@@ -51,75 +48,68 @@ public class OcmPendientesExcelService {
         LocalDateTime cutoff = LocalDateTime.now(applicationClock);
         List<InformeInventarioDTO.OcmDTO> orders =
                 pendingAssembler.getAllPendingPurchaseOrders();
-        return new ExcelExport(generateExcel(orders, cutoff), cutoff);
+        return new ExcelExport(
+                StreamingExcelWorkbook.deferred(workbook -> writeWorkbook(workbook, orders, cutoff)),
+                cutoff);
     }
 
-    private byte[] generateExcel(
+    private void writeWorkbook(
+            StreamingExcelWorkbook workbook,
             List<InformeInventarioDTO.OcmDTO> orders,
             LocalDateTime cutoff
     ) {
-        try (XSSFWorkbook workbook = new XSSFWorkbook();
-             ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-            Sheet sheet = workbook.createSheet("OCM pendientes");
-            ExcelStyles styles = createExcelStyles(workbook);
-
-            Row titleRow = sheet.createRow(0);
-            Cell titleCell = titleRow.createCell(0);
-            titleCell.setCellValue("Materiales pendientes de ingreso por OCM");
-            titleCell.setCellStyle(styles.title());
-            sheet.addMergedRegion(new CellRangeAddress(
-                    0, 0, 0, EXCEL_HEADERS.length - 1));
-
-            Row noticeRow = sheet.createRow(1);
-            Cell noticeCell = noticeRow.createCell(0);
-            noticeCell.setCellValue(
-                    "Informe actualizado al momento de la descarga.");
-            noticeCell.setCellStyle(styles.notice());
-            sheet.addMergedRegion(new CellRangeAddress(
-                    1, 1, 0, EXCEL_HEADERS.length - 1));
-
-            Row cutoffRow = sheet.createRow(2);
-            Cell cutoffLabelCell = cutoffRow.createCell(0);
-            cutoffLabelCell.setCellValue(
-                    "Fecha y hora de corte (hora Colombia)");
-            cutoffLabelCell.setCellStyle(styles.metadataLabel());
-            sheet.addMergedRegion(new CellRangeAddress(2, 2, 0, 2));
-            Cell cutoffValueCell = cutoffRow.createCell(3);
-            cutoffValueCell.setCellValue(cutoff);
-            cutoffValueCell.setCellStyle(styles.dateTime());
-
-            Row headerRow = sheet.createRow(EXCEL_HEADER_ROW_INDEX);
-            headerRow.setHeightInPoints(32);
-            for (int index = 0; index < EXCEL_HEADERS.length; index++) {
-                Cell cell = headerRow.createCell(index);
-                cell.setCellValue(EXCEL_HEADERS[index]);
-                cell.setCellStyle(styles.header());
-            }
+        Sheet sheet = workbook.createSheet("OCM pendientes");
+        ExcelStyles styles = createExcelStyles(workbook.workbook());
+
+        Row titleRow = sheet.createRow(0);
+        Cell titleCell = titleRow.createCell(0);
+        titleCell.setCellValue("Materiales pendientes de ingreso por OCM");
+        titleCell.setCellStyle(styles.title());
+        sheet.addMergedRegion(new CellRangeAddress(
+                0, 0, 0, EXCEL_HEADERS.length - 1));
+
+        Row noticeRow = sheet.createRow(1);
+        Cell noticeCell = noticeRow.createCell(0);
+        noticeCell.setCellValue(
+                "Informe actualizado al momento de la descarga.");
+        noticeCell.setCellStyle(styles.notice());
+        sheet.addMergedRegion(new CellRangeAddress(
+                1, 1, 0, EXCEL_HEADERS.length - 1));
+
+        Row cutoffRow = sheet.createRow(2);
+        Cell cutoffLabelCell = cutoffRow.createCell(0);
+        cutoffLabelCell.setCellValue(
+                "Fecha y hora de corte (hora Colombia)");
+        cutoffLabelCell.setCellStyle(styles.metadataLabel());
+        sheet.addMergedRegion(new CellRangeAddress(2, 2, 0, 2));
+        Cell cutoffValueCell = cutoffRow.createCell(3);
+        cutoffValueCell.setCellValue(cutoff);
+        cutoffValueCell.setCellStyle(styles.dateTime());
+
+        Row headerRow = sheet.createRow(EXCEL_HEADER_ROW_INDEX);
+        headerRow.setHeightInPoints(32);
+        for (int index = 0; index < EXCEL_HEADERS.length; index++) {
+            Cell cell = headerRow.createCell(index);
+            cell.setCellValue(EXCEL_HEADERS[index]);
+            cell.setCellStyle(styles.header());
+        }
 
-            int rowIndex = EXCEL_HEADER_ROW_INDEX + 1;
-            for (InformeInventarioDTO.OcmDTO order : orders) {
-                for (InformeInventarioDTO.LineaOcmDTO line : order.lineas()) {
-                    Row row = sheet.createRow(rowIndex++);
-                    writeLineRow(row, order, line, styles);
-                }
+        int rowIndex = EXCEL_HEADER_ROW_INDEX + 1;
+        for (InformeInventarioDTO.OcmDTO order : orders) {
+            for (InformeInventarioDTO.LineaOcmDTO line : order.lineas()) {
+                Row row = sheet.createRow(rowIndex++);
+                writeLineRow(row, order, line, styles);
             }
-
-            int lastRow = Math.max(EXCEL_HEADER_ROW_INDEX, rowIndex - 1);
-            sheet.setAutoFilter(new CellRangeAddress(
-                    EXCEL_HEADER_ROW_INDEX,
-                    lastRow,
-                    0,
-                    EXCEL_HEADERS.length - 1));
-            sheet.createFreezePane(0, EXCEL_HEADER_ROW_INDEX + 1);
-            setExcelColumnWidths(sheet);
-
-            workbook.write(out);
-            return out.toByteArray();
-        } catch (IOException ex) {
-            log.error("Error generando Excel de OCM pendientes", ex);
-            throw new RuntimeException(
-                    "Error generando Excel de OCM pendientes", ex);
         }
+
+        int lastRow = Math.max(EXCEL_HEADER_ROW_INDEX, rowIndex - 1);
+        sheet.setAutoFilter(new CellRangeAddress(
+                EXCEL_HEADER_ROW_INDEX,
+                lastRow,
+                0,
+                EXCEL_HEADERS.length - 1));
+        sheet.createFreezePane(0, EXCEL_HEADER_ROW_INDEX + 1);
+        setExcelColumnWidths(sheet);
     }
 
     private void writeLineRow(
@@ -171,7 +161,7 @@ public class OcmPendientesExcelService {
         cell.setCellStyle(style);
     }
 
-    private ExcelStyles createExcelStyles(XSSFWorkbook workbook) {
+    private ExcelStyles createExcelStyles(Workbook workbook) {
         Font titleFont = workbook.createFont();
         titleFont.setBold(true);
         titleFont.setFontHeightInPoints((short) 14);
@@ -233,7 +223,7 @@ public class OcmPendientesExcelService {
     }
 
     public record ExcelExport(
-            byte[] content,
+            StreamingExcelWorkbook.Output content,
             LocalDateTime cutoff
     ) {
     }
@@ -0,0 +1,71 @@
+package exotic.app.planta.service.commons;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Valor calculado una vez y compartido por todos los lectores hasta que se invalida.
+ *
+ * <p>Es la pieza comun de los caches que se vacian con un evento de cambio confirmado
+ * ({@code @TransactionalEventListener(AFTER_COMMIT)}): el listener llama a {@link #invalidar()}
+ * y el siguiente lector recalcula una sola vez mientras los demas esperan ese mismo resultado.
+ * La generacion se toma antes de cargar, asi que un cambio confirmado durante la carga deja
+ * obsoleto el valor recien calculado en lugar de perderse. Con TTL el valor tambien vence solo,
+ * para recoger cambios que no pasan por el EntityManager (SQL directo, otra instancia).
+ */
+public final class CacheInvalidable<T> {
+
+    private final Supplier<T> cargar;
+    private final Duration ttl;
+    private final Clock clock;
+
+    private final AtomicLong generacion = new AtomicLong();
+    private final Object carga = new Object();
+    private volatile Entrada<T> entrada;
+
+    /** Sin TTL: el valor solo se recalcula al invalidarlo. */
+    public CacheInvalidable(Supplier<T> cargar) {
+        this(cargar, null, null);
+    }
+
+    public CacheInvalidable(Supplier<T> cargar, Duration ttl, Clock clock) {
+        if (ttl != null && clock == null) {
+            throw new IllegalArgumentException("Un cache con TTL necesita reloj.");
+        }
+        this.cargar = cargar;
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    public T obtener() {
+        Entrada<T> actual = entrada;
+        if (vigente(actual)) {
+            return actual.valor();
+        }
+        synchronized (carga) {
+            actual = entrada;
+            if (vigente(actual)) {
+                return actual.valor();
+            }
+            long generacionLeida = generacion.get();
+            T valor = cargar.get();
+            entrada = new Entrada<>(valor, generacionLeida, clock != null ? clock.instant() : null);
+            return valor;
+        }
+    }
+
+    public void invalidar() {
+        generacion.incrementAndGet();
+    }
+
+    private boolean vigente(Entrada<T> e) {
+        return e != null
+                && e.generacion() == generacion.get()
+                && (ttl == null || clock.instant().isBefore(e.cargadaEn().plus(ttl)));
+    }
+
+    private record Entrada<T>(T valor, long generacion, Instant cargadaEn) {}
+}
@@ -0,0 +1,114 @@
+package exotic.app.planta.service.commons;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Pool ForkJoin acotado que comparten los calculos en memoria por lotes (intervalos bootstrap,
+ * pronostico de demanda, simulacion de costos), para que la aplicacion tenga un solo pool de
+ * calculo y no uno por servicio.
+ */
+@Component
+public class CalculoParalelo {
+    private static final int MAX_PARALLELISM = 4;
+
+    private final ForkJoinPool pool;
+
+    @Autowired
+    public CalculoParalelo() {
+        this(Math.min(MAX_PARALLELISM, Runtime.getRuntime().availableProcessors()));
+    }
+
+    public CalculoParalelo(int parallelism) {
+        this.pool = new ForkJoinPool(Math.max(1, parallelism));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Aplica un calculo a cada entrada y devuelve los resultados en el orden de
+     * {@code entradas}. Las entradas se parten por mitades hasta {@code porTarea}; cada hoja
+     * pide su propio calculo a {@code calculoPorHoja}, de modo que puede reutilizar buffers
+     * entre las entradas de la hoja. Con {@code porTarea} entradas o menos se calcula en el
+     * hilo que llama.
+     */
+    public <T, R> List<R> mapear(
+            List<T> entradas,
+            int porTarea,
+            Supplier<? extends Function<? super T, ? extends R>> calculoPorHoja
+    ) {
+        int tamanoHoja = Math.max(1, porTarea);
+        Object[] resultados = new Object[entradas.size()];
+        BatchTask<T> tarea = new BatchTask<>(entradas, resultados, 0, entradas.size(), tamanoHoja, calculoPorHoja);
+        if (entradas.size() <= tamanoHoja) {
+            tarea.compute();
+        } else {
+            pool.invoke(tarea);
+        }
+        @SuppressWarnings("unchecked")
+        List<R> lista = (List<R>) Arrays.asList(resultados);
+        return List.copyOf(lista);
+    }
+
+    /**
+     * Ejecuta la tarea dentro del pool, para que los streams paralelos que abra usen sus hilos
+     * y no el pool comun de la JVM.
+     */
+    public <R> R ejecutar(Callable<R> tarea) {
+        return pool.submit(tarea).join();
+    }
+
+    private static final class BatchTask<T> extends RecursiveAction {
+        private final List<T> entradas;
+        private final Object[] resultados;
+        private final int from;
+        private final int to;
+        private final int porTarea;
+        private final Supplier<? extends Function<? super T, ?>> calculoPorHoja;
+
+        private BatchTask(
+                List<T> entradas,
+                Object[] resultados,
+                int from,
+                int to,
+                int porTarea,
+                Supplier<? extends Function<? super T, ?>> calculoPorHoja
+        ) {
+            this.entradas = entradas;
+            this.resultados = resultados;
+            this.from = from;
+            this.to = to;
+            this.porTarea = porTarea;
+            this.calculoPorHoja = calculoPorHoja;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= porTarea) {
+                Function<? super T, ?> calculo = calculoPorHoja.get();
+                for (int index = from; index < to; index++) {
+                    resultados[index] = calculo.apply(entradas.get(index));
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            List<BatchTask<T>> halves = new ArrayList<>(2);
+            halves.add(new BatchTask<>(entradas, resultados, from, middle, porTarea, calculoPorHoja));
+            halves.add(new BatchTask<>(entradas, resultados, middle, to, porTarea, calculoPorHoja));
+            invokeAll(halves);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package exotic.app.planta.service.commons;
 
 import exotic.app.planta.model.commons.dto.CargaCostosDTOs;
 import exotic.app.planta.model.users.User;
+import exotic.app.planta.service.productos.ProductoCostoSimulacionService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -9,8 +10,13 @@ import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
 import java.io.InputStream;
 import java.security.MessageDigest;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -19,6 +25,7 @@ public class CargaMasivaCostosService {
     private final CargaCostosExcelParser parser;
     private final CargaCostosWorkflowService workflow;
     private final CargaCostosLifecycleService lifecycle;
+    private final ProductoCostoSimulacionService simulacionService;
 
     public CargaCostosDTOs.PreparacionResponse preparar(MultipartFile file, String motivo, User usuario) {
         String safeReason = validateReason(motivo);
@@ -31,6 +38,43 @@ public class CargaMasivaCostosService {
                 usuario);
     }
 
+    public ProductoCostoSimulacionService.SimulacionCostos simular(
+            List<ProductoCostoSimulacionService.EscenarioCosto> escenarios
+    ) {
+        return simulacionService.simular(escenarios);
+    }
+
+    /**
+     * Prepara la carga del escenario elegido como si viniera de un archivo: el plan se vuelve a
+     * calcular y se aplica con token por el mismo flujo de {@link #preparar}.
+     */
+    public CargaCostosDTOs.PreparacionResponse prepararEscenario(
+            ProductoCostoSimulacionService.EscenarioCosto escenario,
+            String motivo,
+            User usuario
+    ) {
+        String safeReason = validateReason(motivo);
+        Map<String, BigDecimal> costos = simulacionService.resolverCostosRaiz(escenario);
+        List<CargaCostosExcelParser.ParsedRow> filas = new ArrayList<>();
+        StringBuilder contenido = new StringBuilder();
+        costos.forEach((productoId, costo) -> {
+            filas.add(new CargaCostosExcelParser.ParsedRow(filas.size() + 1, productoId, null, costo));
+            contenido.append(productoId).append('=').append(costo.toPlainString()).append('\n');
+        });
+        String nombre = escenario.nombre().trim();
+        CargaCostosExcelParser.ParsedWorkbook parsed = new CargaCostosExcelParser.ParsedWorkbook(
+                filas,
+                List.of("Preparacion generada desde el escenario simulado " + nombre),
+                filas.size(),
+                0);
+        return workflow.crearPreparacion(
+                parsed,
+                safeFilename("escenario " + nombre),
+                sha256(contenido.toString().getBytes(StandardCharsets.UTF_8)),
+                safeReason,
+                usuario);
+    }
+
     public CargaCostosDTOs.ItemsPageResponse listarItems(
             UUID loteId,
             User usuario,
@@ -83,6 +127,14 @@ public class CargaMasivaCostosService {
         return safe.substring(0, Math.min(safe.length(), 255));
     }
 
+    private String sha256(byte[] contenido) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(contenido));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("No fue posible calcular la huella del escenario", ex);
+        }
+    }
+
     private String sha256(MultipartFile file) {
         try (InputStream input = file.getInputStream()) {
             MessageDigest digest = MessageDigest.getInstance("SHA-256");
@@ -0,0 +1,180 @@
+package exotic.app.planta.service.commons.notificaciones;
+
+import exotic.app.planta.model.commons.notificaciones.ModuleNotificationDTA;
+import exotic.app.planta.model.commons.notificaciones.NotificacionCambioEvent;
+import exotic.app.planta.model.compras.OrdenCompraMateriales;
+import exotic.app.planta.model.inventarios.Movimiento;
+import exotic.app.planta.model.inventarios.TransaccionAlmacen;
+import exotic.app.planta.model.producto.Material;
+import exotic.app.planta.model.users.ModuloAcceso;
+import exotic.app.planta.model.users.ModuloSistema;
+import exotic.app.planta.model.users.User;
+import exotic.app.planta.security.AuthenticatedUserResolver;
+import exotic.app.planta.service.commons.sse.SseCanal;
+import exotic.app.planta.service.commons.sse.SseDifusor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Estado en memoria de las notificaciones de modulo y difusion por Server-Sent Events.
+ *
+ * <p>Las notificaciones con consultas (COMPRAS, STOCK, PAGOS_PROVEEDORES) se calculan una vez
+ * para todos los usuarios y se recalculan solo cuando un commit publica
+ * {@link NotificacionCambioEvent} de una entidad de la que dependen
+ * ({@link #modulosAfectados(Class)}). Los eventos se acumulan y se procesan en
+ * {@link #publicarCambios()}, de modo que una transaccion con cientos de movimientos produce un
+ * solo recalculo; si la notificacion cambia, se envia a los suscriptores con acceso al modulo.
+ * Cada {@link #REFRESCO_COMPLETO} se recalculan todas por si hubo cambios fuera del
+ * EntityManager. Los envios van por el {@link SseDifusor}, fuera del hilo del scheduler.
+ *
+ * <p>Los modulos sin consultas se calculan al vuelo en {@link #snapshot(String)}.
+ */
+@Service
+@Slf4j
+public class NotificacionesHub {
+
+    static final Set<ModuloSistema> MODULOS_CON_ESTADO =
+            EnumSet.of(ModuloSistema.COMPRAS, ModuloSistema.STOCK, ModuloSistema.PAGOS_PROVEEDORES);
+    private static final Set<ModuloSistema> MODULOS_OCM = EnumSet.of(ModuloSistema.COMPRAS, ModuloSistema.STOCK);
+    private static final Set<ModuloSistema> MODULOS_TRANSACCION = EnumSet.of(ModuloSistema.PAGOS_PROVEEDORES);
+    private static final Set<ModuloSistema> MODULOS_STOCK = EnumSet.of(ModuloSistema.STOCK);
+    static final Duration REFRESCO_COMPLETO = Duration.ofMinutes(5);
+    static final String EVENTO_SNAPSHOT = "snapshot";
+    static final String EVENTO_MODULO = "modulo";
+
+    private final NotificacionesModulosService notificacionesModulosService;
+    private final AuthenticatedUserResolver authenticatedUserResolver;
+    private final Clock applicationClock;
+    private final SseCanal<Set<ModuloSistema>> suscripciones;
+
+    private final Map<ModuloSistema, ModuleNotificationDTA> estados = new ConcurrentHashMap<>();
+    private final Set<ModuloSistema> pendientes = ConcurrentHashMap.newKeySet();
+    private volatile Instant ultimoRefrescoCompleto;
+
+    public NotificacionesHub(
+            NotificacionesModulosService notificacionesModulosService,
+            AuthenticatedUserResolver authenticatedUserResolver,
+            Clock applicationClock,
+            SseDifusor sseDifusor
+    ) {
+        this.notificacionesModulosService = notificacionesModulosService;
+        this.authenticatedUserResolver = authenticatedUserResolver;
+        this.applicationClock = applicationClock;
+        this.suscripciones = sseDifusor.canal("NOTIFICACIONES");
+    }
+
+    /**
+     * Notificaciones actuales de los modulos a los que tiene acceso el usuario. Es la misma
+     * respuesta que envia el stream al conectar, para que el cliente la use al reconectar.
+     */
+    public List<ModuleNotificationDTA> snapshot(String username) {
+        return authenticatedUserResolver.resolve(username)
+                .map(this::snapshot)
+                .orElseGet(List::of);
+    }
+
+    /**
+     * Abre el stream de notificaciones del usuario. El primer evento es el snapshot completo;
+     * despues llega un evento {@value #EVENTO_MODULO} con la notificacion de cada modulo que
+     * cambie. El cliente debe reconectar al expirar el stream.
+     */
+    public SseEmitter suscribir(String username) {
+        User user = authenticatedUserResolver.resolve(username)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Usuario no encontrado: " + username));
+        Set<ModuloSistema> modulos = EnumSet.noneOf(ModuloSistema.class);
+        for (ModuloAcceso acceso : user.getModuloAccesos()) {
+            modulos.add(acceso.getModulo());
+        }
+        return suscripciones.suscribir(modulos, EVENTO_SNAPSHOT, snapshot(user));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCambio(NotificacionCambioEvent event) {
+        pendientes.addAll(modulosAfectados(event.origen()));
+    }
+
+    /** Modulos con estado cuya notificacion puede cambiar cuando se escribe {@code origen}. */
+    static Set<ModuloSistema> modulosAfectados(Class<?> origen) {
+        if (OrdenCompraMateriales.class.isAssignableFrom(origen)) {
+            return MODULOS_OCM;
+        }
+        if (TransaccionAlmacen.class.isAssignableFrom(origen)) {
+            return MODULOS_TRANSACCION;
+        }
+        if (Movimiento.class.isAssignableFrom(origen) || Material.class.isAssignableFrom(origen)) {
+            return MODULOS_STOCK;
+        }
+        return Set.of();
+    }
+
+    /**
+     * Recalcula los modulos marcados por eventos y envia a los suscriptores los que cambiaron.
+     */
+    @Scheduled(fixedDelayString = "${app.notificaciones.publicacion-ms:2000}")
+    public void publicarCambios() {
+        Instant ahora = applicationClock.instant();
+        if (ultimoRefrescoCompleto == null || !ahora.isBefore(ultimoRefrescoCompleto.plus(REFRESCO_COMPLETO))) {
+            ultimoRefrescoCompleto = ahora;
+            pendientes.addAll(estados.keySet());
+        }
+        for (ModuloSistema modulo : List.copyOf(pendientes)) {
+            pendientes.remove(modulo);
+            ModuleNotificationDTA nueva;
+            try {
+                nueva = notificacionesModulosService.checkNotificacion(null, modulo);
+            } catch (RuntimeException e) {
+                log.warn("[NOTIFICACIONES] no se pudo recalcular {}: {}", modulo, e.getMessage());
+                pendientes.add(modulo);
+                continue;
+            }
+            ModuleNotificationDTA anterior = estados.put(modulo, nueva);
+            if (!Objects.equals(anterior, nueva)) {
+                difundir(modulo, nueva);
+            }
+        }
+    }
+
+    int suscriptores() {
+        return suscripciones.suscriptores();
+    }
+
+    private List<ModuleNotificationDTA> snapshot(User user) {
+        List<ModuleNotificationDTA> notifications = new ArrayList<>();
+        for (ModuloAcceso acceso : user.getModuloAccesos()) {
+            ModuleNotificationDTA notification = estado(user, acceso.getModulo());
+            if (notification != null) {
+                notifications.add(notification);
+            }
+        }
+        return notifications;
+    }
+
+    private ModuleNotificationDTA estado(User user, ModuloSistema modulo) {
+        if (!MODULOS_CON_ESTADO.contains(modulo)) {
+            return notificacionesModulosService.checkNotificacion(user, modulo);
+        }
+        return estados.computeIfAbsent(modulo, m -> notificacionesModulosService.checkNotificacion(null, m));
+    }
+
+    private void difundir(ModuloSistema modulo, ModuleNotificationDTA notification) {
+        int encolados = suscripciones.difundir(EVENTO_MODULO, modulos -> modulos.contains(modulo), modulos -> notification);
+        log.debug("[NOTIFICACIONES] {} actualizado, encolado para {} suscriptor(es)", modulo, encolados);
+    }
+}
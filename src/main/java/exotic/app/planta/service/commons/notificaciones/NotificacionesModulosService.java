@@ -4,127 +4,103 @@ import exotic.app.planta.model.commons.notificaciones.ModuleNotificationDTA;
 import exotic.app.planta.model.commons.notificaciones.OrdenCompraAlertaCampanaDTO;
 import exotic.app.planta.model.commons.notificaciones.PuntoReordenEvaluacionResult;
 import exotic.app.planta.model.inventarios.TransaccionAlmacen;
-import exotic.app.planta.model.users.ModuloAcceso;
 import exotic.app.planta.model.users.ModuloSistema;
 import exotic.app.planta.model.users.User;
 import exotic.app.planta.repo.compras.OrdenCompraRepo;
 import exotic.app.planta.repo.inventarios.TransaccionAlmacenHeaderRepo;
-import exotic.app.planta.repo.usuarios.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
 import java.util.Collections;
-import java.util.List;
-import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class NotificacionesModulosService {
 
     private final OrdenCompraRepo ordenCompraRepo;
-    private final UserRepository userRepository;
     private final TransaccionAlmacenHeaderRepo transaccionAlmacenHeaderRepo;
-    private final PuntoReordenEvaluacionService puntoReordenEvaluacionService;
+    private final PuntoReordenEvaluacionCache puntoReordenEvaluacionCache;
 
     /**
-     * Verifica las notificaciones para todos los m?dulos a los que tiene acceso un usuario
-     * @param username Nombre de usuario para el que se verifican las notificaciones
-     * @return Lista de objetos con informaci?n de notificaciones por m?dulo
+     * Calcula la notificacion de un modulo. Ninguna depende hoy del usuario, por eso
+     * {@link NotificacionesHub} puede compartir el resultado entre todos los suscriptores.
+     * @return notificacion del modulo, o {@code null} si el modulo no genera notificaciones
      */
-    public List<ModuleNotificationDTA> checkAllNotifications4User(String username) {
-        List<ModuleNotificationDTA> notifications = new ArrayList<>();
-
-        // Buscar el usuario por su nombre de usuario
-        Optional<User> userOpt = userRepository.findByUsername(username);
-
-        if (userOpt.isPresent()) {
-            User user = userOpt.get();
-
-            for (ModuloAcceso moduloAcceso : user.getModuloAccesos()) {
-                ModuloSistema modulo = moduloAcceso.getModulo();
-
-                ModuleNotificationDTA notification = null;
-
-                switch (modulo) {
-                    case USUARIOS:
-                        notification = checkNotificacionesUsuarios(user);
-                        break;
-                    case PRODUCTOS:
-                        notification = checkNotificacionesProductos(user);
-                        break;
-                    case PRODUCCION:
-                        notification = checkNotificacionesProduccion(user);
-                        break;
-                    case STOCK:
-                        notification = checkNotificacionesStock(user);
-                        break;
-                    case PROVEEDORES:
-                        notification = checkNotificacionesProveedores(user);
-                        break;
-                    case COMPRAS:
-                        notification = checkNotificacionesCompras(user);
-                        break;
-                    case SEGUIMIENTO_PRODUCCION:
-                        notification = checkNotificacionesSeguimientoProduccion(user);
-                        break;
-                    case CLIENTES:
-                        notification = checkNotificacionesClientes(user);
-                        break;
-                    case VENTAS:
-                        notification = checkNotificacionesVentas(user);
-                        break;
-                    case TRANSACCIONES_ALMACEN:
-                        notification = checkNotificacionesTransaccionesAlmacen(user);
-                        break;
-                    case ACTIVOS:
-                        notification = checkNotificacionesActivos(user);
-                        break;
-                    case CONTABILIDAD:
-                        notification = checkNotificacionesContabilidad(user);
-                        break;
-                    case PERSONAL_PLANTA:
-                        notification = checkNotificacionesPersonalPlanta(user);
-                        break;
-                    case BINTELLIGENCE:
-                        notification = checkNotificacionesBIntelligence(user);
-                        break;
-                    case CARGA_MASIVA:
-                        notification = checkNotificacionesCargaMasiva(user);
-                        break;
-                    case ADMINISTRACION_ALERTAS:
-                        notification = checkNotificacionesAdministracionAlertas(user);
-                        break;
-                    case MASTER_DIRECTIVES:
-                        notification = checkNotificacionesMasterDirectives(user);
-                        break;
-                    case CRONOGRAMA:
-                        notification = checkNotificacionesCronograma(user);
-                        break;
-                    case ORGANIGRAMA:
-                        notification = checkNotificacionesOrganigrama(user);
-                        break;
-                    case CALIDAD:
-                        notification = checkNotificacionesCalidad(user);
-                        break;
-                    case PAGOS_PROVEEDORES:
-                        notification = checkNotificacionesPagosProveedores(user);
-                        break;
-                    case VENDEDORES:
-                    default:
-                        break;
-                }
-
-                if (notification != null) {
-                    notifications.add(notification);
-                }
-            }
+    public ModuleNotificationDTA checkNotificacion(User user, ModuloSistema modulo) {
+        ModuleNotificationDTA notification = null;
+
+        switch (modulo) {
+            case USUARIOS:
+                notification = checkNotificacionesUsuarios(user);
+                break;
+            case PRODUCTOS:
+                notification = checkNotificacionesProductos(user);
+                break;
+            case PRODUCCION:
+                notification = checkNotificacionesProduccion(user);
+                break;
+            case STOCK:
+                notification = checkNotificacionesStock(user);
+                break;
+            case PROVEEDORES:
+                notification = checkNotificacionesProveedores(user);
+                break;
+            case COMPRAS:
+                notification = checkNotificacionesCompras(user);
+                break;
+            case SEGUIMIENTO_PRODUCCION:
+                notification = checkNotificacionesSeguimientoProduccion(user);
+                break;
+            case CLIENTES:
+                notification = checkNotificacionesClientes(user);
+                break;
+            case VENTAS:
+                notification = checkNotificacionesVentas(user);
+                break;
+            case TRANSACCIONES_ALMACEN:
+                notification = checkNotificacionesTransaccionesAlmacen(user);
+                break;
+            case ACTIVOS:
+                notification = checkNotificacionesActivos(user);
+                break;
+            case CONTABILIDAD:
+                notification = checkNotificacionesContabilidad(user);
+                break;
+            case PERSONAL_PLANTA:
+                notification = checkNotificacionesPersonalPlanta(user);
+                break;
+            case BINTELLIGENCE:
+                notification = checkNotificacionesBIntelligence(user);
+                break;
+            case CARGA_MASIVA:
+                notification = checkNotificacionesCargaMasiva(user);
+                break;
+            case ADMINISTRACION_ALERTAS:
+                notification = checkNotificacionesAdministracionAlertas(user);
+                break;
+            case MASTER_DIRECTIVES:
+                notification = checkNotificacionesMasterDirectives(user);
+                break;
+            case CRONOGRAMA:
+                notification = checkNotificacionesCronograma(user);
+                break;
+            case ORGANIGRAMA:
+                notification = checkNotificacionesOrganigrama(user);
+                break;
+            case CALIDAD:
+                notification = checkNotificacionesCalidad(user);
+                break;
+            case PAGOS_PROVEEDORES:
+                notification = checkNotificacionesPagosProveedores(user);
+                break;
+            case VENDEDORES:
+            default:
+                break;
         }
 
-        return notifications;
+        return notification;
     }
 
-
     /**
      * Verifica si hay notificaciones para el m?dulo USUARIOS
      * @param user Usuario para el que se verifican las notificaciones
@@ -173,7 +149,7 @@ public class NotificacionesModulosService {
         ModuleNotificationDTA notification = new ModuleNotificationDTA();
         notification.setModulo(ModuloSistema.STOCK);
 
-        PuntoReordenEvaluacionResult result = puntoReordenEvaluacionService.evaluar();
+        PuntoReordenEvaluacionResult result = puntoReordenEvaluacionCache.obtener();
         long count = result.totalEnAlerta();
         notification.setMaterialesEnPuntoReorden(count);
 
@@ -34,7 +34,7 @@ public class PuntoReordenAlertScheduler {
     private static final ZoneId BOGOTA = ZoneId.of("America/Bogota");
     private static final DateTimeFormatter FECHA_OCM_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
 
-    private final PuntoReordenEvaluacionService puntoReordenEvaluacionService;
+    private final PuntoReordenEvaluacionCache puntoReordenEvaluacionCache;
     private final MaestraNotificacionRepo maestraNotificacionRepo;
     private final EmailService emailService;
 
@@ -57,7 +57,7 @@ public class PuntoReordenAlertScheduler {
             return;
         }
 
-        PuntoReordenEvaluacionResult eval = puntoReordenEvaluacionService.evaluar();
+        PuntoReordenEvaluacionResult eval = puntoReordenEvaluacionCache.obtener();
         if (eval.totalEnAlerta() == 0) {
             log.info("PuntoReordenAlert: no hay materiales en alerta para correo.");
             return;
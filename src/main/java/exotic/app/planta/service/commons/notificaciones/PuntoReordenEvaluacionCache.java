@@ -0,0 +1,65 @@
+package exotic.app.planta.service.commons.notificaciones;
+
+import exotic.app.planta.model.commons.notificaciones.NotificacionCambioEvent;
+import exotic.app.planta.model.commons.notificaciones.PuntoReordenEvaluacionResult;
+import exotic.app.planta.model.compras.OrdenCompraMateriales;
+import exotic.app.planta.model.inventarios.Movimiento;
+import exotic.app.planta.model.producto.Material;
+import exotic.app.planta.service.commons.CacheInvalidable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Resultado compartido de {@link PuntoReordenEvaluacionService#evaluar()} para la campana,
+ * el modal de stock y el correo programado.
+ *
+ * <p>Cada commit que toca movimientos, materiales u OCM ({@link NotificacionCambioEvent})
+ * invalida la evaluacion guardada y el siguiente lector la recalcula ({@link CacheInvalidable}).
+ * El TTL cubre cambios que no pasan por el EntityManager (SQL directo, otra instancia de la
+ * aplicacion).
+ */
+@Service
+@Slf4j
+public class PuntoReordenEvaluacionCache {
+
+    static final Duration TTL = Duration.ofMinutes(2);
+
+    private final CacheInvalidable<PuntoReordenEvaluacionResult> evaluacion;
+
+    public PuntoReordenEvaluacionCache(
+            PuntoReordenEvaluacionService puntoReordenEvaluacionService,
+            Clock applicationClock
+    ) {
+        this.evaluacion = new CacheInvalidable<>(() -> {
+            PuntoReordenEvaluacionResult resultado = puntoReordenEvaluacionService.evaluar();
+            log.debug("[PUNTO_REORDEN] evaluacion recalculada, enAlerta={}", resultado.totalEnAlerta());
+            return resultado;
+        }, TTL, applicationClock);
+    }
+
+    public PuntoReordenEvaluacionResult obtener() {
+        return evaluacion.obtener();
+    }
+
+    public void invalidar() {
+        evaluacion.invalidar();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCambio(NotificacionCambioEvent event) {
+        if (afectaEvaluacion(event.origen())) {
+            invalidar();
+        }
+    }
+
+    static boolean afectaEvaluacion(Class<?> origen) {
+        return Movimiento.class.isAssignableFrom(origen)
+                || Material.class.isAssignableFrom(origen)
+                || OrdenCompraMateriales.class.isAssignableFrom(origen);
+    }
+}
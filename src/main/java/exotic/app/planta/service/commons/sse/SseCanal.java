@@ -0,0 +1,162 @@
+package exotic.app.planta.service.commons.sse;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Suscripciones de un stream SSE con los datos que el servicio necesita para decidir que enviar
+ * a cada una ({@code S}).
+ *
+ * <p>{@link #difundir} calcula los datos en el hilo que llama y solo encola los envios. Cada
+ * suscripcion envia en orden y de a un evento, asi que un cliente lento ocupa a lo sumo un hilo
+ * del executor; si acumula {@link #PENDIENTES_POR_SUSCRIPCION} eventos sin enviar se da por
+ * caido y se cierra.
+ */
+@Slf4j
+public final class SseCanal<S> {
+
+    static final int PENDIENTES_POR_SUSCRIPCION = 32;
+
+    private final String nombre;
+    private final Executor executor;
+    private final List<Suscripcion<S>> suscripciones = new CopyOnWriteArrayList<>();
+
+    SseCanal(String nombre, Executor executor) {
+        this.nombre = nombre;
+        this.executor = executor;
+    }
+
+    /**
+     * Abre un stream con los datos de la suscripcion y le encola el evento inicial. El cliente
+     * debe reconectar al expirar el stream.
+     */
+    public SseEmitter suscribir(S datos, String evento, Object inicial) {
+        SseEmitter emitter = new SseEmitter(SseDifusor.TIMEOUT_MS);
+        Suscripcion<S> suscripcion = new Suscripcion<>(datos, emitter);
+        emitter.onCompletion(() -> quitar(suscripcion));
+        emitter.onTimeout(() -> quitar(suscripcion));
+        emitter.onError(e -> quitar(suscripcion));
+        suscripciones.add(suscripcion);
+        encolar(suscripcion, evento, inicial);
+        return emitter;
+    }
+
+    /**
+     * Encola el evento para las suscripciones que cumplen el filtro. {@code datos} se evalua en
+     * el hilo que llama; si devuelve {@code null} la suscripcion se omite.
+     *
+     * @return cuantas suscripciones recibiran el evento
+     */
+    public int difundir(String evento, Predicate<? super S> filtro, Function<? super S, ?> datos) {
+        int encolados = 0;
+        for (Suscripcion<S> suscripcion : suscripciones) {
+            if (!filtro.test(suscripcion.datos)) {
+                continue;
+            }
+            Object data = datos.apply(suscripcion.datos);
+            if (data != null && encolar(suscripcion, evento, data)) {
+                encolados++;
+            }
+        }
+        return encolados;
+    }
+
+    public int difundir(String evento, Object data) {
+        return difundir(evento, datos -> true, datos -> data);
+    }
+
+    public int suscriptores() {
+        return suscripciones.size();
+    }
+
+    private boolean encolar(Suscripcion<S> suscripcion, String evento, Object data) {
+        if (suscripcion.cerrada) {
+            return false;
+        }
+        if (suscripcion.enCola.get() >= PENDIENTES_POR_SUSCRIPCION) {
+            cerrar(suscripcion, "cliente sin leer " + PENDIENTES_POR_SUSCRIPCION + " eventos");
+            return false;
+        }
+        suscripcion.pendientes.add(SseEmitter.event().name(evento).data(data));
+        suscripcion.enCola.incrementAndGet();
+        if (suscripcion.enviando.compareAndSet(false, true)) {
+            try {
+                executor.execute(() -> drenar(suscripcion));
+            } catch (RejectedExecutionException e) {
+                suscripcion.enviando.set(false);
+                cerrar(suscripcion, "executor de envios saturado");
+                completar(suscripcion);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void drenar(Suscripcion<S> suscripcion) {
+        do {
+            SseEventBuilder evento;
+            while (!suscripcion.cerrada && (evento = suscripcion.pendientes.poll()) != null) {
+                suscripcion.enCola.decrementAndGet();
+                try {
+                    suscripcion.emitter.send(evento);
+                } catch (IOException | IllegalStateException e) {
+                    cerrar(suscripcion, e.getMessage());
+                }
+            }
+            if (suscripcion.cerrada) {
+                suscripcion.pendientes.clear();
+                completar(suscripcion);
+                return;
+            }
+            suscripcion.enviando.set(false);
+            // Un evento encolado justo despues del ultimo poll lo toma este mismo hilo.
+        } while (!suscripcion.pendientes.isEmpty() && suscripcion.enviando.compareAndSet(false, true));
+    }
+
+    private void cerrar(Suscripcion<S> suscripcion, String motivo) {
+        suscripcion.cerrada = true;
+        if (suscripciones.remove(suscripcion)) {
+            log.debug("[SSE] suscripcion de {} cerrada: {}", nombre, motivo);
+        }
+    }
+
+    private void quitar(Suscripcion<S> suscripcion) {
+        suscripcion.cerrada = true;
+        suscripciones.remove(suscripcion);
+    }
+
+    private static void completar(Suscripcion<?> suscripcion) {
+        try {
+            suscripcion.emitter.complete();
+        } catch (RuntimeException e) {
+            // El contenedor ya cerro la respuesta.
+        }
+    }
+
+    private static final class Suscripcion<S> {
+        private final S datos;
+        private final SseEmitter emitter;
+        private final Queue<SseEventBuilder> pendientes = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger enCola = new AtomicInteger();
+        private final AtomicBoolean enviando = new AtomicBoolean();
+        private volatile boolean cerrada;
+
+        private Suscripcion(S datos, SseEmitter emitter) {
+            this.datos = datos;
+            this.emitter = emitter;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package exotic.app.planta.service.commons.sse;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor compartido por los streams Server-Sent Events de la aplicacion.
+ *
+ * <p>{@code SseEmitter.send} bloquea mientras el cliente no lee, asi que los envios no se hacen
+ * en el hilo que calcula los datos (los {@code @Scheduled} comparten un pool pequeno con los
+ * cierres y recargas) sino en este executor propio y acotado. Cada servicio abre su
+ * {@link SseCanal} con {@link #canal(String)}.
+ */
+@Component
+public class SseDifusor {
+
+    static final long TIMEOUT_MS = Duration.ofMinutes(30).toMillis();
+    private static final int COLA_ENVIOS = 1_000;
+
+    private final Executor executor;
+
+    @Autowired
+    public SseDifusor(@Value("${app.sse.hilos-envio:4}") int hilos) {
+        this(new ThreadPoolExecutor(
+                Math.max(1, hilos),
+                Math.max(1, hilos),
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(COLA_ENVIOS),
+                new SseThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy()));
+    }
+
+    public SseDifusor(Executor executor) {
+        this.executor = executor;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor instanceof ExecutorService service) {
+            service.shutdownNow();
+        }
+    }
+
+    public <S> SseCanal<S> canal(String nombre) {
+        return new SseCanal<>(nombre, executor);
+    }
+
+    private static final class SseThreadFactory implements ThreadFactory {
+        private final AtomicInteger secuencia = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "sse-envio-" + secuencia.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
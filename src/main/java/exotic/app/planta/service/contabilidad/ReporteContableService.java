@@ -1,15 +1,14 @@
 package exotic.app.planta.service.contabilidad;
 
-import exotic.app.planta.model.contabilidad.AsientoContable;
 import exotic.app.planta.model.contabilidad.CuentaContable;
-import exotic.app.planta.model.contabilidad.LineaAsientoContable;
 import exotic.app.planta.model.contabilidad.PeriodoContable;
-import exotic.app.planta.repo.contabilidad.AsientoContableRepo;
 import exotic.app.planta.repo.contabilidad.CuentaContableRepo;
+import exotic.app.planta.repo.contabilidad.LineaAsientoContableRepo;
 import exotic.app.planta.repo.contabilidad.PeriodoContableRepo;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -24,7 +23,7 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ReporteContableService {
 
-    private final AsientoContableRepo asientoContableRepo;
+    private final LineaAsientoContableRepo lineaAsientoContableRepo;
     private final CuentaContableRepo cuentaContableRepo;
     private final PeriodoContableRepo periodoContableRepo;
 
@@ -161,20 +160,80 @@ public class ReporteContableService {
     }
 
     /**
-     * Genera el libro mayor para una cuenta contable en un período específico.
+     * Posición en el libro mayor: la última línea entregada, en orden (fecha, asiento, línea).
+     */
+    public record CursorLibroMayor(LocalDateTime fecha, Long asientoId, Long lineaId) {
+    }
+
+    /**
+     * Página del libro mayor. {@code saldoInicial} es el saldo de la cuenta al inicio del
+     * período; {@code siguiente} es nulo en la última página.
+     */
+    public record PaginaLibroMayor(
+            String cuentaCodigo,
+            Long periodoId,
+            BigDecimal saldoInicial,
+            List<MovimientoLibroMayor> movimientos,
+            CursorLibroMayor siguiente
+    ) {
+    }
+
+    static final int TAMANO_PAGINA_MAXIMO = 1000;
+
+    /** Cursor anterior a cualquier asiento, para pedir la primera página. */
+    private static final CursorLibroMayor INICIO_LIBRO =
+            new CursorLibroMayor(LocalDateTime.of(1900, 1, 1, 0, 0), 0L, 0L);
+
+    /**
+     * Genera el libro mayor completo para una cuenta contable en un período específico,
+     * recorriendo las páginas de {@link #generarLibroMayor(String, Long, CursorLibroMayor, int)}.
      * 
      * @param cuentaCodigo Código de la cuenta contable
      * @param periodoId ID del período contable
      * @return Lista de movimientos del libro mayor
      * @throws RuntimeException si hay errores de validación
      */
+    @Transactional(readOnly = true)
     public List<MovimientoLibroMayor> generarLibroMayor(String cuentaCodigo, Long periodoId) {
-        log.info("Generando libro mayor para cuenta: {}, período: {}", cuentaCodigo, periodoId);
+        List<MovimientoLibroMayor> movimientos = new ArrayList<>();
+        CursorLibroMayor cursor = null;
+        do {
+            PaginaLibroMayor pagina = generarLibroMayor(cuentaCodigo, periodoId, cursor, TAMANO_PAGINA_MAXIMO);
+            movimientos.addAll(pagina.movimientos());
+            cursor = pagina.siguiente();
+        } while (cursor != null);
+        return movimientos;
+    }
+
+    /**
+     * Genera una página del libro mayor. El filtrado por cuenta y período, el orden y el
+     * saldo acumulado (función de ventana) se calculan en la base de datos; el saldo previo
+     * a la página se obtiene con una suma indexada, así que el costo depende del tamaño de
+     * la página y no del número de asientos del período.
+     *
+     * @param cuentaCodigo Código de la cuenta contable
+     * @param periodoId ID del período contable
+     * @param cursor Última línea de la página anterior, o nulo para la primera página
+     * @param tamano Cantidad de líneas por página (máximo {@value #TAMANO_PAGINA_MAXIMO})
+     * @return Página de movimientos con saldo acumulado desde el saldo inicial del período
+     * @throws RuntimeException si hay errores de validación
+     */
+    @Transactional(readOnly = true)
+    public PaginaLibroMayor generarLibroMayor(
+            String cuentaCodigo,
+            Long periodoId,
+            CursorLibroMayor cursor,
+            int tamano
+    ) {
+        log.info("Generando libro mayor para cuenta: {}, período: {}, cursor: {}", cuentaCodigo, periodoId, cursor);
 
         if (cuentaCodigo == null || periodoId == null) {
             log.error("Error al generar libro mayor: parámetros inválidos");
             throw new RuntimeException("Debe especificar el código de cuenta y el ID del período");
         }
+        if (cursor != null && (cursor.fecha() == null || cursor.asientoId() == null || cursor.lineaId() == null)) {
+            throw new RuntimeException("El cursor del libro mayor debe indicar fecha, asiento y línea");
+        }
 
         // Verificar que la cuenta existe
         CuentaContable cuenta = cuentaContableRepo.findById(cuentaCodigo)
@@ -190,54 +249,61 @@ public class ReporteContableService {
                     return new RuntimeException("El período no existe");
                 });
 
-        // Obtener todos los asientos del período que afectan a la cuenta
-        List<AsientoContable> asientos = periodo.getAsientos().stream()
-                .filter(a -> a.getEstado() == AsientoContable.EstadoAsiento.PUBLICADO)
-                .filter(a -> a.getLineas().stream()
-                        .anyMatch(l -> l.getCuentaCodigo().equals(cuentaCodigo)))
-                .sorted(Comparator.comparing(AsientoContable::getFecha))
-                .collect(Collectors.toList());
+        int limite = Math.max(1, Math.min(tamano, TAMANO_PAGINA_MAXIMO));
+
+        // Saldo de apertura: asientos publicados anteriores al inicio del período
+        BigDecimal netoApertura = lineaAsientoContableRepo.sumNetoDebitoAntesDe(
+                cuentaCodigo, periodo.getFechaInicio().atStartOfDay());
+        BigDecimal netoPrevio = netoApertura;
+        CursorLibroMayor desde = INICIO_LIBRO;
+        if (cursor != null) {
+            desde = cursor;
+            netoPrevio = netoPrevio.add(lineaAsientoContableRepo.sumNetoDebitoPeriodoHastaCursor(
+                    cuentaCodigo, periodoId, cursor.fecha(), cursor.asientoId(), cursor.lineaId()));
+        }
 
-        // Generar los movimientos del libro mayor
-        List<MovimientoLibroMayor> movimientos = new ArrayList<>();
-        BigDecimal saldoAcumulado = BigDecimal.ZERO;
-
-        for (AsientoContable asiento : asientos) {
-            for (LineaAsientoContable linea : asiento.getLineas()) {
-                if (linea.getCuentaCodigo().equals(cuentaCodigo)) {
-                    BigDecimal debito = linea.getDebito() != null ? linea.getDebito() : BigDecimal.ZERO;
-                    BigDecimal credito = linea.getCredito() != null ? linea.getCredito() : BigDecimal.ZERO;
-
-                    // Actualizar saldo acumulado según el tipo de cuenta
-                    if (cuenta.getSaldoNormal() == CuentaContable.SaldoNormal.DEBITO) {
-                        saldoAcumulado = saldoAcumulado.add(debito).subtract(credito);
-                    } else {
-                        saldoAcumulado = saldoAcumulado.add(credito).subtract(debito);
-                    }
-
-                    movimientos.add(new MovimientoLibroMayor(
-                            asiento.getFecha(),
-                            asiento.getId(),
-                            linea.getDescripcion(),
-                            debito,
-                            credito,
-                            saldoAcumulado
-                    ));
-                }
-            }
+        // Se pide una fila extra para saber si hay más páginas
+        List<LineaAsientoContableRepo.LineaLibroMayorRow> filas = lineaAsientoContableRepo.findLibroMayorPagina(
+                cuentaCodigo, periodoId, desde.fecha(), desde.asientoId(), desde.lineaId(), limite + 1);
+        boolean hayMas = filas.size() > limite;
+        List<LineaAsientoContableRepo.LineaLibroMayorRow> pagina = hayMas ? filas.subList(0, limite) : filas;
+
+        List<MovimientoLibroMayor> movimientos = new ArrayList<>(pagina.size());
+        for (LineaAsientoContableRepo.LineaLibroMayorRow fila : pagina) {
+            movimientos.add(new MovimientoLibroMayor(
+                    fila.getFecha(),
+                    fila.getAsientoId(),
+                    fila.getDescripcion(),
+                    fila.getDebito(),
+                    fila.getCredito(),
+                    saldoSegunNaturaleza(cuenta, netoPrevio.add(fila.getNetoDebitoAcumulado()))
+            ));
         }
 
-        return movimientos;
+        CursorLibroMayor siguiente = null;
+        if (hayMas) {
+            LineaAsientoContableRepo.LineaLibroMayorRow ultima = pagina.get(pagina.size() - 1);
+            siguiente = new CursorLibroMayor(ultima.getFecha(), ultima.getAsientoId(), ultima.getLineaId());
+        }
+
+        return new PaginaLibroMayor(
+                cuentaCodigo,
+                periodoId,
+                saldoSegunNaturaleza(cuenta, netoApertura),
+                movimientos,
+                siguiente
+        );
     }
 
     /**
-     * Genera el balance de comprobación para un período específico.
+     * Genera el balance de comprobación para un período específico con una sola consulta
+     * agrupada por cuenta. Solo incluye cuentas con movimientos en el período.
      * 
      * @param periodoId ID del período contable
      * @return Lista de saldos de cuentas para el balance de comprobación
      * @throws RuntimeException si hay errores de validación
      */
-    /*
+    @Transactional(readOnly = true)
     public List<SaldoCuenta> generarBalanceComprobacion(Long periodoId) {
         log.info("Generando balance de comprobación para período: {}", periodoId);
 
@@ -247,49 +313,38 @@ public class ReporteContableService {
         }
 
         // Verificar que el período existe
-        PeriodoContable periodo = periodoContableRepo.findById(periodoId)
-                .orElseThrow(() -> {
-                    log.error("Error al generar balance de comprobación: el período {} no existe", periodoId);
-                    return new RuntimeException("El período no existe");
-                });
-
-        // Obtener todas las cuentas
-        List<CuentaContable> cuentas = cuentaContableRepo.findAll();
-
-        // Obtener todos los asientos publicados del período
-        List<AsientoContable> asientos = periodo.getAsientos().stream()
-                .filter(a -> a.getEstado() == AsientoContable.EstadoAsiento.PUBLICADO)
-                .collect(Collectors.toList());
-
-        // Calcular saldos para cada cuenta
-        List<SaldoCuenta> saldos = new ArrayList<>();
-
-        for (CuentaContable cuenta : cuentas) {
-            BigDecimal totalDebitos = BigDecimal.ZERO;
-            BigDecimal totalCreditos = BigDecimal.ZERO;
-
-            for (AsientoContable asiento : asientos) {
-                for (LineaAsientoContable linea : asiento.getLineas()) {
-                    if (linea.getCuentaCodigo().equals(cuenta.getCodigo())) {
-                        if (linea.getDebito() != null) {
-                            totalDebitos = totalDebitos.add(linea.getDebito());
-                        }
-                        if (linea.getCredito() != null) {
-                            totalCreditos = totalCreditos.add(linea.getCredito());
-                        }
-                    }
-                }
-            }
+        if (!periodoContableRepo.existsById(periodoId)) {
+            log.error("Error al generar balance de comprobación: el período {} no existe", periodoId);
+            throw new RuntimeException("El período no existe");
+        }
 
-            // Solo incluir cuentas con movimientos
-            if (totalDebitos.compareTo(BigDecimal.ZERO) != 0 || totalCreditos.compareTo(BigDecimal.ZERO) != 0) {
-                saldos.add(new SaldoCuenta(cuenta, totalDebitos, totalCreditos));
+        List<LineaAsientoContableRepo.SaldoCuentaRow> totales = lineaAsientoContableRepo.sumSaldosPorCuentaEnPeriodo(periodoId)
+                .stream()
+                .filter(row -> row.getDebito().signum() != 0 || row.getCredito().signum() != 0)
+                .toList();
+        Map<String, CuentaContable> cuentas = cuentaContableRepo.findAllById(totales.stream()
+                        .map(LineaAsientoContableRepo.SaldoCuentaRow::getCuentaCodigo)
+                        .toList())
+                .stream()
+                .collect(Collectors.toMap(CuentaContable::getCodigo, cuenta -> cuenta));
+
+        List<SaldoCuenta> saldos = new ArrayList<>(totales.size());
+        for (LineaAsientoContableRepo.SaldoCuentaRow row : totales) {
+            CuentaContable cuenta = cuentas.get(row.getCuentaCodigo());
+            if (cuenta == null) {
+                log.warn("Balance de comprobación: la cuenta {} tiene movimientos pero no existe en el catálogo",
+                        row.getCuentaCodigo());
+                continue;
             }
+            saldos.add(new SaldoCuenta(cuenta, row.getDebito(), row.getCredito()));
         }
 
         return saldos;
     }
-    */
+
+    private static BigDecimal saldoSegunNaturaleza(CuentaContable cuenta, BigDecimal netoDebito) {
+        return cuenta.getSaldoNormal() == CuentaContable.SaldoNormal.DEBITO ? netoDebito : netoDebito.negate();
+    }
 
 
     /**
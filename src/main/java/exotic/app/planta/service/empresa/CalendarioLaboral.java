@@ -0,0 +1,287 @@
+package exotic.app.planta.service.empresa;
+
+import exotic.app.planta.model.empresa.JornadaLaboralBloque;
+import exotic.app.planta.model.empresa.JornadaLaboralVersion;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Calendario laboral compilado de una {@link JornadaLaboralVersion}.
+ *
+ * <p>Los bloques de la semana se guardan como intervalos en segundos desde el lunes a las
+ * 00:00, con los segundos laborables acumulados hasta el fin de cada uno. Un instante se
+ * traduce a su posicion en tiempo laborable (semanas completas mas una busqueda binaria dentro
+ * de la semana), asi que sumar minutos laborables o medirlos entre dos instantes no recorre
+ * los bloques dia por dia. Los festivos son excepciones: se descuentan con una busqueda en su
+ * lista ordenada y sus segundos acumulados.
+ *
+ * <p>Sin bloques el calendario es continuo y la aritmetica es la del reloj.
+ */
+public final class CalendarioLaboral {
+
+    public static final CalendarioLaboral CONTINUO = new CalendarioLaboral(null, List.of(), List.of());
+
+    private static final long SEGUNDOS_DIA = 24L * 60 * 60;
+    private static final long SEGUNDOS_SEMANA = 7 * SEGUNDOS_DIA;
+    /** Lunes desde el que se cuentan los dias; cualquier lunes sirve. */
+    private static final LocalDate LUNES_BASE = LocalDate.of(2000, 1, 3);
+
+    private final Long jornadaLaboralVersionId;
+    private final long[] inicios;
+    private final long[] fines;
+    private final long[] acumuladoAlFin;
+    private final long segundosSemana;
+    /** Dias de la semana (0 = lunes) con tiempo laborable, en orden. */
+    private final int[] diasLaborables;
+    /** Dias laborables de la semana anteriores a cada dia (0 = lunes). */
+    private final int[] diasLaborablesAntes = new int[7];
+    /** Festivos que caen en dia laborable, como dias desde {@link #LUNES_BASE}. */
+    private final long[] festivos;
+    private final long[] segundosFestivosAntes;
+
+    private CalendarioLaboral(Long jornadaLaboralVersionId, List<long[]> intervalos, Collection<LocalDate> excepciones) {
+        this.jornadaLaboralVersionId = jornadaLaboralVersionId;
+        int total = intervalos.size();
+        inicios = new long[total];
+        fines = new long[total];
+        acumuladoAlFin = new long[total];
+        long[] segundosPorDia = new long[7];
+        long acumulado = 0;
+        for (int i = 0; i < total; i++) {
+            inicios[i] = intervalos.get(i)[0];
+            fines[i] = intervalos.get(i)[1];
+            acumulado += fines[i] - inicios[i];
+            acumuladoAlFin[i] = acumulado;
+            segundosPorDia[(int) (inicios[i] / SEGUNDOS_DIA)] += fines[i] - inicios[i];
+        }
+        segundosSemana = acumulado;
+
+        List<Integer> laborables = new ArrayList<>();
+        for (int dia = 0; dia < 7; dia++) {
+            diasLaborablesAntes[dia] = laborables.size();
+            if (segundosPorDia[dia] > 0) {
+                laborables.add(dia);
+            }
+        }
+        diasLaborables = laborables.stream().mapToInt(Integer::intValue).toArray();
+
+        festivos = excepciones.stream()
+                .mapToLong(CalendarioLaboral::diaAbsoluto)
+                .filter(dia -> segundosPorDia[(int) Math.floorMod(dia, 7L)] > 0)
+                .distinct()
+                .sorted()
+                .toArray();
+        segundosFestivosAntes = new long[festivos.length + 1];
+        for (int i = 0; i < festivos.length; i++) {
+            segundosFestivosAntes[i + 1] = segundosFestivosAntes[i]
+                    + segundosPorDia[(int) Math.floorMod(festivos[i], 7L)];
+        }
+    }
+
+    /** Compila la jornada con los festivos del catalogo ({@link exotic.app.planta.model.empresa.DiaFestivo}). */
+    public static CalendarioLaboral compilar(JornadaLaboralVersion jornada, Collection<LocalDate> festivos) {
+        if (jornada == null || jornada.getBloques() == null) {
+            return CONTINUO;
+        }
+        return compilar(jornada.getId(), jornada.getBloques(), festivos);
+    }
+
+    /**
+     * Compila los bloques por dia de la semana (1 = lunes). Se ignoran los bloques vacios o
+     * invertidos y se unen los que se solapan.
+     */
+    public static CalendarioLaboral compilar(
+            Long jornadaLaboralVersionId,
+            Collection<JornadaLaboralBloque> bloques,
+            Collection<LocalDate> festivos
+    ) {
+        List<long[]> intervalos = new ArrayList<>();
+        for (JornadaLaboralBloque bloque : bloques) {
+            if (bloque.getDiaSemana() == null || bloque.getDiaSemana() < 1 || bloque.getDiaSemana() > 7
+                    || bloque.getHoraInicio() == null || bloque.getHoraFin() == null
+                    || !bloque.getHoraInicio().isBefore(bloque.getHoraFin())) {
+                continue;
+            }
+            long dia = (bloque.getDiaSemana() - 1) * SEGUNDOS_DIA;
+            intervalos.add(new long[]{
+                    dia + bloque.getHoraInicio().toSecondOfDay(),
+                    dia + bloque.getHoraFin().toSecondOfDay()});
+        }
+        intervalos.sort(Comparator.comparingLong(intervalo -> intervalo[0]));
+
+        List<long[]> unidos = new ArrayList<>();
+        for (long[] intervalo : intervalos) {
+            long[] ultimo = unidos.isEmpty() ? null : unidos.get(unidos.size() - 1);
+            if (ultimo != null && intervalo[0] <= ultimo[1]) {
+                ultimo[1] = Math.max(ultimo[1], intervalo[1]);
+            } else {
+                unidos.add(new long[]{intervalo[0], intervalo[1]});
+            }
+        }
+        return new CalendarioLaboral(jornadaLaboralVersionId, unidos, unidos.isEmpty() ? List.of() : festivos);
+    }
+
+    public Long getJornadaLaboralVersionId() {
+        return jornadaLaboralVersionId;
+    }
+
+    public boolean esContinuo() {
+        return inicios.length == 0;
+    }
+
+    /**
+     * Suma minutos a {@code inicio}; si el paso requiere jornada laboral solo consume tiempo
+     * dentro de los bloques y fuera de los festivos, y termina en el primer instante en que
+     * se completan.
+     */
+    public LocalDateTime sumarMinutos(LocalDateTime inicio, long minutos, boolean requiereJornadaLaboral) {
+        if (minutos <= 0) {
+            return inicio;
+        }
+        if (!requiereJornadaLaboral || esContinuo()) {
+            return inicio.plusMinutes(minutos);
+        }
+        long segundo = segundoAbsoluto(inicio);
+        return instante(ubicar(posicion(segundo) + minutos * 60, segundo));
+    }
+
+    /** Minutos laborables entre dos instantes; cero si {@code hasta} no es posterior. */
+    public long minutosLaborablesEntre(LocalDateTime desde, LocalDateTime hasta) {
+        if (desde == null || hasta == null || !hasta.isAfter(desde)) {
+            return 0;
+        }
+        if (esContinuo()) {
+            return Duration.between(desde, hasta).toMinutes();
+        }
+        return (posicion(segundoAbsoluto(hasta)) - posicion(segundoAbsoluto(desde))) / 60;
+    }
+
+    /** El mismo instante si es laborable; si no, el inicio del siguiente bloque laborable. */
+    public LocalDateTime siguienteInstanteLaborable(LocalDateTime valor) {
+        if (esContinuo()) {
+            return valor;
+        }
+        long segundo = segundoAbsoluto(valor);
+        long laborable = ubicar(posicion(segundo) + 1, segundo) - 1;
+        return laborable == segundo ? valor : instante(laborable);
+    }
+
+    /**
+     * Retrocede {@code dias} dias laborables (dias de la semana con bloques que no son
+     * festivos) desde {@code fecha}. Sin bloques retrocede dias calendario.
+     */
+    public LocalDate restarDiasLaborables(LocalDate fecha, int dias) {
+        if (dias <= 0) {
+            return fecha;
+        }
+        if (esContinuo()) {
+            return fecha.minusDays(dias);
+        }
+        long destino = posicionDia(diaAbsoluto(fecha)) - dias;
+        long festivosPrevios = 0;
+        while (true) {
+            long candidato = ubicarDiaSinFestivos(destino + festivosPrevios);
+            long nuevos = festivosHasta(candidato);
+            if (nuevos == festivosPrevios) {
+                return LUNES_BASE.plusDays(candidato);
+            }
+            festivosPrevios = nuevos;
+        }
+    }
+
+    /** Segundos laborables desde {@link #LUNES_BASE} hasta {@code segundo}, sin festivos. */
+    private long posicion(long segundo) {
+        long dia = Math.floorDiv(segundo, SEGUNDOS_DIA);
+        int indice = Arrays.binarySearch(festivos, dia);
+        if (indice >= 0) {
+            // Dentro de un festivo el tiempo no avanza desde el inicio del dia.
+            return posicionSinFestivos(dia * SEGUNDOS_DIA) - segundosFestivosAntes[indice];
+        }
+        return posicionSinFestivos(segundo) - segundosFestivosAntes[-indice - 1];
+    }
+
+    /**
+     * Primer segundo con la posicion pedida. Se ubica sin festivos y se corre por los festivos
+     * completos hasta el candidato mientras aparezcan nuevos; {@code desde} acota por debajo.
+     */
+    private long ubicar(long destino, long desde) {
+        long perdidos = segundosFestivosHasta(Math.floorDiv(desde, SEGUNDOS_DIA) - 1);
+        while (true) {
+            long candidato = ubicarSinFestivos(destino + perdidos);
+            long nuevos = segundosFestivosHasta(Math.floorDiv(candidato, SEGUNDOS_DIA));
+            if (nuevos == perdidos) {
+                return candidato;
+            }
+            perdidos = nuevos;
+        }
+    }
+
+    private long posicionSinFestivos(long segundo) {
+        long semana = Math.floorDiv(segundo, SEGUNDOS_SEMANA);
+        long resto = Math.floorMod(segundo, SEGUNDOS_SEMANA);
+        int indice = Arrays.binarySearch(inicios, resto);
+        int intervalo = indice >= 0 ? indice : -indice - 2;
+        long enSemana = intervalo < 0
+                ? 0
+                : acumuladoAlFin[intervalo] - (fines[intervalo] - Math.min(resto, fines[intervalo]));
+        return semana * segundosSemana + enSemana;
+    }
+
+    private long ubicarSinFestivos(long posicion) {
+        long semana = Math.floorDiv(posicion, segundosSemana);
+        long resto = Math.floorMod(posicion, segundosSemana);
+        if (resto == 0) {
+            // Se completa justo al cierre del ultimo bloque de la semana anterior.
+            return (semana - 1) * SEGUNDOS_SEMANA + fines[fines.length - 1];
+        }
+        int indice = Arrays.binarySearch(acumuladoAlFin, resto);
+        int intervalo = indice >= 0 ? indice : -indice - 1;
+        return semana * SEGUNDOS_SEMANA + fines[intervalo] - (acumuladoAlFin[intervalo] - resto);
+    }
+
+    /** Dias laborables antes de {@code dia}, sin festivos. */
+    private long posicionDia(long dia) {
+        long semana = Math.floorDiv(dia, 7L);
+        int diaSemana = (int) Math.floorMod(dia, 7L);
+        return semana * diasLaborables.length + diasLaborablesAntes[diaSemana] - festivosAntes(dia);
+    }
+
+    private long ubicarDiaSinFestivos(long posicion) {
+        long semana = Math.floorDiv(posicion, diasLaborables.length);
+        int resto = (int) Math.floorMod(posicion, (long) diasLaborables.length);
+        return semana * 7 + diasLaborables[resto];
+    }
+
+    private long festivosAntes(long dia) {
+        int indice = Arrays.binarySearch(festivos, dia);
+        return indice >= 0 ? indice : -indice - 1;
+    }
+
+    private long festivosHasta(long dia) {
+        return festivosAntes(dia + 1);
+    }
+
+    private long segundosFestivosHasta(long dia) {
+        return segundosFestivosAntes[(int) festivosHasta(dia)];
+    }
+
+    private static long diaAbsoluto(LocalDate fecha) {
+        return ChronoUnit.DAYS.between(LUNES_BASE, fecha);
+    }
+
+    private static long segundoAbsoluto(LocalDateTime valor) {
+        return diaAbsoluto(valor.toLocalDate()) * SEGUNDOS_DIA + valor.toLocalTime().toSecondOfDay();
+    }
+
+    private static LocalDateTime instante(long segundo) {
+        return LUNES_BASE.atStartOfDay().plusSeconds(segundo);
+    }
+}
@@ -0,0 +1,107 @@
+package exotic.app.planta.service.empresa;
+
+import exotic.app.planta.model.empresa.DiaFestivoCambioEvent;
+import exotic.app.planta.model.empresa.JornadaLaboralCambioEvent;
+import exotic.app.planta.model.empresa.JornadaLaboralVersion;
+import exotic.app.planta.repo.empresa.DiaFestivoRepo;
+import exotic.app.planta.repo.empresa.JornadaLaboralVersionRepo;
+import exotic.app.planta.service.commons.CacheInvalidable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Calendarios laborales compilados por version de jornada.
+ *
+ * <p>Los bloques de una version no cambian despues de creada, asi que cada version se compila
+ * una sola vez y el calendario se comparte entre hilos por su id. La version vigente se resuelve
+ * en la primera consulta y se invalida al confirmar un cambio de jornada
+ * ({@link JornadaLaboralCambioEvent}) o en la invalidacion periodica, que recoge los cambios
+ * hechos desde otra instancia. Sin jornada vigente el calendario es {@link CalendarioLaboral#CONTINUO}.
+ *
+ * <p>Todas las versiones se compilan con el catalogo de festivos ({@code dia_festivo}); un cambio
+ * en el catalogo ({@link DiaFestivoCambioEvent}) descarta los calendarios compilados.
+ */
+@Component
+@RequiredArgsConstructor
+public class CalendarioLaboralRegistry {
+
+    private final JornadaLaboralVersionRepo jornadaLaboralVersionRepo;
+    private final DiaFestivoRepo diaFestivoRepo;
+
+    private final Map<Long, CalendarioLaboral> porVersion = new ConcurrentHashMap<>();
+    private final CacheInvalidable<List<LocalDate>> festivos = new CacheInvalidable<>(this::cargarFestivos);
+    private final CacheInvalidable<CalendarioLaboral> vigente = new CacheInvalidable<>(this::cargarVigente);
+
+    public CalendarioLaboral vigente() {
+        return vigente.obtener();
+    }
+
+    /** Calendario de la jornada indicada; sin jornada se usa la vigente. */
+    public CalendarioLaboral de(JornadaLaboralVersion jornada) {
+        if (jornada == null) {
+            return vigente();
+        }
+        if (jornada.getId() == null) {
+            return CalendarioLaboral.compilar(jornada, festivos.obtener());
+        }
+        CalendarioLaboral calendario = porVersion.get(jornada.getId());
+        if (calendario == null) {
+            calendario = CalendarioLaboral.compilar(jornada, festivos.obtener());
+            porVersion.put(jornada.getId(), calendario);
+        }
+        return calendario;
+    }
+
+    /** Calendario de la version indicada; sin version, o si ya no existe, se usa la vigente. */
+    public CalendarioLaboral deVersion(Long jornadaLaboralVersionId) {
+        if (jornadaLaboralVersionId == null) {
+            return vigente();
+        }
+        CalendarioLaboral calendario = porVersion.get(jornadaLaboralVersionId);
+        if (calendario != null) {
+            return calendario;
+        }
+        return jornadaLaboralVersionRepo.findWithBloquesById(jornadaLaboralVersionId)
+                .map(this::de)
+                .orElseGet(this::vigente);
+    }
+
+    @Scheduled(fixedDelayString = "${app.calendario-laboral.recarga-ms:300000}")
+    public void recargar() {
+        festivos.invalidar();
+        porVersion.clear();
+        vigente.invalidar();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCambio(JornadaLaboralCambioEvent event) {
+        if (event.jornadaLaboralVersionId() != null) {
+            porVersion.remove(event.jornadaLaboralVersionId());
+        }
+        vigente.invalidar();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCambioFestivos(DiaFestivoCambioEvent event) {
+        recargar();
+    }
+
+    private List<LocalDate> cargarFestivos() {
+        return List.copyOf(diaFestivoRepo.findAllFechas());
+    }
+
+    private CalendarioLaboral cargarVigente() {
+        return jornadaLaboralVersionRepo
+                .findFirstByEstadoOrderByVersionDesc(JornadaLaboralVersion.Estado.VIGENTE)
+                .map(this::de)
+                .orElse(CalendarioLaboral.CONTINUO);
+    }
+}
@@ -0,0 +1,57 @@
+package exotic.app.planta.service.empresa;
+
+import exotic.app.planta.config.AppTime;
+import exotic.app.planta.model.empresa.DiaFestivo;
+import exotic.app.planta.model.empresa.dto.DiaFestivoRequest;
+import exotic.app.planta.model.empresa.dto.DiaFestivoResponse;
+import exotic.app.planta.repo.empresa.DiaFestivoRepo;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Catalogo de dias festivos que {@link CalendarioLaboralRegistry} descuenta de la jornada.
+ */
+@Service
+@RequiredArgsConstructor
+public class DiaFestivoService {
+
+    private final DiaFestivoRepo repo;
+
+    @Transactional(readOnly = true)
+    public List<DiaFestivoResponse> getFestivos() {
+        return repo.findAllByOrderByFechaAsc().stream()
+                .map(DiaFestivoResponse::fromEntity)
+                .toList();
+    }
+
+    @Transactional
+    public DiaFestivoResponse crear(DiaFestivoRequest request, String username) {
+        if (request == null || request.getFecha() == null) {
+            throw new IllegalArgumentException("Debe informar la fecha del festivo.");
+        }
+        if (repo.existsByFecha(request.getFecha())) {
+            throw new IllegalArgumentException("Ya existe un festivo para la fecha " + request.getFecha() + ".");
+        }
+
+        DiaFestivo festivo = new DiaFestivo();
+        festivo.setFecha(request.getFecha());
+        festivo.setDescripcion(trim(request.getDescripcion()));
+        festivo.setCreadoEn(AppTime.now());
+        festivo.setCreadoPor(trim(username));
+        return DiaFestivoResponse.fromEntity(repo.save(festivo));
+    }
+
+    @Transactional
+    public void eliminar(Long id) {
+        DiaFestivo festivo = repo.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("No existe el festivo " + id + "."));
+        repo.delete(festivo);
+    }
+
+    private static String trim(String value) {
+        return value == null ? null : value.trim();
+    }
+}
@@ -36,6 +36,8 @@ import exotic.app.planta.service.master.configs.MasterDirectiveService;
 import exotic.app.planta.service.productos.ProductoService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -76,6 +78,8 @@ public class DispensacionV2WorkflowService {
     private final MaterialRequirementSnapshotService materialRequirementSnapshotService;
     private final MasterDirectiveService masterDirectiveService;
     private final BatchRecordService batchRecordService;
+    private final LoteFefoService loteFefoService;
+    private final ReservaLoteService reservaLoteService;
 
     @Transactional(readOnly = true)
     public List<DispensacionV2OrdenFabricacionDTOs.Option> buscarOrdenesFabricacion(
@@ -103,10 +107,12 @@ public class DispensacionV2WorkflowService {
                 ordenFabricacionId, areaId, Map.of(), false, false);
     }
 
-    @Transactional(readOnly = true)
+    @Transactional
     public DispensacionV2OrdenFabricacionDTOs.PreparationResponse asignarLotesOrdenFabricacion(
             Long ordenFabricacionId,
-            DispensacionV2OrdenFabricacionDTOs.AssignmentRequest request) {
+            DispensacionV2OrdenFabricacionDTOs.AssignmentRequest request,
+            User currentUser) {
+        long currentUserId = requireCurrentUserId(currentUser);
         Map<String, DispensacionV2MaterialEditableRequestDTO> overrides = new HashMap<>();
         if (request != null && request.getMateriales() != null) {
             for (DispensacionV2MaterialEditableRequestDTO material : request.getMateriales()) {
@@ -116,12 +122,17 @@ public class DispensacionV2WorkflowService {
                 }
             }
         }
-        return buildOrdenFabricacionResponse(
+        String reservaToken = request == null ? null : request.getReservaToken();
+        reservaLoteService.liberar(reservaToken, currentUserId);
+        DispensacionV2OrdenFabricacionDTOs.PreparationResponse response = buildOrdenFabricacionResponse(
                 ordenFabricacionId,
                 request == null ? null : request.getAreaId(),
                 overrides,
                 true,
                 false);
+        response.setReservaToken(reservaLoteService.reservar(
+                reservaToken, demandaReservable(response.getMateriales()), currentUserId));
+        return response;
     }
 
     @Transactional
@@ -166,7 +177,7 @@ public class DispensacionV2WorkflowService {
                     HttpStatus.BAD_REQUEST,
                     "Debe seleccionar al menos un material de la OF.");
         }
-        validateStockDisponible(demandaPorLote);
+        validateStockDisponible(demandaPorLote, request.getReservaToken(), requireCurrentUserId(currentUser));
         String observaciones = "Dispensacion v2 de OF " + ordenFabricacionId
                 + " hacia " + area.getNombre()
                 + (request.getObservaciones() == null || request.getObservaciones().isBlank()
@@ -326,8 +337,11 @@ public class DispensacionV2WorkflowService {
         return response;
     }
 
-    @Transactional(readOnly = true)
-    public DispensacionV2PreparacionResponseDTO asignarLotes(DispensacionV2AsignacionLotesRequestDTO request) {
+    @Transactional
+    public DispensacionV2PreparacionResponseDTO asignarLotes(
+            DispensacionV2AsignacionLotesRequestDTO request,
+            User currentUser
+    ) {
         log.info(
                 "[DISP_V2][ASIGNACION_START] areaId={} ordenCount={}",
                 request != null ? request.getAreaId() : null,
@@ -338,7 +352,17 @@ public class DispensacionV2WorkflowService {
         Map<Integer, Map<String, DispensacionV2MaterialEditableRequestDTO>> overrides = buildOverrides(
                 request != null ? request.getOrdenes() : null
         );
+        long currentUserId = requireCurrentUserId(currentUser);
+        String reservaToken = request != null ? request.getReservaToken() : null;
+        reservaLoteService.liberar(reservaToken, currentUserId);
         DispensacionV2PreparacionResponseDTO response = buildResponse(area, ordenes, overrides, true, false);
+        response.setReservaToken(reservaLoteService.reservar(
+                reservaToken,
+                demandaReservable(response.getOrdenes().stream()
+                        .flatMap(orden -> orden.getMateriales().stream())
+                        .toList()),
+                currentUserId
+        ));
         log.info(
                 "[DISP_V2][ASIGNACION_COMPLETE] areaId={} ordenCount={} totalMaterialCount={} warningCount={}",
                 area.getAreaId(),
@@ -409,7 +433,7 @@ public class DispensacionV2WorkflowService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Debe seleccionar al menos un material para finalizar.");
         }
 
-        validateStockDisponible(demandaPorLote);
+        validateStockDisponible(demandaPorLote, request.getReservaToken(), currentUserId);
         log.info(
                 "[DISP_V2][FINALIZACION_STOCK_VALIDATED] demandKeyCount={} totalItems={}",
                 demandaPorLote.size(),
@@ -541,38 +565,29 @@ public class DispensacionV2WorkflowService {
 
         int safePage = Math.max(page, 0);
         int safeSize = Math.max(1, Math.min(size, MAX_LOTES_PAGE_SIZE));
-        List<LoteRecomendadoDTO> lotes = findStockGeneral(productoId).stream()
-                .filter(stock -> stock.stockDisponible() > TOLERANCE)
-                .map(stock -> new LoteRecomendadoDTO(
-                        stock.lote().getId(),
-                        stock.lote().getBatchNumber(),
-                        stock.lote().getProductionDate(),
-                        stock.lote().getExpirationDate(),
-                        stock.stockDisponible(),
-                        0
-                ))
+        Page<LoteStockRowDTO> lotes = loteFefoService.lotesDisponibles(
+                productoId,
+                Movimiento.Almacen.GENERAL,
+                TOLERANCE,
+                PageRequest.of(safePage, safeSize)
+        );
+        List<LoteRecomendadoDTO> pageItems = lotes.getContent().stream()
+                .map(lote -> LoteFefoService.toLoteRecomendado(lote, 0))
                 .toList();
 
-        int start = safePage * safeSize;
-        int end = Math.min(start + safeSize, lotes.size());
-        List<LoteRecomendadoDTO> pageItems = start < lotes.size()
-                ? lotes.subList(start, end)
-                : new ArrayList<>();
-        int totalPages = (int) Math.ceil((double) lotes.size() / safeSize);
-
         LoteDisponiblePageResponseDTO response = new LoteDisponiblePageResponseDTO(
                 productoId,
                 producto.getNombre(),
                 pageItems,
-                totalPages,
-                lotes.size(),
+                lotes.getTotalPages(),
+                lotes.getTotalElements(),
                 safePage,
                 safeSize
         );
         log.info(
                 "[DISP_V2][LOTES_DISPONIBLES_COMPLETE] productoId={} totalElements={} returnedElements={} page={} size={}",
                 productoId,
-                lotes.size(),
+                lotes.getTotalElements(),
                 pageItems.size(),
                 safePage,
                 safeSize
@@ -1167,8 +1182,13 @@ public class DispensacionV2WorkflowService {
                 rows.size()
         );
 
+        // Lo reservado por asignaciones vigentes de otros operarios no se vuelve a sugerir
+        Map<Long, Double> reservado = reservaLoteService.reservadoPorLote(productoId, Movimiento.Almacen.GENERAL);
         List<LoteStock> allStock = rows.stream()
                 .map(this::toLoteStock)
+                .map(stock -> new LoteStock(
+                        stock.lote(),
+                        stock.stockDisponible() - reservado.getOrDefault(stock.lote().getId(), 0.0)))
                 .toList();
         allStock.forEach(stock -> log.info(
                 "[DISP_V2][STOCK_ROW] productoId={} loteId={} batchNumber={} productionDate={} expirationDate={} stockDisponible={} eligible={} tolerance={}",
@@ -1612,45 +1632,48 @@ public class DispensacionV2WorkflowService {
         return items;
     }
 
-    private void validateStockDisponible(Map<StockDemandKey, Double> demandaPorLote) {
+    /**
+     * Valida el saldo de cada lote demandado con su fila de saldo bloqueada hasta el commit
+     * y consume las reservas de la asignación del usuario. Ver {@link ReservaLoteService#confirmar}.
+     */
+    private void validateStockDisponible(
+            Map<StockDemandKey, Double> demandaPorLote,
+            String reservaToken,
+            long currentUserId
+    ) {
         log.info(
-                "[DISP_V2][FINAL_STOCK_VALIDATION_START] demandKeyCount={} tolerance={}",
+                "[DISP_V2][FINAL_STOCK_VALIDATION_START] demandKeyCount={} tolerance={} reservaToken={}",
                 demandaPorLote.size(),
-                TOLERANCE
+                TOLERANCE,
+                reservaToken
         );
-        for (Map.Entry<StockDemandKey, Double> entry : demandaPorLote.entrySet()) {
-            StockDemandKey key = entry.getKey();
-            double solicitado = entry.getValue();
-            Double stock = transaccionAlmacenRepo.findTotalCantidadByProductoIdAndLoteIdAndAlmacen(
-                    key.productoId(),
-                    key.loteId(),
-                    Movimiento.Almacen.GENERAL
-            );
-            double stockDisponible = stock != null ? stock : 0;
-            double difference = solicitado - stockDisponible;
-            boolean sufficient = difference <= TOLERANCE;
-            log.info(
-                    "[DISP_V2][FINAL_STOCK_CHECK] productoId={} loteId={} almacen={} solicitado={} stockQueryResult={} stockDisponible={} difference={} tolerance={} sufficient={}",
-                    key.productoId(),
-                    key.loteId(),
-                    Movimiento.Almacen.GENERAL,
-                    solicitado,
-                    stock,
-                    stockDisponible,
-                    difference,
-                    TOLERANCE,
-                    sufficient
-            );
-            if (!sufficient) {
-                throw new ResponseStatusException(
-                        HttpStatus.BAD_REQUEST,
-                        "Stock insuficiente para producto " + key.productoId()
-                                + " lote " + key.loteId()
-                                + ". Disponible: " + round(stockDisponible)
-                                + ", solicitado: " + round(solicitado) + "."
-                );
+        Map<ReservaLoteService.Clave, Double> demandas = new HashMap<>();
+        demandaPorLote.forEach((key, cantidad) -> demandas.put(
+                new ReservaLoteService.Clave(key.productoId(), Movimiento.Almacen.GENERAL, key.loteId()),
+                cantidad
+        ));
+        reservaLoteService.confirmar(reservaToken, demandas, currentUserId);
+    }
+
+    /** Cantidad asignada por lote en el almacén general, sumando todas las órdenes. */
+    private Map<ReservaLoteService.Clave, Double> demandaReservable(List<DispensacionV2MaterialDTO> materiales) {
+        Map<ReservaLoteService.Clave, Double> demandas = new HashMap<>();
+        for (DispensacionV2MaterialDTO material : materiales) {
+            if (material.getLotesOrigen() == null) {
+                continue;
+            }
+            for (DispensacionV2LoteOrigenDTO lote : material.getLotesOrigen()) {
+                if (lote.getLoteId() != null && lote.getCantidadAsignada() > TOLERANCE) {
+                    demandas.merge(
+                            new ReservaLoteService.Clave(
+                                    material.getProductoId(), Movimiento.Almacen.GENERAL, lote.getLoteId()),
+                            lote.getCantidadAsignada(),
+                            Double::sum
+                    );
+                }
             }
         }
+        return demandas;
     }
 
     private String buildObservacionFinalizacionV2(
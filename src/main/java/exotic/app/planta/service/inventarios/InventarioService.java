@@ -10,20 +10,17 @@ import exotic.app.planta.model.inventarios.dto.KardexMovimientosRequestDTO;
 import exotic.app.planta.model.producto.Producto;
 import exotic.app.planta.model.producto.dto.ProductoStockDTO;
 import exotic.app.planta.repo.inventarios.TransaccionAlmacenRepo;
+import exotic.app.planta.service.bi.StreamingExcelWorkbook;
 import exotic.app.planta.service.productos.ProductoService;
 import lombok.RequiredArgsConstructor;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.time.Clock;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -92,7 +89,7 @@ public class InventarioService {
     }
 
     @Transactional(readOnly = true)
-    public byte[] generateInventoryExcel(InventarioExcelRequestDTO dto) {
+    public StreamingExcelWorkbook.Output generateInventoryExcel(InventarioExcelRequestDTO dto) {
         if (dto == null) {
             throw new IllegalArgumentException("DTO requerido");
         }
@@ -109,7 +106,7 @@ public class InventarioService {
                 fechaHoraCorte.toLocalDateTime()
         );
 
-        try (Workbook workbook = new XSSFWorkbook()) {
+        return StreamingExcelWorkbook.deferred(workbook -> {
             Sheet sheet = workbook.createSheet("Inventario");
 
             int rowIdx = 0;
@@ -145,17 +142,8 @@ public class InventarioService {
                 row.createCell(3).setCellValue(producto.getTipoUnidades() != null ? producto.getTipoUnidades() : "");
             }
 
-            for (int i = 0; i < 4; i++) {
-                sheet.autoSizeColumn(i);
-            }
-
-            try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-                workbook.write(out);
-                return out.toByteArray();
-            }
-        } catch (IOException e) {
-            throw new RuntimeException("Error generating inventory Excel", e);
-        }
+            workbook.autoSizeColumns(sheet, 4);
+        });
     }
 
     private String normalizeSearchTerm(String searchTerm) {
@@ -323,7 +311,7 @@ public class InventarioService {
         );
     }
 
-    public byte[] exportKardexExcel(KardexMovimientosRequestDTO dto) {
+    public StreamingExcelWorkbook.Output exportKardexExcel(KardexMovimientosRequestDTO dto) {
         if (dto == null) throw new IllegalArgumentException("DTO requerido");
         if (dto.getProductoId() == null || dto.getProductoId().trim().isEmpty()) {
             throw new IllegalArgumentException("productoId requerido");
@@ -364,7 +352,7 @@ public class InventarioService {
                         dto.getProductoId(), almacen, startDateTime, endDateTime
                 );
 
-        try (Workbook workbook = new XSSFWorkbook()) {
+        return StreamingExcelWorkbook.deferred(workbook -> {
             Sheet sheet = workbook.createSheet("Kardex");
 
             int rowIdx = 0;
@@ -408,16 +396,7 @@ public class InventarioService {
                 row.createCell(6).setCellValue(saldo);
             }
 
-            for (int i = 0; i <= 6; i++) {
-                sheet.autoSizeColumn(i);
-            }
-
-            try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-                workbook.write(out);
-                return out.toByteArray();
-            }
-        } catch (IOException e) {
-            throw new RuntimeException("Error generating kardex Excel", e);
-        }
+            workbook.autoSizeColumns(sheet, 7);
+        });
     }
 }
@@ -0,0 +1,99 @@
+package exotic.app.planta.service.inventarios;
+
+import exotic.app.planta.model.inventarios.Movimiento;
+import exotic.app.planta.model.inventarios.dto.LoteRecomendadoDTO;
+import exotic.app.planta.model.inventarios.dto.LoteStockRowDTO;
+import exotic.app.planta.repo.inventarios.TransaccionAlmacenRepo;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Selección de lotes por vencimiento (FEFO) sobre el saldo materializado.
+ *
+ * <p>El filtrado por saldo positivo, el orden y la paginación se resuelven en SQL: solo
+ * viajan los lotes de la página pedida, como proyección y sin cargar entidades
+ * {@code Lote}. La asignación de cantidades recorre ese orden tomando de cada lote lo
+ * que haga falta.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class LoteFefoService {
+
+    private final TransaccionAlmacenRepo transaccionAlmacenRepo;
+
+    /**
+     * Página de lotes de un producto con saldo mayor a {@code minimo}. Si {@code almacen}
+     * es nulo se suma el saldo de todos los almacenes.
+     */
+    public Page<LoteStockRowDTO> lotesDisponibles(
+            String productoId,
+            Movimiento.Almacen almacen,
+            double minimo,
+            Pageable pageable
+    ) {
+        return almacen == null
+                ? transaccionAlmacenRepo.findLotesFefoByProductoId(productoId, minimo, pageable)
+                : transaccionAlmacenRepo.findLotesFefoByProductoIdAndAlmacen(productoId, almacen, minimo, pageable);
+    }
+
+    /**
+     * Lotes con saldo (todos los almacenes) de varios productos en una sola consulta.
+     * Cada lista conserva el orden FEFO; los productos sin lotes no aparecen en el mapa.
+     */
+    public Map<String, List<LoteStockRowDTO>> lotesDisponibles(Collection<String> productoIds, double minimo) {
+        Map<String, List<LoteStockRowDTO>> lotesPorProducto = new LinkedHashMap<>();
+        if (productoIds.isEmpty()) {
+            return lotesPorProducto;
+        }
+        for (LoteStockRowDTO lote : transaccionAlmacenRepo.findLotesFefoByProductoIds(productoIds, minimo)) {
+            lotesPorProducto.computeIfAbsent(lote.getProductoId(), id -> new ArrayList<>()).add(lote);
+        }
+        return lotesPorProducto;
+    }
+
+    /**
+     * Reparte {@code cantidadRequerida} entre los lotes en el orden recibido, que debe ser
+     * FEFO. Solo se devuelven los lotes de los que se toma algo.
+     */
+    public static Asignacion asignar(List<LoteStockRowDTO> lotes, double cantidadRequerida) {
+        List<LoteRecomendadoDTO> asignados = new ArrayList<>();
+        double restante = cantidadRequerida;
+        for (LoteStockRowDTO lote : lotes) {
+            if (restante <= 0) {
+                break;
+            }
+            double tomar = Math.min(lote.getCantidadDisponible(), restante);
+            asignados.add(toLoteRecomendado(lote, tomar));
+            restante -= tomar;
+        }
+        return new Asignacion(asignados, Math.max(restante, 0));
+    }
+
+    public static LoteRecomendadoDTO toLoteRecomendado(LoteStockRowDTO lote, double cantidadRecomendada) {
+        return new LoteRecomendadoDTO(
+                lote.getLoteId(),
+                lote.getBatchNumber(),
+                lote.getProductionDate(),
+                lote.getExpirationDate(),
+                lote.getCantidadDisponible(),
+                cantidadRecomendada
+        );
+    }
+
+    /**
+     * Resultado de {@link #asignar}: lotes con su {@code cantidadRecomendada} y la cantidad
+     * que no se pudo cubrir con el saldo disponible.
+     */
+    public record Asignacion(List<LoteRecomendadoDTO> lotes, double faltante) {
+    }
+}
@@ -58,12 +58,15 @@ import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
-import java.io.ByteArrayOutputStream;
+import exotic.app.planta.service.bi.StreamingExcelWorkbook;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import exotic.app.planta.model.inventarios.dto.MovimientoExcelRequestDTO;
+import exotic.app.planta.model.bi.dto.MovimientoAlmacenRowDTO;
 
 @Service
 @Slf4j
@@ -168,13 +171,11 @@ public class MovimientosService {
             return Optional.empty();
         }
 
-        List<Movimiento> movimientos = transaccionAlmacenRepo.findByProducto_ProductoId(producto_id);
-        double productoStock = movimientos.stream()
-                .filter(Movimiento::isAfectaInventario)
-                .mapToDouble(Movimiento::getCantidad)
-                .sum();
-
-        return Optional.of(new ProductoStockDTO(optionalProducto.get(), productoStock));
+        Double productoStock = transaccionAlmacenRepo.findTotalCantidadByProductoId(producto_id);
+        return Optional.of(new ProductoStockDTO(
+                optionalProducto.get(),
+                productoStock != null ? productoStock : 0.0
+        ));
     }
 
 
@@ -195,13 +196,7 @@ public class MovimientosService {
 
         Page<Producto> productosPage = productoRepo.findAll(spec, pageable);
 
-        List<ProductoStockDTO> productStockDTOList = productosPage.getContent().stream().map(producto -> {
-            Double stockQuantity = transaccionAlmacenRepo.findTotalCantidadByProductoId(producto.getProductoId());
-            stockQuantity = (stockQuantity != null) ? stockQuantity : 0.0;
-            return new ProductoStockDTO(producto, stockQuantity);
-        }).collect(Collectors.toList());
-
-        return new PageImpl<>(productStockDTOList, pageable, productosPage.getTotalElements());
+        return new PageImpl<>(attachStockTotal(productosPage.getContent()), pageable, productosPage.getTotalElements());
     }
 
     public List<ProductoStockDTO> findProductsWithStockForExport(String searchTerm, String tipoBusqueda) {
@@ -218,11 +213,34 @@ public class MovimientosService {
             );
         };
 
-        return productoRepo.findAll(spec).stream().map(producto -> {
-            Double stockQuantity = transaccionAlmacenRepo.findTotalCantidadByProductoId(producto.getProductoId());
-            stockQuantity = (stockQuantity != null) ? stockQuantity : 0.0;
-            return new ProductoStockDTO(producto, stockQuantity);
-        }).collect(Collectors.toList());
+        return attachStockTotal(productoRepo.findAll(spec));
+    }
+
+    /**
+     * Adjunta el stock total vigente de cada producto con una sola consulta al saldo materializado.
+     */
+    private List<ProductoStockDTO> attachStockTotal(List<Producto> productos) {
+        if (productos.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<String> productoIds = productos.stream()
+                .map(Producto::getProductoId)
+                .toList();
+        Map<String, Double> stockPorProducto = transaccionAlmacenRepo
+                .findTotalCantidadByProductoIds(productoIds)
+                .stream()
+                .collect(Collectors.toMap(
+                        row -> String.valueOf(row[0]),
+                        row -> row[1] instanceof Number ? ((Number) row[1]).doubleValue() : 0.0
+                ));
+
+        return productos.stream()
+                .map(producto -> new ProductoStockDTO(
+                        producto,
+                        stockPorProducto.getOrDefault(producto.getProductoId(), 0.0)
+                ))
+                .collect(Collectors.toList());
     }
 
     /**
@@ -484,6 +502,9 @@ public class MovimientosService {
     }
 
     private void validarItemsAjusteInventario(List<AjusteItemDTO> items) {
+        // El ajuste se registra con la fecha actual: la salida se valida contra el saldo a esa
+        // fecha (inclusive), no contra el saldo materializado, que incluye movimientos futuros.
+        LocalDateTime corteSaldo = LocalDateTime.now(applicationClock).plusNanos(1);
         Map<String, Double> salidaAcumuladaPorProducto = new HashMap<>();
         Map<String, Double> salidaAcumuladaPorProductoYLote = new HashMap<>();
 
@@ -540,10 +561,11 @@ public class MovimientosService {
                 double salidaLoteAcumulada = salidaAcumuladaPorProductoYLote.getOrDefault(keyProductoLote, 0.0) + salidaSolicitada;
                 salidaAcumuladaPorProductoYLote.put(keyProductoLote, salidaLoteAcumulada);
 
-                Double stockDisponibleLote = transaccionAlmacenRepo.findTotalCantidadByProductoIdAndLoteIdAndAlmacen(
+                Double stockDisponibleLote = transaccionAlmacenRepo.findTotalCantidadByProductoIdAndLoteIdAndAlmacenAndFechaMovimientoBefore(
                         item.getProductoId(),
                         loteId,
-                        Movimiento.Almacen.GENERAL
+                        Movimiento.Almacen.GENERAL,
+                        corteSaldo
                 );
                 double stockLote = stockDisponibleLote != null ? stockDisponibleLote : 0.0;
                 if (salidaLoteAcumulada - stockLote > 0.0001d) {
@@ -558,7 +580,7 @@ public class MovimientosService {
                 Double stockDisponibleProducto = transaccionAlmacenRepo.findTotalCantidadByProductoIdAndAlmacenAndFechaMovimientoBefore(
                         item.getProductoId(),
                         Movimiento.Almacen.GENERAL,
-                        LocalDateTime.now(applicationClock).plusNanos(1)
+                        corteSaldo
                 );
                 double stockProducto = stockDisponibleProducto != null ? stockDisponibleProducto : 0.0;
                 if (salidaProductoAcumulada - stockProducto > 0.0001d) {
@@ -954,40 +976,50 @@ public class MovimientosService {
         return item.getCantidad() >= 0 ? Movimiento.TipoMovimiento.COMPRA : Movimiento.TipoMovimiento.BAJA;
     }
 
-
+    @Transactional(readOnly = true)
     public byte[] generateMovimientosExcel(MovimientoExcelRequestDTO dto) {
+        try {
+            return StreamingExcelWorkbook.export(contenidoMovimientosExcel(dto));
+        } catch (UncheckedIOException e) {
+            throw new RuntimeException("Error generating Excel", e);
+        }
+    }
+
+    /**
+     * Variante en streaming de {@link #generateMovimientosExcel(MovimientoExcelRequestDTO)}:
+     * escribe el libro directamente en {@code out} sin materializarlo en memoria. La
+     * transaccion es de solo lectura: el cursor queda abierto mientras dura la descarga y no
+     * debe retener una transaccion de escritura.
+     */
+    @Transactional(readOnly = true)
+    public void generateMovimientosExcel(MovimientoExcelRequestDTO dto, OutputStream out) throws IOException {
+        StreamingExcelWorkbook.export(out, contenidoMovimientosExcel(dto));
+    }
+
+    private StreamingExcelWorkbook.Content contenidoMovimientosExcel(MovimientoExcelRequestDTO dto) {
         LocalDateTime startDateTime = dto.getStartDate().atStartOfDay();
         LocalDateTime endDateTime = dto.getEndDate().atTime(LocalTime.MAX);
 
-        Double totalAcumulado = transaccionAlmacenRepo.findTotalCantidadByProductoIdAndFechaMovimientoBefore(dto.getProductoId(), startDateTime);
-        totalAcumulado = totalAcumulado != null ? totalAcumulado : 0.0;
+        return workbook -> {
+            Double totalAcumulado = transaccionAlmacenRepo.findTotalCantidadByProductoIdAndFechaMovimientoBefore(dto.getProductoId(), startDateTime);
+            totalAcumulado = totalAcumulado != null ? totalAcumulado : 0.0;
 
-        List<Movimiento> movimientos = transaccionAlmacenRepo
-                .findByProducto_ProductoIdAndFechaMovimientoBetweenOrderByFechaMovimientoAsc(
-                        dto.getProductoId(), startDateTime, endDateTime);
-
-        try (XSSFWorkbook workbook = new XSSFWorkbook();
-             ByteArrayOutputStream out = new ByteArrayOutputStream()) {
             var sheet = workbook.createSheet("Movimientos");
 
             Row header = sheet.createRow(0);
             header.createCell(0).setCellValue("Total hasta " + dto.getStartDate());
             header.createCell(1).setCellValue(totalAcumulado);
 
-            int rowIdx = 1;
-            for (Movimiento mov : movimientos) {
-                Row row = sheet.createRow(rowIdx++);
-                row.createCell(0).setCellValue(mov.getFechaMovimiento().toString());
-                row.createCell(1).setCellValue(mov.getTipoMovimiento().name());
-                row.createCell(2).setCellValue(mov.getCantidad());
-                row.createCell(3).setCellValue(mov.getAlmacen() != null ? mov.getAlmacen().name() : "");
+            try (Stream<MovimientoAlmacenRowDTO> movimientos = transaccionAlmacenRepo
+                    .streamMovimientosProductoPorRango(dto.getProductoId(), startDateTime, endDateTime)) {
+                workbook.appendRows(sheet, 1, movimientos, (mov, row) -> {
+                    row.createCell(0).setCellValue(mov.getFechaMovimiento().toString());
+                    row.createCell(1).setCellValue(mov.getTipoMovimiento().name());
+                    row.createCell(2).setCellValue(mov.getCantidad());
+                    row.createCell(3).setCellValue(mov.getAlmacen() != null ? mov.getAlmacen().name() : "");
+                });
             }
-
-            workbook.write(out);
-            return out.toByteArray();
-        } catch (IOException e) {
-            throw new RuntimeException("Error generating Excel", e);
-        }
+        };
     }
 
     /**
@@ -0,0 +1,26 @@
+package exotic.app.planta.service.inventarios;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Elimina las reservas de lote vencidas. No afecta la disponibilidad, que ya las ignora
+ * desde {@code expiraEn}; solo evita que la tabla crezca con asignaciones abandonadas.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReservaLoteLimpiezaScheduler {
+
+    private final ReservaLoteService reservaLoteService;
+
+    @Scheduled(cron = "0 0 * * * *", zone = "America/Bogota")
+    public void eliminarReservasVencidas() {
+        int eliminadas = reservaLoteService.eliminarExpiradas();
+        if (eliminadas > 0) {
+            log.info("ReservaLote: {} reservas vencidas eliminadas.", eliminadas);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package exotic.app.planta.service.inventarios;
+
+import exotic.app.planta.model.inventarios.Movimiento;
+import exotic.app.planta.model.inventarios.ReservaLote;
+import exotic.app.planta.repo.inventarios.ReservaLoteRepo;
+import exotic.app.planta.repo.inventarios.SaldoInventarioRepo;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Reservas de saldo por (producto, almacén, lote) para dispensaciones concurrentes.
+ *
+ * <p>Reservar y confirmar bloquean con {@code FOR UPDATE} solo las filas de
+ * {@code saldo_inventario} de las claves involucradas, siempre en el mismo orden
+ * ({@link Clave#ORDEN}) para que dos operaciones sobre los mismos lotes no se bloqueen
+ * mutuamente. Con la fila tomada se vuelve a leer el saldo y lo reservado por otras
+ * asignaciones, de modo que dos operarios no pueden comprometer el mismo saldo; las
+ * dispensaciones de materiales o lotes distintos nunca se esperan entre sí.
+ *
+ * <p>Un token solo lo puede usar el usuario que creó sus reservas; otro usuario recibe 403.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReservaLoteService {
+
+    static final Duration DURACION_RESERVA = Duration.ofMinutes(15);
+    private static final double TOLERANCE = 0.01;
+
+    private final ReservaLoteRepo reservaLoteRepo;
+    private final SaldoInventarioRepo saldoInventarioRepo;
+    private final Clock applicationClock;
+
+    /** Cantidad reservada vigente por lote de un producto en un almacén. */
+    @Transactional(readOnly = true)
+    public Map<Long, Double> reservadoPorLote(String productoId, Movimiento.Almacen almacen) {
+        Map<Long, Double> reservado = new HashMap<>();
+        for (Object[] row : reservaLoteRepo.sumVigentesPorLote(productoId, almacen, ahora())) {
+            reservado.put(((Number) row[0]).longValue(), ((Number) row[1]).doubleValue());
+        }
+        return reservado;
+    }
+
+    /** Descarta las reservas de una asignación anterior del usuario, si existen. */
+    @Transactional
+    public void liberar(String token, Long usuarioId) {
+        if (token != null && !token.isBlank()) {
+            exigirPropio(token, usuarioId);
+            reservaLoteRepo.deleteByToken(token);
+        }
+    }
+
+    /**
+     * Reserva las cantidades indicadas, reemplazando las reservas previas de {@code token}
+     * (o creando un token nuevo si no llega). Si otra operación comprometió el saldo entre
+     * la sugerencia y la reserva, responde 409 para que se vuelvan a asignar lotes.
+     *
+     * @return token de la asignación, o {@code null} si no hubo nada que reservar
+     */
+    @Transactional
+    public String reservar(String token, Map<Clave, Double> demandas, Long usuarioId) {
+        liberar(token, usuarioId);
+        if (demandas.isEmpty()) {
+            return null;
+        }
+        String reservaToken = token == null || token.isBlank() ? UUID.randomUUID().toString() : token;
+        LocalDateTime ahora = ahora();
+        List<ReservaLote> reservas = new ArrayList<>();
+        for (Map.Entry<Clave, Double> demanda : ordenar(demandas).entrySet()) {
+            Clave clave = demanda.getKey();
+            double disponible = bloquearYLeerDisponible(clave, reservaToken, ahora);
+            if (demanda.getValue() - disponible > TOLERANCE) {
+                throw new ResponseStatusException(
+                        HttpStatus.CONFLICT,
+                        "El lote " + clave.loteId() + " del producto " + clave.productoId()
+                                + " fue comprometido por otra dispensacion. Disponible: " + round(disponible)
+                                + ", solicitado: " + round(demanda.getValue()) + ". Vuelva a asignar lotes."
+                );
+            }
+            reservas.add(new ReservaLote(
+                    null,
+                    reservaToken,
+                    usuarioId,
+                    clave.productoId(),
+                    clave.almacen(),
+                    clave.loteId(),
+                    demanda.getValue(),
+                    ahora,
+                    ahora.plus(DURACION_RESERVA)
+            ));
+        }
+        reservaLoteRepo.saveAll(reservas);
+        log.info("[RESERVA_LOTE] token={} claves={}", reservaToken, reservas.size());
+        return reservaToken;
+    }
+
+    /**
+     * Valida el saldo de cada clave con su fila bloqueada y consume las reservas de
+     * {@code token}. Debe llamarse en la misma transacción que escribe los movimientos de
+     * salida: el bloqueo se mantiene hasta el commit, así que una finalización concurrente
+     * sobre los mismos lotes espera y luego ve el saldo ya descontado.
+     *
+     * <p>Sin token (clientes que no pasaron por la asignación) se valida el saldo neto de
+     * todas las reservas vigentes, así que no se puede consumir lo que otro usuario tiene
+     * reservado.
+     */
+    @Transactional
+    public void confirmar(String token, Map<Clave, Double> demandas, Long usuarioId) {
+        String propio = token == null || token.isBlank() ? null : token;
+        if (propio != null) {
+            exigirPropio(propio, usuarioId);
+        }
+        LocalDateTime ahora = ahora();
+        for (Map.Entry<Clave, Double> demanda : ordenar(demandas).entrySet()) {
+            Clave clave = demanda.getKey();
+            double disponible = bloquearYLeerDisponible(clave, propio, ahora);
+            if (demanda.getValue() - disponible > TOLERANCE) {
+                throw new ResponseStatusException(
+                        HttpStatus.BAD_REQUEST,
+                        "Stock insuficiente para producto " + clave.productoId()
+                                + " lote " + clave.loteId()
+                                + ". Disponible: " + round(disponible)
+                                + ", solicitado: " + round(demanda.getValue()) + "."
+                );
+            }
+        }
+        if (propio != null) {
+            reservaLoteRepo.deleteByToken(propio);
+        }
+    }
+
+    @Transactional
+    public int eliminarExpiradas() {
+        return reservaLoteRepo.deleteExpiradas(ahora());
+    }
+
+    private double bloquearYLeerDisponible(Clave clave, String token, LocalDateTime ahora) {
+        double saldo = saldoInventarioRepo
+                .bloquearSaldoLote(clave.productoId(), clave.almacen().ordinal(), clave.loteId())
+                .stream()
+                .findFirst()
+                .orElse(0.0);
+        return saldo - reservaLoteRepo.sumVigentesDeOtros(
+                clave.productoId(), clave.almacen(), clave.loteId(), token, ahora);
+    }
+
+    private void exigirPropio(String token, Long usuarioId) {
+        if (usuarioId == null || reservaLoteRepo.existsByTokenDeOtroUsuario(token, usuarioId)) {
+            throw new ResponseStatusException(
+                    HttpStatus.FORBIDDEN,
+                    "La reserva de lotes pertenece a otro usuario. Vuelva a asignar lotes."
+            );
+        }
+    }
+
+    private static SortedMap<Clave, Double> ordenar(Map<Clave, Double> demandas) {
+        SortedMap<Clave, Double> ordenadas = new TreeMap<>(Clave.ORDEN);
+        ordenadas.putAll(demandas);
+        return ordenadas;
+    }
+
+    private LocalDateTime ahora() {
+        return LocalDateTime.now(applicationClock);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10000.0) / 10000.0;
+    }
+
+    public record Clave(String productoId, Movimiento.Almacen almacen, Long loteId) {
+        static final Comparator<Clave> ORDEN = Comparator
+                .comparing(Clave::productoId)
+                .thenComparing(Clave::almacen)
+                .thenComparing(Clave::loteId);
+    }
+}
@@ -0,0 +1,27 @@
+package exotic.app.planta.service.inventarios;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ejecuta a diario el cierre de saldos de inventario. En un dia normal no hace nada;
+ * el primer dia de cada mes cierra el mes anterior, y tambien regenera los cierres
+ * invalidados por movimientos con fecha retroactiva.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SaldoInventarioCierreScheduler {
+
+    private final SaldoInventarioCierreService cierreService;
+
+    @Scheduled(cron = "0 15 1 * * *", zone = "America/Bogota")
+    public void cerrarPeriodosPendientes() {
+        int cerrados = cierreService.cerrarPeriodosPendientes();
+        if (cerrados > 0) {
+            log.info("SaldoInventarioCierre: {} periodos cerrados.", cerrados);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package exotic.app.planta.service.inventarios;
+
+import exotic.app.planta.model.inventarios.SaldoInventarioCierrePeriodo;
+import exotic.app.planta.repo.inventarios.SaldoInventarioCierrePeriodoRepo;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Genera los cierres mensuales del saldo de inventario ({@code saldo_inventario_cierre}).
+ * Las consultas de stock a una fecha de corte parten del cierre más cercano y solo suman
+ * los movimientos posteriores, en lugar de recorrer todo el histórico. Mientras cierra, la
+ * escritura de movimientos queda bloqueada (ver {@link SaldoInventarioCierrePeriodoRepo#bloquearMovimientos()}).
+ */
+@Service
+@RequiredArgsConstructor
+public class SaldoInventarioCierreService {
+
+    /** Cota inferior usada como "cierre anterior" al generar el primer cierre. */
+    static final LocalDateTime CORTE_INICIAL = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final SaldoInventarioCierrePeriodoRepo cierrePeriodoRepo;
+    private final Clock applicationClock;
+
+    /**
+     * Cierra, en orden, todos los meses completos que aún no tengan cierre. Es idempotente:
+     * si los cierres están al día no hace nada.
+     *
+     * @return cantidad de periodos cerrados en esta ejecución
+     */
+    @Transactional
+    public int cerrarPeriodosPendientes() {
+        LocalDateTime limite = LocalDate.now(applicationClock).withDayOfMonth(1).atStartOfDay();
+
+        Optional<SaldoInventarioCierrePeriodo> ultimo = cierrePeriodoRepo.findTopByOrderByFechaCorteDesc();
+        if (ultimo.isPresent() && ultimo.get().getFechaCorte().plusMonths(1).isAfter(limite)) {
+            return 0;
+        }
+
+        // Sin este bloqueo, un movimiento retroactivo que confirma durante el cierre no entra en
+        // la suma (aún no estaba confirmado) ni lo invalida (su trigger no veía el cierre).
+        cierrePeriodoRepo.bloquearMovimientos();
+        ultimo = cierrePeriodoRepo.findTopByOrderByFechaCorteDesc();
+        LocalDateTime anterior;
+        LocalDateTime siguiente;
+        if (ultimo.isPresent()) {
+            anterior = ultimo.get().getFechaCorte();
+            siguiente = anterior.plusMonths(1);
+        } else {
+            LocalDateTime primerMovimiento = cierrePeriodoRepo.findPrimeraFechaMovimiento();
+            if (primerMovimiento == null) {
+                return 0;
+            }
+            anterior = CORTE_INICIAL;
+            siguiente = primerMovimiento.toLocalDate().withDayOfMonth(1).plusMonths(1).atStartOfDay();
+        }
+
+        int cerrados = 0;
+        while (!siguiente.isAfter(limite)) {
+            cierrePeriodoRepo.saveAndFlush(new SaldoInventarioCierrePeriodo(
+                    siguiente,
+                    LocalDateTime.now(applicationClock)
+            ));
+            cierrePeriodoRepo.insertarSaldosCierre(anterior, siguiente);
+            anterior = siguiente;
+            siguiente = siguiente.plusMonths(1);
+            cerrados++;
+        }
+        return cerrados;
+    }
+}
@@ -0,0 +1,51 @@
+package exotic.app.planta.service.inventarios;
+
+import exotic.app.planta.repo.inventarios.SaldoInventarioRepo;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Conciliacion nocturna del saldo materializado de inventario. Reporta las desviaciones
+ * encontradas y, si existe alguna, reconstruye el saldo desde el libro de movimientos.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SaldoInventarioConciliacionScheduler {
+
+    private static final int MAX_DESVIACIONES_EN_LOG = 20;
+
+    private final SaldoInventarioConciliacionService conciliacionService;
+
+    @Scheduled(cron = "0 30 2 * * *", zone = "America/Bogota")
+    public void conciliarDiariamente() {
+        log.info("SaldoInventario: iniciando conciliacion diaria contra movimientos.");
+        List<SaldoInventarioRepo.DesviacionSaldoProjection> desviaciones = conciliacionService.detectarDesviaciones();
+        if (desviaciones.isEmpty()) {
+            log.info("SaldoInventario: conciliacion completada sin desviaciones.");
+            return;
+        }
+
+        desviaciones.stream()
+                .limit(MAX_DESVIACIONES_EN_LOG)
+                .forEach(d -> log.warn(
+                        "SaldoInventario: desviacion producto={}, almacen={}, lote={}, ledger={}, saldo={}",
+                        d.getProductoId(),
+                        d.getAlmacen(),
+                        d.getLoteId(),
+                        d.getCantidadLedger(),
+                        d.getCantidadSaldo()
+                ));
+
+        int claves = conciliacionService.reconstruirDesdeMovimientos();
+        log.warn(
+                "SaldoInventario: conciliacion encontro {} desviaciones; saldo reconstruido con {} claves.",
+                desviaciones.size(),
+                claves
+        );
+    }
+}
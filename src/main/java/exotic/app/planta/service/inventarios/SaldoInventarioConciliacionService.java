@@ -0,0 +1,45 @@
+package exotic.app.planta.service.inventarios;
+
+import exotic.app.planta.repo.inventarios.SaldoInventarioRepo;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Concilia el saldo materializado ({@code saldo_inventario}) contra el libro de movimientos.
+ * El saldo lo mantiene un trigger de base de datos; esta conciliación solo detecta y corrige
+ * desviaciones introducidas por escrituras fuera del flujo normal (restauraciones parciales,
+ * SQL manual, triggers deshabilitados).
+ */
+@Service
+@RequiredArgsConstructor
+public class SaldoInventarioConciliacionService {
+
+    static final double TOLERANCIA = 1e-6d;
+
+    private final SaldoInventarioRepo saldoInventarioRepo;
+
+    /**
+     * Re-deriva los saldos desde {@code movimientos} en una sola consulta y devuelve
+     * las claves cuya diferencia supera la tolerancia.
+     */
+    @Transactional(readOnly = true)
+    public List<SaldoInventarioRepo.DesviacionSaldoProjection> detectarDesviaciones() {
+        return saldoInventarioRepo.findDesviacionesContraMovimientos(TOLERANCIA);
+    }
+
+    /**
+     * Reconstruye el saldo completo a partir del libro. Bloquea las escrituras de movimientos
+     * durante la reconstrucción para que ninguna fila quede contada dos veces ni omitida.
+     *
+     * @return cantidad de claves (producto, almacén, lote) reconstruidas
+     */
+    @Transactional
+    public int reconstruirDesdeMovimientos() {
+        saldoInventarioRepo.bloquearParaReconstruccion();
+        saldoInventarioRepo.eliminarTodos();
+        return saldoInventarioRepo.reconstruirDesdeMovimientos();
+    }
+}
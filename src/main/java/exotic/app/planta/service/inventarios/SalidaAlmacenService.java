@@ -46,9 +46,11 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -69,6 +71,7 @@ public class SalidaAlmacenService {
     private final SeguimientoOrdenAreaService seguimientoOrdenAreaService;
     private final OrdenFabricacionRepo ordenFabricacionRepo;
     private final OrdenFabricacionOperacionRepo ordenFabricacionOperacionRepo;
+    private final LoteFefoService loteFefoService;
 
     /** Registra una dispensación de materiales cuyo documento causante es una OF. */
     @Transactional
@@ -601,100 +604,34 @@ public class SalidaAlmacenService {
         Producto producto = productoRepo.findById(productoId)
                 .orElseThrow(() -> new RuntimeException("Producto no encontrado con ID: " + productoId));
 
-        // Obtener lotes con stock disponible para este producto
-        List<Object[]> lotesConStock;
-        try {
-            // Intentar primero con la consulta JPQL
-            lotesConStock = transaccionAlmacenRepo.findLotesWithStockByProductoIdOrderByExpirationDate(productoId);
-        } catch (Exception e) {
-            // Si falla, usar la consulta SQL nativa como alternativa
-            log.warn("Error al ejecutar consulta JPQL para lotes, usando SQL nativo: " + e.getMessage());
-            lotesConStock = transaccionAlmacenRepo.findLotesWithStockByProductoIdNative(productoId);
-        }
+        List<LoteStockRowDTO> lotes = loteFefoService.lotesDisponibles(List.of(productoId), 0)
+                .getOrDefault(productoId, List.of());
+        return recomendarLotes(producto, cantidadRequerida, lotes);
+    }
 
-        // Crear el DTO de respuesta
+    private DispensacionNoPlanificadaDTO recomendarLotes(
+            Producto producto,
+            double cantidadRequerida,
+            List<LoteStockRowDTO> lotes
+    ) {
         DispensacionNoPlanificadaDTO dispensacionDTO = new DispensacionNoPlanificadaDTO();
         dispensacionDTO.setObservaciones("Recomendación automática de lotes para " + producto.getNombre());
         dispensacionDTO.setItems(new ArrayList<>());
 
-        // Calcular cuánto tomar de cada lote
-        double cantidadRestante = cantidadRequerida;
-
-        for (Object[] result : lotesConStock) {
-            if (cantidadRestante <= 0) {
-                break;
-            }
-
-            try {
-                Lote lote;
-                Double stockDisponible;
-
-                // Intentar procesar como resultado de consulta JPQL
-                if (result[0] instanceof Lote) {
-                    lote = (Lote) result[0];
-                    stockDisponible = (Double) result[1];
-                }
-                // Procesar como resultado de consulta SQL nativa
-                else {
-                    // Para SQL nativo, necesitamos buscar el lote por ID
-                    Long loteId = null;
-
-                    // El primer elemento podría ser un número (ID del lote)
-                    if (result[0] instanceof Number) {
-                        loteId = ((Number) result[0]).longValue();
-                    }
-                    // O podría ser un mapa con los valores de las columnas
-                    else if (result[0] instanceof Map) {
-                        Map<String, Object> map = (Map<String, Object>) result[0];
-                        loteId = ((Number) map.get("id")).longValue();
-                    }
-
-                    // Si no pudimos obtener el ID del lote, continuamos con el siguiente
-                    if (loteId == null) {
-                        log.warn("No se pudo obtener el ID del lote del resultado de la consulta");
-                        continue;
-                    }
-
-                    // Buscar el lote por ID
-                    Optional<Lote> optionalLote = loteRepo.findById(loteId);
-                    if (!optionalLote.isPresent()) {
-                        log.warn("No se encontró el lote con ID: " + loteId);
-                        continue;
-                    }
-
-                    lote = optionalLote.get();
-
-                    // El stock disponible podría estar en diferentes posiciones según la consulta
-                    if (result.length > 1 && result[1] instanceof Number) {
-                        stockDisponible = ((Number) result[1]).doubleValue();
-                    } else {
-                        log.warn("No se pudo obtener el stock disponible del resultado de la consulta");
-                        continue;
-                    }
-                }
-
-                double cantidadAUsar = Math.min(stockDisponible, cantidadRestante);
-
-                // Crear un item de dispensación para este lote
-                DispensacionNoPlanificadaItemDTO item = new DispensacionNoPlanificadaItemDTO();
-                item.setProductoId(productoId);
-                item.setCantidad(cantidadAUsar);
-                item.setLoteId(lote.getId().intValue());
-
-                dispensacionDTO.getItems().add(item);
-
-                cantidadRestante -= cantidadAUsar;
-            } catch (Exception e) {
-                log.error("Error al procesar lote recomendado: " + e.getMessage(), e);
-                // Continuamos con el siguiente lote
-            }
+        LoteFefoService.Asignacion asignacion = LoteFefoService.asignar(lotes, cantidadRequerida);
+        for (LoteRecomendadoDTO lote : asignacion.lotes()) {
+            DispensacionNoPlanificadaItemDTO item = new DispensacionNoPlanificadaItemDTO();
+            item.setProductoId(producto.getProductoId());
+            item.setCantidad(lote.getCantidadRecomendada());
+            item.setLoteId(lote.getLoteId().intValue());
+            dispensacionDTO.getItems().add(item);
         }
 
         // Verificar si se pudo satisfacer toda la cantidad requerida
-        if (cantidadRestante > 0) {
-            log.warn("No hay suficiente stock para satisfacer la cantidad requerida. Faltante: " + cantidadRestante);
+        if (asignacion.faltante() > 0) {
+            log.warn("No hay suficiente stock para satisfacer la cantidad requerida. Faltante: " + asignacion.faltante());
             dispensacionDTO.setObservaciones(dispensacionDTO.getObservaciones() +
-                    ". ADVERTENCIA: Stock insuficiente. Faltante: " + cantidadRestante);
+                    ". ADVERTENCIA: Stock insuficiente. Faltante: " + asignacion.faltante());
         }
 
         return dispensacionDTO;
@@ -713,90 +650,15 @@ public class SalidaAlmacenService {
         Producto producto = productoRepo.findById(productoId)
                 .orElseThrow(() -> new RuntimeException("Producto no encontrado con ID: " + productoId));
 
-        // Obtener lotes con stock disponible para este producto
-        List<Object[]> lotesConStock;
-        try {
-            // Intentar primero con la consulta JPQL
-            lotesConStock = transaccionAlmacenRepo.findLotesWithStockByProductoIdOrderByExpirationDate(productoId);
-        } catch (Exception e) {
-            // Si falla, usar la consulta SQL nativa como alternativa
-            log.warn("Error al ejecutar consulta JPQL para lotes, usando SQL nativo: " + e.getMessage());
-            lotesConStock = transaccionAlmacenRepo.findLotesWithStockByProductoIdNative(productoId);
-        }
+        List<LoteRecomendadoDTO> lotesDisponibles = loteFefoService.lotesDisponibles(List.of(productoId), 0)
+                .getOrDefault(productoId, List.of())
+                .stream()
+                .map(lote -> LoteFefoService.toLoteRecomendado(lote, 0)) // No estamos recomendando cantidades
+                .collect(Collectors.toList());
 
-        // Crear el DTO de respuesta
         LoteDisponibleResponseDTO responseDTO = new LoteDisponibleResponseDTO();
         responseDTO.setProductoId(productoId);
         responseDTO.setNombreProducto(producto.getNombre());
-
-        List<LoteRecomendadoDTO> lotesDisponibles = new ArrayList<>();
-
-        // Procesar cada lote con stock
-        for (Object[] result : lotesConStock) {
-            try {
-                Lote lote;
-                Double stockDisponible;
-
-                // Intentar procesar como resultado de consulta JPQL
-                if (result[0] instanceof Lote) {
-                    lote = (Lote) result[0];
-                    stockDisponible = (Double) result[1];
-                }
-                // Procesar como resultado de consulta SQL nativa
-                else {
-                    // Para SQL nativo, necesitamos buscar el lote por ID
-                    Long loteId = null;
-
-                    // El primer elemento podría ser un número (ID del lote)
-                    if (result[0] instanceof Number) {
-                        loteId = ((Number) result[0]).longValue();
-                    }
-                    // O podría ser un mapa con los valores de las columnas
-                    else if (result[0] instanceof Map) {
-                        Map<String, Object> map = (Map<String, Object>) result[0];
-                        loteId = ((Number) map.get("id")).longValue();
-                    }
-
-                    // Si no pudimos obtener el ID del lote, continuamos con el siguiente
-                    if (loteId == null) {
-                        log.warn("No se pudo obtener el ID del lote del resultado de la consulta");
-                        continue;
-                    }
-
-                    // Buscar el lote por ID
-                    Optional<Lote> optionalLote = loteRepo.findById(loteId);
-                    if (!optionalLote.isPresent()) {
-                        log.warn("No se encontró el lote con ID: " + loteId);
-                        continue;
-                    }
-
-                    lote = optionalLote.get();
-
-                    // El stock disponible podría estar en diferentes posiciones según la consulta
-                    if (result.length > 1 && result[1] instanceof Number) {
-                        stockDisponible = ((Number) result[1]).doubleValue();
-                    } else {
-                        log.warn("No se pudo obtener el stock disponible del resultado de la consulta");
-                        continue;
-                    }
-                }
-
-                // Crear DTO para este lote
-                LoteRecomendadoDTO loteDTO = new LoteRecomendadoDTO();
-                loteDTO.setLoteId(lote.getId());
-                loteDTO.setBatchNumber(lote.getBatchNumber());
-                loteDTO.setProductionDate(lote.getProductionDate());
-                loteDTO.setExpirationDate(lote.getExpirationDate());
-                loteDTO.setCantidadDisponible(stockDisponible);
-                loteDTO.setCantidadRecomendada(0); // No estamos recomendando cantidades
-
-                lotesDisponibles.add(loteDTO);
-            } catch (Exception e) {
-                log.error("Error al procesar lote disponible: " + e.getMessage(), e);
-                // Continuamos con el siguiente lote
-            }
-        }
-
         responseDTO.setLotesDisponibles(lotesDisponibles);
         return responseDTO;
     }
@@ -804,7 +666,8 @@ public class SalidaAlmacenService {
     /**
      * Obtiene los lotes disponibles para un producto específico con paginación.
      * Incluye información de fecha de vencimiento y cantidad disponible para cada lote.
-     * Solo retorna lotes con stock disponible mayor a 0.
+     * Solo retorna lotes con stock disponible mayor a 0; el filtro, el orden FEFO y la
+     * paginación se resuelven en la consulta.
      *
      * @param productoId ID del producto
      * @param page Número de página (base 0)
@@ -816,113 +679,21 @@ public class SalidaAlmacenService {
         Producto producto = productoRepo.findById(productoId)
                 .orElseThrow(() -> new RuntimeException("Producto no encontrado con ID: " + productoId));
 
-        // Obtener todos los lotes con stock disponible para este producto
-        List<Object[]> todosLotesConStock;
-        try {
-            // Intentar primero con la consulta JPQL
-            todosLotesConStock = transaccionAlmacenRepo.findLotesWithStockByProductoIdOrderByExpirationDate(productoId);
-        } catch (Exception e) {
-            // Si falla, usar la consulta SQL nativa como alternativa
-            log.warn("Error al ejecutar consulta JPQL para lotes, usando SQL nativo: " + e.getMessage());
-            todosLotesConStock = transaccionAlmacenRepo.findLotesWithStockByProductoIdNative(productoId);
-        }
+        int safePage = Math.max(page, 0);
+        int safeSize = Math.max(size, 1);
+        Page<LoteStockRowDTO> lotes = loteFefoService.lotesDisponibles(
+                productoId, null, 0, PageRequest.of(safePage, safeSize));
 
-        // Crear el DTO de respuesta
         LoteDisponiblePageResponseDTO responseDTO = new LoteDisponiblePageResponseDTO();
         responseDTO.setProductoId(productoId);
         responseDTO.setNombreProducto(producto.getNombre());
-
-        List<LoteRecomendadoDTO> todosLotesDisponibles = new ArrayList<>();
-
-        // Procesar cada lote con stock y filtrar solo los que tienen cantidad > 0
-        for (Object[] result : todosLotesConStock) {
-            try {
-                Lote lote;
-                Double stockDisponible;
-
-                // Intentar procesar como resultado de consulta JPQL
-                if (result[0] instanceof Lote) {
-                    lote = (Lote) result[0];
-                    stockDisponible = (Double) result[1];
-                }
-                // Procesar como resultado de consulta SQL nativa
-                else {
-                    // Para SQL nativo, necesitamos buscar el lote por ID
-                    Long loteId = null;
-
-                    // El primer elemento podría ser un número (ID del lote)
-                    if (result[0] instanceof Number) {
-                        loteId = ((Number) result[0]).longValue();
-                    }
-                    // O podría ser un mapa con los valores de las columnas
-                    else if (result[0] instanceof Map) {
-                        Map<String, Object> map = (Map<String, Object>) result[0];
-                        loteId = ((Number) map.get("id")).longValue();
-                    }
-
-                    // Si no pudimos obtener el ID del lote, continuamos con el siguiente
-                    if (loteId == null) {
-                        log.warn("No se pudo obtener el ID del lote del resultado de la consulta");
-                        continue;
-                    }
-
-                    // Buscar el lote por ID
-                    Optional<Lote> optionalLote = loteRepo.findById(loteId);
-                    if (!optionalLote.isPresent()) {
-                        log.warn("No se encontró el lote con ID: " + loteId);
-                        continue;
-                    }
-
-                    lote = optionalLote.get();
-
-                    // El stock disponible podría estar en diferentes posiciones según la consulta
-                    if (result.length > 1 && result[1] instanceof Number) {
-                        stockDisponible = ((Number) result[1]).doubleValue();
-                    } else {
-                        log.warn("No se pudo obtener el stock disponible del resultado de la consulta");
-                        continue;
-                    }
-                }
-
-                // Filtrar solo lotes con stock disponible mayor a 0 (doble verificación)
-                if (stockDisponible == null || stockDisponible <= 0) {
-                    continue;
-                }
-
-                // Crear DTO para este lote
-                LoteRecomendadoDTO loteDTO = new LoteRecomendadoDTO();
-                loteDTO.setLoteId(lote.getId());
-                loteDTO.setBatchNumber(lote.getBatchNumber());
-                loteDTO.setProductionDate(lote.getProductionDate());
-                loteDTO.setExpirationDate(lote.getExpirationDate());
-                loteDTO.setCantidadDisponible(stockDisponible);
-                loteDTO.setCantidadRecomendada(0); // No estamos recomendando cantidades
-
-                todosLotesDisponibles.add(loteDTO);
-            } catch (Exception e) {
-                log.error("Error al procesar lote disponible: " + e.getMessage(), e);
-                // Continuamos con el siguiente lote
-            }
-        }
-
-        // Calcular información de paginación
-        long totalElements = todosLotesDisponibles.size();
-        int totalPages = (int) Math.ceil((double) totalElements / size);
-
-        // Aplicar paginación manual
-        int startIndex = page * size;
-        int endIndex = Math.min(startIndex + size, todosLotesDisponibles.size());
-
-        List<LoteRecomendadoDTO> lotesPaginados = startIndex < todosLotesDisponibles.size() 
-            ? todosLotesDisponibles.subList(startIndex, endIndex)
-            : new ArrayList<>();
-
-        // Configurar respuesta paginada
-        responseDTO.setLotesDisponibles(lotesPaginados);
-        responseDTO.setTotalPages(totalPages);
-        responseDTO.setTotalElements(totalElements);
-        responseDTO.setCurrentPage(page);
-        responseDTO.setSize(size);
+        responseDTO.setLotesDisponibles(lotes.getContent().stream()
+                .map(lote -> LoteFefoService.toLoteRecomendado(lote, 0))
+                .collect(Collectors.toList()));
+        responseDTO.setTotalPages(lotes.getTotalPages());
+        responseDTO.setTotalElements(lotes.getTotalElements());
+        responseDTO.setCurrentPage(safePage);
+        responseDTO.setSize(safeSize);
 
         return responseDTO;
     }
@@ -963,12 +734,28 @@ public class SalidaAlmacenService {
         dispensacionDTO.setObservaciones("Recomendación automática de lotes para múltiples productos");
         dispensacionDTO.setItems(new ArrayList<>());
 
+        // Productos y lotes de todas las solicitudes en una consulta cada uno
+        Set<String> productoIds = items.stream()
+                .map(RecomendacionLotesRequestDTO::getProductoId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<String, Producto> productos = productoRepo.findAllById(productoIds).stream()
+                .collect(Collectors.toMap(Producto::getProductoId, producto -> producto));
+        Map<String, List<LoteStockRowDTO>> lotesPorProducto = loteFefoService.lotesDisponibles(productoIds, 0);
+
         // Procesar cada solicitud
         for (RecomendacionLotesRequestDTO item : items) {
             try {
+                Producto producto = productos.get(item.getProductoId());
+                if (producto == null) {
+                    throw new RuntimeException("Producto no encontrado con ID: " + item.getProductoId());
+                }
+
                 // Obtener recomendación para este producto
-                DispensacionNoPlanificadaDTO recomendacionIndividual = recomendarLotesParaDispensacion(
-                        item.getProductoId(), item.getCantidad());
+                DispensacionNoPlanificadaDTO recomendacionIndividual = recomendarLotes(
+                        producto,
+                        item.getCantidad(),
+                        lotesPorProducto.getOrDefault(producto.getProductoId(), List.of()));
 
                 // Agregar los items recomendados a la respuesta
                 dispensacionDTO.getItems().addAll(recomendacionIndividual.getItems());
@@ -0,0 +1,59 @@
+package exotic.app.planta.service.master.configs;
+
+import exotic.app.planta.model.master.configs.MasterDirective;
+import exotic.app.planta.model.master.configs.MasterDirectiveCambioEvent;
+import exotic.app.planta.repo.master.configs.MasterDirectiveRepo;
+import exotic.app.planta.service.commons.CacheInvalidable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Copia en memoria de los valores de las directivas maestras para las lecturas frecuentes
+ * de {@link MasterDirectiveService} (dispensacion, ruido, batch record, MPS).
+ *
+ * <p>Se carga en la primera lectura y se invalida al confirmar cualquier cambio de directiva
+ * ({@link MasterDirectiveCambioEvent}); la siguiente lectura la vuelve a cargar completa. La
+ * invalidacion periodica recoge los cambios hechos desde otra instancia. Las lecturas que
+ * necesitan bloqueo siguen yendo al repositorio.
+ */
+@Component
+@RequiredArgsConstructor
+public class MasterDirectiveRegistry {
+
+    private final MasterDirectiveRepo masterDirectiveRepo;
+
+    private final CacheInvalidable<Map<String, DirectivaCacheada>> directivas = new CacheInvalidable<>(this::cargar);
+
+    public Optional<DirectivaCacheada> buscar(String nombre) {
+        return Optional.ofNullable(directivas.obtener().get(nombre));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCambio(MasterDirectiveCambioEvent event) {
+        directivas.invalidar();
+    }
+
+    @Scheduled(fixedDelayString = "${app.master-directives.recarga-ms:30000}")
+    public void recargar() {
+        directivas.invalidar();
+    }
+
+    private Map<String, DirectivaCacheada> cargar() {
+        return masterDirectiveRepo.findAll().stream()
+                .map(directive -> new DirectivaCacheada(directive.getNombre(), directive.getValor()))
+                .collect(Collectors.toUnmodifiableMap(DirectivaCacheada::nombre, Function.identity()));
+    }
+
+    /**
+     * Valor de una {@link MasterDirective} tal como esta guardado.
+     */
+    public record DirectivaCacheada(String nombre, String valor) {}
+}
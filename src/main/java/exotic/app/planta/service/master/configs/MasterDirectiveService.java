@@ -18,7 +18,9 @@ import java.util.List;
 import java.util.Optional;
 
 /**
- * Servicio para gestionar las directivas maestras de configuración
+ * Servicio para gestionar las directivas maestras de configuración.
+ * Los getters tipados leen de {@link MasterDirectiveRegistry}; solo el bloqueo de batch record
+ * y la actualizacion van a la base de datos.
  */
 @Service
 @RequiredArgsConstructor
@@ -30,6 +32,7 @@ public class MasterDirectiveService {
 
     private final MasterDirectiveRepo masterDirectiveRepo;
     private final BatchRecordRepo batchRecordRepo;
+    private final MasterDirectiveRegistry masterDirectiveRegistry;
 
     /**
      * Obtiene todas las directivas maestras
@@ -167,14 +170,14 @@ public class MasterDirectiveService {
     }
 
     public int getPositiveIntegerDirectiveValue(String nombre, int fallback) {
-        Optional<MasterDirective> directiveOpt = masterDirectiveRepo.findByNombre(nombre);
+        Optional<MasterDirectiveRegistry.DirectivaCacheada> directiveOpt = masterDirectiveRegistry.buscar(nombre);
         if (directiveOpt.isEmpty()) {
             log.warn("Directiva maestra {} no encontrada. Usando fallback {}", nombre, fallback);
             return fallback;
         }
 
         try {
-            return parsePositiveInteger(directiveOpt.get().getValor(), nombre);
+            return parsePositiveInteger(directiveOpt.get().valor(), nombre);
         } catch (IllegalArgumentException e) {
             log.warn("Valor invalido para directiva maestra {}. Usando fallback {}. Causa: {}",
                     nombre, fallback, e.getMessage());
@@ -183,14 +186,14 @@ public class MasterDirectiveService {
     }
 
     public boolean getBooleanDirectiveValue(String nombre, boolean fallback) {
-        Optional<MasterDirective> directiveOpt = masterDirectiveRepo.findByNombre(nombre);
+        Optional<MasterDirectiveRegistry.DirectivaCacheada> directiveOpt = masterDirectiveRegistry.buscar(nombre);
         if (directiveOpt.isEmpty()) {
             log.warn("Directiva maestra {} no encontrada. Usando fallback {}", nombre, fallback);
             return fallback;
         }
 
         try {
-            return parseBoolean(directiveOpt.get().getValor(), nombre);
+            return parseBoolean(directiveOpt.get().valor(), nombre);
         } catch (IllegalArgumentException e) {
             log.warn("Valor invalido para directiva maestra {}. Usando fallback {}. Causa: {}",
                     nombre, fallback, e.getMessage());
@@ -199,14 +202,14 @@ public class MasterDirectiveService {
     }
 
     public int getIntegerDirectiveValueInRange(String nombre, int fallback, int min, int max) {
-        Optional<MasterDirective> directiveOpt = masterDirectiveRepo.findByNombre(nombre);
+        Optional<MasterDirectiveRegistry.DirectivaCacheada> directiveOpt = masterDirectiveRegistry.buscar(nombre);
         if (directiveOpt.isEmpty()) {
             log.warn("Directiva maestra {} no encontrada. Usando fallback {}", nombre, fallback);
             return fallback;
         }
 
         try {
-            return parseIntegerInRange(directiveOpt.get().getValor(), nombre, min, max);
+            return parseIntegerInRange(directiveOpt.get().valor(), nombre, min, max);
         } catch (IllegalArgumentException e) {
             log.warn("Valor invalido para directiva maestra {}. Usando fallback {}. Causa: {}",
                     nombre, fallback, e.getMessage());
@@ -4,51 +4,208 @@ import exotic.app.planta.config.initializers.AreaOperativaInitializer;
 import exotic.app.planta.model.organizacion.AreaOperativa;
 import exotic.app.planta.model.produccion.ActorTipoEventoSeguimiento;
 import exotic.app.planta.model.produccion.EstadoSeguimientoOrdenArea;
+import exotic.app.planta.model.produccion.TableroAreaCambioEvent;
 import exotic.app.planta.model.produccion.TipoEventoSeguimiento;
 import exotic.app.planta.model.produccion.dto.AreaOperativaInactivityAlertDTO;
 import exotic.app.planta.model.produccion.dto.AreaOperativaInactivityAlertDTO.EstadoAlertaInactividad;
 import exotic.app.planta.repo.produccion.SeguimientoOrdenAreaEventoRepo;
 import exotic.app.planta.repo.produccion.SeguimientoOrdenAreaRepo;
 import exotic.app.planta.repo.producto.procesos.AreaProduccionRepo;
+import exotic.app.planta.service.commons.sse.SseCanal;
+import exotic.app.planta.service.commons.sse.SseDifusor;
 import exotic.app.planta.service.master.configs.MasterDirectiveService;
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.Clock;
 import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.function.Function;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
+/**
+ * Alertas de inactividad de las areas operativas a partir de un estado en memoria por area
+ * (ultima terminacion de operario y si tiene carga activa).
+ *
+ * <p>El estado se siembra al arrancar y cada {@link #REFRESCO_COMPLETO}; entre tanto, cada
+ * commit que toca seguimientos u operaciones de OF ({@link TableroAreaCambioEvent}) marca su
+ * area y {@link #evaluar()} la vuelve a leer sola. La evaluacion recorre las areas en memoria
+ * con la hora actual, asi que una alerta se dispara cuando vence el umbral y se envia a los
+ * suscriptores del stream sin esperar a que alguien consulte. Los envios van por el
+ * {@link SseDifusor}.
+ */
 @Service
-@RequiredArgsConstructor
+@Slf4j
 public class AreaOperativaInactivityAlertService {
 
+    static final Duration REFRESCO_COMPLETO = Duration.ofMinutes(5);
+    static final String EVENTO_ALERTAS = "alertas-inactividad";
+    private static final List<Integer> ESTADOS_CARGA_ACTIVA = List.of(
+            EstadoSeguimientoOrdenArea.ESPERA.getCode(),
+            EstadoSeguimientoOrdenArea.EN_PROCESO.getCode()
+    );
+
     private final AreaProduccionRepo areaProduccionRepo;
     private final SeguimientoOrdenAreaEventoRepo seguimientoOrdenAreaEventoRepo;
     private final SeguimientoOrdenAreaRepo seguimientoOrdenAreaRepo;
     private final MasterDirectiveService masterDirectiveService;
     private final Clock applicationClock;
+    private final SseCanal<Void> suscripciones;
+
+    private final Object sincronizacion = new Object();
+    private final Set<Integer> pendientes = ConcurrentHashMap.newKeySet();
+    /** Areas monitoreables ordenadas por nombre; se reemplaza completo en cada cambio. */
+    private volatile Map<Integer, ActividadArea> actividad;
+    private volatile Instant ultimoRefrescoCompleto;
+    private volatile Set<Integer> areasEnAlerta = Set.of();
+
+    public AreaOperativaInactivityAlertService(
+            AreaProduccionRepo areaProduccionRepo,
+            SeguimientoOrdenAreaEventoRepo seguimientoOrdenAreaEventoRepo,
+            SeguimientoOrdenAreaRepo seguimientoOrdenAreaRepo,
+            MasterDirectiveService masterDirectiveService,
+            Clock applicationClock,
+            SseDifusor sseDifusor
+    ) {
+        this.areaProduccionRepo = areaProduccionRepo;
+        this.seguimientoOrdenAreaEventoRepo = seguimientoOrdenAreaEventoRepo;
+        this.seguimientoOrdenAreaRepo = seguimientoOrdenAreaRepo;
+        this.masterDirectiveService = masterDirectiveService;
+        this.applicationClock = applicationClock;
+        this.suscripciones = sseDifusor.canal("INACTIVIDAD");
+    }
 
-    @Transactional(readOnly = true)
     public List<AreaOperativaInactivityAlertDTO> getAlertasInactividad() {
+        return construirAlertas(asegurarSembrado());
+    }
+
+    /**
+     * Abre el stream de alertas. Envia la lista completa al conectar y cada vez que un area
+     * entra o sale de alerta.
+     */
+    public SseEmitter suscribir() {
+        return suscripciones.suscribir(null, EVENTO_ALERTAS, getAlertasInactividad());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void sembrar() {
         List<AreaOperativa> areas = areaProduccionRepo
                 .findAllByResponsableAreaIsNotNullAndAreaIdNotOrderByNombreAsc(
                         AreaOperativaInitializer.ALMACEN_GENERAL_ID);
+        List<Integer> areaIds = areas.stream().map(AreaOperativa::getAreaId).toList();
+        Map<Integer, LocalDateTime> ultimaTerminacion = cargarUltimasTerminaciones(areaIds);
+        Set<Integer> conCargaActiva = cargarAreasConCargaActiva(areaIds);
 
-        if (areas.isEmpty()) {
-            return List.of();
+        Map<Integer, ActividadArea> nueva = new LinkedHashMap<>();
+        for (AreaOperativa area : areas) {
+            nueva.put(area.getAreaId(), new ActividadArea(
+                    area.getAreaId(),
+                    area.getNombre(),
+                    ultimaTerminacion.get(area.getAreaId()),
+                    conCargaActiva.contains(area.getAreaId())));
+        }
+        synchronized (sincronizacion) {
+            pendientes.clear();
+            actividad = nueva;
+            ultimoRefrescoCompleto = applicationClock.instant();
+        }
+        log.debug("[INACTIVIDAD] estado sembrado para {} areas", nueva.size());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCambio(TableroAreaCambioEvent event) {
+        pendientes.add(event.areaId());
+    }
+
+    /**
+     * Relee las areas marcadas, evalua las alertas en memoria y avisa a los suscriptores si
+     * alguna area entro o salio de alerta.
+     */
+    @Scheduled(fixedDelayString = "${app.inactividad.evaluacion-ms:30000}")
+    public void evaluar() {
+        Map<Integer, ActividadArea> actual = asegurarSembrado();
+        if (!applicationClock.instant().isBefore(ultimoRefrescoCompleto.plus(REFRESCO_COMPLETO))) {
+            sembrar();
+        } else if (!pendientes.isEmpty()) {
+            refrescarPendientes(actual);
+        }
+
+        List<AreaOperativaInactivityAlertDTO> alertas = construirAlertas(actividad);
+        Set<Integer> enAlerta = alertas.stream()
+                .filter(AreaOperativaInactivityAlertDTO::isAlertaActiva)
+                .map(AreaOperativaInactivityAlertDTO::getAreaId)
+                .collect(Collectors.toUnmodifiableSet());
+        Set<Integer> anteriores = areasEnAlerta;
+        if (enAlerta.equals(anteriores)) {
+            return;
+        }
+        areasEnAlerta = enAlerta;
+        alertas.stream()
+                .filter(alerta -> alerta.isAlertaActiva() && !anteriores.contains(alerta.getAreaId()))
+                .forEach(alerta -> log.info("[INACTIVIDAD] area {} sin terminaciones hace {} min con carga activa",
+                        alerta.getAreaNombre(), alerta.getMinutosDesdeUltimaTerminacion()));
+        suscripciones.difundir(EVENTO_ALERTAS, alertas);
+    }
+
+    int suscriptores() {
+        return suscripciones.suscriptores();
+    }
+
+    private Map<Integer, ActividadArea> asegurarSembrado() {
+        Map<Integer, ActividadArea> actual = actividad;
+        if (actual == null) {
+            synchronized (sincronizacion) {
+                if (actividad == null) {
+                    sembrar();
+                }
+                actual = actividad;
+            }
         }
+        return actual;
+    }
 
-        List<Integer> areaIds = areas.stream()
-                .map(AreaOperativa::getAreaId)
+    private void refrescarPendientes(Map<Integer, ActividadArea> actual) {
+        List<Integer> areaIds = pendientes.stream()
+                .filter(actual::containsKey)
                 .toList();
+        pendientes.removeAll(areaIds);
+        pendientes.retainAll(actual.keySet());
+        if (areaIds.isEmpty()) {
+            return;
+        }
+        Map<Integer, LocalDateTime> ultimaTerminacion = cargarUltimasTerminaciones(areaIds);
+        Set<Integer> conCargaActiva = cargarAreasConCargaActiva(areaIds);
 
-        Map<Integer, LocalDateTime> ultimaTerminacionByAreaId = seguimientoOrdenAreaEventoRepo
+        synchronized (sincronizacion) {
+            Map<Integer, ActividadArea> nueva = new LinkedHashMap<>(actividad);
+            for (Integer areaId : areaIds) {
+                nueva.computeIfPresent(areaId, (id, area) -> new ActividadArea(
+                        id,
+                        area.nombre(),
+                        ultimaTerminacion.get(id),
+                        conCargaActiva.contains(id)));
+            }
+            actividad = nueva;
+        }
+    }
+
+    private Map<Integer, LocalDateTime> cargarUltimasTerminaciones(Collection<Integer> areaIds) {
+        if (areaIds.isEmpty()) {
+            return Map.of();
+        }
+        return seguimientoOrdenAreaEventoRepo
                 .findUltimasTerminacionesByAreaIds(
                         areaIds,
                         ActorTipoEventoSeguimiento.USER,
@@ -56,72 +213,66 @@ public class AreaOperativaInactivityAlertService {
                         EstadoSeguimientoOrdenArea.COMPLETADO.getCode()
                 )
                 .stream()
+                .filter(projection -> projection.getUltimaTerminacionAt() != null)
                 .collect(Collectors.toMap(
                         SeguimientoOrdenAreaEventoRepo.UltimaTerminacionAreaProjection::getAreaId,
                         SeguimientoOrdenAreaEventoRepo.UltimaTerminacionAreaProjection::getUltimaTerminacionAt
                 ));
+    }
 
-        Set<Integer> areasConCargaActiva = seguimientoOrdenAreaRepo
-                .countCargaActivaByAreaIds(
-                        areaIds,
-                        List.of(
-                                EstadoSeguimientoOrdenArea.ESPERA.getCode(),
-                                EstadoSeguimientoOrdenArea.EN_PROCESO.getCode()
-                        )
-                )
+    private Set<Integer> cargarAreasConCargaActiva(Collection<Integer> areaIds) {
+        if (areaIds.isEmpty()) {
+            return Set.of();
+        }
+        return seguimientoOrdenAreaRepo
+                .countCargaActivaByAreaIds(areaIds, ESTADOS_CARGA_ACTIVA)
                 .stream()
                 .filter(projection -> projection.getTotal() != null && projection.getTotal() > 0)
                 .map(SeguimientoOrdenAreaRepo.CargaActivaAreaProjection::getAreaId)
                 .collect(Collectors.toSet());
+    }
 
+    private List<AreaOperativaInactivityAlertDTO> construirAlertas(Map<Integer, ActividadArea> areas) {
+        if (areas.isEmpty()) {
+            return List.of();
+        }
         boolean alertsEnabled = masterDirectiveService.isAreaOperativaInactivityAlertEnabled();
         int thresholdMinutes = masterDirectiveService.getAreaOperativaInactivityThresholdMinutes();
         int checkIntervalMinutes = masterDirectiveService.getAreaOperativaInactivityCheckIntervalMinutes();
         LocalDateTime now = LocalDateTime.now(applicationClock);
 
-        return areas.stream()
-                .map(toAlertDto(
-                        ultimaTerminacionByAreaId,
-                        areasConCargaActiva,
-                        alertsEnabled,
-                        thresholdMinutes,
-                        checkIntervalMinutes,
-                        now
-                ))
+        return areas.values().stream()
+                .map(area -> toAlertDto(area, alertsEnabled, thresholdMinutes, checkIntervalMinutes, now))
                 .toList();
     }
 
-    private Function<AreaOperativa, AreaOperativaInactivityAlertDTO> toAlertDto(
-            Map<Integer, LocalDateTime> ultimaTerminacionByAreaId,
-            Set<Integer> areasConCargaActiva,
+    private AreaOperativaInactivityAlertDTO toAlertDto(
+            ActividadArea area,
             boolean alertsEnabled,
             int thresholdMinutes,
             int checkIntervalMinutes,
             LocalDateTime now
     ) {
-        return area -> {
-            LocalDateTime ultimaTerminacionAt = ultimaTerminacionByAreaId.get(area.getAreaId());
-            Long minutosDesdeUltimaTerminacion = resolveMinutosDesdeUltimaTerminacion(ultimaTerminacionAt, now);
-            boolean tieneCargaActiva = areasConCargaActiva.contains(area.getAreaId());
-            boolean alertaActiva = alertsEnabled
-                    && tieneCargaActiva
-                    && minutosDesdeUltimaTerminacion != null
-                    && minutosDesdeUltimaTerminacion >= thresholdMinutes;
-            EstadoAlertaInactividad estado = resolveEstado(ultimaTerminacionAt, alertaActiva);
-
-            return AreaOperativaInactivityAlertDTO.builder()
-                    .areaId(area.getAreaId())
-                    .areaNombre(area.getNombre())
-                    .estado(estado)
-                    .alertaActiva(alertaActiva)
-                    .tieneCargaActiva(tieneCargaActiva)
-                    .ultimaTerminacionAt(ultimaTerminacionAt)
-                    .minutosDesdeUltimaTerminacion(minutosDesdeUltimaTerminacion)
-                    .thresholdMinutes(thresholdMinutes)
-                    .checkIntervalMinutes(checkIntervalMinutes)
-                    .alertsEnabled(alertsEnabled)
-                    .build();
-        };
+        LocalDateTime ultimaTerminacionAt = area.ultimaTerminacionAt();
+        Long minutosDesdeUltimaTerminacion = resolveMinutosDesdeUltimaTerminacion(ultimaTerminacionAt, now);
+        boolean alertaActiva = alertsEnabled
+                && area.tieneCargaActiva()
+                && minutosDesdeUltimaTerminacion != null
+                && minutosDesdeUltimaTerminacion >= thresholdMinutes;
+        EstadoAlertaInactividad estado = resolveEstado(ultimaTerminacionAt, alertaActiva);
+
+        return AreaOperativaInactivityAlertDTO.builder()
+                .areaId(area.areaId())
+                .areaNombre(area.nombre())
+                .estado(estado)
+                .alertaActiva(alertaActiva)
+                .tieneCargaActiva(area.tieneCargaActiva())
+                .ultimaTerminacionAt(ultimaTerminacionAt)
+                .minutosDesdeUltimaTerminacion(minutosDesdeUltimaTerminacion)
+                .thresholdMinutes(thresholdMinutes)
+                .checkIntervalMinutes(checkIntervalMinutes)
+                .alertsEnabled(alertsEnabled)
+                .build();
     }
 
     private Long resolveMinutosDesdeUltimaTerminacion(LocalDateTime ultimaTerminacionAt, LocalDateTime now) {
@@ -137,4 +288,11 @@ public class AreaOperativaInactivityAlertService {
         }
         return alertaActiva ? EstadoAlertaInactividad.INACTIVA : EstadoAlertaInactividad.ACTIVA;
     }
+
+    private record ActividadArea(
+            int areaId,
+            String nombre,
+            LocalDateTime ultimaTerminacionAt,
+            boolean tieneCargaActiva
+    ) {}
 }
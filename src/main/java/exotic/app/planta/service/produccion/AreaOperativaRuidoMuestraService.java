@@ -3,8 +3,10 @@ package exotic.app.planta.service.produccion;
 import exotic.app.planta.config.AppTime;
 import exotic.app.planta.model.organizacion.AreaOperativa;
 import exotic.app.planta.model.produccion.AreaOperativaRuidoMuestra;
+import exotic.app.planta.model.produccion.ResolucionRuido;
 import exotic.app.planta.model.users.User;
 import exotic.app.planta.repo.produccion.AreaOperativaRuidoMuestraRepo;
+import exotic.app.planta.repo.produccion.AreaOperativaRuidoRollupRepo;
 import exotic.app.planta.repo.producto.procesos.AreaProduccionRepo;
 import exotic.app.planta.service.master.configs.MasterDirectiveService;
 import lombok.AllArgsConstructor;
@@ -18,7 +20,9 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 @Service
 @RequiredArgsConstructor
@@ -32,8 +36,10 @@ public class AreaOperativaRuidoMuestraService {
     private static final double MAX_RUIDO_DB = 20.0;
     private static final double MIN_RMS = 0.0;
     private static final double MAX_RMS = 1.0;
+    private static final int MAX_MUESTRAS_LOTE = 200;
 
     private final AreaOperativaRuidoMuestraRepo areaOperativaRuidoMuestraRepo;
+    private final AreaOperativaRuidoRollupRepo areaOperativaRuidoRollupRepo;
     private final AreaProduccionRepo areaProduccionRepo;
     private final MasterDirectiveService masterDirectiveService;
 
@@ -42,16 +48,42 @@ public class AreaOperativaRuidoMuestraService {
         if (request == null) {
             throw new IllegalArgumentException("La muestra de ruido es requerida.");
         }
+        return registrar(user, List.of(request)).get(0);
+    }
+
+    /**
+     * Registra en una sola transaccion las muestras que la tablet acumulo sin conexion. El
+     * control de frecuencia se aplica al lote completo y, dentro del lote, las muestras deben
+     * estar separadas por el intervalo de la directiva segun su {@code fechaMuestra}.
+     */
+    @Transactional
+    public List<AreaOperativaRuidoMuestraResponse> registrarMuestras(
+            User user,
+            List<AreaOperativaRuidoMuestraRequest> requests
+    ) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("El lote de muestras de ruido es requerido.");
+        }
+        if (requests.size() > MAX_MUESTRAS_LOTE) {
+            throw new IllegalArgumentException("El lote admite maximo " + MAX_MUESTRAS_LOTE + " muestras.");
+        }
+        if (requests.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("El lote contiene muestras vacias.");
+        }
+        return registrar(user, requests);
+    }
 
+    private List<AreaOperativaRuidoMuestraResponse> registrar(User user, List<AreaOperativaRuidoMuestraRequest> requests) {
         if (!masterDirectiveService.isAreaOperativaNoiseEnabled()) {
             throw new AreaOperativaRuidoDeshabilitadaException("La medicion de ruido del area operativa esta deshabilitada por directiva.");
         }
 
         AreaOperativa areaOperativa = resolveAreaResponsable(user);
-        validateRequest(request);
+        requests.forEach(this::validateRequest);
 
         LocalDateTime now = AppTime.now();
-        LocalDateTime rateLimitThreshold = now.minusMinutes(masterDirectiveService.getAreaOperativaNoiseIntervalMinutes());
+        int intervalMinutes = masterDirectiveService.getAreaOperativaNoiseIntervalMinutes();
+        LocalDateTime rateLimitThreshold = now.minusMinutes(intervalMinutes);
         boolean hasRecentSample = areaOperativaRuidoMuestraRepo.existsByAreaOperativa_AreaIdAndUsuario_IdAndCreatedAtAfter(
                 areaOperativa.getAreaId(),
                 user.getId(),
@@ -61,28 +93,57 @@ public class AreaOperativaRuidoMuestraService {
             throw new IllegalStateException("Ya existe una muestra reciente para esta area operativa.");
         }
 
-        AreaOperativaRuidoMuestra muestra = new AreaOperativaRuidoMuestra();
-        muestra.setAreaOperativa(areaOperativa);
-        muestra.setUsuario(user);
-        muestra.setFechaMuestra(toAppLocalDateTime(request.getFechaMuestra(), now));
-        muestra.setRuidoDb(request.getRuidoDb());
-        muestra.setRms(request.getRms());
-        muestra.setDuracionMs(request.getDuracionMs());
-        muestra.setSampleRate(request.getSampleRate());
-        muestra.setCreatedAt(now);
-
-        AreaOperativaRuidoMuestra saved = areaOperativaRuidoMuestraRepo.save(muestra);
-
-        return AreaOperativaRuidoMuestraResponse.builder()
-                .id(saved.getId())
-                .areaOperativaId(areaOperativa.getAreaId())
-                .fechaMuestra(saved.getFechaMuestra())
-                .ruidoDb(saved.getRuidoDb())
-                .rms(saved.getRms())
-                .duracionMs(saved.getDuracionMs())
-                .sampleRate(saved.getSampleRate())
-                .createdAt(saved.getCreatedAt())
-                .build();
+        List<AreaOperativaRuidoMuestra> muestras = new ArrayList<>(requests.size());
+        for (AreaOperativaRuidoMuestraRequest request : requests) {
+            AreaOperativaRuidoMuestra muestra = new AreaOperativaRuidoMuestra();
+            muestra.setAreaOperativa(areaOperativa);
+            muestra.setUsuario(user);
+            muestra.setFechaMuestra(toAppLocalDateTime(request.getFechaMuestra(), now));
+            muestra.setRuidoDb(request.getRuidoDb());
+            muestra.setRms(request.getRms());
+            muestra.setDuracionMs(request.getDuracionMs());
+            muestra.setSampleRate(request.getSampleRate());
+            muestra.setCreatedAt(now);
+            muestras.add(muestra);
+        }
+        validateSpacing(muestras, intervalMinutes);
+
+        List<AreaOperativaRuidoMuestra> saved = areaOperativaRuidoMuestraRepo.saveAllAndFlush(muestras);
+        List<Long> ids = saved.stream().map(AreaOperativaRuidoMuestra::getId).toList();
+        for (ResolucionRuido resolucion : ResolucionRuido.values()) {
+            if (resolucion.esAgregada()) {
+                areaOperativaRuidoRollupRepo.acumular(ids, resolucion.name(), resolucion.getUnidadTruncado());
+            }
+        }
+
+        return saved.stream()
+                .map(muestra -> AreaOperativaRuidoMuestraResponse.builder()
+                        .id(muestra.getId())
+                        .areaOperativaId(areaOperativa.getAreaId())
+                        .fechaMuestra(muestra.getFechaMuestra())
+                        .ruidoDb(muestra.getRuidoDb())
+                        .rms(muestra.getRms())
+                        .duracionMs(muestra.getDuracionMs())
+                        .sampleRate(muestra.getSampleRate())
+                        .createdAt(muestra.getCreatedAt())
+                        .build())
+                .toList();
+    }
+
+    private void validateSpacing(List<AreaOperativaRuidoMuestra> muestras, int intervalMinutes) {
+        if (muestras.size() < 2) {
+            return;
+        }
+        List<LocalDateTime> fechas = muestras.stream()
+                .map(AreaOperativaRuidoMuestra::getFechaMuestra)
+                .sorted()
+                .toList();
+        for (int i = 1; i < fechas.size(); i++) {
+            if (fechas.get(i).isBefore(fechas.get(i - 1).plusMinutes(intervalMinutes))) {
+                throw new IllegalStateException("Las muestras del lote deben estar separadas al menos "
+                        + intervalMinutes + " minutos.");
+            }
+        }
     }
 
     private AreaOperativa resolveAreaResponsable(User user) {
@@ -0,0 +1,26 @@
+package exotic.app.planta.service.produccion;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Elimina las muestras de ruido crudas fuera de la retencion. Los agregados por hora y por dia
+ * ya las incluyen, asi que las series largas no cambian.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AreaOperativaRuidoRetencionScheduler {
+
+    private final AreaOperativaRuidoSerieService areaOperativaRuidoSerieService;
+
+    @Scheduled(cron = "0 45 2 * * *", zone = "America/Bogota")
+    public void aplicarRetencion() {
+        int eliminadas = areaOperativaRuidoSerieService.aplicarRetencion();
+        if (eliminadas > 0) {
+            log.info("Ruido: {} muestras crudas eliminadas por retencion.", eliminadas);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package exotic.app.planta.service.produccion;
+
+import exotic.app.planta.config.AppTime;
+import exotic.app.planta.model.produccion.AreaOperativaRuidoMuestra;
+import exotic.app.planta.model.produccion.AreaOperativaRuidoRollup;
+import exotic.app.planta.model.produccion.ResolucionRuido;
+import exotic.app.planta.repo.produccion.AreaOperativaRuidoMuestraRepo;
+import exotic.app.planta.repo.produccion.AreaOperativaRuidoRollupRepo;
+import exotic.app.planta.repo.producto.procesos.AreaProduccionRepo;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Serie de ruido de un area operativa por rango de fechas. Cada resolucion lee su propio
+ * nivel: muestras crudas, agregados por hora o agregados por dia, de modo que el costo depende
+ * de los puntos devueltos y no de cuantas muestras se han capturado. Tambien aplica la
+ * retencion de las muestras crudas.
+ */
+@Service
+@Transactional(readOnly = true)
+public class AreaOperativaRuidoSerieService {
+
+    static final Duration MAX_RANGO_MUESTRA = Duration.ofDays(7);
+    static final Duration MAX_RANGO_HORA = Duration.ofDays(186);
+    static final Duration AUTO_MUESTRA_HASTA = Duration.ofDays(2);
+    static final Duration AUTO_HORA_HASTA = Duration.ofDays(62);
+
+    private final AreaOperativaRuidoMuestraRepo muestraRepo;
+    private final AreaOperativaRuidoRollupRepo rollupRepo;
+    private final AreaProduccionRepo areaProduccionRepo;
+    private final int retencionMuestrasDias;
+
+    public AreaOperativaRuidoSerieService(
+            AreaOperativaRuidoMuestraRepo muestraRepo,
+            AreaOperativaRuidoRollupRepo rollupRepo,
+            AreaProduccionRepo areaProduccionRepo,
+            @Value("${app.ruido.retencion-muestras-dias:90}") int retencionMuestrasDias
+    ) {
+        this.muestraRepo = muestraRepo;
+        this.rollupRepo = rollupRepo;
+        this.areaProduccionRepo = areaProduccionRepo;
+        this.retencionMuestrasDias = retencionMuestrasDias;
+    }
+
+    /**
+     * Serie en [desde, hasta). Sin resolucion se elige la mas fina que cubre el rango: muestras
+     * hasta {@link #AUTO_MUESTRA_HASTA} (si siguen retenidas), horas hasta
+     * {@link #AUTO_HORA_HASTA} y dias despues.
+     */
+    public AreaOperativaRuidoSerieDTO getSerie(
+            int areaId,
+            LocalDateTime desde,
+            LocalDateTime hasta,
+            ResolucionRuido resolucion
+    ) {
+        if (desde == null || hasta == null) {
+            throw new IllegalArgumentException("desde y hasta son obligatorias.");
+        }
+        if (!desde.isBefore(hasta)) {
+            throw new IllegalArgumentException("desde debe ser anterior a hasta.");
+        }
+        areaProduccionRepo.findById(areaId)
+                .orElseThrow(() -> new IllegalArgumentException("Area operativa no encontrada: " + areaId));
+
+        Duration rango = Duration.between(desde, hasta);
+        LocalDateTime inicioRetencion = inicioRetencion();
+        ResolucionRuido efectiva = resolucion != null ? resolucion : resolverResolucion(rango, desde, inicioRetencion);
+        validarRango(efectiva, rango, desde, inicioRetencion);
+
+        List<PuntoRuidoDTO> puntos = efectiva.esAgregada()
+                ? rollupRepo.findSerie(areaId, efectiva, desde, hasta).stream().map(this::toPunto).toList()
+                : muestraRepo.findSerie(areaId, desde, hasta).stream().map(this::toPunto).toList();
+
+        return AreaOperativaRuidoSerieDTO.builder()
+                .areaId(areaId)
+                .resolucion(efectiva)
+                .desde(desde)
+                .hasta(hasta)
+                .puntos(puntos)
+                .build();
+    }
+
+    @Transactional
+    public int aplicarRetencion() {
+        return muestraRepo.deleteByFechaMuestraBefore(inicioRetencion());
+    }
+
+    private LocalDateTime inicioRetencion() {
+        return AppTime.today().minusDays(retencionMuestrasDias).atStartOfDay();
+    }
+
+    private ResolucionRuido resolverResolucion(Duration rango, LocalDateTime desde, LocalDateTime inicioRetencion) {
+        if (rango.compareTo(AUTO_MUESTRA_HASTA) <= 0 && !desde.isBefore(inicioRetencion)) {
+            return ResolucionRuido.MUESTRA;
+        }
+        if (rango.compareTo(AUTO_HORA_HASTA) <= 0) {
+            return ResolucionRuido.HORA;
+        }
+        return ResolucionRuido.DIA;
+    }
+
+    private void validarRango(
+            ResolucionRuido resolucion,
+            Duration rango,
+            LocalDateTime desde,
+            LocalDateTime inicioRetencion
+    ) {
+        if (resolucion == ResolucionRuido.MUESTRA) {
+            if (rango.compareTo(MAX_RANGO_MUESTRA) > 0) {
+                throw new IllegalArgumentException("La resolucion MUESTRA admite rangos de maximo 7 dias.");
+            }
+            if (desde.isBefore(inicioRetencion)) {
+                throw new IllegalArgumentException("Las muestras crudas solo se conservan "
+                        + retencionMuestrasDias + " dias; use resolucion HORA o DIA.");
+            }
+        }
+        if (resolucion == ResolucionRuido.HORA && rango.compareTo(MAX_RANGO_HORA) > 0) {
+            throw new IllegalArgumentException("La resolucion HORA admite rangos de maximo 186 dias.");
+        }
+    }
+
+    private PuntoRuidoDTO toPunto(AreaOperativaRuidoRollup rollup) {
+        return PuntoRuidoDTO.builder()
+                .inicio(rollup.getBucketInicio())
+                .muestras(rollup.getMuestras())
+                .ruidoDbMin(rollup.getRuidoDbMin())
+                .ruidoDbMax(rollup.getRuidoDbMax())
+                .ruidoDbPromedio(rollup.getRuidoDbSuma() / rollup.getMuestras())
+                .rmsMin(rollup.getRmsMin())
+                .rmsMax(rollup.getRmsMax())
+                .rmsPromedio(rollup.getRmsSuma() / rollup.getMuestras())
+                .build();
+    }
+
+    private PuntoRuidoDTO toPunto(AreaOperativaRuidoMuestra muestra) {
+        return PuntoRuidoDTO.builder()
+                .inicio(muestra.getFechaMuestra())
+                .muestras(1)
+                .ruidoDbMin(muestra.getRuidoDb())
+                .ruidoDbMax(muestra.getRuidoDb())
+                .ruidoDbPromedio(muestra.getRuidoDb())
+                .rmsMin(muestra.getRms())
+                .rmsMax(muestra.getRms())
+                .rmsPromedio(muestra.getRms())
+                .build();
+    }
+
+    @Getter
+    @Builder
+    @AllArgsConstructor
+    public static class AreaOperativaRuidoSerieDTO {
+        private Integer areaId;
+        private ResolucionRuido resolucion;
+        private LocalDateTime desde;
+        private LocalDateTime hasta;
+        private List<PuntoRuidoDTO> puntos;
+    }
+
+    @Getter
+    @Builder
+    @AllArgsConstructor
+    public static class PuntoRuidoDTO {
+        private LocalDateTime inicio;
+        private int muestras;
+        private double ruidoDbMin;
+        private double ruidoDbMax;
+        private double ruidoDbPromedio;
+        private double rmsMin;
+        private double rmsMax;
+        private double rmsPromedio;
+    }
+}
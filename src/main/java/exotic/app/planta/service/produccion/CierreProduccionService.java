@@ -41,8 +41,8 @@ import java.util.Set;
 @RequiredArgsConstructor
 public class CierreProduccionService {
 
-    private static final int ESTADO_FABRICACION_COMPLETADA = 3;
-    private static final int ESTADO_TERMINADA = 2;
+    private static final int ESTADO_FABRICACION_COMPLETADA = OrdenProduccion.ESTADO_FABRICACION_COMPLETADA;
+    private static final int ESTADO_TERMINADA = OrdenProduccion.ESTADO_TERMINADA;
 
     private final CierreProduccionRepo cierreRepo;
     private final ReporteProduccionLoteRepo reporteRepo;
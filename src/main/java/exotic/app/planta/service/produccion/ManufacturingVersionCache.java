@@ -0,0 +1,324 @@
+package exotic.app.planta.service.produccion;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import exotic.app.planta.model.producto.Producto;
+import exotic.app.planta.model.producto.manufacturing.snapshots.ManufacturingVersionCambioEvent;
+import exotic.app.planta.model.producto.manufacturing.snapshots.ManufacturingVersions;
+import exotic.app.planta.repo.producto.manufacturing.snapshots.ManufacturingVersionRepo;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Recetas, empaque y proceso de las versiones de manufactura ya interpretados, mas un indice
+ * producto -> ultima version.
+ *
+ * <p>Las versiones no se modifican despues de creadas, asi que cada una se interpreta una sola
+ * vez y el resultado inmutable se comparte entre hilos por su id. Los interpretados viven en
+ * caches LRU acotados; al indexar una version nueva se descarta la receta de la que reemplaza.
+ * El indice de ultimas versiones se actualiza al confirmar cada version nueva o eliminada
+ * ({@link ManufacturingVersionCambioEvent}) y se relee entero en segundo plano: la primera
+ * consulta lo pide y, pasado {@link #RECARGA}, la siguiente pide otra lectura para recoger las
+ * versiones creadas desde otra instancia. Mientras tanto las consultas siguen con el indice
+ * anterior, que se reemplaza de una vez; ninguna espera a la base por el indice. Un producto que
+ * aun no esta en el indice se resuelve contra la base y queda indexado.
+ */
+@Component
+@Slf4j
+public class ManufacturingVersionCache {
+
+    static final int MAX_VERSIONES = 1024;
+    static final int MAX_RUTAS = 256;
+    static final Duration RECARGA = Duration.ofMinutes(1);
+
+    private final ManufacturingVersionRepo manufacturingVersionRepo;
+    private final ObjectMapper objectMapper;
+    private final Clock applicationClock;
+    private final Executor executor;
+
+    private final Map<Long, VersionCongelada> versiones = lru(MAX_VERSIONES);
+    private final Map<Long, RutaCongelada> rutas = lru(MAX_RUTAS);
+    private final Object sincronizacion = new Object();
+    private final AtomicBoolean recargando = new AtomicBoolean();
+    private volatile Map<String, VersionIndexada> ultimas;
+    private volatile Instant cargadoEn;
+    /** Eventos confirmados mientras corre una recarga; se aplican al indice nuevo antes de publicarlo. */
+    private List<ManufacturingVersionCambioEvent> cambiosDuranteRecarga;
+
+    @Autowired
+    public ManufacturingVersionCache(
+            ManufacturingVersionRepo manufacturingVersionRepo,
+            ObjectMapper objectMapper,
+            Clock applicationClock
+    ) {
+        this(manufacturingVersionRepo, objectMapper, applicationClock, Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "manufacturing-version-indice");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    public ManufacturingVersionCache(
+            ManufacturingVersionRepo manufacturingVersionRepo,
+            ObjectMapper objectMapper,
+            Clock applicationClock,
+            Executor executor
+    ) {
+        this.manufacturingVersionRepo = manufacturingVersionRepo;
+        this.objectMapper = objectMapper;
+        this.applicationClock = applicationClock;
+        this.executor = executor;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor instanceof ExecutorService service) {
+            service.shutdownNow();
+        }
+    }
+
+    /** Receta y empaque interpretados de la ultima version del producto. */
+    public Optional<VersionCongelada> ultima(Producto producto) {
+        VersionIndexada indexada = indice().get(producto.getProductoId());
+        if (indexada != null) {
+            VersionCongelada congelada = versiones.get(indexada.versionId());
+            if (congelada != null) {
+                return Optional.of(congelada);
+            }
+            Optional<ManufacturingVersions> version = manufacturingVersionRepo.findById(indexada.versionId());
+            if (version.isPresent()) {
+                return Optional.of(congelada(version.get()));
+            }
+        }
+        return manufacturingVersionRepo.findTopByProductoOrderByVersionNumberDesc(producto)
+                .map(this::indexarYCongelar);
+    }
+
+    /**
+     * Ultima version de cada producto indicado; los productos sin version no aparecen. Lee de
+     * la base, por lotes, solo las versiones que aun no estan interpretadas o indexadas.
+     */
+    public Map<String, VersionCongelada> ultimas(Collection<String> productoIds) {
+        Map<String, VersionIndexada> indice = indice();
+        Map<String, VersionCongelada> result = new HashMap<>();
+        Map<Long, String> sinInterpretar = new HashMap<>();
+        List<String> sinIndice = new ArrayList<>();
+        for (String productoId : productoIds) {
+            VersionIndexada indexada = indice.get(productoId);
+            if (indexada == null) {
+                sinIndice.add(productoId);
+                continue;
+            }
+            VersionCongelada congelada = versiones.get(indexada.versionId());
+            if (congelada != null) {
+                result.put(productoId, congelada);
+            } else {
+                sinInterpretar.put(indexada.versionId(), productoId);
+            }
+        }
+        if (!sinInterpretar.isEmpty()) {
+            manufacturingVersionRepo.findAllById(sinInterpretar.keySet())
+                    .forEach(version -> result.put(sinInterpretar.remove(version.getId()), congelada(version)));
+            sinIndice.addAll(sinInterpretar.values());
+        }
+        if (!sinIndice.isEmpty()) {
+            manufacturingVersionRepo.findLatestByProductoIds(sinIndice)
+                    .forEach(version -> result.put(version.getProducto().getProductoId(), indexarYCongelar(version)));
+        }
+        return result;
+    }
+
+    /**
+     * Entidad de la ultima version del producto para asociarla a una orden. Si el producto
+     * esta indexado devuelve una referencia sin consultar la base.
+     */
+    public Optional<ManufacturingVersions> ultimaVersion(Producto producto) {
+        VersionIndexada indexada = indice().get(producto.getProductoId());
+        if (indexada != null) {
+            return Optional.of(manufacturingVersionRepo.getReferenceById(indexada.versionId()));
+        }
+        Optional<ManufacturingVersions> version = manufacturingVersionRepo.findTopByProductoOrderByVersionNumberDesc(producto);
+        version.ifPresent(this::indexarYCongelar);
+        return version;
+    }
+
+    public VersionCongelada congelada(ManufacturingVersions version) {
+        if (version.getId() == null) {
+            return VersionCongelada.leer(version, objectMapper);
+        }
+        return memoizar(versiones, version.getId(), () -> VersionCongelada.leer(version, objectMapper));
+    }
+
+    /** Proceso congelado de la version; se interpreta solo al generar operaciones de una OF. */
+    public RutaCongelada ruta(ManufacturingVersions version) {
+        if (version.getId() == null) {
+            return RutaCongelada.leer(version.getProcesoProduccionJson(), objectMapper);
+        }
+        return memoizar(rutas, version.getId(),
+                () -> RutaCongelada.leer(version.getProcesoProduccionJson(), objectMapper));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCambio(ManufacturingVersionCambioEvent event) {
+        if (event.versionId() == null) return;
+        synchronized (sincronizacion) {
+            if (event.eliminada()) {
+                versiones.remove(event.versionId());
+                rutas.remove(event.versionId());
+            }
+            if (event.productoId() == null) return;
+            if (cambiosDuranteRecarga != null) {
+                cambiosDuranteRecarga.add(event);
+            }
+            if (ultimas != null) {
+                aplicar(ultimas, event);
+            }
+        }
+    }
+
+    /**
+     * Relee el indice de ultimas versiones y lo reemplaza de una vez. La consulta corre sin el
+     * candado; los eventos confirmados mientras tanto se reaplican sobre el indice nuevo para
+     * que una lectura iniciada antes de un commit no pise la version nueva.
+     */
+    void recargar() {
+        synchronized (sincronizacion) {
+            cambiosDuranteRecarga = new ArrayList<>();
+        }
+        Map<String, VersionIndexada> nuevas = new ConcurrentHashMap<>();
+        try {
+            manufacturingVersionRepo.findUltimasVersiones().forEach(fila -> nuevas.merge(
+                    fila.getProductoId(),
+                    new VersionIndexada(fila.getVersionId(), fila.getVersionNumber()),
+                    ManufacturingVersionCache::masReciente));
+        } catch (RuntimeException e) {
+            synchronized (sincronizacion) {
+                cambiosDuranteRecarga = null;
+            }
+            throw e;
+        }
+        synchronized (sincronizacion) {
+            cambiosDuranteRecarga.forEach(cambio -> aplicar(nuevas, cambio));
+            cambiosDuranteRecarga = null;
+            cargadoEn = applicationClock.instant();
+            ultimas = nuevas;
+        }
+    }
+
+    /**
+     * Indice publicado, aunque este vencido; si falta o vencio pide una recarga en segundo plano.
+     * Antes de la primera carga devuelve un indice vacio y cada producto se resuelve en la base.
+     */
+    private Map<String, VersionIndexada> indice() {
+        Map<String, VersionIndexada> actual = ultimas;
+        if (actual == null || vencido()) {
+            programarRecarga();
+            actual = ultimas;
+        }
+        return actual != null ? actual : Map.of();
+    }
+
+    private void programarRecarga() {
+        if (!recargando.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    recargar();
+                } catch (RuntimeException e) {
+                    log.warn("[MANUFACTURING-VERSION] no se pudo recargar el indice de ultimas versiones", e);
+                } finally {
+                    recargando.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            recargando.set(false);
+        }
+    }
+
+    private boolean vencido() {
+        return !applicationClock.instant().isBefore(cargadoEn.plus(RECARGA));
+    }
+
+    private void aplicar(Map<String, VersionIndexada> indice, ManufacturingVersionCambioEvent event) {
+        if (event.eliminada()) {
+            indice.computeIfPresent(event.productoId(), (ignored, actual) ->
+                    actual.versionId().equals(event.versionId()) ? null : actual);
+        } else {
+            indexar(indice, event.productoId(), new VersionIndexada(event.versionId(), event.versionNumber()));
+        }
+    }
+
+    private VersionCongelada indexarYCongelar(ManufacturingVersions version) {
+        VersionCongelada congelada = congelada(version);
+        if (version.getId() != null && congelada.productoId() != null) {
+            synchronized (sincronizacion) {
+                if (ultimas != null) {
+                    indexar(ultimas, congelada.productoId(), new VersionIndexada(version.getId(), version.getVersionNumber()));
+                }
+            }
+        }
+        return congelada;
+    }
+
+    private void indexar(Map<String, VersionIndexada> indice, String productoId, VersionIndexada version) {
+        VersionIndexada anterior = indice.get(productoId);
+        VersionIndexada vigente = indice.merge(productoId, version, ManufacturingVersionCache::masReciente);
+        if (anterior != null && !anterior.versionId().equals(vigente.versionId())) {
+            // Las OF ya creadas con la version reemplazada la vuelven a interpretar si la piden.
+            versiones.remove(anterior.versionId());
+        }
+    }
+
+    private static VersionIndexada masReciente(VersionIndexada actual, VersionIndexada nueva) {
+        if (nueva.versionNumber() != actual.versionNumber()) {
+            return nueva.versionNumber() > actual.versionNumber() ? nueva : actual;
+        }
+        return nueva.versionId() > actual.versionId() ? nueva : actual;
+    }
+
+    private static <V> Map<Long, V> lru(int maxEntradas) {
+        return Collections.synchronizedMap(new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, V> eldest) {
+                return size() > maxEntradas;
+            }
+        });
+    }
+
+    /** Interpreta fuera del candado del mapa; si dos hilos compiten, gana el primero en guardar. */
+    private static <V> V memoizar(Map<Long, V> cache, Long id, Supplier<V> interpretar) {
+        V actual = cache.get(id);
+        if (actual != null) {
+            return actual;
+        }
+        V nuevo = interpretar.get();
+        V previo = cache.putIfAbsent(id, nuevo);
+        return previo != null ? previo : nuevo;
+    }
+
+    private record VersionIndexada(Long versionId, int versionNumber) {}
+}
@@ -9,7 +9,9 @@ import exotic.app.planta.model.producto.SemiTerminado;
 import exotic.app.planta.model.producto.Terminado;
 import exotic.app.planta.model.producto.manufacturing.snapshots.ManufacturingVersions;
 import exotic.app.planta.repo.producto.ProductoRepo;
-import exotic.app.planta.repo.producto.manufacturing.snapshots.ManufacturingVersionRepo;
+import exotic.app.planta.service.produccion.VersionCongelada.EmpaqueCongelado;
+import exotic.app.planta.service.produccion.VersionCongelada.EmpaqueItem;
+import exotic.app.planta.service.produccion.VersionCongelada.Ingredient;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -32,7 +34,7 @@ public class MaterialRequirementSnapshotService {
     private static final int SCALE = 6;
 
     private final ProductoRepo productoRepo;
-    private final ManufacturingVersionRepo manufacturingVersionRepo;
+    private final ManufacturingVersionCache manufacturingVersionCache;
     private final ObjectMapper objectMapper;
 
     public String construirJson(
@@ -42,8 +44,8 @@ public class MaterialRequirementSnapshotService {
     ) {
         validarBase(productoResultado, version, cantidadOrden);
         Map<String, Requirement> requirements = new LinkedHashMap<>();
-        expandirDispensables(version, cantidadOrden, requirements,
-                new LinkedHashSet<>(Set.of(productoResultado.getProductoId())));
+        expandirDispensables(manufacturingVersionCache.congelada(version).ingredientes(), cantidadOrden,
+                requirements, new LinkedHashSet<>(Set.of(productoResultado.getProductoId())));
         if (productoResultado instanceof Terminado) {
             agregarEmpaque(version, cantidadOrden, requirements);
         }
@@ -67,7 +69,8 @@ public class MaterialRequirementSnapshotService {
         }
         Map<String, SemiDemand> demandas = new LinkedHashMap<>();
         String rootId = version.getProducto() == null ? "<raiz>" : version.getProducto().getProductoId();
-        expandirOrdenes(version, cantidadOrden, demandas, new LinkedHashSet<>(Set.of(rootId)));
+        expandirOrdenes(manufacturingVersionCache.congelada(version).ingredientes(), cantidadOrden, demandas,
+                new LinkedHashSet<>(Set.of(rootId)));
         Map<SemiTerminado, BigDecimal> result = new LinkedHashMap<>();
         demandas.values().forEach(demanda -> result.put(demanda.semi(), demanda.cantidad()));
         return result;
@@ -104,17 +107,17 @@ public class MaterialRequirementSnapshotService {
     }
 
     private void expandirDispensables(
-            ManufacturingVersions version,
+            List<Ingredient> ingredientes,
             BigDecimal multiplicador,
             Map<String, Requirement> requirements,
             Set<String> ruta
     ) {
-        for (Ingredient ingredient : leerIngredientes(version)) {
+        for (Ingredient ingredient : ingredientes) {
             Producto producto = requireProducto(ingredient.productoId());
             BigDecimal cantidad = multiplicador.multiply(ingredient.cantidad()).setScale(SCALE, RoundingMode.HALF_UP);
             if (producto instanceof SemiTerminado semi && !semi.isRequiereOrdenFabricacion()) {
                 entrarRuta(ruta, semi.getProductoId());
-                expandirDispensables(requireLatestVersion(semi), cantidad, requirements, ruta);
+                expandirDispensables(requireLatestIngredientes(semi), cantidad, requirements, ruta);
                 ruta.remove(semi.getProductoId());
                 continue;
             }
@@ -129,12 +132,12 @@ public class MaterialRequirementSnapshotService {
     }
 
     private void expandirOrdenes(
-            ManufacturingVersions version,
+            List<Ingredient> ingredientes,
             BigDecimal multiplicador,
             Map<String, SemiDemand> demandas,
             Set<String> ruta
     ) {
-        for (Ingredient ingredient : leerIngredientes(version)) {
+        for (Ingredient ingredient : ingredientes) {
             Producto producto = requireProducto(ingredient.productoId());
             if (!(producto instanceof SemiTerminado semi)) continue;
             BigDecimal cantidad = multiplicador.multiply(ingredient.cantidad()).setScale(SCALE, RoundingMode.HALF_UP);
@@ -144,7 +147,7 @@ public class MaterialRequirementSnapshotService {
                         ? new SemiDemand(semi, cantidad)
                         : new SemiDemand(semi, actual.cantidad().add(cantidad)));
             }
-            expandirOrdenes(requireLatestVersion(semi), cantidad, demandas, ruta);
+            expandirOrdenes(requireLatestIngredientes(semi), cantidad, demandas, ruta);
             ruta.remove(semi.getProductoId());
         }
     }
@@ -154,53 +157,15 @@ public class MaterialRequirementSnapshotService {
             BigDecimal cantidadOrden,
             Map<String, Requirement> requirements
     ) {
-        String json = version.getCasePackJson();
-        if (json == null || json.isBlank() || "null".equals(json)) return;
-        try {
-            JsonNode casePack = objectMapper.readTree(json);
-            JsonNode items = casePack.path("insumosEmpaque");
-            if (!items.isArray()) return;
-            BigDecimal unitsPerCase = decimal(casePack.get("unitsPerCase"));
-            for (JsonNode item : items) {
-                Producto producto = requireProducto(textRequired(item, "materialId"));
-                BigDecimal configured = decimalRequired(item.get("cantidad"),
-                        "La cantidad del material de empaque es invalida.");
-                BigDecimal total = unitsPerCase != null && unitsPerCase.signum() > 0
-                        ? cantidadOrden.divide(unitsPerCase, SCALE, RoundingMode.HALF_UP).multiply(configured)
-                        : cantidadOrden.multiply(configured);
-                String unidadConfigurada = item.path("uom").asText(null);
-                addRequirement(
-                        requirements,
-                        producto,
-                        total,
-                        "MATERIAL_EMPAQUE",
-                        unidadConfigurada == null || unidadConfigurada.isBlank()
-                                ? unidadObligatoria(producto)
-                                : unidadConfigurada.trim());
-            }
-        } catch (JsonProcessingException exception) {
-            throw new IllegalStateException("No se pudo interpretar el empaque congelado.", exception);
-        }
-    }
-
-    private List<Ingredient> leerIngredientes(ManufacturingVersions version) {
-        String json = version.getInsumosJson();
-        if (json == null || json.isBlank()) return List.of();
-        try {
-            JsonNode root = objectMapper.readTree(json);
-            if (!root.isArray()) {
-                throw new IllegalStateException("La receta congelada no tiene formato de lista.");
-            }
-            List<Ingredient> result = new ArrayList<>();
-            for (JsonNode item : root) {
-                result.add(new Ingredient(
-                        textRequired(item, "productoId"),
-                        decimalRequired(item.get("cantidadRequerida"),
-                                "La cantidad requerida de la receta es invalida.")));
-            }
-            return result;
-        } catch (JsonProcessingException exception) {
-            throw new IllegalStateException("No se pudo interpretar la receta congelada.", exception);
+        EmpaqueCongelado empaque = manufacturingVersionCache.congelada(version).empaque();
+        for (EmpaqueItem item : empaque.items()) {
+            Producto producto = requireProducto(item.materialId());
+            addRequirement(
+                    requirements,
+                    producto,
+                    empaque.cantidad(item, cantidadOrden),
+                    "MATERIAL_EMPAQUE",
+                    item.unidadMedida() == null ? unidadObligatoria(producto) : item.unidadMedida());
         }
     }
 
@@ -244,8 +209,9 @@ public class MaterialRequirementSnapshotService {
         return unidad.trim();
     }
 
-    private ManufacturingVersions requireLatestVersion(SemiTerminado semi) {
-        return manufacturingVersionRepo.findTopByProductoOrderByVersionNumberDesc(semi)
+    private List<Ingredient> requireLatestIngredientes(SemiTerminado semi) {
+        return manufacturingVersionCache.ultima(semi)
+                .map(VersionCongelada::ingredientes)
                 .orElseThrow(() -> new IllegalStateException(
                         "El semiterminado " + semi.getProductoId()
                                 + " no tiene version de manufactura para explotar su receta."));
@@ -276,16 +242,6 @@ public class MaterialRequirementSnapshotService {
         return value.trim();
     }
 
-    private BigDecimal decimalRequired(JsonNode node, String message) {
-        BigDecimal value = decimal(node);
-        if (value == null || value.signum() <= 0) throw new IllegalStateException(message);
-        return value;
-    }
-
-    private BigDecimal decimal(JsonNode node) {
-        return node == null || node.isNull() || !node.isNumber() ? null : node.decimalValue();
-    }
-
     public record RequirementView(
             String productoId,
             String productoNombre,
@@ -296,7 +252,6 @@ public class MaterialRequirementSnapshotService {
             BigDecimal cantidad
     ) {}
 
-    private record Ingredient(String productoId, BigDecimal cantidad) {}
     private record SemiDemand(SemiTerminado semi, BigDecimal cantidad) {}
 
     private record Requirement(
@@ -1,26 +1,23 @@
 package exotic.app.planta.service.produccion;
 
 import exotic.app.planta.model.produccion.EstadoSeguimientoOrdenArea;
-import exotic.app.planta.model.produccion.SeguimientoOrdenArea;
-import exotic.app.planta.model.produccion.SeguimientoOrdenAreaEvento;
 import exotic.app.planta.repo.producto.procesos.AreaProduccionRepo;
-import exotic.app.planta.repo.produccion.SeguimientoOrdenAreaEventoRepo;
-import exotic.app.planta.repo.produccion.SeguimientoOrdenAreaRepo;
+import exotic.app.planta.repo.produccion.SeguimientoOrdenAreaIntervaloRepo;
+import exotic.app.planta.repo.produccion.SeguimientoOrdenAreaIntervaloRepo.ResumenEstadoProjection;
+import exotic.app.planta.service.empresa.CalendarioLaboral;
+import exotic.app.planta.service.empresa.CalendarioLaboralRegistry;
+import exotic.app.planta.service.produccion.SeguimientoOrdenAreaService.SeguimientoOrdenAreaDTO;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,9 +26,9 @@ import java.util.stream.Collectors;
 public class MonitoreoAreasOperativasMetricasService {
 
     private final SeguimientoOrdenAreaService seguimientoOrdenAreaService;
-    private final SeguimientoOrdenAreaRepo seguimientoOrdenAreaRepo;
-    private final SeguimientoOrdenAreaEventoRepo seguimientoOrdenAreaEventoRepo;
+    private final SeguimientoOrdenAreaIntervaloRepo seguimientoOrdenAreaIntervaloRepo;
     private final AreaProduccionRepo areaProduccionRepo;
+    private final CalendarioLaboralRegistry calendarioLaboralRegistry;
 
     public AreaOperativaMetricasDTO getMetricasArea(
             int areaId,
@@ -59,6 +56,11 @@ public class MonitoreoAreasOperativasMetricasService {
         dto.setFecha(tablero.getFechaConsulta());
         dto.setPromedioMinutosEspera(tablero.getPromedioMinutosEspera());
         dto.setPromedioMinutosEnProceso(tablero.getPromedioMinutosEnProceso());
+        CalendarioLaboral calendario = calendarioLaboralRegistry.vigente();
+        dto.setPromedioMinutosLaborablesEspera(
+                averageWorkingMinutes(tablero.getEspera(), tablero.getInstanteFoto(), calendario));
+        dto.setPromedioMinutosLaborablesEnProceso(
+                averageWorkingMinutes(tablero.getEnProceso(), tablero.getInstanteFoto(), calendario));
         dto.setMuestrasEspera(tablero.getEspera().size());
         dto.setMuestrasEnProceso(tablero.getEnProceso().size());
         return dto;
@@ -73,34 +75,32 @@ public class MonitoreoAreasOperativasMetricasService {
         areaProduccionRepo.findById(areaId)
                 .orElseThrow(() -> new IllegalArgumentException("Area operativa no encontrada: " + areaId));
 
-        List<SeguimientoOrdenArea> seguimientos = seguimientoOrdenAreaRepo.findTableroByAreaId(areaId);
-        Map<Long, List<SeguimientoOrdenAreaEvento>> eventosPorSeguimiento = loadEventosPorSeguimiento(seguimientos);
-
-        LocalDateTime inicioRango = fechaDesde != null ? fechaDesde.atStartOfDay() : null;
-        LocalDateTime finRango = fechaHasta != null ? LocalDateTime.of(fechaHasta, LocalTime.MAX) : null;
-
-        List<Long> muestrasEspera = collectClosedStateDurations(
-                eventosPorSeguimiento.values(),
+        List<Integer> estados = List.of(
                 EstadoSeguimientoOrdenArea.ESPERA.getCode(),
-                inicioRango,
-                finRango
-        );
-        List<Long> muestrasEnProceso = collectClosedStateDurations(
-                eventosPorSeguimiento.values(),
-                EstadoSeguimientoOrdenArea.EN_PROCESO.getCode(),
-                inicioRango,
-                finRango
+                EstadoSeguimientoOrdenArea.EN_PROCESO.getCode()
         );
+        List<ResumenEstadoProjection> resumen = fechaDesde != null && fechaHasta != null
+                ? seguimientoOrdenAreaIntervaloRepo.resumirPorEstadoCerradosEntre(
+                        areaId,
+                        estados,
+                        fechaDesde.atStartOfDay(),
+                        fechaHasta.plusDays(1).atStartOfDay())
+                : seguimientoOrdenAreaIntervaloRepo.resumirPorEstado(areaId, estados);
+        Map<Integer, ResumenEstadoProjection> resumenPorEstado = resumen.stream()
+                .collect(Collectors.toMap(ResumenEstadoProjection::getEstado, Function.identity()));
+
+        ResumenEstadoProjection espera = resumenPorEstado.get(EstadoSeguimientoOrdenArea.ESPERA.getCode());
+        ResumenEstadoProjection enProceso = resumenPorEstado.get(EstadoSeguimientoOrdenArea.EN_PROCESO.getCode());
 
         AreaOperativaMetricasDTO dto = new AreaOperativaMetricasDTO();
         dto.setAreaId(areaId);
         dto.setModo(mode.getApiValue());
         dto.setFechaDesde(fechaDesde);
         dto.setFechaHasta(fechaHasta);
-        dto.setPromedioMinutosEspera(averageMinutes(muestrasEspera));
-        dto.setPromedioMinutosEnProceso(averageMinutes(muestrasEnProceso));
-        dto.setMuestrasEspera(muestrasEspera.size());
-        dto.setMuestrasEnProceso(muestrasEnProceso.size());
+        dto.setPromedioMinutosEspera(averageMinutes(espera));
+        dto.setPromedioMinutosEnProceso(averageMinutes(enProceso));
+        dto.setMuestrasEspera(sampleCount(espera));
+        dto.setMuestrasEnProceso(sampleCount(enProceso));
         return dto;
     }
 
@@ -115,115 +115,41 @@ public class MonitoreoAreasOperativasMetricasService {
         return buildMetricasHistoricas(areaId, fechaDesde, fechaHasta, MetricMode.RANGO);
     }
 
-    private Map<Long, List<SeguimientoOrdenAreaEvento>> loadEventosPorSeguimiento(List<SeguimientoOrdenArea> seguimientos) {
-        List<Long> seguimientoIds = seguimientos.stream()
-                .map(SeguimientoOrdenArea::getId)
-                .toList();
-
-        if (seguimientoIds.isEmpty()) {
-            return Map.of();
+    private Double averageMinutes(ResumenEstadoProjection resumen) {
+        if (resumen == null || resumen.getMuestras() == null || resumen.getMuestras() == 0) {
+            return null;
         }
-
-        return seguimientoOrdenAreaEventoRepo.findBySeguimientoOrdenArea_IdInOrderByFechaEventoAscIdAsc(seguimientoIds)
-                .stream()
-                .collect(Collectors.groupingBy(
-                        evento -> evento.getSeguimientoOrdenArea().getId(),
-                        HashMap::new,
-                        Collectors.toList()
-                ))
-                .entrySet()
-                .stream()
-                .collect(Collectors.toMap(
-                        Map.Entry::getKey,
-                        entry -> filterUnrevertedEvents(entry.getValue()),
-                        (left, right) -> left,
-                        HashMap::new
-                ));
+        long minutosTotal = resumen.getMinutosTotal() != null ? resumen.getMinutosTotal() : 0L;
+        return (double) minutosTotal / resumen.getMuestras();
     }
 
-    private List<SeguimientoOrdenAreaEvento> filterUnrevertedEvents(List<SeguimientoOrdenAreaEvento> events) {
-        if (events == null || events.isEmpty()) {
-            return List.of();
+    /**
+     * Promedio de minutos en el estado actual contando solo el tiempo laborable de la jornada
+     * vigente hasta el instante de la foto.
+     */
+    private Double averageWorkingMinutes(
+            List<SeguimientoOrdenAreaDTO> seguimientos,
+            LocalDateTime instanteFoto,
+            CalendarioLaboral calendario
+    ) {
+        if (instanteFoto == null) {
+            return null;
         }
-
-        var revertedEventIds = events.stream()
-                .map(SeguimientoOrdenAreaEvento::getEventoRevertido)
-                .filter(Objects::nonNull)
-                .map(SeguimientoOrdenAreaEvento::getId)
+        List<LocalDateTime> desde = seguimientos.stream()
+                .map(SeguimientoOrdenAreaDTO::getFechaEstadoActual)
                 .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
-
-        if (revertedEventIds.isEmpty()) {
-            return events;
-        }
-
-        return events.stream()
-                .filter(evento -> evento.getId() == null || !revertedEventIds.contains(evento.getId()))
                 .toList();
-    }
-
-    private List<Long> collectClosedStateDurations(
-            Collection<List<SeguimientoOrdenAreaEvento>> groupedEvents,
-            int targetStateCode,
-            LocalDateTime rangoInicio,
-            LocalDateTime rangoFin
-    ) {
-        List<Long> samples = new ArrayList<>();
-
-        for (List<SeguimientoOrdenAreaEvento> events : groupedEvents) {
-            for (ClosedStateInterval interval : resolveClosedIntervals(events, targetStateCode)) {
-                if (!belongsToRange(interval.getClosedAt(), rangoInicio, rangoFin)) {
-                    continue;
-                }
-                samples.add(interval.getDurationMinutes());
-            }
+        if (desde.isEmpty()) {
+            return null;
         }
-
-        return samples;
+        long minutosTotal = desde.stream()
+                .mapToLong(fecha -> calendario.minutosLaborablesEntre(fecha, instanteFoto))
+                .sum();
+        return (double) minutosTotal / desde.size();
     }
 
-    private List<ClosedStateInterval> resolveClosedIntervals(List<SeguimientoOrdenAreaEvento> events, int targetStateCode) {
-        List<ClosedStateInterval> intervals = new ArrayList<>();
-
-        for (int i = 0; i < events.size(); i++) {
-            SeguimientoOrdenAreaEvento entry = events.get(i);
-            if (entry.getEstadoDestino() != targetStateCode) {
-                continue;
-            }
-
-            for (int j = i + 1; j < events.size(); j++) {
-                SeguimientoOrdenAreaEvento exit = events.get(j);
-                if (!Objects.equals(exit.getEstadoOrigen(), targetStateCode)) {
-                    continue;
-                }
-
-                long minutes = Math.max(Duration.between(entry.getFechaEvento(), exit.getFechaEvento()).toMinutes(), 0);
-                intervals.add(new ClosedStateInterval(minutes, exit.getFechaEvento()));
-                break;
-            }
-        }
-
-        return intervals;
-    }
-
-    private boolean belongsToRange(LocalDateTime closedAt, LocalDateTime rangoInicio, LocalDateTime rangoFin) {
-        if (closedAt == null) {
-            return false;
-        }
-        if (rangoInicio != null && closedAt.isBefore(rangoInicio)) {
-            return false;
-        }
-        if (rangoFin != null && closedAt.isAfter(rangoFin)) {
-            return false;
-        }
-        return true;
-    }
-
-    private Double averageMinutes(List<Long> samples) {
-        var average = samples.stream()
-                .mapToLong(Long::longValue)
-                .average();
-        return average.isPresent() ? average.getAsDouble() : null;
+    private int sampleCount(ResumenEstadoProjection resumen) {
+        return resumen != null && resumen.getMuestras() != null ? resumen.getMuestras().intValue() : 0;
     }
 
     private enum MetricMode {
@@ -264,13 +190,9 @@ public class MonitoreoAreasOperativasMetricasService {
         private LocalDate fechaHasta;
         private Double promedioMinutosEspera;
         private Double promedioMinutosEnProceso;
+        private Double promedioMinutosLaborablesEspera;
+        private Double promedioMinutosLaborablesEnProceso;
         private int muestrasEspera;
         private int muestrasEnProceso;
     }
-
-    @Data
-    private static class ClosedStateInterval {
-        private final long durationMinutes;
-        private final LocalDateTime closedAt;
-    }
 }
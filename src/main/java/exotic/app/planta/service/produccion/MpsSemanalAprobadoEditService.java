@@ -22,6 +22,7 @@ import exotic.app.planta.repo.produccion.MpsSemanalLotePlanificadoRepo;
 import exotic.app.planta.repo.produccion.OrdenProduccionRepo;
 import exotic.app.planta.repo.usuarios.UserRepository;
 import exotic.app.planta.resource.produccion.exceptions.MpsSemanalNotFoundException;
+import exotic.app.planta.service.empresa.CalendarioLaboralRegistry;
 import exotic.app.planta.service.master.configs.MasterDirectiveService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -54,6 +55,7 @@ public class MpsSemanalAprobadoEditService {
     private final MasterProductionScheduleDraftService draftService;
     private final MpsSemanalOrdenInicioPolicyService ordenInicioPolicyService;
     private final UserRepository userRepository;
+    private final CalendarioLaboralRegistry calendarioLaboralRegistry;
     private final Clock applicationClock;
 
     public MpsSemanalDraftDTO editarItemAprobado(
@@ -83,7 +85,8 @@ public class MpsSemanalAprobadoEditService {
             MpsSemanalFechaPlanificadaCalculator.FechasPlanificadas fechas =
                     MpsSemanalFechaPlanificadaCalculator.desdeFechaEntrega(
                             targetDia.getFecha(),
-                            item.getTiempoDiasFabricacion()
+                            item.getTiempoDiasFabricacion(),
+                            calendarioLaboralRegistry.vigente()
                     );
             item.setMpsDia(targetDia);
             item.setFechaLanzamiento(fechas.fechaLanzamiento());
@@ -287,7 +290,8 @@ public class MpsSemanalAprobadoEditService {
         MpsSemanalFechaPlanificadaCalculator.FechasPlanificadas fechas =
                 MpsSemanalFechaPlanificadaCalculator.desdeFechaEntrega(
                         targetDia.getFecha(),
-                        tiempoDiasFabricacion
+                        tiempoDiasFabricacion,
+                        calendarioLaboralRegistry.vigente()
                 );
 
         MpsSemanalItem item = new MpsSemanalItem();
@@ -1,5 +1,7 @@
 package exotic.app.planta.service.produccion;
 
+import exotic.app.planta.service.empresa.CalendarioLaboral;
+
 import java.time.LocalDate;
 
 final class MpsSemanalFechaPlanificadaCalculator {
@@ -7,13 +9,21 @@ final class MpsSemanalFechaPlanificadaCalculator {
     private MpsSemanalFechaPlanificadaCalculator() {
     }
 
-    static FechasPlanificadas desdeFechaEntrega(LocalDate fechaEntrega, int tiempoDiasFabricacion) {
+    /**
+     * El lanzamiento retrocede los dias de fabricacion sobre los dias laborables del calendario;
+     * sin jornada definida retrocede dias calendario.
+     */
+    static FechasPlanificadas desdeFechaEntrega(
+            LocalDate fechaEntrega,
+            int tiempoDiasFabricacion,
+            CalendarioLaboral calendario
+    ) {
         if (fechaEntrega == null) {
             throw new IllegalArgumentException("fechaEntrega es obligatoria.");
         }
         int diasFabricacion = Math.max(tiempoDiasFabricacion, 0);
         return new FechasPlanificadas(
-                fechaEntrega.minusDays(diasFabricacion),
+                calendario.restarDiasLaborables(fechaEntrega, diasFabricacion),
                 fechaEntrega
         );
     }
@@ -0,0 +1,510 @@
+package exotic.app.planta.service.produccion;
+
+import exotic.app.planta.config.AppTime;
+import exotic.app.planta.model.compras.metricas.ProveedorMaterialLeadTimeMetric;
+import exotic.app.planta.model.inventarios.Movimiento;
+import exotic.app.planta.model.inventarios.TransaccionAlmacen;
+import exotic.app.planta.model.produccion.EstadoMpsSemanal;
+import exotic.app.planta.model.produccion.EstadoMpsSemanalLotePlanificado;
+import exotic.app.planta.model.produccion.MasterProductionScheduleSemanal;
+import exotic.app.planta.model.produccion.MpsSemanalItem;
+import exotic.app.planta.model.produccion.MpsSemanalLotePlanificado;
+import exotic.app.planta.model.produccion.OrdenProduccion;
+import exotic.app.planta.model.producto.Material;
+import exotic.app.planta.model.producto.Producto;
+import exotic.app.planta.model.producto.SemiTerminado;
+import exotic.app.planta.model.producto.Terminado;
+import exotic.app.planta.repo.compras.ItemOrdenCompraRepo;
+import exotic.app.planta.repo.compras.metricas.ProveedorMaterialLeadTimeMetricRepo;
+import exotic.app.planta.repo.inventarios.TransaccionAlmacenRepo;
+import exotic.app.planta.repo.produccion.MasterProductionScheduleSemanalRepo;
+import exotic.app.planta.repo.produccion.MpsSemanalLotePlanificadoRepo;
+import exotic.app.planta.repo.producto.ProductoRepo;
+import exotic.app.planta.resource.produccion.exceptions.MpsSemanalNotFoundException;
+import exotic.app.planta.service.produccion.VersionCongelada.EmpaqueCongelado;
+import exotic.app.planta.service.produccion.VersionCongelada.EmpaqueItem;
+import exotic.app.planta.service.produccion.VersionCongelada.Ingredient;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Corrida MRP de una semana MPS aprobada: explota la receta congelada de todos los lotes
+ * planificados en una sola pasada y netea los requerimientos contra stock, OCM abiertas y
+ * material ya dispensado a las OP de la semana, produciendo ordenes de compra y de
+ * fabricacion planificadas por fecha.
+ *
+ * <p>La explosion sigue las reglas de {@link MaterialRequirementSnapshotService}: los
+ * semiterminados sin OF se aplanan en la receta de su padre, los que requieren OF se netean y
+ * generan ordenes de fabricacion, y los terminados suman su empaque. Las recetas salen ya
+ * interpretadas de {@link ManufacturingVersionCache} y los productos se cargan por lotes.
+ *
+ * <p>El neteo es lote por lote en orden de nivel bajo, de modo que cada producto recibe toda
+ * su demanda dependiente antes de netearse. Las OCM abiertas cuentan como disponibles desde el
+ * inicio porque no tienen fecha de entrega confiable, el stock no se reserva para OP ajenas a
+ * la semana y los productos no inventariables no se netean.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class MrpSemanalService {
+
+    private static final int SCALE = 6;
+    /** Estado de OCM pendiente de recepcion en almacen, el mismo de los informes de inventario. */
+    private static final int OCM_PENDIENTE_RECEPCION = 2;
+    private static final Movimiento.Almacen GENERAL = Movimiento.Almacen.GENERAL;
+    private static final List<TransaccionAlmacen.TipoEntidadCausante> CAUSAS_DISPENSACION = List.of(
+            TransaccionAlmacen.TipoEntidadCausante.OD,
+            TransaccionAlmacen.TipoEntidadCausante.OD_RA);
+
+    private final MasterProductionScheduleSemanalRepo masterProductionScheduleSemanalRepo;
+    private final MpsSemanalLotePlanificadoRepo mpsSemanalLotePlanificadoRepo;
+    private final ProductoRepo productoRepo;
+    private final TransaccionAlmacenRepo transaccionAlmacenRepo;
+    private final ItemOrdenCompraRepo itemOrdenCompraRepo;
+    private final ProveedorMaterialLeadTimeMetricRepo proveedorMaterialLeadTimeMetricRepo;
+    private final ManufacturingVersionCache manufacturingVersionCache;
+
+    public ResultadoMrp ejecutar(LocalDate weekStartDate) {
+        if (weekStartDate == null) {
+            throw new IllegalArgumentException("weekStartDate es obligatorio.");
+        }
+        MasterProductionScheduleSemanal mps = masterProductionScheduleSemanalRepo.findByWeekStartDate(weekStartDate)
+                .orElseThrow(() -> new MpsSemanalNotFoundException(
+                        "No existe MPS semanal para la semana iniciando en " + weekStartDate + "."));
+        if (mps.getEstado() == EstadoMpsSemanal.BORRADOR) {
+            throw new IllegalStateException("La corrida MRP requiere una semana MPS aprobada.");
+        }
+
+        List<MpsSemanalLotePlanificado> lotes = mpsSemanalLotePlanificadoRepo.findByMpsIdAndEstadosOrdered(
+                        mps.getMpsId(),
+                        List.of(EstadoMpsSemanalLotePlanificado.PENDIENTE_ODP, EstadoMpsSemanalLotePlanificado.ODP_GENERADA))
+                .stream()
+                .filter(lote -> lote.getOrdenProduccion() == null
+                        || !OrdenProduccion.ESTADOS_SIN_REQUERIMIENTO.contains(lote.getOrdenProduccion().getEstadoOrden()))
+                .toList();
+        if (lotes.isEmpty()) {
+            return new ResultadoMrp(mps.getMpsId(), weekStartDate, 0, List.of(), List.of(), List.of());
+        }
+
+        Map<String, Producto> productos = new HashMap<>();
+        lotes.forEach(lote -> productos.put(lote.getMpsItem().getTerminado().getProductoId(), lote.getMpsItem().getTerminado()));
+        Map<String, BomCompilada> boms = compilarBoms(productos);
+        Map<String, Integer> niveles = nivelesBajos(productos.keySet().stream()
+                .filter(id -> productos.get(id) instanceof Terminado)
+                .toList(), boms);
+
+        Map<String, TreeMap<LocalDate, BigDecimal>> brutos = new HashMap<>();
+        Map<String, BigDecimal> wipDescontado = new HashMap<>();
+        Map<Integer, Map<String, BigDecimal>> dispensadoPorOp = cargarDispensado(lotes);
+        for (MpsSemanalLotePlanificado lote : lotes) {
+            Terminado terminado = lote.getMpsItem().getTerminado();
+            Map<String, BigDecimal> dispensado = lote.getOrdenProduccion() == null
+                    ? Map.of()
+                    : dispensadoPorOp.getOrDefault(lote.getOrdenProduccion().getOrdenId(), Map.of());
+            LocalDate fecha = fechaNecesidad(lote.getMpsItem());
+            boms.get(terminado.getProductoId())
+                    .explotar(BigDecimal.valueOf(lote.getCantidadPlanificada()))
+                    .forEach((productoId, requerido) -> {
+                        BigDecimal descontado = requerido.min(dispensado.getOrDefault(productoId, BigDecimal.ZERO));
+                        if (descontado.signum() > 0) {
+                            wipDescontado.merge(productoId, descontado, BigDecimal::add);
+                        }
+                        agregarDemanda(brutos, productoId, fecha, requerido.subtract(descontado));
+                    });
+        }
+
+        List<String> ordenNeteo = niveles.entrySet().stream()
+                .filter(entry -> !(productos.get(entry.getKey()) instanceof Terminado))
+                .filter(entry -> productos.get(entry.getKey()).isInventareable())
+                .sorted(Map.Entry.<String, Integer>comparingByValue().thenComparing(Map.Entry.comparingByKey()))
+                .map(Map.Entry::getKey)
+                .toList();
+        Map<String, BigDecimal> stock = cargarStock(ordenNeteo);
+        Map<String, BigDecimal> ocmAbiertas = cargarOcmPendientes();
+        Map<String, Integer> leadTimes = cargarLeadTimes(ordenNeteo.stream()
+                .filter(id -> productos.get(id) instanceof Material)
+                .toList());
+
+        LocalDate hoy = AppTime.today();
+        List<NetoProducto> netos = new ArrayList<>();
+        List<OrdenPlanificada> ordenesCompra = new ArrayList<>();
+        List<OrdenPlanificada> ordenesFabricacion = new ArrayList<>();
+        for (String productoId : ordenNeteo) {
+            TreeMap<LocalDate, BigDecimal> demandas = brutos.get(productoId);
+            if (demandas == null) {
+                continue;
+            }
+            Producto producto = productos.get(productoId);
+            BigDecimal enStock = stock.getOrDefault(productoId, BigDecimal.ZERO).max(BigDecimal.ZERO);
+            BigDecimal enOcm = ocmAbiertas.getOrDefault(productoId, BigDecimal.ZERO);
+            BigDecimal disponible = enStock.add(enOcm);
+            BigDecimal bruto = BigDecimal.ZERO;
+            BigDecimal neto = BigDecimal.ZERO;
+            boolean fabricado = producto instanceof SemiTerminado;
+            int leadTime = leadTimes.getOrDefault(productoId, 0);
+
+            for (Map.Entry<LocalDate, BigDecimal> demanda : demandas.entrySet()) {
+                bruto = bruto.add(demanda.getValue());
+                BigDecimal cubierto = demanda.getValue().min(disponible);
+                disponible = disponible.subtract(cubierto);
+                BigDecimal faltante = demanda.getValue().subtract(cubierto);
+                if (faltante.signum() <= 0) {
+                    continue;
+                }
+                neto = neto.add(faltante);
+                LocalDate liberacion = fabricado ? demanda.getKey() : demanda.getKey().minusDays(leadTime);
+                OrdenPlanificada orden = new OrdenPlanificada(
+                        productoId,
+                        producto.getNombre(),
+                        producto.getTipoUnidades(),
+                        liberacion,
+                        demanda.getKey(),
+                        faltante,
+                        liberacion.isBefore(hoy));
+                if (fabricado) {
+                    ordenesFabricacion.add(orden);
+                    boms.get(productoId).explotar(faltante)
+                            .forEach((hijoId, cantidad) -> agregarDemanda(brutos, hijoId, liberacion, cantidad));
+                } else {
+                    ordenesCompra.add(orden);
+                }
+            }
+            netos.add(new NetoProducto(
+                    productoId,
+                    producto.getNombre(),
+                    fabricado ? "SEMITERMINADO" : "MATERIAL",
+                    producto.getTipoUnidades(),
+                    bruto,
+                    enStock,
+                    enOcm,
+                    wipDescontado.getOrDefault(productoId, BigDecimal.ZERO),
+                    neto));
+        }
+
+        Comparator<OrdenPlanificada> porFecha = Comparator.comparing(OrdenPlanificada::fechaLiberacion)
+                .thenComparing(OrdenPlanificada::productoId);
+        ordenesCompra.sort(porFecha);
+        ordenesFabricacion.sort(porFecha);
+        log.info(
+                "[MRP_SEMANAL] weekStartDate={} mpsId={} lotes={} productos={} ordenesCompra={} ordenesFabricacion={}",
+                weekStartDate,
+                mps.getMpsId(),
+                lotes.size(),
+                netos.size(),
+                ordenesCompra.size(),
+                ordenesFabricacion.size()
+        );
+        return new ResultadoMrp(mps.getMpsId(), weekStartDate, lotes.size(), netos, ordenesCompra, ordenesFabricacion);
+    }
+
+    /**
+     * Carga por oleadas las ultimas versiones de los productos fabricados y los productos que
+     * referencian, y compila una receta plana por terminado y por semiterminado con OF.
+     */
+    private Map<String, BomCompilada> compilarBoms(Map<String, Producto> productos) {
+        Map<String, List<Ingredient>> ingredientes = new HashMap<>();
+        Map<String, EmpaqueCongelado> empaques = new HashMap<>();
+        Set<String> pendientes = new LinkedHashSet<>(productos.keySet());
+
+        while (!pendientes.isEmpty()) {
+            Map<String, VersionCongelada> versiones = manufacturingVersionCache.ultimas(pendientes);
+
+            Set<String> referenciados = new LinkedHashSet<>();
+            for (String productoId : pendientes) {
+                VersionCongelada version = versiones.get(productoId);
+                if (version == null) {
+                    throw new IllegalStateException(productos.get(productoId) instanceof Terminado
+                            ? "El producto " + productoId + " no tiene una version de manufactura disponible."
+                            : "El semiterminado " + productoId
+                            + " no tiene version de manufactura para explotar su receta.");
+                }
+                List<Ingredient> receta = version.ingredientes();
+                ingredientes.put(productoId, receta);
+                receta.forEach(ingredient -> referenciados.add(ingredient.productoId()));
+                if (productos.get(productoId) instanceof Terminado) {
+                    EmpaqueCongelado empaque = version.empaque();
+                    empaques.put(productoId, empaque);
+                    empaque.items().forEach(item -> referenciados.add(item.materialId()));
+                }
+            }
+
+            cargarProductos(referenciados, productos);
+            pendientes = new LinkedHashSet<>();
+            for (String productoId : referenciados) {
+                if (productos.get(productoId) instanceof SemiTerminado && !ingredientes.containsKey(productoId)) {
+                    pendientes.add(productoId);
+                }
+            }
+        }
+
+        Map<String, BomCompilada> boms = new HashMap<>();
+        ingredientes.forEach((productoId, receta) -> {
+            Producto producto = productos.get(productoId);
+            boolean fabricado = producto instanceof Terminado
+                    || producto instanceof SemiTerminado semi && semi.isRequiereOrdenFabricacion();
+            if (!fabricado) {
+                return;
+            }
+            Map<String, BigDecimal> porUnidad = new LinkedHashMap<>();
+            aplanar(productoId, BigDecimal.ONE, ingredientes, productos, porUnidad,
+                    new LinkedHashSet<>(Set.of(productoId)));
+            boms.put(productoId, new BomCompilada(porUnidad, empaques.getOrDefault(productoId, EmpaqueCongelado.VACIO)));
+        });
+        return boms;
+    }
+
+    private void cargarProductos(Set<String> productoIds, Map<String, Producto> productos) {
+        List<String> faltantes = productoIds.stream().filter(id -> !productos.containsKey(id)).toList();
+        if (faltantes.isEmpty()) {
+            return;
+        }
+        productoRepo.findAllById(faltantes).forEach(producto -> productos.put(producto.getProductoId(), producto));
+        for (String productoId : faltantes) {
+            if (!productos.containsKey(productoId)) {
+                throw new IllegalStateException(
+                        "La receta congelada referencia un producto inexistente: " + productoId);
+            }
+        }
+    }
+
+    private void aplanar(
+            String productoId,
+            BigDecimal multiplicador,
+            Map<String, List<Ingredient>> ingredientes,
+            Map<String, Producto> productos,
+            Map<String, BigDecimal> destino,
+            Set<String> ruta
+    ) {
+        for (Ingredient ingredient : ingredientes.get(productoId)) {
+            Producto producto = productos.get(ingredient.productoId());
+            BigDecimal cantidad = multiplicador.multiply(ingredient.cantidad());
+            if (producto instanceof SemiTerminado semi && !semi.isRequiereOrdenFabricacion()) {
+                entrarRuta(ruta, semi.getProductoId());
+                aplanar(semi.getProductoId(), cantidad, ingredientes, productos, destino, ruta);
+                ruta.remove(semi.getProductoId());
+                continue;
+            }
+            if (producto instanceof Terminado) {
+                throw new IllegalStateException(
+                        "Una receta de manufactura no puede consumir un producto terminado: "
+                                + producto.getProductoId());
+            }
+            destino.merge(producto.getProductoId(), cantidad, BigDecimal::add);
+        }
+    }
+
+    /** Nivel bajo de cada producto: la mayor profundidad a la que aparece bajo un terminado. */
+    private Map<String, Integer> nivelesBajos(List<String> terminadoIds, Map<String, BomCompilada> boms) {
+        Map<String, Integer> niveles = new HashMap<>();
+        for (String terminadoId : terminadoIds) {
+            asignarNivel(terminadoId, 0, boms, niveles, new LinkedHashSet<>(Set.of(terminadoId)));
+        }
+        return niveles;
+    }
+
+    private void asignarNivel(
+            String productoId,
+            int nivel,
+            Map<String, BomCompilada> boms,
+            Map<String, Integer> niveles,
+            Set<String> ruta
+    ) {
+        if (niveles.getOrDefault(productoId, -1) >= nivel) {
+            return;
+        }
+        niveles.put(productoId, nivel);
+        BomCompilada bom = boms.get(productoId);
+        if (bom == null) {
+            return;
+        }
+        for (String hijoId : bom.componentes()) {
+            entrarRuta(ruta, hijoId);
+            asignarNivel(hijoId, nivel + 1, boms, niveles, ruta);
+            ruta.remove(hijoId);
+        }
+    }
+
+    private Map<Integer, Map<String, BigDecimal>> cargarDispensado(List<MpsSemanalLotePlanificado> lotes) {
+        List<Integer> opIds = lotes.stream()
+                .map(MpsSemanalLotePlanificado::getOrdenProduccion)
+                .filter(orden -> orden != null)
+                .map(OrdenProduccion::getOrdenId)
+                .distinct()
+                .toList();
+        if (opIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Integer, Map<String, BigDecimal>> dispensado = new HashMap<>();
+        transaccionAlmacenRepo.findOpenProductionMaterialTotalsByOrderIds(
+                        GENERAL, Movimiento.TipoMovimiento.DISPENSACION, CAUSAS_DISPENSACION, opIds)
+                .forEach(row -> dispensado.computeIfAbsent(row.getOpId(), ignored -> new HashMap<>())
+                        .merge(row.getProductoId(), BigDecimal.valueOf(row.getCantidad()), BigDecimal::add));
+        return dispensado;
+    }
+
+    private Map<String, BigDecimal> cargarStock(Collection<String> productoIds) {
+        if (productoIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, BigDecimal> stock = new HashMap<>();
+        for (Object[] row : transaccionAlmacenRepo.findTotalCantidadByProductoIds(productoIds)) {
+            stock.put((String) row[0], row[1] instanceof Number number
+                    ? BigDecimal.valueOf(number.doubleValue())
+                    : BigDecimal.ZERO);
+        }
+        return stock;
+    }
+
+    private Map<String, BigDecimal> cargarOcmPendientes() {
+        List<ItemOrdenCompraRepo.PendingPurchaseItemProjection> items =
+                itemOrdenCompraRepo.findPendingRowsForBi(OCM_PENDIENTE_RECEPCION);
+        if (items.isEmpty()) {
+            return Map.of();
+        }
+        Map<OcmProducto, Double> ordenado = new HashMap<>();
+        items.forEach(item -> ordenado.merge(
+                new OcmProducto(item.getOcmId(), item.getProductoId()), item.getCantidad(), Double::sum));
+        Set<Integer> ocmIds = new LinkedHashSet<>();
+        ordenado.keySet().forEach(clave -> ocmIds.add(clave.ocmId()));
+        Map<OcmProducto, Double> recibido = new HashMap<>();
+        transaccionAlmacenRepo.findReceiptTotalsByCauseAndEntities(
+                        GENERAL, Movimiento.TipoMovimiento.COMPRA, TransaccionAlmacen.TipoEntidadCausante.OCM, ocmIds)
+                .forEach(row -> recibido.put(new OcmProducto(row.getEntityId(), row.getProductId()), row.getQuantity()));
+
+        Map<String, BigDecimal> pendiente = new HashMap<>();
+        ordenado.forEach((clave, cantidad) -> {
+            double restante = cantidad - recibido.getOrDefault(clave, 0.0);
+            if (restante > 0) {
+                pendiente.merge(clave.productoId(), BigDecimal.valueOf(restante), BigDecimal::add);
+            }
+        });
+        return pendiente;
+    }
+
+    /** Lead time en dias por material: la metrica de corte mas reciente, y entre empates la menor. */
+    private Map<String, Integer> cargarLeadTimes(Collection<String> materialIds) {
+        if (materialIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, ProveedorMaterialLeadTimeMetric> vigentes = new HashMap<>();
+        Comparator<ProveedorMaterialLeadTimeMetric> preferencia = Comparator
+                .comparing(ProveedorMaterialLeadTimeMetric::getFechaCorte)
+                .thenComparing(ProveedorMaterialLeadTimeMetric::getLeadTimeMedianoDias, Comparator.reverseOrder());
+        for (ProveedorMaterialLeadTimeMetric metrica : proveedorMaterialLeadTimeMetricRepo.findByMaterial_ProductoIdIn(materialIds)) {
+            if (metrica.getFechaCorte() == null || metrica.getLeadTimeMedianoDias() == null) {
+                continue;
+            }
+            vigentes.merge(metrica.getMaterial().getProductoId(), metrica,
+                    (actual, nueva) -> preferencia.compare(nueva, actual) > 0 ? nueva : actual);
+        }
+        Map<String, Integer> leadTimes = new HashMap<>();
+        vigentes.forEach((materialId, metrica) ->
+                leadTimes.put(materialId, (int) Math.ceil(metrica.getLeadTimeMedianoDias())));
+        return leadTimes;
+    }
+
+    private static LocalDate fechaNecesidad(MpsSemanalItem item) {
+        return item.getFechaLanzamiento() != null ? item.getFechaLanzamiento() : item.getMpsDia().getFecha();
+    }
+
+    private static void agregarDemanda(
+            Map<String, TreeMap<LocalDate, BigDecimal>> brutos,
+            String productoId,
+            LocalDate fecha,
+            BigDecimal cantidad
+    ) {
+        if (cantidad.signum() <= 0) {
+            return;
+        }
+        brutos.computeIfAbsent(productoId, ignored -> new TreeMap<>()).merge(fecha, cantidad, BigDecimal::add);
+    }
+
+    private static void entrarRuta(Set<String> ruta, String productoId) {
+        if (!ruta.add(productoId)) {
+            throw new IllegalStateException(
+                    "Se detecto un ciclo en la receta de manufactura: "
+                            + String.join(" -> ", ruta) + " -> " + productoId);
+        }
+    }
+
+    /**
+     * Receta plana de un producto fabricado: componentes por unidad (con los semiterminados
+     * sin OF ya expandidos) y, para terminados, el empaque del case pack.
+     */
+    private record BomCompilada(Map<String, BigDecimal> porUnidad, EmpaqueCongelado empaque) {
+        Map<String, BigDecimal> explotar(BigDecimal cantidad) {
+            Map<String, BigDecimal> requerimientos = new LinkedHashMap<>();
+            porUnidad.forEach((productoId, unitario) -> requerimientos.merge(
+                    productoId, cantidad.multiply(unitario).setScale(SCALE, RoundingMode.HALF_UP), BigDecimal::add));
+            for (EmpaqueItem item : empaque.items()) {
+                requerimientos.merge(item.materialId(),
+                        empaque.cantidad(item, cantidad).setScale(SCALE, RoundingMode.HALF_UP), BigDecimal::add);
+            }
+            return requerimientos;
+        }
+
+        Set<String> componentes() {
+            Set<String> componentes = new LinkedHashSet<>(porUnidad.keySet());
+            empaque.items().forEach(item -> componentes.add(item.materialId()));
+            return componentes;
+        }
+    }
+
+    private record OcmProducto(int ocmId, String productoId) {
+    }
+
+    public record ResultadoMrp(
+            Integer mpsId,
+            LocalDate weekStartDate,
+            int lotesExplotados,
+            List<NetoProducto> netos,
+            List<OrdenPlanificada> ordenesCompra,
+            List<OrdenPlanificada> ordenesFabricacion
+    ) {
+    }
+
+    public record NetoProducto(
+            String productoId,
+            String productoNombre,
+            String tipoProducto,
+            String unidadMedida,
+            BigDecimal requerimientoBruto,
+            BigDecimal stockDisponible,
+            BigDecimal ocmAbiertas,
+            BigDecimal wipDescontado,
+            BigDecimal requerimientoNeto
+    ) {
+    }
+
+    /**
+     * @param liberacionVencida la fecha de liberacion ya paso: la orden llega tarde si se
+     *                          emite hoy.
+     */
+    public record OrdenPlanificada(
+            String productoId,
+            String productoNombre,
+            String unidadMedida,
+            LocalDate fechaLiberacion,
+            LocalDate fechaNecesidad,
+            BigDecimal cantidad,
+            boolean liberacionVencida
+    ) {
+    }
+}
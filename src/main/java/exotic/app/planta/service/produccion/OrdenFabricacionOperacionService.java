@@ -1,8 +1,5 @@
 package exotic.app.planta.service.produccion;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import exotic.app.planta.model.calidad.EstadoControlProcesoPlantilla;
 import exotic.app.planta.model.inventarios.EstadoCalidadLote;
 import exotic.app.planta.model.inventarios.Lote;
@@ -24,6 +21,7 @@ import exotic.app.planta.repo.produccion.batchrecord.BatchRecordEtapaRepo;
 import exotic.app.planta.repo.produccion.batchrecord.BatchRecordRepo;
 import exotic.app.planta.repo.produccion.fabricacion.*;
 import exotic.app.planta.service.master.configs.MasterDirectiveService;
+import exotic.app.planta.service.produccion.RutaCongelada.NodoRuta;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -59,7 +57,7 @@ public class OrdenFabricacionOperacionService {
     private final LoteRepo loteRepo;
     private final TransaccionAlmacenHeaderRepo transaccionRepo;
     private final BatchRecordService batchRecordService;
-    private final ObjectMapper objectMapper;
+    private final ManufacturingVersionCache manufacturingVersionCache;
     private final Clock applicationClock;
     private final MasterDirectiveService masterDirectiveService;
 
@@ -72,7 +70,7 @@ public class OrdenFabricacionOperacionService {
             return;
         }
 
-        Graph graph = parseGraph(orden.getManufacturingVersion().getProcesoProduccionJson());
+        RutaCongelada graph = manufacturingVersionCache.ruta(orden.getManufacturingVersion());
         LocalDateTime ahora = LocalDateTime.now(applicationClock);
         boolean liberada = orden.getEstado() == EstadoOrdenFabricacion.LIBERADA
                 || orden.getEstado() == EstadoOrdenFabricacion.EN_EJECUCION;
@@ -92,7 +90,7 @@ public class OrdenFabricacionOperacionService {
         Map<String, OrdenFabricacionOperacion> persisted = new LinkedHashMap<>();
         int secuencia = 0;
         for (String frontendId : graph.topologicalOrder()) {
-            Node node = graph.nodes().get(frontendId);
+            NodoRuta node = graph.nodes().get(frontendId);
             AreaOperativa area = areaRepo.findById(node.areaId())
                     .orElseThrow(() -> new IllegalStateException(
                             "La version de manufactura referencia un area inexistente: "
@@ -365,7 +363,7 @@ public class OrdenFabricacionOperacionService {
                         ordenFabricacionId);
         if (operaciones.isEmpty()) return;
 
-        Graph graph = parseGraph(orden.getManufacturingVersion().getProcesoProduccionJson());
+        RutaCongelada graph = manufacturingVersionCache.ruta(orden.getManufacturingVersion());
         Map<String, OrdenFabricacionOperacion> porFrontendId = operaciones.stream()
                 .collect(java.util.stream.Collectors.toMap(
                         OrdenFabricacionOperacion::getFrontendNodeId,
@@ -621,100 +619,6 @@ public class OrdenFabricacionOperacionService {
         }
     }
 
-    private Graph parseGraph(String json) {
-        if (json == null || json.isBlank()) {
-            throw new IllegalStateException("La OF no tiene un proceso de manufactura congelado.");
-        }
-        try {
-            JsonNode root = objectMapper.readTree(json);
-            JsonNode nodesJson = root.path("nodes");
-            JsonNode edgesJson = root.path("edges");
-            if (!nodesJson.isArray() || !edgesJson.isArray()) {
-                throw new IllegalStateException("El proceso congelado no contiene nodes y edges validos.");
-            }
-            Map<String, JsonNode> allNodes = new LinkedHashMap<>();
-            Map<String, Node> processNodes = new LinkedHashMap<>();
-            for (JsonNode node : nodesJson) {
-                String id = requiredText(node, "frontendId");
-                if (allNodes.put(id, node) != null) {
-                    throw new IllegalStateException("El proceso contiene frontendId duplicado: " + id);
-                }
-                if ("PROCESO".equalsIgnoreCase(node.path("nodeType").asText())) {
-                    int areaId = node.path("areaOperativaId").asInt(Integer.MIN_VALUE);
-                    if (areaId == Integer.MIN_VALUE) {
-                        throw new IllegalStateException("El nodo " + id + " no tiene area operativa.");
-                    }
-                    Integer procesoId = node.hasNonNull("procesoId")
-                            ? node.get("procesoId").asInt() : null;
-                    String nombre = truncate(firstText(
-                            node.path("procesoNombre").asText(null),
-                            node.path("label").asText(null), "Etapa " + id), 200);
-                    processNodes.put(id, new Node(id, areaId, procesoId, nombre));
-                }
-            }
-            if (processNodes.isEmpty()) {
-                throw new IllegalStateException("El proceso de la OF no contiene operaciones productivas.");
-            }
-            Map<String, Set<String>> adjacency = new LinkedHashMap<>();
-            allNodes.keySet().forEach(id -> adjacency.put(id, new LinkedHashSet<>()));
-            for (JsonNode edge : edgesJson) {
-                String source = requiredText(edge, "sourceFrontendId");
-                String target = requiredText(edge, "targetFrontendId");
-                if (!allNodes.containsKey(source) || !allNodes.containsKey(target)) {
-                    throw new IllegalStateException("Una conexion referencia nodos inexistentes.");
-                }
-                adjacency.get(source).add(target);
-            }
-
-            Map<String, Set<String>> predecessors = new LinkedHashMap<>();
-            processNodes.keySet().forEach(id -> predecessors.put(id, new LinkedHashSet<>()));
-            for (String source : processNodes.keySet()) {
-                Deque<String> pending = new ArrayDeque<>(adjacency.getOrDefault(source, Set.of()));
-                Set<String> visited = new HashSet<>();
-                while (!pending.isEmpty()) {
-                    String current = pending.removeFirst();
-                    if (!visited.add(current)) continue;
-                    if (processNodes.containsKey(current)) {
-                        predecessors.get(current).add(source);
-                    } else {
-                        pending.addAll(adjacency.getOrDefault(current, Set.of()));
-                    }
-                }
-            }
-            List<String> order = topologicalOrder(processNodes.keySet(), predecessors);
-            return new Graph(processNodes, predecessors, order);
-        } catch (JsonProcessingException exception) {
-            throw new IllegalStateException("No se pudo interpretar el proceso congelado de la OF.", exception);
-        }
-    }
-
-    private List<String> topologicalOrder(
-            Set<String> nodes, Map<String, Set<String>> predecessors) {
-        Map<String, Integer> indegree = new LinkedHashMap<>();
-        Map<String, Set<String>> successors = new LinkedHashMap<>();
-        nodes.forEach(node -> {
-            indegree.put(node, predecessors.getOrDefault(node, Set.of()).size());
-            successors.put(node, new LinkedHashSet<>());
-        });
-        predecessors.forEach((target, sources) -> sources.forEach(source ->
-                successors.get(source).add(target)));
-        Deque<String> ready = new ArrayDeque<>();
-        indegree.forEach((node, degree) -> { if (degree == 0) ready.add(node); });
-        List<String> result = new ArrayList<>();
-        while (!ready.isEmpty()) {
-            String source = ready.removeFirst();
-            result.add(source);
-            for (String target : successors.get(source)) {
-                int next = indegree.computeIfPresent(target, (ignored, value) -> value - 1);
-                if (next == 0) ready.addLast(target);
-            }
-        }
-        if (result.size() != nodes.size()) {
-            throw new IllegalStateException("El proceso congelado de la OF contiene ciclos.");
-        }
-        return result;
-    }
-
     public OrdenFabricacionDTOs.OperacionResponse toResponse(
             OrdenFabricacionOperacion operacion) {
         BatchRecordEtapa etapa = operacion.getBatchRecordEtapa();
@@ -748,19 +652,6 @@ public class OrdenFabricacionOperacionService {
                 ? user.getUsername() : user.getNombreCompleto();
     }
 
-    private String requiredText(JsonNode node, String field) {
-        String value = node.path(field).asText(null);
-        if (value == null || value.isBlank()) {
-            throw new IllegalStateException("El proceso congelado no contiene " + field + ".");
-        }
-        return value;
-    }
-
-    private String firstText(String... values) {
-        for (String value : values) if (value != null && !value.isBlank()) return value.trim();
-        return "Etapa";
-    }
-
     private String normalize(String value) {
         if (value == null) return null;
         String trimmed = value.trim();
@@ -772,10 +663,4 @@ public class OrdenFabricacionOperacionService {
     }
 
     private record Lock(OrdenFabricacion orden, OrdenFabricacionOperacion operacion) {}
-    private record Node(String id, int areaId, Integer procesoId, String nombre) {}
-    private record Graph(
-            Map<String, Node> nodes,
-            Map<String, Set<String>> predecessors,
-            List<String> topologicalOrder
-    ) {}
 }
@@ -16,7 +16,6 @@ import exotic.app.planta.model.producto.manufacturing.snapshots.ManufacturingVer
 import exotic.app.planta.model.users.User;
 import exotic.app.planta.repo.inventarios.LoteRepo;
 import exotic.app.planta.repo.producto.SemiTerminadoRepo;
-import exotic.app.planta.repo.producto.manufacturing.snapshots.ManufacturingVersionRepo;
 import exotic.app.planta.repo.produccion.batchrecord.BatchRecordRepo;
 import exotic.app.planta.repo.produccion.fabricacion.OrdenFabricacionRepo;
 import exotic.app.planta.repo.produccion.fabricacion.OrdenFabricacionOperacionEventoRepo;
@@ -49,7 +48,7 @@ public class OrdenFabricacionService {
 
     private final OrdenFabricacionRepo ordenRepo;
     private final SemiTerminadoRepo semiTerminadoRepo;
-    private final ManufacturingVersionRepo manufacturingVersionRepo;
+    private final ManufacturingVersionCache manufacturingVersionCache;
     private final LoteRepo loteRepo;
     private final UserRepository userRepository;
     private final BatchRecordRepo batchRecordRepo;
@@ -88,8 +87,8 @@ public class OrdenFabricacionService {
             throw new IllegalArgumentException(
                     "El semiterminado no está configurado para orden de fabricación.");
         }
-        ManufacturingVersions version = manufacturingVersionRepo
-                .findTopByProductoOrderByVersionNumberDesc(semi)
+        ManufacturingVersions version = manufacturingVersionCache
+                .ultimaVersion(semi)
                 .orElseThrow(() -> new IllegalStateException(
                         "El semiterminado no tiene una versión de manufactura disponible."));
         User responsable = request.getResponsableId() == null
@@ -127,8 +126,8 @@ public class OrdenFabricacionService {
             throw new IllegalStateException(
                     "La OP ya tiene una OF para el semiterminado " + semi.getProductoId() + ".");
         }
-        ManufacturingVersions version = manufacturingVersionRepo
-                .findTopByProductoOrderByVersionNumberDesc(semi)
+        ManufacturingVersions version = manufacturingVersionCache
+                .ultimaVersion(semi)
                 .orElseThrow(() -> new IllegalStateException(
                         "El semiterminado " + semi.getProductoId()
                                 + " no tiene una version de manufactura disponible."));
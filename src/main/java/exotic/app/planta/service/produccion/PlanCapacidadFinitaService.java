@@ -0,0 +1,662 @@
+package exotic.app.planta.service.produccion;
+
+import exotic.app.planta.model.produccion.OrdenProduccion;
+import exotic.app.planta.model.produccion.SeguimientoOrdenArea;
+import exotic.app.planta.model.produccion.TableroAreaCambioEvent;
+import exotic.app.planta.repo.produccion.SeguimientoOrdenAreaRepo;
+import exotic.app.planta.repo.produccion.SeguimientoOrdenAreaRepo.PlanificacionSeguimientoProjection;
+import exotic.app.planta.repo.produccion.ruprocatdesigner.RutaProcesoEdgeRepo;
+import exotic.app.planta.service.empresa.CalendarioLaboral;
+import exotic.app.planta.service.empresa.CalendarioLaboralRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Planificacion con capacidad finita de las ordenes de produccion abiertas.
+ *
+ * <p>{@link RutaProcesoEstimacionService} estima cada orden sola, con capacidad infinita. Aqui
+ * todas las ordenes compiten por las areas operativas: cada area trabaja a lo sumo
+ * {@code capacidadOrdenesSimultaneas} seguimientos a la vez. El plan sale de una simulacion
+ * por eventos (list scheduling): cuando un area tiene un cupo libre toma, entre sus seguimientos
+ * listos, el de mayor {@link #PRIORIDAD}. Los seguimientos en proceso ocupan su cupo desde que
+ * empezaron y los completados u omitidos solo liberan a sus sucesores.
+ *
+ * <p>Los seguimientos se mantienen en memoria: se cargan al arrancar y cada
+ * {@link #REFRESCO_COMPLETO}; entre tanto cada {@link TableroAreaCambioEvent} marca su area.
+ * Un refresco programado relee solo los seguimientos de las areas marcadas, vuelve a planificar
+ * y publica el plan nuevo; sin cambios no hace nada. Las consultas solo leen el ultimo plan
+ * publicado y no tocan la base de datos. La simulacion recorre siempre todas las ordenes,
+ * porque un cambio en un area mueve la cola de las siguientes.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PlanCapacidadFinitaService {
+
+    static final Duration REFRESCO_COMPLETO = Duration.ofMinutes(5);
+
+    /**
+     * Fecha final planificada de la orden, inicio de la orden, id de orden y posicion en la
+     * ruta; las fechas nulas van al final.
+     */
+    static final Comparator<Paso> PRIORIDAD = Comparator
+            .comparing((Paso paso) -> paso.orden.fechaFinalPlanificada(),
+                    Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(paso -> paso.orden.inicio(), Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparingInt(paso -> paso.orden.ordenId())
+            .thenComparing(paso -> paso.seguimiento.posicionSecuencia(),
+                    Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(paso -> paso.seguimiento.seguimientoId());
+
+    private final SeguimientoOrdenAreaRepo seguimientoOrdenAreaRepo;
+    private final RutaProcesoEdgeRepo rutaProcesoEdgeRepo;
+    private final CalendarioLaboralRegistry calendarioLaboralRegistry;
+    private final Clock applicationClock;
+
+    /** Solo la toman el arranque y el refresco programado; las consultas nunca esperan. */
+    private final Object sincronizacion = new Object();
+    private final Set<Integer> pendientes = ConcurrentHashMap.newKeySet();
+    private volatile Estado estado;
+
+    /** {@code false} hasta que termina la primera carga al arrancar. */
+    public boolean disponible() {
+        return estado != null;
+    }
+
+    public PlanCapacidad getPlan() {
+        return vigente().plan();
+    }
+
+    public Optional<OrdenProyectada> getOrden(int ordenId) {
+        return Optional.ofNullable(vigente().porOrden().get(ordenId));
+    }
+
+    public Optional<AreaProyectada> getArea(int areaId) {
+        return Optional.ofNullable(vigente().porArea().get(areaId));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void sembrar() {
+        synchronized (sincronizacion) {
+            estado = cargaCompleta();
+        }
+    }
+
+    /**
+     * Pone al dia el plan fuera de las consultas, que siguen leyendo el anterior hasta que el
+     * nuevo se publica de una vez. Cada {@link #REFRESCO_COMPLETO} recarga todo para recoger
+     * ordenes cerradas, cambios de capacidad y jornadas nuevas, que no pasan por los
+     * seguimientos; si no, solo replanifica cuando hay areas marcadas.
+     */
+    @Scheduled(fixedDelayString = "${app.plan-capacidad.actualizacion-ms:2000}")
+    public void actualizar() {
+        synchronized (sincronizacion) {
+            Estado actual = estado;
+            if (actual == null || refrescoVencido(actual)) {
+                estado = cargaCompleta();
+            } else if (!pendientes.isEmpty()) {
+                estado = recalcular(actual);
+            }
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCambio(TableroAreaCambioEvent event) {
+        pendientes.add(event.areaId());
+    }
+
+    private PlanIndexado vigente() {
+        Estado actual = estado;
+        if (actual == null) {
+            throw new IllegalStateException("El plan de capacidad aun no se ha calculado.");
+        }
+        return actual.plan();
+    }
+
+    private boolean refrescoVencido(Estado actual) {
+        return !applicationClock.instant().isBefore(actual.refrescoCompleto().plus(REFRESCO_COMPLETO));
+    }
+
+    private Estado cargaCompleta() {
+        // Los cambios que lleguen durante la lectura quedan marcados para la siguiente pasada.
+        pendientes.clear();
+        List<PlanificacionSeguimientoProjection> filas =
+                seguimientoOrdenAreaRepo.findPlanificacionOrdenesAbiertas(OrdenProduccion.ESTADOS_SIN_REQUERIMIENTO, null);
+        Set<Long> rutaVersionIds = rutaVersionIds(filas);
+        Carga nueva = construirCarga(
+                filas,
+                Map.of(),
+                Map.of(),
+                Map.of(),
+                cargarPredecesores(rutaVersionIds, Map.of()),
+                rutaVersionIds);
+        Estado resultado = new Estado(
+                nueva, indexar(planificar(nueva, LocalDateTime.now(applicationClock))), applicationClock.instant());
+        log.debug("[PLAN-CAPACIDAD] plan sembrado con {} ordenes y {} seguimientos",
+                nueva.ordenes().size(), nueva.seguimientos().size());
+        return resultado;
+    }
+
+    /** Relee los seguimientos de las areas marcadas y vuelve a planificar. */
+    private Estado recalcular(Estado actual) {
+        List<Integer> areaIds = List.copyOf(pendientes);
+        pendientes.removeAll(areaIds);
+        List<PlanificacionSeguimientoProjection> filas;
+        try {
+            filas = seguimientoOrdenAreaRepo.findPlanificacionOrdenesAbiertas(
+                    OrdenProduccion.ESTADOS_SIN_REQUERIMIENTO, areaIds);
+        } catch (RuntimeException e) {
+            // Se reintentan en el siguiente refresco; mientras tanto se sirve el plan anterior.
+            pendientes.addAll(areaIds);
+            throw e;
+        }
+
+        Carga anterior = actual.carga();
+        Set<Long> rutaVersionIds = new HashSet<>(anterior.rutaVersionIds());
+        Set<Long> rutasNuevas = rutaVersionIds(filas);
+        rutasNuevas.removeAll(rutaVersionIds);
+        rutaVersionIds.addAll(rutasNuevas);
+        Map<Long, List<Long>> predecesores = rutasNuevas.isEmpty()
+                ? anterior.predecesores()
+                : cargarPredecesores(rutasNuevas, anterior.predecesores());
+
+        Map<Long, SeguimientoPlan> seguimientos = new HashMap<>(anterior.seguimientos());
+        seguimientos.values().removeIf(seguimiento -> areaIds.contains(seguimiento.areaId()));
+        Carga nueva = construirCarga(
+                filas,
+                seguimientos,
+                anterior.ordenes(),
+                anterior.areas(),
+                predecesores,
+                rutaVersionIds);
+        log.debug("[PLAN-CAPACIDAD] plan recalculado tras cambios en las areas {}", areaIds);
+        return new Estado(
+                nueva, indexar(planificar(nueva, LocalDateTime.now(applicationClock))), actual.refrescoCompleto());
+    }
+
+    private Carga construirCarga(
+            List<PlanificacionSeguimientoProjection> filas,
+            Map<Long, SeguimientoPlan> seguimientosBase,
+            Map<Integer, OrdenPlan> ordenesBase,
+            Map<Integer, AreaPlan> areasBase,
+            Map<Long, List<Long>> predecesores,
+            Set<Long> rutaVersionIds
+    ) {
+        Map<Long, SeguimientoPlan> seguimientos = new HashMap<>(seguimientosBase);
+        Map<Integer, OrdenPlan> ordenes = new HashMap<>(ordenesBase);
+        Map<Integer, AreaPlan> areas = new HashMap<>(areasBase);
+        for (PlanificacionSeguimientoProjection fila : filas) {
+            seguimientos.put(fila.getSeguimientoId(), new SeguimientoPlan(
+                    fila.getSeguimientoId(),
+                    fila.getOrdenId(),
+                    fila.getNodeId(),
+                    fila.getRutaVersionId(),
+                    fila.getAreaId(),
+                    valorOCero(fila.getEstado()),
+                    fila.getPosicionSecuencia(),
+                    Math.max(valorOCero(fila.getDuracionEstimadaMinutos()), 0),
+                    !Boolean.FALSE.equals(fila.getRequiereJornadaLaboral()),
+                    fila.getFechaEstadoActual(),
+                    fila.getFechaCompletado()));
+            ordenes.put(fila.getOrdenId(), new OrdenPlan(
+                    fila.getOrdenId(),
+                    fila.getLoteAsignado(),
+                    fila.getFechaLanzamiento() != null ? fila.getFechaLanzamiento() : fila.getFechaCreacion(),
+                    fila.getFechaFinalPlanificada(),
+                    calendarioLaboralRegistry.deVersion(fila.getJornadaLaboralVersionId())));
+            areas.put(fila.getAreaId(), new AreaPlan(
+                    fila.getAreaId(),
+                    fila.getAreaNombre(),
+                    Math.max(valorOCero(fila.getAreaCapacidad()), 1)));
+        }
+        Set<Integer> ordenesConSeguimientos = seguimientos.values().stream()
+                .map(SeguimientoPlan::ordenId)
+                .collect(Collectors.toSet());
+        ordenes.keySet().retainAll(ordenesConSeguimientos);
+        return new Carga(seguimientos, ordenes, areas, predecesores, Set.copyOf(rutaVersionIds));
+    }
+
+    private Map<Long, List<Long>> cargarPredecesores(
+            Collection<Long> rutaVersionIds,
+            Map<Long, List<Long>> base
+    ) {
+        Map<Long, List<Long>> predecesores = new HashMap<>(base);
+        if (rutaVersionIds.isEmpty()) {
+            return predecesores;
+        }
+        for (RutaProcesoEdgeRepo.AristaNodoProjection arista : rutaProcesoEdgeRepo.findAristasByRutaVersionIds(rutaVersionIds)) {
+            predecesores.computeIfAbsent(arista.getTargetNodeId(), ignored -> new ArrayList<>())
+                    .add(arista.getSourceNodeId());
+        }
+        return predecesores;
+    }
+
+    private static Set<Long> rutaVersionIds(List<PlanificacionSeguimientoProjection> filas) {
+        return filas.stream()
+                .map(PlanificacionSeguimientoProjection::getRutaVersionId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(HashSet::new));
+    }
+
+    private static int valorOCero(Integer valor) {
+        return valor != null ? valor : 0;
+    }
+
+    /**
+     * Simula la ejecucion de los seguimientos pendientes desde {@code ahora}. Un seguimiento
+     * queda listo cuando terminan sus predecesores de la ruta y no antes del inicio de su
+     * orden; sin ruta (o con un ciclo) los seguimientos de la orden van en serie por posicion.
+     */
+    static PlanCapacidad planificar(Carga carga, LocalDateTime ahora) {
+        Map<Integer, List<Paso>> pasosPorOrden = new HashMap<>();
+        Map<Integer, ColaArea> colas = new HashMap<>();
+        for (SeguimientoPlan seguimiento : carga.seguimientos().values()) {
+            OrdenPlan orden = carga.ordenes().get(seguimiento.ordenId());
+            if (orden == null) {
+                continue;
+            }
+            Paso paso = new Paso(seguimiento, orden);
+            pasosPorOrden.computeIfAbsent(orden.ordenId(), ignored -> new ArrayList<>()).add(paso);
+            colas.computeIfAbsent(seguimiento.areaId(), areaId -> new ColaArea(
+                    carga.areas().getOrDefault(areaId, new AreaPlan(areaId, null, 1))));
+        }
+        pasosPorOrden.values().forEach(pasos -> enlazar(pasos, carga.predecesores()));
+
+        PriorityQueue<Evento> eventos = new PriorityQueue<>(Evento.ORDEN);
+        long secuencia = 0;
+        for (List<Paso> pasos : pasosPorOrden.values()) {
+            for (Paso paso : pasos) {
+                if (paso.cerrado()) {
+                    paso.fin = primeraNoNula(paso.seguimiento.fechaCompletado(), paso.seguimiento.fechaEstadoActual(), ahora);
+                } else if (paso.enProceso()) {
+                    paso.inicio = primeraNoNula(paso.seguimiento.fechaEstadoActual(), ahora);
+                    paso.fin = maxima(ahora, paso.sumar(paso.inicio));
+                    colas.get(paso.seguimiento.areaId()).ocupados++;
+                    eventos.add(new Evento(paso.fin, Evento.FIN, secuencia++, paso));
+                }
+            }
+        }
+        for (List<Paso> pasos : pasosPorOrden.values()) {
+            for (Paso paso : pasos) {
+                if (paso.cerrado() || paso.enProceso()) {
+                    continue;
+                }
+                paso.liberacion = maxima(ahora, paso.orden.inicio());
+                for (Paso predecesor : paso.predecesores) {
+                    if (predecesor.cerrado()) {
+                        paso.liberacion = maxima(paso.liberacion, predecesor.fin);
+                    } else {
+                        paso.faltantes++;
+                    }
+                }
+                if (paso.faltantes == 0) {
+                    eventos.add(new Evento(paso.liberacion, Evento.LIBERACION, secuencia++, paso));
+                }
+            }
+        }
+
+        while (!eventos.isEmpty()) {
+            LocalDateTime instante = eventos.peek().tiempo();
+            Set<ColaArea> tocadas = new LinkedHashSet<>();
+            while (!eventos.isEmpty() && eventos.peek().tiempo().equals(instante)) {
+                Evento evento = eventos.poll();
+                Paso paso = evento.paso();
+                ColaArea cola = colas.get(paso.seguimiento.areaId());
+                tocadas.add(cola);
+                if (evento.tipo() == Evento.LIBERACION) {
+                    cola.listos.add(paso);
+                    continue;
+                }
+                cola.ocupados--;
+                for (Paso sucesor : paso.sucesores) {
+                    if (sucesor.cerrado() || sucesor.enProceso()) {
+                        continue;
+                    }
+                    sucesor.liberacion = maxima(sucesor.liberacion, paso.fin);
+                    if (--sucesor.faltantes == 0) {
+                        eventos.add(new Evento(sucesor.liberacion, Evento.LIBERACION, secuencia++, sucesor));
+                    }
+                }
+            }
+            for (ColaArea cola : tocadas) {
+                while (cola.ocupados < cola.area.capacidad() && !cola.listos.isEmpty()) {
+                    Paso paso = cola.listos.poll();
+                    paso.inicio = paso.alinear(instante);
+                    paso.fin = paso.sumar(paso.inicio);
+                    cola.ocupados++;
+                    eventos.add(new Evento(paso.fin, Evento.FIN, secuencia++, paso));
+                }
+            }
+        }
+
+        return construirPlan(pasosPorOrden, colas, ahora);
+    }
+
+    private static void enlazar(List<Paso> pasos, Map<Long, List<Long>> predecesores) {
+        pasos.sort(Comparator
+                .comparing((Paso paso) -> paso.seguimiento.posicionSecuencia(),
+                        Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(paso -> paso.seguimiento.seguimientoId()));
+        boolean conRuta = pasos.stream()
+                .allMatch(paso -> paso.seguimiento.nodeId() != null && paso.seguimiento.rutaVersionId() != null);
+        if (conRuta) {
+            Map<Long, Paso> porNodo = pasos.stream()
+                    .collect(Collectors.toMap(paso -> paso.seguimiento.nodeId(), Function.identity(), (a, b) -> a));
+            for (Paso paso : pasos) {
+                for (Long origen : predecesores.getOrDefault(paso.seguimiento.nodeId(), List.of())) {
+                    Paso predecesor = porNodo.get(origen);
+                    if (predecesor != null && predecesor != paso) {
+                        predecesor.sucesores.add(paso);
+                        paso.predecesores.add(predecesor);
+                    }
+                }
+            }
+            if (esAciclico(pasos)) {
+                return;
+            }
+            pasos.forEach(paso -> {
+                paso.sucesores.clear();
+                paso.predecesores.clear();
+            });
+        }
+        for (int i = 1; i < pasos.size(); i++) {
+            pasos.get(i - 1).sucesores.add(pasos.get(i));
+            pasos.get(i).predecesores.add(pasos.get(i - 1));
+        }
+    }
+
+    private static boolean esAciclico(List<Paso> pasos) {
+        Map<Paso, Integer> entrantes = new HashMap<>();
+        List<Paso> pendientes = new ArrayList<>();
+        for (Paso paso : pasos) {
+            entrantes.put(paso, paso.predecesores.size());
+            if (paso.predecesores.isEmpty()) {
+                pendientes.add(paso);
+            }
+        }
+        int visitados = 0;
+        while (!pendientes.isEmpty()) {
+            Paso paso = pendientes.remove(pendientes.size() - 1);
+            visitados++;
+            for (Paso sucesor : paso.sucesores) {
+                if (entrantes.merge(sucesor, -1, Integer::sum) == 0) {
+                    pendientes.add(sucesor);
+                }
+            }
+        }
+        return visitados == pasos.size();
+    }
+
+    private static PlanCapacidad construirPlan(
+            Map<Integer, List<Paso>> pasosPorOrden,
+            Map<Integer, ColaArea> colas,
+            LocalDateTime ahora
+    ) {
+        Map<Integer, List<OperacionProyectada>> operacionesPorArea = new HashMap<>();
+        List<OrdenProyectada> ordenes = new ArrayList<>(pasosPorOrden.size());
+        for (List<Paso> pasos : pasosPorOrden.values()) {
+            OrdenPlan orden = pasos.get(0).orden;
+            List<OperacionProyectada> operaciones = new ArrayList<>(pasos.size());
+            LocalDateTime inicio = null;
+            LocalDateTime fin = null;
+            boolean completa = true;
+            for (Paso paso : pasos) {
+                OperacionProyectada operacion = new OperacionProyectada(
+                        paso.seguimiento.seguimientoId(),
+                        orden.ordenId(),
+                        orden.loteAsignado(),
+                        paso.seguimiento.areaId(),
+                        paso.seguimiento.estado(),
+                        paso.inicio,
+                        paso.fin);
+                operaciones.add(operacion);
+                if (!paso.cerrado()) {
+                    operacionesPorArea.computeIfAbsent(paso.seguimiento.areaId(), ignored -> new ArrayList<>())
+                            .add(operacion);
+                    inicio = minima(inicio, paso.inicio);
+                }
+                if (paso.fin == null) {
+                    completa = false;
+                } else {
+                    fin = maxima(fin, paso.fin);
+                }
+            }
+            LocalDateTime finOrden = completa ? fin : null;
+            long retraso = finOrden != null && orden.fechaFinalPlanificada() != null
+                    ? Math.max(Duration.between(orden.fechaFinalPlanificada(), finOrden).toMinutes(), 0)
+                    : 0;
+            ordenes.add(new OrdenProyectada(
+                    orden.ordenId(),
+                    orden.loteAsignado(),
+                    orden.fechaFinalPlanificada(),
+                    inicio,
+                    finOrden,
+                    retraso,
+                    List.copyOf(operaciones)));
+        }
+        ordenes.sort(Comparator
+                .comparing(OrdenProyectada::finProyectado, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparingInt(OrdenProyectada::ordenId));
+
+        Comparator<OperacionProyectada> porInicio = Comparator
+                .comparing(OperacionProyectada::inicioProyectado, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(OperacionProyectada::seguimientoId);
+        List<AreaProyectada> areas = new ArrayList<>(colas.size());
+        for (ColaArea cola : colas.values()) {
+            List<OperacionProyectada> operaciones = new ArrayList<>(
+                    operacionesPorArea.getOrDefault(cola.area.areaId(), List.of()));
+            operaciones.sort(porInicio);
+            LocalDateTime libreDesde = operaciones.stream()
+                    .map(OperacionProyectada::finProyectado)
+                    .filter(Objects::nonNull)
+                    .max(Comparator.naturalOrder())
+                    .orElse(null);
+            areas.add(new AreaProyectada(
+                    cola.area.areaId(),
+                    cola.area.nombre(),
+                    cola.area.capacidad(),
+                    libreDesde,
+                    List.copyOf(operaciones)));
+        }
+        areas.sort(Comparator.comparingInt(AreaProyectada::areaId));
+        return new PlanCapacidad(ahora, List.copyOf(ordenes), List.copyOf(areas));
+    }
+
+    private static PlanIndexado indexar(PlanCapacidad plan) {
+        return new PlanIndexado(
+                plan,
+                plan.ordenes().stream().collect(Collectors.toUnmodifiableMap(OrdenProyectada::ordenId, Function.identity())),
+                plan.areas().stream().collect(Collectors.toUnmodifiableMap(AreaProyectada::areaId, Function.identity())));
+    }
+
+    @SafeVarargs
+    private static <T> T primeraNoNula(T... valores) {
+        for (T valor : valores) {
+            if (valor != null) {
+                return valor;
+            }
+        }
+        return null;
+    }
+
+    private static LocalDateTime maxima(LocalDateTime a, LocalDateTime b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null || !b.isAfter(a) ? a : b;
+    }
+
+    private static LocalDateTime minima(LocalDateTime a, LocalDateTime b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null || !b.isBefore(a) ? a : b;
+    }
+
+    record SeguimientoPlan(
+            Long seguimientoId,
+            int ordenId,
+            Long nodeId,
+            Long rutaVersionId,
+            int areaId,
+            int estado,
+            Integer posicionSecuencia,
+            int duracionMinutos,
+            boolean requiereJornadaLaboral,
+            LocalDateTime fechaEstadoActual,
+            LocalDateTime fechaCompletado
+    ) {}
+
+    /**
+     * {@code inicio} es la fecha de lanzamiento o, si no se ha lanzado, la de creacion;
+     * {@code calendario} el de la jornada de la orden o, si no tiene, el vigente al cargarla.
+     */
+    record OrdenPlan(
+            int ordenId,
+            String loteAsignado,
+            LocalDateTime inicio,
+            LocalDateTime fechaFinalPlanificada,
+            CalendarioLaboral calendario
+    ) {}
+
+    record AreaPlan(int areaId, String nombre, int capacidad) {}
+
+    /**
+     * Estado en memoria: seguimientos por id, ordenes y areas que aparecen en ellos, y
+     * predecesores por nodo de las rutas ya leidas.
+     */
+    record Carga(
+            Map<Long, SeguimientoPlan> seguimientos,
+            Map<Integer, OrdenPlan> ordenes,
+            Map<Integer, AreaPlan> areas,
+            Map<Long, List<Long>> predecesores,
+            Set<Long> rutaVersionIds
+    ) {}
+
+    /** Carga y plan publicados juntos; {@code refrescoCompleto} es la ultima recarga total. */
+    private record Estado(Carga carga, PlanIndexado plan, Instant refrescoCompleto) {}
+
+    private record PlanIndexado(
+            PlanCapacidad plan,
+            Map<Integer, OrdenProyectada> porOrden,
+            Map<Integer, AreaProyectada> porArea
+    ) {}
+
+    static final class Paso {
+        final SeguimientoPlan seguimiento;
+        final OrdenPlan orden;
+        final List<Paso> predecesores = new ArrayList<>(2);
+        final List<Paso> sucesores = new ArrayList<>(2);
+        int faltantes;
+        LocalDateTime liberacion;
+        LocalDateTime inicio;
+        LocalDateTime fin;
+
+        Paso(SeguimientoPlan seguimiento, OrdenPlan orden) {
+            this.seguimiento = seguimiento;
+            this.orden = orden;
+        }
+
+        boolean cerrado() {
+            return seguimiento.estado() == SeguimientoOrdenArea.ESTADO_COMPLETADO
+                    || seguimiento.estado() == SeguimientoOrdenArea.ESTADO_OMITIDO;
+        }
+
+        boolean enProceso() {
+            return seguimiento.estado() == SeguimientoOrdenArea.ESTADO_EN_PROCESO;
+        }
+
+        LocalDateTime alinear(LocalDateTime instante) {
+            if (!seguimiento.requiereJornadaLaboral()) {
+                return instante;
+            }
+            return orden.calendario().siguienteInstanteLaborable(instante);
+        }
+
+        LocalDateTime sumar(LocalDateTime desde) {
+            return orden.calendario().sumarMinutos(desde, seguimiento.duracionMinutos(), seguimiento.requiereJornadaLaboral());
+        }
+    }
+
+    private static final class ColaArea {
+        final AreaPlan area;
+        final PriorityQueue<Paso> listos = new PriorityQueue<>(PRIORIDAD);
+        int ocupados;
+
+        ColaArea(AreaPlan area) {
+            this.area = area;
+        }
+    }
+
+    /** Los fines se procesan antes que las liberaciones del mismo instante para soltar cupos. */
+    private record Evento(LocalDateTime tiempo, int tipo, long secuencia, Paso paso) {
+        static final int FIN = 0;
+        static final int LIBERACION = 1;
+        static final Comparator<Evento> ORDEN = Comparator
+                .comparing(Evento::tiempo)
+                .thenComparingInt(Evento::tipo)
+                .thenComparingLong(Evento::secuencia);
+    }
+
+    public record OperacionProyectada(
+            Long seguimientoId,
+            int ordenId,
+            String loteAsignado,
+            int areaId,
+            int estado,
+            LocalDateTime inicioProyectado,
+            LocalDateTime finProyectado
+    ) {}
+
+    /** {@code retrasoMinutos} compara el fin proyectado con la fecha final planificada. */
+    public record OrdenProyectada(
+            int ordenId,
+            String loteAsignado,
+            LocalDateTime fechaFinalPlanificada,
+            LocalDateTime inicioProyectado,
+            LocalDateTime finProyectado,
+            long retrasoMinutos,
+            List<OperacionProyectada> operaciones
+    ) {}
+
+    /** Solo los seguimientos pendientes o en proceso del area, en orden de inicio proyectado. */
+    public record AreaProyectada(
+            int areaId,
+            String nombre,
+            int capacidad,
+            LocalDateTime libreDesde,
+            List<OperacionProyectada> operaciones
+    ) {}
+
+    public record PlanCapacidad(
+            LocalDateTime calculadoEn,
+            List<OrdenProyectada> ordenes,
+            List<AreaProyectada> areas
+    ) {}
+}
@@ -0,0 +1,266 @@
+package exotic.app.planta.service.produccion;
+
+import exotic.app.planta.config.AppTime;
+import exotic.app.planta.model.produccion.VentaDiariaTerminado;
+import exotic.app.planta.model.produccion.dto.CargaVentasResultadoDTO;
+import exotic.app.planta.model.produccion.dto.FilaInfVentasDTO;
+import exotic.app.planta.model.produccion.dto.TerminadoConVentasDTO;
+import exotic.app.planta.model.producto.Terminado;
+import exotic.app.planta.repo.inventarios.TransaccionAlmacenRepo;
+import exotic.app.planta.repo.produccion.VentaDiariaTerminadoRepo;
+import exotic.app.planta.repo.producto.TerminadoRepo;
+import exotic.app.planta.service.empresa.CalendarioLaboral;
+import exotic.app.planta.service.empresa.CalendarioLaboralRegistry;
+import exotic.app.planta.service.produccion.PronosticoDemandaCalculator.PronosticoDemanda;
+import exotic.app.planta.service.produccion.VentasExcelStreamReader.LecturaVentas;
+import exotic.app.planta.service.produccion.VentasExcelStreamReader.VentaDiaria;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Historia de ventas diaria por terminado y pronostico de demanda semanal para la planeacion.
+ *
+ * <p>El informe de ventas se procesa en servidor con {@link VentasExcelStreamReader}; cada carga
+ * reemplaza en {@code venta_diaria_terminado} las fechas que cubre el archivo, por lo que volver
+ * a subir un informe no duplica la demanda y dos informes consecutivos que comparten una semana
+ * se suman en ella. El pronostico agrega la historia por semana y descarta la ultima si la
+ * historia cargada todavia no llega a su ultimo dia laborable.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class PlaneacionVentasService {
+
+    static final int HISTORIA_SEMANAS = 52;
+
+    private final VentasExcelStreamReader ventasExcelStreamReader;
+    private final VentaDiariaTerminadoRepo ventaDiariaTerminadoRepo;
+    private final TerminadoRepo terminadoRepo;
+    private final TransaccionAlmacenRepo transaccionAlmacenRepo;
+    private final PronosticoDemandaCalculator pronosticoDemandaCalculator;
+    private final TransactionTemplate transactionTemplate;
+    private final CalendarioLaboralRegistry calendarioLaboralRegistry;
+
+    /**
+     * Lee el informe completo antes de abrir la transaccion; solo el reemplazo de la historia
+     * (borrado e insercion) corre dentro de ella.
+     */
+    public CargaVentasResultadoDTO cargarInformeVentas(MultipartFile file, String username) {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("No se recibio el informe de ventas.");
+        }
+
+        LecturaVentas lectura;
+        try (InputStream inputStream = file.getInputStream()) {
+            lectura = ventasExcelStreamReader.leer(inputStream);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("No se pudo leer el informe de ventas: " + e.getMessage(), e);
+        }
+        log.info(
+                "[cargarInformeVentas] user={} fileName={} hoja='{}' filasLeidas={} filasSinCodigo={} filasSinFecha={} celdasNumericasInvalidas={} diasProducto={}",
+                username,
+                file.getOriginalFilename(),
+                lectura.hoja(),
+                lectura.filasLeidas(),
+                lectura.filasSinCodigo(),
+                lectura.filasSinFecha(),
+                lectura.celdasNumericasInvalidas(),
+                lectura.dias().size()
+        );
+        if (lectura.celdasNumericasInvalidas() > 0) {
+            log.warn("[cargarInformeVentas] fileName={} tiene {} celdas de cantidad/valor que no son numeros; se sumaron como 0",
+                    file.getOriginalFilename(), lectura.celdasNumericasInvalidas());
+        }
+
+        CargaVentasResultadoDTO resultado = new CargaVentasResultadoDTO();
+        resultado.setHoja(lectura.hoja());
+        resultado.setFilasLeidas(lectura.filasLeidas());
+        resultado.setFilasSinCodigo(lectura.filasSinCodigo());
+        resultado.setFilasSinFecha(lectura.filasSinFecha());
+        resultado.setCeldasNumericasInvalidas(lectura.celdasNumericasInvalidas());
+        if (lectura.dias().isEmpty()) {
+            return resultado;
+        }
+
+        Map<String, FilaInfVentasDTO> totales = new LinkedHashMap<>();
+        for (VentaDiaria venta : lectura.dias()) {
+            FilaInfVentasDTO total = totales.computeIfAbsent(
+                    venta.codigo(), codigo -> new FilaInfVentasDTO(codigo, 0, 0));
+            total.setCantidadVendida(total.getCantidadVendida() + venta.cantidadVendida());
+            total.setValorTotal(total.getValorTotal() + venta.valorTotal());
+        }
+        Set<String> terminadoIds = terminadoRepo.findByProductoIdIn(totales.keySet()).stream()
+                .map(Terminado::getProductoId)
+                .collect(Collectors.toSet());
+
+        LocalDate fechaDesde = lectura.primeraFecha();
+        LocalDate fechaHasta = lectura.ultimaFecha();
+
+        LocalDateTime cargadoEn = AppTime.now();
+        List<VentaDiariaTerminado> registros = lectura.dias().stream()
+                .filter(venta -> terminadoIds.contains(venta.codigo()))
+                .map(venta -> new VentaDiariaTerminado(
+                        null,
+                        venta.codigo(),
+                        venta.fecha(),
+                        venta.cantidadVendida(),
+                        venta.valorTotal(),
+                        venta.lineas(),
+                        cargadoEn,
+                        username
+                ))
+                .toList();
+        Integer reemplazados = transactionTemplate.execute(status -> {
+            int borrados = ventaDiariaTerminadoRepo.deleteByFechas(fechaDesde, fechaHasta);
+            ventaDiariaTerminadoRepo.saveAll(registros);
+            return borrados;
+        });
+
+        List<String> sinTerminado = totales.keySet().stream()
+                .filter(codigo -> !terminadoIds.contains(codigo))
+                .toList();
+        log.info(
+                "[cargarInformeVentas] fechas={}..{} reemplazados={} guardados={} codigosSinTerminado={}",
+                fechaDesde,
+                fechaHasta,
+                reemplazados,
+                registros.size(),
+                sinTerminado
+        );
+
+        resultado.setFechaDesde(fechaDesde);
+        resultado.setFechaHasta(fechaHasta);
+        resultado.setDiasReemplazados((int) ChronoUnit.DAYS.between(fechaDesde, fechaHasta) + 1);
+        resultado.setRegistrosGuardados(registros.size());
+        resultado.setCodigosSinTerminado(new ArrayList<>(sinTerminado));
+        resultado.setTerminados(asociarTerminados(new ArrayList<>(totales.values())));
+        return resultado;
+    }
+
+    @Transactional(readOnly = true)
+    public List<TerminadoConVentasDTO> asociarTerminados(List<FilaInfVentasDTO> filasUnificadas) {
+        List<String> codigos = filasUnificadas.stream()
+                .map(FilaInfVentasDTO::getCodigo)
+                .collect(Collectors.toList());
+
+        Map<String, Terminado> terminadosMap = terminadoRepo.findAllById(codigos).stream()
+                .collect(Collectors.toMap(Terminado::getProductoId, Function.identity()));
+        Map<String, Double> stockMap = stockConsolidado(codigos);
+
+        List<TerminadoConVentasDTO> resultado = new ArrayList<>();
+        for (FilaInfVentasDTO fila : filasUnificadas) {
+            Terminado terminado = terminadosMap.get(fila.getCodigo());
+            if (terminado != null) {
+                resultado.add(new TerminadoConVentasDTO(
+                        terminado,
+                        fila.getCantidadVendida(),
+                        fila.getValorTotal(),
+                        stockMap.getOrDefault(terminado.getProductoId(), 0.0)
+                ));
+            } else {
+                log.warn("[asociarTerminados] No se encontro Terminado con codigo: {}", fila.getCodigo());
+            }
+        }
+        return resultado;
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Double> stockConsolidado(Collection<String> productoIds) {
+        if (productoIds.isEmpty()) {
+            return Map.of();
+        }
+        return transaccionAlmacenRepo.findTotalCantidadByProductoIds(productoIds).stream()
+                .collect(Collectors.toMap(
+                        row -> (String) row[0],
+                        row -> row[1] instanceof Number number ? number.doubleValue() : 0.0
+                ));
+    }
+
+    /**
+     * Inicio de la ultima semana completa de ventas antes de {@code antesDe}: la semana de la
+     * ultima fecha cargada si la historia llega hasta su ultimo dia laborable, o la anterior.
+     */
+    @Transactional(readOnly = true)
+    public Optional<LocalDate> ultimaSemanaVentas(LocalDate antesDe) {
+        return ventaDiariaTerminadoRepo.findUltimaFechaAntesDe(antesDe)
+                .map(ultimaFecha -> ultimaSemanaCompleta(ultimaFecha, calendarioLaboralRegistry.vigente()));
+    }
+
+    /**
+     * Pronostica la demanda de la semana que inicia en {@code semanaObjetivo} para cada terminado
+     * con ventas en las {@value #HISTORIA_SEMANAS} semanas previas. La serie de cada producto va
+     * desde su primera venta hasta la ultima semana completa ({@link #ultimaSemanaVentas}), con
+     * cero en las semanas sin venta; una semana cargada a medias bajaria el pronostico.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, PronosticoDemanda> pronosticarSemana(LocalDate semanaObjetivo) {
+        LocalDate semana = VentasExcelStreamReader.semanaDe(semanaObjetivo);
+        Optional<LocalDate> ultimaSemana = ultimaSemanaVentas(semana);
+        if (ultimaSemana.isEmpty()) {
+            return Map.of();
+        }
+
+        List<VentaDiariaTerminado> historia = ventaDiariaTerminadoRepo.findHistoria(
+                semana.minusWeeks(HISTORIA_SEMANAS), ultimaSemana.get().plusWeeks(1));
+        Map<String, List<VentaDiariaTerminado>> porProducto = historia.stream()
+                .collect(Collectors.groupingBy(
+                        VentaDiariaTerminado::getProductoId, LinkedHashMap::new, Collectors.toList()));
+
+        List<String> productoIds = new ArrayList<>(porProducto.keySet());
+        List<double[]> series = new ArrayList<>(productoIds.size());
+        for (List<VentaDiariaTerminado> ventas : porProducto.values()) {
+            series.add(serieSemanal(ventas, ultimaSemana.get()));
+        }
+        List<PronosticoDemanda> pronosticos = pronosticoDemandaCalculator.pronosticarTodas(series);
+
+        Map<String, PronosticoDemanda> resultado = new LinkedHashMap<>();
+        for (int i = 0; i < productoIds.size(); i++) {
+            resultado.put(productoIds.get(i), pronosticos.get(i));
+        }
+        log.info("[pronosticarSemana] semana={} ultimaSemanaVentas={} terminados={}",
+                semana, ultimaSemana.get(), resultado.size());
+        return resultado;
+    }
+
+    static LocalDate ultimaSemanaCompleta(LocalDate ultimaFecha, CalendarioLaboral calendario) {
+        LocalDate semana = VentasExcelStreamReader.semanaDe(ultimaFecha);
+        LocalDate ultimoDiaLaborable = calendario.restarDiasLaborables(semana.plusWeeks(1), 1);
+        return ultimaFecha.isBefore(ultimoDiaLaborable) ? semana.minusWeeks(1) : semana;
+    }
+
+    /**
+     * Suma las ventas diarias por semana desde la semana de la primera venta hasta
+     * {@code ultimaSemana}.
+     *
+     * @param ventas ventas de un producto ordenadas por fecha, ninguna posterior a
+     *               {@code ultimaSemana}.
+     */
+    static double[] serieSemanal(List<VentaDiariaTerminado> ventas, LocalDate ultimaSemana) {
+        LocalDate primera = VentasExcelStreamReader.semanaDe(ventas.get(0).getFecha());
+        double[] serie = new double[(int) ChronoUnit.WEEKS.between(primera, ultimaSemana) + 1];
+        for (VentaDiariaTerminado venta : ventas) {
+            LocalDate semana = VentasExcelStreamReader.semanaDe(venta.getFecha());
+            serie[(int) ChronoUnit.WEEKS.between(primera, semana)] += venta.getCantidadVendida();
+        }
+        return serie;
+    }
+}
@@ -32,7 +32,6 @@ import exotic.app.planta.repo.inventarios.TransaccionAlmacenHeaderRepo;
 import exotic.app.planta.repo.inventarios.TransaccionAlmacenRepo;
 import exotic.app.planta.repo.producto.ProductoRepo;
 import exotic.app.planta.repo.producto.TerminadoRepo;
-import exotic.app.planta.repo.producto.manufacturing.snapshots.ManufacturingVersionRepo;
 import exotic.app.planta.repo.produccion.OrdenProduccionRepo;
 import exotic.app.planta.repo.usuarios.UserRepository;
 import exotic.app.planta.service.contabilidad.ContabilidadService;
@@ -77,7 +76,7 @@ public class ProduccionService {
     private final SeguimientoOrdenAreaService seguimientoOrdenAreaService;
     private final MasterDirectiveService masterDirectiveService;
     private final VencimientoLoteService vencimientoLoteService;
-    private final ManufacturingVersionRepo manufacturingVersionRepo;
+    private final ManufacturingVersionCache manufacturingVersionCache;
     private final UserRepository userRepository;
     private final BatchRecordService batchRecordService;
     private final OrdenFabricacionAutoGenerationService ordenFabricacionAutoGenerationService;
@@ -702,7 +701,7 @@ public class ProduccionService {
             throw new IllegalArgumentException(
                     "Una orden de producción debe generar un producto terminado.");
         }
-        return manufacturingVersionRepo.findTopByProductoOrderByVersionNumberDesc(producto)
+        return manufacturingVersionCache.ultimaVersion(producto)
                 .orElseThrow(() -> new IllegalStateException(
                         "El producto " + producto.getProductoId()
                                 + " no tiene una versión de manufactura disponible."));
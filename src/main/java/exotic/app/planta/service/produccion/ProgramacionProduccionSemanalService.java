@@ -13,9 +13,13 @@ import exotic.app.planta.model.produccion.dto.GuardarProgramacionProduccionSeman
 import exotic.app.planta.model.produccion.dto.MpsSemanalDraftDTO;
 import exotic.app.planta.model.produccion.dto.ProgramacionProduccionSemanalDiaRequestDTO;
 import exotic.app.planta.model.produccion.dto.ProgramacionProduccionSemanalItemRequestDTO;
+import exotic.app.planta.model.produccion.dto.SugerenciaProgramacionSemanalDTO;
+import exotic.app.planta.model.produccion.dto.SugerenciaProgramacionSemanalItemDTO;
 import exotic.app.planta.repo.producto.TerminadoRepo;
 import exotic.app.planta.repo.produccion.MasterProductionScheduleSemanalRepo;
 import exotic.app.planta.repo.produccion.MpsSemanalDiaRepo;
+import exotic.app.planta.service.empresa.CalendarioLaboralRegistry;
+import exotic.app.planta.service.produccion.PronosticoDemandaCalculator.PronosticoDemanda;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -44,6 +48,8 @@ public class ProgramacionProduccionSemanalService {
     private final SemanaMPSService semanaMPSService;
     private final MpsSemanalEditWindowService mpsSemanalEditWindowService;
     private final MasterProductionScheduleDraftService masterProductionScheduleDraftService;
+    private final PlaneacionVentasService planeacionVentasService;
+    private final CalendarioLaboralRegistry calendarioLaboralRegistry;
 
     private record EntryKey(LocalDate fecha, String terminadoId) {}
 
@@ -183,6 +189,83 @@ public class ProgramacionProduccionSemanalService {
         return masterProductionScheduleDraftService.getByWeekStartDate(saved.getWeekStartDate());
     }
 
+    /**
+     * Sugiere lotes para la semana a partir del pronostico de demanda de cada terminado con
+     * historia de ventas: se cubre la demanda pronosticada que no alcanza el stock consolidado
+     * actual, redondeada a lotes completos. No descuenta lo ya programado en el MPS.
+     */
+    @Transactional(readOnly = true)
+    public SugerenciaProgramacionSemanalDTO sugerirProgramacion(LocalDate weekStartDate) {
+        if (weekStartDate == null) {
+            throw new IllegalArgumentException("weekStartDate es obligatorio.");
+        }
+        if (weekStartDate.getDayOfWeek() != DayOfWeek.MONDAY) {
+            throw new IllegalArgumentException("weekStartDate debe corresponder a un lunes.");
+        }
+
+        SugerenciaProgramacionSemanalDTO sugerencia = new SugerenciaProgramacionSemanalDTO();
+        sugerencia.setWeekStartDate(weekStartDate);
+        sugerencia.setUltimaSemanaVentas(planeacionVentasService.ultimaSemanaVentas(weekStartDate).orElse(null));
+
+        Map<String, PronosticoDemanda> pronosticos = planeacionVentasService.pronosticarSemana(weekStartDate);
+        if (pronosticos.isEmpty()) {
+            return sugerencia;
+        }
+        Map<String, Terminado> terminadosById = terminadoRepo.findByProductoIdIn(pronosticos.keySet()).stream()
+                .collect(Collectors.toMap(Terminado::getProductoId, Function.identity()));
+        Map<String, Double> stockById = planeacionVentasService.stockConsolidado(terminadosById.keySet());
+
+        for (Map.Entry<String, PronosticoDemanda> entry : pronosticos.entrySet()) {
+            Terminado terminado = terminadosById.get(entry.getKey());
+            if (terminado == null) {
+                continue;
+            }
+            sugerencia.getItems().add(buildSugerencia(
+                    terminado, entry.getValue(), stockById.getOrDefault(terminado.getProductoId(), 0.0)));
+        }
+        sugerencia.getItems().sort(Comparator
+                .comparingInt(SugerenciaProgramacionSemanalItemDTO::getNumeroLotesSugeridos).reversed()
+                .thenComparing(SugerenciaProgramacionSemanalItemDTO::getTerminadoId));
+        sugerencia.setTotalLotesSugeridos(sugerencia.getItems().stream()
+                .mapToLong(SugerenciaProgramacionSemanalItemDTO::getNumeroLotesSugeridos)
+                .sum());
+        log.info(
+                "[MPS_SEMANAL] service sugerirProgramacion weekStartDate={} ultimaSemanaVentas={} terminados={} totalLotes={}",
+                weekStartDate,
+                sugerencia.getUltimaSemanaVentas(),
+                sugerencia.getItems().size(),
+                sugerencia.getTotalLotesSugeridos()
+        );
+        return sugerencia;
+    }
+
+    private SugerenciaProgramacionSemanalItemDTO buildSugerencia(
+            Terminado terminado,
+            PronosticoDemanda pronostico,
+            double stock
+    ) {
+        int loteSize = resolveLoteSize(terminado);
+        Categoria categoria = terminado.getCategoria();
+        double faltante = Math.max(0, pronostico.demandaSemanal() - Math.max(0, stock));
+
+        SugerenciaProgramacionSemanalItemDTO item = new SugerenciaProgramacionSemanalItemDTO();
+        item.setTerminadoId(terminado.getProductoId());
+        item.setTerminadoNombre(terminado.getNombre() != null ? terminado.getNombre() : terminado.getProductoId());
+        item.setCategoriaNombre(categoria != null ? categoria.getCategoriaNombre() : null);
+        item.setDemandaPronosticada(pronostico.demandaSemanal());
+        item.setErrorAbsolutoMedio(pronostico.errorAbsolutoMedio());
+        item.setAlpha(pronostico.alpha());
+        item.setSemanasHistoria(pronostico.semanasHistoria());
+        item.setStockActualConsolidado(stock);
+        item.setLoteSize(loteSize);
+        if (loteSize > 0) {
+            item.setNumeroLotesSugeridos((int) Math.ceil(faltante / loteSize));
+        } else if (faltante > 0) {
+            item.setWarning("El producto terminado no tiene lote size configurado.");
+        }
+        return item;
+    }
+
     private void validateRequestShell(GuardarProgramacionProduccionSemanalRequestDTO request) {
         if (request == null) {
             throw new IllegalArgumentException("La solicitud de programacion semanal no puede ser nula.");
@@ -287,7 +370,8 @@ public class ProgramacionProduccionSemanalService {
         int tiempoDiasFabricacion = resolveTiempoDiasFabricacion(terminado);
         Categoria categoria = terminado.getCategoria();
         MpsSemanalFechaPlanificadaCalculator.FechasPlanificadas fechas =
-                MpsSemanalFechaPlanificadaCalculator.desdeFechaEntrega(entry.fecha, tiempoDiasFabricacion);
+                MpsSemanalFechaPlanificadaCalculator.desdeFechaEntrega(
+                        entry.fecha, tiempoDiasFabricacion, calendarioLaboralRegistry.vigente());
 
         MpsSemanalItem item = new MpsSemanalItem();
         item.setMpsSemanal(mps);
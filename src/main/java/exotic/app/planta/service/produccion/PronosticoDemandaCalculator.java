@@ -0,0 +1,101 @@
+package exotic.app.planta.service.produccion;
+
+import exotic.app.planta.service.commons.CalculoParalelo;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Pronostico de demanda semanal por suavizamiento exponencial simple.
+ *
+ * <p>Para cada serie se elige el {@code alpha} de la grilla que minimiza el error cuadratico
+ * del pronostico a un paso sobre la propia historia; el pronostico es el nivel final y es el
+ * mismo para cualquier semana futura. Las series con menos de {@link #MIN_SEMANAS_AJUSTE}
+ * semanas se pronostican con su promedio. Los productos se reparten en el pool de
+ * {@link CalculoParalelo} y cada serie se calcula de forma independiente, de modo que el resultado no depende
+ * del orden ni del lote.
+ */
+@Component
+public class PronosticoDemandaCalculator {
+    static final int MIN_SEMANAS_AJUSTE = 4;
+    private static final int SEMANAS_NIVEL_INICIAL = 4;
+    private static final double[] ALPHAS = {0.05, 0.1, 0.15, 0.2, 0.3, 0.4, 0.5, 0.6, 0.7, 0.8, 0.9};
+    private static final int SERIES_PER_TASK = 16;
+
+    private final CalculoParalelo calculoParalelo;
+
+    public PronosticoDemandaCalculator(CalculoParalelo calculoParalelo) {
+        this.calculoParalelo = calculoParalelo;
+    }
+
+    /**
+     * Pronostica todas las series. El resultado conserva el orden de {@code series}.
+     */
+    public List<PronosticoDemanda> pronosticarTodas(List<double[]> series) {
+        return calculoParalelo.mapear(series, SERIES_PER_TASK, () -> PronosticoDemandaCalculator::pronosticar);
+    }
+
+    static PronosticoDemanda pronosticar(double[] semanal) {
+        int semanas = semanal.length;
+        if (semanas == 0) {
+            return new PronosticoDemanda(0, null, 0, 0);
+        }
+        if (semanas < MIN_SEMANAS_AJUSTE) {
+            double promedio = promedio(semanal, semanas);
+            return new PronosticoDemanda(promedio, null, errorAbsolutoMedio(semanal, promedio), semanas);
+        }
+
+        double nivelInicial = promedio(semanal, SEMANAS_NIVEL_INICIAL);
+        double mejorAlpha = ALPHAS[0];
+        double mejorError = Double.POSITIVE_INFINITY;
+        for (double alpha : ALPHAS) {
+            double nivel = nivelInicial;
+            double errorCuadratico = 0;
+            for (double observado : semanal) {
+                double error = observado - nivel;
+                errorCuadratico += error * error;
+                nivel += alpha * error;
+            }
+            if (errorCuadratico < mejorError) {
+                mejorError = errorCuadratico;
+                mejorAlpha = alpha;
+            }
+        }
+
+        double nivel = nivelInicial;
+        double errorAbsoluto = 0;
+        for (double observado : semanal) {
+            double error = observado - nivel;
+            errorAbsoluto += Math.abs(error);
+            nivel += mejorAlpha * error;
+        }
+        return new PronosticoDemanda(Math.max(0, nivel), mejorAlpha, errorAbsoluto / semanas, semanas);
+    }
+
+    private static double promedio(double[] valores, int cantidad) {
+        double suma = 0;
+        for (int i = 0; i < cantidad; i++) {
+            suma += valores[i];
+        }
+        return suma / cantidad;
+    }
+
+    private static double errorAbsolutoMedio(double[] valores, double pronostico) {
+        double suma = 0;
+        for (double valor : valores) {
+            suma += Math.abs(valor - pronostico);
+        }
+        return suma / valores.length;
+    }
+
+    /**
+     * @param alpha nulo cuando la historia es muy corta y el pronostico es el promedio.
+     */
+    public record PronosticoDemanda(
+            double demandaSemanal,
+            Double alpha,
+            double errorAbsolutoMedio,
+            int semanasHistoria
+    ) {
+    }
+}
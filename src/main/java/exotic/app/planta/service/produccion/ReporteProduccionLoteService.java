@@ -28,9 +28,9 @@ import java.util.List;
 @Transactional(rollbackFor = Exception.class)
 public class ReporteProduccionLoteService {
 
-    private static final int ESTADO_FABRICACION_COMPLETADA = 3;
-    private static final int ESTADO_TERMINADA = 2;
-    private static final int ESTADO_CANCELADA = -1;
+    private static final int ESTADO_FABRICACION_COMPLETADA = OrdenProduccion.ESTADO_FABRICACION_COMPLETADA;
+    private static final int ESTADO_TERMINADA = OrdenProduccion.ESTADO_TERMINADA;
+    private static final int ESTADO_CANCELADA = OrdenProduccion.ESTADO_CANCELADA;
 
     private final ReporteProduccionLoteRepo reporteRepo;
     private final LoteRepo loteRepo;
@@ -0,0 +1,144 @@
+package exotic.app.planta.service.produccion;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Operaciones productivas del proceso congelado de una version con sus precedencias y un orden
+ * valido; inmutable. Se interpreta solo al generar las operaciones de una OF ({@link #leer}).
+ */
+record RutaCongelada(
+        Map<String, NodoRuta> nodes,
+        Map<String, Set<String>> predecessors,
+        List<String> topologicalOrder
+) {
+
+    static RutaCongelada leer(String json, ObjectMapper objectMapper) {
+        if (json == null || json.isBlank()) {
+            throw new IllegalStateException("La OF no tiene un proceso de manufactura congelado.");
+        }
+        try {
+            JsonNode root = objectMapper.readTree(json);
+            JsonNode nodesJson = root.path("nodes");
+            JsonNode edgesJson = root.path("edges");
+            if (!nodesJson.isArray() || !edgesJson.isArray()) {
+                throw new IllegalStateException("El proceso congelado no contiene nodes y edges validos.");
+            }
+            Map<String, JsonNode> allNodes = new LinkedHashMap<>();
+            Map<String, NodoRuta> processNodes = new LinkedHashMap<>();
+            for (JsonNode node : nodesJson) {
+                String id = procesoText(node, "frontendId");
+                if (allNodes.put(id, node) != null) {
+                    throw new IllegalStateException("El proceso contiene frontendId duplicado: " + id);
+                }
+                if ("PROCESO".equalsIgnoreCase(node.path("nodeType").asText())) {
+                    int areaId = node.path("areaOperativaId").asInt(Integer.MIN_VALUE);
+                    if (areaId == Integer.MIN_VALUE) {
+                        throw new IllegalStateException("El nodo " + id + " no tiene area operativa.");
+                    }
+                    Integer procesoId = node.hasNonNull("procesoId")
+                            ? node.get("procesoId").asInt() : null;
+                    String nombre = truncate(firstText(
+                            node.path("procesoNombre").asText(null),
+                            node.path("label").asText(null), "Etapa " + id), 200);
+                    processNodes.put(id, new NodoRuta(id, areaId, procesoId, nombre));
+                }
+            }
+            if (processNodes.isEmpty()) {
+                throw new IllegalStateException("El proceso de la OF no contiene operaciones productivas.");
+            }
+            Map<String, Set<String>> adjacency = new LinkedHashMap<>();
+            allNodes.keySet().forEach(id -> adjacency.put(id, new LinkedHashSet<>()));
+            for (JsonNode edge : edgesJson) {
+                String source = procesoText(edge, "sourceFrontendId");
+                String target = procesoText(edge, "targetFrontendId");
+                if (!allNodes.containsKey(source) || !allNodes.containsKey(target)) {
+                    throw new IllegalStateException("Una conexion referencia nodos inexistentes.");
+                }
+                adjacency.get(source).add(target);
+            }
+
+            Map<String, Set<String>> predecessors = new LinkedHashMap<>();
+            processNodes.keySet().forEach(id -> predecessors.put(id, new LinkedHashSet<>()));
+            for (String source : processNodes.keySet()) {
+                Deque<String> pending = new ArrayDeque<>(adjacency.getOrDefault(source, Set.of()));
+                Set<String> visited = new HashSet<>();
+                while (!pending.isEmpty()) {
+                    String current = pending.removeFirst();
+                    if (!visited.add(current)) continue;
+                    if (processNodes.containsKey(current)) {
+                        predecessors.get(current).add(source);
+                    } else {
+                        pending.addAll(adjacency.getOrDefault(current, Set.of()));
+                    }
+                }
+            }
+            List<String> order = ordenTopologico(processNodes.keySet(), predecessors);
+            predecessors.replaceAll((ignored, sources) -> Collections.unmodifiableSet(sources));
+            return new RutaCongelada(
+                    Collections.unmodifiableMap(processNodes),
+                    Collections.unmodifiableMap(predecessors),
+                    List.copyOf(order));
+        } catch (JsonProcessingException exception) {
+            throw new IllegalStateException("No se pudo interpretar el proceso congelado de la OF.", exception);
+        }
+    }
+
+    private static List<String> ordenTopologico(
+            Set<String> nodes, Map<String, Set<String>> predecessors) {
+        Map<String, Integer> indegree = new LinkedHashMap<>();
+        Map<String, Set<String>> successors = new LinkedHashMap<>();
+        nodes.forEach(node -> {
+            indegree.put(node, predecessors.getOrDefault(node, Set.of()).size());
+            successors.put(node, new LinkedHashSet<>());
+        });
+        predecessors.forEach((target, sources) -> sources.forEach(source ->
+                successors.get(source).add(target)));
+        Deque<String> ready = new ArrayDeque<>();
+        indegree.forEach((node, degree) -> { if (degree == 0) ready.add(node); });
+        List<String> result = new ArrayList<>();
+        while (!ready.isEmpty()) {
+            String source = ready.removeFirst();
+            result.add(source);
+            for (String target : successors.get(source)) {
+                int next = indegree.computeIfPresent(target, (ignored, value) -> value - 1);
+                if (next == 0) ready.addLast(target);
+            }
+        }
+        if (result.size() != nodes.size()) {
+            throw new IllegalStateException("El proceso congelado de la OF contiene ciclos.");
+        }
+        return result;
+    }
+
+    private static String procesoText(JsonNode node, String field) {
+        String value = node.path(field).asText(null);
+        if (value == null || value.isBlank()) {
+            throw new IllegalStateException("El proceso congelado no contiene " + field + ".");
+        }
+        return value;
+    }
+
+    private static String firstText(String... values) {
+        for (String value : values) if (value != null && !value.isBlank()) return value.trim();
+        return "Etapa";
+    }
+
+    private static String truncate(String value, int max) {
+        return value == null || value.length() <= max ? value : value.substring(0, max);
+    }
+
+    record NodoRuta(String id, int areaId, Integer procesoId, String nombre) {}
+}
@@ -1,21 +1,18 @@
 package exotic.app.planta.service.produccion;
 
-import exotic.app.planta.model.empresa.JornadaLaboralBloque;
-import exotic.app.planta.model.empresa.JornadaLaboralVersion;
 import exotic.app.planta.model.produccion.OrdenProduccion;
 import exotic.app.planta.model.produccion.SeguimientoOrdenArea;
 import exotic.app.planta.model.produccion.ruprocatdesigner.RutaProcesoCatVersion;
 import exotic.app.planta.model.produccion.ruprocatdesigner.RutaProcesoEdge;
-import exotic.app.planta.repo.empresa.JornadaLaboralVersionRepo;
+import exotic.app.planta.service.empresa.CalendarioLaboral;
+import exotic.app.planta.service.empresa.CalendarioLaboralRegistry;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Duration;
-import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Comparator;
@@ -29,7 +26,7 @@ import java.util.Objects;
 @RequiredArgsConstructor
 public class RutaProcesoEstimacionService {
 
-    private final JornadaLaboralVersionRepo jornadaLaboralVersionRepo;
+    private final CalendarioLaboralRegistry calendarioLaboralRegistry;
 
     @Transactional(readOnly = true)
     public RutaProcesoEstimacionDTO estimarOrden(
@@ -67,7 +64,7 @@ public class RutaProcesoEstimacionService {
         }
 
         Graph graph = buildGraph(rutaVersion, seguimientoPorNodeId);
-        JornadaLaboralVersion jornada = resolveJornada(orden);
+        CalendarioLaboral calendario = calendarioLaboralRegistry.de(orden.getJornadaLaboralVersion());
         Map<Long, LocalDateTime> finishByNodeId = new HashMap<>();
         ArrayDeque<Long> queue = graph.zeroIndegreeQueue();
         int processed = 0;
@@ -86,11 +83,10 @@ public class RutaProcesoEstimacionService {
                     .max(LocalDateTime::compareTo)
                     .orElse(inicio);
 
-            LocalDateTime nodeFinish = addMinutes(
+            LocalDateTime nodeFinish = calendario.sumarMinutos(
                     nodeStart,
                     Math.max(seguimiento.getDuracionEstimadaMinutos(), 0),
-                    seguimiento.isRequiereJornadaLaboral(),
-                    jornada
+                    seguimiento.isRequiereJornadaLaboral()
             );
             finishByNodeId.put(nodeId, nodeFinish);
             processed++;
@@ -120,14 +116,13 @@ public class RutaProcesoEstimacionService {
             List<SeguimientoOrdenArea> seguimientos,
             OrdenProduccion orden
     ) {
-        JornadaLaboralVersion jornada = resolveJornada(orden);
+        CalendarioLaboral calendario = calendarioLaboralRegistry.de(orden.getJornadaLaboralVersion());
         LocalDateTime current = inicio;
         for (SeguimientoOrdenArea seguimiento : seguimientos) {
-            current = addMinutes(
+            current = calendario.sumarMinutos(
                     current,
                     Math.max(seguimiento.getDuracionEstimadaMinutos(), 0),
-                    seguimiento.isRequiereJornadaLaboral(),
-                    jornada
+                    seguimiento.isRequiereJornadaLaboral()
             );
         }
         return buildDTO(inicio, current, orden);
@@ -171,14 +166,6 @@ public class RutaProcesoEstimacionService {
                 .orElse(null);
     }
 
-    private JornadaLaboralVersion resolveJornada(OrdenProduccion orden) {
-        if (orden.getJornadaLaboralVersion() != null) {
-            return orden.getJornadaLaboralVersion();
-        }
-        return jornadaLaboralVersionRepo.findFirstByEstadoOrderByVersionDesc(JornadaLaboralVersion.Estado.VIGENTE)
-                .orElse(null);
-    }
-
     private Graph buildGraph(
             RutaProcesoCatVersion rutaVersion,
             Map<Long, SeguimientoOrdenArea> seguimientoPorNodeId
@@ -206,108 +193,6 @@ public class RutaProcesoEstimacionService {
         return new Graph(outgoing, incoming, new LinkedHashMap<>(indegree));
     }
 
-    private LocalDateTime addMinutes(
-            LocalDateTime start,
-            int minutes,
-            boolean requiereJornadaLaboral,
-            JornadaLaboralVersion jornada
-    ) {
-        if (minutes <= 0) {
-            return start;
-        }
-        if (!requiereJornadaLaboral || jornada == null || jornada.getBloques() == null || jornada.getBloques().isEmpty()) {
-            return start.plusMinutes(minutes);
-        }
-        return addWorkingMinutes(start, minutes, jornada);
-    }
-
-    private LocalDateTime addWorkingMinutes(
-            LocalDateTime start,
-            long minutes,
-            JornadaLaboralVersion jornada
-    ) {
-        Map<Integer, List<JornadaLaboralBloque>> bloquesPorDia = buildBloquesPorDia(jornada);
-        if (bloquesPorDia.isEmpty()) {
-            return start.plusMinutes(minutes);
-        }
-
-        LocalDateTime current = start;
-        long remaining = minutes;
-        while (remaining > 0) {
-            current = moveToWorkingTime(current, bloquesPorDia);
-            LocalDateTime blockEnd = resolveCurrentBlockEnd(current, bloquesPorDia);
-            if (blockEnd == null) {
-                return current.plusMinutes(remaining);
-            }
-
-            long available = Math.max(Duration.between(current, blockEnd).toMinutes(), 0);
-            if (available <= 0) {
-                current = current.plusMinutes(1);
-                continue;
-            }
-
-            long consumed = Math.min(remaining, available);
-            current = current.plusMinutes(consumed);
-            remaining -= consumed;
-        }
-
-        return current;
-    }
-
-    private Map<Integer, List<JornadaLaboralBloque>> buildBloquesPorDia(JornadaLaboralVersion jornada) {
-        Map<Integer, List<JornadaLaboralBloque>> result = new HashMap<>();
-        for (JornadaLaboralBloque bloque : jornada.getBloques()) {
-            result.computeIfAbsent(bloque.getDiaSemana(), ignored -> new ArrayList<>()).add(bloque);
-        }
-        result.values().forEach(blocks -> blocks.sort(Comparator.comparing(JornadaLaboralBloque::getHoraInicio)));
-        return result;
-    }
-
-    private LocalDateTime moveToWorkingTime(
-            LocalDateTime value,
-            Map<Integer, List<JornadaLaboralBloque>> bloquesPorDia
-    ) {
-        for (int offset = 0; offset <= 7; offset++) {
-            LocalDate date = value.toLocalDate().plusDays(offset);
-            List<JornadaLaboralBloque> blocks = bloquesPorDia.get(date.getDayOfWeek().getValue());
-            if (blocks == null || blocks.isEmpty()) {
-                continue;
-            }
-
-            for (JornadaLaboralBloque block : blocks) {
-                LocalDateTime blockStart = LocalDateTime.of(date, block.getHoraInicio());
-                LocalDateTime blockEnd = LocalDateTime.of(date, block.getHoraFin());
-                if (offset == 0 && !value.isBefore(blockStart) && value.isBefore(blockEnd)) {
-                    return value;
-                }
-                if (value.isBefore(blockStart)) {
-                    return blockStart;
-                }
-            }
-        }
-
-        return value;
-    }
-
-    private LocalDateTime resolveCurrentBlockEnd(
-            LocalDateTime value,
-            Map<Integer, List<JornadaLaboralBloque>> bloquesPorDia
-    ) {
-        List<JornadaLaboralBloque> blocks = bloquesPorDia.get(value.getDayOfWeek().getValue());
-        if (blocks == null) {
-            return null;
-        }
-
-        LocalTime time = value.toLocalTime();
-        for (JornadaLaboralBloque block : blocks) {
-            if (!time.isBefore(block.getHoraInicio()) && time.isBefore(block.getHoraFin())) {
-                return LocalDateTime.of(value.toLocalDate(), block.getHoraFin());
-            }
-        }
-
-        return null;
-    }
-
     private record Graph(
             Map<Long, List<Long>> outgoing,
             Map<Long, List<Long>> incoming,
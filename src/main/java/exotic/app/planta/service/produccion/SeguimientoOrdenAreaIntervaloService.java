@@ -0,0 +1,96 @@
+package exotic.app.planta.service.produccion;
+
+import exotic.app.planta.model.produccion.SeguimientoOrdenArea;
+import exotic.app.planta.model.produccion.SeguimientoOrdenAreaEvento;
+import exotic.app.planta.model.produccion.SeguimientoOrdenAreaIntervalo;
+import exotic.app.planta.repo.produccion.SeguimientoOrdenAreaEventoRepo;
+import exotic.app.planta.repo.produccion.SeguimientoOrdenAreaIntervaloRepo;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Mantiene {@link SeguimientoOrdenAreaIntervalo}, la tabla de permanencias de la que salen las
+ * metricas historicas de {@link MonitoreoAreasOperativasMetricasService}.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(rollbackFor = Exception.class)
+public class SeguimientoOrdenAreaIntervaloService {
+
+    private final SeguimientoOrdenAreaEventoRepo seguimientoEventoRepo;
+    private final SeguimientoOrdenAreaIntervaloRepo intervaloRepo;
+
+    /**
+     * Reemplaza los intervalos del seguimiento a partir de sus eventos actuales. Se llama
+     * despues de cada evento registrado; una reversion cambia intervalos ya cerrados, por eso
+     * se recalcula el seguimiento completo y no solo el ultimo tramo.
+     */
+    public void recalcular(SeguimientoOrdenArea seguimiento) {
+        List<SeguimientoOrdenAreaEvento> eventos =
+                seguimientoEventoRepo.findBySeguimientoOrdenArea_IdOrderByFechaEventoAscIdAsc(seguimiento.getId());
+
+        List<SeguimientoOrdenAreaIntervalo> intervalos = new ArrayList<>();
+        int areaId = seguimiento.getAreaOperativa().getAreaId();
+        for (IntervaloCerrado intervalo : resolverIntervalos(eventos)) {
+            SeguimientoOrdenAreaIntervalo fila = new SeguimientoOrdenAreaIntervalo();
+            fila.setSeguimientoOrdenAreaId(seguimiento.getId());
+            fila.setAreaOperativaId(areaId);
+            fila.setEstado(intervalo.estado());
+            fila.setMinutos(intervalo.minutos());
+            fila.setCerradoEn(intervalo.cerradoEn());
+            intervalos.add(fila);
+        }
+
+        intervaloRepo.deleteBySeguimientoOrdenAreaId(seguimiento.getId());
+        if (!intervalos.isEmpty()) {
+            intervaloRepo.saveAll(intervalos);
+        }
+    }
+
+    /**
+     * Intervalos cerrados de eventos ordenados por fecha e id: cada evento no revertido que
+     * entra a un estado se cierra con el primer evento no revertido posterior cuyo origen es
+     * ese estado. Una sola pasada con las entradas abiertas por estado.
+     */
+    static List<IntervaloCerrado> resolverIntervalos(List<SeguimientoOrdenAreaEvento> eventos) {
+        Set<Long> revertidos = eventos.stream()
+                .map(SeguimientoOrdenAreaEvento::getEventoRevertido)
+                .filter(Objects::nonNull)
+                .map(SeguimientoOrdenAreaEvento::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        List<IntervaloCerrado> intervalos = new ArrayList<>();
+        Map<Integer, List<LocalDateTime>> entradasAbiertas = new HashMap<>();
+        for (SeguimientoOrdenAreaEvento evento : eventos) {
+            if (evento.getId() != null && revertidos.contains(evento.getId())) {
+                continue;
+            }
+            if (evento.getEstadoOrigen() != null) {
+                List<LocalDateTime> entradas = entradasAbiertas.remove(evento.getEstadoOrigen());
+                if (entradas != null) {
+                    for (LocalDateTime entrada : entradas) {
+                        long minutos = Math.max(Duration.between(entrada, evento.getFechaEvento()).toMinutes(), 0);
+                        intervalos.add(new IntervaloCerrado(evento.getEstadoOrigen(), minutos, evento.getFechaEvento()));
+                    }
+                }
+            }
+            entradasAbiertas.computeIfAbsent(evento.getEstadoDestino(), estado -> new ArrayList<>())
+                    .add(evento.getFechaEvento());
+        }
+        return intervalos;
+    }
+
+    record IntervaloCerrado(int estado, long minutos, LocalDateTime cerradoEn) {}
+}
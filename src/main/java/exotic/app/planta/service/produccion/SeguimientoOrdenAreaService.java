@@ -81,6 +81,7 @@ public class SeguimientoOrdenAreaService {
 
     private final SeguimientoOrdenAreaRepo seguimientoRepo;
     private final SeguimientoOrdenAreaEventoRepo seguimientoEventoRepo;
+    private final SeguimientoOrdenAreaIntervaloService seguimientoIntervaloService;
     private final AreaProduccionRepo areaProduccionRepo;
     private final RutaProcesoCatVersionRepo rutaProcesoCatVersionRepo;
     private final JornadaLaboralVersionRepo jornadaLaboralVersionRepo;
@@ -1180,6 +1181,7 @@ public class SeguimientoOrdenAreaService {
         evento.setUsuario(actor);
         evento.setNota(normalizeNota(nota));
         SeguimientoOrdenAreaEvento eventoGuardado = seguimientoEventoRepo.saveAndFlush(evento);
+        seguimientoIntervaloService.recalcular(seguimiento);
         batchRecordService.sincronizarEventoSeguimiento(eventoGuardado);
     }
 
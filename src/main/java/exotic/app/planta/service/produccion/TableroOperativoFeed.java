@@ -0,0 +1,206 @@
+package exotic.app.planta.service.produccion;
+
+import exotic.app.planta.model.organizacion.AreaOperativa;
+import exotic.app.planta.model.produccion.TableroAreaCambioEvent;
+import exotic.app.planta.repo.producto.procesos.AreaProduccionRepo;
+import exotic.app.planta.service.commons.sse.SseCanal;
+import exotic.app.planta.service.commons.sse.SseDifusor;
+import exotic.app.planta.service.produccion.SeguimientoOrdenAreaService.AreaOperativaTableroDTO;
+import exotic.app.planta.service.produccion.SeguimientoOrdenAreaService.TableroOperativoDTO;
+import exotic.app.planta.service.produccion.SeguimientoOrdenAreaService.TableroVista;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Difusion por Server-Sent Events de los tableros de area (monitoreo) y del tablero del
+ * operario responsable, en reemplazo del polling de las tablets de planta.
+ *
+ * <p>Cada commit que toca un seguimiento de OP o una operacion de OF publica
+ * {@link TableroAreaCambioEvent}; las areas afectadas se acumulan y en
+ * {@link #publicarCambios()} cada tablero se recalcula una sola vez y se envia a todos sus
+ * suscriptores, sin importar cuantos reportes entraron ni cuantas tablets lo miran. Cada
+ * {@link #REFRESCO_COMPLETO} se reenvian todos para que avancen los minutos en estado. El
+ * tick solo calcula los tableros; los envios van por el {@link SseDifusor}.
+ *
+ * <p>Un tablero de area que no se pudo calcular se reintenta con espera creciente desde
+ * {@link #REINTENTO_INICIAL} hasta sumar {@link #MAX_REINTENTOS} fallos; despues queda para el
+ * refresco completo. Si el area ya no existe ({@link IllegalArgumentException}) no se reintenta.
+ */
+@Service
+@Slf4j
+public class TableroOperativoFeed {
+
+    static final Duration REFRESCO_COMPLETO = Duration.ofMinutes(1);
+    static final Duration REINTENTO_INICIAL = Duration.ofSeconds(2);
+    static final int MAX_REINTENTOS = 5;
+    static final String EVENTO_TABLERO_AREA = "tablero-area";
+    static final String EVENTO_TABLERO_OPERATIVO = "tablero-operativo";
+
+    private final SeguimientoOrdenAreaService seguimientoOrdenAreaService;
+    private final AreaProduccionRepo areaProduccionRepo;
+    private final Clock applicationClock;
+    /** Suscripciones de tablero de area, por id de area. */
+    private final SseCanal<Integer> suscripcionesArea;
+    private final SseCanal<SuscripcionOperador> suscripcionesOperador;
+
+    private final Set<Integer> pendientes = ConcurrentHashMap.newKeySet();
+    private final Map<Integer, Reintento> reintentos = new ConcurrentHashMap<>();
+    private volatile Instant ultimoRefrescoCompleto;
+
+    public TableroOperativoFeed(
+            SeguimientoOrdenAreaService seguimientoOrdenAreaService,
+            AreaProduccionRepo areaProduccionRepo,
+            Clock applicationClock,
+            SseDifusor sseDifusor
+    ) {
+        this.seguimientoOrdenAreaService = seguimientoOrdenAreaService;
+        this.areaProduccionRepo = areaProduccionRepo;
+        this.applicationClock = applicationClock;
+        this.suscripcionesArea = sseDifusor.canal("TABLERO-AREA");
+        this.suscripcionesOperador = sseDifusor.canal("TABLERO-OPERATIVO");
+    }
+
+    /**
+     * Abre el stream del tablero de hoy de un area. El primer evento es el tablero actual y
+     * despues llega uno nuevo por cada lote de cambios confirmados en el area.
+     *
+     * @throws IllegalArgumentException si el area no existe
+     */
+    public SseEmitter suscribirArea(int areaId) {
+        AreaOperativaTableroDTO inicial = seguimientoOrdenAreaService.getTableroAreaPorFecha(areaId, null);
+        return suscripcionesArea.suscribir(areaId, EVENTO_TABLERO_AREA, inicial);
+    }
+
+    /**
+     * Abre el stream del tablero del operario con la primera pagina de completadas y sin
+     * busqueda, igual que la carga inicial de {@code /mis-ordenes-tablero}. Se actualiza cuando
+     * cambia alguna de las areas que tiene a cargo al conectar.
+     */
+    public SseEmitter suscribirOperador(Long userId, TableroVista vista) {
+        TableroVista vistaEfectiva = vista != null ? vista : TableroVista.HISTORICO;
+        Set<Integer> areaIds = areaProduccionRepo.findAllByResponsableArea_Id(userId).stream()
+                .map(AreaOperativa::getAreaId)
+                .collect(Collectors.toUnmodifiableSet());
+        TableroOperativoDTO inicial = seguimientoOrdenAreaService.getTableroOperativoUsuario(userId, vistaEfectiva);
+        return suscripcionesOperador.suscribir(
+                new SuscripcionOperador(userId, vistaEfectiva, areaIds), EVENTO_TABLERO_OPERATIVO, inicial);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCambio(TableroAreaCambioEvent event) {
+        pendientes.add(event.areaId());
+    }
+
+    /**
+     * Recalcula una vez cada tablero afectado por los cambios acumulados y encola el envio a
+     * sus suscriptores.
+     */
+    @Scheduled(fixedDelayString = "${app.tablero.publicacion-ms:1000}")
+    public void publicarCambios() {
+        Instant ahora = applicationClock.instant();
+        Set<Integer> areas = new HashSet<>();
+        for (Integer areaId : List.copyOf(pendientes)) {
+            pendientes.remove(areaId);
+            areas.add(areaId);
+        }
+        // Las areas en espera de reintento salen cuando se cumple su plazo, aunque tengan eventos nuevos.
+        reintentos.forEach((areaId, reintento) -> {
+            if (ahora.isBefore(reintento.siguiente())) {
+                areas.remove(areaId);
+            } else {
+                areas.add(areaId);
+            }
+        });
+        boolean refrescoCompleto = ultimoRefrescoCompleto == null
+                || !ahora.isBefore(ultimoRefrescoCompleto.plus(REFRESCO_COMPLETO));
+        if (refrescoCompleto) {
+            ultimoRefrescoCompleto = ahora;
+        }
+        if (areas.isEmpty() && !refrescoCompleto) {
+            return;
+        }
+        publicarTablerosArea(areas, refrescoCompleto);
+        publicarTablerosOperador(areas, refrescoCompleto);
+    }
+
+    int suscriptores() {
+        return suscripcionesArea.suscriptores() + suscripcionesOperador.suscriptores();
+    }
+
+    private void publicarTablerosArea(Set<Integer> areas, boolean todas) {
+        Map<Integer, AreaOperativaTableroDTO> tableros = new HashMap<>();
+        suscripcionesArea.difundir(
+                EVENTO_TABLERO_AREA,
+                areaId -> todas || areas.contains(areaId),
+                areaId -> tableros.computeIfAbsent(areaId, this::calcularTableroArea));
+    }
+
+    private void publicarTablerosOperador(Set<Integer> areas, boolean todos) {
+        Map<ClaveOperador, TableroOperativoDTO> tableros = new HashMap<>();
+        suscripcionesOperador.difundir(
+                EVENTO_TABLERO_OPERATIVO,
+                suscripcion -> todos || suscripcion.areaIds().stream().anyMatch(areas::contains),
+                suscripcion -> tableros.computeIfAbsent(
+                        new ClaveOperador(suscripcion.userId(), suscripcion.vista()),
+                        this::calcularTableroOperador));
+    }
+
+    private AreaOperativaTableroDTO calcularTableroArea(int areaId) {
+        try {
+            AreaOperativaTableroDTO tablero = seguimientoOrdenAreaService.getTableroAreaPorFecha(areaId, null);
+            reintentos.remove(areaId);
+            return tablero;
+        } catch (IllegalArgumentException e) {
+            log.warn("[TABLERO] se descarta el tablero del area {}: {}", areaId, e.getMessage());
+            reintentos.remove(areaId);
+            return null;
+        } catch (RuntimeException e) {
+            programarReintento(areaId, e);
+            return null;
+        }
+    }
+
+    private void programarReintento(int areaId, RuntimeException e) {
+        int intentos = reintentos.containsKey(areaId) ? reintentos.get(areaId).intentos() + 1 : 1;
+        if (intentos >= MAX_REINTENTOS) {
+            reintentos.remove(areaId);
+            log.error("[TABLERO] el tablero del area {} fallo {} veces; queda para el refresco completo: {}",
+                    areaId, intentos, e.getMessage());
+            return;
+        }
+        Duration espera = REINTENTO_INICIAL.multipliedBy(1L << (intentos - 1));
+        reintentos.put(areaId, new Reintento(intentos, applicationClock.instant().plus(espera)));
+        log.warn("[TABLERO] no se pudo recalcular el tablero del area {} (intento {}), se reintenta en {}s: {}",
+                areaId, intentos, espera.toSeconds(), e.getMessage());
+    }
+
+    private TableroOperativoDTO calcularTableroOperador(ClaveOperador clave) {
+        try {
+            return seguimientoOrdenAreaService.getTableroOperativoUsuario(clave.userId(), clave.vista());
+        } catch (RuntimeException e) {
+            log.warn("[TABLERO] no se pudo recalcular el tablero del usuario {}: {}", clave.userId(), e.getMessage());
+            return null;
+        }
+    }
+
+    private record SuscripcionOperador(Long userId, TableroVista vista, Set<Integer> areaIds) {}
+
+    private record ClaveOperador(Long userId, TableroVista vista) {}
+
+    private record Reintento(int intentos, Instant siguiente) {}
+}
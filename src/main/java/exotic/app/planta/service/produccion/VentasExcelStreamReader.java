@@ -0,0 +1,384 @@
+package exotic.app.planta.service.produccion;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.poifs.filesystem.FileMagic;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.springframework.stereotype.Component;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Lee el informe de ventas (.xlsx) con el lector por eventos de POI y agrega cantidad y valor
+ * vendidos por codigo y dia. Las filas se procesan a medida que se parsean, sin construir el
+ * modelo de celdas del libro, de modo que la memoria depende de productos x dias y no del
+ * numero de lineas del informe.
+ *
+ * <p>Las columnas se ubican por encabezado (FECHA, CODIGO, CANTIDAD VENDIDA, VALOR TOTAL) y, si
+ * alguno falta, por la posicion del formato esperado por {@link PlaneacionExcelDebugService}.
+ */
+@Component
+public class VentasExcelStreamReader {
+
+    static final String HEADER_FECHA = "FECHA";
+    static final String HEADER_CODIGO = "CODIGO";
+    static final String HEADER_CANTIDAD_VENDIDA = "CANTIDAD VENDIDA";
+    static final String HEADER_VALOR_TOTAL = "VALOR TOTAL";
+
+    private static final int COL_FECHA_INDEX = 0;
+    private static final int COL_CODIGO_INDEX = 10;
+    private static final int COL_CANTIDAD_VENDIDA_INDEX = 12;
+    private static final int COL_VALOR_TOTAL_INDEX = 15;
+    private static final int MAX_FILAS_BUSQUEDA_ENCABEZADO = 5;
+
+    private static final List<DateTimeFormatter> FORMATOS_FECHA_TEXTO = List.of(
+            DateTimeFormatter.ISO_LOCAL_DATE,
+            DateTimeFormatter.ofPattern("d/M/uuuu"),
+            DateTimeFormatter.ofPattern("d-M-uuuu"),
+            DateTimeFormatter.ofPattern("d/M/uu")
+    );
+
+    /**
+     * @throws IllegalArgumentException si el archivo no es .xlsx o ninguna hoja tiene el
+     *                                  encabezado CODIGO.
+     */
+    public LecturaVentas leer(InputStream inputStream) throws IOException {
+        InputStream stream = FileMagic.prepareToCheckMagic(inputStream);
+        if (FileMagic.valueOf(stream) != FileMagic.OOXML) {
+            throw new IllegalArgumentException(
+                    "El informe de ventas debe estar en formato .xlsx para procesarse en el servidor.");
+        }
+
+        OPCPackage pkg = null;
+        try {
+            pkg = OPCPackage.open(stream);
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg, false);
+            StylesTable styles = reader.getStylesTable();
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+
+            while (sheets.hasNext()) {
+                FormatoCrudo formato = new FormatoCrudo();
+                HojaVentasHandler handler = new HojaVentasHandler(formato);
+                try (InputStream sheet = sheets.next()) {
+                    XMLReader parser = XMLHelper.newXMLReader();
+                    parser.setContentHandler(new XSSFSheetXMLHandler(
+                            styles, null, strings, handler, formato, false));
+                    parser.parse(new InputSource(sheet));
+                } catch (HojaSinEncabezado ignored) {
+                    continue;
+                }
+                if (handler.encabezadoEncontrado) {
+                    return handler.resultado(sheets.getSheetName());
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("No se pudo leer el informe de ventas: " + e.getMessage(), e);
+        } finally {
+            if (pkg != null) {
+                // Solo lectura: se descarta el paquete sin intentar guardarlo.
+                pkg.revert();
+            }
+        }
+
+        throw new IllegalArgumentException("El archivo no contiene una hoja con el encabezado " + HEADER_CODIGO + ".");
+    }
+
+    static LocalDate semanaDe(LocalDate fecha) {
+        return fecha.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    /**
+     * Resultado de la lectura. {@code dias} viene ordenado por codigo y fecha.
+     * {@code celdasNumericasInvalidas} cuenta las celdas de cantidad o valor que no se pudieron
+     * leer como numero; no suman nada pero la fila se conserva.
+     */
+    public record LecturaVentas(
+            String hoja,
+            int filasLeidas,
+            int filasSinCodigo,
+            int filasSinFecha,
+            int celdasNumericasInvalidas,
+            List<VentaDiaria> dias
+    ) {
+        public LocalDate primeraFecha() {
+            return dias.stream().map(VentaDiaria::fecha).min(Comparator.naturalOrder()).orElse(null);
+        }
+
+        public LocalDate ultimaFecha() {
+            return dias.stream().map(VentaDiaria::fecha).max(Comparator.naturalOrder()).orElse(null);
+        }
+    }
+
+    public record VentaDiaria(
+            String codigo,
+            LocalDate fecha,
+            double cantidadVendida,
+            double valorTotal,
+            int lineas
+    ) {
+    }
+
+    private record ClaveDia(String codigo, LocalDate fecha) {
+    }
+
+    private static final class Acumulado {
+        private double cantidadVendida;
+        private double valorTotal;
+        private int lineas;
+    }
+
+    /**
+     * Las fechas con formato de fecha se entregan en ISO y los demas numeros sin separadores de
+     * miles ni redondeo de formato, para no depender del locale ni del formato de la celda.
+     * Recuerda si la ultima celda entregada era numerica: su texto ya no es ambiguo y no pasa por
+     * {@link #parseNumero}.
+     */
+    private static final class FormatoCrudo extends DataFormatter {
+        private boolean numerica;
+
+        boolean consumirNumerica() {
+            boolean resultado = numerica;
+            numerica = false;
+            return resultado;
+        }
+
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString) {
+            numerica = true;
+            if (DateUtil.isADateFormat(formatIndex, formatString) && DateUtil.isValidExcelDate(value)) {
+                return DateUtil.getLocalDateTime(value).toLocalDate().toString();
+            }
+            return BigDecimal.valueOf(value).stripTrailingZeros().toPlainString();
+        }
+    }
+
+    /**
+     * Corta el parseo de una hoja que no trae el encabezado en sus primeras filas.
+     */
+    private static final class HojaSinEncabezado extends RuntimeException {
+        private HojaSinEncabezado() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static final class HojaVentasHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+        private final FormatoCrudo formato;
+        private final Map<Integer, String> fila = new HashMap<>();
+        private final Set<Integer> columnasNumericas = new HashSet<>();
+        private final Map<ClaveDia, Acumulado> acumulados = new LinkedHashMap<>();
+        private int siguienteColumna;
+        private boolean encabezadoEncontrado;
+        private int colFecha = COL_FECHA_INDEX;
+        private int colCodigo = COL_CODIGO_INDEX;
+        private int colCantidad = COL_CANTIDAD_VENDIDA_INDEX;
+        private int colValor = COL_VALOR_TOTAL_INDEX;
+        private int filasLeidas;
+        private int filasSinCodigo;
+        private int filasSinFecha;
+        private int celdasNumericasInvalidas;
+
+        private HojaVentasHandler(FormatoCrudo formato) {
+            this.formato = formato;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            fila.clear();
+            columnasNumericas.clear();
+            siguienteColumna = 0;
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int columna = cellReference != null ? new CellReference(cellReference).getCol() : siguienteColumna;
+            siguienteColumna = columna + 1;
+            boolean numerica = formato.consumirNumerica();
+            if (formattedValue != null) {
+                fila.put(columna, formattedValue.trim());
+                if (numerica) {
+                    columnasNumericas.add(columna);
+                }
+            }
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (!encabezadoEncontrado) {
+                detectarEncabezado(rowNum);
+                return;
+            }
+            if (fila.isEmpty()) {
+                return;
+            }
+
+            filasLeidas++;
+            if ("TOTALES".equals(valor(0).toUpperCase(Locale.ROOT))) {
+                return;
+            }
+            String codigo = valor(colCodigo);
+            if (codigo.isBlank()) {
+                filasSinCodigo++;
+                return;
+            }
+            LocalDate fecha = parseFecha(valor(colFecha));
+            if (fecha == null) {
+                filasSinFecha++;
+                return;
+            }
+
+            Acumulado acumulado = acumulados.computeIfAbsent(
+                    new ClaveDia(codigo, fecha), ignored -> new Acumulado());
+            acumulado.cantidadVendida += numero(colCantidad);
+            acumulado.valorTotal += numero(colValor);
+            acumulado.lineas++;
+        }
+
+        /** Las celdas que no se pueden leer se cuentan y no suman. */
+        private double numero(int columna) {
+            String texto = valor(columna);
+            double numero = columnasNumericas.contains(columna) ? parseNumeroCrudo(texto) : parseNumero(texto);
+            if (Double.isNaN(numero)) {
+                celdasNumericasInvalidas++;
+                return 0;
+            }
+            return numero;
+        }
+
+        private void detectarEncabezado(int rowNum) {
+            Map<String, Integer> columnas = new HashMap<>();
+            fila.forEach((columna, texto) -> columnas.merge(texto.toUpperCase(Locale.ROOT), columna, Math::min));
+            if (columnas.containsKey(HEADER_CODIGO)) {
+                encabezadoEncontrado = true;
+                colFecha = columnas.getOrDefault(HEADER_FECHA, COL_FECHA_INDEX);
+                colCodigo = columnas.get(HEADER_CODIGO);
+                colCantidad = columnas.getOrDefault(HEADER_CANTIDAD_VENDIDA, COL_CANTIDAD_VENDIDA_INDEX);
+                colValor = columnas.getOrDefault(HEADER_VALOR_TOTAL, COL_VALOR_TOTAL_INDEX);
+            } else if (rowNum + 1 >= MAX_FILAS_BUSQUEDA_ENCABEZADO) {
+                throw new HojaSinEncabezado();
+            }
+        }
+
+        private String valor(int columna) {
+            return fila.getOrDefault(columna, "");
+        }
+
+        private LecturaVentas resultado(String hoja) {
+            List<VentaDiaria> dias = new ArrayList<>(acumulados.size());
+            acumulados.forEach((clave, acumulado) -> dias.add(new VentaDiaria(
+                    clave.codigo(),
+                    clave.fecha(),
+                    acumulado.cantidadVendida,
+                    acumulado.valorTotal,
+                    acumulado.lineas
+            )));
+            dias.sort(Comparator.comparing(VentaDiaria::codigo).thenComparing(VentaDiaria::fecha));
+            return new LecturaVentas(
+                    hoja, filasLeidas, filasSinCodigo, filasSinFecha, celdasNumericasInvalidas, List.copyOf(dias));
+        }
+    }
+
+    private static LocalDate parseFecha(String raw) {
+        if (raw.isBlank()) {
+            return null;
+        }
+        String soloFecha = raw.split("[ T]", 2)[0];
+        for (DateTimeFormatter formato : FORMATOS_FECHA_TEXTO) {
+            try {
+                return LocalDate.parse(soloFecha, formato);
+            } catch (DateTimeParseException ignored) {
+                // Siguiente formato.
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Texto de una celda numerica tal como lo entrega {@link FormatoCrudo}: punto decimal y sin
+     * separador de miles. {@code NaN} si no es un numero (p. ej. una fecha).
+     */
+    static double parseNumeroCrudo(String raw) {
+        if (raw.isBlank()) {
+            return 0;
+        }
+        try {
+            return Double.parseDouble(raw);
+        } catch (NumberFormatException ignored) {
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * Numero escrito como texto con el formato del informe (es-CO) o en ingles. El separador
+     * decimal es el ultimo de los dos que aparezca. Si solo hay uno, es de miles cuando se repite
+     * ("1.234.567") o cuando lo siguen exactamente tres digitos tras una parte entera distinta de
+     * cero ("1.234", "12,500"); si no, es decimal ("12,5", "0,125"). Celda vacia: 0. Texto que no
+     * es un numero: {@code NaN}, para que quien llama lo cuente en lugar de sumar un cero.
+     */
+    static double parseNumero(String raw) {
+        String limpio = raw.replace(" ", "").replace("$", "").trim();
+        if (limpio.isBlank()) {
+            return 0;
+        }
+        int ultimaComa = limpio.lastIndexOf(',');
+        int ultimoPunto = limpio.lastIndexOf('.');
+        String normalizado;
+        if (ultimaComa >= 0 && ultimoPunto >= 0) {
+            char decimal = ultimaComa > ultimoPunto ? ',' : '.';
+            normalizado = normalizar(limpio, decimal);
+        } else if (ultimaComa >= 0 || ultimoPunto >= 0) {
+            char separador = ultimaComa >= 0 ? ',' : '.';
+            int posicion = Math.max(ultimaComa, ultimoPunto);
+            boolean miles = limpio.indexOf(separador) != posicion || esGrupoDeMiles(limpio, posicion);
+            normalizado = miles ? limpio.replace(String.valueOf(separador), "") : limpio.replace(separador, '.');
+        } else {
+            normalizado = limpio;
+        }
+        try {
+            return Double.parseDouble(normalizado);
+        } catch (NumberFormatException ignored) {
+            return Double.NaN;
+        }
+    }
+
+    private static String normalizar(String limpio, char decimal) {
+        char miles = decimal == ',' ? '.' : ',';
+        return limpio.replace(String.valueOf(miles), "").replace(decimal, '.');
+    }
+
+    private static boolean esGrupoDeMiles(String limpio, int separador) {
+        String entero = limpio.substring(0, separador).replace("-", "");
+        String fraccion = limpio.substring(separador + 1);
+        return fraccion.length() == 3
+                && fraccion.chars().allMatch(Character::isDigit)
+                && !entero.isEmpty()
+                && entero.chars().anyMatch(c -> c != '0');
+    }
+}
@@ -0,0 +1,111 @@
+package exotic.app.planta.service.produccion;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import exotic.app.planta.model.producto.manufacturing.snapshots.ManufacturingVersions;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Receta y empaque de una version de manufactura tal como se congelaron; inmutable. Se
+ * interpreta una vez por version desde el JSON de la version ({@link #leer}) y la comparten la
+ * explosion de requerimientos de una OF y la corrida MRP.
+ */
+record VersionCongelada(
+        Long versionId,
+        String productoId,
+        int versionNumber,
+        List<Ingredient> ingredientes,
+        EmpaqueCongelado empaque
+) {
+
+    static final int SCALE = 6;
+
+    static VersionCongelada leer(ManufacturingVersions version, ObjectMapper objectMapper) {
+        return new VersionCongelada(
+                version.getId(),
+                version.getProducto() == null ? null : version.getProducto().getProductoId(),
+                version.getVersionNumber(),
+                leerIngredientes(version.getInsumosJson(), objectMapper),
+                EmpaqueCongelado.leer(version.getCasePackJson(), objectMapper));
+    }
+
+    private static List<Ingredient> leerIngredientes(String json, ObjectMapper objectMapper) {
+        if (json == null || json.isBlank()) return List.of();
+        try {
+            JsonNode root = objectMapper.readTree(json);
+            if (!root.isArray()) {
+                throw new IllegalStateException("La receta congelada no tiene formato de lista.");
+            }
+            List<Ingredient> result = new ArrayList<>();
+            for (JsonNode item : root) {
+                result.add(new Ingredient(
+                        textRequired(item, "productoId"),
+                        decimalRequired(item.get("cantidadRequerida"),
+                                "La cantidad requerida de la receta es invalida.")));
+            }
+            return List.copyOf(result);
+        } catch (JsonProcessingException exception) {
+            throw new IllegalStateException("No se pudo interpretar la receta congelada.", exception);
+        }
+    }
+
+    private static String textRequired(JsonNode node, String field) {
+        String value = node.path(field).asText(null);
+        if (value == null || value.isBlank()) {
+            throw new IllegalStateException("La receta congelada no contiene " + field + ".");
+        }
+        return value.trim();
+    }
+
+    private static BigDecimal decimalRequired(JsonNode node, String message) {
+        BigDecimal value = decimal(node);
+        if (value == null || value.signum() <= 0) throw new IllegalStateException(message);
+        return value;
+    }
+
+    private static BigDecimal decimal(JsonNode node) {
+        return node == null || node.isNull() || !node.isNumber() ? null : node.decimalValue();
+    }
+
+    record Ingredient(String productoId, BigDecimal cantidad) {}
+
+    record EmpaqueItem(String materialId, BigDecimal cantidad, String unidadMedida) {}
+
+    record EmpaqueCongelado(BigDecimal unitsPerCase, List<EmpaqueItem> items) {
+        static final EmpaqueCongelado VACIO = new EmpaqueCongelado(null, List.of());
+
+        /** Materiales de empaque del case pack congelado; vacio si la version no tiene empaque. */
+        static EmpaqueCongelado leer(String json, ObjectMapper objectMapper) {
+            if (json == null || json.isBlank() || "null".equals(json)) return VACIO;
+            try {
+                JsonNode casePack = objectMapper.readTree(json);
+                JsonNode items = casePack.path("insumosEmpaque");
+                if (!items.isArray()) return VACIO;
+                List<EmpaqueItem> result = new ArrayList<>();
+                for (JsonNode item : items) {
+                    String unidadConfigurada = item.path("uom").asText(null);
+                    result.add(new EmpaqueItem(
+                            textRequired(item, "materialId"),
+                            decimalRequired(item.get("cantidad"),
+                                    "La cantidad del material de empaque es invalida."),
+                            unidadConfigurada == null || unidadConfigurada.isBlank() ? null : unidadConfigurada.trim()));
+                }
+                return new EmpaqueCongelado(decimal(casePack.get("unitsPerCase")), List.copyOf(result));
+            } catch (JsonProcessingException exception) {
+                throw new IllegalStateException("No se pudo interpretar el empaque congelado.", exception);
+            }
+        }
+
+        /** Cantidad del item para la orden: por caja si el case pack define unidades por caja. */
+        BigDecimal cantidad(EmpaqueItem item, BigDecimal cantidadOrden) {
+            return unitsPerCase != null && unitsPerCase.signum() > 0
+                    ? cantidadOrden.divide(unitsPerCase, SCALE, RoundingMode.HALF_UP).multiply(item.cantidad())
+                    : cantidadOrden.multiply(item.cantidad());
+        }
+    }
+}
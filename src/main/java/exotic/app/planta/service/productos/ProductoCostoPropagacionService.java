@@ -3,9 +3,9 @@ package exotic.app.planta.service.productos;
 import exotic.app.planta.model.producto.Material;
 import exotic.app.planta.model.producto.Producto;
 import exotic.app.planta.model.producto.costos.RecetaCostosRevision;
-import exotic.app.planta.repo.producto.InsumoRepo;
 import exotic.app.planta.repo.producto.ProductoRepo;
 import exotic.app.planta.repo.producto.costos.RecetaCostosRevisionRepo;
+import exotic.app.planta.service.productos.RecetaCostosGrafoIndex.AristaReceta;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
@@ -16,14 +16,11 @@ import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.LinkedHashMap;
-import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -38,16 +35,16 @@ public class ProductoCostoPropagacionService {
     private static final short REVISION_ID = 1;
 
     private final ProductoRepo productoRepo;
-    private final InsumoRepo insumoRepo;
     private final RecetaCostosRevisionRepo revisionRepo;
     private final ProductoCostoService productoCostoService;
+    private final RecetaCostosGrafoIndex recetaCostosGrafoIndex;
 
     @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
     public PlanPropagacion calcularPlan(List<CambioCostoRaiz> cambios) {
         RecetaCostosRevision revision = revisionRepo.findById(REVISION_ID)
                 .orElseThrow(() -> new IllegalStateException(
                         "No existe el control de revision de recetas"));
-        GrafoRecetas grafo = descubrirGrafo(cambios);
+        GrafoRecetas grafo = descubrirGrafo(cambios, recetaCostosGrafoIndex.indice(revision));
         Map<String, Producto> productos = cargarProductos(grafo.productoIds(), false);
         return construirPlan(cambios, grafo, productos, revision.getVersion());
     }
@@ -71,7 +68,7 @@ public class ProductoCostoPropagacionService {
         Map<String, Producto> productos;
         PlanPropagacion actual;
         try {
-            grafo = descubrirGrafo(cambios);
+            grafo = descubrirGrafo(cambios, recetaCostosGrafoIndex.indice(revision));
             productos = cargarProductos(grafo.productoIds(), true);
             actual = construirPlan(cambios, grafo, productos, revision.getVersion());
         } catch (ProductoCostoPropagacionException ex) {
@@ -131,7 +128,10 @@ public class ProductoCostoPropagacionService {
                 dependenciasSinCambio);
     }
 
-    private GrafoRecetas descubrirGrafo(List<CambioCostoRaiz> cambios) {
+    private GrafoRecetas descubrirGrafo(
+            List<CambioCostoRaiz> cambios,
+            RecetaCostosGrafoIndex.GrafoIndexado indice
+    ) {
         List<CambioCostoRaiz> cambiosSeguros = cambios == null ? List.of() : cambios;
         Set<String> raices = new TreeSet<>();
         Set<String> raicesCambiadas = new TreeSet<>();
@@ -150,35 +150,9 @@ public class ProductoCostoPropagacionService {
             }
         }
 
-        Set<String> afectados = new LinkedHashSet<>();
-        Set<String> consultados = new HashSet<>();
-        ArrayDeque<String> pendientes = new ArrayDeque<>(raicesCambiadas);
-        while (!pendientes.isEmpty()) {
-            Set<String> frontera = new TreeSet<>();
-            while (!pendientes.isEmpty()) {
-                String productoId = pendientes.removeFirst();
-                if (consultados.add(productoId)) {
-                    frontera.add(productoId);
-                }
-            }
-            if (frontera.isEmpty()) {
-                continue;
-            }
-            for (InsumoRepo.CostoRecetaEdgeProjection edge
-                    : insumoRepo.findCostoEdgesByInputProductoIds(frontera)) {
-                String outputId = edge.getOutputProductoId();
-                if (outputId != null && afectados.add(outputId)
-                        && !consultados.contains(outputId)) {
-                    pendientes.addLast(outputId);
-                }
-            }
-        }
-
-        List<AristaReceta> recetas = afectados.isEmpty()
-                ? List.of()
-                : insumoRepo.findCostoEdgesByOutputProductoIds(afectados).stream()
-                        .map(this::toArista)
-                        .toList();
+        RecetaCostosGrafoIndex.SubgrafoRecetas subgrafo = indice.alcanzados(raicesCambiadas);
+        Set<String> afectados = subgrafo.afectados();
+        List<AristaReceta> recetas = subgrafo.recetas();
 
         Set<String> productoIds = new TreeSet<>(raices);
         productoIds.addAll(afectados);
@@ -194,14 +168,6 @@ public class ProductoCostoPropagacionService {
                 Set.copyOf(productoIds));
     }
 
-    private AristaReceta toArista(InsumoRepo.CostoRecetaEdgeProjection edge) {
-        return new AristaReceta(
-                edge.getInsumoId(),
-                edge.getInputProductoId(),
-                edge.getOutputProductoId(),
-                edge.getCantidadRequerida());
-    }
-
     private Map<String, Producto> cargarProductos(Collection<String> ids, boolean forUpdate) {
         if (ids.isEmpty()) {
             return Map.of();
@@ -551,13 +517,6 @@ public class ProductoCostoPropagacionService {
             int dependenciasSinCambio
     ) {}
 
-    private record AristaReceta(
-            Integer insumoId,
-            String inputProductoId,
-            String outputProductoId,
-            Double cantidadRequerida
-    ) {}
-
     private record GrafoRecetas(
             Set<String> raicesCambiadas,
             Set<String> afectados,
@@ -0,0 +1,410 @@
+package exotic.app.planta.service.productos;
+
+import exotic.app.planta.model.producto.Material;
+import exotic.app.planta.model.producto.Producto;
+import exotic.app.planta.model.producto.costos.RecetaCostosRevision;
+import exotic.app.planta.repo.producto.ProductoRepo;
+import exotic.app.planta.repo.producto.costos.RecetaCostosRevisionRepo;
+import exotic.app.planta.service.commons.CalculoParalelo;
+import exotic.app.planta.service.productos.RecetaCostosGrafoIndex.AristaReceta;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.IntStream;
+
+/**
+ * Simulacion de escenarios de costo (cambios de proveedor, movimientos de moneda) sobre las
+ * recetas, sin modificar costos ni tomar el bloqueo de {@link RecetaCostosRevision}.
+ *
+ * <p>El subgrafo alcanzado por todos los escenarios se resuelve una vez desde
+ * {@link RecetaCostosGrafoIndex} y se compila a arreglos por nivel topologico. Los escenarios
+ * se evaluan en paralelo en el pool de {@link CalculoParalelo} y, dentro de cada escenario, los productos
+ * de un mismo nivel tambien, ya que solo dependen de niveles anteriores. Las reglas de costo
+ * son las de {@link ProductoCostoPropagacionService}; el escenario elegido se aplica por el
+ * flujo normal de carga de costos, que vuelve a calcular el plan bajo el bloqueo.
+ */
+@Service
+public class ProductoCostoSimulacionService {
+    public static final int MAX_ESCENARIOS = 50;
+    private static final short REVISION_ID = 1;
+    private static final int PRODUCTOS_NIVEL_PARALELO = 64;
+
+    private final ProductoRepo productoRepo;
+    private final RecetaCostosRevisionRepo revisionRepo;
+    private final RecetaCostosGrafoIndex recetaCostosGrafoIndex;
+    private final ProductoCostoService productoCostoService;
+    private final CalculoParalelo calculoParalelo;
+
+    public ProductoCostoSimulacionService(
+            ProductoRepo productoRepo,
+            RecetaCostosRevisionRepo revisionRepo,
+            RecetaCostosGrafoIndex recetaCostosGrafoIndex,
+            ProductoCostoService productoCostoService,
+            CalculoParalelo calculoParalelo
+    ) {
+        this.productoRepo = productoRepo;
+        this.revisionRepo = revisionRepo;
+        this.recetaCostosGrafoIndex = recetaCostosGrafoIndex;
+        this.productoCostoService = productoCostoService;
+        this.calculoParalelo = calculoParalelo;
+    }
+
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public SimulacionCostos simular(List<EscenarioCosto> escenarios) {
+        validarEscenarios(escenarios);
+        RecetaCostosRevision revision = revisionRepo.findById(REVISION_ID)
+                .orElseThrow(() -> new IllegalStateException(
+                        "No existe el control de revision de recetas"));
+
+        Set<String> raices = new TreeSet<>();
+        escenarios.forEach(escenario -> escenario.ajustes().forEach(ajuste -> raices.add(ajuste.productoId())));
+        RecetaCostosGrafoIndex.SubgrafoRecetas subgrafo =
+                recetaCostosGrafoIndex.indice(revision).alcanzados(raices);
+        ModeloSimulacion modelo = compilar(raices, subgrafo);
+
+        List<ResultadoEscenario> resultados = calculoParalelo.ejecutar(() -> escenarios.parallelStream()
+                .map(escenario -> simularEscenario(modelo, escenario))
+                .toList());
+        return new SimulacionCostos(revision.getVersion(), resultados);
+    }
+
+    /**
+     * Costo final de cada material del escenario, en el orden de sus ajustes, para preparar la
+     * carga que lo aplica.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, BigDecimal> resolverCostosRaiz(EscenarioCosto escenario) {
+        validarEscenarios(List.of(escenario));
+        Map<String, Producto> productos = cargarProductos(
+                escenario.ajustes().stream().map(AjusteCosto::productoId).toList());
+        Map<String, BigDecimal> costos = new LinkedHashMap<>();
+        for (AjusteCosto ajuste : escenario.ajustes()) {
+            Producto producto = productos.get(ajuste.productoId());
+            requireMaterial(producto);
+            costos.put(ajuste.productoId(),
+                    costoAjustado(ajuste, productoCostoService.normalizar(producto.getCosto())));
+        }
+        return costos;
+    }
+
+    private void validarEscenarios(List<EscenarioCosto> escenarios) {
+        if (escenarios == null || escenarios.isEmpty()) {
+            throw new IllegalArgumentException("Debe enviar al menos un escenario");
+        }
+        if (escenarios.size() > MAX_ESCENARIOS) {
+            throw new IllegalArgumentException(
+                    "Se pueden simular maximo " + MAX_ESCENARIOS + " escenarios a la vez");
+        }
+        Set<String> nombres = new HashSet<>();
+        for (EscenarioCosto escenario : escenarios) {
+            if (escenario == null || escenario.nombre() == null || escenario.nombre().isBlank()) {
+                throw new IllegalArgumentException("Cada escenario debe tener nombre");
+            }
+            if (!nombres.add(escenario.nombre().trim())) {
+                throw new IllegalArgumentException("El escenario esta repetido: " + escenario.nombre());
+            }
+            if (escenario.ajustes() == null || escenario.ajustes().isEmpty()) {
+                throw new IllegalArgumentException(
+                        "El escenario " + escenario.nombre() + " no tiene ajustes de costo");
+            }
+            Set<String> materiales = new HashSet<>();
+            for (AjusteCosto ajuste : escenario.ajustes()) {
+                if (ajuste == null || ajuste.productoId() == null || ajuste.productoId().isBlank()) {
+                    throw new IllegalArgumentException("Cada ajuste de costo debe tener productoId");
+                }
+                if (!materiales.add(ajuste.productoId())) {
+                    throw new IllegalArgumentException(
+                            "El material esta repetido en el escenario " + escenario.nombre()
+                                    + ": " + ajuste.productoId());
+                }
+                if ((ajuste.costoNuevo() == null) == (ajuste.factor() == null)) {
+                    throw new IllegalArgumentException(
+                            "El ajuste de " + ajuste.productoId() + " debe indicar costoNuevo o factor");
+                }
+                if (ajuste.factor() != null && ajuste.factor().signum() <= 0) {
+                    throw new IllegalArgumentException(
+                            "El factor del ajuste de " + ajuste.productoId() + " debe ser mayor que cero");
+                }
+                if (ajuste.costoNuevo() != null) {
+                    productoCostoService.normalizar(ajuste.costoNuevo());
+                }
+            }
+        }
+    }
+
+    private ModeloSimulacion compilar(Set<String> raices, RecetaCostosGrafoIndex.SubgrafoRecetas subgrafo) {
+        Set<String> ids = new TreeSet<>(raices);
+        ids.addAll(subgrafo.afectados());
+        for (AristaReceta arista : subgrafo.recetas()) {
+            if (arista.inputProductoId() == null) {
+                throw invalid(arista.outputProductoId(), "La receta contiene un insumo sin producto");
+            }
+            ids.add(arista.inputProductoId());
+        }
+        Map<String, Producto> productos = cargarProductos(ids);
+        for (String raiz : raices) {
+            requireMaterial(productos.get(raiz));
+        }
+
+        String[] productoIds = ids.toArray(String[]::new);
+        Map<String, Integer> indices = new HashMap<>();
+        Producto[] porIndice = new Producto[productoIds.length];
+        BigDecimal[] costoBase = new BigDecimal[productoIds.length];
+        for (int index = 0; index < productoIds.length; index++) {
+            indices.put(productoIds[index], index);
+            porIndice[index] = productos.get(productoIds[index]);
+            costoBase[index] = productoCostoService.normalizar(porIndice[index].getCosto());
+        }
+
+        Map<String, List<AristaReceta>> recetaByOutput = new HashMap<>();
+        for (AristaReceta arista : subgrafo.recetas()) {
+            recetaByOutput.computeIfAbsent(arista.outputProductoId(), ignored -> new ArrayList<>()).add(arista);
+        }
+
+        int[][] insumos = new int[productoIds.length][];
+        BigDecimal[][] cantidades = new BigDecimal[productoIds.length][];
+        Map<Integer, Integer> indegree = new HashMap<>();
+        Map<Integer, Set<Integer>> sucesores = new HashMap<>();
+        for (String afectado : subgrafo.afectados()) {
+            int output = indices.get(afectado);
+            String tipo = porIndice[output].getTipo_producto();
+            if (!"S".equals(tipo) && !"T".equals(tipo)) {
+                throw invalid(afectado,
+                        "Una receta de costos solo puede producir un Semiterminado o Terminado");
+            }
+            List<AristaReceta> receta = recetaByOutput.getOrDefault(afectado, List.of());
+            if (receta.isEmpty()) {
+                throw invalid(afectado, "El producto alcanzado no tiene lineas de receta");
+            }
+            insumos[output] = new int[receta.size()];
+            cantidades[output] = new BigDecimal[receta.size()];
+            indegree.putIfAbsent(output, 0);
+            for (int linea = 0; linea < receta.size(); linea++) {
+                AristaReceta arista = receta.get(linea);
+                if (arista.cantidadRequerida() == null
+                        || !Double.isFinite(arista.cantidadRequerida())
+                        || arista.cantidadRequerida() <= 0d) {
+                    throw invalid(afectado, "La receta contiene una cantidad requerida invalida");
+                }
+                int input = indices.get(arista.inputProductoId());
+                insumos[output][linea] = input;
+                cantidades[output][linea] = BigDecimal.valueOf(arista.cantidadRequerida());
+                if (subgrafo.afectados().contains(arista.inputProductoId())
+                        && sucesores.computeIfAbsent(input, ignored -> new HashSet<>()).add(output)) {
+                    indegree.merge(output, 1, Integer::sum);
+                }
+            }
+        }
+
+        List<int[]> niveles = new ArrayList<>();
+        int[] nivelActual = indegree.entrySet().stream()
+                .filter(entry -> entry.getValue() == 0)
+                .mapToInt(Map.Entry::getKey)
+                .sorted()
+                .toArray();
+        int ordenados = 0;
+        while (nivelActual.length > 0) {
+            niveles.add(nivelActual);
+            ordenados += nivelActual.length;
+            List<Integer> siguiente = new ArrayList<>();
+            for (int producto : nivelActual) {
+                for (int sucesor : sucesores.getOrDefault(producto, Set.of())) {
+                    if (indegree.merge(sucesor, -1, Integer::sum) == 0) {
+                        siguiente.add(sucesor);
+                    }
+                }
+            }
+            nivelActual = siguiente.stream().mapToInt(Integer::intValue).sorted().toArray();
+        }
+        if (ordenados != subgrafo.afectados().size()) {
+            Set<String> ciclo = new TreeSet<>();
+            indegree.forEach((producto, grado) -> {
+                if (grado > 0) {
+                    ciclo.add(productoIds[producto]);
+                }
+            });
+            throw invalid(ciclo.stream().findFirst().orElse(null),
+                    "Se detecto un ciclo en las recetas alcanzadas: " + String.join(", ", ciclo));
+        }
+
+        String[] nombres = new String[productoIds.length];
+        String[] tipos = new String[productoIds.length];
+        for (int index = 0; index < productoIds.length; index++) {
+            nombres[index] = porIndice[index].getNombre();
+            tipos[index] = porIndice[index].getTipo_producto();
+        }
+        return new ModeloSimulacion(productoIds, nombres, tipos, Map.copyOf(indices), costoBase,
+                insumos, cantidades, List.copyOf(niveles));
+    }
+
+    private ResultadoEscenario simularEscenario(ModeloSimulacion modelo, EscenarioCosto escenario) {
+        BigDecimal[] costos = modelo.costoBase().clone();
+        boolean[] afectado = new boolean[costos.length];
+        for (AjusteCosto ajuste : escenario.ajustes()) {
+            int index = modelo.indices().get(ajuste.productoId());
+            costos[index] = costoAjustado(ajuste, modelo.costoBase()[index]);
+            afectado[index] = costos[index].compareTo(modelo.costoBase()[index]) != 0;
+        }
+
+        for (int[] nivel : modelo.niveles()) {
+            IntStream productos = IntStream.of(nivel);
+            if (nivel.length >= PRODUCTOS_NIVEL_PARALELO) {
+                productos = productos.parallel();
+            }
+            productos.forEach(producto -> recalcular(modelo, producto, costos, afectado));
+        }
+
+        int dependencias = 0;
+        BigDecimal diferenciaTerminados = BigDecimal.ZERO;
+        List<ImpactoTerminado> terminados = new ArrayList<>();
+        for (int[] nivel : modelo.niveles()) {
+            for (int producto : nivel) {
+                if (!afectado[producto]) {
+                    continue;
+                }
+                dependencias++;
+                if ("T".equals(modelo.tipos()[producto])) {
+                    ImpactoTerminado impacto = impacto(modelo, producto, costos[producto]);
+                    diferenciaTerminados = diferenciaTerminados.add(impacto.diferencia());
+                    terminados.add(impacto);
+                }
+            }
+        }
+        terminados.sort(Comparator
+                .comparing((ImpactoTerminado impacto) -> impacto.diferencia().abs()).reversed()
+                .thenComparing(ImpactoTerminado::productoId));
+        return new ResultadoEscenario(
+                escenario.nombre().trim(),
+                escenario.ajustes().size(),
+                dependencias,
+                terminados.size(),
+                diferenciaTerminados,
+                List.copyOf(terminados));
+    }
+
+    /**
+     * Recalcula un producto si alguno de sus insumos cambio en el escenario. Cada producto
+     * escribe solo su posicion y lee posiciones de niveles anteriores, ya terminados.
+     */
+    private void recalcular(ModeloSimulacion modelo, int producto, BigDecimal[] costos, boolean[] afectado) {
+        int[] insumos = modelo.insumos()[producto];
+        boolean alcanzado = false;
+        for (int insumo : insumos) {
+            if (afectado[insumo]) {
+                alcanzado = true;
+                break;
+            }
+        }
+        if (!alcanzado) {
+            return;
+        }
+        BigDecimal costo = BigDecimal.ZERO;
+        for (int linea = 0; linea < insumos.length; linea++) {
+            costo = costo.add(costos[insumos[linea]].multiply(modelo.cantidades()[producto][linea]));
+        }
+        try {
+            costos[producto] = productoCostoService.normalizar(costo);
+        } catch (IllegalArgumentException ex) {
+            throw invalid(modelo.productoIds()[producto], ex.getMessage());
+        }
+        afectado[producto] = true;
+    }
+
+    private ImpactoTerminado impacto(ModeloSimulacion modelo, int producto, BigDecimal costoSimulado) {
+        BigDecimal costoActual = modelo.costoBase()[producto];
+        BigDecimal diferencia = costoSimulado.subtract(costoActual);
+        BigDecimal porcentaje = costoActual.signum() == 0
+                ? null
+                : diferencia.multiply(BigDecimal.valueOf(100)).divide(costoActual, 2, RoundingMode.HALF_UP);
+        return new ImpactoTerminado(
+                modelo.productoIds()[producto],
+                modelo.nombres()[producto],
+                costoActual,
+                costoSimulado,
+                diferencia,
+                porcentaje);
+    }
+
+    private BigDecimal costoAjustado(AjusteCosto ajuste, BigDecimal costoActual) {
+        BigDecimal costo = ajuste.costoNuevo() != null
+                ? ajuste.costoNuevo()
+                : costoActual.multiply(ajuste.factor());
+        return productoCostoService.normalizar(costo);
+    }
+
+    private Map<String, Producto> cargarProductos(Collection<String> ids) {
+        Map<String, Producto> byId = new HashMap<>();
+        for (Producto producto : productoRepo.findAllById(ids)) {
+            byId.put(producto.getProductoId(), producto);
+        }
+        if (byId.size() != ids.size()) {
+            Set<String> faltantes = new TreeSet<>(ids);
+            faltantes.removeAll(byId.keySet());
+            throw invalid(faltantes.stream().findFirst().orElse(null),
+                    "La receta referencia productos inexistentes: " + String.join(", ", faltantes));
+        }
+        return byId;
+    }
+
+    private void requireMaterial(Producto producto) {
+        if (!(producto instanceof Material)) {
+            throw invalid(producto.getProductoId(), "Solo los materiales pueden ser raices de propagacion");
+        }
+    }
+
+    private ProductoCostoPropagacionException invalid(String productoId, String message) {
+        return new ProductoCostoPropagacionException(productoId, message);
+    }
+
+    /**
+     * Ajuste de un material: un costo nuevo o un factor sobre el costo actual (por ejemplo
+     * 1.08 para un alza de 8% o una tasa de cambio).
+     */
+    public record AjusteCosto(String productoId, BigDecimal costoNuevo, BigDecimal factor) {}
+
+    public record EscenarioCosto(String nombre, List<AjusteCosto> ajustes) {}
+
+    public record ImpactoTerminado(
+            String productoId,
+            String productoNombre,
+            BigDecimal costoActual,
+            BigDecimal costoSimulado,
+            BigDecimal diferencia,
+            BigDecimal porcentajeCambio
+    ) {}
+
+    public record ResultadoEscenario(
+            String nombre,
+            int materialesAjustados,
+            int dependenciasAfectadas,
+            int terminadosAfectados,
+            BigDecimal diferenciaTotalTerminados,
+            List<ImpactoTerminado> terminados
+    ) {}
+
+    public record SimulacionCostos(long recetaRevision, List<ResultadoEscenario> escenarios) {}
+
+    private record ModeloSimulacion(
+            String[] productoIds,
+            String[] nombres,
+            String[] tipos,
+            Map<String, Integer> indices,
+            BigDecimal[] costoBase,
+            int[][] insumos,
+            BigDecimal[][] cantidades,
+            List<int[]> niveles
+    ) {}
+}
@@ -410,26 +410,69 @@ public class ProductoService {
                 throw new RuntimeException("Producto must be Terminado or SemiTerminado");
             }
 
-            return getInsumosWithStockRecursive(insumos);
+            return buildInsumosWithStock(insumos);
         } else {
             throw new RuntimeException("Producto not found");
         }
     }
 
-    private List<InsumoWithStockDTO> getInsumosWithStockRecursive(List<Insumo> insumos) {
+    /**
+     * Arma el árbol de insumos con stock sin consultar el saldo insumo por insumo: primero
+     * recorre la receta completa para reunir los productos, luego trae el stock de todos en
+     * una sola consulta agrupada y finalmente construye los DTO en memoria. Un semielaborado
+     * que aparece en varias ramas se arma una sola vez por petición.
+     */
+    private List<InsumoWithStockDTO> buildInsumosWithStock(List<Insumo> insumos) {
+        Set<String> productoIds = new HashSet<>();
+        collectInsumoProductoIds(insumos, productoIds, new HashSet<>());
+        Map<String, Double> stockPorProducto = findStockTotalPorProducto(productoIds);
+        return toInsumosWithStock(insumos, stockPorProducto, new HashMap<>());
+    }
+
+    private void collectInsumoProductoIds(
+            List<Insumo> insumos,
+            Set<String> productoIds,
+            Set<String> semiTerminadosVisitados
+    ) {
+        for (Insumo insumo : insumos) {
+            Producto insumoProducto = insumo.getProducto();
+            productoIds.add(insumoProducto.getProductoId());
+            if (insumoProducto instanceof SemiTerminado semiTerminado
+                    && semiTerminadosVisitados.add(semiTerminado.getProductoId())
+                    && semiTerminado.getInsumos() != null) {
+                collectInsumoProductoIds(semiTerminado.getInsumos(), productoIds, semiTerminadosVisitados);
+            }
+        }
+    }
+
+    private Map<String, Double> findStockTotalPorProducto(Collection<String> productoIds) {
+        if (productoIds.isEmpty()) {
+            return Map.of();
+        }
+        return transaccionAlmacenRepo.findTotalCantidadByProductoIds(productoIds)
+                .stream()
+                .collect(Collectors.toMap(
+                        row -> String.valueOf(row[0]),
+                        row -> row[1] instanceof Number ? ((Number) row[1]).doubleValue() : 0.0
+                ));
+    }
+
+    private List<InsumoWithStockDTO> toInsumosWithStock(
+            List<Insumo> insumos,
+            Map<String, Double> stockPorProducto,
+            Map<String, List<InsumoWithStockDTO>> subInsumosPorSemiTerminado
+    ) {
         List<InsumoWithStockDTO> insumosWithStock = new ArrayList<>();
 
         for (Insumo insumo : insumos) {
             Producto insumoProducto = insumo.getProducto();
-            Double stockActual = transaccionAlmacenRepo.findTotalCantidadByProductoId(insumoProducto.getProductoId());
-            stockActual = (stockActual != null) ? stockActual : 0.0;
 
             InsumoWithStockDTO dto = new InsumoWithStockDTO();
             dto.setInsumoId(insumo.getInsumoId());
             dto.setProductoId(insumoProducto.getProductoId());
             dto.setProductoNombre(insumoProducto.getNombre());
             dto.setCantidadRequerida(insumo.getCantidadRequerida());
-            dto.setStockActual(stockActual);
+            dto.setStockActual(stockPorProducto.getOrDefault(insumoProducto.getProductoId(), 0.0));
             dto.setTipoUnidades(insumoProducto.getTipoUnidades());
             dto.setInventareable(insumoProducto.isInventareable());
             dto.setConsumoDirecto(
@@ -442,10 +485,17 @@ public class ProductoService {
             } else if (insumoProducto instanceof SemiTerminado semiTerminado) {
                 dto.setTipoProducto(InsumoWithStockDTO.TipoProducto.S);
 
-                // Obtener recursivamente los insumos del semielaborado
+                // Los insumos del semielaborado se arman una vez y se reutilizan en otras ramas
                 List<Insumo> subInsumos = semiTerminado.getInsumos();
                 if (subInsumos != null && !subInsumos.isEmpty()) {
-                    dto.setSubInsumos(getInsumosWithStockRecursive(subInsumos));
+                    List<InsumoWithStockDTO> subInsumosWithStock =
+                            subInsumosPorSemiTerminado.get(semiTerminado.getProductoId());
+                    if (subInsumosWithStock == null) {
+                        subInsumosWithStock = toInsumosWithStock(
+                                subInsumos, stockPorProducto, subInsumosPorSemiTerminado);
+                        subInsumosPorSemiTerminado.put(semiTerminado.getProductoId(), subInsumosWithStock);
+                    }
+                    dto.setSubInsumos(subInsumosWithStock);
                 }
             } else if (insumoProducto instanceof Terminado) {
                 dto.setTipoProducto(InsumoWithStockDTO.TipoProducto.T);
@@ -0,0 +1,130 @@
+package exotic.app.planta.service.productos;
+
+import exotic.app.planta.model.producto.costos.RecetaCostosRevision;
+import exotic.app.planta.repo.producto.InsumoRepo;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Indice en memoria de las lineas de receta que usa la propagacion de costos, con listas de
+ * adyacencia por producto de entrada y por producto de salida.
+ *
+ * <p>Cada indice corresponde a una {@link RecetaCostosRevision}: el trigger de {@code insumos}
+ * incrementa la revision en cualquier cambio de receta, asi que si la revision leida por la
+ * transaccion coincide con la del indice, el grafo se resuelve sin consultas. Si no coincide,
+ * se reconstruye con una sola consulta de todas las lineas. Se compara tambien la fecha de la
+ * revision para no reutilizar un indice construido dentro de una transaccion que luego se
+ * revirtio con el mismo numero de version.
+ */
+@Component
+@RequiredArgsConstructor
+public class RecetaCostosGrafoIndex {
+
+    private final InsumoRepo insumoRepo;
+
+    private final Object sincronizacion = new Object();
+    private volatile GrafoIndexado actual;
+
+    public GrafoIndexado indice(RecetaCostosRevision revision) {
+        RevisionClave clave = new RevisionClave(revision.getVersion(), revision.getActualizadoEn());
+        GrafoIndexado grafo = actual;
+        if (grafo != null && grafo.clave().equals(clave)) {
+            return grafo;
+        }
+
+        GrafoIndexado nuevo = construir(clave, insumoRepo.findAllCostoEdges().stream()
+                .map(edge -> new AristaReceta(
+                        edge.getInsumoId(),
+                        edge.getInputProductoId(),
+                        edge.getOutputProductoId(),
+                        edge.getCantidadRequerida()))
+                .toList());
+        synchronized (sincronizacion) {
+            // Una transaccion con una revision vieja usa su propio indice sin reemplazar uno mas nuevo.
+            if (actual == null || actual.clave().version() <= clave.version()) {
+                actual = nuevo;
+            }
+        }
+        return nuevo;
+    }
+
+    static GrafoIndexado construir(RevisionClave clave, Collection<AristaReceta> aristas) {
+        Map<String, List<AristaReceta>> porInput = new HashMap<>();
+        Map<String, List<AristaReceta>> porOutput = new HashMap<>();
+        for (AristaReceta arista : aristas) {
+            if (arista.outputProductoId() == null) {
+                continue;
+            }
+            porOutput.computeIfAbsent(arista.outputProductoId(), ignored -> new ArrayList<>()).add(arista);
+            if (arista.inputProductoId() != null) {
+                porInput.computeIfAbsent(arista.inputProductoId(), ignored -> new ArrayList<>()).add(arista);
+            }
+        }
+        porInput.replaceAll((ignored, lista) -> List.copyOf(lista));
+        porOutput.replaceAll((ignored, lista) -> List.copyOf(lista));
+        return new GrafoIndexado(clave, Map.copyOf(porInput), Map.copyOf(porOutput));
+    }
+
+    public record RevisionClave(long version, LocalDateTime actualizadoEn) {}
+
+    public record AristaReceta(
+            Integer insumoId,
+            String inputProductoId,
+            String outputProductoId,
+            Double cantidadRequerida
+    ) {}
+
+    /**
+     * Productos alcanzados desde las raices y todas las lineas de receta de esos productos.
+     */
+    public record SubgrafoRecetas(Set<String> afectados, List<AristaReceta> recetas) {}
+
+    public record GrafoIndexado(
+            RevisionClave clave,
+            Map<String, List<AristaReceta>> porInput,
+            Map<String, List<AristaReceta>> porOutput
+    ) {
+        public List<AristaReceta> aristasPorInput(String productoId) {
+            return porInput.getOrDefault(productoId, List.of());
+        }
+
+        public List<AristaReceta> aristasPorOutput(String productoId) {
+            return porOutput.getOrDefault(productoId, List.of());
+        }
+
+        /**
+         * Recorre en anchura los productos que consumen, directa o indirectamente, alguna raiz.
+         */
+        public SubgrafoRecetas alcanzados(Collection<String> raices) {
+            Set<String> afectados = new LinkedHashSet<>();
+            Set<String> visitados = new HashSet<>(raices);
+            ArrayDeque<String> pendientes = new ArrayDeque<>(new TreeSet<>(raices));
+            while (!pendientes.isEmpty()) {
+                for (AristaReceta arista : aristasPorInput(pendientes.removeFirst())) {
+                    String outputId = arista.outputProductoId();
+                    if (afectados.add(outputId) && visitados.add(outputId)) {
+                        pendientes.addLast(outputId);
+                    }
+                }
+            }
+
+            List<AristaReceta> recetas = new ArrayList<>();
+            for (String afectado : afectados) {
+                recetas.addAll(aristasPorOutput(afectado));
+            }
+            return new SubgrafoRecetas(afectados, recetas);
+        }
+    }
+}
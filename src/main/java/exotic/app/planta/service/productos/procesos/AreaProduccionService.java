@@ -82,6 +82,9 @@ public class AreaProduccionService {
         AreaOperativa area = new AreaOperativa();
         area.setNombre(dto.getNombre());
         area.setDescripcion(dto.getDescripcion());
+        if (dto.getCapacidadOrdenesSimultaneas() != null) {
+            area.setCapacidadOrdenesSimultaneas(dto.getCapacidadOrdenesSimultaneas());
+        }
         area.setResponsableArea(responsable);
         area.setCategoriasHabilitadas(resolveCategorias(resolveCategoriaIds(dto)));
 
@@ -125,6 +128,9 @@ public class AreaProduccionService {
 
         area.setNombre(dto.getNombre());
         area.setDescripcion(dto.getDescripcion());
+        if (dto.getCapacidadOrdenesSimultaneas() != null) {
+            area.setCapacidadOrdenesSimultaneas(dto.getCapacidadOrdenesSimultaneas());
+        }
         area.setResponsableArea(responsable);
         area.setCategoriasHabilitadas(resolveCategorias(resolveCategoriaIds(dto)));
 
@@ -341,6 +347,7 @@ public class AreaProduccionService {
                 .areaId(area.getAreaId())
                 .nombre(area.getNombre())
                 .descripcion(area.getDescripcion())
+                .capacidadOrdenesSimultaneas(area.getCapacidadOrdenesSimultaneas())
                 .responsableArea(responsableDto)
                 .categoriasHabilitadas(categoriasDto)
                 .build();
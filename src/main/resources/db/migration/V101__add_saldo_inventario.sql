@@ -0,0 +1,104 @@
+-- Saldo materializado de inventario por (producto, almacen, lote).
+-- Se mantiene en la misma transaccion que persiste cada fila de movimientos,
+-- de modo que las lecturas de stock no vuelvan a agregar todo el historico.
+
+CREATE TABLE saldo_inventario (
+    saldo_id BIGSERIAL PRIMARY KEY,
+    producto_id VARCHAR(255) NOT NULL,
+    almacen SMALLINT,
+    lote_id BIGINT,
+    cantidad DOUBLE PRECISION NOT NULL DEFAULT 0,
+    actualizado_en TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE UNIQUE INDEX uq_saldo_inventario_clave
+    ON saldo_inventario (producto_id, (COALESCE(almacen, -1)), (COALESCE(lote_id, 0)));
+
+CREATE INDEX IF NOT EXISTS idx_saldo_inventario_almacen_producto
+    ON saldo_inventario (almacen, producto_id);
+
+CREATE INDEX IF NOT EXISTS idx_saldo_inventario_lote
+    ON saldo_inventario (lote_id)
+    WHERE lote_id IS NOT NULL;
+
+CREATE OR REPLACE FUNCTION aplicar_delta_saldo_inventario(
+    p_producto_id VARCHAR,
+    p_almacen SMALLINT,
+    p_lote_id BIGINT,
+    p_delta DOUBLE PRECISION
+)
+RETURNS VOID
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    IF p_producto_id IS NULL OR p_delta IS NULL OR p_delta = 0 THEN
+        RETURN;
+    END IF;
+
+    INSERT INTO saldo_inventario (producto_id, almacen, lote_id, cantidad, actualizado_en)
+    VALUES (p_producto_id, p_almacen, p_lote_id, p_delta, CURRENT_TIMESTAMP)
+    ON CONFLICT (producto_id, (COALESCE(almacen, -1)), (COALESCE(lote_id, 0)))
+    DO UPDATE SET cantidad = saldo_inventario.cantidad + EXCLUDED.cantidad,
+                  actualizado_en = EXCLUDED.actualizado_en;
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION sincronizar_saldo_inventario()
+RETURNS TRIGGER
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    IF TG_OP = 'UPDATE' THEN
+        IF NEW.producto_id IS NOT DISTINCT FROM OLD.producto_id
+           AND NEW.almacen IS NOT DISTINCT FROM OLD.almacen
+           AND NEW.lote_id IS NOT DISTINCT FROM OLD.lote_id
+           AND NEW.cantidad IS NOT DISTINCT FROM OLD.cantidad
+           AND NEW.afecta_inventario IS NOT DISTINCT FROM OLD.afecta_inventario THEN
+            RETURN NULL;
+        END IF;
+    END IF;
+
+    IF TG_OP = 'UPDATE' OR TG_OP = 'DELETE' THEN
+        IF OLD.afecta_inventario THEN
+            PERFORM aplicar_delta_saldo_inventario(
+                OLD.producto_id, OLD.almacen::SMALLINT, OLD.lote_id, -OLD.cantidad);
+        END IF;
+    END IF;
+
+    IF TG_OP = 'INSERT' OR TG_OP = 'UPDATE' THEN
+        IF NEW.afecta_inventario THEN
+            PERFORM aplicar_delta_saldo_inventario(
+                NEW.producto_id, NEW.almacen::SMALLINT, NEW.lote_id, NEW.cantidad);
+        END IF;
+    END IF;
+
+    RETURN NULL;
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION truncar_saldo_inventario()
+RETURNS TRIGGER
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    TRUNCATE TABLE saldo_inventario;
+    RETURN NULL;
+END;
+$$;
+
+INSERT INTO saldo_inventario (producto_id, almacen, lote_id, cantidad, actualizado_en)
+SELECT m.producto_id, m.almacen::SMALLINT, m.lote_id, SUM(m.cantidad), CURRENT_TIMESTAMP
+FROM movimientos m
+WHERE m.afecta_inventario = TRUE
+  AND m.producto_id IS NOT NULL
+GROUP BY m.producto_id, m.almacen, m.lote_id;
+
+CREATE TRIGGER trg_movimientos_saldo_inventario
+AFTER INSERT OR UPDATE OR DELETE ON movimientos
+FOR EACH ROW
+EXECUTE FUNCTION sincronizar_saldo_inventario();
+
+CREATE TRIGGER trg_movimientos_truncate_saldo_inventario
+AFTER TRUNCATE ON movimientos
+FOR EACH STATEMENT
+EXECUTE FUNCTION truncar_saldo_inventario();
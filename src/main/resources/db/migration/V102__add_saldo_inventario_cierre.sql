@@ -0,0 +1,80 @@
+-- Cierres periodicos del saldo de inventario por (producto, almacen).
+-- Cada cierre guarda el saldo acumulado de los movimientos con
+-- fecha_movimiento < fecha_corte. Una consulta a un corte historico toma el
+-- cierre mas cercano y solo suma los movimientos posteriores a el.
+
+CREATE TABLE saldo_inventario_cierre_periodo (
+    fecha_corte TIMESTAMP PRIMARY KEY,
+    generado_en TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE saldo_inventario_cierre (
+    cierre_id BIGSERIAL PRIMARY KEY,
+    fecha_corte TIMESTAMP NOT NULL
+        REFERENCES saldo_inventario_cierre_periodo(fecha_corte) ON DELETE CASCADE,
+    producto_id VARCHAR(255) NOT NULL,
+    almacen SMALLINT,
+    cantidad DOUBLE PRECISION NOT NULL
+);
+
+CREATE UNIQUE INDEX uq_saldo_inventario_cierre_clave
+    ON saldo_inventario_cierre (fecha_corte, producto_id, (COALESCE(almacen, -1)));
+
+CREATE INDEX IF NOT EXISTS idx_saldo_inventario_cierre_corte_almacen
+    ON saldo_inventario_cierre (fecha_corte, almacen, producto_id);
+
+CREATE INDEX IF NOT EXISTS idx_movimientos_producto_fecha
+    ON movimientos (producto_id, fecha_movimiento);
+
+-- Un movimiento fechado antes del ultimo cierre (correccion de fechas, SQL manual)
+-- invalida los cierres posteriores; el job de cierres los regenera.
+CREATE OR REPLACE FUNCTION invalidar_cierres_saldo_inventario()
+RETURNS TRIGGER
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    v_fecha TIMESTAMP;
+    v_ultimo_corte TIMESTAMP;
+BEGIN
+    SELECT MAX(p.fecha_corte) INTO v_ultimo_corte FROM saldo_inventario_cierre_periodo p;
+    IF v_ultimo_corte IS NULL THEN
+        RETURN NULL;
+    END IF;
+
+    IF TG_OP = 'INSERT' THEN
+        v_fecha := NEW.fecha_movimiento;
+    ELSIF TG_OP = 'DELETE' THEN
+        v_fecha := OLD.fecha_movimiento;
+    ELSE
+        v_fecha := LEAST(OLD.fecha_movimiento, NEW.fecha_movimiento);
+    END IF;
+
+    IF v_fecha IS NULL OR v_fecha < v_ultimo_corte THEN
+        DELETE FROM saldo_inventario_cierre_periodo
+         WHERE v_fecha IS NULL OR fecha_corte > v_fecha;
+    END IF;
+
+    RETURN NULL;
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION truncar_saldo_inventario_cierre()
+RETURNS TRIGGER
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    TRUNCATE TABLE saldo_inventario_cierre, saldo_inventario_cierre_periodo;
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER trg_movimientos_invalidar_cierres
+AFTER INSERT OR UPDATE OF fecha_movimiento, cantidad, almacen, producto_id, afecta_inventario OR DELETE
+ON movimientos
+FOR EACH ROW
+EXECUTE FUNCTION invalidar_cierres_saldo_inventario();
+
+CREATE TRIGGER trg_movimientos_truncate_cierres
+AFTER TRUNCATE ON movimientos
+FOR EACH STATEMENT
+EXECUTE FUNCTION truncar_saldo_inventario_cierre();
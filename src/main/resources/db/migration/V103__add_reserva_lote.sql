@@ -0,0 +1,23 @@
+-- Reservas temporales de saldo por (producto, almacen, lote) para dispensacion V2.
+-- Se crean al asignar lotes, se consumen al finalizar la dispensacion y caducan
+-- solas en expira_en; un job elimina periodicamente las vencidas.
+
+CREATE TABLE reserva_lote (
+    reserva_id BIGSERIAL PRIMARY KEY,
+    token VARCHAR(36) NOT NULL,
+    producto_id VARCHAR(255) NOT NULL REFERENCES productos(producto_id),
+    almacen SMALLINT NOT NULL,
+    lote_id BIGINT NOT NULL REFERENCES lote(id) ON DELETE CASCADE,
+    cantidad DOUBLE PRECISION NOT NULL,
+    creada_en TIMESTAMP NOT NULL,
+    expira_en TIMESTAMP NOT NULL
+);
+
+CREATE UNIQUE INDEX uq_reserva_lote_token_clave
+    ON reserva_lote (token, producto_id, almacen, lote_id);
+
+CREATE INDEX IF NOT EXISTS idx_reserva_lote_clave
+    ON reserva_lote (producto_id, almacen, lote_id, expira_en);
+
+CREATE INDEX IF NOT EXISTS idx_reserva_lote_expira
+    ON reserva_lote (expira_en);
@@ -0,0 +1,16 @@
+-- Indices para el libro mayor y el balance de comprobacion calculados en SQL.
+-- El libro mayor filtra lineas por cuenta y las une con sus asientos; el saldo de
+-- apertura suma los asientos publicados anteriores al inicio del periodo; el balance
+-- agrupa las lineas de los asientos publicados de un periodo.
+
+CREATE INDEX IF NOT EXISTS idx_linea_asiento_cuenta_asiento
+    ON linea_asiento_contable (cuenta_codigo, asiento_id);
+
+CREATE INDEX IF NOT EXISTS idx_linea_asiento_asiento
+    ON linea_asiento_contable (asiento_id);
+
+CREATE INDEX IF NOT EXISTS idx_asiento_contable_periodo_estado_fecha
+    ON asiento_contable (periodo_contable_id, estado, fecha, id);
+
+CREATE INDEX IF NOT EXISTS idx_asiento_contable_estado_fecha
+    ON asiento_contable (estado, fecha);
@@ -0,0 +1,51 @@
+-- Intervalos cerrados de permanencia en cada estado por seguimiento de orden/area.
+-- Se recalculan los del seguimiento cada vez que se registra un evento (incluidas las
+-- reversiones), de modo que las metricas historicas de monitoreo se agregan por indice
+-- sin recorrer los eventos.
+
+CREATE TABLE seguimiento_orden_area_intervalo (
+    id BIGSERIAL PRIMARY KEY,
+    seguimiento_orden_area_id BIGINT NOT NULL REFERENCES seguimiento_orden_area(id) ON DELETE CASCADE,
+    area_operativa_id INTEGER NOT NULL REFERENCES area_operativa(area_id) ON DELETE CASCADE,
+    estado INTEGER NOT NULL,
+    minutos BIGINT NOT NULL,
+    cerrado_en TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_soa_intervalo_seguimiento
+    ON seguimiento_orden_area_intervalo (seguimiento_orden_area_id);
+
+CREATE INDEX idx_soa_intervalo_area_estado_cierre
+    ON seguimiento_orden_area_intervalo (area_operativa_id, estado, cerrado_en)
+    INCLUDE (minutos);
+
+-- Carga inicial: cada evento no revertido que entra a un estado se cierra con el primer
+-- evento no revertido posterior que sale de ese estado.
+WITH eventos AS (
+    SELECT e.id, e.seguimiento_orden_area_id, e.estado_origen, e.estado_destino, e.fecha_evento
+    FROM seguimiento_orden_area_evento e
+    WHERE NOT EXISTS (
+        SELECT 1
+        FROM seguimiento_orden_area_evento r
+        WHERE r.evento_revertido_id = e.id
+    )
+)
+INSERT INTO seguimiento_orden_area_intervalo (
+    seguimiento_orden_area_id, area_operativa_id, estado, minutos, cerrado_en
+)
+SELECT entrada.seguimiento_orden_area_id,
+       s.area_operativa_id,
+       entrada.estado_destino,
+       GREATEST(FLOOR(EXTRACT(EPOCH FROM (salida.fecha_evento - entrada.fecha_evento)) / 60), 0),
+       salida.fecha_evento
+FROM eventos entrada
+JOIN seguimiento_orden_area s ON s.id = entrada.seguimiento_orden_area_id
+JOIN LATERAL (
+    SELECT x.fecha_evento
+    FROM eventos x
+    WHERE x.seguimiento_orden_area_id = entrada.seguimiento_orden_area_id
+      AND x.estado_origen = entrada.estado_destino
+      AND (x.fecha_evento, x.id) > (entrada.fecha_evento, entrada.id)
+    ORDER BY x.fecha_evento, x.id
+    LIMIT 1
+) salida ON TRUE;
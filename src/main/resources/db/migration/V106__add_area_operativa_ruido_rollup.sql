@@ -0,0 +1,39 @@
+-- Agregados por hora y por dia de las muestras de ruido de cada area operativa.
+-- Se acumulan al registrar muestras (ON CONFLICT sobre el bucket) y se conservan cuando
+-- la retencion elimina las muestras crudas antiguas. El promedio es suma / muestras.
+
+CREATE TABLE area_operativa_ruido_rollup (
+    id BIGSERIAL PRIMARY KEY,
+    area_operativa_id INTEGER NOT NULL REFERENCES area_operativa(area_id) ON DELETE CASCADE,
+    resolucion VARCHAR(8) NOT NULL,
+    bucket_inicio TIMESTAMP NOT NULL,
+    muestras INTEGER NOT NULL,
+    ruido_db_min DOUBLE PRECISION NOT NULL,
+    ruido_db_max DOUBLE PRECISION NOT NULL,
+    ruido_db_suma DOUBLE PRECISION NOT NULL,
+    rms_min DOUBLE PRECISION NOT NULL,
+    rms_max DOUBLE PRECISION NOT NULL,
+    rms_suma DOUBLE PRECISION NOT NULL,
+    CONSTRAINT uq_area_operativa_ruido_rollup_bucket
+        UNIQUE (area_operativa_id, resolucion, bucket_inicio),
+    CONSTRAINT chk_area_operativa_ruido_rollup_resolucion
+        CHECK (resolucion IN ('HORA', 'DIA'))
+);
+
+-- La retencion borra muestras crudas por fecha sin filtrar por area.
+CREATE INDEX IF NOT EXISTS idx_area_operativa_ruido_muestra_fecha
+    ON area_operativa_ruido_muestra (fecha_muestra);
+
+INSERT INTO area_operativa_ruido_rollup (
+    area_operativa_id, resolucion, bucket_inicio, muestras,
+    ruido_db_min, ruido_db_max, ruido_db_suma, rms_min, rms_max, rms_suma
+)
+SELECT m.area_operativa_id,
+       r.resolucion,
+       date_trunc(r.unidad, m.fecha_muestra),
+       COUNT(*),
+       MIN(m.ruido_db), MAX(m.ruido_db), SUM(m.ruido_db),
+       MIN(m.rms), MAX(m.rms), SUM(m.rms)
+FROM area_operativa_ruido_muestra m
+CROSS JOIN (VALUES ('HORA', 'hour'), ('DIA', 'day')) AS r (resolucion, unidad)
+GROUP BY m.area_operativa_id, r.resolucion, date_trunc(r.unidad, m.fecha_muestra);
@@ -0,0 +1,20 @@
+-- Historia de ventas diaria por producto terminado, agregada en servidor a partir del
+-- informe de ventas. Cada carga reemplaza exactamente las fechas que cubre el archivo, de modo
+-- que volver a subir el mismo informe no duplica cantidades y una carga parcial de una semana
+-- no borra los dias que trajo el informe anterior.
+
+CREATE TABLE venta_diaria_terminado (
+    id BIGSERIAL PRIMARY KEY,
+    producto_id VARCHAR(255) NOT NULL REFERENCES productos(producto_id) ON DELETE CASCADE,
+    fecha DATE NOT NULL,
+    cantidad_vendida DOUBLE PRECISION NOT NULL,
+    valor_total DOUBLE PRECISION NOT NULL,
+    lineas INTEGER NOT NULL,
+    cargado_en TIMESTAMP NOT NULL,
+    cargado_por VARCHAR(100),
+    CONSTRAINT uq_venta_diaria_terminado_fecha UNIQUE (producto_id, fecha)
+);
+
+-- El reemplazo de una carga y la ventana de historia del pronostico filtran por fecha.
+CREATE INDEX idx_venta_diaria_terminado_fecha
+    ON venta_diaria_terminado (fecha);
@@ -0,0 +1,9 @@
+-- Cantidad de ordenes que cada area operativa puede trabajar en paralelo. La usa la
+-- planificacion con capacidad finita de las ordenes abiertas; por defecto una a la vez.
+
+ALTER TABLE area_operativa
+    ADD COLUMN capacidad_ordenes_simultaneas INTEGER NOT NULL DEFAULT 1;
+
+ALTER TABLE area_operativa
+    ADD CONSTRAINT chk_area_operativa_capacidad_ordenes_simultaneas
+        CHECK (capacidad_ordenes_simultaneas >= 1);
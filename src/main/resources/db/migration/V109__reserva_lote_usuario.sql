@@ -0,0 +1,8 @@
+-- Cada reserva de lote queda ligada al usuario que hizo la asignacion; solo ese usuario
+-- puede reemplazarla, liberarla o consumirla al finalizar. Las reservas vigentes duran
+-- minutos y no tienen usuario, asi que se descartan en lugar de migrarlas.
+
+DELETE FROM reserva_lote;
+
+ALTER TABLE reserva_lote
+    ADD COLUMN usuario_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE;
@@ -0,0 +1,11 @@
+-- Catalogo de dias festivos. El calendario laboral los descuenta del tiempo laborable de la
+-- jornada vigente (y de las versiones anteriores que aun referencian las ordenes).
+
+CREATE TABLE dia_festivo (
+    id BIGSERIAL PRIMARY KEY,
+    fecha DATE NOT NULL,
+    descripcion VARCHAR(200),
+    creado_en TIMESTAMP NOT NULL,
+    creado_por VARCHAR(120),
+    CONSTRAINT uk_dia_festivo_fecha UNIQUE (fecha)
+);
@@ -0,0 +1,168 @@
+package exotic.app.planta.modules.transaccionesalmacen.saldo;
+
+import exotic.app.planta.model.inventarios.Movimiento;
+import exotic.app.planta.model.inventarios.TransaccionAlmacen;
+import exotic.app.planta.modules.transaccionesalmacen.support.AbstractTransaccionesAlmacenIntegrationTest;
+import exotic.app.planta.modules.transaccionesalmacen.support.TransaccionesAlmacenFixtureFactory.ModuleFixture;
+import exotic.app.planta.repo.inventarios.TransaccionAlmacenRepo;
+import exotic.app.planta.service.inventarios.SaldoInventarioCierreService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cubre los cierres mensuales del saldo (V102): cierre más delta debe dar lo mismo que sumar
+ * todo el libro de movimientos, y un movimiento retroactivo invalida los cierres que lo cubren.
+ */
+class TransaccionesAlmacenSaldoCierreIntegrationTest extends AbstractTransaccionesAlmacenIntegrationTest {
+
+    private static final int GENERAL = Movimiento.Almacen.GENERAL.ordinal();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SaldoInventarioCierreService cierreService;
+
+    @Autowired
+    private TransaccionAlmacenRepo transaccionAlmacenRepo;
+
+    @Autowired
+    private Clock applicationClock;
+
+    @Test
+    void cerrarPeriodos_cierreMasDeltaCoincideConElLibro() {
+        ModuleFixture fixture = fixtureFactory.seedModuleFixture();
+        String productoId = fixture.materialPrincipal().getProductoId();
+        LocalDateTime inicioMes = LocalDate.now(applicationClock).withDayOfMonth(1).atStartOfDay();
+
+        fecharMovimiento(primerMovimiento(fixture.ingresoOcm()), inicioMes.minusMonths(3).plusDays(4));
+        fecharMovimiento(primerMovimiento(fixtureFactory.createDispensacionTransaccion(
+                fixture.ordenAbierta(),
+                fixture.materialPrincipal(),
+                fixture.loteMateriaPrima(),
+                5.0,
+                fixture.masterUser(),
+                fixture.mezclado()
+        )), inicioMes.minusMonths(2).plusDays(4));
+        // Movimiento del mes en curso: queda fuera de todo cierre y entra como delta.
+        fixtureFactory.createDispensacionTransaccion(
+                fixture.ordenAbierta(),
+                fixture.materialPrincipal(),
+                fixture.loteMateriaPrima(),
+                1.0,
+                fixture.masterUser(),
+                fixture.mezclado()
+        );
+
+        assertThat(cierreService.cerrarPeriodosPendientes()).isEqualTo(3);
+        assertThat(cortes()).containsExactly(
+                inicioMes.minusMonths(2),
+                inicioMes.minusMonths(1),
+                inicioMes
+        );
+        assertThat(cantidadCierre(inicioMes.minusMonths(2), productoId)).isEqualTo(20.0);
+        assertThat(cantidadCierre(inicioMes, productoId)).isEqualTo(15.0);
+        assertThat(cierreService.cerrarPeriodosPendientes()).isZero();
+
+        for (LocalDateTime fecha : List.of(
+                inicioMes.minusMonths(3),
+                inicioMes.minusMonths(2),
+                inicioMes.minusMonths(2).plusDays(10),
+                inicioMes,
+                LocalDateTime.now(applicationClock).plusDays(1))) {
+            assertThat(transaccionAlmacenRepo.findTotalCantidadByProductoIdAndFechaMovimientoBefore(productoId, fecha))
+                    .as("saldo antes de %s", fecha)
+                    .isEqualTo(sumaMovimientosAntesDe(productoId, fecha));
+            assertThat(transaccionAlmacenRepo.findTotalCantidadByProductoIdAndAlmacenAndFechaMovimientoBefore(
+                    productoId, Movimiento.Almacen.GENERAL, fecha))
+                    .as("saldo GENERAL antes de %s", fecha)
+                    .isEqualTo(sumaMovimientosAntesDe(productoId, fecha));
+        }
+    }
+
+    @Test
+    void movimientoRetroactivo_invalidaLosCierresPosterioresYSeRegeneran() {
+        ModuleFixture fixture = fixtureFactory.seedModuleFixture();
+        String productoId = fixture.materialPrincipal().getProductoId();
+        LocalDateTime inicioMes = LocalDate.now(applicationClock).withDayOfMonth(1).atStartOfDay();
+        fecharMovimiento(primerMovimiento(fixture.ingresoOcm()), inicioMes.minusMonths(3).plusDays(4));
+        assertThat(cierreService.cerrarPeriodosPendientes()).isEqualTo(3);
+
+        // Se registra hoy y luego se corrige su fecha a un mes ya cerrado.
+        LocalDateTime fechaRetroactiva = inicioMes.minusMonths(2).plusDays(10);
+        int retroactivo = primerMovimiento(fixtureFactory.createDispensacionTransaccion(
+                fixture.ordenAbierta(),
+                fixture.materialPrincipal(),
+                fixture.loteMateriaPrima(),
+                2.0,
+                fixture.masterUser(),
+                fixture.mezclado()
+        ));
+        assertThat(cortes()).hasSize(3);
+        fecharMovimiento(retroactivo, fechaRetroactiva);
+
+        assertThat(cortes()).containsExactly(inicioMes.minusMonths(2));
+        assertThat(cantidadCierre(inicioMes.minusMonths(2), productoId)).isEqualTo(20.0);
+        LocalDateTime manana = LocalDateTime.now(applicationClock).plusDays(1);
+        assertThat(transaccionAlmacenRepo.findTotalCantidadByProductoIdAndFechaMovimientoBefore(productoId, manana))
+                .isEqualTo(sumaMovimientosAntesDe(productoId, manana))
+                .isEqualTo(18.0);
+
+        assertThat(cierreService.cerrarPeriodosPendientes()).isEqualTo(2);
+        assertThat(cortes()).hasSize(3);
+        assertThat(cantidadCierre(inicioMes.minusMonths(1), productoId)).isEqualTo(18.0);
+        assertThat(cantidadCierre(inicioMes, productoId)).isEqualTo(18.0);
+
+        // Insertar directamente con fecha anterior al último cierre también lo invalida.
+        jdbcTemplate.update("""
+                INSERT INTO movimientos (cantidad, producto_id, tipo_movimiento, almacen, afecta_inventario,
+                                         fecha_movimiento, transaccion_id)
+                SELECT -3, m.producto_id, m.tipo_movimiento, m.almacen, TRUE, ?, m.transaccion_id
+                FROM movimientos m
+                WHERE m.movimiento_id = ?
+                """, inicioMes.minusDays(3), retroactivo);
+
+        assertThat(cortes()).containsExactly(inicioMes.minusMonths(2), inicioMes.minusMonths(1));
+        assertThat(cierreService.cerrarPeriodosPendientes()).isEqualTo(1);
+        assertThat(cantidadCierre(inicioMes, productoId)).isEqualTo(15.0);
+        assertThat(transaccionAlmacenRepo.findTotalCantidadByProductoIdAndFechaMovimientoBefore(productoId, manana))
+                .isEqualTo(sumaMovimientosAntesDe(productoId, manana))
+                .isEqualTo(15.0);
+    }
+
+    private int primerMovimiento(TransaccionAlmacen transaccion) {
+        return transaccion.getMovimientosTransaccion().get(0).getMovimientoId();
+    }
+
+    private void fecharMovimiento(int movimientoId, LocalDateTime fecha) {
+        jdbcTemplate.update("UPDATE movimientos SET fecha_movimiento = ? WHERE movimiento_id = ?", fecha, movimientoId);
+    }
+
+    private List<LocalDateTime> cortes() {
+        return jdbcTemplate.queryForList(
+                "SELECT fecha_corte FROM saldo_inventario_cierre_periodo ORDER BY fecha_corte",
+                LocalDateTime.class);
+    }
+
+    private Double cantidadCierre(LocalDateTime fechaCorte, String productoId) {
+        return jdbcTemplate.queryForObject("""
+                SELECT SUM(cantidad) FROM saldo_inventario_cierre
+                WHERE fecha_corte = ? AND producto_id = ? AND almacen = ?
+                """, Double.class, fechaCorte, productoId, GENERAL);
+    }
+
+    private Double sumaMovimientosAntesDe(String productoId, LocalDateTime fecha) {
+        return jdbcTemplate.queryForObject("""
+                SELECT COALESCE(SUM(cantidad), 0) FROM movimientos
+                WHERE producto_id = ? AND afecta_inventario = TRUE AND fecha_movimiento < ?
+                """, Double.class, productoId, fecha);
+    }
+}
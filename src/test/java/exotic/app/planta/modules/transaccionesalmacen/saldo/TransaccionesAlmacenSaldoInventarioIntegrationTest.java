@@ -0,0 +1,253 @@
+package exotic.app.planta.modules.transaccionesalmacen.saldo;
+
+import exotic.app.planta.model.inventarios.Movimiento;
+import exotic.app.planta.model.inventarios.TransaccionAlmacen;
+import exotic.app.planta.modules.transaccionesalmacen.support.AbstractTransaccionesAlmacenIntegrationTest;
+import exotic.app.planta.modules.transaccionesalmacen.support.TransaccionesAlmacenFixtureFactory.ModuleFixture;
+import exotic.app.planta.repo.inventarios.SaldoInventarioRepo;
+import exotic.app.planta.service.inventarios.SaldoInventarioConciliacionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cubre el trigger {@code sincronizar_saldo_inventario} (V101) contra PostgreSQL real: el saldo
+ * materializado debe seguir al libro de movimientos en inserciones, actualizaciones y borrados.
+ */
+class TransaccionesAlmacenSaldoInventarioIntegrationTest extends AbstractTransaccionesAlmacenIntegrationTest {
+
+    private static final int GENERAL = Movimiento.Almacen.GENERAL.ordinal();
+    private static final int AVERIAS = Movimiento.Almacen.AVERIAS.ordinal();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SaldoInventarioConciliacionService conciliacionService;
+
+    @Test
+    void insertarMovimientos_acumulaEnLaMismaClave() {
+        ModuleFixture fixture = fixtureFactory.seedModuleFixture();
+        String productoId = fixture.materialPrincipal().getProductoId();
+        long loteId = fixture.loteMateriaPrima().getId();
+
+        assertThat(saldo(productoId, GENERAL, loteId)).isEqualTo(20.0);
+
+        fixtureFactory.createDispensacionTransaccion(
+                fixture.ordenAbierta(),
+                fixture.materialPrincipal(),
+                fixture.loteMateriaPrima(),
+                5.0,
+                fixture.masterUser(),
+                fixture.mezclado()
+        );
+        fixtureFactory.createReporteAveriaTransaccion(
+                fixture.ordenAbierta(),
+                fixture.materialPrincipal(),
+                fixture.loteMateriaPrima(),
+                1.5,
+                fixture.masterUser(),
+                fixture.mezclado()
+        );
+
+        assertThat(saldo(productoId, GENERAL, loteId)).isEqualTo(15.0);
+        assertThat(saldo(productoId, AVERIAS, loteId)).isEqualTo(1.5);
+        assertThat(filasSaldo(productoId)).isEqualTo(2);
+        assertThat(conciliacionService.detectarDesviaciones()).isEmpty();
+    }
+
+    @Test
+    void actualizarMovimiento_mueveElDeltaEntreClaves() {
+        ModuleFixture fixture = fixtureFactory.seedModuleFixture();
+        String productoId = fixture.materialPrincipal().getProductoId();
+        long loteId = fixture.loteMateriaPrima().getId();
+        int movimientoId = primerMovimiento(fixtureFactory.createDispensacionTransaccion(
+                fixture.ordenAbierta(),
+                fixture.materialPrincipal(),
+                fixture.loteMateriaPrima(),
+                5.0,
+                fixture.masterUser(),
+                fixture.mezclado()
+        ));
+
+        jdbcTemplate.update("UPDATE movimientos SET cantidad = -7 WHERE movimiento_id = ?", movimientoId);
+        assertThat(saldo(productoId, GENERAL, loteId)).isEqualTo(13.0);
+
+        jdbcTemplate.update("UPDATE movimientos SET almacen = ? WHERE movimiento_id = ?", AVERIAS, movimientoId);
+        assertThat(saldo(productoId, GENERAL, loteId)).isEqualTo(20.0);
+        assertThat(saldo(productoId, AVERIAS, loteId)).isEqualTo(-7.0);
+
+        jdbcTemplate.update("UPDATE movimientos SET afecta_inventario = FALSE WHERE movimiento_id = ?", movimientoId);
+        assertThat(saldo(productoId, AVERIAS, loteId)).isEqualTo(0.0);
+
+        // Una actualización que no toca columnas del saldo no debe aplicar delta.
+        jdbcTemplate.update("UPDATE movimientos SET afecta_inventario = TRUE WHERE movimiento_id = ?", movimientoId);
+        jdbcTemplate.update("UPDATE movimientos SET tipo_movimiento = tipo_movimiento WHERE movimiento_id = ?", movimientoId);
+        assertThat(saldo(productoId, AVERIAS, loteId)).isEqualTo(-7.0);
+        assertThat(conciliacionService.detectarDesviaciones()).isEmpty();
+    }
+
+    @Test
+    void borrarMovimiento_revierteSuDelta() {
+        ModuleFixture fixture = fixtureFactory.seedModuleFixture();
+        String productoId = fixture.materialPrincipal().getProductoId();
+        long loteId = fixture.loteMateriaPrima().getId();
+        int movimientoId = primerMovimiento(fixtureFactory.createDispensacionTransaccion(
+                fixture.ordenAbierta(),
+                fixture.materialPrincipal(),
+                fixture.loteMateriaPrima(),
+                5.0,
+                fixture.masterUser(),
+                fixture.mezclado()
+        ));
+        assertThat(saldo(productoId, GENERAL, loteId)).isEqualTo(15.0);
+
+        jdbcTemplate.update("DELETE FROM movimientos WHERE movimiento_id = ?", movimientoId);
+
+        assertThat(saldo(productoId, GENERAL, loteId)).isEqualTo(20.0);
+        assertThat(conciliacionService.detectarDesviaciones()).isEmpty();
+    }
+
+    @Test
+    void movimientosSinLote_compartenUnaSolaFilaDeSaldo() {
+        ModuleFixture fixture = fixtureFactory.seedModuleFixture();
+        String productoId = fixture.materialPrincipal().getProductoId();
+        long loteId = fixture.loteMateriaPrima().getId();
+
+        fixtureFactory.createDispensacionTransaccion(
+                fixture.ordenAbierta(),
+                fixture.materialPrincipal(),
+                null,
+                2.0,
+                fixture.masterUser(),
+                fixture.mezclado()
+        );
+        int movimientoId = primerMovimiento(fixtureFactory.createDispensacionTransaccion(
+                fixture.ordenAbierta(),
+                fixture.materialPrincipal(),
+                null,
+                3.0,
+                fixture.masterUser(),
+                fixture.mezclado()
+        ));
+
+        // NULL no es igual a NULL en un índice único simple; la clave COALESCE(lote_id, 0)
+        // debe llevar ambos movimientos a la misma fila en lugar de crear una por inserción.
+        assertThat(saldoSinLote(productoId, GENERAL)).isEqualTo(-5.0);
+        assertThat(filasSinLote(productoId, GENERAL)).isEqualTo(1);
+        assertThat(saldo(productoId, GENERAL, loteId)).isEqualTo(20.0);
+
+        jdbcTemplate.update("UPDATE movimientos SET lote_id = ? WHERE movimiento_id = ?", loteId, movimientoId);
+        assertThat(saldoSinLote(productoId, GENERAL)).isEqualTo(-2.0);
+        assertThat(saldo(productoId, GENERAL, loteId)).isEqualTo(17.0);
+
+        jdbcTemplate.update("UPDATE movimientos SET lote_id = NULL WHERE movimiento_id = ?", movimientoId);
+        assertThat(saldoSinLote(productoId, GENERAL)).isEqualTo(-5.0);
+        assertThat(saldo(productoId, GENERAL, loteId)).isEqualTo(20.0);
+        assertThat(filasSinLote(productoId, GENERAL)).isEqualTo(1);
+        assertThat(conciliacionService.detectarDesviaciones()).isEmpty();
+    }
+
+    @Test
+    void conciliacion_coincideConLaSumaDeMovimientosYCorrigeDesviaciones() {
+        ModuleFixture fixture = fixtureFactory.seedModuleFixture();
+        String productoId = fixture.materialPrincipal().getProductoId();
+        long loteId = fixture.loteMateriaPrima().getId();
+        fixtureFactory.createDispensacionTransaccion(
+                fixture.ordenAbierta(),
+                fixture.materialPrincipal(),
+                fixture.loteMateriaPrima(),
+                4.0,
+                fixture.masterUser(),
+                fixture.mezclado()
+        );
+        fixtureFactory.createDispensacionTransaccion(
+                fixture.ordenAbierta(),
+                fixture.materialPrincipal(),
+                null,
+                1.0,
+                fixture.masterUser(),
+                fixture.mezclado()
+        );
+
+        assertThat(saldoTotal()).isEqualTo(sumaMovimientos());
+        assertThat(conciliacionService.detectarDesviaciones()).isEmpty();
+
+        // Simula una escritura fuera del flujo normal (trigger saltado, restauración parcial).
+        jdbcTemplate.update("""
+                UPDATE saldo_inventario SET cantidad = 999
+                WHERE producto_id = ? AND almacen = ? AND lote_id = ?
+                """, productoId, GENERAL, loteId);
+        jdbcTemplate.update("DELETE FROM saldo_inventario WHERE producto_id = ? AND lote_id IS NULL", productoId);
+
+        List<SaldoInventarioRepo.DesviacionSaldoProjection> desviaciones = conciliacionService.detectarDesviaciones();
+        assertThat(desviaciones).hasSize(2);
+        assertThat(desviaciones)
+                .filteredOn(d -> d.getLoteId() != null)
+                .singleElement()
+                .satisfies(d -> {
+                    assertThat(d.getCantidadLedger()).isEqualTo(16.0);
+                    assertThat(d.getCantidadSaldo()).isEqualTo(999.0);
+                });
+        assertThat(desviaciones)
+                .filteredOn(d -> d.getLoteId() == null)
+                .singleElement()
+                .satisfies(d -> {
+                    assertThat(d.getCantidadLedger()).isEqualTo(-1.0);
+                    assertThat(d.getCantidadSaldo()).isEqualTo(0.0);
+                });
+
+        conciliacionService.reconstruirDesdeMovimientos();
+
+        assertThat(conciliacionService.detectarDesviaciones()).isEmpty();
+        assertThat(saldo(productoId, GENERAL, loteId)).isEqualTo(16.0);
+        assertThat(saldoSinLote(productoId, GENERAL)).isEqualTo(-1.0);
+        assertThat(saldoTotal()).isEqualTo(sumaMovimientos());
+    }
+
+    private int primerMovimiento(TransaccionAlmacen transaccion) {
+        return transaccion.getMovimientosTransaccion().get(0).getMovimientoId();
+    }
+
+    private Double saldo(String productoId, int almacen, long loteId) {
+        return jdbcTemplate.queryForObject("""
+                SELECT SUM(cantidad) FROM saldo_inventario
+                WHERE producto_id = ? AND almacen = ? AND lote_id = ?
+                """, Double.class, productoId, almacen, loteId);
+    }
+
+    private Double saldoSinLote(String productoId, int almacen) {
+        return jdbcTemplate.queryForObject("""
+                SELECT SUM(cantidad) FROM saldo_inventario
+                WHERE producto_id = ? AND almacen = ? AND lote_id IS NULL
+                """, Double.class, productoId, almacen);
+    }
+
+    private Integer filasSinLote(String productoId, int almacen) {
+        return jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM saldo_inventario
+                WHERE producto_id = ? AND almacen = ? AND lote_id IS NULL
+                """, Integer.class, productoId, almacen);
+    }
+
+    private Integer filasSaldo(String productoId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM saldo_inventario WHERE producto_id = ?", Integer.class, productoId);
+    }
+
+    private Double saldoTotal() {
+        return jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(cantidad), 0) FROM saldo_inventario", Double.class);
+    }
+
+    private Double sumaMovimientos() {
+        return jdbcTemplate.queryForObject("""
+                SELECT COALESCE(SUM(cantidad), 0) FROM movimientos
+                WHERE afecta_inventario = TRUE AND producto_id IS NOT NULL
+                """, Double.class);
+    }
+}
@@ -20,6 +20,9 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -27,10 +30,12 @@ import java.util.List;
 
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(InformeInventarioResource.class)
@@ -289,10 +294,10 @@ class InformeInventarioResourceTest {
                 "MAYOR_DEMANDA",
                 "envase"))
                 .thenReturn(new CoberturaMaterialesService.ExcelExport(
-                        excel,
+                        out -> out.write(excel),
                         LocalDateTime.of(2026, 7, 18, 10, 5)));
 
-        mockMvc.perform(get(
+        performExcel(get(
                         "/bi/informes-globales/almacen/cobertura/excel")
                         .param("ventanaDias", "30")
                         .param(
@@ -364,10 +369,10 @@ class InformeInventarioResourceTest {
         byte[] excel = new byte[] {4, 5, 6};
         when(pendingPurchaseOrderExcelService.exportExcel())
                 .thenReturn(new OcmPendientesExcelService.ExcelExport(
-                        excel,
+                        out -> out.write(excel),
                         LocalDateTime.of(2026, 7, 18, 10, 5)));
 
-        mockMvc.perform(get(
+        performExcel(get(
                         "/bi/informes-globales/almacen/ocm-pendientes/excel"))
                 .andExpect(status().isOk())
                 .andExpect(header().string(
@@ -405,12 +410,12 @@ class InformeInventarioResourceTest {
         LocalDateTime cutoff = LocalDateTime.of(2026, 7, 18, 10, 5);
         when(materialOpExcelService.exportDispensedMaterial())
                 .thenReturn(new MaterialOpExcelService.ExcelExport(
-                        dispensed,
+                        out -> out.write(dispensed),
                         cutoff));
         when(materialOpExcelService.exportWipMaterial())
-                .thenReturn(new MaterialOpExcelService.ExcelExport(wip, cutoff));
+                .thenReturn(new MaterialOpExcelService.ExcelExport(out -> out.write(wip), cutoff));
 
-        mockMvc.perform(get(
+        performExcel(get(
                         "/bi/informes-globales/almacen/op-material-directo/excel"))
                 .andExpect(status().isOk())
                 .andExpect(header().string(
@@ -420,7 +425,7 @@ class InformeInventarioResourceTest {
                         "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
                 .andExpect(content().bytes(dispensed));
 
-        mockMvc.perform(get(
+        performExcel(get(
                         "/bi/informes-globales/almacen/wip-material-estimado/excel"))
                 .andExpect(status().isOk())
                 .andExpect(header().string(
@@ -519,4 +524,11 @@ class InformeInventarioResourceTest {
                 1,
                 20);
     }
+
+    private ResultActions performExcel(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult started = mockMvc.perform(request)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started));
+    }
 }
@@ -6,24 +6,32 @@ import exotic.app.planta.service.bi.ExcelDecimalSeparator;
 import exotic.app.planta.service.bi.InformesDiariosService;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.mockito.stubbing.Answer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.HttpHeaders;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 
+import java.io.OutputStream;
 import java.time.LocalDate;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(InformesDiariosResource.class)
@@ -41,28 +49,27 @@ class InformesDiariosResourceTest {
     @Test
     void exportarComprasExcel_acceptsSingleDate() throws Exception {
         LocalDate fecha = LocalDate.of(2026, 6, 15);
-        when(informesDiariosService.exportarComprasExcel(eq(fecha), eq(fecha), any(BiExcelExportOptions.class)))
-                .thenReturn(EXCEL_BYTES);
+        doAnswer(writesExcelBytes()).when(informesDiariosService).exportarComprasExcel(eq(fecha), eq(fecha), any(BiExcelExportOptions.class), any(OutputStream.class));
 
-        mockMvc.perform(get("/bi/informes-diarios/compras/excel")
+        performExcel(get("/bi/informes-diarios/compras/excel")
                         .param("fecha", "2026-06-15"))
                 .andExpect(status().isOk())
                 .andExpect(header().string(
                         HttpHeaders.CONTENT_DISPOSITION,
-                        "attachment; filename=\"informe_compras_ocm_2026-06-15.xlsx\""));
+                        "attachment; filename=\"informe_compras_ocm_2026-06-15.xlsx\""))
+                .andExpect(content().bytes(EXCEL_BYTES));
 
-        verify(informesDiariosService).exportarComprasExcel(eq(fecha), eq(fecha), any(BiExcelExportOptions.class));
+        verify(informesDiariosService).exportarComprasExcel(eq(fecha), eq(fecha), any(BiExcelExportOptions.class), any(OutputStream.class));
     }
 
     @Test
     void exportarIngresoMaterialesExcel_acceptsDateRangeAndDecimalSeparator() throws Exception {
         LocalDate desde = LocalDate.of(2026, 6, 1);
         LocalDate hasta = LocalDate.of(2026, 6, 30);
-        when(informesDiariosService.exportarIngresoMaterialesExcel(
-                eq(desde), eq(hasta), any(BiExcelExportOptions.class)))
-                .thenReturn(EXCEL_BYTES);
+        doAnswer(writesExcelBytes()).when(informesDiariosService).exportarIngresoMaterialesExcel(
+                eq(desde), eq(hasta), any(BiExcelExportOptions.class), any(OutputStream.class));
 
-        mockMvc.perform(get("/bi/informes-diarios/almacen/ingreso-materiales/excel")
+        performExcel(get("/bi/informes-diarios/almacen/ingreso-materiales/excel")
                         .param("fechaDesde", "2026-06-01")
                         .param("fechaHasta", "2026-06-30")
                         .param("exportMode", "TEXT_DETERMINISTIC")
@@ -73,7 +80,7 @@ class InformesDiariosResourceTest {
                         "attachment; filename=\"informe_ingreso_materiales_2026-06-01_a_2026-06-30.xlsx\""));
 
         ArgumentCaptor<BiExcelExportOptions> optionsCaptor = ArgumentCaptor.forClass(BiExcelExportOptions.class);
-        verify(informesDiariosService).exportarIngresoMaterialesExcel(eq(desde), eq(hasta), optionsCaptor.capture());
+        verify(informesDiariosService).exportarIngresoMaterialesExcel(eq(desde), eq(hasta), optionsCaptor.capture(), any(OutputStream.class));
         assertEquals(BiExcelExportMode.TEXT_DETERMINISTIC, optionsCaptor.getValue().exportMode());
         assertEquals(ExcelDecimalSeparator.DOT, optionsCaptor.getValue().decimalSeparator());
     }
@@ -81,10 +88,9 @@ class InformesDiariosResourceTest {
     @Test
     void exportarComprasExcel_acceptsNumericExportMode() throws Exception {
         LocalDate fecha = LocalDate.of(2026, 6, 15);
-        when(informesDiariosService.exportarComprasExcel(eq(fecha), eq(fecha), any(BiExcelExportOptions.class)))
-                .thenReturn(EXCEL_BYTES);
+        doAnswer(writesExcelBytes()).when(informesDiariosService).exportarComprasExcel(eq(fecha), eq(fecha), any(BiExcelExportOptions.class), any(OutputStream.class));
 
-        mockMvc.perform(get("/bi/informes-diarios/compras/excel")
+        performExcel(get("/bi/informes-diarios/compras/excel")
                         .param("fecha", "2026-06-15")
                         .param("exportMode", "NUMERIC")
                         .param("decimalSeparator", "COMMA"))
@@ -94,7 +100,7 @@ class InformesDiariosResourceTest {
                         "attachment; filename=\"informe_compras_ocm_2026-06-15.xlsx\""));
 
         ArgumentCaptor<BiExcelExportOptions> optionsCaptor = ArgumentCaptor.forClass(BiExcelExportOptions.class);
-        verify(informesDiariosService).exportarComprasExcel(eq(fecha), eq(fecha), optionsCaptor.capture());
+        verify(informesDiariosService).exportarComprasExcel(eq(fecha), eq(fecha), optionsCaptor.capture(), any(OutputStream.class));
         assertEquals(BiExcelExportMode.NUMERIC, optionsCaptor.getValue().exportMode());
         assertNull(optionsCaptor.getValue().decimalSeparator());
     }
@@ -102,16 +108,15 @@ class InformesDiariosResourceTest {
     @Test
     void exportarComprasExcel_legacyDecimalSeparatorUsesTextMode() throws Exception {
         LocalDate fecha = LocalDate.of(2026, 6, 15);
-        when(informesDiariosService.exportarComprasExcel(eq(fecha), eq(fecha), any(BiExcelExportOptions.class)))
-                .thenReturn(EXCEL_BYTES);
+        doAnswer(writesExcelBytes()).when(informesDiariosService).exportarComprasExcel(eq(fecha), eq(fecha), any(BiExcelExportOptions.class), any(OutputStream.class));
 
-        mockMvc.perform(get("/bi/informes-diarios/compras/excel")
+        performExcel(get("/bi/informes-diarios/compras/excel")
                         .param("fecha", "2026-06-15")
                         .param("decimalSeparator", "DOT"))
                 .andExpect(status().isOk());
 
         ArgumentCaptor<BiExcelExportOptions> optionsCaptor = ArgumentCaptor.forClass(BiExcelExportOptions.class);
-        verify(informesDiariosService).exportarComprasExcel(eq(fecha), eq(fecha), optionsCaptor.capture());
+        verify(informesDiariosService).exportarComprasExcel(eq(fecha), eq(fecha), optionsCaptor.capture(), any(OutputStream.class));
         assertEquals(BiExcelExportMode.TEXT_DETERMINISTIC, optionsCaptor.getValue().exportMode());
         assertEquals(ExcelDecimalSeparator.DOT, optionsCaptor.getValue().decimalSeparator());
     }
@@ -120,11 +125,10 @@ class InformesDiariosResourceTest {
     void exportarDispensacionMaterialesExcel_acceptsDateRange() throws Exception {
         LocalDate desde = LocalDate.of(2026, 6, 1);
         LocalDate hasta = LocalDate.of(2026, 6, 30);
-        when(informesDiariosService.exportarDispensacionMaterialesExcel(
-                eq(desde), eq(hasta), any(BiExcelExportOptions.class)))
-                .thenReturn(EXCEL_BYTES);
+        doAnswer(writesExcelBytes()).when(informesDiariosService).exportarDispensacionMaterialesExcel(
+                eq(desde), eq(hasta), any(BiExcelExportOptions.class), any(OutputStream.class));
 
-        mockMvc.perform(get("/bi/informes-diarios/almacen/dispensacion-materiales/excel")
+        performExcel(get("/bi/informes-diarios/almacen/dispensacion-materiales/excel")
                         .param("fechaDesde", "2026-06-01")
                         .param("fechaHasta", "2026-06-30"))
                 .andExpect(status().isOk())
@@ -133,18 +137,17 @@ class InformesDiariosResourceTest {
                         "attachment; filename=\"informe_dispensacion_materiales_2026-06-01_a_2026-06-30.xlsx\""));
 
         verify(informesDiariosService).exportarDispensacionMaterialesExcel(
-                eq(desde), eq(hasta), any(BiExcelExportOptions.class));
+                eq(desde), eq(hasta), any(BiExcelExportOptions.class), any(OutputStream.class));
     }
 
     @Test
     void exportarIngresoTerminadosExcel_acceptsDateRange() throws Exception {
         LocalDate desde = LocalDate.of(2026, 6, 1);
         LocalDate hasta = LocalDate.of(2026, 6, 30);
-        when(informesDiariosService.exportarIngresoTerminadosExcel(
-                eq(desde), eq(hasta), any(BiExcelExportOptions.class)))
-                .thenReturn(EXCEL_BYTES);
+        doAnswer(writesExcelBytes()).when(informesDiariosService).exportarIngresoTerminadosExcel(
+                eq(desde), eq(hasta), any(BiExcelExportOptions.class), any(OutputStream.class));
 
-        mockMvc.perform(get("/bi/informes-diarios/almacen/ingreso-terminados/excel")
+        performExcel(get("/bi/informes-diarios/almacen/ingreso-terminados/excel")
                         .param("fechaDesde", "2026-06-01")
                         .param("fechaHasta", "2026-06-30"))
                 .andExpect(status().isOk())
@@ -153,7 +156,25 @@ class InformesDiariosResourceTest {
                         "attachment; filename=\"informe_ingreso_terminados_2026-06-01_a_2026-06-30.xlsx\""));
 
         verify(informesDiariosService).exportarIngresoTerminadosExcel(
-                eq(desde), eq(hasta), any(BiExcelExportOptions.class));
+                eq(desde), eq(hasta), any(BiExcelExportOptions.class), any(OutputStream.class));
+    }
+
+    @Test
+    void exportarReporteIngresoTerminadosExcel_streamsWorkbook() throws Exception {
+        LocalDate fecha = LocalDate.of(2026, 6, 15);
+        doAnswer((invocation) -> {
+            invocation.getArgument(2, OutputStream.class).write(EXCEL_BYTES);
+            return null;
+        }).when(informesDiariosService).exportarReporteIngresoTerminadosExcel(
+                eq(fecha), any(BiExcelExportOptions.class), any(OutputStream.class));
+
+        performExcel(get("/bi/informes-diarios/almacen/ingreso-terminados/reporte-excel")
+                        .param("fecha", "2026-06-15"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(
+                        HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"reporte_produccion_terminados_2026-06-15.xlsx\""))
+                .andExpect(content().bytes(EXCEL_BYTES));
     }
 
     @Test
@@ -182,4 +203,19 @@ class InformesDiariosResourceTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.error").value("fechaDesde no puede ser posterior a fechaHasta."));
     }
+
+    /** Los exports se escriben en streaming: la respuesta se completa en el dispatch asíncrono. */
+    private ResultActions performExcel(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult started = mockMvc.perform(request)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started));
+    }
+
+    private static Answer<Void> writesExcelBytes() {
+        return (invocation) -> {
+            invocation.getArgument(3, OutputStream.class).write(EXCEL_BYTES);
+            return null;
+        };
+    }
 }
@@ -227,7 +227,9 @@ class ProveedoresBiResourceTest {
                 365,
                 0,
                 0,
-                0
+                0,
+                null,
+                null
         );
 
         when(proveedoresBiService.estimarPuntoReorden(
@@ -6,6 +6,7 @@ import exotic.app.planta.model.users.ModuloSistema;
 import exotic.app.planta.model.users.TabAcceso;
 import exotic.app.planta.model.users.User;
 import exotic.app.planta.repo.usuarios.UserRepository;
+import exotic.app.planta.security.AuthenticatedUserResolver;
 import exotic.app.planta.service.commons.CargaMasivaPuntosReordenService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,6 +16,7 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Clock;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
@@ -39,7 +41,7 @@ class CargaMasivaPuntosReordenResourceTest {
     void setUp() {
         service = mock(CargaMasivaPuntosReordenService.class);
         userRepository = mock(UserRepository.class);
-        resource = new CargaMasivaPuntosReordenResource(service, userRepository);
+        resource = new CargaMasivaPuntosReordenResource(service, new AuthenticatedUserResolver(userRepository, Clock.systemUTC()));
     }
 
     @Test
@@ -7,6 +7,7 @@ import exotic.app.planta.model.users.ModuloSistema;
 import exotic.app.planta.model.users.TabAcceso;
 import exotic.app.planta.model.users.User;
 import exotic.app.planta.repo.usuarios.UserRepository;
+import exotic.app.planta.security.AuthenticatedUserResolver;
 import exotic.app.planta.service.compras.ComprasService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,6 +18,7 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Clock;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
@@ -42,7 +44,7 @@ class ComprasResourceAccessTest {
     void setUp() {
         comprasService = mock(ComprasService.class);
         userRepository = mock(UserRepository.class);
-        resource = new ComprasResource(comprasService, userRepository);
+        resource = new ComprasResource(comprasService, new AuthenticatedUserResolver(userRepository, Clock.systemUTC()));
     }
 
     @Test
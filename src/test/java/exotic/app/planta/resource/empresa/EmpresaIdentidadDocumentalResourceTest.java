@@ -3,6 +3,7 @@ package exotic.app.planta.resource.empresa;
 import exotic.app.planta.model.empresa.dto.EmpresaIdentidadDocumentalVigenteResponse;
 import exotic.app.planta.model.users.User;
 import exotic.app.planta.repo.usuarios.UserRepository;
+import exotic.app.planta.security.AuthenticatedUserResolver;
 import exotic.app.planta.service.empresa.EmpresaIdentidadDocumentalService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,6 +11,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 
+import java.time.Clock;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -34,7 +36,7 @@ class EmpresaIdentidadDocumentalResourceTest {
         when(authentication.isAuthenticated()).thenReturn(true);
         when(authentication.getName()).thenReturn("operario");
         when(userRepository.findByUsername("operario")).thenReturn(Optional.of(user));
-        resource = new EmpresaIdentidadDocumentalResource(service, userRepository);
+        resource = new EmpresaIdentidadDocumentalResource(service, new AuthenticatedUserResolver(userRepository, Clock.systemUTC()));
     }
 
     @Test
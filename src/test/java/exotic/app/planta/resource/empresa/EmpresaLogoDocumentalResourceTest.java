@@ -3,6 +3,7 @@ package exotic.app.planta.resource.empresa;
 import exotic.app.planta.model.empresa.EmpresaLogoDocumentalVersion;
 import exotic.app.planta.model.users.User;
 import exotic.app.planta.repo.usuarios.UserRepository;
+import exotic.app.planta.security.AuthenticatedUserResolver;
 import exotic.app.planta.service.empresa.EmpresaLogoDocumentalService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,6 +12,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 
 import java.nio.charset.StandardCharsets;
+import java.time.Clock;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
@@ -36,7 +38,7 @@ class EmpresaLogoDocumentalResourceTest {
         when(authentication.isAuthenticated()).thenReturn(true);
         when(authentication.getName()).thenReturn("operario");
         when(userRepository.findByUsername("operario")).thenReturn(Optional.of(user));
-        resource = new EmpresaLogoDocumentalResource(service, userRepository);
+        resource = new EmpresaLogoDocumentalResource(service, new AuthenticatedUserResolver(userRepository, Clock.systemUTC()));
     }
 
     @Test
@@ -5,6 +5,7 @@ import exotic.app.planta.model.users.ModuloSistema;
 import exotic.app.planta.model.users.TabAcceso;
 import exotic.app.planta.model.users.User;
 import exotic.app.planta.repo.usuarios.UserRepository;
+import exotic.app.planta.security.AuthenticatedUserResolver;
 import exotic.app.planta.service.productos.procesos.ProcesoProduccionDocumentoService;
 import exotic.app.planta.service.productos.procesos.ProcesoProduccionService;
 import org.junit.jupiter.api.Test;
@@ -12,6 +13,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Clock;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -29,7 +31,7 @@ class ProcesoProduccionResourceDocumentoAccessTest {
         ProcesoProduccionResource resource = new ProcesoProduccionResource(
                 mock(ProcesoProduccionService.class),
                 mock(ProcesoProduccionDocumentoService.class),
-                mock(UserRepository.class)
+                new AuthenticatedUserResolver(mock(UserRepository.class), Clock.systemUTC())
         );
 
         assertThatThrownBy(() -> resource.getDocumentoVersiones(null, 1))
@@ -46,7 +48,7 @@ class ProcesoProduccionResourceDocumentoAccessTest {
         ProcesoProduccionResource resource = new ProcesoProduccionResource(
                 mock(ProcesoProduccionService.class),
                 documentoService,
-                userRepository
+                new AuthenticatedUserResolver(userRepository, Clock.systemUTC())
         );
         Authentication authentication = authentication("operario");
         when(userRepository.findByUsername("operario"))
@@ -66,7 +68,7 @@ class ProcesoProduccionResourceDocumentoAccessTest {
         ProcesoProduccionResource resource = new ProcesoProduccionResource(
                 mock(ProcesoProduccionService.class),
                 documentoService,
-                userRepository
+                new AuthenticatedUserResolver(userRepository, Clock.systemUTC())
         );
         Authentication authentication = authentication("calidad");
         when(userRepository.findByUsername("calidad"))
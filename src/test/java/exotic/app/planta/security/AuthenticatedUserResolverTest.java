@@ -0,0 +1,102 @@
+package exotic.app.planta.security;
+
+import exotic.app.planta.model.users.User;
+import exotic.app.planta.model.users.UsuarioCambioEvent;
+import exotic.app.planta.repo.usuarios.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuthenticatedUserResolverTest {
+
+    private static final Instant AHORA = Instant.parse("2026-07-21T15:00:00Z");
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final Clock clock = mock(Clock.class);
+    private final AuthenticatedUserResolver resolver = new AuthenticatedUserResolver(userRepository, clock);
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void requestsWithTheSameTokenShareOneLookupUntilTheTtl() {
+        when(clock.instant()).thenReturn(AHORA);
+        User user = user("operario");
+        when(userRepository.findByUsername("operario")).thenReturn(Optional.of(user));
+
+        assertSame(user, resolver.resolve(auth("operario", "token-1")).orElseThrow());
+        assertSame(user, resolver.resolve(auth("operario", "token-1")).orElseThrow());
+        verify(userRepository, times(1)).findByUsername("operario");
+
+        when(clock.instant()).thenReturn(AHORA.plus(AuthenticatedUserResolver.TTL));
+        resolver.resolve(auth("operario", "token-1"));
+        verify(userRepository, times(2)).findByUsername("operario");
+    }
+
+    @Test
+    void aNewTokenOrAUserChangeReloadsTheUser() {
+        when(clock.instant()).thenReturn(AHORA);
+        when(userRepository.findByUsername("operario")).thenReturn(Optional.of(user("operario")));
+
+        resolver.resolve(auth("operario", "token-1"));
+        resolver.resolve(auth("operario", "token-2"));
+        verify(userRepository, times(2)).findByUsername("operario");
+
+        resolver.onUsuarioCambio(new UsuarioCambioEvent(User.class));
+        resolver.resolve(auth("operario", "token-2"));
+        verify(userRepository, times(3)).findByUsername("operario");
+    }
+
+    @Test
+    void theUserIsMemoizedForTheRestOfTheRequest() {
+        when(clock.instant()).thenReturn(AHORA);
+        User user = user("operario");
+        when(userRepository.findByUsername("operario")).thenReturn(Optional.of(user));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        resolver.resolve(auth("operario", "token-1"));
+        resolver.invalidateAll();
+
+        assertSame(user, resolver.resolve(auth("operario", "token-1")).orElseThrow());
+        verify(userRepository, times(1)).findByUsername("operario");
+    }
+
+    @Test
+    void missingUsersAreNotCached() {
+        when(clock.instant()).thenReturn(AHORA);
+        when(userRepository.findByUsername("nadie")).thenReturn(Optional.empty());
+
+        assertTrue(resolver.resolve(auth("nadie", "token-1")).isEmpty());
+        resolver.resolve(auth("nadie", "token-1"));
+
+        verify(userRepository, times(2)).findByUsername("nadie");
+    }
+
+    private static Authentication auth(String username, String token) {
+        return new UsernamePasswordAuthenticationToken(username, token, List.of());
+    }
+
+    private static User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        return user;
+    }
+}
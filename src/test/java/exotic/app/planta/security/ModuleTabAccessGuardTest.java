@@ -13,6 +13,7 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Clock;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
@@ -33,7 +34,7 @@ class ModuleTabAccessGuardTest {
     @BeforeEach
     void setUp() {
         userRepository = mock(UserRepository.class);
-        guard = new ModuleTabAccessGuard(userRepository);
+        guard = new ModuleTabAccessGuard(new AuthenticatedUserResolver(userRepository, Clock.systemUTC()));
     }
 
     @Test
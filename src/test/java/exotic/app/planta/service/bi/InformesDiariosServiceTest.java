@@ -1,6 +1,7 @@
 package exotic.app.planta.service.bi;
 
 import exotic.app.planta.model.bi.dto.InformeDiarioComprasRowDTO;
+import exotic.app.planta.model.bi.dto.MovimientoAlmacenRowDTO;
 import exotic.app.planta.model.inventarios.Movimiento;
 import exotic.app.planta.model.inventarios.TransaccionAlmacen;
 import exotic.app.planta.repo.inventarios.TransaccionAlmacenRepo;
@@ -19,6 +20,7 @@ import java.io.ByteArrayInputStream;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
@@ -43,11 +45,11 @@ class InformesDiariosServiceTest {
 
     @Test
     void exportarIngresoMaterialesExcel_conSeparadorComaEscribeDecimalComoTextoDeterministico() throws Exception {
-        when(transaccionAlmacenRepo.findIngresosMaterialPorDia(
+        when(transaccionAlmacenRepo.streamIngresosMaterialPorRango(
                 any(LocalDateTime.class),
                 any(LocalDateTime.class),
                 anyCollection()))
-                .thenReturn(List.of(movimiento(1234.5)));
+                .thenReturn(Stream.of(movimiento(1234.5)));
 
         byte[] excel = service.exportarIngresoMaterialesExcel(
                 LocalDate.of(2026, 6, 15),
@@ -90,11 +92,11 @@ class InformesDiariosServiceTest {
 
     @Test
     void exportarIngresoMaterialesExcel_modoTextoSinSeparadorUsaComaPorDefecto() throws Exception {
-        when(transaccionAlmacenRepo.findIngresosMaterialPorDia(
+        when(transaccionAlmacenRepo.streamIngresosMaterialPorRango(
                 any(LocalDateTime.class),
                 any(LocalDateTime.class),
                 anyCollection()))
-                .thenReturn(List.of(movimiento(1234.5)));
+                .thenReturn(Stream.of(movimiento(1234.5)));
 
         byte[] excel = service.exportarIngresoMaterialesExcel(
                 LocalDate.of(2026, 6, 15),
@@ -119,8 +121,8 @@ class InformesDiariosServiceTest {
         assertNumericCell(excel, "Compras", 1, 9, 1234.5);
     }
 
-    private static Movimiento movimiento(double cantidad) {
-        Movimiento movimiento = new Movimiento();
+    private static MovimientoAlmacenRowDTO movimiento(double cantidad) {
+        MovimientoAlmacenRowDTO movimiento = new MovimientoAlmacenRowDTO();
         movimiento.setFechaMovimiento(LocalDateTime.of(2026, 6, 15, 10, 30));
         movimiento.setCantidad(cantidad);
         movimiento.setTipoMovimiento(Movimiento.TipoMovimiento.COMPRA);
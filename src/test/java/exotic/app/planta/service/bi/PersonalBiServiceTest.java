@@ -138,7 +138,8 @@ class PersonalBiServiceTest {
         when(registroHoraExtraRepo.buscarBiHorasExtra(desde, hasta, null, null, null))
                 .thenReturn(List.of(registro(1L, LocalDate.of(2026, 6, 2), 120, RegistroHoraExtra.Estado.APROBADA)));
 
-        byte[] excel = service.exportarHorasExtraExcel(desde, hasta, HorasExtraBiGranularidad.DIA, null, null, null);
+        byte[] excel = service.exportarHorasExtraExcel(desde, hasta, HorasExtraBiGranularidad.DIA, null, null, null)
+                .toByteArray();
 
         try (Workbook workbook = WorkbookFactory.create(new ByteArrayInputStream(excel))) {
             assertEquals(3, workbook.getNumberOfSheets());
@@ -12,6 +12,9 @@ import exotic.app.planta.repo.compras.ItemOrdenCompraRepo;
 import exotic.app.planta.repo.compras.ProveedorRepo;
 import exotic.app.planta.repo.inventarios.TransaccionAlmacenRepo;
 import exotic.app.planta.repo.producto.MaterialRepo;
+import exotic.app.planta.service.bi.inventario.BootstrapDemandIntervalCalculator;
+import exotic.app.planta.service.commons.CalculoParalelo;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -40,6 +43,7 @@ class ProveedoresBiServiceTest {
     private ItemOrdenCompraRepo itemOrdenCompraRepo;
     private TransaccionAlmacenRepo transaccionAlmacenRepo;
     private ProveedoresBiService service;
+    private final CalculoParalelo calculoParalelo = new CalculoParalelo(2);
 
     @BeforeEach
     void setUp() {
@@ -47,7 +51,18 @@ class ProveedoresBiServiceTest {
         materialRepo = Mockito.mock(MaterialRepo.class);
         itemOrdenCompraRepo = Mockito.mock(ItemOrdenCompraRepo.class);
         transaccionAlmacenRepo = Mockito.mock(TransaccionAlmacenRepo.class);
-        service = new ProveedoresBiService(proveedorRepo, materialRepo, itemOrdenCompraRepo, transaccionAlmacenRepo);
+        service = new ProveedoresBiService(
+                proveedorRepo,
+                materialRepo,
+                itemOrdenCompraRepo,
+                transaccionAlmacenRepo,
+                new BootstrapDemandIntervalCalculator(calculoParalelo)
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        calculoParalelo.shutdown();
     }
 
     @Test
@@ -317,6 +332,8 @@ class ProveedoresBiServiceTest {
         assertEquals(4, result.getObservacionesLeadTime());
         assertEquals(2, result.getProveedoresObservados());
         assertNotNull(result.getConfianzaGlobal());
+        assertTrue(result.getDemandaDiariaPromedioMin() <= result.getDemandaDiariaPromedio());
+        assertTrue(result.getDemandaDiariaPromedioMax() >= result.getDemandaDiariaPromedio());
     }
 
     private static Proveedor proveedor(String id, String nombre) {
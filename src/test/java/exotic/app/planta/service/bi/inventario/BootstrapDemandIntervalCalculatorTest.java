@@ -1,13 +1,26 @@
 package exotic.app.planta.service.bi.inventario;
 
+import exotic.app.planta.service.commons.CalculoParalelo;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class BootstrapDemandIntervalCalculatorTest {
+    private final CalculoParalelo calculoParalelo = new CalculoParalelo(3);
     private final BootstrapDemandIntervalCalculator calculator =
-            new BootstrapDemandIntervalCalculator();
+            new BootstrapDemandIntervalCalculator(calculoParalelo);
+
+    @AfterEach
+    void tearDown() {
+        calculoParalelo.shutdown();
+    }
 
     @Test
     void isDeterministicForTheSameSeriesAndSeed() {
@@ -19,4 +32,55 @@ class BootstrapDemandIntervalCalculatorTest {
         assertEquals(first, second);
         assertTrue(first.lowerMean() <= first.upperMean());
     }
+
+    @Test
+    void selectsTheSamePercentilesAsSortingEverySampledMean() {
+        double[] dailyDemand = {0, 3, 0, 0, 12, 7, 0, 1, 0, 0, 4, 0, 9, 0};
+
+        var interval = calculator.calculate(dailyDemand, 99L);
+
+        double[] sortedMeans = sampledMeans(dailyDemand, 99L);
+        Arrays.sort(sortedMeans);
+        assertEquals(sortedMeans[49], interval.lowerMean());
+        assertEquals(sortedMeans[1_949], interval.upperMean());
+    }
+
+    @Test
+    void batchResultsMatchIndividualCalculationsInOrder() {
+        SplittableRandom random = new SplittableRandom(7L);
+        List<BootstrapDemandIntervalCalculator.DemandSeries> series = new ArrayList<>();
+        for (int index = 0; index < 50; index++) {
+            double[] dailyDemand = new double[30];
+            for (int day = 0; day < dailyDemand.length; day++) {
+                dailyDemand[day] = random.nextInt(4) == 0 ? random.nextInt(20) : 0;
+            }
+            series.add(new BootstrapDemandIntervalCalculator.DemandSeries(
+                    dailyDemand,
+                    index * 31L));
+        }
+
+        var batch = calculator.calculateAll(series);
+
+        assertEquals(series.size(), batch.size());
+        for (int index = 0; index < series.size(); index++) {
+            assertEquals(
+                    calculator.calculate(
+                            series.get(index).dailyDemand(),
+                            series.get(index).seed()),
+                    batch.get(index));
+        }
+    }
+
+    private double[] sampledMeans(double[] dailyDemand, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        double[] means = new double[2_000];
+        for (int sample = 0; sample < means.length; sample++) {
+            double sum = 0;
+            for (int day = 0; day < dailyDemand.length; day++) {
+                sum += dailyDemand[random.nextInt(dailyDemand.length)];
+            }
+            means[sample] = sum / dailyDemand.length;
+        }
+        return means;
+    }
 }
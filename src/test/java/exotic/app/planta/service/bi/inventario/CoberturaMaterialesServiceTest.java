@@ -6,8 +6,10 @@ import exotic.app.planta.model.inventarios.Movimiento;
 import exotic.app.planta.model.inventarios.TransaccionAlmacen;
 import exotic.app.planta.model.producto.Material;
 import exotic.app.planta.repo.inventarios.TransaccionAlmacenRepo;
+import exotic.app.planta.service.commons.CalculoParalelo;
 import org.apache.poi.ss.usermodel.CellType;
 import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 
 import java.io.ByteArrayInputStream;
@@ -34,6 +36,13 @@ class CoberturaMaterialesServiceTest {
             Instant.parse("2026-07-18T15:00:00Z"),
             BOGOTA);
 
+    private final CalculoParalelo calculoParalelo = new CalculoParalelo(2);
+
+    @AfterEach
+    void tearDown() {
+        calculoParalelo.shutdown();
+    }
+
     @Test
     void estimatesCoverageAndMarksSparseShortHistoryAsLowConfidence() {
         LocalDate cutoffDate = LocalDate.of(2026, 7, 18);
@@ -57,7 +66,7 @@ class CoberturaMaterialesServiceTest {
         var service = new CoberturaMaterialesService(
                 movementRepo,
                 stockReader,
-                new BootstrapDemandIntervalCalculator(),
+                new BootstrapDemandIntervalCalculator(calculoParalelo),
                 CLOCK);
         var report = service.calculate(7);
 
@@ -115,7 +124,7 @@ class CoberturaMaterialesServiceTest {
         var service = new CoberturaMaterialesService(
                 movementRepo,
                 stockReader,
-                new BootstrapDemandIntervalCalculator(),
+                new BootstrapDemandIntervalCalculator(calculoParalelo),
                 CLOCK);
 
         var operative = service.calculate(
@@ -264,7 +273,7 @@ class CoberturaMaterialesServiceTest {
         var service = new CoberturaMaterialesService(
                 movementRepo,
                 stockReader,
-                new BootstrapDemandIntervalCalculator(),
+                new BootstrapDemandIntervalCalculator(calculoParalelo),
                 CLOCK);
 
         var export = service.exportExcel(
@@ -280,7 +289,7 @@ class CoberturaMaterialesServiceTest {
                 LocalDateTime.of(2026, 7, 18, 10, 0),
                 export.cutoff());
         try (var workbook = WorkbookFactory.create(
-                new ByteArrayInputStream(export.content()))) {
+                new ByteArrayInputStream(export.content().toByteArray()))) {
             assertEquals(1, workbook.getNumberOfSheets());
             var sheet = workbook.getSheet("Cobertura");
             assertEquals("Cobertura de materiales",
@@ -321,7 +330,7 @@ class CoberturaMaterialesServiceTest {
                 null);
 
         try (var workbook = WorkbookFactory.create(
-                new ByteArrayInputStream(export.content()))) {
+                new ByteArrayInputStream(export.content().toByteArray()))) {
             var sheet = workbook.getSheet("Cobertura");
             assertEquals(3, sheet.getLastRowNum());
             assertEquals("CONFIANZA BAJA",
@@ -329,6 +338,69 @@ class CoberturaMaterialesServiceTest {
         }
     }
 
+    @Test
+    void reusesCachedAnalysisAndAppliesOnlyNewMovements() {
+        LocalDate cutoffDate = LocalDate.of(2026, 7, 18);
+        LocalDate startDate = cutoffDate.minusDays(29);
+        Material material = material("MP-CACHE", "Glicerina", "KG");
+        Movimiento first = dispensation(
+                material,
+                -30,
+                cutoffDate.minusDays(1).atTime(8, 0));
+        first.setMovimientoId(10);
+        Movimiento second = dispensation(
+                material,
+                -30,
+                cutoffDate.atTime(9, 0));
+        second.setMovimientoId(11);
+
+        TransaccionAlmacenRepo movementRepo = mock(TransaccionAlmacenRepo.class);
+        InventarioStockReader stockReader = mock(InventarioStockReader.class);
+        when(stockReader.readGeneralStock()).thenReturn(List.of(
+                new ProductoStockSnapshot(material, 60)));
+        when(movementRepo.findMaxMovimientoId()).thenReturn(10, 10, 11);
+        when(movementRepo.findMovimientosBiByAlmacenAndRango(
+                Movimiento.Almacen.GENERAL,
+                startDate.atStartOfDay(),
+                cutoffDate.atTime(LocalTime.MAX)))
+                .thenReturn(List.of(first));
+        when(movementRepo.findMovimientosBiByAlmacenAndRangoAfterId(
+                Movimiento.Almacen.GENERAL,
+                startDate.atStartOfDay(),
+                cutoffDate.atTime(LocalTime.MAX),
+                10))
+                .thenReturn(List.of(second));
+        var service = new CoberturaMaterialesService(
+                movementRepo,
+                stockReader,
+                new BootstrapDemandIntervalCalculator(calculoParalelo),
+                CLOCK);
+
+        var initial = service.calculate(30);
+        var cached = service.calculate(
+                30,
+                FuenteDemandaCobertura.SOLO_DISPENSACIONES,
+                "TODOS",
+                "TODOS",
+                null,
+                "NOMBRE",
+                "glicerina",
+                0,
+                20);
+        var refreshed = service.calculate(30);
+
+        assertEquals(1.0, initial.estimaciones().get(0).demandaMediaDiaria(), 0.0001);
+        assertEquals(1, cached.pagina().totalElements());
+        assertEquals(2.0, refreshed.estimaciones().get(0).demandaMediaDiaria(), 0.0001);
+        assertEquals(30.0, refreshed.estimaciones().get(0).diasHastaAgotamiento(), 0.0001);
+        assertEquals(2, refreshed.resumenFuentesDemanda().movimientosDispensacionIncluidos());
+        verify(movementRepo, times(1)).findMovimientosBiByAlmacenAndRango(
+                Movimiento.Almacen.GENERAL,
+                startDate.atStartOfDay(),
+                cutoffDate.atTime(LocalTime.MAX));
+        verify(stockReader, times(2)).readGeneralStock();
+    }
+
     @Test
     void rejectsIncompatibleDemandOrderAndUnsupportedPageSize() {
         var service = serviceFor(30, List.of(), List.of());
@@ -400,7 +472,7 @@ class CoberturaMaterialesServiceTest {
         return new CoberturaMaterialesService(
                 movementRepo,
                 stockReader,
-                new BootstrapDemandIntervalCalculator(),
+                new BootstrapDemandIntervalCalculator(calculoParalelo),
                 CLOCK);
     }
 
@@ -2,7 +2,6 @@ package exotic.app.planta.service.bi.inventario;
 
 import exotic.app.planta.model.bi.dto.InformeInventarioDTO;
 import exotic.app.planta.model.inventarios.Movimiento;
-import exotic.app.planta.repo.inventarios.TransaccionAlmacenRepo;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -12,31 +11,40 @@ import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.ZoneId;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class InformeInventarioServiceTest {
-    private TransaccionAlmacenRepo movementRepo;
+    private MovimientosBiCursor movementCursor;
     private InventarioStockReader stockReader;
     private StockInventarioAssembler stockAssembler;
     private MovimientosInventarioAssembler movementAssembler;
     private AjustesInventarioAssembler adjustmentAssembler;
     private PendientesInventarioAssembler pendingAssembler;
+    private MovimientosInventarioAssembler.Accumulator movementAccumulator;
+    private AjustesInventarioAssembler.Accumulator adjustmentAccumulator;
     private InformeInventarioService service;
 
     @BeforeEach
     void setUp() {
-        movementRepo = mock(TransaccionAlmacenRepo.class);
+        movementCursor = mock(MovimientosBiCursor.class);
         stockReader = mock(InventarioStockReader.class);
         stockAssembler = mock(StockInventarioAssembler.class);
         movementAssembler = mock(MovimientosInventarioAssembler.class);
         adjustmentAssembler = mock(AjustesInventarioAssembler.class);
         pendingAssembler = mock(PendientesInventarioAssembler.class);
+        movementAccumulator = mock(MovimientosInventarioAssembler.Accumulator.class);
+        adjustmentAccumulator = mock(AjustesInventarioAssembler.Accumulator.class);
         service = new InformeInventarioService(
-                movementRepo,
+                movementCursor,
                 stockReader,
                 stockAssembler,
                 movementAssembler,
@@ -55,11 +63,13 @@ class InformeInventarioServiceTest {
                 .thenReturn(InformeInventarioDTO.MaterialDirectoOpDTO.builder().build());
         when(pendingAssembler.buildWipMaterialEstimate())
                 .thenReturn(InformeInventarioDTO.WipMaterialEstimadoDTO.builder().build());
-        when(adjustmentAssembler.assemble(
-                org.mockito.ArgumentMatchers.anyList(),
-                org.mockito.ArgumentMatchers.anyList(),
-                org.mockito.ArgumentMatchers.any(),
-                org.mockito.ArgumentMatchers.any()))
+        when(movementAssembler.accumulator(any(), any())).thenReturn(movementAccumulator);
+        when(adjustmentAssembler.accumulator(any(), any())).thenReturn(adjustmentAccumulator);
+        when(movementAccumulator.build()).thenReturn(
+                InformeInventarioDTO.MovimientosDTO.builder()
+                        .serieDiaria(List.of())
+                        .build());
+        when(adjustmentAccumulator.build())
                 .thenReturn(InformeInventarioDTO.AjustesInventarioDTO.builder().build());
     }
 
@@ -67,23 +77,15 @@ class InformeInventarioServiceTest {
     void singleDateUsesOnlyThatDayAndDoesNotBuildATimeSeries() {
         LocalDate date = LocalDate.of(2026, 7, 21);
         Movimiento movement = mock(Movimiento.class);
-        List<Movimiento> movements = List.of(movement);
-        InformeInventarioDTO.MovimientosDTO movementReport =
-                InformeInventarioDTO.MovimientosDTO.builder()
-                        .serieDiaria(List.of())
-                        .build();
-        when(movementRepo.findMovimientosBiByAlmacenAndRango(
-                Movimiento.Almacen.GENERAL,
-                date.atStartOfDay(),
-                date.atTime(LocalTime.MAX)))
-                .thenReturn(movements);
-        when(movementAssembler.assemble(movements, List.of(), date, date))
-                .thenReturn(movementReport);
+        streamMovements(date, date, movement);
 
         InformeInventarioDTO report = service.getReport(date, date);
 
-        verify(movementAssembler).assemble(movements, List.of(), date, date);
-        verify(adjustmentAssembler).assemble(movements, List.of(), date, date);
+        verify(movementAssembler).accumulator(date, date);
+        verify(movementAccumulator).addPeriodMovement(movement);
+        verify(adjustmentAccumulator).addPeriodMovement(movement);
+        verify(movementAccumulator, never()).addTrendMovement(any());
+        verify(adjustmentAccumulator, never()).addTrendMovement(any());
         assertEquals(5, report.versionContrato());
         assertEquals(report.periodo(), report.periodoTendencia());
         assertEquals(List.of(), report.movimientos().serieDiaria());
@@ -93,35 +95,38 @@ class InformeInventarioServiceTest {
     void rangeUsesTheExactPeriodForSummariesAndDailySeries() {
         LocalDate startDate = LocalDate.of(2026, 7, 1);
         LocalDate endDate = LocalDate.of(2026, 7, 21);
-        List<Movimiento> movements = List.of(mock(Movimiento.class));
-        when(movementRepo.findMovimientosBiByAlmacenAndRango(
-                Movimiento.Almacen.GENERAL,
-                startDate.atStartOfDay(),
-                endDate.atTime(LocalTime.MAX)))
-                .thenReturn(movements);
-        when(movementAssembler.assemble(
-                movements,
-                movements,
-                startDate,
-                endDate))
-                .thenReturn(InformeInventarioDTO.MovimientosDTO.builder()
-                        .serieDiaria(List.of())
-                        .build());
+        Movimiento movement = mock(Movimiento.class);
+        streamMovements(startDate, endDate, movement);
 
         InformeInventarioDTO report = service.getReport(startDate, endDate);
 
-        verify(movementAssembler).assemble(
-                movements,
-                movements,
-                startDate,
-                endDate);
-        verify(adjustmentAssembler).assemble(
-                movements,
-                movements,
-                startDate,
-                endDate);
+        verify(movementAssembler).accumulator(startDate, endDate);
+        verify(adjustmentAssembler).accumulator(startDate, endDate);
+        verify(movementAccumulator).addPeriodMovement(movement);
+        verify(movementAccumulator).addTrendMovement(movement);
+        verify(adjustmentAccumulator).addPeriodMovement(movement);
+        verify(adjustmentAccumulator).addTrendMovement(movement);
         assertEquals(startDate, report.periodo().fechaDesde());
         assertEquals(endDate, report.periodo().fechaHasta());
         assertEquals(report.periodo(), report.periodoTendencia());
     }
+
+    @SuppressWarnings("unchecked")
+    private void streamMovements(
+            LocalDate startDate,
+            LocalDate endDate,
+            Movimiento... movements
+    ) {
+        doAnswer(invocation -> {
+            Consumer<Movimiento> consumer = invocation.getArgument(3);
+            for (Movimiento movement : movements) {
+                consumer.accept(movement);
+            }
+            return null;
+        }).when(movementCursor).forEach(
+                eq(Movimiento.Almacen.GENERAL),
+                eq(startDate.atStartOfDay()),
+                eq(endDate.atTime(LocalTime.MAX)),
+                any(Consumer.class));
+    }
 }
@@ -64,7 +64,7 @@ class MaterialOpExcelServiceTest {
                 LocalDateTime.of(2026, 7, 18, 10, 5),
                 export.cutoff());
         try (var workbook = WorkbookFactory.create(
-                new ByteArrayInputStream(export.content()))) {
+                new ByteArrayInputStream(export.content().toByteArray()))) {
             assertEquals(2, workbook.getNumberOfSheets());
             var summary = workbook.getSheet("Resumen por OP");
             var detail = workbook.getSheet("Detalle materiales");
@@ -106,7 +106,7 @@ class MaterialOpExcelServiceTest {
         var export = service.exportDispensedMaterial();
 
         try (var workbook = WorkbookFactory.create(
-                new ByteArrayInputStream(export.content()))) {
+                new ByteArrayInputStream(export.content().toByteArray()))) {
             assertEquals(
                     3,
                     workbook.getSheet("Resumen por OP").getLastRowNum());
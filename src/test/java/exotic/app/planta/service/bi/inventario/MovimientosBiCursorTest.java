@@ -0,0 +1,113 @@
+package exotic.app.planta.service.bi.inventario;
+
+import exotic.app.planta.model.bi.dto.MovimientoBiRowDTO;
+import exotic.app.planta.model.inventarios.CausaAjusteInventario;
+import exotic.app.planta.model.inventarios.Movimiento;
+import exotic.app.planta.model.inventarios.TransaccionAlmacen;
+import exotic.app.planta.model.producto.Material;
+import exotic.app.planta.repo.inventarios.TransaccionAlmacenRepo;
+import exotic.app.planta.repo.producto.ProductoRepo;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MovimientosBiCursorTest {
+    private static final LocalDateTime START = LocalDateTime.of(2026, 7, 1, 0, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2026, 7, 31, 23, 59);
+
+    private final TransaccionAlmacenRepo movementRepo = mock(TransaccionAlmacenRepo.class);
+    private final ProductoRepo productRepo = mock(ProductoRepo.class);
+    private final MovimientosBiCursor cursor =
+            new MovimientosBiCursor(movementRepo, productRepo);
+
+    @Test
+    void deliversRowsInOrderAsDetachedMovementsAndClosesTheCursor() {
+        Material material = material("MP-1");
+        AtomicBoolean closed = new AtomicBoolean();
+        when(movementRepo.streamMovimientosBiByAlmacenAndRango(
+                Movimiento.Almacen.GENERAL, START, END))
+                .thenReturn(Stream.of(
+                                row(1, "MP-1", 7, CausaAjusteInventario.PRODUCCION_CONTINGENCIA),
+                                row(2, "MP-1", null, null))
+                        .onClose(() -> closed.set(true)));
+        when(productRepo.findAllById(any())).thenReturn(List.of(material));
+
+        List<Movimiento> received = new ArrayList<>();
+        cursor.forEach(Movimiento.Almacen.GENERAL, START, END, received::add);
+
+        assertEquals(2, received.size());
+        assertEquals(1, received.get(0).getMovimientoId());
+        assertSame(material, received.get(0).getProducto());
+        assertEquals(7, received.get(0).getTransaccionAlmacen().getTransaccionId());
+        assertEquals(
+                TransaccionAlmacen.TipoEntidadCausante.OAA,
+                received.get(0).getTransaccionAlmacen().getTipoEntidadCausante());
+        assertEquals(
+                CausaAjusteInventario.PRODUCCION_CONTINGENCIA,
+                received.get(0).getTransaccionAlmacen().getCausaAjuste());
+        assertNull(received.get(1).getTransaccionAlmacen());
+        assertTrue(received.get(1).isAfectaInventario());
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void resolvesEachProductOnceAcrossChunks() {
+        int rows = MovimientosBiCursor.CHUNK_SIZE + 1;
+        when(movementRepo.streamMovimientosBiByAlmacenAndRango(
+                Movimiento.Almacen.GENERAL, START, END))
+                .thenReturn(IntStream.rangeClosed(1, rows)
+                        .mapToObj(id -> row(id, id == rows ? "MP-2" : "MP-1", null, null)));
+        when(productRepo.findAllById(Set.of("MP-1"))).thenReturn(List.of(material("MP-1")));
+        when(productRepo.findAllById(Set.of("MP-2"))).thenReturn(List.of(material("MP-2")));
+
+        List<Movimiento> received = new ArrayList<>();
+        cursor.forEach(Movimiento.Almacen.GENERAL, START, END, received::add);
+
+        assertEquals(rows, received.size());
+        assertEquals("MP-2", received.get(rows - 1).getProducto().getProductoId());
+        verify(productRepo, times(1)).findAllById(Set.of("MP-1"));
+        verify(productRepo, times(1)).findAllById(Set.of("MP-2"));
+    }
+
+    private static MovimientoBiRowDTO row(
+            int id,
+            String productId,
+            Integer transactionId,
+            CausaAjusteInventario cause
+    ) {
+        return new MovimientoBiRowDTO(
+                id,
+                START.plusHours(id),
+                -1.0,
+                Movimiento.TipoMovimiento.AJUSTE_NEGATIVO,
+                Movimiento.Almacen.GENERAL,
+                true,
+                productId,
+                transactionId,
+                transactionId == null ? null : TransaccionAlmacen.TipoEntidadCausante.OAA,
+                cause);
+    }
+
+    private static Material material(String id) {
+        Material material = new Material();
+        material.setProductoId(id);
+        material.setTipoMaterial(1);
+        return material;
+    }
+}
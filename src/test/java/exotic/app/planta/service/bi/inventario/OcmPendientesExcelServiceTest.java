@@ -46,7 +46,7 @@ class OcmPendientesExcelServiceTest {
                 LocalDateTime.of(2026, 7, 18, 10, 5),
                 export.cutoff());
         try (var workbook = WorkbookFactory.create(
-                new ByteArrayInputStream(export.content()))) {
+                new ByteArrayInputStream(export.content().toByteArray()))) {
             assertEquals(1, workbook.getNumberOfSheets());
             var sheet = workbook.getSheet("OCM pendientes");
             assertEquals(
@@ -96,7 +96,7 @@ class OcmPendientesExcelServiceTest {
         var export = service.exportExcel();
 
         try (var workbook = WorkbookFactory.create(
-                new ByteArrayInputStream(export.content()))) {
+                new ByteArrayInputStream(export.content().toByteArray()))) {
             var sheet = workbook.getSheet("OCM pendientes");
             assertEquals(3, sheet.getLastRowNum());
             assertEquals(
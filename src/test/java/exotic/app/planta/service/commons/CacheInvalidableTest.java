@@ -0,0 +1,44 @@
+package exotic.app.planta.service.commons;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CacheInvalidableTest {
+
+    @Test
+    void valueIsLoadedOnceUntilInvalidated() {
+        AtomicInteger cargas = new AtomicInteger();
+        CacheInvalidable<Integer> cache = new CacheInvalidable<>(cargas::incrementAndGet);
+
+        assertEquals(1, cache.obtener());
+        assertEquals(1, cache.obtener());
+
+        cache.invalidar();
+
+        assertEquals(2, cache.obtener());
+        assertEquals(2, cargas.get());
+    }
+
+    @Test
+    void changeCommittedDuringTheLoadIsNotLost() {
+        AtomicInteger cargas = new AtomicInteger();
+        AtomicReference<CacheInvalidable<Integer>> ref = new AtomicReference<>();
+        CacheInvalidable<Integer> cache = new CacheInvalidable<>(() -> {
+            int carga = cargas.incrementAndGet();
+            if (carga == 1) {
+                // El evento de cambio llega mientras se lee el valor anterior.
+                ref.get().invalidar();
+            }
+            return carga;
+        });
+        ref.set(cache);
+
+        assertEquals(1, cache.obtener());
+        assertEquals(2, cache.obtener());
+        assertEquals(2, cache.obtener());
+    }
+}
@@ -0,0 +1,109 @@
+package exotic.app.planta.service.commons.notificaciones;
+
+import exotic.app.planta.model.commons.notificaciones.ModuleNotificationDTA;
+import exotic.app.planta.model.commons.notificaciones.NotificacionCambioEvent;
+import exotic.app.planta.model.inventarios.Movimiento;
+import exotic.app.planta.model.users.ModuloAcceso;
+import exotic.app.planta.model.users.ModuloSistema;
+import exotic.app.planta.model.users.User;
+import exotic.app.planta.repo.usuarios.UserRepository;
+import exotic.app.planta.security.AuthenticatedUserResolver;
+import exotic.app.planta.service.commons.sse.SseDifusor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotificacionesHubTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2026-07-21T15:00:00Z"), ZoneId.of("America/Bogota"));
+
+    private final NotificacionesModulosService modulosService = mock(NotificacionesModulosService.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final NotificacionesHub hub = new NotificacionesHub(
+            modulosService, new AuthenticatedUserResolver(userRepository, CLOCK), CLOCK, new SseDifusor(Runnable::run));
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setUsername("operario");
+        user.setModuloAccesos(new HashSet<>(List.of(acceso(ModuloSistema.STOCK), acceso(ModuloSistema.USUARIOS))));
+        when(userRepository.findByUsername("operario")).thenReturn(Optional.of(user));
+        when(modulosService.checkNotificacion(any(), eq(ModuloSistema.STOCK))).thenReturn(notificacion(ModuloSistema.STOCK, 3));
+        when(modulosService.checkNotificacion(any(), eq(ModuloSistema.USUARIOS))).thenReturn(notificacion(ModuloSistema.USUARIOS, 0));
+    }
+
+    @Test
+    void snapshotsReuseTheSharedStateOfQueryBackedModules() {
+        assertEquals(2, hub.snapshot("operario").size());
+        assertEquals(2, hub.snapshot("operario").size());
+
+        verify(modulosService, times(1)).checkNotificacion(null, ModuloSistema.STOCK);
+        verify(modulosService, times(2)).checkNotificacion(any(User.class), eq(ModuloSistema.USUARIOS));
+    }
+
+    @Test
+    void eventsForTheSameModuleAreCoalescedIntoOneRecalculation() {
+        hub.publicarCambios();
+        hub.snapshot("operario");
+        verify(modulosService, times(1)).checkNotificacion(null, ModuloSistema.STOCK);
+
+        NotificacionCambioEvent event = new NotificacionCambioEvent(Movimiento.class);
+        for (int i = 0; i < 50; i++) {
+            hub.onCambio(event);
+        }
+        hub.publicarCambios();
+        hub.publicarCambios();
+
+        verify(modulosService, times(2)).checkNotificacion(null, ModuloSistema.STOCK);
+    }
+
+    @Test
+    void changesToEntitiesWithoutNotificationsAreIgnored() {
+        hub.publicarCambios();
+        hub.snapshot("operario");
+        verify(modulosService, times(1)).checkNotificacion(null, ModuloSistema.STOCK);
+
+        hub.onCambio(new NotificacionCambioEvent(User.class));
+        hub.publicarCambios();
+
+        verify(modulosService, times(1)).checkNotificacion(null, ModuloSistema.STOCK);
+        verify(modulosService, never()).checkNotificacion(null, ModuloSistema.USUARIOS);
+    }
+
+    @Test
+    void subscribersAreRegisteredAfterReceivingTheSnapshot() {
+        hub.suscribir("operario");
+
+        assertEquals(1, hub.suscriptores());
+        verify(modulosService, times(1)).checkNotificacion(null, ModuloSistema.STOCK);
+    }
+
+    private static ModuloAcceso acceso(ModuloSistema modulo) {
+        ModuloAcceso acceso = new ModuloAcceso();
+        acceso.setModulo(modulo);
+        return acceso;
+    }
+
+    private static ModuleNotificationDTA notificacion(ModuloSistema modulo, long count) {
+        ModuleNotificationDTA notification = new ModuleNotificationDTA();
+        notification.setModulo(modulo);
+        notification.setRequireAtention(count > 0);
+        notification.setMaterialesEnPuntoReorden(count);
+        return notification;
+    }
+}
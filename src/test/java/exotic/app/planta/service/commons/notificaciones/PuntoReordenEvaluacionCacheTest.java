@@ -0,0 +1,62 @@
+package exotic.app.planta.service.commons.notificaciones;
+
+import exotic.app.planta.model.commons.notificaciones.NotificacionCambioEvent;
+import exotic.app.planta.model.commons.notificaciones.PuntoReordenEvaluacionResult;
+import exotic.app.planta.model.inventarios.Movimiento;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PuntoReordenEvaluacionCacheTest {
+
+    private static final Instant INICIO = Instant.parse("2026-07-21T15:00:00Z");
+
+    private final PuntoReordenEvaluacionService evaluacionService = mock(PuntoReordenEvaluacionService.class);
+    private final Clock clock = mock(Clock.class);
+    private final PuntoReordenEvaluacionCache cache = new PuntoReordenEvaluacionCache(evaluacionService, clock);
+
+    @Test
+    void readersShareOneEvaluationUntilSomethingChanges() {
+        when(clock.instant()).thenReturn(INICIO);
+        PuntoReordenEvaluacionResult primera = resultado(1);
+        PuntoReordenEvaluacionResult segunda = resultado(2);
+        when(evaluacionService.evaluar()).thenReturn(primera, segunda);
+
+        assertSame(primera, cache.obtener());
+        assertSame(primera, cache.obtener());
+        verify(evaluacionService, times(1)).evaluar();
+
+        cache.onCambio(new NotificacionCambioEvent(Movimiento.class));
+
+        assertSame(segunda, cache.obtener());
+        assertSame(segunda, cache.obtener());
+        verify(evaluacionService, times(2)).evaluar();
+    }
+
+    @Test
+    void evaluationIsRefreshedAfterTheTtlWithoutEvents() {
+        when(clock.instant()).thenReturn(INICIO);
+        when(evaluacionService.evaluar()).thenReturn(resultado(1), resultado(3));
+        cache.obtener();
+
+        when(clock.instant()).thenReturn(INICIO.plus(PuntoReordenEvaluacionCache.TTL).minusSeconds(1));
+        cache.obtener();
+        verify(evaluacionService, times(1)).evaluar();
+
+        when(clock.instant()).thenReturn(INICIO.plus(PuntoReordenEvaluacionCache.TTL));
+        cache.obtener();
+        verify(evaluacionService, times(2)).evaluar();
+    }
+
+    private static PuntoReordenEvaluacionResult resultado(long enAlerta) {
+        return new PuntoReordenEvaluacionResult(List.of(), List.of(), List.of(), enAlerta, 0, 0, enAlerta);
+    }
+}
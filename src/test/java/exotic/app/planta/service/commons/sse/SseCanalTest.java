@@ -0,0 +1,67 @@
+package exotic.app.planta.service.commons.sse;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SseCanalTest {
+
+    @Test
+    void difundirOnlyQueuesSendsAndRunsOneDrainPerSubscription() {
+        Queue<Runnable> envios = new ArrayDeque<>();
+        SseCanal<Integer> canal = new SseDifusor((Executor) envios::add).canal("PRUEBA");
+        canal.suscribir(3, "inicial", "a");
+        canal.suscribir(4, "inicial", "b");
+
+        assertEquals(1, canal.difundir("cambio", areaId -> areaId == 3, areaId -> "c"));
+        assertEquals(2, canal.difundir("cambio", "d"));
+
+        // Un drenado por suscripcion, aunque tengan varios eventos en cola.
+        assertEquals(2, envios.size());
+        envios.forEach(Runnable::run);
+        assertEquals(2, canal.suscriptores());
+    }
+
+    @Test
+    void subscriberThatStopsReadingIsClosedInsteadOfBufferingForever() {
+        Queue<Runnable> envios = new ArrayDeque<>();
+        SseCanal<Integer> canal = new SseDifusor((Executor) envios::add).canal("PRUEBA");
+        canal.suscribir(3, "inicial", "a");
+
+        for (int i = 1; i < SseCanal.PENDIENTES_POR_SUSCRIPCION; i++) {
+            canal.difundir("cambio", i);
+        }
+        assertEquals(1, canal.suscriptores());
+
+        assertEquals(0, canal.difundir("cambio", "desbordado"));
+        assertEquals(0, canal.suscriptores());
+    }
+
+    @Test
+    void saturatedExecutorClosesTheSubscription() {
+        SseCanal<Set<String>> canal = new SseDifusor(envio -> {
+            throw new RejectedExecutionException("lleno");
+        }).canal("PRUEBA");
+
+        canal.suscribir(Set.of("STOCK"), "inicial", "a");
+
+        assertEquals(0, canal.suscriptores());
+    }
+
+    @Test
+    void directExecutorDeliversEverythingAndKeepsTheSubscription() {
+        SseCanal<Integer> canal = new SseDifusor(Runnable::run).canal("PRUEBA");
+        canal.suscribir(3, "inicial", "a");
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(1, canal.difundir("cambio", i));
+        }
+        assertEquals(1, canal.suscriptores());
+    }
+}
@@ -0,0 +1,147 @@
+package exotic.app.planta.service.contabilidad;
+
+import exotic.app.planta.model.contabilidad.CuentaContable;
+import exotic.app.planta.model.contabilidad.PeriodoContable;
+import exotic.app.planta.repo.contabilidad.CuentaContableRepo;
+import exotic.app.planta.repo.contabilidad.LineaAsientoContableRepo;
+import exotic.app.planta.repo.contabilidad.PeriodoContableRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReporteContableServiceTest {
+
+    private static final LocalDateTime INICIO_PERIODO = LocalDate.of(2026, 7, 1).atStartOfDay();
+
+    private LineaAsientoContableRepo lineaRepo;
+    private CuentaContableRepo cuentaRepo;
+    private PeriodoContableRepo periodoRepo;
+    private ReporteContableService service;
+
+    @BeforeEach
+    void setUp() {
+        lineaRepo = mock(LineaAsientoContableRepo.class);
+        cuentaRepo = mock(CuentaContableRepo.class);
+        periodoRepo = mock(PeriodoContableRepo.class);
+        service = new ReporteContableService(lineaRepo, cuentaRepo, periodoRepo);
+
+        PeriodoContable periodo = new PeriodoContable();
+        periodo.setId(7L);
+        periodo.setFechaInicio(INICIO_PERIODO.toLocalDate());
+        periodo.setFechaFin(LocalDate.of(2026, 7, 31));
+        when(periodoRepo.findById(7L)).thenReturn(Optional.of(periodo));
+        when(periodoRepo.existsById(7L)).thenReturn(true);
+    }
+
+    @Test
+    void firstPageStartsFromTheOpeningBalanceAndReturnsACursorWhenMoreRowsExist() {
+        when(cuentaRepo.findById("1000")).thenReturn(Optional.of(cuenta("1000", CuentaContable.SaldoNormal.DEBITO)));
+        when(lineaRepo.sumNetoDebitoAntesDe("1000", INICIO_PERIODO)).thenReturn(new BigDecimal("100"));
+        when(lineaRepo.findLibroMayorPagina(eq("1000"), eq(7L), any(), eq(0L), eq(0L), eq(3)))
+                .thenReturn(List.of(
+                        fila(1L, 10L, "10", "0", "10"),
+                        fila(2L, 11L, "0", "5", "5"),
+                        fila(3L, 12L, "1", "0", "6")));
+
+        ReporteContableService.PaginaLibroMayor pagina = service.generarLibroMayor("1000", 7L, null, 2);
+
+        assertEquals(new BigDecimal("100"), pagina.saldoInicial());
+        assertEquals(2, pagina.movimientos().size());
+        assertEquals(new BigDecimal("110"), pagina.movimientos().get(0).getSaldoAcumulado());
+        assertEquals(new BigDecimal("105"), pagina.movimientos().get(1).getSaldoAcumulado());
+        assertEquals(11L, pagina.siguiente().asientoId());
+        assertEquals(2L, pagina.siguiente().lineaId());
+        verify(lineaRepo, never()).sumNetoDebitoPeriodoHastaCursor(anyString(), anyLong(), any(), anyLong(), anyLong());
+    }
+
+    @Test
+    void laterPagesAddTheBalanceUpToTheCursorAndFollowTheAccountNature() {
+        LocalDateTime fechaCursor = INICIO_PERIODO.plusDays(3);
+        when(cuentaRepo.findById("2000")).thenReturn(Optional.of(cuenta("2000", CuentaContable.SaldoNormal.CREDITO)));
+        when(lineaRepo.sumNetoDebitoAntesDe("2000", INICIO_PERIODO)).thenReturn(new BigDecimal("-50"));
+        when(lineaRepo.sumNetoDebitoPeriodoHastaCursor("2000", 7L, fechaCursor, 11L, 2L))
+                .thenReturn(new BigDecimal("-20"));
+        when(lineaRepo.findLibroMayorPagina("2000", 7L, fechaCursor, 11L, 2L, 201))
+                .thenReturn(List.of(fila(3L, 12L, "0", "5", "-5")));
+
+        ReporteContableService.PaginaLibroMayor pagina = service.generarLibroMayor(
+                "2000", 7L, new ReporteContableService.CursorLibroMayor(fechaCursor, 11L, 2L), 200);
+
+        assertEquals(new BigDecimal("50"), pagina.saldoInicial());
+        assertEquals(new BigDecimal("75"), pagina.movimientos().get(0).getSaldoAcumulado());
+        assertNull(pagina.siguiente());
+    }
+
+    @Test
+    void trialBalanceComesFromOneGroupedQueryAndSkipsAccountsWithoutMovement() {
+        when(lineaRepo.sumSaldosPorCuentaEnPeriodo(7L)).thenReturn(List.of(
+                saldo("1000", "300", "100"),
+                saldo("1310", "0", "0"),
+                saldo("2000", "0", "250")));
+        when(cuentaRepo.findAllById(List.of("1000", "2000"))).thenReturn(List.of(
+                cuenta("1000", CuentaContable.SaldoNormal.DEBITO),
+                cuenta("2000", CuentaContable.SaldoNormal.CREDITO)));
+
+        List<ReporteContableService.SaldoCuenta> saldos = service.generarBalanceComprobacion(7L);
+
+        assertEquals(2, saldos.size());
+        assertEquals(new BigDecimal("200"), saldos.get(0).getSaldoNeto());
+        assertEquals("2000", saldos.get(1).getCuenta().getCodigo());
+        assertEquals(new BigDecimal("250"), saldos.get(1).getSaldoNeto());
+    }
+
+    private static CuentaContable cuenta(String codigo, CuentaContable.SaldoNormal saldoNormal) {
+        CuentaContable cuenta = new CuentaContable();
+        cuenta.setCodigo(codigo);
+        cuenta.setNombre("Cuenta " + codigo);
+        cuenta.setSaldoNormal(saldoNormal);
+        return cuenta;
+    }
+
+    private static LineaAsientoContableRepo.LineaLibroMayorRow fila(
+            Long lineaId, Long asientoId, String debito, String credito, String netoAcumulado) {
+        return new FilaLibro(
+                lineaId,
+                asientoId,
+                INICIO_PERIODO.plusDays(asientoId - 9),
+                "Linea " + lineaId,
+                new BigDecimal(debito),
+                new BigDecimal(credito),
+                new BigDecimal(netoAcumulado));
+    }
+
+    private static LineaAsientoContableRepo.SaldoCuentaRow saldo(String codigo, String debito, String credito) {
+        return new SaldoFila(codigo, new BigDecimal(debito), new BigDecimal(credito));
+    }
+
+    private record FilaLibro(
+            Long getLineaId,
+            Long getAsientoId,
+            LocalDateTime getFecha,
+            String getDescripcion,
+            BigDecimal getDebito,
+            BigDecimal getCredito,
+            BigDecimal getNetoDebitoAcumulado
+    ) implements LineaAsientoContableRepo.LineaLibroMayorRow {
+    }
+
+    private record SaldoFila(String getCuentaCodigo, BigDecimal getDebito, BigDecimal getCredito)
+            implements LineaAsientoContableRepo.SaldoCuentaRow {
+    }
+}
@@ -0,0 +1,77 @@
+package exotic.app.planta.service.empresa;
+
+import exotic.app.planta.model.empresa.DiaFestivoCambioEvent;
+import exotic.app.planta.model.empresa.JornadaLaboralBloque;
+import exotic.app.planta.model.empresa.JornadaLaboralVersion;
+import exotic.app.planta.repo.empresa.DiaFestivoRepo;
+import exotic.app.planta.repo.empresa.JornadaLaboralVersionRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CalendarioLaboralRegistryTest {
+
+    private static final LocalDate VIERNES = LocalDate.of(2026, 7, 3);
+    private static final LocalDate LUNES_SIGUIENTE = VIERNES.plusDays(3);
+
+    private JornadaLaboralVersionRepo jornadaRepo;
+    private DiaFestivoRepo diaFestivoRepo;
+    private CalendarioLaboralRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        jornadaRepo = mock(JornadaLaboralVersionRepo.class);
+        diaFestivoRepo = mock(DiaFestivoRepo.class);
+        registry = new CalendarioLaboralRegistry(jornadaRepo, diaFestivoRepo);
+        when(jornadaRepo.findFirstByEstadoOrderByVersionDesc(JornadaLaboralVersion.Estado.VIGENTE))
+                .thenReturn(Optional.of(jornadaLunesViernes()));
+    }
+
+    @Test
+    void vigente_descuentaLosFestivosDelCatalogo() {
+        when(diaFestivoRepo.findAllFechas()).thenReturn(List.of(LUNES_SIGUIENTE));
+
+        assertEquals(LUNES_SIGUIENTE.plusDays(1).atTime(8, 30),
+                registry.vigente().sumarMinutos(VIERNES.atTime(16, 30), 60, true));
+    }
+
+    @Test
+    void cambioDeFestivos_recompilaLosCalendarios() {
+        when(diaFestivoRepo.findAllFechas()).thenReturn(List.of());
+        assertEquals(LUNES_SIGUIENTE.atTime(8, 30),
+                registry.deVersion(7L).sumarMinutos(VIERNES.atTime(16, 30), 60, true));
+
+        when(diaFestivoRepo.findAllFechas()).thenReturn(List.of(LUNES_SIGUIENTE));
+        registry.onCambioFestivos(new DiaFestivoCambioEvent(1L));
+
+        assertEquals(LUNES_SIGUIENTE.plusDays(1).atTime(8, 30),
+                registry.deVersion(7L).sumarMinutos(VIERNES.atTime(16, 30), 60, true));
+    }
+
+    private static JornadaLaboralVersion jornadaLunesViernes() {
+        JornadaLaboralVersion jornada = new JornadaLaboralVersion();
+        jornada.setId(7L);
+        jornada.setVersion(1);
+        jornada.setEstado(JornadaLaboralVersion.Estado.VIGENTE);
+        List<JornadaLaboralBloque> bloques = new ArrayList<>();
+        for (int dia = 1; dia <= 5; dia++) {
+            JornadaLaboralBloque bloque = new JornadaLaboralBloque();
+            bloque.setDiaSemana(dia);
+            bloque.setOrden(0);
+            bloque.setHoraInicio(LocalTime.of(8, 0));
+            bloque.setHoraFin(LocalTime.of(17, 0));
+            bloques.add(bloque);
+        }
+        jornada.setBloques(bloques);
+        return jornada;
+    }
+}
@@ -0,0 +1,143 @@
+package exotic.app.planta.service.empresa;
+
+import exotic.app.planta.model.empresa.JornadaLaboralBloque;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class CalendarioLaboralTest {
+
+    private static final LocalDate LUNES = LocalDate.of(2026, 6, 29);
+    private static final LocalDate VIERNES = LUNES.plusDays(4);
+    private static final LocalDate LUNES_SIGUIENTE = LUNES.plusDays(7);
+
+    private final CalendarioLaboral calendario = CalendarioLaboral.compilar(1L, bloquesLunesViernes(), List.of());
+
+    @Test
+    void sumarMinutos_saltaAlmuerzoNocheYFinDeSemana() {
+        assertEquals(LUNES.atTime(13, 30), calendario.sumarMinutos(LUNES.atTime(11, 30), 60, true));
+        assertEquals(LUNES_SIGUIENTE.atTime(7, 30), calendario.sumarMinutos(VIERNES.atTime(16, 30), 60, true));
+        assertEquals(LUNES_SIGUIENTE.atTime(7, 30), calendario.sumarMinutos(VIERNES.plusDays(1).atTime(10, 0), 30, true));
+        // Una semana laboral completa son 45 horas.
+        assertEquals(LUNES_SIGUIENTE.atTime(9, 0), calendario.sumarMinutos(LUNES.atTime(9, 0), 45 * 60, true));
+    }
+
+    @Test
+    void sumarMinutos_terminaAlCierreDelBloqueSinSaltarAlSiguiente() {
+        assertEquals(LUNES.atTime(12, 0), calendario.sumarMinutos(LUNES.atTime(11, 0), 60, true));
+        assertEquals(VIERNES.atTime(17, 0), calendario.sumarMinutos(VIERNES.atTime(7, 0), 9 * 60, true));
+    }
+
+    @Test
+    void sumarMinutos_sinJornadaOSinRequerirlaEsContinuo() {
+        LocalDateTime inicio = VIERNES.atTime(16, 30);
+
+        assertEquals(inicio.plusMinutes(60), calendario.sumarMinutos(inicio, 60, false));
+        assertEquals(inicio.plusMinutes(60), CalendarioLaboral.CONTINUO.sumarMinutos(inicio, 60, true));
+        assertEquals(inicio.plusMinutes(60), CalendarioLaboral.compilar(2L, List.of(), List.of())
+                .sumarMinutos(inicio, 60, true));
+        assertSame(inicio, calendario.sumarMinutos(inicio, 0, true));
+    }
+
+    @Test
+    void festivos_noConsumenTiempoLaborable() {
+        CalendarioLaboral conFestivo = CalendarioLaboral.compilar(1L, bloquesLunesViernes(), List.of(LUNES_SIGUIENTE));
+        LocalDate martes = LUNES_SIGUIENTE.plusDays(1);
+
+        assertEquals(martes.atTime(7, 30), conFestivo.sumarMinutos(VIERNES.atTime(16, 30), 60, true));
+        assertEquals(martes.atTime(7, 30), conFestivo.sumarMinutos(LUNES_SIGUIENTE.atTime(10, 0), 30, true));
+        assertEquals(120, conFestivo.minutosLaborablesEntre(VIERNES.atTime(16, 0), martes.atTime(8, 0)));
+        assertEquals(martes.atTime(7, 0), conFestivo.siguienteInstanteLaborable(LUNES_SIGUIENTE.atTime(9, 0)));
+    }
+
+    @Test
+    void minutosLaborablesEntre_cuentaSoloLosBloques() {
+        assertEquals(9 * 60, calendario.minutosLaborablesEntre(LUNES.atStartOfDay(), LUNES.plusDays(1).atStartOfDay()));
+        assertEquals(60, calendario.minutosLaborablesEntre(VIERNES.atTime(16, 30), LUNES_SIGUIENTE.atTime(7, 30)));
+        assertEquals(0, calendario.minutosLaborablesEntre(LUNES.atTime(12, 10), LUNES.atTime(12, 50)));
+        assertEquals(0, calendario.minutosLaborablesEntre(LUNES.atTime(10, 0), LUNES.atTime(9, 0)));
+    }
+
+    @Test
+    void siguienteInstanteLaborable_respetaElInstanteSiYaEsLaborable() {
+        assertEquals(LUNES.atTime(9, 15), calendario.siguienteInstanteLaborable(LUNES.atTime(9, 15)));
+        assertEquals(LUNES.atTime(13, 0), calendario.siguienteInstanteLaborable(LUNES.atTime(12, 0)));
+        assertEquals(LUNES_SIGUIENTE.atTime(7, 0), calendario.siguienteInstanteLaborable(VIERNES.atTime(17, 0)));
+    }
+
+    @Test
+    void restarDiasLaborables_saltaFinesDeSemanaYFestivos() {
+        CalendarioLaboral conFestivo = CalendarioLaboral.compilar(1L, bloquesLunesViernes(), List.of(VIERNES));
+
+        assertEquals(VIERNES, calendario.restarDiasLaborables(LUNES_SIGUIENTE, 1));
+        assertEquals(LUNES, calendario.restarDiasLaborables(LUNES.plusDays(2), 2));
+        assertEquals(VIERNES, calendario.restarDiasLaborables(VIERNES.plusDays(2), 1));
+        assertEquals(LUNES.plusDays(3), conFestivo.restarDiasLaborables(LUNES_SIGUIENTE, 1));
+        assertEquals(LUNES_SIGUIENTE.minusDays(3), CalendarioLaboral.CONTINUO.restarDiasLaborables(LUNES_SIGUIENTE, 3));
+        assertEquals(LUNES, calendario.restarDiasLaborables(LUNES, 0));
+    }
+
+    @Test
+    void sumarMinutos_coincideConRecorrerMinutoAMinuto() {
+        Set<LocalDate> festivos = Set.of(LUNES.plusDays(2), LUNES_SIGUIENTE, LUNES_SIGUIENTE.plusDays(1));
+        CalendarioLaboral conFestivos = CalendarioLaboral.compilar(1L, bloquesLunesViernes(), festivos);
+        SplittableRandom random = new SplittableRandom(25L);
+
+        for (int i = 0; i < 300; i++) {
+            LocalDateTime inicio = LUNES.atStartOfDay().plusMinutes(random.nextInt(14 * 24 * 60));
+            int minutos = random.nextInt(1, 3000);
+            LocalDateTime fin = recorrer(inicio, minutos, festivos);
+
+            assertEquals(fin, conFestivos.sumarMinutos(inicio, minutos, true), "inicio " + inicio + " +" + minutos);
+            assertEquals(minutos, conFestivos.minutosLaborablesEntre(inicio, fin));
+        }
+    }
+
+    private static LocalDateTime recorrer(LocalDateTime inicio, int minutos, Set<LocalDate> festivos) {
+        LocalDateTime actual = inicio;
+        int restantes = minutos;
+        while (restantes > 0) {
+            if (laborable(actual, festivos)) {
+                restantes--;
+            }
+            actual = actual.plusMinutes(1);
+        }
+        return actual;
+    }
+
+    private static boolean laborable(LocalDateTime minuto, Set<LocalDate> festivos) {
+        if (festivos.contains(minuto.toLocalDate()) || minuto.getDayOfWeek().getValue() > 5) {
+            return false;
+        }
+        LocalTime hora = minuto.toLocalTime();
+        return (!hora.isBefore(LocalTime.of(7, 0)) && hora.isBefore(LocalTime.of(12, 0)))
+                || (!hora.isBefore(LocalTime.of(13, 0)) && hora.isBefore(LocalTime.of(17, 0)));
+    }
+
+    private static List<JornadaLaboralBloque> bloquesLunesViernes() {
+        List<JornadaLaboralBloque> bloques = new ArrayList<>();
+        for (int dia = 1; dia <= 5; dia++) {
+            bloques.add(bloque(dia, 1, LocalTime.of(13, 0), LocalTime.of(17, 0)));
+            bloques.add(bloque(dia, 0, LocalTime.of(7, 0), LocalTime.of(12, 0)));
+        }
+        return bloques;
+    }
+
+    private static JornadaLaboralBloque bloque(int dia, int orden, LocalTime inicio, LocalTime fin) {
+        JornadaLaboralBloque bloque = new JornadaLaboralBloque();
+        bloque.setDiaSemana(dia);
+        bloque.setOrden(orden);
+        bloque.setHoraInicio(inicio);
+        bloque.setHoraFin(fin);
+        return bloque;
+    }
+}
@@ -0,0 +1,68 @@
+package exotic.app.planta.service.empresa;
+
+import exotic.app.planta.model.empresa.DiaFestivo;
+import exotic.app.planta.model.empresa.dto.DiaFestivoRequest;
+import exotic.app.planta.model.empresa.dto.DiaFestivoResponse;
+import exotic.app.planta.repo.empresa.DiaFestivoRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DiaFestivoServiceTest {
+
+    private static final LocalDate FECHA = LocalDate.of(2026, 12, 8);
+
+    private DiaFestivoRepo repo;
+    private DiaFestivoService service;
+
+    @BeforeEach
+    void setUp() {
+        repo = mock(DiaFestivoRepo.class);
+        service = new DiaFestivoService(repo);
+    }
+
+    @Test
+    void crear_guardaElFestivo() {
+        when(repo.save(any(DiaFestivo.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        DiaFestivoResponse creado = service.crear(request(FECHA, "  Inmaculada Concepcion "), " admin ");
+
+        assertEquals(FECHA, creado.getFecha());
+        assertEquals("Inmaculada Concepcion", creado.getDescripcion());
+        assertEquals("admin", creado.getCreadoPor());
+        assertNotNull(creado.getCreadoEn());
+    }
+
+    @Test
+    void crear_rechazaFechaRepetida() {
+        when(repo.existsByFecha(FECHA)).thenReturn(true);
+
+        assertThrows(IllegalArgumentException.class, () -> service.crear(request(FECHA, null), "admin"));
+        verify(repo, never()).save(any(DiaFestivo.class));
+    }
+
+    @Test
+    void eliminar_rechazaFestivoInexistente() {
+        when(repo.findById(9L)).thenReturn(Optional.empty());
+
+        assertThrows(IllegalArgumentException.class, () -> service.eliminar(9L));
+    }
+
+    private static DiaFestivoRequest request(LocalDate fecha, String descripcion) {
+        DiaFestivoRequest request = new DiaFestivoRequest();
+        request.setFecha(fecha);
+        request.setDescripcion(descripcion);
+        return request;
+    }
+}
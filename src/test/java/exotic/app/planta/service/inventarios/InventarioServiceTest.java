@@ -155,7 +155,7 @@ class InventarioServiceTest {
                 List.of()
         );
 
-        byte[] result = service.generateInventoryExcel(request);
+        byte[] result = service.generateInventoryExcel(request).toByteArray();
 
         try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(result))) {
             var sheet = workbook.getSheet("Inventario");
@@ -0,0 +1,91 @@
+package exotic.app.planta.service.inventarios;
+
+import exotic.app.planta.model.inventarios.Movimiento;
+import exotic.app.planta.model.inventarios.dto.LoteStockRowDTO;
+import exotic.app.planta.repo.inventarios.TransaccionAlmacenRepo;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class LoteFefoServiceTest {
+
+    private final TransaccionAlmacenRepo transaccionAlmacenRepo = mock(TransaccionAlmacenRepo.class);
+    private final LoteFefoService service = new LoteFefoService(transaccionAlmacenRepo);
+
+    @Test
+    void asignarTakesFromEarliestExpiringLotsUntilCovered() {
+        List<LoteStockRowDTO> lotes = List.of(
+                lote("MP-1", 1L, LocalDate.of(2026, 11, 1), 4),
+                lote("MP-1", 2L, LocalDate.of(2027, 1, 1), 10),
+                lote("MP-1", 3L, null, 10));
+
+        LoteFefoService.Asignacion asignacion = LoteFefoService.asignar(lotes, 9);
+
+        assertEquals(2, asignacion.lotes().size());
+        assertEquals(1L, asignacion.lotes().get(0).getLoteId());
+        assertEquals(4, asignacion.lotes().get(0).getCantidadRecomendada());
+        assertEquals(2L, asignacion.lotes().get(1).getLoteId());
+        assertEquals(5, asignacion.lotes().get(1).getCantidadRecomendada());
+        assertEquals(10, asignacion.lotes().get(1).getCantidadDisponible());
+        assertEquals(0, asignacion.faltante());
+    }
+
+    @Test
+    void asignarReportsShortfallWhenStockIsInsufficient() {
+        LoteFefoService.Asignacion asignacion = LoteFefoService.asignar(
+                List.of(lote("MP-1", 1L, LocalDate.of(2026, 11, 1), 4)), 6.5);
+
+        assertEquals(1, asignacion.lotes().size());
+        assertEquals(2.5, asignacion.faltante());
+    }
+
+    @Test
+    void lotesDisponiblesGroupsSeveralProductsFromOneQuery() {
+        when(transaccionAlmacenRepo.findLotesFefoByProductoIds(List.of("MP-1", "MP-2"), 0))
+                .thenReturn(List.of(
+                        lote("MP-1", 1L, LocalDate.of(2026, 11, 1), 4),
+                        lote("MP-1", 2L, LocalDate.of(2027, 1, 1), 10),
+                        lote("MP-2", 3L, LocalDate.of(2026, 12, 1), 1)));
+
+        Map<String, List<LoteStockRowDTO>> lotes = service.lotesDisponibles(List.of("MP-1", "MP-2"), 0);
+
+        assertEquals(List.of(1L, 2L), lotes.get("MP-1").stream().map(LoteStockRowDTO::getLoteId).toList());
+        assertEquals(List.of(3L), lotes.get("MP-2").stream().map(LoteStockRowDTO::getLoteId).toList());
+        verify(transaccionAlmacenRepo).findLotesFefoByProductoIds(List.of("MP-1", "MP-2"), 0);
+    }
+
+    @Test
+    void lotesDisponiblesSkipsTheQueryWithoutProducts() {
+        assertTrue(service.lotesDisponibles(List.of(), 0).isEmpty());
+        verifyNoInteractions(transaccionAlmacenRepo);
+    }
+
+    @Test
+    void lotesDisponiblesUsesTheWarehouseQueryOnlyWhenAWarehouseIsGiven() {
+        PageRequest pageable = PageRequest.of(1, 20);
+
+        service.lotesDisponibles("MP-1", Movimiento.Almacen.GENERAL, 0.01, pageable);
+
+        verify(transaccionAlmacenRepo)
+                .findLotesFefoByProductoIdAndAlmacen("MP-1", Movimiento.Almacen.GENERAL, 0.01, pageable);
+        verify(transaccionAlmacenRepo, never()).findLotesFefoByProductoId(anyString(), anyDouble(), any());
+    }
+
+    private static LoteStockRowDTO lote(String productoId, Long loteId, LocalDate expiration, double cantidad) {
+        return new LoteStockRowDTO(productoId, loteId, "B-" + loteId, null, expiration, cantidad);
+    }
+}
@@ -0,0 +1,139 @@
+package exotic.app.planta.service.inventarios;
+
+import exotic.app.planta.model.inventarios.Movimiento;
+import exotic.app.planta.model.inventarios.ReservaLote;
+import exotic.app.planta.repo.inventarios.ReservaLoteRepo;
+import exotic.app.planta.repo.inventarios.SaldoInventarioRepo;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReservaLoteServiceTest {
+
+    private static final Clock CLOCK = Clock.fixed(
+            Instant.parse("2026-07-21T15:00:00Z"), ZoneId.of("America/Bogota"));
+    private static final LocalDateTime AHORA = LocalDateTime.now(CLOCK);
+    private static final int GENERAL = Movimiento.Almacen.GENERAL.ordinal();
+    private static final Long USUARIO = 7L;
+
+    private final ReservaLoteRepo reservaLoteRepo = mock(ReservaLoteRepo.class);
+    private final SaldoInventarioRepo saldoInventarioRepo = mock(SaldoInventarioRepo.class);
+    private final ReservaLoteService service =
+            new ReservaLoteService(reservaLoteRepo, saldoInventarioRepo, CLOCK);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void reservarLocksKeysInStableOrderAndStoresHoldsUnderANewToken() {
+        when(saldoInventarioRepo.bloquearSaldoLote(anyString(), eq(GENERAL), anyLong())).thenReturn(List.of(10.0));
+        Map<ReservaLoteService.Clave, Double> demandas = new LinkedHashMap<>();
+        demandas.put(clave("MP-2", 1L), 3.0);
+        demandas.put(clave("MP-1", 9L), 2.0);
+        demandas.put(clave("MP-1", 4L), 1.0);
+
+        String token = service.reservar(null, demandas, USUARIO);
+
+        assertNotNull(token);
+        InOrder locks = inOrder(saldoInventarioRepo);
+        locks.verify(saldoInventarioRepo).bloquearSaldoLote("MP-1", GENERAL, 4L);
+        locks.verify(saldoInventarioRepo).bloquearSaldoLote("MP-1", GENERAL, 9L);
+        locks.verify(saldoInventarioRepo).bloquearSaldoLote("MP-2", GENERAL, 1L);
+
+        ArgumentCaptor<List<ReservaLote>> saved = ArgumentCaptor.forClass(List.class);
+        verify(reservaLoteRepo).saveAll(saved.capture());
+        assertEquals(3, saved.getValue().size());
+        ReservaLote primera = saved.getValue().get(0);
+        assertEquals(token, primera.getToken());
+        assertEquals(USUARIO, primera.getUsuarioId());
+        assertEquals(4L, primera.getLoteId());
+        assertEquals(AHORA.plus(ReservaLoteService.DURACION_RESERVA), primera.getExpiraEn());
+    }
+
+    @Test
+    void reservarRejectsBalanceAlreadyHeldByAnotherAssignment() {
+        when(saldoInventarioRepo.bloquearSaldoLote("MP-1", GENERAL, 4L)).thenReturn(List.of(10.0));
+        when(reservaLoteRepo.sumVigentesDeOtros(
+                eq("MP-1"), eq(Movimiento.Almacen.GENERAL), eq(4L), anyString(), eq(AHORA)))
+                .thenReturn(8.0);
+
+        ResponseStatusException error = assertThrows(
+                ResponseStatusException.class,
+                () -> service.reservar("previo", Map.of(clave("MP-1", 4L), 3.0), USUARIO));
+
+        assertEquals(HttpStatus.CONFLICT, error.getStatusCode());
+        verify(reservaLoteRepo).deleteByToken("previo");
+        verify(reservaLoteRepo, never()).saveAll(anyList());
+    }
+
+    @Test
+    void confirmarConsumesOwnHoldsAfterValidatingAgainstOthers() {
+        when(saldoInventarioRepo.bloquearSaldoLote("MP-1", GENERAL, 4L)).thenReturn(List.of(10.0));
+        when(reservaLoteRepo.sumVigentesDeOtros(
+                "MP-1", Movimiento.Almacen.GENERAL, 4L, "tok", AHORA))
+                .thenReturn(4.0);
+
+        service.confirmar("tok", Map.of(clave("MP-1", 4L), 6.0), USUARIO);
+
+        verify(reservaLoteRepo).deleteByToken("tok");
+    }
+
+    @Test
+    void confirmarWithoutTokenCannotConsumeBalanceHeldByOthers() {
+        when(saldoInventarioRepo.bloquearSaldoLote("MP-1", GENERAL, 4L)).thenReturn(List.of(10.0));
+        when(reservaLoteRepo.sumVigentesDeOtros(
+                "MP-1", Movimiento.Almacen.GENERAL, 4L, null, AHORA))
+                .thenReturn(8.0);
+
+        ResponseStatusException error = assertThrows(
+                ResponseStatusException.class,
+                () -> service.confirmar(null, Map.of(clave("MP-1", 4L), 3.0), USUARIO));
+
+        assertEquals(HttpStatus.BAD_REQUEST, error.getStatusCode());
+        verify(reservaLoteRepo, never()).deleteByToken(any());
+    }
+
+    @Test
+    void tokenOfAnotherUserIsRejected() {
+        when(reservaLoteRepo.existsByTokenDeOtroUsuario("ajeno", USUARIO)).thenReturn(true);
+
+        ResponseStatusException confirmar = assertThrows(
+                ResponseStatusException.class,
+                () -> service.confirmar("ajeno", Map.of(clave("MP-1", 4L), 1.0), USUARIO));
+        ResponseStatusException reservar = assertThrows(
+                ResponseStatusException.class,
+                () -> service.reservar("ajeno", Map.of(clave("MP-1", 4L), 1.0), USUARIO));
+
+        assertEquals(HttpStatus.FORBIDDEN, confirmar.getStatusCode());
+        assertEquals(HttpStatus.FORBIDDEN, reservar.getStatusCode());
+        verify(saldoInventarioRepo, never()).bloquearSaldoLote(any(), anyInt(), any());
+        verify(reservaLoteRepo, never()).deleteByToken(any());
+    }
+
+    private static ReservaLoteService.Clave clave(String productoId, Long loteId) {
+        return new ReservaLoteService.Clave(productoId, Movimiento.Almacen.GENERAL, loteId);
+    }
+}
@@ -0,0 +1,73 @@
+package exotic.app.planta.service.master.configs;
+
+import exotic.app.planta.model.master.configs.MasterDirective;
+import exotic.app.planta.model.master.configs.MasterDirectiveCambioEvent;
+import exotic.app.planta.model.master.configs.MasterDirectiveKeys;
+import exotic.app.planta.repo.master.configs.MasterDirectiveRepo;
+import exotic.app.planta.repo.produccion.batchrecord.BatchRecordRepo;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MasterDirectiveRegistryTest {
+
+    private final MasterDirectiveRepo repo = mock(MasterDirectiveRepo.class);
+    private final MasterDirectiveRegistry registry = new MasterDirectiveRegistry(repo);
+    private final MasterDirectiveService service =
+            new MasterDirectiveService(repo, mock(BatchRecordRepo.class), registry);
+
+    @Test
+    void typedGettersLoadTheDirectivesOnceForAllReads() {
+        when(repo.findAll()).thenReturn(List.of(directive(MasterDirectiveKeys.AREA_OPERATIVA_NOISE_ENABLED, "true")));
+
+        for (int i = 0; i < 50; i++) {
+            assertTrue(service.isAreaOperativaNoiseEnabled());
+            service.isDispensacionNoBloqueaInicioProduccion();
+        }
+
+        verify(repo, times(1)).findAll();
+        verify(repo, never()).findByNombre(any());
+    }
+
+    @Test
+    void committedChangesReplaceTheCachedValues() {
+        when(repo.findAll())
+                .thenReturn(List.of(directive(MasterDirectiveKeys.AREA_OPERATIVA_NOISE_ENABLED, "true")))
+                .thenReturn(List.of(directive(MasterDirectiveKeys.AREA_OPERATIVA_NOISE_ENABLED, "false")));
+        assertTrue(service.isAreaOperativaNoiseEnabled());
+
+        registry.onCambio(new MasterDirectiveCambioEvent(MasterDirectiveKeys.AREA_OPERATIVA_NOISE_ENABLED));
+
+        assertFalse(service.isAreaOperativaNoiseEnabled());
+        verify(repo, times(2)).findAll();
+    }
+
+    @Test
+    void periodicReloadPicksUpDirectivesCreatedElsewhere() {
+        when(repo.findAll())
+                .thenReturn(List.of())
+                .thenReturn(List.of(directive(MasterDirectiveKeys.BATCH_RECORD_WORKFLOW_ENABLED, "true")));
+        assertTrue(registry.buscar(MasterDirectiveKeys.BATCH_RECORD_WORKFLOW_ENABLED).isEmpty());
+
+        registry.recargar();
+
+        assertTrue(service.isBatchRecordWorkflowEnabled());
+    }
+
+    private MasterDirective directive(String nombre, String valor) {
+        MasterDirective directive = new MasterDirective();
+        directive.setNombre(nombre);
+        directive.setTipoDato(MasterDirective.TipoDato.BOOLEANO);
+        directive.setValor(valor);
+        return directive;
+    }
+}
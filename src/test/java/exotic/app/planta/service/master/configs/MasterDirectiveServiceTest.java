@@ -7,6 +7,7 @@ import exotic.app.planta.repo.master.configs.MasterDirectiveRepo;
 import exotic.app.planta.repo.produccion.batchrecord.BatchRecordRepo;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -21,8 +22,7 @@ class MasterDirectiveServiceTest {
     @Test
     void getMpsSemanalDiasBloqueoEdicion_allowsZero() {
         MasterDirectiveRepo repo = mock(MasterDirectiveRepo.class);
-        when(repo.findByNombre(MasterDirectiveKeys.MPS_SEMANAL_DIAS_BLOQUEO_EDICION))
-                .thenReturn(Optional.of(directive("0")));
+        when(repo.findAll()).thenReturn(List.of(directive("0")));
 
         MasterDirectiveService service = service(repo);
 
@@ -32,8 +32,7 @@ class MasterDirectiveServiceTest {
     @Test
     void getMpsSemanalDiasBloqueoEdicion_returnsConfiguredValueInRange() {
         MasterDirectiveRepo repo = mock(MasterDirectiveRepo.class);
-        when(repo.findByNombre(MasterDirectiveKeys.MPS_SEMANAL_DIAS_BLOQUEO_EDICION))
-                .thenReturn(Optional.of(directive("7")));
+        when(repo.findAll()).thenReturn(List.of(directive("7")));
 
         MasterDirectiveService service = service(repo);
 
@@ -43,8 +42,7 @@ class MasterDirectiveServiceTest {
     @Test
     void getMpsSemanalDiasBloqueoEdicion_fallsBackWhenOutOfRange() {
         MasterDirectiveRepo repo = mock(MasterDirectiveRepo.class);
-        when(repo.findByNombre(MasterDirectiveKeys.MPS_SEMANAL_DIAS_BLOQUEO_EDICION))
-                .thenReturn(Optional.of(directive("8")));
+        when(repo.findAll()).thenReturn(List.of(directive("8")));
 
         MasterDirectiveService service = service(repo);
 
@@ -57,8 +55,7 @@ class MasterDirectiveServiceTest {
     @Test
     void getMpsSemanalDiasBloqueoEdicion_fallsBackWhenMissing() {
         MasterDirectiveRepo repo = mock(MasterDirectiveRepo.class);
-        when(repo.findByNombre(MasterDirectiveKeys.MPS_SEMANAL_DIAS_BLOQUEO_EDICION))
-                .thenReturn(Optional.empty());
+        when(repo.findAll()).thenReturn(List.of());
 
         MasterDirectiveService service = service(repo);
 
@@ -71,8 +68,7 @@ class MasterDirectiveServiceTest {
     @Test
     void isBatchRecordWorkflowEnabled_fallsBackToFalseWhenMissing() {
         MasterDirectiveRepo repo = mock(MasterDirectiveRepo.class);
-        when(repo.findByNombre(MasterDirectiveKeys.BATCH_RECORD_WORKFLOW_ENABLED))
-                .thenReturn(Optional.empty());
+        when(repo.findAll()).thenReturn(List.of());
 
         assertFalse(service(repo).isBatchRecordWorkflowEnabled());
     }
@@ -95,7 +91,7 @@ class MasterDirectiveServiceTest {
         when(repo.findByIdForUpdate(1L)).thenReturn(Optional.of(persisted));
         when(batchRecordRepo.countByEstadoNotIn(anyCollection())).thenReturn(2L);
 
-        MasterDirectiveService service = new MasterDirectiveService(repo, batchRecordRepo);
+        MasterDirectiveService service = new MasterDirectiveService(repo, batchRecordRepo, new MasterDirectiveRegistry(repo));
 
         MasterDirectiveService.BatchRecordWorkflowTransitionException exception = assertThrows(
                 MasterDirectiveService.BatchRecordWorkflowTransitionException.class,
@@ -114,14 +110,14 @@ class MasterDirectiveServiceTest {
         when(repo.findByIdForUpdate(1L)).thenReturn(Optional.of(persisted));
         when(batchRecordRepo.countByEstadoNotIn(anyCollection())).thenReturn(0L);
 
-        new MasterDirectiveService(repo, batchRecordRepo).updateMasterDirective(
+        new MasterDirectiveService(repo, batchRecordRepo, new MasterDirectiveRegistry(repo)).updateMasterDirective(
                 new DTO_MasterD_Update(persisted, requested));
 
         assertEquals("false", persisted.getValor());
     }
 
     private MasterDirectiveService service(MasterDirectiveRepo repo) {
-        return new MasterDirectiveService(repo, mock(BatchRecordRepo.class));
+        return new MasterDirectiveService(repo, mock(BatchRecordRepo.class), new MasterDirectiveRegistry(repo));
     }
 
     private MasterDirective directive(String valor) {
@@ -0,0 +1,172 @@
+package exotic.app.planta.service.produccion;
+
+import exotic.app.planta.config.initializers.AreaOperativaInitializer;
+import exotic.app.planta.model.organizacion.AreaOperativa;
+import exotic.app.planta.model.produccion.ActorTipoEventoSeguimiento;
+import exotic.app.planta.model.produccion.EstadoSeguimientoOrdenArea;
+import exotic.app.planta.model.produccion.TableroAreaCambioEvent;
+import exotic.app.planta.model.produccion.TipoEventoSeguimiento;
+import exotic.app.planta.model.produccion.dto.AreaOperativaInactivityAlertDTO;
+import exotic.app.planta.model.produccion.dto.AreaOperativaInactivityAlertDTO.EstadoAlertaInactividad;
+import exotic.app.planta.repo.produccion.SeguimientoOrdenAreaEventoRepo;
+import exotic.app.planta.repo.produccion.SeguimientoOrdenAreaRepo;
+import exotic.app.planta.repo.producto.procesos.AreaProduccionRepo;
+import exotic.app.planta.service.commons.sse.SseDifusor;
+import exotic.app.planta.service.master.configs.MasterDirectiveService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AreaOperativaInactivityAlertServiceTest {
+
+    private static final ZoneId BOGOTA = ZoneId.of("America/Bogota");
+    private static final List<Integer> ESTADOS_CARGA_ACTIVA = List.of(
+            EstadoSeguimientoOrdenArea.ESPERA.getCode(),
+            EstadoSeguimientoOrdenArea.EN_PROCESO.getCode()
+    );
+
+    private final AreaProduccionRepo areaProduccionRepo = mock(AreaProduccionRepo.class);
+    private final SeguimientoOrdenAreaEventoRepo eventoRepo = mock(SeguimientoOrdenAreaEventoRepo.class);
+    private final SeguimientoOrdenAreaRepo seguimientoRepo = mock(SeguimientoOrdenAreaRepo.class);
+    private final MasterDirectiveService masterDirectiveService = mock(MasterDirectiveService.class);
+    private final Clock clock = mock(Clock.class);
+    private final AreaOperativaInactivityAlertService service = new AreaOperativaInactivityAlertService(
+            areaProduccionRepo, eventoRepo, seguimientoRepo, masterDirectiveService, clock, new SseDifusor(Runnable::run));
+
+    @BeforeEach
+    void setUp() {
+        when(clock.getZone()).thenReturn(BOGOTA);
+        // 10:58 en Bogota.
+        when(clock.instant()).thenReturn(Instant.parse("2026-07-21T15:58:00Z"));
+        when(masterDirectiveService.isAreaOperativaInactivityAlertEnabled()).thenReturn(true);
+        when(masterDirectiveService.getAreaOperativaInactivityThresholdMinutes()).thenReturn(60);
+        when(masterDirectiveService.getAreaOperativaInactivityCheckIntervalMinutes()).thenReturn(5);
+        when(areaProduccionRepo.findAllByResponsableAreaIsNotNullAndAreaIdNotOrderByNombreAsc(
+                AreaOperativaInitializer.ALMACEN_GENERAL_ID)).thenReturn(List.of(area(3, "Envasado"), area(4, "Mezcla")));
+        when(ultimasTerminaciones(List.of(3, 4))).thenReturn(List.of(
+                new UltimaTerminacion(3, LocalDateTime.of(2026, 7, 21, 10, 0))));
+        when(seguimientoRepo.countCargaActivaByAreaIds(List.of(3, 4), ESTADOS_CARGA_ACTIVA))
+                .thenReturn(List.of(new CargaActiva(3, 2L)));
+    }
+
+    @Test
+    void alertsAreServedFromTheSeededStateWithoutRescanning() {
+        service.getAlertasInactividad();
+        service.getAlertasInactividad();
+        List<AreaOperativaInactivityAlertDTO> alertas = service.getAlertasInactividad();
+
+        assertEquals(List.of(3, 4), alertas.stream().map(AreaOperativaInactivityAlertDTO::getAreaId).toList());
+        assertEquals(58L, alertas.get(0).getMinutosDesdeUltimaTerminacion());
+        assertEquals(EstadoAlertaInactividad.SIN_TERMINACIONES, alertas.get(1).getEstado());
+        verify(areaProduccionRepo, times(1))
+                .findAllByResponsableAreaIsNotNullAndAreaIdNotOrderByNombreAsc(AreaOperativaInitializer.ALMACEN_GENERAL_ID);
+        verify(seguimientoRepo, times(1)).countCargaActivaByAreaIds(any(), any());
+    }
+
+    @Test
+    void thresholdIsCrossedByTimeAloneWithoutQueryingAgain() {
+        service.evaluar();
+        assertFalse(service.getAlertasInactividad().get(0).isAlertaActiva());
+
+        when(clock.instant()).thenReturn(Instant.parse("2026-07-21T16:01:00Z"));
+        service.evaluar();
+
+        AreaOperativaInactivityAlertDTO envasado = service.getAlertasInactividad().get(0);
+        assertTrue(envasado.isAlertaActiva());
+        assertEquals(EstadoAlertaInactividad.INACTIVA, envasado.getEstado());
+        verify(eventoRepo, times(1)).findUltimasTerminacionesByAreaIds(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void changeEventsRefreshOnlyTheirAreaOnTheNextEvaluation() {
+        service.evaluar();
+        when(clock.instant()).thenReturn(Instant.parse("2026-07-21T16:01:00Z"));
+        when(ultimasTerminaciones(List.of(3))).thenReturn(List.of(
+                new UltimaTerminacion(3, LocalDateTime.of(2026, 7, 21, 11, 0))));
+        when(seguimientoRepo.countCargaActivaByAreaIds(List.of(3), ESTADOS_CARGA_ACTIVA))
+                .thenReturn(List.of(new CargaActiva(3, 1L)));
+
+        service.onCambio(new TableroAreaCambioEvent(3));
+        service.onCambio(new TableroAreaCambioEvent(3));
+        service.onCambio(new TableroAreaCambioEvent(9));
+        service.evaluar();
+        service.evaluar();
+
+        AreaOperativaInactivityAlertDTO envasado = service.getAlertasInactividad().get(0);
+        assertFalse(envasado.isAlertaActiva());
+        assertEquals(1L, envasado.getMinutosDesdeUltimaTerminacion());
+        // Siembra inicial mas un solo refresco del area 3; el area 9 no es monitoreable.
+        verify(eventoRepo, times(2)).findUltimasTerminacionesByAreaIds(any(), any(), any(), anyInt());
+        verify(seguimientoRepo, times(1)).countCargaActivaByAreaIds(List.of(3), ESTADOS_CARGA_ACTIVA);
+    }
+
+    @Test
+    void fullRefreshReloadsEveryAreaPeriodically() {
+        service.evaluar();
+        when(clock.instant()).thenReturn(Instant.parse("2026-07-21T15:58:00Z")
+                .plus(AreaOperativaInactivityAlertService.REFRESCO_COMPLETO));
+        service.evaluar();
+
+        verify(areaProduccionRepo, times(2))
+                .findAllByResponsableAreaIsNotNullAndAreaIdNotOrderByNombreAsc(AreaOperativaInitializer.ALMACEN_GENERAL_ID);
+    }
+
+    private List<SeguimientoOrdenAreaEventoRepo.UltimaTerminacionAreaProjection> ultimasTerminaciones(
+            Collection<Integer> areaIds
+    ) {
+        return eventoRepo.findUltimasTerminacionesByAreaIds(
+                areaIds,
+                ActorTipoEventoSeguimiento.USER,
+                TipoEventoSeguimiento.OPERATIVO,
+                EstadoSeguimientoOrdenArea.COMPLETADO.getCode());
+    }
+
+    private static AreaOperativa area(int areaId, String nombre) {
+        AreaOperativa area = new AreaOperativa();
+        area.setAreaId(areaId);
+        area.setNombre(nombre);
+        return area;
+    }
+
+    private record UltimaTerminacion(Integer areaId, LocalDateTime ultimaTerminacionAt)
+            implements SeguimientoOrdenAreaEventoRepo.UltimaTerminacionAreaProjection {
+        @Override
+        public Integer getAreaId() {
+            return areaId;
+        }
+
+        @Override
+        public LocalDateTime getUltimaTerminacionAt() {
+            return ultimaTerminacionAt;
+        }
+    }
+
+    private record CargaActiva(Integer areaId, Long total)
+            implements SeguimientoOrdenAreaRepo.CargaActivaAreaProjection {
+        @Override
+        public Integer getAreaId() {
+            return areaId;
+        }
+
+        @Override
+        public Long getTotal() {
+            return total;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package exotic.app.planta.service.produccion;
+
+import exotic.app.planta.config.AppTime;
+import exotic.app.planta.model.organizacion.AreaOperativa;
+import exotic.app.planta.model.produccion.AreaOperativaRuidoMuestra;
+import exotic.app.planta.model.users.User;
+import exotic.app.planta.repo.produccion.AreaOperativaRuidoMuestraRepo;
+import exotic.app.planta.repo.produccion.AreaOperativaRuidoRollupRepo;
+import exotic.app.planta.repo.producto.procesos.AreaProduccionRepo;
+import exotic.app.planta.service.master.configs.MasterDirectiveService;
+import exotic.app.planta.service.produccion.AreaOperativaRuidoMuestraService.AreaOperativaRuidoMuestraRequest;
+import exotic.app.planta.service.produccion.AreaOperativaRuidoMuestraService.AreaOperativaRuidoMuestraResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AreaOperativaRuidoMuestraServiceTest {
+
+    private static final ZoneId BOGOTA = ZoneId.of("America/Bogota");
+    private static final OffsetDateTime INICIO = OffsetDateTime.parse("2026-08-20T06:00:00-05:00");
+
+    private final AreaOperativaRuidoMuestraRepo muestraRepo = mock(AreaOperativaRuidoMuestraRepo.class);
+    private final AreaOperativaRuidoRollupRepo rollupRepo = mock(AreaOperativaRuidoRollupRepo.class);
+    private final AreaProduccionRepo areaRepo = mock(AreaProduccionRepo.class);
+    private final MasterDirectiveService directivas = mock(MasterDirectiveService.class);
+    private final AreaOperativaRuidoMuestraService service =
+            new AreaOperativaRuidoMuestraService(muestraRepo, rollupRepo, areaRepo, directivas);
+
+    private final User responsable = new User();
+
+    @BeforeEach
+    void setUp() {
+        AppTime.setClock(Clock.fixed(Instant.parse("2026-08-20T15:00:00Z"), BOGOTA));
+        responsable.setId(11L);
+        AreaOperativa area = new AreaOperativa();
+        area.setAreaId(4);
+        when(areaRepo.findAllByResponsableArea_Id(11L)).thenReturn(List.of(area));
+        when(directivas.isAreaOperativaNoiseEnabled()).thenReturn(true);
+        when(directivas.getAreaOperativaNoiseIntervalMinutes()).thenReturn(10);
+        when(muestraRepo.saveAllAndFlush(anyList())).thenAnswer(invocation -> {
+            List<AreaOperativaRuidoMuestra> muestras = invocation.getArgument(0);
+            long id = 100;
+            for (AreaOperativaRuidoMuestra muestra : muestras) {
+                muestra.setId(++id);
+            }
+            return muestras;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        AppTime.setClock(Clock.system(BOGOTA));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void batchIsInsertedAtOnceAndRolledUpOncePerResolution() {
+        List<AreaOperativaRuidoMuestraRequest> lote = List.of(
+                muestra(INICIO, -40.0),
+                muestra(INICIO.plusMinutes(10), -35.0),
+                muestra(INICIO.plusMinutes(25), -30.0));
+
+        List<AreaOperativaRuidoMuestraResponse> registradas = service.registrarMuestras(responsable, lote);
+
+        assertEquals(List.of(101L, 102L, 103L), registradas.stream().map(AreaOperativaRuidoMuestraResponse::getId).toList());
+        ArgumentCaptor<List<AreaOperativaRuidoMuestra>> guardadas = ArgumentCaptor.forClass(List.class);
+        verify(muestraRepo, times(1)).saveAllAndFlush(guardadas.capture());
+        assertEquals(3, guardadas.getValue().size());
+        verify(muestraRepo, times(1)).existsByAreaOperativa_AreaIdAndUsuario_IdAndCreatedAtAfter(any(), any(), any());
+        verify(rollupRepo).acumular(List.of(101L, 102L, 103L), "HORA", "hour");
+        verify(rollupRepo).acumular(List.of(101L, 102L, 103L), "DIA", "day");
+    }
+
+    @Test
+    void oneInvalidSampleRejectsTheWholeBatch() {
+        List<AreaOperativaRuidoMuestraRequest> lote = List.of(
+                muestra(INICIO, -40.0),
+                muestra(INICIO.plusMinutes(10), 99.0),
+                muestra(INICIO.plusMinutes(20), -30.0));
+
+        assertThrows(IllegalArgumentException.class, () -> service.registrarMuestras(responsable, lote));
+
+        verify(muestraRepo, never()).saveAllAndFlush(anyList());
+        verify(rollupRepo, never()).acumular(any(), any(), any());
+    }
+
+    @Test
+    void samplesCloserThanTheIntervalRejectTheWholeBatch() {
+        List<AreaOperativaRuidoMuestraRequest> lote = List.of(
+                muestra(INICIO, -40.0),
+                muestra(INICIO.plusMinutes(30), -35.0),
+                muestra(INICIO.plusMinutes(35), -30.0));
+
+        assertThrows(IllegalStateException.class, () -> service.registrarMuestras(responsable, lote));
+
+        verify(muestraRepo, never()).saveAllAndFlush(anyList());
+        verify(rollupRepo, never()).acumular(any(), any(), any());
+    }
+
+    private static AreaOperativaRuidoMuestraRequest muestra(OffsetDateTime fecha, double ruidoDb) {
+        AreaOperativaRuidoMuestraRequest request = new AreaOperativaRuidoMuestraRequest();
+        request.setFechaMuestra(fecha);
+        request.setRuidoDb(ruidoDb);
+        request.setRms(0.01);
+        request.setDuracionMs(1_000);
+        request.setSampleRate(48_000);
+        return request;
+    }
+}
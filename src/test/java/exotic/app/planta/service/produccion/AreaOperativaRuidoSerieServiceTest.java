@@ -0,0 +1,102 @@
+package exotic.app.planta.service.produccion;
+
+import exotic.app.planta.config.AppTime;
+import exotic.app.planta.model.organizacion.AreaOperativa;
+import exotic.app.planta.model.produccion.AreaOperativaRuidoRollup;
+import exotic.app.planta.model.produccion.ResolucionRuido;
+import exotic.app.planta.repo.produccion.AreaOperativaRuidoMuestraRepo;
+import exotic.app.planta.repo.produccion.AreaOperativaRuidoRollupRepo;
+import exotic.app.planta.repo.producto.procesos.AreaProduccionRepo;
+import exotic.app.planta.service.produccion.AreaOperativaRuidoSerieService.AreaOperativaRuidoSerieDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AreaOperativaRuidoSerieServiceTest {
+
+    private static final ZoneId BOGOTA = ZoneId.of("America/Bogota");
+
+    private final AreaOperativaRuidoMuestraRepo muestraRepo = mock(AreaOperativaRuidoMuestraRepo.class);
+    private final AreaOperativaRuidoRollupRepo rollupRepo = mock(AreaOperativaRuidoRollupRepo.class);
+    private final AreaProduccionRepo areaRepo = mock(AreaProduccionRepo.class);
+    private final AreaOperativaRuidoSerieService service =
+            new AreaOperativaRuidoSerieService(muestraRepo, rollupRepo, areaRepo, 90);
+
+    @BeforeEach
+    void setUp() {
+        AppTime.setClock(Clock.fixed(Instant.parse("2026-08-20T15:00:00Z"), BOGOTA));
+        AreaOperativa area = new AreaOperativa();
+        area.setAreaId(4);
+        when(areaRepo.findById(4)).thenReturn(Optional.of(area));
+    }
+
+    @AfterEach
+    void tearDown() {
+        AppTime.setClock(Clock.system(BOGOTA));
+    }
+
+    @Test
+    void shortRecentRangesReadRawSamples() {
+        LocalDateTime desde = LocalDateTime.of(2026, 8, 19, 0, 0);
+        LocalDateTime hasta = LocalDateTime.of(2026, 8, 20, 0, 0);
+
+        AreaOperativaRuidoSerieDTO serie = service.getSerie(4, desde, hasta, null);
+
+        assertEquals(ResolucionRuido.MUESTRA, serie.getResolucion());
+        verify(muestraRepo).findSerie(4, desde, hasta);
+        verify(rollupRepo, never()).findSerie(any(), any(), any(), any());
+    }
+
+    @Test
+    void longRangesReadTheMatchingRollupAndAverageFromTheSums() {
+        LocalDateTime desde = LocalDateTime.of(2026, 1, 1, 0, 0);
+        LocalDateTime hasta = LocalDateTime.of(2026, 8, 1, 0, 0);
+        AreaOperativaRuidoRollup dia = new AreaOperativaRuidoRollup();
+        dia.setBucketInicio(desde);
+        dia.setMuestras(4);
+        dia.setRuidoDbMin(-50);
+        dia.setRuidoDbMax(-20);
+        dia.setRuidoDbSuma(-140);
+        dia.setRmsSuma(0.2);
+        when(rollupRepo.findSerie(4, ResolucionRuido.DIA, desde, hasta)).thenReturn(List.of(dia));
+
+        AreaOperativaRuidoSerieDTO serie = service.getSerie(4, desde, hasta, null);
+
+        assertEquals(ResolucionRuido.DIA, serie.getResolucion());
+        assertEquals(-35.0, serie.getPuntos().get(0).getRuidoDbPromedio());
+        assertEquals(0.05, serie.getPuntos().get(0).getRmsPromedio(), 1e-9);
+        verify(muestraRepo, never()).findSerie(any(), any(), any());
+    }
+
+    @Test
+    void shortRangesOutsideRetentionFallBackToHourlyRollups() {
+        LocalDateTime desde = LocalDateTime.of(2026, 3, 1, 0, 0);
+        LocalDateTime hasta = LocalDateTime.of(2026, 3, 2, 0, 0);
+
+        assertEquals(ResolucionRuido.HORA, service.getSerie(4, desde, hasta, null).getResolucion());
+        assertThrows(IllegalArgumentException.class,
+                () -> service.getSerie(4, desde, hasta, ResolucionRuido.MUESTRA));
+    }
+
+    @Test
+    void retentionDeletesRawSamplesOlderThanTheConfiguredDays() {
+        service.aplicarRetencion();
+
+        verify(muestraRepo).deleteByFechaMuestraBefore(LocalDateTime.of(2026, 5, 22, 0, 0));
+    }
+}
@@ -0,0 +1,196 @@
+package exotic.app.planta.service.produccion;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import exotic.app.planta.model.producto.SemiTerminado;
+import exotic.app.planta.model.producto.manufacturing.snapshots.ManufacturingVersionCambioEvent;
+import exotic.app.planta.model.producto.manufacturing.snapshots.ManufacturingVersions;
+import exotic.app.planta.repo.producto.manufacturing.snapshots.ManufacturingVersionRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ManufacturingVersionCacheTest {
+
+    private final ManufacturingVersionRepo versionRepo = mock(ManufacturingVersionRepo.class);
+    private final Clock clock = mock(Clock.class);
+    private final ManufacturingVersionCache cache =
+            new ManufacturingVersionCache(versionRepo, new ObjectMapper(), clock, Runnable::run);
+    private Instant ahora = Instant.parse("2026-07-21T15:00:00Z");
+
+    @BeforeEach
+    void setUp() {
+        when(clock.instant()).thenAnswer(invocation -> ahora);
+    }
+
+    @Test
+    void indexedLatestVersionIsParsedOnceAndNeverResolvedAgain() {
+        SemiTerminado semi = semi("SEMI-1");
+        var indexada = ultima("SEMI-1", 10L, 2);
+        when(versionRepo.findUltimasVersiones()).thenReturn(List.of(indexada));
+        when(versionRepo.findById(10L)).thenReturn(Optional.of(
+                version(10L, semi, 2, "[{\"productoId\":\"MAT-1\",\"cantidadRequerida\":1.5}]")));
+
+        VersionCongelada primera = cache.ultima(semi).orElseThrow();
+        VersionCongelada segunda = cache.ultimas(List.of("SEMI-1")).get("SEMI-1");
+
+        assertSame(primera, segunda);
+        assertEquals(2, primera.versionNumber());
+        assertEquals(List.of(new VersionCongelada.Ingredient("MAT-1", new BigDecimal("1.5"))),
+                primera.ingredientes());
+        verify(versionRepo, times(1)).findUltimasVersiones();
+        verify(versionRepo, times(1)).findById(10L);
+        verify(versionRepo, never()).findTopByProductoOrderByVersionNumberDesc(any());
+        verify(versionRepo, never()).findLatestByProductoIds(anyCollection());
+    }
+
+    @Test
+    void committedVersionsMoveTheIndexAndDeletionsFallBackToTheDatabase() {
+        SemiTerminado semi = semi("SEMI-1");
+        var indexada = ultima("SEMI-1", 10L, 2);
+        when(versionRepo.findUltimasVersiones()).thenReturn(List.of(indexada));
+        ManufacturingVersions nueva = version(11L, semi, 3, "[]");
+        when(versionRepo.findById(11L)).thenReturn(Optional.of(nueva));
+        when(versionRepo.getReferenceById(11L)).thenReturn(nueva);
+        cache.recargar();
+
+        cache.onCambio(new ManufacturingVersionCambioEvent("SEMI-1", 11L, 3, false));
+        cache.onCambio(new ManufacturingVersionCambioEvent("SEMI-1", 9L, 1, false));
+
+        assertEquals(11L, cache.ultima(semi).orElseThrow().versionId());
+        assertSame(nueva, cache.ultimaVersion(semi).orElseThrow());
+
+        cache.onCambio(new ManufacturingVersionCambioEvent("SEMI-1", 11L, 3, true));
+        when(versionRepo.findTopByProductoOrderByVersionNumberDesc(semi)).thenReturn(Optional.empty());
+
+        assertEquals(Optional.empty(), cache.ultima(semi));
+        verify(versionRepo).findTopByProductoOrderByVersionNumberDesc(semi);
+    }
+
+    @Test
+    void expiredIndexKeepsServingWhileItReloadsInTheBackground() {
+        List<Runnable> recargas = new ArrayList<>();
+        ManufacturingVersionCache cache =
+                new ManufacturingVersionCache(versionRepo, new ObjectMapper(), clock, recargas::add);
+        SemiTerminado semi = semi("SEMI-1");
+        var anterior = ultima("SEMI-1", 10L, 2);
+        var nueva = ultima("SEMI-1", 12L, 3);
+        when(versionRepo.findUltimasVersiones()).thenReturn(List.of(anterior), List.of(nueva));
+        when(versionRepo.findTopByProductoOrderByVersionNumberDesc(semi))
+                .thenReturn(Optional.of(version(10L, semi, 2, "[]")));
+        when(versionRepo.findById(10L)).thenReturn(Optional.of(version(10L, semi, 2, "[]")));
+        when(versionRepo.findById(12L)).thenReturn(Optional.of(version(12L, semi, 3, "[]")));
+
+        // Sin indice todavia: el producto se resuelve en la base sin esperar la carga.
+        assertEquals(10L, cache.ultima(semi).orElseThrow().versionId());
+        assertEquals(10L, cache.ultima(semi).orElseThrow().versionId());
+        assertEquals(1, recargas.size());
+        verify(versionRepo, never()).findUltimasVersiones();
+        recargas.remove(0).run();
+
+        ahora = ahora.plus(ManufacturingVersionCache.RECARGA);
+        assertEquals(10L, cache.ultima(semi).orElseThrow().versionId());
+        assertEquals(10L, cache.ultima(semi).orElseThrow().versionId());
+        assertEquals(1, recargas.size());
+        recargas.remove(0).run();
+
+        assertEquals(12L, cache.ultima(semi).orElseThrow().versionId());
+        verify(versionRepo, times(2)).findUltimasVersiones();
+    }
+
+    @Test
+    void versionCommittedDuringAReloadSurvivesTheSwap() {
+        SemiTerminado semi = semi("SEMI-1");
+        var leida = ultima("SEMI-1", 10L, 2);
+        when(versionRepo.findUltimasVersiones()).thenAnswer(invocation -> {
+            cache.onCambio(new ManufacturingVersionCambioEvent("SEMI-1", 11L, 3, false));
+            return List.of(leida);
+        });
+        when(versionRepo.findById(11L)).thenReturn(Optional.of(version(11L, semi, 3, "[]")));
+
+        cache.recargar();
+
+        assertEquals(11L, cache.ultima(semi).orElseThrow().versionId());
+    }
+
+    @Test
+    void supersededVersionIsDroppedWhenTheIndexMoves() {
+        SemiTerminado semi = semi("SEMI-1");
+        var indexada = ultima("SEMI-1", 10L, 2);
+        when(versionRepo.findUltimasVersiones()).thenReturn(List.of(indexada));
+        ManufacturingVersions anterior = version(10L, semi, 2, "[]");
+        VersionCongelada congelada = cache.congelada(anterior);
+        cache.recargar();
+
+        cache.onCambio(new ManufacturingVersionCambioEvent("SEMI-1", 11L, 3, false));
+
+        assertNotSame(congelada, cache.congelada(anterior));
+    }
+
+    @Test
+    void routeKeepsOnlyProcessNodesInTopologicalOrderAndIsImmutable() {
+        ManufacturingVersions version = version(20L, semi("SEMI-1"), 1, "[]");
+        version.setProcesoProduccionJson("""
+                {"nodes":[
+                  {"frontendId":"B","nodeType":"PROCESO","areaOperativaId":2,"procesoNombre":"Envasado"},
+                  {"frontendId":"M","nodeType":"MATERIAL"},
+                  {"frontendId":"A","nodeType":"PROCESO","areaOperativaId":1,"procesoId":7}
+                 ],
+                 "edges":[
+                  {"sourceFrontendId":"A","targetFrontendId":"M"},
+                  {"sourceFrontendId":"M","targetFrontendId":"B"}
+                 ]}
+                """);
+
+        RutaCongelada ruta = cache.ruta(version);
+
+        assertSame(ruta, cache.ruta(version));
+        assertEquals(List.of("A", "B"), ruta.topologicalOrder());
+        assertEquals(Map.of("A", Set.of(), "B", Set.of("A")), ruta.predecessors());
+        assertEquals("Envasado", ruta.nodes().get("B").nombre());
+        assertEquals(7, ruta.nodes().get("A").procesoId());
+        assertThrows(UnsupportedOperationException.class, () -> ruta.predecessors().get("B").add("X"));
+    }
+
+    private static SemiTerminado semi(String id) {
+        SemiTerminado semi = new SemiTerminado();
+        semi.setProductoId(id);
+        return semi;
+    }
+
+    private static ManufacturingVersions version(Long id, SemiTerminado producto, int numero, String insumosJson) {
+        ManufacturingVersions version = new ManufacturingVersions();
+        version.setId(id);
+        version.setProducto(producto);
+        version.setVersionNumber(numero);
+        version.setInsumosJson(insumosJson);
+        return version;
+    }
+
+    private static ManufacturingVersionRepo.UltimaVersionProjection ultima(String productoId, Long versionId, int numero) {
+        var fila = mock(ManufacturingVersionRepo.UltimaVersionProjection.class);
+        when(fila.getProductoId()).thenReturn(productoId);
+        when(fila.getVersionId()).thenReturn(versionId);
+        when(fila.getVersionNumber()).thenReturn(numero);
+        return fila;
+    }
+}
@@ -10,6 +10,7 @@ import exotic.app.planta.repo.producto.manufacturing.snapshots.ManufacturingVers
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.time.Clock;
 import java.util.Map;
 import java.util.Optional;
 
@@ -26,7 +27,9 @@ class MaterialRequirementSnapshotServiceTest {
         ProductoRepo productoRepo = mock(ProductoRepo.class);
         ManufacturingVersionRepo versionRepo = mock(ManufacturingVersionRepo.class);
         MaterialRequirementSnapshotService service = new MaterialRequirementSnapshotService(
-                productoRepo, versionRepo, new ObjectMapper());
+                productoRepo,
+                new ManufacturingVersionCache(versionRepo, new ObjectMapper(), Clock.systemUTC(), Runnable::run),
+                new ObjectMapper());
 
         Terminado terminado = terminado("TER-001", "U");
         SemiTerminado granel = semi("GRANEL-001", "KG", true);
@@ -51,7 +54,9 @@ class MaterialRequirementSnapshotServiceTest {
         ProductoRepo productoRepo = mock(ProductoRepo.class);
         ManufacturingVersionRepo versionRepo = mock(ManufacturingVersionRepo.class);
         MaterialRequirementSnapshotService service = new MaterialRequirementSnapshotService(
-                productoRepo, versionRepo, new ObjectMapper());
+                productoRepo,
+                new ManufacturingVersionCache(versionRepo, new ObjectMapper(), Clock.systemUTC(), Runnable::run),
+                new ObjectMapper());
 
         Terminado terminado = terminado("TER-001", "U");
         SemiTerminado granel = semi("GRANEL-001", "KG", true);
@@ -1,13 +1,15 @@
 package exotic.app.planta.service.produccion;
 
+import exotic.app.planta.model.empresa.JornadaLaboralBloque;
+import exotic.app.planta.model.empresa.JornadaLaboralVersion;
 import exotic.app.planta.model.organizacion.AreaOperativa;
-import exotic.app.planta.model.produccion.ActorTipoEventoSeguimiento;
 import exotic.app.planta.model.produccion.EstadoSeguimientoOrdenArea;
-import exotic.app.planta.model.produccion.SeguimientoOrdenArea;
-import exotic.app.planta.model.produccion.SeguimientoOrdenAreaEvento;
+import exotic.app.planta.repo.empresa.DiaFestivoRepo;
+import exotic.app.planta.repo.empresa.JornadaLaboralVersionRepo;
 import exotic.app.planta.repo.producto.procesos.AreaProduccionRepo;
-import exotic.app.planta.repo.produccion.SeguimientoOrdenAreaEventoRepo;
-import exotic.app.planta.repo.produccion.SeguimientoOrdenAreaRepo;
+import exotic.app.planta.repo.produccion.SeguimientoOrdenAreaIntervaloRepo;
+import exotic.app.planta.repo.produccion.SeguimientoOrdenAreaIntervaloRepo.ResumenEstadoProjection;
+import exotic.app.planta.service.empresa.CalendarioLaboralRegistry;
 import exotic.app.planta.service.produccion.MonitoreoAreasOperativasMetricasService.AreaOperativaMetricasDTO;
 import exotic.app.planta.service.produccion.SeguimientoOrdenAreaService.AreaOperativaTableroDTO;
 import exotic.app.planta.service.produccion.SeguimientoOrdenAreaService.SeguimientoOrdenAreaDTO;
@@ -15,6 +17,7 @@ import org.junit.jupiter.api.Test;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,13 +29,18 @@ import static org.mockito.Mockito.when;
 
 class MonitoreoAreasOperativasMetricasServiceTest {
 
+    private static final List<Integer> ESTADOS = List.of(
+            EstadoSeguimientoOrdenArea.ESPERA.getCode(),
+            EstadoSeguimientoOrdenArea.EN_PROCESO.getCode()
+    );
+
+    private final SeguimientoOrdenAreaIntervaloRepo intervaloRepo = mock(SeguimientoOrdenAreaIntervaloRepo.class);
+    private final AreaProduccionRepo areaRepo = mock(AreaProduccionRepo.class);
+    private final JornadaLaboralVersionRepo jornadaRepo = mock(JornadaLaboralVersionRepo.class);
+
     @Test
     void getMetricasArea_actual_reusesSnapshotMetrics() {
         SeguimientoOrdenAreaService seguimientoService = mock(SeguimientoOrdenAreaService.class);
-        SeguimientoOrdenAreaRepo seguimientoRepo = mock(SeguimientoOrdenAreaRepo.class);
-        SeguimientoOrdenAreaEventoRepo eventoRepo = mock(SeguimientoOrdenAreaEventoRepo.class);
-        AreaProduccionRepo areaRepo = mock(AreaProduccionRepo.class);
-
         AreaOperativaTableroDTO tablero = new AreaOperativaTableroDTO();
         tablero.setFechaConsulta(LocalDate.of(2026, 5, 4));
         tablero.setPromedioMinutosEspera(12.5);
@@ -44,9 +52,9 @@ class MonitoreoAreasOperativasMetricasServiceTest {
 
         MonitoreoAreasOperativasMetricasService service = new MonitoreoAreasOperativasMetricasService(
                 seguimientoService,
-                seguimientoRepo,
-                eventoRepo,
-                areaRepo
+                intervaloRepo,
+                areaRepo,
+                new CalendarioLaboralRegistry(jornadaRepo, mock(DiaFestivoRepo.class))
         );
 
         AreaOperativaMetricasDTO dto = service.getMetricasArea(7, "actual", LocalDate.of(2026, 5, 4), null, null);
@@ -60,8 +68,40 @@ class MonitoreoAreasOperativasMetricasServiceTest {
     }
 
     @Test
-    void getMetricasArea_historico_calculatesClosedIntervalsForEsperaAndProceso() {
-        MonitoreoAreasOperativasMetricasService service = createHistoricalService(buildMainFlowEvents());
+    void getMetricasArea_actual_countsOnlyWorkingMinutesOfTheCurrentJornada() {
+        SeguimientoOrdenAreaService seguimientoService = mock(SeguimientoOrdenAreaService.class);
+        AreaOperativaTableroDTO tablero = new AreaOperativaTableroDTO();
+        tablero.setFechaConsulta(LocalDate.of(2026, 5, 5));
+        tablero.setInstanteFoto(LocalDateTime.of(2026, 5, 5, 9, 0));
+        tablero.setEspera(List.of(
+                seguimientoDesde(LocalDateTime.of(2026, 5, 4, 16, 0)),
+                seguimientoDesde(LocalDateTime.of(2026, 5, 5, 8, 30))));
+        tablero.setEnProceso(List.of(seguimientoDesde(LocalDateTime.of(2026, 5, 4, 20, 0))));
+        when(seguimientoService.getTableroAreaPorFecha(7, LocalDate.of(2026, 5, 5))).thenReturn(tablero);
+        when(jornadaRepo.findFirstByEstadoOrderByVersionDesc(JornadaLaboralVersion.Estado.VIGENTE))
+                .thenReturn(Optional.of(jornadaLunesMartes()));
+
+        MonitoreoAreasOperativasMetricasService service = new MonitoreoAreasOperativasMetricasService(
+                seguimientoService,
+                intervaloRepo,
+                areaRepo,
+                new CalendarioLaboralRegistry(jornadaRepo, mock(DiaFestivoRepo.class))
+        );
+
+        AreaOperativaMetricasDTO dto = service.getMetricasArea(7, "actual", LocalDate.of(2026, 5, 5), null, null);
+
+        // 16:00 -> 17:00 del lunes mas 08:00 -> 09:00 del martes; 08:30 -> 09:00; la noche no cuenta.
+        assertEquals(75.0, dto.getPromedioMinutosLaborablesEspera());
+        assertEquals(60.0, dto.getPromedioMinutosLaborablesEnProceso());
+    }
+
+    @Test
+    void getMetricasArea_historico_averagesClosedIntervalsForEsperaAndProceso() {
+        when(intervaloRepo.resumirPorEstado(7, ESTADOS)).thenReturn(List.of(
+                resumen(EstadoSeguimientoOrdenArea.ESPERA, 2, 45),
+                resumen(EstadoSeguimientoOrdenArea.EN_PROCESO, 2, 75)
+        ));
+        MonitoreoAreasOperativasMetricasService service = createHistoricalService();
 
         AreaOperativaMetricasDTO dto = service.getMetricasArea(7, "historico", null, null, null);
 
@@ -74,7 +114,16 @@ class MonitoreoAreasOperativasMetricasServiceTest {
 
     @Test
     void getMetricasArea_rango_filtersByClosedAtDate() {
-        MonitoreoAreasOperativasMetricasService service = createHistoricalService(buildRangeEvents());
+        when(intervaloRepo.resumirPorEstadoCerradosEntre(
+                7,
+                ESTADOS,
+                LocalDateTime.of(2026, 5, 2, 0, 0),
+                LocalDateTime.of(2026, 5, 3, 0, 0)
+        )).thenReturn(List.of(
+                resumen(EstadoSeguimientoOrdenArea.ESPERA, 1, 30),
+                resumen(EstadoSeguimientoOrdenArea.EN_PROCESO, 1, 60)
+        ));
+        MonitoreoAreasOperativasMetricasService service = createHistoricalService();
 
         AreaOperativaMetricasDTO dto = service.getMetricasArea(
                 7,
@@ -95,9 +144,8 @@ class MonitoreoAreasOperativasMetricasServiceTest {
 
     @Test
     void getMetricasArea_historico_withoutClosedIntervals_returnsNullAndZeroSamples() {
-        MonitoreoAreasOperativasMetricasService service = createHistoricalService(List.of(
-                event(1L, null, EstadoSeguimientoOrdenArea.ESPERA, LocalDateTime.of(2026, 5, 1, 8, 0))
-        ));
+        when(intervaloRepo.resumirPorEstado(7, ESTADOS)).thenReturn(List.of());
+        MonitoreoAreasOperativasMetricasService service = createHistoricalService();
 
         AreaOperativaMetricasDTO dto = service.getMetricasArea(7, "historico", null, null, null);
 
@@ -109,7 +157,7 @@ class MonitoreoAreasOperativasMetricasServiceTest {
 
     @Test
     void getMetricasArea_rangoInvalid_throwsValidationError() {
-        MonitoreoAreasOperativasMetricasService service = createHistoricalService(buildMainFlowEvents());
+        MonitoreoAreasOperativasMetricasService service = createHistoricalService();
 
         assertThrows(
                 IllegalArgumentException.class,
@@ -123,65 +171,44 @@ class MonitoreoAreasOperativasMetricasServiceTest {
         );
     }
 
-    private MonitoreoAreasOperativasMetricasService createHistoricalService(List<SeguimientoOrdenAreaEvento> events) {
-        SeguimientoOrdenAreaService seguimientoService = mock(SeguimientoOrdenAreaService.class);
-        SeguimientoOrdenAreaRepo seguimientoRepo = mock(SeguimientoOrdenAreaRepo.class);
-        SeguimientoOrdenAreaEventoRepo eventoRepo = mock(SeguimientoOrdenAreaEventoRepo.class);
-        AreaProduccionRepo areaRepo = mock(AreaProduccionRepo.class);
-
+    private MonitoreoAreasOperativasMetricasService createHistoricalService() {
         AreaOperativa area = new AreaOperativa();
         area.setAreaId(7);
-
-        SeguimientoOrdenArea seguimiento = new SeguimientoOrdenArea();
-        seguimiento.setId(1L);
-
         when(areaRepo.findById(7)).thenReturn(Optional.of(area));
-        when(seguimientoRepo.findTableroByAreaId(7)).thenReturn(List.of(seguimiento));
-        when(eventoRepo.findBySeguimientoOrdenArea_IdInOrderByFechaEventoAscIdAsc(List.of(1L))).thenReturn(events);
 
         return new MonitoreoAreasOperativasMetricasService(
-                seguimientoService,
-                seguimientoRepo,
-                eventoRepo,
-                areaRepo
+                mock(SeguimientoOrdenAreaService.class),
+                intervaloRepo,
+                areaRepo,
+                new CalendarioLaboralRegistry(jornadaRepo, mock(DiaFestivoRepo.class))
         );
     }
 
-    private List<SeguimientoOrdenAreaEvento> buildMainFlowEvents() {
-        return List.of(
-                event(1L, null, EstadoSeguimientoOrdenArea.ESPERA, LocalDateTime.of(2026, 5, 1, 8, 0)),
-                event(1L, EstadoSeguimientoOrdenArea.ESPERA, EstadoSeguimientoOrdenArea.EN_PROCESO, LocalDateTime.of(2026, 5, 1, 8, 15)),
-                event(1L, EstadoSeguimientoOrdenArea.EN_PROCESO, EstadoSeguimientoOrdenArea.ESPERA, LocalDateTime.of(2026, 5, 1, 9, 0)),
-                event(1L, EstadoSeguimientoOrdenArea.ESPERA, EstadoSeguimientoOrdenArea.EN_PROCESO, LocalDateTime.of(2026, 5, 1, 9, 30)),
-                event(1L, EstadoSeguimientoOrdenArea.EN_PROCESO, EstadoSeguimientoOrdenArea.COMPLETADO, LocalDateTime.of(2026, 5, 1, 10, 0))
-        );
+    private static SeguimientoOrdenAreaDTO seguimientoDesde(LocalDateTime fechaEstadoActual) {
+        SeguimientoOrdenAreaDTO dto = new SeguimientoOrdenAreaDTO();
+        dto.setFechaEstadoActual(fechaEstadoActual);
+        return dto;
     }
 
-    private List<SeguimientoOrdenAreaEvento> buildRangeEvents() {
-        return List.of(
-                event(1L, null, EstadoSeguimientoOrdenArea.ESPERA, LocalDateTime.of(2026, 5, 1, 8, 0)),
-                event(1L, EstadoSeguimientoOrdenArea.ESPERA, EstadoSeguimientoOrdenArea.EN_PROCESO, LocalDateTime.of(2026, 5, 1, 8, 10)),
-                event(1L, EstadoSeguimientoOrdenArea.EN_PROCESO, EstadoSeguimientoOrdenArea.ESPERA, LocalDateTime.of(2026, 5, 1, 8, 50)),
-                event(1L, EstadoSeguimientoOrdenArea.ESPERA, EstadoSeguimientoOrdenArea.EN_PROCESO, LocalDateTime.of(2026, 5, 2, 9, 0)),
-                event(1L, EstadoSeguimientoOrdenArea.EN_PROCESO, EstadoSeguimientoOrdenArea.COMPLETADO, LocalDateTime.of(2026, 5, 2, 10, 0))
-        );
+    private static JornadaLaboralVersion jornadaLunesMartes() {
+        JornadaLaboralVersion jornada = new JornadaLaboralVersion();
+        jornada.setId(3L);
+        for (int dia = 1; dia <= 2; dia++) {
+            JornadaLaboralBloque bloque = new JornadaLaboralBloque();
+            bloque.setJornadaLaboralVersion(jornada);
+            bloque.setDiaSemana(dia);
+            bloque.setOrden(1);
+            bloque.setHoraInicio(LocalTime.of(8, 0));
+            bloque.setHoraFin(LocalTime.of(17, 0));
+            jornada.getBloques().add(bloque);
+        }
+        return jornada;
+    }
+
+    private ResumenEstadoProjection resumen(EstadoSeguimientoOrdenArea estado, long muestras, long minutosTotal) {
+        return new Resumen(estado.getCode(), muestras, minutosTotal);
     }
 
-    private SeguimientoOrdenAreaEvento event(
-            Long seguimientoId,
-            EstadoSeguimientoOrdenArea estadoOrigen,
-            EstadoSeguimientoOrdenArea estadoDestino,
-            LocalDateTime fechaEvento
-    ) {
-        SeguimientoOrdenArea seguimiento = new SeguimientoOrdenArea();
-        seguimiento.setId(seguimientoId);
-
-        SeguimientoOrdenAreaEvento evento = new SeguimientoOrdenAreaEvento();
-        evento.setSeguimientoOrdenArea(seguimiento);
-        evento.setEstadoOrigen(estadoOrigen != null ? estadoOrigen.getCode() : null);
-        evento.setEstadoDestino(estadoDestino.getCode());
-        evento.setFechaEvento(fechaEvento);
-        evento.setActorTipo(ActorTipoEventoSeguimiento.SYSTEM);
-        return evento;
+    private record Resumen(Integer getEstado, Long getMuestras, Long getMinutosTotal) implements ResumenEstadoProjection {
     }
 }
@@ -0,0 +1,274 @@
+package exotic.app.planta.service.produccion;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import exotic.app.planta.config.AppTime;
+import exotic.app.planta.model.compras.metricas.ProveedorMaterialLeadTimeMetric;
+import exotic.app.planta.model.produccion.EstadoMpsSemanal;
+import exotic.app.planta.model.produccion.MasterProductionScheduleSemanal;
+import exotic.app.planta.model.produccion.MpsSemanalItem;
+import exotic.app.planta.model.produccion.MpsSemanalLotePlanificado;
+import exotic.app.planta.model.produccion.OrdenProduccion;
+import exotic.app.planta.model.producto.Material;
+import exotic.app.planta.model.producto.Producto;
+import exotic.app.planta.model.producto.SemiTerminado;
+import exotic.app.planta.model.producto.Terminado;
+import exotic.app.planta.model.producto.manufacturing.snapshots.ManufacturingVersions;
+import exotic.app.planta.repo.compras.ItemOrdenCompraRepo;
+import exotic.app.planta.repo.compras.metricas.ProveedorMaterialLeadTimeMetricRepo;
+import exotic.app.planta.repo.inventarios.TransaccionAlmacenRepo;
+import exotic.app.planta.repo.produccion.MasterProductionScheduleSemanalRepo;
+import exotic.app.planta.repo.produccion.MpsSemanalLotePlanificadoRepo;
+import exotic.app.planta.repo.producto.ProductoRepo;
+import exotic.app.planta.repo.producto.manufacturing.snapshots.ManufacturingVersionRepo;
+import exotic.app.planta.resource.produccion.exceptions.MpsSemanalNotFoundException;
+import exotic.app.planta.service.produccion.MrpSemanalService.NetoProducto;
+import exotic.app.planta.service.produccion.MrpSemanalService.OrdenPlanificada;
+import exotic.app.planta.service.produccion.MrpSemanalService.ResultadoMrp;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MrpSemanalServiceTest {
+
+    private static final ZoneId BOGOTA = ZoneId.of("America/Bogota");
+    private static final LocalDate SEMANA = LocalDate.of(2026, 6, 1);
+    private static final LocalDate NECESIDAD = LocalDate.of(2026, 6, 3);
+
+    private final MasterProductionScheduleSemanalRepo mpsRepo = mock(MasterProductionScheduleSemanalRepo.class);
+    private final MpsSemanalLotePlanificadoRepo loteRepo = mock(MpsSemanalLotePlanificadoRepo.class);
+    private final ManufacturingVersionRepo versionRepo = mock(ManufacturingVersionRepo.class);
+    private final ProductoRepo productoRepo = mock(ProductoRepo.class);
+    private final TransaccionAlmacenRepo transaccionAlmacenRepo = mock(TransaccionAlmacenRepo.class);
+    private final ItemOrdenCompraRepo itemOrdenCompraRepo = mock(ItemOrdenCompraRepo.class);
+    private final ProveedorMaterialLeadTimeMetricRepo leadTimeRepo = mock(ProveedorMaterialLeadTimeMetricRepo.class);
+    private final MrpSemanalService service = new MrpSemanalService(
+            mpsRepo,
+            loteRepo,
+            productoRepo,
+            transaccionAlmacenRepo,
+            itemOrdenCompraRepo,
+            leadTimeRepo,
+            new ManufacturingVersionCache(versionRepo, new ObjectMapper(), Clock.systemUTC(), Runnable::run));
+
+    private final Map<String, Producto> productos = new HashMap<>();
+    private final Map<String, ManufacturingVersions> versiones = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        AppTime.setClock(Clock.fixed(Instant.parse("2026-06-01T13:00:00Z"), BOGOTA));
+        when(versionRepo.findLatestByProductoIds(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> ids = invocation.getArgument(0);
+            return ids.stream().filter(versiones::containsKey).map(versiones::get).toList();
+        });
+        when(productoRepo.findAllById(any())).thenAnswer(invocation -> {
+            Iterable<String> ids = invocation.getArgument(0);
+            return StreamSupport.stream(ids.spliterator(), false)
+                    .filter(productos::containsKey)
+                    .map(productos::get)
+                    .toList();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        AppTime.setClock(Clock.system(BOGOTA));
+    }
+
+    @Test
+    void netsEveryLevelAgainstStockOpenPurchasesAndDispensedMaterial() {
+        Terminado terminado = terminado("TER-001");
+        SemiTerminado granel = semi("GRANEL-001", true);
+        SemiTerminado fase = semi("FASE-001", false);
+        material("MAT-A");
+        material("MAT-B");
+        material("CAJA");
+        version(terminado,
+                "[{\"productoId\":\"GRANEL-001\",\"cantidadRequerida\":2},"
+                        + "{\"productoId\":\"FASE-001\",\"cantidadRequerida\":1}]",
+                "{\"unitsPerCase\":5,\"insumosEmpaque\":[{\"materialId\":\"CAJA\",\"cantidad\":1}]}");
+        version(fase, "[{\"productoId\":\"MAT-A\",\"cantidadRequerida\":3}]", null);
+        version(granel, "[{\"productoId\":\"MAT-B\",\"cantidadRequerida\":4}]", null);
+
+        MpsSemanalItem item = new MpsSemanalItem();
+        item.setTerminado(terminado);
+        item.setFechaLanzamiento(NECESIDAD);
+        mps(EstadoMpsSemanal.APROBADO);
+        when(loteRepo.findByMpsIdAndEstadosOrdered(eq(1), anyCollection())).thenReturn(List.of(
+                lote(item, 10, null),
+                lote(item, 5, orden(7, 0)),
+                lote(item, 40, orden(8, 2))));
+
+        var dispensado = mock(TransaccionAlmacenRepo.OpenProductionMaterialProjection.class);
+        when(dispensado.getOpId()).thenReturn(7);
+        when(dispensado.getProductoId()).thenReturn("MAT-A");
+        when(dispensado.getCantidad()).thenReturn(6.0);
+        when(transaccionAlmacenRepo.findOpenProductionMaterialTotalsByOrderIds(any(), any(), anyCollection(), anyCollection()))
+                .thenReturn(List.of(dispensado));
+        when(transaccionAlmacenRepo.findTotalCantidadByProductoIds(anyCollection())).thenReturn(List.of(
+                new Object[]{"GRANEL-001", 10.0},
+                new Object[]{"MAT-A", 4.0},
+                new Object[]{"CAJA", 3.0}));
+
+        var ordenado = mock(ItemOrdenCompraRepo.PendingPurchaseItemProjection.class);
+        when(ordenado.getOcmId()).thenReturn(50);
+        when(ordenado.getProductoId()).thenReturn("MAT-A");
+        when(ordenado.getCantidad()).thenReturn(20.0);
+        when(itemOrdenCompraRepo.findPendingRowsForBi(anyInt())).thenReturn(List.of(ordenado));
+        var recibido = mock(TransaccionAlmacenRepo.EntityProductQuantityProjection.class);
+        when(recibido.getEntityId()).thenReturn(50);
+        when(recibido.getProductId()).thenReturn("MAT-A");
+        when(recibido.getQuantity()).thenReturn(5.0);
+        when(transaccionAlmacenRepo.findReceiptTotalsByCauseAndEntities(any(), any(), any(), anyCollection()))
+                .thenReturn(List.of(recibido));
+        when(leadTimeRepo.findByMaterial_ProductoIdIn(anyCollection())).thenReturn(List.of(
+                leadTime("MAT-A", LocalDate.of(2026, 4, 30), 9.0),
+                leadTime("MAT-A", LocalDate.of(2026, 5, 31), 2.4)));
+
+        ResultadoMrp resultado = service.ejecutar(SEMANA);
+
+        assertEquals(2, resultado.lotesExplotados());
+        Map<String, NetoProducto> netos = new HashMap<>();
+        resultado.netos().forEach(neto -> netos.put(neto.productoId(), neto));
+        assertFalse(netos.containsKey("FASE-001"));
+        assertEquals(0, new BigDecimal("30").compareTo(netos.get("GRANEL-001").requerimientoBruto()));
+        assertEquals(0, new BigDecimal("39").compareTo(netos.get("MAT-A").requerimientoBruto()));
+        assertEquals(0, new BigDecimal("6").compareTo(netos.get("MAT-A").wipDescontado()));
+        assertEquals(0, new BigDecimal("15").compareTo(netos.get("MAT-A").ocmAbiertas()));
+        assertEquals(0, new BigDecimal("20").compareTo(netos.get("MAT-A").requerimientoNeto()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(netos.get("CAJA").requerimientoNeto()));
+
+        assertEquals(1, resultado.ordenesFabricacion().size());
+        OrdenPlanificada fabricacion = resultado.ordenesFabricacion().getFirst();
+        assertEquals("GRANEL-001", fabricacion.productoId());
+        assertEquals(0, new BigDecimal("20").compareTo(fabricacion.cantidad()));
+
+        assertEquals(List.of("MAT-A", "MAT-B"),
+                resultado.ordenesCompra().stream().map(OrdenPlanificada::productoId).toList());
+        OrdenPlanificada compraA = resultado.ordenesCompra().get(0);
+        assertEquals(NECESIDAD.minusDays(3), compraA.fechaLiberacion());
+        assertTrue(compraA.liberacionVencida());
+        OrdenPlanificada compraB = resultado.ordenesCompra().get(1);
+        assertEquals(0, new BigDecimal("80").compareTo(compraB.cantidad()));
+        assertEquals(NECESIDAD, compraB.fechaLiberacion());
+        assertFalse(compraB.liberacionVencida());
+        verify(versionRepo, times(2)).findLatestByProductoIds(anyCollection());
+    }
+
+    @Test
+    void draftAndMissingWeeksAreRejected() {
+        when(mpsRepo.findByWeekStartDate(SEMANA)).thenReturn(Optional.empty());
+        assertThrows(MpsSemanalNotFoundException.class, () -> service.ejecutar(SEMANA));
+
+        mps(EstadoMpsSemanal.BORRADOR);
+        assertThrows(IllegalStateException.class, () -> service.ejecutar(SEMANA));
+    }
+
+    @Test
+    void recipeCyclesThroughPhantomSemisAreReported() {
+        Terminado terminado = terminado("TER-001");
+        SemiTerminado a = semi("FASE-A", false);
+        SemiTerminado b = semi("FASE-B", false);
+        version(terminado, "[{\"productoId\":\"FASE-A\",\"cantidadRequerida\":1}]", null);
+        version(a, "[{\"productoId\":\"FASE-B\",\"cantidadRequerida\":1}]", null);
+        version(b, "[{\"productoId\":\"FASE-A\",\"cantidadRequerida\":1}]", null);
+        MpsSemanalItem item = new MpsSemanalItem();
+        item.setTerminado(terminado);
+        item.setFechaLanzamiento(NECESIDAD);
+        mps(EstadoMpsSemanal.APROBADO);
+        when(loteRepo.findByMpsIdAndEstadosOrdered(eq(1), anyCollection())).thenReturn(List.of(lote(item, 1, null)));
+
+        IllegalStateException error = assertThrows(IllegalStateException.class, () -> service.ejecutar(SEMANA));
+
+        assertTrue(error.getMessage().contains("ciclo"), error.getMessage());
+    }
+
+    private void mps(EstadoMpsSemanal estado) {
+        MasterProductionScheduleSemanal mps = new MasterProductionScheduleSemanal();
+        mps.setMpsId(1);
+        mps.setWeekStartDate(SEMANA);
+        mps.setEstado(estado);
+        when(mpsRepo.findByWeekStartDate(SEMANA)).thenReturn(Optional.of(mps));
+    }
+
+    private Terminado terminado(String id) {
+        Terminado producto = new Terminado();
+        registrar(producto, id, "U");
+        return producto;
+    }
+
+    private SemiTerminado semi(String id, boolean requiereOrden) {
+        SemiTerminado producto = new SemiTerminado();
+        registrar(producto, id, "KG");
+        producto.setInventareable(requiereOrden);
+        producto.setRequiereOrdenFabricacion(requiereOrden);
+        return producto;
+    }
+
+    private void material(String id) {
+        registrar(new Material(), id, "KG");
+    }
+
+    private void registrar(Producto producto, String id, String unidad) {
+        producto.setProductoId(id);
+        producto.setNombre(id);
+        producto.setTipoUnidades(unidad);
+        producto.setInventareable(true);
+        productos.put(id, producto);
+    }
+
+    private void version(Producto producto, String insumosJson, String casePackJson) {
+        ManufacturingVersions version = new ManufacturingVersions();
+        version.setProducto(producto);
+        version.setInsumosJson(insumosJson);
+        version.setCasePackJson(casePackJson);
+        versiones.put(producto.getProductoId(), version);
+    }
+
+    private static MpsSemanalLotePlanificado lote(MpsSemanalItem item, double cantidad, OrdenProduccion orden) {
+        MpsSemanalLotePlanificado lote = new MpsSemanalLotePlanificado();
+        lote.setMpsItem(item);
+        lote.setCantidadPlanificada(cantidad);
+        lote.setOrdenProduccion(orden);
+        return lote;
+    }
+
+    private static OrdenProduccion orden(int ordenId, int estado) {
+        OrdenProduccion orden = new OrdenProduccion();
+        orden.setOrdenId(ordenId);
+        orden.setEstadoOrden(estado);
+        return orden;
+    }
+
+    private ProveedorMaterialLeadTimeMetric leadTime(String materialId, LocalDate fechaCorte, double dias) {
+        ProveedorMaterialLeadTimeMetric metrica = new ProveedorMaterialLeadTimeMetric();
+        metrica.setMaterial((Material) productos.get(materialId));
+        metrica.setFechaCorte(fechaCorte);
+        metrica.setLeadTimeMedianoDias(dias);
+        return metrica;
+    }
+}
@@ -0,0 +1,211 @@
+package exotic.app.planta.service.produccion;
+
+import exotic.app.planta.model.produccion.OrdenProduccion;
+import exotic.app.planta.model.produccion.SeguimientoOrdenArea;
+import exotic.app.planta.model.produccion.TableroAreaCambioEvent;
+import exotic.app.planta.repo.empresa.DiaFestivoRepo;
+import exotic.app.planta.repo.empresa.JornadaLaboralVersionRepo;
+import exotic.app.planta.repo.produccion.SeguimientoOrdenAreaRepo;
+import exotic.app.planta.repo.produccion.SeguimientoOrdenAreaRepo.PlanificacionSeguimientoProjection;
+import exotic.app.planta.repo.produccion.ruprocatdesigner.RutaProcesoEdgeRepo;
+import exotic.app.planta.service.empresa.CalendarioLaboral;
+import exotic.app.planta.service.empresa.CalendarioLaboralRegistry;
+import exotic.app.planta.service.produccion.PlanCapacidadFinitaService.AreaPlan;
+import exotic.app.planta.service.produccion.PlanCapacidadFinitaService.Carga;
+import exotic.app.planta.service.produccion.PlanCapacidadFinitaService.OrdenPlan;
+import exotic.app.planta.service.produccion.PlanCapacidadFinitaService.OrdenProyectada;
+import exotic.app.planta.service.produccion.PlanCapacidadFinitaService.PlanCapacidad;
+import exotic.app.planta.service.produccion.PlanCapacidadFinitaService.SeguimientoPlan;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PlanCapacidadFinitaServiceTest {
+
+    private static final LocalDateTime AHORA = LocalDateTime.of(2026, 6, 29, 8, 0);
+
+    @Test
+    void ordersShareAreaSlotsByPriorityInsteadOfOverlapping() {
+        Carga carga = carga(
+                List.of(
+                        seguimiento(1L, 10, 100L, 1, SeguimientoOrdenArea.ESTADO_ESPERA, 0, 60),
+                        seguimiento(2L, 20, 200L, 1, SeguimientoOrdenArea.ESTADO_ESPERA, 0, 60),
+                        seguimiento(3L, 30, 300L, 1, SeguimientoOrdenArea.ESTADO_ESPERA, 0, 60)),
+                List.of(
+                        orden(10, AHORA.plusDays(3)),
+                        orden(20, AHORA.plusDays(1)),
+                        orden(30, null)),
+                List.of(new AreaPlan(1, "Mezcla", 2)),
+                Map.of());
+
+        Map<Integer, OrdenProyectada> ordenes = porOrden(PlanCapacidadFinitaService.planificar(carga, AHORA));
+
+        assertEquals(AHORA, ordenes.get(20).inicioProyectado());
+        assertEquals(AHORA, ordenes.get(10).inicioProyectado());
+        assertEquals(AHORA.plusMinutes(60), ordenes.get(30).inicioProyectado());
+        assertEquals(AHORA.plusMinutes(120), ordenes.get(30).finProyectado());
+    }
+
+    @Test
+    void runningStepHoldsItsSlotAndSuccessorsWaitForPredecessors() {
+        // Orden 10: A (en proceso desde hace 30 min, 60 min) -> B (30 min). Orden 20: A (45 min).
+        Carga carga = carga(
+                List.of(
+                        seguimiento(1L, 10, 100L, 1, SeguimientoOrdenArea.ESTADO_EN_PROCESO, 0, 60,
+                                AHORA.minusMinutes(30)),
+                        seguimiento(2L, 10, 101L, 2, SeguimientoOrdenArea.ESTADO_COLA, 1, 30),
+                        seguimiento(3L, 20, 100L, 1, SeguimientoOrdenArea.ESTADO_ESPERA, 0, 45)),
+                List.of(orden(10, AHORA.plusDays(1)), orden(20, AHORA)),
+                List.of(new AreaPlan(1, "Mezcla", 1), new AreaPlan(2, "Envasado", 1)),
+                Map.of(101L, List.of(100L)));
+
+        PlanCapacidad plan = PlanCapacidadFinitaService.planificar(carga, AHORA);
+        Map<Integer, OrdenProyectada> ordenes = porOrden(plan);
+
+        assertEquals(AHORA.minusMinutes(30), ordenes.get(10).inicioProyectado());
+        assertEquals(AHORA.plusMinutes(60), ordenes.get(10).finProyectado());
+        assertEquals(AHORA.plusMinutes(30), ordenes.get(20).inicioProyectado());
+        assertEquals(AHORA.plusMinutes(75), ordenes.get(20).finProyectado());
+        assertEquals(75L, ordenes.get(20).retrasoMinutos());
+        assertEquals(List.of(1L, 3L), plan.areas().get(0).operaciones().stream()
+                .map(PlanCapacidadFinitaService.OperacionProyectada::seguimientoId)
+                .toList());
+    }
+
+    @Test
+    void stateChangeIsReplannedInTheBackgroundWhileReadsServeThePublishedPlan() {
+        SeguimientoOrdenAreaRepo seguimientoRepo = mock(SeguimientoOrdenAreaRepo.class);
+        RutaProcesoEdgeRepo edgeRepo = mock(RutaProcesoEdgeRepo.class);
+        JornadaLaboralVersionRepo jornadaRepo = mock(JornadaLaboralVersionRepo.class);
+        Clock clock = Clock.fixed(AHORA.toInstant(ZoneOffset.UTC), ZoneId.of("UTC"));
+        PlanificacionSeguimientoProjection primera = fila(1L, 10, SeguimientoOrdenArea.ESTADO_ESPERA);
+        PlanificacionSeguimientoProjection segunda = fila(2L, 20, SeguimientoOrdenArea.ESTADO_ESPERA);
+        PlanificacionSeguimientoProjection primeraCompletada = fila(1L, 10, SeguimientoOrdenArea.ESTADO_COMPLETADO);
+        when(seguimientoRepo.findPlanificacionOrdenesAbiertas(OrdenProduccion.ESTADOS_SIN_REQUERIMIENTO, null))
+                .thenReturn(List.of(primera, segunda));
+        when(seguimientoRepo.findPlanificacionOrdenesAbiertas(OrdenProduccion.ESTADOS_SIN_REQUERIMIENTO, List.of(1)))
+                .thenReturn(List.of(primeraCompletada, segunda));
+        PlanCapacidadFinitaService service = new PlanCapacidadFinitaService(
+                seguimientoRepo, edgeRepo, new CalendarioLaboralRegistry(jornadaRepo, mock(DiaFestivoRepo.class)), clock);
+
+        assertFalse(service.disponible());
+        assertThrows(IllegalStateException.class, service::getPlan);
+
+        service.sembrar();
+        assertEquals(AHORA.plusMinutes(60), service.getOrden(20).orElseThrow().inicioProyectado());
+
+        service.onCambio(new TableroAreaCambioEvent(1));
+        // Hasta el refresco se sirve el plan publicado, sin leer la base de datos.
+        assertEquals(AHORA.plusMinutes(60), service.getOrden(20).orElseThrow().inicioProyectado());
+        verify(seguimientoRepo, never()).findPlanificacionOrdenesAbiertas(OrdenProduccion.ESTADOS_SIN_REQUERIMIENTO, List.of(1));
+
+        service.actualizar();
+
+        assertEquals(AHORA, service.getOrden(20).orElseThrow().inicioProyectado());
+        assertEquals(List.of(2L), service.getArea(1).orElseThrow().operaciones().stream()
+                .map(PlanCapacidadFinitaService.OperacionProyectada::seguimientoId)
+                .toList());
+        service.actualizar();
+        verify(seguimientoRepo, times(1)).findPlanificacionOrdenesAbiertas(OrdenProduccion.ESTADOS_SIN_REQUERIMIENTO, null);
+        verify(seguimientoRepo, times(1)).findPlanificacionOrdenesAbiertas(OrdenProduccion.ESTADOS_SIN_REQUERIMIENTO, List.of(1));
+        verify(edgeRepo, times(0)).findAristasByRutaVersionIds(anyCollection());
+    }
+
+    @Test
+    void failedRefreshKeepsThePublishedPlanAndRetriesTheMarkedAreas() {
+        SeguimientoOrdenAreaRepo seguimientoRepo = mock(SeguimientoOrdenAreaRepo.class);
+        Clock clock = Clock.fixed(AHORA.toInstant(ZoneOffset.UTC), ZoneId.of("UTC"));
+        PlanificacionSeguimientoProjection primera = fila(1L, 10, SeguimientoOrdenArea.ESTADO_ESPERA);
+        PlanificacionSeguimientoProjection segunda = fila(2L, 20, SeguimientoOrdenArea.ESTADO_ESPERA);
+        PlanificacionSeguimientoProjection primeraCompletada = fila(1L, 10, SeguimientoOrdenArea.ESTADO_COMPLETADO);
+        when(seguimientoRepo.findPlanificacionOrdenesAbiertas(OrdenProduccion.ESTADOS_SIN_REQUERIMIENTO, null))
+                .thenReturn(List.of(primera, segunda));
+        when(seguimientoRepo.findPlanificacionOrdenesAbiertas(OrdenProduccion.ESTADOS_SIN_REQUERIMIENTO, List.of(1)))
+                .thenThrow(new IllegalStateException("sin conexion"))
+                .thenReturn(List.of(primeraCompletada, segunda));
+        PlanCapacidadFinitaService service = new PlanCapacidadFinitaService(
+                seguimientoRepo,
+                mock(RutaProcesoEdgeRepo.class),
+                new CalendarioLaboralRegistry(mock(JornadaLaboralVersionRepo.class), mock(DiaFestivoRepo.class)),
+                clock);
+        service.sembrar();
+        service.onCambio(new TableroAreaCambioEvent(1));
+
+        assertThrows(IllegalStateException.class, service::actualizar);
+        assertEquals(AHORA.plusMinutes(60), service.getOrden(20).orElseThrow().inicioProyectado());
+
+        service.actualizar();
+        assertEquals(AHORA, service.getOrden(20).orElseThrow().inicioProyectado());
+    }
+
+    private static Carga carga(
+            List<SeguimientoPlan> seguimientos,
+            List<OrdenPlan> ordenes,
+            List<AreaPlan> areas,
+            Map<Long, List<Long>> predecesores
+    ) {
+        return new Carga(
+                seguimientos.stream().collect(Collectors.toMap(SeguimientoPlan::seguimientoId, Function.identity())),
+                ordenes.stream().collect(Collectors.toMap(OrdenPlan::ordenId, Function.identity())),
+                areas.stream().collect(Collectors.toMap(AreaPlan::areaId, Function.identity())),
+                predecesores,
+                Set.of(1L));
+    }
+
+    private static SeguimientoPlan seguimiento(
+            Long id, int ordenId, Long nodeId, int areaId, int estado, int posicion, int minutos) {
+        return seguimiento(id, ordenId, nodeId, areaId, estado, posicion, minutos, AHORA.minusDays(1));
+    }
+
+    private static SeguimientoPlan seguimiento(
+            Long id, int ordenId, Long nodeId, int areaId, int estado, int posicion, int minutos,
+            LocalDateTime fechaEstadoActual) {
+        return new SeguimientoPlan(id, ordenId, nodeId, 1L, areaId, estado, posicion, minutos, true,
+                fechaEstadoActual, null);
+    }
+
+    private static OrdenPlan orden(int ordenId, LocalDateTime fechaFinalPlanificada) {
+        return new OrdenPlan(ordenId, "L-" + ordenId, AHORA.minusDays(1), fechaFinalPlanificada, CalendarioLaboral.CONTINUO);
+    }
+
+    private static Map<Integer, OrdenProyectada> porOrden(PlanCapacidad plan) {
+        return plan.ordenes().stream().collect(Collectors.toMap(OrdenProyectada::ordenId, Function.identity()));
+    }
+
+    private static PlanificacionSeguimientoProjection fila(Long seguimientoId, int ordenId, int estado) {
+        PlanificacionSeguimientoProjection fila = mock(PlanificacionSeguimientoProjection.class);
+        when(fila.getSeguimientoId()).thenReturn(seguimientoId);
+        when(fila.getOrdenId()).thenReturn(ordenId);
+        when(fila.getLoteAsignado()).thenReturn("L-" + ordenId);
+        when(fila.getFechaLanzamiento()).thenReturn(AHORA.minusDays(1));
+        when(fila.getFechaFinalPlanificada()).thenReturn(AHORA.plusDays(ordenId));
+        when(fila.getAreaId()).thenReturn(1);
+        when(fila.getAreaNombre()).thenReturn("Mezcla");
+        when(fila.getAreaCapacidad()).thenReturn(1);
+        when(fila.getEstado()).thenReturn(estado);
+        when(fila.getPosicionSecuencia()).thenReturn(0);
+        when(fila.getDuracionEstimadaMinutos()).thenReturn(60);
+        when(fila.getRequiereJornadaLaboral()).thenReturn(false);
+        when(fila.getFechaEstadoActual()).thenReturn(AHORA.minusHours(1));
+        when(fila.getFechaCompletado()).thenReturn(estado == SeguimientoOrdenArea.ESTADO_COMPLETADO ? AHORA : null);
+        return fila;
+    }
+}
@@ -0,0 +1,232 @@
+package exotic.app.planta.service.produccion;
+
+import exotic.app.planta.model.empresa.JornadaLaboralBloque;
+import exotic.app.planta.model.produccion.VentaDiariaTerminado;
+import exotic.app.planta.model.produccion.dto.CargaVentasResultadoDTO;
+import exotic.app.planta.model.producto.Terminado;
+import exotic.app.planta.repo.inventarios.TransaccionAlmacenRepo;
+import exotic.app.planta.repo.produccion.VentaDiariaTerminadoRepo;
+import exotic.app.planta.repo.producto.TerminadoRepo;
+import exotic.app.planta.service.commons.CalculoParalelo;
+import exotic.app.planta.service.empresa.CalendarioLaboral;
+import exotic.app.planta.service.empresa.CalendarioLaboralRegistry;
+import exotic.app.planta.service.produccion.PronosticoDemandaCalculator.PronosticoDemanda;
+import exotic.app.planta.service.produccion.VentasExcelStreamReader.LecturaVentas;
+import exotic.app.planta.service.produccion.VentasExcelStreamReader.VentaDiaria;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PlaneacionVentasServiceTest {
+
+    /** Lunes. */
+    private static final LocalDate SEMANA = LocalDate.of(2026, 6, 1);
+
+    private final VentasExcelStreamReader reader = mock(VentasExcelStreamReader.class);
+    private final VentaDiariaTerminadoRepo ventaRepo = mock(VentaDiariaTerminadoRepo.class);
+    private final TerminadoRepo terminadoRepo = mock(TerminadoRepo.class);
+    private final TransaccionAlmacenRepo transaccionAlmacenRepo = mock(TransaccionAlmacenRepo.class);
+    private final CalculoParalelo calculoParalelo = new CalculoParalelo(2);
+    private final PronosticoDemandaCalculator calculator = new PronosticoDemandaCalculator(calculoParalelo);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final CalendarioLaboralRegistry calendarioLaboralRegistry = mock(CalendarioLaboralRegistry.class);
+    private final PlaneacionVentasService service = new PlaneacionVentasService(
+            reader, ventaRepo, terminadoRepo, transaccionAlmacenRepo, calculator,
+            new TransactionTemplate(transactionManager), calendarioLaboralRegistry);
+
+    @BeforeEach
+    void setUp() {
+        when(calendarioLaboralRegistry.vigente()).thenReturn(CalendarioLaboral.CONTINUO);
+    }
+
+    @AfterEach
+    void tearDown() {
+        calculoParalelo.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void loadReplacesTheCoveredDatesAndKeepsOnlyTerminados() throws IOException {
+        when(reader.leer(any())).thenReturn(new LecturaVentas("Ventas", 5, 0, 0, 0, List.of(
+                new VentaDiaria("T-001", SEMANA, 15, 1500, 2),
+                new VentaDiaria("T-001", SEMANA.plusDays(8), 2, 200, 1),
+                new VentaDiaria("MAT-9", SEMANA.plusDays(8), 4, 40, 1))));
+        stubTerminado("T-001");
+        when(transaccionAlmacenRepo.findTotalCantidadByProductoIds(anyCollection()))
+                .thenReturn(List.<Object[]>of(new Object[]{"T-001", 30.0}));
+
+        CargaVentasResultadoDTO resultado = cargar();
+
+        verify(ventaRepo).deleteByFechas(SEMANA, SEMANA.plusDays(8));
+        ArgumentCaptor<List<VentaDiariaTerminado>> captor = ArgumentCaptor.forClass(List.class);
+        verify(ventaRepo).saveAll(captor.capture());
+        assertEquals(2, captor.getValue().size());
+        assertTrue(captor.getValue().stream().allMatch(venta -> "T-001".equals(venta.getProductoId())));
+        assertEquals(9, resultado.getDiasReemplazados());
+        assertEquals(List.of("MAT-9"), resultado.getCodigosSinTerminado());
+        assertEquals(1, resultado.getTerminados().size());
+        assertEquals(17, resultado.getTerminados().get(0).getCantidadVendida());
+        assertEquals(30.0, resultado.getTerminados().get(0).getStockActualConsolidado());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void overlappingUploadsKeepTheDaysOfTheSharedWeek() throws IOException {
+        List<VentaDiariaTerminado> almacenadas = new ArrayList<>();
+        when(ventaRepo.deleteByFechas(any(), any())).thenAnswer(invocation -> {
+            LocalDate desde = invocation.getArgument(0);
+            LocalDate hasta = invocation.getArgument(1);
+            int antes = almacenadas.size();
+            almacenadas.removeIf(venta -> !venta.getFecha().isBefore(desde) && !venta.getFecha().isAfter(hasta));
+            return antes - almacenadas.size();
+        });
+        when(ventaRepo.saveAll(any())).thenAnswer(invocation -> {
+            almacenadas.addAll(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        stubTerminado("T-001");
+        // Junio termina un martes: los dos informes comparten la semana del lunes 29.
+        LocalDate lunes29 = LocalDate.of(2026, 6, 29);
+        when(reader.leer(any()))
+                .thenReturn(new LecturaVentas("Ventas", 3, 0, 0, 0, List.of(
+                        new VentaDiaria("T-001", LocalDate.of(2026, 6, 22), 7, 700, 1),
+                        new VentaDiaria("T-001", lunes29, 10, 1000, 1),
+                        new VentaDiaria("T-001", lunes29.plusDays(1), 5, 500, 1))))
+                .thenReturn(new LecturaVentas("Ventas", 2, 0, 0, 0, List.of(
+                        new VentaDiaria("T-001", lunes29.plusDays(2), 4, 400, 1),
+                        new VentaDiaria("T-001", lunes29.plusDays(6), 1, 100, 1))));
+
+        cargar();
+        cargar();
+        // Reenviar junio reemplaza solo sus dias y no duplica nada.
+        when(reader.leer(any())).thenReturn(new LecturaVentas("Ventas", 2, 0, 0, 0, List.of(
+                new VentaDiaria("T-001", LocalDate.of(2026, 6, 22), 7, 700, 1),
+                new VentaDiaria("T-001", lunes29, 10, 1000, 1),
+                new VentaDiaria("T-001", lunes29.plusDays(1), 5, 500, 1))));
+        cargar();
+
+        assertEquals(5, almacenadas.size());
+        LocalDate objetivo = lunes29.plusWeeks(1);
+        almacenadas.sort(Comparator.comparing(VentaDiariaTerminado::getFecha));
+        when(ventaRepo.findUltimaFechaAntesDe(objetivo)).thenReturn(Optional.of(lunes29.plusDays(6)));
+        when(ventaRepo.findHistoria(objetivo.minusWeeks(PlaneacionVentasService.HISTORIA_SEMANAS), objetivo))
+                .thenReturn(almacenadas);
+        assertArrayEquals(new double[]{7, 20},
+                PlaneacionVentasService.serieSemanal(almacenadas, lunes29));
+        assertEquals(2, service.pronosticarSemana(objetivo).get("T-001").semanasHistoria());
+    }
+
+    @Test
+    void unreadableReportIsRejectedBeforeOpeningTheTransaction() throws IOException {
+        when(reader.leer(any())).thenThrow(new IOException("zip invalido"));
+
+        assertThrows(IllegalArgumentException.class, this::cargar);
+        verify(transactionManager, never()).getTransaction(any());
+    }
+
+    @Test
+    void emptyUploadIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> service.cargarInformeVentas(
+                new MockMultipartFile("file", new byte[0]), "planeador"));
+    }
+
+    @Test
+    void forecastSeriesFillWeeksWithoutSalesUpToTheLastLoadedWeek() {
+        LocalDate objetivo = SEMANA.plusWeeks(6);
+        // Domingo: la semana 5 esta completa.
+        when(ventaRepo.findUltimaFechaAntesDe(objetivo)).thenReturn(Optional.of(SEMANA.plusWeeks(5).plusDays(6)));
+        when(ventaRepo.findHistoria(objetivo.minusWeeks(PlaneacionVentasService.HISTORIA_SEMANAS), objetivo))
+                .thenReturn(List.of(
+                        venta("A", SEMANA, 10),
+                        venta("A", SEMANA.plusWeeks(2).plusDays(3), 10),
+                        venta("B", SEMANA.plusWeeks(4), 2),
+                        venta("B", SEMANA.plusWeeks(4).plusDays(1), 4)));
+
+        Map<String, PronosticoDemanda> pronosticos = service.pronosticarSemana(objetivo.plusDays(2));
+
+        assertEquals(List.of("A", "B"), List.copyOf(pronosticos.keySet()));
+        assertEquals(6, pronosticos.get("A").semanasHistoria());
+        assertEquals(2, pronosticos.get("B").semanasHistoria());
+        assertEquals(3, pronosticos.get("B").demandaSemanal(), 1e-9);
+        assertArrayEquals(new double[]{10, 0, 10, 0, 0, 0},
+                PlaneacionVentasService.serieSemanal(
+                        List.of(venta("A", SEMANA, 10), venta("A", SEMANA.plusWeeks(2).plusDays(4), 10)),
+                        SEMANA.plusWeeks(5)));
+    }
+
+    @Test
+    void incompleteTrailingWeekIsLeftOutOfTheForecast() {
+        LocalDate objetivo = SEMANA.plusWeeks(3);
+        // Miercoles de la semana 2: esa semana todavia no esta completa.
+        when(ventaRepo.findUltimaFechaAntesDe(objetivo)).thenReturn(Optional.of(SEMANA.plusWeeks(2).plusDays(2)));
+        when(ventaRepo.findHistoria(objetivo.minusWeeks(PlaneacionVentasService.HISTORIA_SEMANAS), SEMANA.plusWeeks(2)))
+                .thenReturn(List.of(venta("A", SEMANA, 10), venta("A", SEMANA.plusWeeks(1), 10)));
+
+        Map<String, PronosticoDemanda> pronosticos = service.pronosticarSemana(objetivo);
+
+        assertEquals(2, pronosticos.get("A").semanasHistoria());
+        assertEquals(10, pronosticos.get("A").demandaSemanal(), 1e-9);
+        assertEquals(Optional.of(SEMANA.plusWeeks(1)), service.ultimaSemanaVentas(objetivo));
+    }
+
+    @Test
+    void weekIsCompleteOnceTheHistoryReachesItsLastWorkingDay() {
+        List<JornadaLaboralBloque> bloques = new ArrayList<>();
+        for (int dia = 1; dia <= 5; dia++) {
+            JornadaLaboralBloque bloque = new JornadaLaboralBloque();
+            bloque.setDiaSemana(dia);
+            bloque.setHoraInicio(LocalTime.of(7, 0));
+            bloque.setHoraFin(LocalTime.of(17, 0));
+            bloques.add(bloque);
+        }
+        CalendarioLaboral lunesViernes = CalendarioLaboral.compilar(1L, bloques, List.of());
+
+        assertEquals(SEMANA, PlaneacionVentasService.ultimaSemanaCompleta(SEMANA.plusDays(4), lunesViernes));
+        assertEquals(SEMANA.minusWeeks(1), PlaneacionVentasService.ultimaSemanaCompleta(SEMANA.plusDays(3), lunesViernes));
+        assertEquals(SEMANA.minusWeeks(1),
+                PlaneacionVentasService.ultimaSemanaCompleta(SEMANA.plusDays(4), CalendarioLaboral.CONTINUO));
+        assertEquals(SEMANA, PlaneacionVentasService.ultimaSemanaCompleta(SEMANA.plusDays(6), CalendarioLaboral.CONTINUO));
+    }
+
+    private CargaVentasResultadoDTO cargar() {
+        return service.cargarInformeVentas(
+                new MockMultipartFile("file", "ventas.xlsx", null, new byte[]{1}), "planeador");
+    }
+
+    private void stubTerminado(String productoId) {
+        Terminado terminado = new Terminado();
+        terminado.setProductoId(productoId);
+        when(terminadoRepo.findByProductoIdIn(anyCollection())).thenReturn(List.of(terminado));
+        when(terminadoRepo.findAllById(anyCollection())).thenReturn(List.of(terminado));
+    }
+
+    private static VentaDiariaTerminado venta(String productoId, LocalDate fecha, double cantidad) {
+        return new VentaDiariaTerminado(null, productoId, fecha, cantidad, cantidad * 100, 1,
+                LocalDateTime.of(2026, 7, 1, 8, 0), "planeador");
+    }
+}
@@ -10,14 +10,22 @@ import exotic.app.planta.model.produccion.dto.GuardarProgramacionProduccionSeman
 import exotic.app.planta.model.produccion.dto.MpsSemanalDraftDTO;
 import exotic.app.planta.model.produccion.dto.ProgramacionProduccionSemanalDiaRequestDTO;
 import exotic.app.planta.model.produccion.dto.ProgramacionProduccionSemanalItemRequestDTO;
+import exotic.app.planta.model.produccion.dto.SugerenciaProgramacionSemanalDTO;
+import exotic.app.planta.model.produccion.dto.SugerenciaProgramacionSemanalItemDTO;
 import exotic.app.planta.repo.producto.TerminadoRepo;
 import exotic.app.planta.repo.produccion.MasterProductionScheduleSemanalRepo;
+import exotic.app.planta.repo.empresa.DiaFestivoRepo;
+import exotic.app.planta.repo.empresa.JornadaLaboralVersionRepo;
 import exotic.app.planta.repo.produccion.MpsSemanalDiaRepo;
+import exotic.app.planta.service.empresa.CalendarioLaboralRegistry;
+import exotic.app.planta.service.produccion.PronosticoDemandaCalculator.PronosticoDemanda;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 
 import java.time.LocalDate;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -129,6 +137,40 @@ class ProgramacionProduccionSemanalServiceTest {
         assertEquals(3, cremaItem.getLotesPlanificados().size());
     }
 
+    @Test
+    void sugerirProgramacion_coversForecastNotInStockWithWholeLots() {
+        TestContext context = buildContext();
+        Map<String, PronosticoDemanda> pronosticos = new LinkedHashMap<>();
+        pronosticos.put("SH-001", new PronosticoDemanda(42, 0.3, 5, 20));
+        pronosticos.put("CR-001", new PronosticoDemanda(8, 0.1, 2, 20));
+        pronosticos.put("XX-001", new PronosticoDemanda(3, null, 1, 2));
+        when(context.planeacionVentasService.pronosticarSemana(MONDAY)).thenReturn(pronosticos);
+        when(context.planeacionVentasService.ultimaSemanaVentas(MONDAY)).thenReturn(Optional.of(MONDAY.minusWeeks(1)));
+        when(context.terminadoRepo.findByProductoIdIn(anyCollection())).thenReturn(List.of(
+                buildTerminado("SH-001", "Shampoo", 10, "SHP"),
+                buildTerminado("CR-001", "Crema", 5, "CRM")));
+        when(context.planeacionVentasService.stockConsolidado(anyCollection()))
+                .thenReturn(Map.of("SH-001", 15.0, "CR-001", 20.0));
+
+        SugerenciaProgramacionSemanalDTO sugerencia = context.service.sugerirProgramacion(MONDAY);
+
+        assertEquals(MONDAY.minusWeeks(1), sugerencia.getUltimaSemanaVentas());
+        assertEquals(List.of("SH-001", "CR-001"), sugerencia.getItems().stream()
+                .map(SugerenciaProgramacionSemanalItemDTO::getTerminadoId)
+                .toList());
+        // Faltan 27 unidades de shampoo: 3 lotes de 10. La crema tiene stock suficiente.
+        assertEquals(3, sugerencia.getItems().get(0).getNumeroLotesSugeridos());
+        assertEquals(0, sugerencia.getItems().get(1).getNumeroLotesSugeridos());
+        assertEquals(3, sugerencia.getTotalLotesSugeridos());
+    }
+
+    @Test
+    void sugerirProgramacion_rejectsNonMondayWeekStartDate() {
+        TestContext context = buildContext();
+
+        assertThrows(IllegalArgumentException.class, () -> context.service.sugerirProgramacion(MONDAY.plusDays(1)));
+    }
+
     private TestContext buildContext() {
         TerminadoRepo terminadoRepo = mock(TerminadoRepo.class);
         MasterProductionScheduleSemanalRepo mpsRepo = mock(MasterProductionScheduleSemanalRepo.class);
@@ -136,6 +178,7 @@ class ProgramacionProduccionSemanalServiceTest {
         SemanaMPSService semanaMPSService = mock(SemanaMPSService.class);
         MpsSemanalEditWindowService editWindowService = mock(MpsSemanalEditWindowService.class);
         MasterProductionScheduleDraftService draftService = mock(MasterProductionScheduleDraftService.class);
+        PlaneacionVentasService planeacionVentasService = mock(PlaneacionVentasService.class);
 
         SemanaMPS semana = new SemanaMPS();
         semana.setId(44L);
@@ -158,10 +201,12 @@ class ProgramacionProduccionSemanalServiceTest {
                 diaRepo,
                 semanaMPSService,
                 editWindowService,
-                draftService
+                draftService,
+                planeacionVentasService,
+                new CalendarioLaboralRegistry(mock(JornadaLaboralVersionRepo.class), mock(DiaFestivoRepo.class))
         );
 
-        return new TestContext(service, terminadoRepo, mpsRepo);
+        return new TestContext(service, terminadoRepo, mpsRepo, planeacionVentasService);
     }
 
     private GuardarProgramacionProduccionSemanalRequestDTO buildRequest(
@@ -211,6 +256,7 @@ class ProgramacionProduccionSemanalServiceTest {
     private record TestContext(
             ProgramacionProduccionSemanalService service,
             TerminadoRepo terminadoRepo,
-            MasterProductionScheduleSemanalRepo mpsRepo
+            MasterProductionScheduleSemanalRepo mpsRepo,
+            PlaneacionVentasService planeacionVentasService
     ) {}
 }
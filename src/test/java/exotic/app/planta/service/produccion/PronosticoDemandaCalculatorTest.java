@@ -0,0 +1,72 @@
+package exotic.app.planta.service.produccion;
+
+import exotic.app.planta.service.commons.CalculoParalelo;
+import exotic.app.planta.service.produccion.PronosticoDemandaCalculator.PronosticoDemanda;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PronosticoDemandaCalculatorTest {
+
+    private final CalculoParalelo calculoParalelo = new CalculoParalelo(4);
+    private final PronosticoDemandaCalculator calculator = new PronosticoDemandaCalculator(calculoParalelo);
+
+    @AfterEach
+    void tearDown() {
+        calculoParalelo.shutdown();
+    }
+
+    @Test
+    void constantDemandIsForecastExactly() {
+        PronosticoDemanda pronostico = PronosticoDemandaCalculator.pronosticar(new double[]{40, 40, 40, 40, 40, 40});
+
+        assertEquals(40, pronostico.demandaSemanal(), 1e-9);
+        assertEquals(0, pronostico.errorAbsolutoMedio(), 1e-9);
+        assertEquals(6, pronostico.semanasHistoria());
+    }
+
+    @Test
+    void levelShiftIsFollowedWithAHighSmoothingFactor() {
+        PronosticoDemanda pronostico = PronosticoDemandaCalculator.pronosticar(
+                new double[]{10, 10, 10, 10, 10, 10, 50, 50, 50, 50, 50, 50});
+
+        assertTrue(pronostico.alpha() >= 0.5, "alpha=" + pronostico.alpha());
+        assertEquals(50, pronostico.demandaSemanal(), 1.0);
+    }
+
+    @Test
+    void shortHistoryFallsBackToTheAverage() {
+        PronosticoDemanda pronostico = PronosticoDemandaCalculator.pronosticar(new double[]{0, 12, 6});
+
+        assertEquals(6, pronostico.demandaSemanal(), 1e-9);
+        assertNull(pronostico.alpha());
+        assertEquals(3, pronostico.semanasHistoria());
+    }
+
+    @Test
+    void parallelBatchMatchesForecastingOneByOneInOrder() {
+        SplittableRandom random = new SplittableRandom(2026L);
+        List<double[]> series = new ArrayList<>();
+        for (int producto = 0; producto < 300; producto++) {
+            double[] semanal = new double[1 + random.nextInt(52)];
+            for (int semana = 0; semana < semanal.length; semana++) {
+                semanal[semana] = random.nextInt(4) == 0 ? 0 : random.nextInt(200);
+            }
+            series.add(semanal);
+        }
+
+        List<PronosticoDemanda> lote = calculator.pronosticarTodas(series);
+
+        assertEquals(series.size(), lote.size());
+        for (int i = 0; i < series.size(); i++) {
+            assertEquals(PronosticoDemandaCalculator.pronosticar(series.get(i)), lote.get(i));
+        }
+    }
+}
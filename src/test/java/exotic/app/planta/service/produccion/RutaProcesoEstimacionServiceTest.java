@@ -7,7 +7,9 @@ import exotic.app.planta.model.produccion.SeguimientoOrdenArea;
 import exotic.app.planta.model.produccion.ruprocatdesigner.RutaProcesoCatVersion;
 import exotic.app.planta.model.produccion.ruprocatdesigner.RutaProcesoEdge;
 import exotic.app.planta.model.produccion.ruprocatdesigner.RutaProcesoNode;
+import exotic.app.planta.repo.empresa.DiaFestivoRepo;
 import exotic.app.planta.repo.empresa.JornadaLaboralVersionRepo;
+import exotic.app.planta.service.empresa.CalendarioLaboralRegistry;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDateTime;
@@ -26,7 +28,8 @@ class RutaProcesoEstimacionServiceTest {
         JornadaLaboralVersionRepo jornadaRepo = mock(JornadaLaboralVersionRepo.class);
         when(jornadaRepo.findFirstByEstadoOrderByVersionDesc(JornadaLaboralVersion.Estado.VIGENTE))
                 .thenReturn(Optional.empty());
-        RutaProcesoEstimacionService service = new RutaProcesoEstimacionService(jornadaRepo);
+        RutaProcesoEstimacionService service =
+                new RutaProcesoEstimacionService(new CalendarioLaboralRegistry(jornadaRepo, mock(DiaFestivoRepo.class)));
         OrdenProduccion orden = new OrdenProduccion();
         orden.setFechaLanzamiento(LocalDateTime.of(2026, 6, 29, 8, 0));
 
@@ -54,7 +57,8 @@ class RutaProcesoEstimacionServiceTest {
 
     @Test
     void estimarOrden_consumesOnlyWorkingBlocksWhenRequired() {
-        RutaProcesoEstimacionService service = new RutaProcesoEstimacionService(mock(JornadaLaboralVersionRepo.class));
+        RutaProcesoEstimacionService service = new RutaProcesoEstimacionService(
+                new CalendarioLaboralRegistry(mock(JornadaLaboralVersionRepo.class), mock(DiaFestivoRepo.class)));
         OrdenProduccion orden = new OrdenProduccion();
         orden.setFechaLanzamiento(LocalDateTime.of(2026, 6, 29, 16, 0));
         orden.setJornadaLaboralVersion(jornadaLaboral());
@@ -0,0 +1,136 @@
+package exotic.app.planta.service.produccion;
+
+import exotic.app.planta.model.organizacion.AreaOperativa;
+import exotic.app.planta.model.produccion.ActorTipoEventoSeguimiento;
+import exotic.app.planta.model.produccion.EstadoSeguimientoOrdenArea;
+import exotic.app.planta.model.produccion.SeguimientoOrdenArea;
+import exotic.app.planta.model.produccion.SeguimientoOrdenAreaEvento;
+import exotic.app.planta.model.produccion.SeguimientoOrdenAreaIntervalo;
+import exotic.app.planta.repo.produccion.SeguimientoOrdenAreaEventoRepo;
+import exotic.app.planta.repo.produccion.SeguimientoOrdenAreaIntervaloRepo;
+import exotic.app.planta.service.produccion.SeguimientoOrdenAreaIntervaloService.IntervaloCerrado;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SeguimientoOrdenAreaIntervaloServiceTest {
+
+    private static final int ESPERA = EstadoSeguimientoOrdenArea.ESPERA.getCode();
+    private static final int EN_PROCESO = EstadoSeguimientoOrdenArea.EN_PROCESO.getCode();
+
+    @Test
+    void resolverIntervalos_closesEachEntryWithTheNextExitFromThatState() {
+        List<IntervaloCerrado> intervalos = SeguimientoOrdenAreaIntervaloService.resolverIntervalos(List.of(
+                event(1L, null, EstadoSeguimientoOrdenArea.ESPERA, LocalDateTime.of(2026, 5, 1, 8, 0)),
+                event(2L, EstadoSeguimientoOrdenArea.ESPERA, EstadoSeguimientoOrdenArea.EN_PROCESO, LocalDateTime.of(2026, 5, 1, 8, 15)),
+                event(3L, EstadoSeguimientoOrdenArea.EN_PROCESO, EstadoSeguimientoOrdenArea.ESPERA, LocalDateTime.of(2026, 5, 1, 9, 0)),
+                event(4L, EstadoSeguimientoOrdenArea.ESPERA, EstadoSeguimientoOrdenArea.EN_PROCESO, LocalDateTime.of(2026, 5, 1, 9, 30)),
+                event(5L, EstadoSeguimientoOrdenArea.EN_PROCESO, EstadoSeguimientoOrdenArea.COMPLETADO, LocalDateTime.of(2026, 5, 1, 10, 0))
+        ));
+
+        assertEquals(List.of(15L, 30L), minutos(intervalos, ESPERA));
+        assertEquals(List.of(45L, 30L), minutos(intervalos, EN_PROCESO));
+    }
+
+    @Test
+    void resolverIntervalos_usesTheExitEventAsClosingInstant() {
+        List<IntervaloCerrado> intervalos = SeguimientoOrdenAreaIntervaloService.resolverIntervalos(List.of(
+                event(1L, null, EstadoSeguimientoOrdenArea.ESPERA, LocalDateTime.of(2026, 5, 1, 8, 0)),
+                event(2L, EstadoSeguimientoOrdenArea.ESPERA, EstadoSeguimientoOrdenArea.EN_PROCESO, LocalDateTime.of(2026, 5, 1, 8, 10)),
+                event(3L, EstadoSeguimientoOrdenArea.EN_PROCESO, EstadoSeguimientoOrdenArea.ESPERA, LocalDateTime.of(2026, 5, 1, 8, 50)),
+                event(4L, EstadoSeguimientoOrdenArea.ESPERA, EstadoSeguimientoOrdenArea.EN_PROCESO, LocalDateTime.of(2026, 5, 2, 9, 0)),
+                event(5L, EstadoSeguimientoOrdenArea.EN_PROCESO, EstadoSeguimientoOrdenArea.COMPLETADO, LocalDateTime.of(2026, 5, 2, 10, 0))
+        ));
+
+        List<IntervaloCerrado> cerradosDia2 = intervalos.stream()
+                .filter(intervalo -> intervalo.cerradoEn().toLocalDate().getDayOfMonth() == 2)
+                .toList();
+        assertEquals(List.of(new IntervaloCerrado(ESPERA, 1450L, LocalDateTime.of(2026, 5, 2, 9, 0)),
+                new IntervaloCerrado(EN_PROCESO, 60L, LocalDateTime.of(2026, 5, 2, 10, 0))), cerradosDia2);
+    }
+
+    @Test
+    void resolverIntervalos_ignoresRevertedEvents() {
+        SeguimientoOrdenAreaEvento inicio = event(2L, EstadoSeguimientoOrdenArea.ESPERA, EstadoSeguimientoOrdenArea.EN_PROCESO, LocalDateTime.of(2026, 5, 1, 8, 20));
+        SeguimientoOrdenAreaEvento correccion = event(3L, EstadoSeguimientoOrdenArea.EN_PROCESO, EstadoSeguimientoOrdenArea.ESPERA, LocalDateTime.of(2026, 5, 1, 8, 30));
+        correccion.setEventoRevertido(inicio);
+
+        List<IntervaloCerrado> intervalos = SeguimientoOrdenAreaIntervaloService.resolverIntervalos(List.of(
+                event(1L, null, EstadoSeguimientoOrdenArea.ESPERA, LocalDateTime.of(2026, 5, 1, 8, 0)),
+                inicio,
+                correccion,
+                event(4L, EstadoSeguimientoOrdenArea.ESPERA, EstadoSeguimientoOrdenArea.EN_PROCESO, LocalDateTime.of(2026, 5, 1, 9, 0))
+        ));
+
+        // Sin el inicio revertido, ambas entradas a ESPERA cierran con el inicio de las 9:00.
+        assertEquals(List.of(60L, 30L), minutos(intervalos, ESPERA));
+        assertTrue(minutos(intervalos, EN_PROCESO).isEmpty());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void recalcular_replacesTheIntervalsOfTheSeguimiento() {
+        SeguimientoOrdenAreaEventoRepo eventoRepo = mock(SeguimientoOrdenAreaEventoRepo.class);
+        SeguimientoOrdenAreaIntervaloRepo intervaloRepo = mock(SeguimientoOrdenAreaIntervaloRepo.class);
+        SeguimientoOrdenAreaIntervaloService service = new SeguimientoOrdenAreaIntervaloService(eventoRepo, intervaloRepo);
+
+        AreaOperativa area = new AreaOperativa();
+        area.setAreaId(7);
+        SeguimientoOrdenArea seguimiento = new SeguimientoOrdenArea();
+        seguimiento.setId(1L);
+        seguimiento.setAreaOperativa(area);
+        when(eventoRepo.findBySeguimientoOrdenArea_IdOrderByFechaEventoAscIdAsc(1L)).thenReturn(List.of(
+                event(1L, null, EstadoSeguimientoOrdenArea.ESPERA, LocalDateTime.of(2026, 5, 1, 8, 0)),
+                event(2L, EstadoSeguimientoOrdenArea.ESPERA, EstadoSeguimientoOrdenArea.EN_PROCESO, LocalDateTime.of(2026, 5, 1, 8, 15))
+        ));
+
+        service.recalcular(seguimiento);
+
+        ArgumentCaptor<List<SeguimientoOrdenAreaIntervalo>> guardados = ArgumentCaptor.forClass(List.class);
+        InOrder orden = inOrder(intervaloRepo);
+        orden.verify(intervaloRepo).deleteBySeguimientoOrdenAreaId(1L);
+        orden.verify(intervaloRepo).saveAll(guardados.capture());
+
+        SeguimientoOrdenAreaIntervalo intervalo = guardados.getValue().get(0);
+        assertEquals(1, guardados.getValue().size());
+        assertEquals(7, intervalo.getAreaOperativaId());
+        assertEquals(ESPERA, intervalo.getEstado());
+        assertEquals(15L, intervalo.getMinutos());
+        assertEquals(LocalDateTime.of(2026, 5, 1, 8, 15), intervalo.getCerradoEn());
+    }
+
+    private static List<Long> minutos(List<IntervaloCerrado> intervalos, int estado) {
+        return intervalos.stream()
+                .filter(intervalo -> intervalo.estado() == estado)
+                .map(IntervaloCerrado::minutos)
+                .toList();
+    }
+
+    private static SeguimientoOrdenAreaEvento event(
+            Long id,
+            EstadoSeguimientoOrdenArea estadoOrigen,
+            EstadoSeguimientoOrdenArea estadoDestino,
+            LocalDateTime fechaEvento
+    ) {
+        SeguimientoOrdenArea seguimiento = new SeguimientoOrdenArea();
+        seguimiento.setId(1L);
+
+        SeguimientoOrdenAreaEvento evento = new SeguimientoOrdenAreaEvento();
+        evento.setId(id);
+        evento.setSeguimientoOrdenArea(seguimiento);
+        evento.setEstadoOrigen(estadoOrigen != null ? estadoOrigen.getCode() : null);
+        evento.setEstadoDestino(estadoDestino.getCode());
+        evento.setFechaEvento(fechaEvento);
+        evento.setActorTipo(ActorTipoEventoSeguimiento.SYSTEM);
+        return evento;
+    }
+}
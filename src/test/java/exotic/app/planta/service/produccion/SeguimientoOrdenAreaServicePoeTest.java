@@ -70,6 +70,7 @@ class SeguimientoOrdenAreaServicePoeTest {
         SeguimientoOrdenAreaService service = new SeguimientoOrdenAreaService(
                 seguimientoRepo,
                 eventoRepo,
+                mock(SeguimientoOrdenAreaIntervaloService.class),
                 mock(AreaProduccionRepo.class),
                 rutaRepo,
                 mock(JornadaLaboralVersionRepo.class),
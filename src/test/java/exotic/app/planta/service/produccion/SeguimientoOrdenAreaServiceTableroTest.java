@@ -56,6 +56,7 @@ class SeguimientoOrdenAreaServiceTableroTest {
         service = new SeguimientoOrdenAreaService(
                 seguimientoRepo,
                 mock(SeguimientoOrdenAreaEventoRepo.class),
+                mock(SeguimientoOrdenAreaIntervaloService.class),
                 mock(AreaProduccionRepo.class),
                 mock(RutaProcesoCatVersionRepo.class),
                 mock(JornadaLaboralVersionRepo.class),
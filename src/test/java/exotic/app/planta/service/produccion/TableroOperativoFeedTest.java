@@ -0,0 +1,136 @@
+package exotic.app.planta.service.produccion;
+
+import exotic.app.planta.model.organizacion.AreaOperativa;
+import exotic.app.planta.model.produccion.TableroAreaCambioEvent;
+import exotic.app.planta.repo.producto.procesos.AreaProduccionRepo;
+import exotic.app.planta.service.commons.sse.SseDifusor;
+import exotic.app.planta.service.produccion.SeguimientoOrdenAreaService.AreaOperativaTableroDTO;
+import exotic.app.planta.service.produccion.SeguimientoOrdenAreaService.TableroOperativoDTO;
+import exotic.app.planta.service.produccion.SeguimientoOrdenAreaService.TableroVista;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TableroOperativoFeedTest {
+
+    private final SeguimientoOrdenAreaService seguimientoService = mock(SeguimientoOrdenAreaService.class);
+    private final AreaProduccionRepo areaProduccionRepo = mock(AreaProduccionRepo.class);
+    private final Clock clock = mock(Clock.class);
+    private final TableroOperativoFeed feed = new TableroOperativoFeed(
+            seguimientoService, areaProduccionRepo, clock, new SseDifusor(Runnable::run));
+
+    @BeforeEach
+    void setUp() {
+        when(clock.instant()).thenReturn(Instant.parse("2026-07-21T15:00:00Z"));
+        when(seguimientoService.getTableroAreaPorFecha(3, null)).thenReturn(new AreaOperativaTableroDTO());
+        when(seguimientoService.getTableroAreaPorFecha(4, null)).thenReturn(new AreaOperativaTableroDTO());
+        when(seguimientoService.getTableroOperativoUsuario(10L, TableroVista.HOY)).thenReturn(new TableroOperativoDTO());
+        when(areaProduccionRepo.findAllByResponsableArea_Id(10L)).thenReturn(List.of(area(3)));
+        // Consume el refresco completo inicial para que cada prueba parta de cambios por evento.
+        feed.publicarCambios();
+    }
+
+    @Test
+    void eachDirtyAreaBoardIsComputedOnceForAllItsSubscribers() {
+        feed.suscribirArea(3);
+        feed.suscribirArea(3);
+        feed.suscribirArea(4);
+        verify(seguimientoService, times(2)).getTableroAreaPorFecha(3, null);
+
+        for (int i = 0; i < 20; i++) {
+            feed.onCambio(new TableroAreaCambioEvent(3));
+        }
+        feed.publicarCambios();
+        feed.publicarCambios();
+
+        verify(seguimientoService, times(3)).getTableroAreaPorFecha(3, null);
+        verify(seguimientoService, times(1)).getTableroAreaPorFecha(4, null);
+        assertEquals(3, feed.suscriptores());
+    }
+
+    @Test
+    void operatorBoardsAreRecomputedOnlyWhenTheirAreasChange() {
+        feed.suscribirOperador(10L, TableroVista.HOY);
+        feed.suscribirOperador(10L, TableroVista.HOY);
+        verify(seguimientoService, times(2)).getTableroOperativoUsuario(10L, TableroVista.HOY);
+
+        feed.onCambio(new TableroAreaCambioEvent(4));
+        feed.publicarCambios();
+        verify(seguimientoService, times(2)).getTableroOperativoUsuario(10L, TableroVista.HOY);
+
+        feed.onCambio(new TableroAreaCambioEvent(3));
+        feed.publicarCambios();
+        verify(seguimientoService, times(3)).getTableroOperativoUsuario(10L, TableroVista.HOY);
+    }
+
+    @Test
+    void periodicRefreshResendsEveryBoardWithoutEvents() {
+        feed.suscribirArea(4);
+        feed.publicarCambios();
+        verify(seguimientoService, times(1)).getTableroAreaPorFecha(4, null);
+
+        when(clock.instant()).thenReturn(Instant.parse("2026-07-21T15:01:00Z"));
+        feed.publicarCambios();
+
+        verify(seguimientoService, times(2)).getTableroAreaPorFecha(4, null);
+    }
+
+    @Test
+    void unknownAreaIsRejectedBeforeOpeningTheStream() {
+        when(seguimientoService.getTableroAreaPorFecha(99, null))
+                .thenThrow(new IllegalArgumentException("Area operativa no encontrada: 99"));
+
+        assertThrows(IllegalArgumentException.class, () -> feed.suscribirArea(99));
+        assertEquals(0, feed.suscriptores());
+        verify(seguimientoService, never()).getTableroOperativoUsuario(10L, TableroVista.HOY);
+    }
+
+    @Test
+    void deletedAreaIsDroppedInsteadOfRetried() {
+        feed.suscribirArea(3);
+        doThrow(new IllegalArgumentException("Area operativa no encontrada: 3"))
+                .when(seguimientoService).getTableroAreaPorFecha(3, null);
+
+        feed.onCambio(new TableroAreaCambioEvent(3));
+        feed.publicarCambios();
+        feed.publicarCambios();
+        when(clock.instant()).thenReturn(Instant.parse("2026-07-21T15:00:30Z"));
+        feed.publicarCambios();
+
+        verify(seguimientoService, times(2)).getTableroAreaPorFecha(3, null);
+    }
+
+    @Test
+    void failingAreaIsRetriedWithBackoffUntilTheCap() {
+        feed.suscribirArea(4);
+        doThrow(new IllegalStateException("timeout"))
+                .when(seguimientoService).getTableroAreaPorFecha(4, null);
+        feed.onCambio(new TableroAreaCambioEvent(4));
+
+        // Fallos a los 0, 2, 6 y 14 s; el quinto, a los 30 s, agota los reintentos.
+        for (int segundo : new int[] {0, 1, 2, 5, 6, 13, 14, 29, 30, 45}) {
+            when(clock.instant()).thenReturn(Instant.parse("2026-07-21T15:00:00Z").plusSeconds(segundo));
+            feed.publicarCambios();
+        }
+
+        verify(seguimientoService, times(1 + TableroOperativoFeed.MAX_REINTENTOS)).getTableroAreaPorFecha(4, null);
+    }
+
+    private static AreaOperativa area(int areaId) {
+        AreaOperativa area = new AreaOperativa();
+        area.setAreaId(areaId);
+        return area;
+    }
+}
@@ -0,0 +1,196 @@
+package exotic.app.planta.service.produccion;
+
+import exotic.app.planta.service.produccion.VentasExcelStreamReader.LecturaVentas;
+import exotic.app.planta.service.produccion.VentasExcelStreamReader.VentaDiaria;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VentasExcelStreamReaderTest {
+
+    private final VentasExcelStreamReader reader = new VentasExcelStreamReader();
+
+    @Test
+    void aggregatesQuantityAndValuePerCodeAndDay() throws IOException {
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            workbook.createSheet("Resumen").createRow(0).createCell(0).setCellValue("Informe de ventas");
+            Sheet sheet = workbook.createSheet("Ventas");
+            CellStyle fecha = workbook.createCellStyle();
+            fecha.setDataFormat(workbook.createDataHelper().createDataFormat().getFormat("m/d/yy"));
+            header(sheet);
+            // Dos lineas del lunes 1 de junio se suman en un solo dia.
+            venta(sheet, 1, LocalDate.of(2026, 6, 1), fecha, "T-001", 10, 1000);
+            venta(sheet, 2, LocalDate.of(2026, 6, 1), fecha, "T-001", 5, 500);
+            ventaFechaTexto(sheet, 3, "8/06/2026", "T-001", "2", "200");
+            venta(sheet, 4, LocalDate.of(2026, 6, 4), fecha, "T-002", 1, 90);
+            venta(sheet, 5, LocalDate.of(2026, 6, 4), fecha, "", 7, 70);
+            ventaFechaTexto(sheet, 6, "sin fecha", "T-002", "1", "90");
+            sheet.createRow(7).createCell(0).setCellValue("TOTALES");
+
+            LecturaVentas lectura = reader.leer(new ByteArrayInputStream(bytes(workbook)));
+
+            assertEquals("Ventas", lectura.hoja());
+            assertEquals(7, lectura.filasLeidas());
+            assertEquals(1, lectura.filasSinCodigo());
+            assertEquals(1, lectura.filasSinFecha());
+            assertEquals(List.of(
+                    new VentaDiaria("T-001", LocalDate.of(2026, 6, 1), 15, 1500, 2),
+                    new VentaDiaria("T-001", LocalDate.of(2026, 6, 8), 2, 200, 1),
+                    new VentaDiaria("T-002", LocalDate.of(2026, 6, 4), 1, 90, 1)
+            ), lectura.dias());
+            assertEquals(LocalDate.of(2026, 6, 1), lectura.primeraFecha());
+            assertEquals(LocalDate.of(2026, 6, 8), lectura.ultimaFecha());
+        }
+    }
+
+    @Test
+    void locatesColumnsByHeaderWhenTheLayoutIsShifted() throws IOException {
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet("Ventas");
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("CODIGO");
+            header.createCell(1).setCellValue("FECHA");
+            header.createCell(2).setCellValue("VALOR TOTAL");
+            header.createCell(3).setCellValue("CANTIDAD VENDIDA");
+            Row row = sheet.createRow(1);
+            row.createCell(0).setCellValue(1001);
+            row.createCell(1).setCellValue("2026-06-05");
+            row.createCell(2).setCellValue(1234.5);
+            row.createCell(3).setCellValue(3);
+
+            LecturaVentas lectura = reader.leer(new ByteArrayInputStream(bytes(workbook)));
+
+            assertEquals(List.of(new VentaDiaria("1001", LocalDate.of(2026, 6, 5), 3, 1234.5, 1)),
+                    lectura.dias());
+        }
+    }
+
+    @Test
+    void parsesDecimalCommaAndThousandsSeparatorsInTextCells() {
+        assertEquals(12.5, VentasExcelStreamReader.parseNumero("12,5"));
+        assertEquals(12.5, VentasExcelStreamReader.parseNumero("12.5"));
+        assertEquals(1234.5, VentasExcelStreamReader.parseNumero("1.234,5"));
+        assertEquals(1234.5, VentasExcelStreamReader.parseNumero("1,234.5"));
+        assertEquals(1234567, VentasExcelStreamReader.parseNumero("1.234.567"));
+        assertEquals(1234567, VentasExcelStreamReader.parseNumero("1,234,567"));
+        assertEquals(0, VentasExcelStreamReader.parseNumero(""));
+    }
+
+    @Test
+    void readsLoneSeparatorFollowedByThreeDigitsAsThousands() {
+        assertEquals(1234, VentasExcelStreamReader.parseNumero("1.234"));
+        assertEquals(12500, VentasExcelStreamReader.parseNumero("12,500"));
+        assertEquals(-1234, VentasExcelStreamReader.parseNumero("-1.234"));
+        assertEquals(45000, VentasExcelStreamReader.parseNumero("$ 45.000"));
+        // Tras un cero no puede haber grupo de miles, y con otra cantidad de digitos es decimal.
+        assertEquals(0.125, VentasExcelStreamReader.parseNumero("0,125"));
+        assertEquals(12.25, VentasExcelStreamReader.parseNumero("12,25"));
+        assertEquals(1.2345, VentasExcelStreamReader.parseNumero("1.2345"));
+    }
+
+    @Test
+    void returnsNanForTextThatIsNotANumber() {
+        assertTrue(Double.isNaN(VentasExcelStreamReader.parseNumero("n/a")));
+        assertTrue(Double.isNaN(VentasExcelStreamReader.parseNumero("1.2.3,4,5")));
+        assertTrue(Double.isNaN(VentasExcelStreamReader.parseNumeroCrudo("2026-06-01")));
+        assertEquals(1.234, VentasExcelStreamReader.parseNumeroCrudo("1.234"));
+    }
+
+    @Test
+    void sumsThousandsInTextCellsAndCountsUnreadableCells() throws IOException {
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet("Ventas");
+            header(sheet);
+            ventaFechaTexto(sheet, 1, "2026-06-01", "T-001", "2", "45.000");
+            ventaFechaTexto(sheet, 2, "2026-06-01", "T-001", "1", "n/a");
+            Row numerica = sheet.createRow(3);
+            numerica.createCell(0).setCellValue("2026-06-01");
+            numerica.createCell(10).setCellValue("T-001");
+            numerica.createCell(12).setCellValue(1.5);
+            // Celda numerica: 1.234 es decimal, no se reinterpreta como miles.
+            numerica.createCell(15).setCellValue(1.234);
+
+            LecturaVentas lectura = reader.leer(new ByteArrayInputStream(bytes(workbook)));
+
+            assertEquals(1, lectura.celdasNumericasInvalidas());
+            assertEquals(List.of(new VentaDiaria("T-001", LocalDate.of(2026, 6, 1), 4.5, 45001.234, 3)),
+                    lectura.dias());
+        }
+    }
+
+    @Test
+    void rejectsLegacyXlsAndWorkbooksWithoutSalesHeader() throws IOException {
+        try (HSSFWorkbook xls = new HSSFWorkbook()) {
+            header(xls.createSheet("Ventas"));
+            byte[] contenido = bytes(xls);
+            assertThrows(IllegalArgumentException.class,
+                    () -> reader.leer(new ByteArrayInputStream(contenido)));
+        }
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            workbook.createSheet("Otra").createRow(0).createCell(0).setCellValue("NADA");
+            byte[] contenido = bytes(workbook);
+            assertThrows(IllegalArgumentException.class,
+                    () -> reader.leer(new ByteArrayInputStream(contenido)));
+        }
+    }
+
+    private static void header(Sheet sheet) {
+        Row header = sheet.createRow(0);
+        header.createCell(0).setCellValue("FECHA");
+        header.createCell(10).setCellValue("CODIGO");
+        header.createCell(12).setCellValue("CANTIDAD VENDIDA");
+        header.createCell(15).setCellValue("VALOR TOTAL");
+    }
+
+    private static void venta(
+            Sheet sheet,
+            int rowIndex,
+            LocalDate fecha,
+            CellStyle fechaStyle,
+            String codigo,
+            double cantidad,
+            double valor
+    ) {
+        Row row = sheet.createRow(rowIndex);
+        row.createCell(0).setCellValue(fecha);
+        row.getCell(0).setCellStyle(fechaStyle);
+        row.createCell(10).setCellValue(codigo);
+        row.createCell(12).setCellValue(cantidad);
+        row.createCell(15).setCellValue(valor);
+    }
+
+    private static void ventaFechaTexto(
+            Sheet sheet,
+            int rowIndex,
+            String fecha,
+            String codigo,
+            String cantidad,
+            String valor
+    ) {
+        Row row = sheet.createRow(rowIndex);
+        row.createCell(0).setCellValue(fecha);
+        row.createCell(10).setCellValue(codigo);
+        row.createCell(12).setCellValue(cantidad);
+        row.createCell(15).setCellValue(valor);
+    }
+
+    private static byte[] bytes(Workbook workbook) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        workbook.write(out);
+        return out.toByteArray();
+    }
+}
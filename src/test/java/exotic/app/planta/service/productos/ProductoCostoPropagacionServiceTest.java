@@ -26,6 +26,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -39,16 +41,17 @@ class ProductoCostoPropagacionServiceTest {
     private RecetaCostosRevisionRepo revisionRepo;
 
     private ProductoCostoPropagacionService service;
+    private RecetaCostosRevision revision;
 
     @BeforeEach
     void setUp() {
         ProductoCostoService costoService = new ProductoCostoService(null, null, null, null);
         service = new ProductoCostoPropagacionService(
                 productoRepo,
-                insumoRepo,
                 revisionRepo,
-                costoService);
-        RecetaCostosRevision revision = mock(RecetaCostosRevision.class);
+                costoService,
+                new RecetaCostosGrafoIndex(insumoRepo));
+        revision = mock(RecetaCostosRevision.class);
         when(revision.getVersion()).thenReturn(7L);
         when(revisionRepo.findById((short) 1)).thenReturn(Optional.of(revision));
     }
@@ -164,6 +167,24 @@ class ProductoCostoPropagacionServiceTest {
                 .hasMessageContaining("cantidad requerida");
     }
 
+    @Test
+    void reutilizaElGrafoIndexadoMientrasNoCambieLaRevisionDeRecetas() {
+        Material material = producto(Material.class, "M", "M", "5", 1);
+        SemiTerminado semi = producto(SemiTerminado.class, "S", "S", "5", 1);
+        stubGraph(List.of(material, semi), List.of(edge(1, "M", "S", 1d)));
+        List<ProductoCostoPropagacionService.CambioCostoRaiz> cambios = List.of(
+                new ProductoCostoPropagacionService.CambioCostoRaiz(
+                        "M", decimal("5"), 1, decimal("6")));
+
+        service.calcularPlan(cambios);
+        service.calcularPlan(cambios);
+        verify(insumoRepo, times(1)).findAllCostoEdges();
+
+        when(revision.getVersion()).thenReturn(8L);
+        assertThat(service.calcularPlan(cambios).recetaRevision()).isEqualTo(8L);
+        verify(insumoRepo, times(2)).findAllCostoEdges();
+    }
+
     private void stubGraph(
             List<? extends Producto> productos,
             List<InsumoRepo.CostoRecetaEdgeProjection> edges
@@ -174,16 +195,7 @@ class ProductoCostoPropagacionServiceTest {
             Collection<String> ids = invocation.getArgument(0);
             return ids.stream().map(byId::get).filter(java.util.Objects::nonNull).toList();
         });
-        when(insumoRepo.findCostoEdgesByInputProductoIds(any())).thenAnswer(invocation -> {
-            Collection<String> ids = invocation.getArgument(0);
-            return edges.stream().filter(edge -> ids.contains(edge.getInputProductoId())).toList();
-        });
-        if (!edges.isEmpty()) {
-            when(insumoRepo.findCostoEdgesByOutputProductoIds(any())).thenAnswer(invocation -> {
-                Collection<String> ids = invocation.getArgument(0);
-                return edges.stream().filter(edge -> ids.contains(edge.getOutputProductoId())).toList();
-            });
-        }
+        when(insumoRepo.findAllCostoEdges()).thenReturn(edges);
     }
 
     private <T extends Producto> T producto(
@@ -0,0 +1,197 @@
+package exotic.app.planta.service.productos;
+
+import exotic.app.planta.model.producto.Material;
+import exotic.app.planta.model.producto.Producto;
+import exotic.app.planta.model.producto.SemiTerminado;
+import exotic.app.planta.model.producto.Terminado;
+import exotic.app.planta.model.producto.costos.RecetaCostosRevision;
+import exotic.app.planta.repo.producto.InsumoRepo;
+import exotic.app.planta.repo.producto.ProductoRepo;
+import exotic.app.planta.repo.producto.costos.RecetaCostosRevisionRepo;
+import exotic.app.planta.service.commons.CalculoParalelo;
+import exotic.app.planta.service.productos.ProductoCostoSimulacionService.AjusteCosto;
+import exotic.app.planta.service.productos.ProductoCostoSimulacionService.EscenarioCosto;
+import exotic.app.planta.service.productos.ProductoCostoSimulacionService.ResultadoEscenario;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ProductoCostoSimulacionServiceTest {
+    @Mock
+    private ProductoRepo productoRepo;
+    @Mock
+    private InsumoRepo insumoRepo;
+    @Mock
+    private RecetaCostosRevisionRepo revisionRepo;
+
+    private final CalculoParalelo calculoParalelo = new CalculoParalelo(4);
+    private ProductoCostoSimulacionService service;
+    private ProductoCostoPropagacionService propagacionService;
+
+    @BeforeEach
+    void setUp() {
+        ProductoCostoService costoService = new ProductoCostoService(null, null, null, null);
+        RecetaCostosGrafoIndex index = new RecetaCostosGrafoIndex(insumoRepo);
+        service = new ProductoCostoSimulacionService(productoRepo, revisionRepo, index, costoService, calculoParalelo);
+        propagacionService = new ProductoCostoPropagacionService(productoRepo, revisionRepo, costoService, index);
+        RecetaCostosRevision revision = mock(RecetaCostosRevision.class);
+        when(revision.getVersion()).thenReturn(7L);
+        when(revisionRepo.findById((short) 1)).thenReturn(Optional.of(revision));
+
+        stubGraph(
+                List.of(
+                        producto(Material.class, "M1", "M", "10", 1),
+                        producto(Material.class, "M2", "M", "4", 1),
+                        producto(SemiTerminado.class, "S1", "S", "20", 1),
+                        producto(SemiTerminado.class, "S2", "S", "30", 1),
+                        producto(Terminado.class, "T1", "T", "50", 1),
+                        producto(Terminado.class, "T2", "T", "12", 1)),
+                List.of(
+                        edge(1, "M1", "S1", 2d),
+                        edge(2, "M1", "S2", 3d),
+                        edge(3, "S1", "T1", 1d),
+                        edge(4, "S2", "T1", 1d),
+                        edge(5, "M2", "T2", 3d)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        calculoParalelo.shutdown();
+    }
+
+    @Test
+    void cadaEscenarioCoincideConElPlanDePropagacion() {
+        ResultadoEscenario resultado = service.simular(List.of(
+                new EscenarioCosto("proveedor", List.of(new AjusteCosto("M1", decimal("20"), null)))))
+                .escenarios().get(0);
+
+        ProductoCostoPropagacionService.PlanPropagacion plan = propagacionService.calcularPlan(List.of(
+                new ProductoCostoPropagacionService.CambioCostoRaiz("M1", decimal("10"), 1, decimal("20"))));
+
+        assertThat(resultado.dependenciasAfectadas()).isEqualTo(plan.items().size());
+        assertThat(resultado.terminados()).singleElement().satisfies(impacto -> {
+            assertThat(impacto.productoId()).isEqualTo("T1");
+            assertThat(impacto.costoSimulado()).isEqualByComparingTo(plan.items().get(2).costoNuevo());
+            assertThat(impacto.diferencia()).isEqualByComparingTo("50");
+            assertThat(impacto.porcentajeCambio()).isEqualByComparingTo("100.00");
+        });
+    }
+
+    @Test
+    void evaluaVariosEscenariosIndependientesSinTomarElBloqueo() {
+        List<ResultadoEscenario> resultados = service.simular(List.of(
+                new EscenarioCosto("dolar", List.of(
+                        new AjusteCosto("M1", null, new BigDecimal("1.10")),
+                        new AjusteCosto("M2", null, new BigDecimal("1.10")))),
+                new EscenarioCosto("solo M2", List.of(new AjusteCosto("M2", decimal("5"), null))),
+                new EscenarioCosto("sin cambio", List.of(new AjusteCosto("M1", decimal("10"), null)))))
+                .escenarios();
+
+        assertThat(resultados).extracting(ResultadoEscenario::nombre)
+                .containsExactly("dolar", "solo M2", "sin cambio");
+        assertThat(resultados.get(0).terminados()).extracting(
+                        ProductoCostoSimulacionService.ImpactoTerminado::productoId,
+                        ProductoCostoSimulacionService.ImpactoTerminado::costoSimulado)
+                .containsExactly(
+                        org.assertj.core.groups.Tuple.tuple("T1", decimal("55")),
+                        org.assertj.core.groups.Tuple.tuple("T2", decimal("13.2")));
+        assertThat(resultados.get(1).terminados()).singleElement().satisfies(impacto -> {
+            assertThat(impacto.productoId()).isEqualTo("T2");
+            assertThat(impacto.costoSimulado()).isEqualByComparingTo("15");
+        });
+        assertThat(resultados.get(2).dependenciasAfectadas()).isZero();
+        verify(revisionRepo, never()).findSingletonForUpdate();
+    }
+
+    @Test
+    void resuelveLosCostosRaizDelEscenarioElegido() {
+        Map<String, BigDecimal> costos = service.resolverCostosRaiz(new EscenarioCosto("dolar", List.of(
+                new AjusteCosto("M2", null, new BigDecimal("1.5")),
+                new AjusteCosto("M1", decimal("11"), null))));
+
+        assertThat(costos.keySet()).containsExactly("M2", "M1");
+        assertThat(costos.get("M2")).isEqualByComparingTo("6");
+        assertThat(costos.get("M1")).isEqualByComparingTo("11");
+    }
+
+    @Test
+    void rechazaAjustesSinCostoNiFactorYRaicesQueNoSonMateriales() {
+        assertThatThrownBy(() -> service.simular(List.of(
+                new EscenarioCosto("vacio", List.of(new AjusteCosto("M1", null, null))))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("costoNuevo o factor");
+        assertThatThrownBy(() -> service.simular(List.of(
+                new EscenarioCosto("semi", List.of(new AjusteCosto("S1", decimal("1"), null))))))
+                .isInstanceOf(ProductoCostoPropagacionException.class)
+                .hasMessageContaining("materiales");
+    }
+
+    private void stubGraph(
+            List<? extends Producto> productos,
+            List<InsumoRepo.CostoRecetaEdgeProjection> edges
+    ) {
+        Map<String, Producto> byId = new java.util.HashMap<>();
+        productos.forEach(producto -> byId.put(producto.getProductoId(), producto));
+        when(productoRepo.findAllById(any())).thenAnswer(invocation -> {
+            Collection<String> ids = invocation.getArgument(0);
+            return ids.stream().map(byId::get).filter(java.util.Objects::nonNull).toList();
+        });
+        when(insumoRepo.findAllCostoEdges()).thenReturn(edges);
+    }
+
+    private <T extends Producto> T producto(
+            Class<T> type,
+            String id,
+            String tipo,
+            String costo,
+            long version
+    ) {
+        T producto = mock(type);
+        when(producto.getProductoId()).thenReturn(id);
+        when(producto.getNombre()).thenReturn(id);
+        when(producto.getTipo_producto()).thenReturn(tipo);
+        when(producto.getCosto()).thenReturn(decimal(costo));
+        when(producto.getCostoVersion()).thenReturn(version);
+        return producto;
+    }
+
+    private InsumoRepo.CostoRecetaEdgeProjection edge(
+            int id,
+            String input,
+            String output,
+            double cantidad
+    ) {
+        InsumoRepo.CostoRecetaEdgeProjection edge =
+                mock(InsumoRepo.CostoRecetaEdgeProjection.class);
+        when(edge.getInsumoId()).thenReturn(id);
+        when(edge.getInputProductoId()).thenReturn(input);
+        when(edge.getOutputProductoId()).thenReturn(output);
+        when(edge.getCantidadRequerida()).thenReturn(cantidad);
+        return edge;
+    }
+
+    private BigDecimal decimal(String value) {
+        return new BigDecimal(value).setScale(ProductoCostoService.COST_SCALE);
+    }
+}
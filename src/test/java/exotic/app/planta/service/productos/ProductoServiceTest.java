@@ -2,8 +2,11 @@ package exotic.app.planta.service.productos;
 
 import exotic.app.planta.model.inventarios.Movimiento;
 import exotic.app.planta.model.producto.Material;
+import exotic.app.planta.model.producto.Producto;
 import exotic.app.planta.model.producto.SemiTerminado;
 import exotic.app.planta.model.producto.Terminado;
+import exotic.app.planta.model.producto.dto.InsumoWithStockDTO;
+import exotic.app.planta.model.producto.manufacturing.receta.Insumo;
 import exotic.app.planta.repo.compras.ItemOrdenCompraRepo;
 import exotic.app.planta.repo.inventarios.TransaccionAlmacenRepo;
 import exotic.app.planta.repo.produccion.OrdenProduccionRepo;
@@ -19,7 +22,9 @@ import org.junit.jupiter.api.Test;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -200,6 +205,40 @@ class ProductoServiceTest {
         verify(materialRepo, never()).save(any(Material.class));
     }
 
+    @Test
+    void getInsumosWithStockResolvesWholeRecipeStockInOneQuery() {
+        Material base = material("M-1", true);
+        Material fragancia = material("M-2", true);
+        SemiTerminado granel = new SemiTerminado();
+        granel.setProductoId("S-1");
+        granel.setInsumos(List.of(insumo(base, 2), insumo(fragancia, 0.5)));
+        Terminado terminado = new Terminado();
+        terminado.setProductoId("T-1");
+        terminado.setInsumos(List.of(insumo(granel, 1), insumo(granel, 3), insumo(base, 4)));
+        when(productoRepo.findById("T-1")).thenReturn(Optional.of(terminado));
+        when(transaccionAlmacenRepo.findTotalCantidadByProductoIds(any()))
+                .thenReturn(List.of(
+                        new Object[]{"M-1", 10.0},
+                        new Object[]{"S-1", 7.0}));
+
+        List<InsumoWithStockDTO> insumos = service.getInsumosWithStock("T-1");
+
+        assertEquals(3, insumos.size());
+        assertEquals(7.0, insumos.get(0).getStockActual());
+        assertEquals(10.0, insumos.get(2).getStockActual());
+        assertEquals(0.0, insumos.get(0).getSubInsumos().get(1).getStockActual());
+        assertSame(insumos.get(0).getSubInsumos(), insumos.get(1).getSubInsumos());
+        verify(transaccionAlmacenRepo).findTotalCantidadByProductoIds(Set.of("M-1", "M-2", "S-1"));
+        verify(transaccionAlmacenRepo, never()).findTotalCantidadByProductoId(any());
+    }
+
+    private static Insumo insumo(Producto producto, double cantidadRequerida) {
+        Insumo insumo = new Insumo();
+        insumo.setProducto(producto);
+        insumo.setCantidadRequerida(cantidadRequerida);
+        return insumo;
+    }
+
     private static Material material(String productoId, boolean inventareable) {
         Material material = new Material();
         material.setProductoId(productoId);